@@ -18,7 +18,9 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.trino.execution.DynamicFilterConfig;
 import io.trino.execution.QueryManagerConfig;
+import io.trino.execution.RetryPolicy;
 import io.trino.execution.TaskManagerConfig;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.execution.scheduler.NodeSchedulerConfig;
 import io.trino.memory.MemoryManagerConfig;
 import io.trino.memory.NodeMemoryConfig;
@@ -42,6 +44,7 @@ import static io.trino.spi.session.PropertyMetadata.booleanProperty;
 import static io.trino.spi.session.PropertyMetadata.doubleProperty;
 import static io.trino.spi.session.PropertyMetadata.enumProperty;
 import static io.trino.spi.session.PropertyMetadata.integerProperty;
+import static io.trino.spi.session.PropertyMetadata.longProperty;
 import static io.trino.spi.session.PropertyMetadata.stringProperty;
 import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.spi.type.TimeZoneKey.getTimeZoneKey;
@@ -53,8 +56,18 @@ public final class SystemSessionProperties
     public static final String OPTIMIZE_HASH_GENERATION = "optimize_hash_generation";
     public static final String JOIN_DISTRIBUTION_TYPE = "join_distribution_type";
     public static final String JOIN_MAX_BROADCAST_TABLE_SIZE = "join_max_broadcast_table_size";
+    public static final String ADAPTIVE_JOIN_DISTRIBUTION_ENABLED = "adaptive_join_distribution_enabled";
+    public static final String ADAPTIVE_JOIN_MAX_BROADCAST_BUILD_SIZE = "adaptive_join_max_broadcast_build_size";
+    public static final String MERGE_JOIN_ENABLED = "merge_join_enabled";
     public static final String DISTRIBUTED_INDEX_JOIN = "distributed_index_join";
     public static final String HASH_PARTITION_COUNT = "hash_partition_count";
+    public static final String ADAPTIVE_HASH_PARTITION_COUNT_ENABLED = "adaptive_hash_partition_count_enabled";
+    public static final String TARGET_INPUT_SIZE_PER_HASH_PARTITION = "target_input_size_per_hash_partition";
+    public static final String RETRY_POLICY = "retry_policy";
+    public static final String TASK_RETRY_ATTEMPTS = "task_retry_attempts";
+    public static final String RESULT_CACHE_ENABLED = "result_cache_enabled";
+    public static final String FRAGMENT_RESULT_CACHE_ENABLED = "fragment_result_cache_enabled";
+    public static final String PLAN_CACHE_ENABLED = "plan_cache_enabled";
     public static final String GROUPED_EXECUTION = "grouped_execution";
     public static final String DYNAMIC_SCHEDULE_FOR_GROUPED_EXECUTION = "dynamic_schedule_for_grouped_execution";
     public static final String PREFER_STREAMING_OPERATORS = "prefer_streaming_operators";
@@ -78,6 +91,12 @@ public final class SystemSessionProperties
     public static final String PUSH_TABLE_WRITE_THROUGH_UNION = "push_table_write_through_union";
     public static final String EXECUTION_POLICY = "execution_policy";
     public static final String DICTIONARY_AGGREGATION = "dictionary_aggregation";
+    public static final String FLAT_GROUP_BY_HASH = "flat_group_by_hash";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_ENABLED = "adaptive_partial_aggregation_enabled";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS = "adaptive_partial_aggregation_min_rows";
+    public static final String ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD = "adaptive_partial_aggregation_unique_rows_ratio_threshold";
+    public static final String SKEWED_PARTITION_KEY_DETECTION_ENABLED = "skewed_partition_key_detection_enabled";
+    public static final String SKEWED_PARTITION_KEY_FACTOR = "skewed_partition_key_factor";
     public static final String USE_TABLE_SCAN_NODE_PARTITIONING = "use_table_scan_node_partitioning";
     public static final String TABLE_SCAN_NODE_PARTITIONING_MIN_BUCKET_TO_TASK_RATIO = "table_scan_node_partitioning_min_bucket_to_task_ratio";
     public static final String SPATIAL_JOIN = "spatial_join";
@@ -94,10 +113,13 @@ public final class SystemSessionProperties
     public static final String SPILL_ORDER_BY = "spill_order_by";
     public static final String SPILL_WINDOW_OPERATOR = "spill_window_operator";
     public static final String AGGREGATION_OPERATOR_UNSPILL_MEMORY_LIMIT = "aggregation_operator_unspill_memory_limit";
+    public static final String JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT = "join_operator_unspill_memory_limit";
     public static final String OPTIMIZE_DISTINCT_AGGREGATIONS = "optimize_mixed_distinct_aggregations";
     public static final String ITERATIVE_OPTIMIZER_TIMEOUT = "iterative_optimizer_timeout";
     public static final String ENABLE_FORCED_EXCHANGE_BELOW_GROUP_ID = "enable_forced_exchange_below_group_id";
     public static final String EXCHANGE_COMPRESSION = "exchange_compression";
+    public static final String EXCHANGE_COMPRESSION_CODEC = "exchange_compression_codec";
+    public static final String EXCHANGE_ADAPTIVE_COMPRESSION = "exchange_adaptive_compression";
     public static final String ENABLE_INTERMEDIATE_AGGREGATIONS = "enable_intermediate_aggregations";
     public static final String PUSH_AGGREGATION_THROUGH_OUTER_JOIN = "push_aggregation_through_outer_join";
     public static final String PUSH_PARTIAL_AGGREGATION_THROUGH_JOIN = "push_partial_aggregation_through_join";
@@ -127,6 +149,7 @@ public final class SystemSessionProperties
     public static final String LATE_MATERIALIZATION = "late_materialization";
     public static final String ENABLE_DYNAMIC_FILTERING = "enable_dynamic_filtering";
     public static final String ENABLE_LARGE_DYNAMIC_FILTERS = "enable_large_dynamic_filters";
+    public static final String ENABLE_BLOOM_FILTER_DYNAMIC_FILTERS = "enable_bloom_filter_dynamic_filters";
     public static final String QUERY_MAX_MEMORY_PER_NODE = "query_max_memory_per_node";
     public static final String QUERY_MAX_TOTAL_MEMORY_PER_NODE = "query_max_total_memory_per_node";
     public static final String IGNORE_DOWNSTREAM_PREFERENCES = "ignore_downstream_preferences";
@@ -181,6 +204,21 @@ public final class SystemSessionProperties
                         "Maximum estimated size of a table that can be broadcast when using automatic join type selection",
                         featuresConfig.getJoinMaxBroadcastTableSize(),
                         false),
+                booleanProperty(
+                        ADAPTIVE_JOIN_DISTRIBUTION_ENABLED,
+                        "Execute the query again with a partitioned join, when the build side of a broadcast join is larger than expected",
+                        featuresConfig.isAdaptiveJoinDistributionEnabled(),
+                        false),
+                dataSizeProperty(
+                        ADAPTIVE_JOIN_MAX_BROADCAST_BUILD_SIZE,
+                        "Maximum observed size of the build side of a broadcast join, before the join is switched to partitioned distribution",
+                        featuresConfig.getAdaptiveJoinMaxBroadcastBuildSize(),
+                        false),
+                booleanProperty(
+                        MERGE_JOIN_ENABLED,
+                        "Use a merge join instead of a hash join when both inputs are sorted on the join keys and the merge join is cheaper",
+                        featuresConfig.isMergeJoinEnabled(),
+                        false),
                 booleanProperty(
                         DISTRIBUTED_INDEX_JOIN,
                         "Distribute index joins on join keys instead of executing inline",
@@ -191,6 +229,43 @@ public final class SystemSessionProperties
                         "Number of partitions for distributed joins and aggregations",
                         queryManagerConfig.getInitialHashPartitions(),
                         false),
+                booleanProperty(
+                        ADAPTIVE_HASH_PARTITION_COUNT_ENABLED,
+                        "Choose the number of hash partitions of a stage based on the estimated size of its input",
+                        queryManagerConfig.isAdaptiveHashPartitionCountEnabled(),
+                        false),
+                dataSizeProperty(
+                        TARGET_INPUT_SIZE_PER_HASH_PARTITION,
+                        "Target size of input of a hash partition, when the number of hash partitions is adaptive",
+                        queryManagerConfig.getTargetInputSizePerHashPartition(),
+                        false),
+                enumProperty(
+                        RETRY_POLICY,
+                        "Policy for retrying failed tasks",
+                        RetryPolicy.class,
+                        queryManagerConfig.getRetryPolicy(),
+                        false),
+                integerProperty(
+                        TASK_RETRY_ATTEMPTS,
+                        "Maximum number of times a failed task is executed again, when the retry policy is TASK",
+                        queryManagerConfig.getTaskRetryAttempts(),
+                        value -> validateIntegerValue(value, TASK_RETRY_ATTEMPTS, 0, false),
+                        false),
+                booleanProperty(
+                        RESULT_CACHE_ENABLED,
+                        "Reuse the results of identical queries over unchanged tables",
+                        queryManagerConfig.isResultCacheEnabled(),
+                        false),
+                booleanProperty(
+                        FRAGMENT_RESULT_CACHE_ENABLED,
+                        "Reuse the output of leaf fragments for splits of unchanged tables",
+                        queryManagerConfig.isFragmentResultCacheEnabled(),
+                        false),
+                booleanProperty(
+                        PLAN_CACHE_ENABLED,
+                        "Reuse the plans of prepared statements executed with the same parameters",
+                        queryManagerConfig.isPlanCacheEnabled(),
+                        false),
                 booleanProperty(
                         GROUPED_EXECUTION,
                         "Use grouped execution when possible",
@@ -308,6 +383,41 @@ public final class SystemSessionProperties
                         "Enable optimization for aggregations on dictionaries",
                         featuresConfig.isDictionaryAggregation(),
                         false),
+                booleanProperty(
+                        FLAT_GROUP_BY_HASH,
+                        "Use flat row-wise hash table for aggregations on fixed width and varchar keys",
+                        featuresConfig.isFlatGroupByHash(),
+                        false),
+                booleanProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_ENABLED,
+                        "Skip partial aggregation when it does not reduce the number of rows",
+                        featuresConfig.isAdaptivePartialAggregationEnabled(),
+                        false),
+                longProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS,
+                        "Minimum number of rows a partial aggregation must process before it can be skipped",
+                        featuresConfig.getAdaptivePartialAggregationMinRows(),
+                        false),
+                doubleProperty(
+                        ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD,
+                        "Skip partial aggregation when the ratio of unique groups to input rows is above this threshold",
+                        featuresConfig.getAdaptivePartialAggregationUniqueRowsRatioThreshold(),
+                        false),
+                booleanProperty(
+                        SKEWED_PARTITION_KEY_DETECTION_ENABLED,
+                        "Sample the keys of hash partitioned exchanges and report keys that are sent to one partition much more often than others",
+                        featuresConfig.isSkewedPartitionKeyDetectionEnabled(),
+                        false),
+                doubleProperty(
+                        SKEWED_PARTITION_KEY_FACTOR,
+                        "A key is skewed when its share of rows is at least this many times the share of an average partition",
+                        featuresConfig.getSkewedPartitionKeyFactor(),
+                        value -> {
+                            if (value <= 1.0) {
+                                throw new TrinoException(INVALID_SESSION_PROPERTY, format("%s must be greater than 1: %s", SKEWED_PARTITION_KEY_FACTOR, value));
+                            }
+                        },
+                        false),
                 integerProperty(
                         INITIAL_SPLITS_PER_NODE,
                         "The number of splits each node will run per task, initially",
@@ -399,6 +509,11 @@ public final class SystemSessionProperties
                         "How much memory should be allocated per aggregation operator in unspilling process",
                         featuresConfig.getAggregationOperatorUnspillMemoryLimit(),
                         false),
+                dataSizeProperty(
+                        JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT,
+                        "Spilled join build partition larger than this is re-partitioned instead of being unspilled at once",
+                        featuresConfig.getJoinOperatorUnspillMemoryLimit(),
+                        false),
                 booleanProperty(
                         OPTIMIZE_DISTINCT_AGGREGATIONS,
                         "Optimize mixed non-distinct and distinct aggregations",
@@ -419,6 +534,17 @@ public final class SystemSessionProperties
                         "Enable compression in exchanges",
                         featuresConfig.isExchangeCompressionEnabled(),
                         false),
+                enumProperty(
+                        EXCHANGE_COMPRESSION_CODEC,
+                        "Compression codec used in exchanges when exchange compression is enabled",
+                        CompressionCodec.class,
+                        featuresConfig.getExchangeCompressionCodec(),
+                        false),
+                booleanProperty(
+                        EXCHANGE_ADAPTIVE_COMPRESSION,
+                        "Stop compressing exchange pages for a while after pages do not compress well",
+                        featuresConfig.isExchangeAdaptiveCompressionEnabled(),
+                        false),
                 booleanProperty(
                         ENABLE_INTERMEDIATE_AGGREGATIONS,
                         "Enable the use of intermediate aggregations",
@@ -575,6 +701,11 @@ public final class SystemSessionProperties
                         "Enable collection of large dynamic filters",
                         dynamicFilterConfig.isEnableLargeDynamicFilters(),
                         false),
+                booleanProperty(
+                        ENABLE_BLOOM_FILTER_DYNAMIC_FILTERS,
+                        "Collect Bloom filters for dynamic filters which exceed the distinct values limits",
+                        dynamicFilterConfig.isEnableBloomFilterDynamicFilters(),
+                        false),
                 dataSizeProperty(
                         QUERY_MAX_MEMORY_PER_NODE,
                         "Maximum amount of memory a query can use per node",
@@ -681,6 +812,21 @@ public final class SystemSessionProperties
         return session.getSystemProperty(JOIN_MAX_BROADCAST_TABLE_SIZE, DataSize.class);
     }
 
+    public static boolean isAdaptiveJoinDistributionEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_JOIN_DISTRIBUTION_ENABLED, Boolean.class);
+    }
+
+    public static DataSize getAdaptiveJoinMaxBroadcastBuildSize(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_JOIN_MAX_BROADCAST_BUILD_SIZE, DataSize.class);
+    }
+
+    public static boolean isMergeJoinEnabled(Session session)
+    {
+        return session.getSystemProperty(MERGE_JOIN_ENABLED, Boolean.class);
+    }
+
     public static boolean isDistributedIndexJoinEnabled(Session session)
     {
         return session.getSystemProperty(DISTRIBUTED_INDEX_JOIN, Boolean.class);
@@ -691,9 +837,47 @@ public final class SystemSessionProperties
         return session.getSystemProperty(HASH_PARTITION_COUNT, Integer.class);
     }
 
+    public static boolean isAdaptiveHashPartitionCountEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_HASH_PARTITION_COUNT_ENABLED, Boolean.class);
+    }
+
+    public static DataSize getTargetInputSizePerHashPartition(Session session)
+    {
+        DataSize targetInputSize = session.getSystemProperty(TARGET_INPUT_SIZE_PER_HASH_PARTITION, DataSize.class);
+        checkArgument(targetInputSize.toBytes() > 0, "%s must be positive", TARGET_INPUT_SIZE_PER_HASH_PARTITION);
+        return targetInputSize;
+    }
+
+    public static RetryPolicy getRetryPolicy(Session session)
+    {
+        return session.getSystemProperty(RETRY_POLICY, RetryPolicy.class);
+    }
+
+    public static int getTaskRetryAttempts(Session session)
+    {
+        return session.getSystemProperty(TASK_RETRY_ATTEMPTS, Integer.class);
+    }
+
+    public static boolean isResultCacheEnabled(Session session)
+    {
+        return session.getSystemProperty(RESULT_CACHE_ENABLED, Boolean.class);
+    }
+
+    public static boolean isFragmentResultCacheEnabled(Session session)
+    {
+        return session.getSystemProperty(FRAGMENT_RESULT_CACHE_ENABLED, Boolean.class);
+    }
+
+    public static boolean isPlanCacheEnabled(Session session)
+    {
+        return session.getSystemProperty(PLAN_CACHE_ENABLED, Boolean.class);
+    }
+
     public static boolean isGroupedExecutionEnabled(Session session)
     {
-        return session.getSystemProperty(GROUPED_EXECUTION, Boolean.class);
+        // lifespans are not tracked for tasks that are retried
+        return session.getSystemProperty(GROUPED_EXECUTION, Boolean.class) && getRetryPolicy(session) != RetryPolicy.TASK;
     }
 
     public static boolean isDynamicScheduleForGroupedExecution(Session session)
@@ -728,7 +912,8 @@ public final class SystemSessionProperties
 
     public static boolean isScaleWriters(Session session)
     {
-        return session.getSystemProperty(SCALE_WRITERS, Boolean.class);
+        // writers are scaled based on the utilization of output buffers, which are not used for spooled output
+        return session.getSystemProperty(SCALE_WRITERS, Boolean.class) && getRetryPolicy(session) != RetryPolicy.TASK;
     }
 
     public static DataSize getWriterMinSize(Session session)
@@ -756,6 +941,36 @@ public final class SystemSessionProperties
         return session.getSystemProperty(DICTIONARY_AGGREGATION, Boolean.class);
     }
 
+    public static boolean isFlatGroupByHashEnabled(Session session)
+    {
+        return session.getSystemProperty(FLAT_GROUP_BY_HASH, Boolean.class);
+    }
+
+    public static boolean isAdaptivePartialAggregationEnabled(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_ENABLED, Boolean.class);
+    }
+
+    public static long getAdaptivePartialAggregationMinRows(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_MIN_ROWS, Long.class);
+    }
+
+    public static double getAdaptivePartialAggregationUniqueRowsRatioThreshold(Session session)
+    {
+        return session.getSystemProperty(ADAPTIVE_PARTIAL_AGGREGATION_UNIQUE_ROWS_RATIO_THRESHOLD, Double.class);
+    }
+
+    public static boolean isSkewedPartitionKeyDetectionEnabled(Session session)
+    {
+        return session.getSystemProperty(SKEWED_PARTITION_KEY_DETECTION_ENABLED, Boolean.class);
+    }
+
+    public static double getSkewedPartitionKeyFactor(Session session)
+    {
+        return session.getSystemProperty(SKEWED_PARTITION_KEY_FACTOR, Double.class);
+    }
+
     public static boolean isOptimizeMetadataQueries(Session session)
     {
         return session.getSystemProperty(OPTIMIZE_METADATA_QUERIES, Boolean.class);
@@ -890,6 +1105,13 @@ public final class SystemSessionProperties
         return memoryLimitForMerge;
     }
 
+    public static DataSize getJoinOperatorUnspillMemoryLimit(Session session)
+    {
+        DataSize unspillMemoryLimit = session.getSystemProperty(JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT, DataSize.class);
+        checkArgument(unspillMemoryLimit.toBytes() >= 0, "%s must be positive", JOIN_OPERATOR_UNSPILL_MEMORY_LIMIT);
+        return unspillMemoryLimit;
+    }
+
     public static boolean isOptimizeDistinctAggregationEnabled(Session session)
     {
         return session.getSystemProperty(OPTIMIZE_DISTINCT_AGGREGATIONS, Boolean.class);
@@ -910,6 +1132,19 @@ public final class SystemSessionProperties
         return session.getSystemProperty(EXCHANGE_COMPRESSION, Boolean.class);
     }
 
+    public static CompressionCodec getExchangeCompressionCodec(Session session)
+    {
+        if (!isExchangeCompressionEnabled(session)) {
+            return CompressionCodec.NONE;
+        }
+        return session.getSystemProperty(EXCHANGE_COMPRESSION_CODEC, CompressionCodec.class);
+    }
+
+    public static boolean isExchangeAdaptiveCompressionEnabled(Session session)
+    {
+        return session.getSystemProperty(EXCHANGE_ADAPTIVE_COMPRESSION, Boolean.class);
+    }
+
     public static boolean isEnableIntermediateAggregations(Session session)
     {
         return session.getSystemProperty(ENABLE_INTERMEDIATE_AGGREGATIONS, Boolean.class);
@@ -1083,7 +1318,8 @@ public final class SystemSessionProperties
 
     public static boolean isEnableDynamicFiltering(Session session)
     {
-        return session.getSystemProperty(ENABLE_DYNAMIC_FILTERING, Boolean.class);
+        // dynamic filters collected from failed tasks could not be withdrawn
+        return session.getSystemProperty(ENABLE_DYNAMIC_FILTERING, Boolean.class) && getRetryPolicy(session) != RetryPolicy.TASK;
     }
 
     public static boolean isEnableLargeDynamicFilters(Session session)
@@ -1091,6 +1327,11 @@ public final class SystemSessionProperties
         return session.getSystemProperty(ENABLE_LARGE_DYNAMIC_FILTERS, Boolean.class);
     }
 
+    public static boolean isEnableBloomFilterDynamicFilters(Session session)
+    {
+        return session.getSystemProperty(ENABLE_BLOOM_FILTER_DYNAMIC_FILTERS, Boolean.class);
+    }
+
     public static DataSize getQueryMaxMemoryPerNode(Session session)
     {
         return session.getSystemProperty(QUERY_MAX_MEMORY_PER_NODE, DataSize.class);
@@ -26,6 +26,7 @@ import io.trino.sql.planner.plan.ExchangeNode;
 import io.trino.sql.planner.plan.FilterNode;
 import io.trino.sql.planner.plan.JoinNode;
 import io.trino.sql.planner.plan.LimitNode;
+import io.trino.sql.planner.plan.MergeJoinNode;
 import io.trino.sql.planner.plan.OutputNode;
 import io.trino.sql.planner.plan.PlanNode;
 import io.trino.sql.planner.plan.PlanVisitor;
@@ -190,6 +191,24 @@ public class CostCalculatorUsingExchanges
             return costForLookupJoin(node, localCost);
         }
 
+        @Override
+        public PlanCostEstimate visitMergeJoin(MergeJoinNode node, Void context)
+        {
+            // both inputs are read once in the order of the join keys, and only the rows
+            // of the right input with the current key are retained
+            LocalCostEstimate joinInputCost = calculateJoinInputCost(
+                    node.getLeft(),
+                    node.getRight(),
+                    stats,
+                    types,
+                    false,
+                    taskCountEstimator.estimateSourceDistributedTaskCount(session));
+            LocalCostEstimate localCost = addPartialComponents(
+                    LocalCostEstimate.ofCpu(joinInputCost.getCpuCost()),
+                    calculateJoinOutputCost(node));
+            return costForStreaming(node, localCost);
+        }
+
         private LocalCostEstimate calculateJoinCost(PlanNode join, PlanNode probe, PlanNode build, boolean replicated)
         {
             LocalCostEstimate joinInputCost = calculateJoinInputCost(
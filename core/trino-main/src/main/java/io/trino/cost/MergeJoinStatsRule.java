@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.cost;
+
+import com.google.common.collect.ImmutableMap;
+import io.trino.Session;
+import io.trino.matching.Pattern;
+import io.trino.sql.planner.TypeProvider;
+import io.trino.sql.planner.iterative.Lookup;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.MergeJoinNode;
+
+import java.util.Optional;
+
+import static io.trino.sql.planner.plan.Patterns.mergeJoin;
+
+/**
+ * A merge join produces the same rows as a hash join with the same criteria,
+ * so its statistics are estimated as the statistics of the equivalent join.
+ */
+public class MergeJoinStatsRule
+        extends SimpleStatsRule<MergeJoinNode>
+{
+    private static final Pattern<MergeJoinNode> PATTERN = mergeJoin();
+
+    private final JoinStatsRule joinStatsRule;
+
+    public MergeJoinStatsRule(FilterStatsCalculator filterStatsCalculator, StatsNormalizer normalizer)
+    {
+        super(normalizer);
+        this.joinStatsRule = new JoinStatsRule(filterStatsCalculator, normalizer);
+    }
+
+    @Override
+    public Pattern<MergeJoinNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    @Override
+    protected Optional<PlanNodeStatsEstimate> doCalculate(MergeJoinNode node, StatsProvider sourceStats, Lookup lookup, Session session, TypeProvider types)
+    {
+        JoinNode join = new JoinNode(
+                node.getId(),
+                node.getType(),
+                node.getLeft(),
+                node.getRight(),
+                node.getCriteria(),
+                node.getLeftOutputSymbols(),
+                node.getRightOutputSymbols(),
+                false,
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                ImmutableMap.of(),
+                Optional.empty());
+        return joinStatsRule.calculate(join, sourceStats, lookup, session, types);
+    }
+}
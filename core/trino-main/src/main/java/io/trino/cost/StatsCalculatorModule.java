@@ -76,6 +76,7 @@ public class StatsCalculatorModule
             rules.add(new ExchangeStatsRule(normalizer));
             rules.add(new JoinStatsRule(filterStatsCalculator, normalizer));
             rules.add(new SpatialJoinStatsRule(filterStatsCalculator, normalizer));
+            rules.add(new MergeJoinStatsRule(filterStatsCalculator, normalizer));
             rules.add(new AggregationStatsRule(normalizer));
             rules.add(new UnionStatsRule(normalizer));
             rules.add(new AssignUniqueIdStatsRule());
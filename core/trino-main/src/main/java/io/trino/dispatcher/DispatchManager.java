@@ -76,7 +76,7 @@ public class DispatchManager
 
     private final QueryTracker<DispatchQuery> queryTracker;
 
-    private final QueryManagerStats stats = new QueryManagerStats();
+    private final QueryManagerStats stats;
 
     @Inject
     public DispatchManager(
@@ -90,7 +90,8 @@ public class DispatchManager
             SessionSupplier sessionSupplier,
             SessionPropertyDefaults sessionPropertyDefaults,
             QueryManagerConfig queryManagerConfig,
-            DispatchExecutor dispatchExecutor)
+            DispatchExecutor dispatchExecutor,
+            QueryManagerStats stats)
     {
         this.queryIdGenerator = requireNonNull(queryIdGenerator, "queryIdGenerator is null");
         this.queryPreparer = requireNonNull(queryPreparer, "queryPreparer is null");
@@ -108,6 +109,7 @@ public class DispatchManager
         this.dispatchExecutor = requireNonNull(dispatchExecutor, "dispatchExecutor is null").getExecutor();
 
         this.queryTracker = new QueryTracker<>(queryManagerConfig, dispatchExecutor.getScheduledExecutor());
+        this.stats = requireNonNull(stats, "stats is null");
     }
 
     @PostConstruct
@@ -13,6 +13,7 @@
  */
 package io.trino.execution;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -29,8 +30,18 @@ import io.trino.server.BasicQueryInfo;
 import io.trino.server.protocol.Slug;
 import io.trino.spi.QueryId;
 import io.trino.sql.planner.Plan;
+import io.trino.sql.tree.Deallocate;
 import io.trino.sql.tree.Expression;
+import io.trino.sql.tree.Prepare;
+import io.trino.sql.tree.ResetSession;
+import io.trino.sql.tree.Rollback;
+import io.trino.sql.tree.SetPath;
+import io.trino.sql.tree.SetRole;
+import io.trino.sql.tree.SetSession;
+import io.trino.sql.tree.SetTimeZone;
+import io.trino.sql.tree.StartTransaction;
 import io.trino.sql.tree.Statement;
+import io.trino.sql.tree.Use;
 import io.trino.transaction.TransactionManager;
 import org.joda.time.DateTime;
 
@@ -40,6 +51,7 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
@@ -51,6 +63,19 @@ import static java.util.concurrent.TimeUnit.NANOSECONDS;
 public class DataDefinitionExecution<T extends Statement>
         implements QueryExecution
 {
+    // statements that only change the state of the session, and cannot change the plans of other queries
+    private static final Set<Class<? extends Statement>> SESSION_STATEMENTS = ImmutableSet.of(
+            Deallocate.class,
+            Prepare.class,
+            ResetSession.class,
+            Rollback.class,
+            SetPath.class,
+            SetRole.class,
+            SetSession.class,
+            SetTimeZone.class,
+            StartTransaction.class,
+            Use.class);
+
     private final DataDefinitionTask<T> task;
     private final T statement;
     private final Slug slug;
@@ -60,6 +85,7 @@ public class DataDefinitionExecution<T extends Statement>
     private final QueryStateMachine stateMachine;
     private final List<Expression> parameters;
     private final WarningCollector warningCollector;
+    private final PlanCache planCache;
 
     private DataDefinitionExecution(
             DataDefinitionTask<T> task,
@@ -70,7 +96,8 @@ public class DataDefinitionExecution<T extends Statement>
             AccessControl accessControl,
             QueryStateMachine stateMachine,
             List<Expression> parameters,
-            WarningCollector warningCollector)
+            WarningCollector warningCollector,
+            PlanCache planCache)
     {
         this.task = requireNonNull(task, "task is null");
         this.statement = requireNonNull(statement, "statement is null");
@@ -81,6 +108,7 @@ public class DataDefinitionExecution<T extends Statement>
         this.stateMachine = requireNonNull(stateMachine, "stateMachine is null");
         this.parameters = parameters;
         this.warningCollector = requireNonNull(warningCollector, "warningCollector is null");
+        this.planCache = requireNonNull(planCache, "planCache is null");
     }
 
     @Override
@@ -173,6 +201,9 @@ public class DataDefinitionExecution<T extends Statement>
                 @Override
                 public void onSuccess(@Nullable Void result)
                 {
+                    if (!SESSION_STATEMENTS.contains(statement.getClass())) {
+                        planCache.invalidate(stateMachine.getSession(), statement);
+                    }
                     stateMachine.transitionToFinishing();
                 }
 
@@ -297,18 +328,21 @@ public class DataDefinitionExecution<T extends Statement>
         private final Metadata metadata;
         private final AccessControl accessControl;
         private final Map<Class<? extends Statement>, DataDefinitionTask<?>> tasks;
+        private final PlanCache planCache;
 
         @Inject
         public DataDefinitionExecutionFactory(
                 TransactionManager transactionManager,
                 Metadata metadata,
                 AccessControl accessControl,
-                Map<Class<? extends Statement>, DataDefinitionTask<?>> tasks)
+                Map<Class<? extends Statement>, DataDefinitionTask<?>> tasks,
+                PlanCache planCache)
         {
             this.transactionManager = requireNonNull(transactionManager, "transactionManager is null");
             this.metadata = requireNonNull(metadata, "metadata is null");
             this.accessControl = requireNonNull(accessControl, "accessControl is null");
             this.tasks = requireNonNull(tasks, "tasks is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
         }
 
         @Override
@@ -333,7 +367,7 @@ public class DataDefinitionExecution<T extends Statement>
             checkArgument(task != null, "no task for statement: %s", statement.getClass().getSimpleName());
 
             stateMachine.setUpdateType(task.getName());
-            return new DataDefinitionExecution<>(task, statement, slug, transactionManager, metadata, accessControl, stateMachine, parameters, warningCollector);
+            return new DataDefinitionExecution<>(task, statement, slug, transactionManager, metadata, accessControl, stateMachine, parameters, warningCollector, planCache);
         }
     }
 }
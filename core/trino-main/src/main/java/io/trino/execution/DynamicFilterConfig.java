@@ -22,6 +22,7 @@ import io.airlift.units.MaxDataSize;
 import javax.validation.constraints.Min;
 
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 @DefunctConfig({
         "dynamic-filtering-max-per-driver-row-count",
@@ -35,6 +36,8 @@ public class DynamicFilterConfig
 {
     private boolean enableDynamicFiltering = true;
     private boolean enableLargeDynamicFilters;
+    private boolean enableBloomFilterDynamicFilters;
+    private DataSize bloomFilterMaxSizePerDriver = DataSize.of(1, MEGABYTE);
     private int serviceThreadCount = 2;
 
     private int smallBroadcastMaxDistinctValuesPerDriver = 200;
@@ -76,6 +79,31 @@ public class DynamicFilterConfig
         return this;
     }
 
+    public boolean isEnableBloomFilterDynamicFilters()
+    {
+        return enableBloomFilterDynamicFilters;
+    }
+
+    @Config("enable-bloom-filter-dynamic-filters")
+    public DynamicFilterConfig setEnableBloomFilterDynamicFilters(boolean enableBloomFilterDynamicFilters)
+    {
+        this.enableBloomFilterDynamicFilters = enableBloomFilterDynamicFilters;
+        return this;
+    }
+
+    @MaxDataSize("64MB")
+    public DataSize getBloomFilterMaxSizePerDriver()
+    {
+        return bloomFilterMaxSizePerDriver;
+    }
+
+    @Config("dynamic-filtering.bloom-filter.max-size-per-driver")
+    public DynamicFilterConfig setBloomFilterMaxSizePerDriver(DataSize bloomFilterMaxSizePerDriver)
+    {
+        this.bloomFilterMaxSizePerDriver = bloomFilterMaxSizePerDriver;
+        return this;
+    }
+
     @Min(1)
     public int getServiceThreadCount()
     {
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.airlift.units.DataSize;
+import io.trino.sql.planner.plan.PlanNodeId;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A broadcast join that was switched to partitioned distribution while the query was
+ * running, because the build side received more data than a task may broadcast.
+ */
+@Immutable
+public final class JoinDistributionSwitch
+{
+    private final PlanNodeId joinNodeId;
+    private final DataSize maxBroadcastBuildSize;
+
+    @JsonCreator
+    public JoinDistributionSwitch(
+            @JsonProperty("joinNodeId") PlanNodeId joinNodeId,
+            @JsonProperty("maxBroadcastBuildSize") DataSize maxBroadcastBuildSize)
+    {
+        this.joinNodeId = requireNonNull(joinNodeId, "joinNodeId is null");
+        this.maxBroadcastBuildSize = requireNonNull(maxBroadcastBuildSize, "maxBroadcastBuildSize is null");
+    }
+
+    @JsonProperty
+    public PlanNodeId getJoinNodeId()
+    {
+        return joinNodeId;
+    }
+
+    @JsonProperty
+    public DataSize getMaxBroadcastBuildSize()
+    {
+        return maxBroadcastBuildSize;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JoinDistributionSwitch that = (JoinDistributionSwitch) o;
+        return joinNodeId.equals(that.joinNodeId) &&
+                maxBroadcastBuildSize.equals(that.maxBroadcastBuildSize);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(joinNodeId, maxBroadcastBuildSize);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("joinNodeId", joinNodeId)
+                .add("maxBroadcastBuildSize", maxBroadcastBuildSize)
+                .toString();
+    }
+}
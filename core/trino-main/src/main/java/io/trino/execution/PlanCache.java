@@ -0,0 +1,718 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.Duration;
+import io.trino.Session;
+import io.trino.connector.CatalogName;
+import io.trino.execution.QueryPreparer.PreparedQuery;
+import io.trino.metadata.Metadata;
+import io.trino.metadata.QualifiedObjectName;
+import io.trino.metadata.TableHandle;
+import io.trino.operator.scalar.ParameterPlaceholderFunction;
+import io.trino.security.AccessControl;
+import io.trino.spi.connector.CatalogSchemaName;
+import io.trino.spi.connector.ConnectorTransactionHandle;
+import io.trino.spi.security.SelectedRole;
+import io.trino.spi.type.TimeZoneKey;
+import io.trino.spi.type.Type;
+import io.trino.sql.SqlPath;
+import io.trino.sql.analyzer.Analysis;
+import io.trino.sql.planner.ExpressionExtractor;
+import io.trino.sql.planner.LiteralEncoder;
+import io.trino.sql.planner.Plan;
+import io.trino.sql.planner.Symbol;
+import io.trino.sql.planner.plan.AggregationNode;
+import io.trino.sql.planner.plan.AggregationNode.Aggregation;
+import io.trino.sql.planner.plan.ExchangeNode;
+import io.trino.sql.planner.plan.ExplainAnalyzeNode;
+import io.trino.sql.planner.plan.FilterNode;
+import io.trino.sql.planner.plan.IndexSourceNode;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.PatternRecognitionNode;
+import io.trino.sql.planner.plan.PlanNode;
+import io.trino.sql.planner.plan.ProjectNode;
+import io.trino.sql.planner.plan.SimplePlanRewriter;
+import io.trino.sql.planner.plan.SpatialJoinNode;
+import io.trino.sql.planner.plan.TableScanNode;
+import io.trino.sql.planner.plan.ValuesNode;
+import io.trino.sql.planner.plan.WindowNode;
+import io.trino.sql.tree.AddColumn;
+import io.trino.sql.tree.Comment;
+import io.trino.sql.tree.CreateMaterializedView;
+import io.trino.sql.tree.CreateSchema;
+import io.trino.sql.tree.CreateTable;
+import io.trino.sql.tree.CreateView;
+import io.trino.sql.tree.CurrentTime;
+import io.trino.sql.tree.DefaultTraversalVisitor;
+import io.trino.sql.tree.DropColumn;
+import io.trino.sql.tree.DropMaterializedView;
+import io.trino.sql.tree.DropSchema;
+import io.trino.sql.tree.DropTable;
+import io.trino.sql.tree.DropView;
+import io.trino.sql.tree.Explain;
+import io.trino.sql.tree.Expression;
+import io.trino.sql.tree.ExpressionRewriter;
+import io.trino.sql.tree.ExpressionTreeRewriter;
+import io.trino.sql.tree.FunctionCall;
+import io.trino.sql.tree.Join;
+import io.trino.sql.tree.JoinOn;
+import io.trino.sql.tree.LongLiteral;
+import io.trino.sql.tree.NodeRef;
+import io.trino.sql.tree.Parameter;
+import io.trino.sql.tree.QualifiedName;
+import io.trino.sql.tree.QuerySpecification;
+import io.trino.sql.tree.RenameColumn;
+import io.trino.sql.tree.RenameSchema;
+import io.trino.sql.tree.RenameTable;
+import io.trino.sql.tree.RenameView;
+import io.trino.sql.tree.Statement;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.trino.SystemSessionProperties.isPlanCacheEnabled;
+import static io.trino.execution.ResultCache.isVolatileFunction;
+import static io.trino.metadata.MetadataUtil.createCatalogSchemaName;
+import static io.trino.metadata.MetadataUtil.createQualifiedObjectName;
+import static io.trino.metadata.ResolvedFunction.extractFunctionName;
+import static io.trino.metadata.ResolvedFunction.isResolved;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.sql.analyzer.ExpressionTreeUtils.extractExpressions;
+import static io.trino.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.trino.sql.planner.ExpressionInterpreter.evaluateConstantExpression;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.trino.sql.util.AstUtils.preOrder;
+import static java.lang.Math.toIntExact;
+import static java.util.Comparator.comparingInt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stores the optimized plans of prepared statements on the coordinator, so that a repeated
+ * {@code EXECUTE} skips the logical planner and the optimizers. The statement is still
+ * analyzed on every execution, because analysis checks access control and resolves the
+ * current table handles. A plan is identified by the text of the prepared statement, the
+ * types of the parameters, the session state that affects planning, and the version tokens
+ * of all tables the statement reads.
+ * <p>
+ * Parameters are planned as calls to {@link ParameterPlaceholderFunction}, which the optimizers
+ * do not fold into the plan, and the calls are replaced with the values of each execution before
+ * the plan is used. Parameters of {@code WHERE} and {@code JOIN ... ON} predicates are planned as
+ * values and are part of the key, so that these predicates are still pushed into table scans and
+ * used for partition pruning and statistics. Parameters that are evaluated during analysis, such
+ * as the row count of {@code LIMIT}, are planned as values, and the plan is only reused for the
+ * same values.
+ * <p>
+ * Table handles of a cached plan belong to the transaction that planned it, so they are
+ * bound to the transaction of the current query before the plan is reused. When a statement
+ * that may change metadata completes, the plans that read the affected tables are discarded.
+ */
+@ThreadSafe
+public class PlanCache
+{
+    private final Metadata metadata;
+    private final AccessControl accessControl;
+    private final LiteralEncoder literalEncoder;
+    private final QueryManagerStats stats;
+    private final Cache<Key, Entry> cache;
+
+    @Inject
+    public PlanCache(Metadata metadata, AccessControl accessControl, QueryManagerStats stats, QueryManagerConfig config)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.accessControl = requireNonNull(accessControl, "accessControl is null");
+        this.literalEncoder = new LiteralEncoder(metadata);
+        this.stats = requireNonNull(stats, "stats is null");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(config.getPlanCacheMaxEntries())
+                .build();
+    }
+
+    /**
+     * Returns the key of the plan of the analyzed statement, or empty if the plan cannot be cached.
+     */
+    public Optional<Key> createKey(Session session, PreparedQuery preparedQuery, Analysis analysis)
+    {
+        if (!isPlanCacheEnabled(session) || preparedQuery.getPrepareSql().isEmpty()) {
+            return Optional.empty();
+        }
+
+        // a statement that writes data must be planned against the current state of its target
+        if (analysis.getUpdateType() != null || analysis.getStatement() instanceof Explain) {
+            return Optional.empty();
+        }
+
+        // the optimizer folds these functions into constants
+        boolean callsVolatileFunction = analysis.getResolvedFunctions().stream()
+                .anyMatch(function -> isVolatileFunction(metadata, function));
+        boolean readsCurrentTime = analysis.getTypes().keySet().stream()
+                .anyMatch(expression -> expression.getNode() instanceof CurrentTime);
+        if (callsVolatileFunction || readsCurrentTime) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<String> tableVersions = ImmutableList.builder();
+        for (TableHandle table : analysis.getTables()) {
+            Optional<String> version = metadata.getTableVersionToken(session, table);
+            if (version.isEmpty()) {
+                return Optional.empty();
+            }
+            tableVersions.add(version.get());
+        }
+
+        return Optional.of(new Key(
+                preparedQuery.getPrepareSql().get(),
+                getParameters(analysis).stream()
+                        .map(parameter -> Optional.ofNullable(analysis.getTypes().get(NodeRef.<Expression>of(parameter))))
+                        .collect(toImmutableList()),
+                getParameterValues(analysis, getPredicateParameterPositions(analysis.getStatement())),
+                tableVersions.build(),
+                session.getUser(),
+                session.getIdentity().getGroups(),
+                session.getIdentity().getRoles(),
+                session.getCatalog(),
+                session.getSchema(),
+                session.getPath(),
+                session.getTimeZoneKey(),
+                session.getSystemProperties(),
+                session.getUnprocessedCatalogProperties()));
+    }
+
+    /**
+     * Plans the parameters of the analyzed statement as placeholders, so that the plan can be reused for other parameter values.
+     */
+    public void setParameterPlaceholders(Analysis analysis)
+    {
+        Set<Integer> predicateParameters = getPredicateParameterPositions(analysis.getStatement());
+        for (Parameter parameter : getParameters(analysis)) {
+            // parameters that are evaluated during analysis do not have a type
+            Type type = analysis.getTypes().get(NodeRef.<Expression>of(parameter));
+            // a placeholder is not deterministic, so a predicate that contains it would not be pushed into the table scan
+            if (type != null && !predicateParameters.contains(parameter.getPosition())) {
+                analysis.setParameterPlaceholder(parameter, metadata.resolveFunction(QualifiedName.of(ParameterPlaceholderFunction.NAME), fromTypes(type, BIGINT)));
+            }
+        }
+    }
+
+    /**
+     * Returns the cached plan bound to the transaction and to the parameter values of the analyzed statement.
+     */
+    public Optional<Plan> get(Key key, Session session, Analysis analysis)
+    {
+        Entry entry = cache.getIfPresent(key);
+        if (entry == null || !entry.getPlannedParameterValues().equals(getParameterValues(analysis, entry.getPlannedParameterValues().keySet()))) {
+            stats.planCacheMiss();
+            return Optional.empty();
+        }
+
+        Optional<PlanNode> root = bindTransactions(entry.getPlan().getRoot(), getTransactions(analysis))
+                .flatMap(node -> bindParameters(node, session, analysis));
+        if (root.isEmpty()) {
+            stats.planCacheMiss();
+            return Optional.empty();
+        }
+        stats.planCacheHit(entry.getPlanningTime());
+        return Optional.of(new Plan(root.get(), entry.getPlan().getTypes(), entry.getPlan().getStatsAndCosts()));
+    }
+
+    /**
+     * Stores the plan of the analyzed statement, unless it contains handles that cannot be bound to the
+     * transaction of a later query, and returns the plan bound to the parameter values of the statement.
+     */
+    public Plan put(Key key, Plan plan, Session session, Analysis analysis, Duration planningTime)
+    {
+        PlanNode root = plan.getRoot();
+        Optional<PlanNode> boundRoot = bindParameters(root, session, analysis);
+        if (boundRoot.isEmpty()) {
+            // the placeholders return the values the statement was planned with
+            return plan;
+        }
+
+        boolean unsupportedNode = searchFrom(root)
+                .where(node -> node instanceof ExplainAnalyzeNode ||
+                        node instanceof IndexSourceNode ||
+                        (node instanceof ExchangeNode && ((ExchangeNode) node).getPartitioningScheme().getPartitioning().getHandle().getConnectorId().isPresent()))
+                .matches();
+        if (!unsupportedNode && bindTransactions(root, getTransactions(analysis)).isPresent()) {
+            Set<Integer> placeholderPositions = extractExpressions(ExpressionExtractor.extractExpressions(root), FunctionCall.class).stream()
+                    .filter(PlanCache::isParameterPlaceholder)
+                    .map(PlanCache::getPlaceholderPosition)
+                    .collect(toImmutableSet());
+            Set<Integer> plannedParameters = getParameters(analysis).stream()
+                    .map(Parameter::getPosition)
+                    .filter(position -> !placeholderPositions.contains(position))
+                    .collect(toImmutableSet());
+            Set<QualifiedObjectName> tables = analysis.getReferencedTables().stream()
+                    .map(table -> new QualifiedObjectName(table.getCatalog(), table.getSchema(), table.getTable()))
+                    .collect(toImmutableSet());
+            cache.put(key, new Entry(plan, getParameterValues(analysis, plannedParameters), tables, planningTime));
+        }
+        return new Plan(boundRoot.get(), plan.getTypes(), plan.getStatsAndCosts());
+    }
+
+    /**
+     * Discards the plans that read the tables, views or schemas changed by the statement. All plans are
+     * discarded if the objects changed by the statement are not known.
+     */
+    public void invalidate(Session session, Statement statement)
+    {
+        Optional<Predicate<QualifiedObjectName>> changedObjects = getChangedObjects(session, statement);
+        if (changedObjects.isEmpty()) {
+            invalidateAll();
+            return;
+        }
+        boolean invalidated = cache.asMap().values().removeIf(entry -> entry.getTables().stream().anyMatch(changedObjects.get()));
+        if (invalidated) {
+            stats.planCacheInvalidation();
+        }
+    }
+
+    private void invalidateAll()
+    {
+        if (cache.size() > 0) {
+            stats.planCacheInvalidation();
+        }
+        cache.invalidateAll();
+    }
+
+    private static Optional<Predicate<QualifiedObjectName>> getChangedObjects(Session session, Statement statement)
+    {
+        List<QualifiedName> names;
+        if (statement instanceof CreateTable) {
+            names = ImmutableList.of(((CreateTable) statement).getName());
+        }
+        else if (statement instanceof DropTable) {
+            names = ImmutableList.of(((DropTable) statement).getTableName());
+        }
+        else if (statement instanceof RenameTable) {
+            names = ImmutableList.of(((RenameTable) statement).getSource(), ((RenameTable) statement).getTarget());
+        }
+        else if (statement instanceof AddColumn) {
+            names = ImmutableList.of(((AddColumn) statement).getName());
+        }
+        else if (statement instanceof DropColumn) {
+            names = ImmutableList.of(((DropColumn) statement).getTable());
+        }
+        else if (statement instanceof RenameColumn) {
+            names = ImmutableList.of(((RenameColumn) statement).getTable());
+        }
+        else if (statement instanceof Comment) {
+            Comment comment = (Comment) statement;
+            names = ImmutableList.of(comment.getType() == Comment.Type.COLUMN ? comment.getName().getPrefix().orElseThrow() : comment.getName());
+        }
+        else if (statement instanceof CreateView) {
+            names = ImmutableList.of(((CreateView) statement).getName());
+        }
+        else if (statement instanceof DropView) {
+            names = ImmutableList.of(((DropView) statement).getName());
+        }
+        else if (statement instanceof RenameView) {
+            names = ImmutableList.of(((RenameView) statement).getSource(), ((RenameView) statement).getTarget());
+        }
+        else if (statement instanceof CreateMaterializedView) {
+            names = ImmutableList.of(((CreateMaterializedView) statement).getName());
+        }
+        else if (statement instanceof DropMaterializedView) {
+            names = ImmutableList.of(((DropMaterializedView) statement).getName());
+        }
+        else if (statement instanceof CreateSchema) {
+            CatalogSchemaName schema = createCatalogSchemaName(session, statement, Optional.of(((CreateSchema) statement).getSchemaName()));
+            return Optional.of(table -> isInSchema(table, schema));
+        }
+        else if (statement instanceof DropSchema) {
+            CatalogSchemaName schema = createCatalogSchemaName(session, statement, Optional.of(((DropSchema) statement).getSchemaName()));
+            return Optional.of(table -> isInSchema(table, schema));
+        }
+        else if (statement instanceof RenameSchema) {
+            CatalogSchemaName schema = createCatalogSchemaName(session, statement, Optional.of(((RenameSchema) statement).getSource()));
+            return Optional.of(table -> isInSchema(table, schema));
+        }
+        else {
+            return Optional.empty();
+        }
+
+        Set<QualifiedObjectName> objects = names.stream()
+                .map(name -> createQualifiedObjectName(session, statement, name))
+                .collect(toImmutableSet());
+        return Optional.of(objects::contains);
+    }
+
+    private static boolean isInSchema(QualifiedObjectName table, CatalogSchemaName schema)
+    {
+        return table.getCatalogName().equals(schema.getCatalogName()) && table.getSchemaName().equals(schema.getSchemaName());
+    }
+
+    private static List<Parameter> getParameters(Analysis analysis)
+    {
+        return analysis.getParameters().keySet().stream()
+                .map(NodeRef::getNode)
+                .sorted(comparingInt(Parameter::getPosition))
+                .collect(toImmutableList());
+    }
+
+    /**
+     * Returns the positions of the parameters in {@code WHERE} and {@code JOIN ... ON} predicates, which may be pushed into table scans.
+     */
+    private static Set<Integer> getPredicateParameterPositions(Statement statement)
+    {
+        ImmutableSet.Builder<Integer> positions = ImmutableSet.builder();
+        new DefaultTraversalVisitor<Void>()
+        {
+            @Override
+            protected Void visitQuerySpecification(QuerySpecification node, Void context)
+            {
+                node.getWhere().ifPresent(where -> addParameterPositions(where, positions));
+                return super.visitQuerySpecification(node, context);
+            }
+
+            @Override
+            protected Void visitJoin(Join node, Void context)
+            {
+                node.getCriteria()
+                        .filter(JoinOn.class::isInstance)
+                        .ifPresent(criteria -> addParameterPositions(((JoinOn) criteria).getExpression(), positions));
+                return super.visitJoin(node, context);
+            }
+        }.process(statement, null);
+        return positions.build();
+    }
+
+    private static void addParameterPositions(Expression expression, ImmutableSet.Builder<Integer> positions)
+    {
+        preOrder(expression)
+                .filter(Parameter.class::isInstance)
+                .map(parameter -> ((Parameter) parameter).getPosition())
+                .forEach(positions::add);
+    }
+
+    private static Map<Integer, Expression> getParameterValues(Analysis analysis, Set<Integer> positions)
+    {
+        return analysis.getParameters().entrySet().stream()
+                .filter(entry -> positions.contains(entry.getKey().getNode().getPosition()))
+                .collect(toImmutableMap(entry -> entry.getKey().getNode().getPosition(), Map.Entry::getValue));
+    }
+
+    /**
+     * Replaces the parameter placeholders in the plan with the parameter values of the analyzed statement,
+     * or returns empty if the plan may contain placeholders in nodes that cannot be rewritten.
+     */
+    private Optional<PlanNode> bindParameters(PlanNode root, Session session, Analysis analysis)
+    {
+        if (getParameters(analysis).stream().noneMatch(parameter -> analysis.getParameterPlaceholder(parameter).isPresent())) {
+            return Optional.of(root);
+        }
+        boolean unsupportedNode = searchFrom(root)
+                .where(node -> node instanceof WindowNode || node instanceof SpatialJoinNode || node instanceof PatternRecognitionNode)
+                .matches();
+        if (unsupportedNode) {
+            return Optional.empty();
+        }
+
+        Map<Integer, Expression> values = getParameterValues(analysis, getParameters(analysis).stream()
+                .map(Parameter::getPosition)
+                .collect(toImmutableSet()));
+        ExpressionRewriter<Void> rewriter = new ExpressionRewriter<>()
+        {
+            @Override
+            public Expression rewriteFunctionCall(FunctionCall node, Void context, ExpressionTreeRewriter<Void> treeRewriter)
+            {
+                if (!isParameterPlaceholder(node)) {
+                    return treeRewriter.defaultRewrite(node, context);
+                }
+                Type type = metadata.decodeFunction(node.getName()).getSignature().getReturnType();
+                Object value = evaluateConstantExpression(values.get(getPlaceholderPosition(node)), type, metadata, session, accessControl, analysis.getParameters());
+                return literalEncoder.toExpression(value, type);
+            }
+        };
+        Function<Expression, Expression> bind = expression -> ExpressionTreeRewriter.rewriteWith(rewriter, expression);
+
+        PlanNode boundRoot = SimplePlanRewriter.rewriteWith(new SimplePlanRewriter<Void>()
+        {
+            @Override
+            public PlanNode visitProject(ProjectNode node, RewriteContext<Void> context)
+            {
+                return new ProjectNode(node.getId(), context.rewrite(node.getSource()), node.getAssignments().rewrite(bind));
+            }
+
+            @Override
+            public PlanNode visitFilter(FilterNode node, RewriteContext<Void> context)
+            {
+                return new FilterNode(node.getId(), context.rewrite(node.getSource()), bind.apply(node.getPredicate()));
+            }
+
+            @Override
+            public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+            {
+                return new JoinNode(
+                        node.getId(),
+                        node.getType(),
+                        context.rewrite(node.getLeft()),
+                        context.rewrite(node.getRight()),
+                        node.getCriteria(),
+                        node.getLeftOutputSymbols(),
+                        node.getRightOutputSymbols(),
+                        node.isMaySkipOutputDuplicates(),
+                        node.getFilter().map(bind),
+                        node.getLeftHashSymbol(),
+                        node.getRightHashSymbol(),
+                        node.getDistributionType(),
+                        node.isSpillable(),
+                        node.getDynamicFilters(),
+                        node.getReorderJoinStatsAndCost());
+            }
+
+            @Override
+            public PlanNode visitValues(ValuesNode node, RewriteContext<Void> context)
+            {
+                if (node.getRows().isEmpty()) {
+                    return node;
+                }
+                return new ValuesNode(node.getId(), node.getOutputSymbols(), node.getRows().get().stream()
+                        .map(bind)
+                        .collect(toImmutableList()));
+            }
+
+            @Override
+            public PlanNode visitAggregation(AggregationNode node, RewriteContext<Void> context)
+            {
+                ImmutableMap.Builder<Symbol, Aggregation> aggregations = ImmutableMap.builder();
+                node.getAggregations().forEach((symbol, aggregation) -> aggregations.put(symbol, new Aggregation(
+                        aggregation.getResolvedFunction(),
+                        aggregation.getArguments().stream()
+                                .map(bind)
+                                .collect(toImmutableList()),
+                        aggregation.isDistinct(),
+                        aggregation.getFilter(),
+                        aggregation.getOrderingScheme(),
+                        aggregation.getMask())));
+                return new AggregationNode(
+                        node.getId(),
+                        context.rewrite(node.getSource()),
+                        aggregations.build(),
+                        node.getGroupingSets(),
+                        node.getPreGroupedSymbols(),
+                        node.getStep(),
+                        node.getHashSymbol(),
+                        node.getGroupIdSymbol());
+            }
+        }, root);
+
+        boolean unboundPlaceholder = extractExpressions(ExpressionExtractor.extractExpressions(boundRoot), FunctionCall.class).stream()
+                .anyMatch(PlanCache::isParameterPlaceholder);
+        if (unboundPlaceholder) {
+            return Optional.empty();
+        }
+        return Optional.of(boundRoot);
+    }
+
+    private static boolean isParameterPlaceholder(FunctionCall call)
+    {
+        return isResolved(call.getName()) && extractFunctionName(call.getName()).equals(ParameterPlaceholderFunction.NAME);
+    }
+
+    private static int getPlaceholderPosition(FunctionCall placeholder)
+    {
+        return toIntExact(((LongLiteral) placeholder.getArguments().get(1)).getValue());
+    }
+
+    private static Map<CatalogName, ConnectorTransactionHandle> getTransactions(Analysis analysis)
+    {
+        Map<CatalogName, ConnectorTransactionHandle> transactions = new HashMap<>();
+        for (TableHandle table : analysis.getTables()) {
+            transactions.put(table.getCatalogName(), table.getTransaction());
+        }
+        return transactions;
+    }
+
+    /**
+     * Replaces the transaction of every table handle in the plan, or returns empty if the plan reads
+     * a catalog that has no transaction, for example because a table scan was redirected during planning.
+     */
+    private static Optional<PlanNode> bindTransactions(PlanNode root, Map<CatalogName, ConnectorTransactionHandle> transactions)
+    {
+        Set<CatalogName> catalogs = searchFrom(root)
+                .where(TableScanNode.class::isInstance)
+                .<TableScanNode>findAll().stream()
+                .map(tableScan -> tableScan.getTable().getCatalogName())
+                .collect(toImmutableSet());
+        if (!transactions.keySet().containsAll(catalogs)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(SimplePlanRewriter.rewriteWith(new SimplePlanRewriter<Void>()
+        {
+            @Override
+            public PlanNode visitTableScan(TableScanNode node, RewriteContext<Void> context)
+            {
+                TableHandle table = node.getTable();
+                return new TableScanNode(
+                        node.getId(),
+                        new TableHandle(table.getCatalogName(), table.getConnectorHandle(), transactions.get(table.getCatalogName()), table.getLayout()),
+                        node.getOutputSymbols(),
+                        node.getAssignments(),
+                        node.getEnforcedConstraint(),
+                        node.getStatistics(),
+                        node.isUpdateTarget(),
+                        node.getUseConnectorNodePartitioning());
+            }
+        }, root));
+    }
+
+    private static class Entry
+    {
+        private final Plan plan;
+        private final Map<Integer, Expression> plannedParameterValues;
+        private final Set<QualifiedObjectName> tables;
+        private final Duration planningTime;
+
+        private Entry(Plan plan, Map<Integer, Expression> plannedParameterValues, Set<QualifiedObjectName> tables, Duration planningTime)
+        {
+            this.plan = requireNonNull(plan, "plan is null");
+            this.plannedParameterValues = ImmutableMap.copyOf(requireNonNull(plannedParameterValues, "plannedParameterValues is null"));
+            this.tables = ImmutableSet.copyOf(requireNonNull(tables, "tables is null"));
+            this.planningTime = requireNonNull(planningTime, "planningTime is null");
+        }
+
+        public Plan getPlan()
+        {
+            return plan;
+        }
+
+        /**
+         * Returns the values of the parameters that were planned as values instead of placeholders.
+         */
+        public Map<Integer, Expression> getPlannedParameterValues()
+        {
+            return plannedParameterValues;
+        }
+
+        public Set<QualifiedObjectName> getTables()
+        {
+            return tables;
+        }
+
+        public Duration getPlanningTime()
+        {
+            return planningTime;
+        }
+    }
+
+    public static final class Key
+    {
+        private final String statement;
+        private final List<Optional<Type>> parameterTypes;
+        private final Map<Integer, Expression> predicateParameterValues;
+        private final List<String> tableVersions;
+        private final String user;
+        private final Set<String> groups;
+        private final Map<String, SelectedRole> roles;
+        private final Optional<String> catalog;
+        private final Optional<String> schema;
+        private final SqlPath path;
+        private final TimeZoneKey timeZoneKey;
+        private final Map<String, String> systemProperties;
+        private final Map<String, Map<String, String>> catalogProperties;
+
+        private Key(
+                String statement,
+                List<Optional<Type>> parameterTypes,
+                Map<Integer, Expression> predicateParameterValues,
+                List<String> tableVersions,
+                String user,
+                Set<String> groups,
+                Map<String, SelectedRole> roles,
+                Optional<String> catalog,
+                Optional<String> schema,
+                SqlPath path,
+                TimeZoneKey timeZoneKey,
+                Map<String, String> systemProperties,
+                Map<String, Map<String, String>> catalogProperties)
+        {
+            this.statement = requireNonNull(statement, "statement is null");
+            this.parameterTypes = ImmutableList.copyOf(requireNonNull(parameterTypes, "parameterTypes is null"));
+            this.predicateParameterValues = ImmutableMap.copyOf(requireNonNull(predicateParameterValues, "predicateParameterValues is null"));
+            this.tableVersions = ImmutableList.copyOf(requireNonNull(tableVersions, "tableVersions is null"));
+            this.user = requireNonNull(user, "user is null");
+            this.groups = ImmutableSet.copyOf(requireNonNull(groups, "groups is null"));
+            this.roles = ImmutableMap.copyOf(requireNonNull(roles, "roles is null"));
+            this.catalog = requireNonNull(catalog, "catalog is null");
+            this.schema = requireNonNull(schema, "schema is null");
+            this.path = requireNonNull(path, "path is null");
+            this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+            this.systemProperties = ImmutableMap.copyOf(requireNonNull(systemProperties, "systemProperties is null"));
+            this.catalogProperties = ImmutableMap.copyOf(requireNonNull(catalogProperties, "catalogProperties is null"));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return statement.equals(that.statement) &&
+                    parameterTypes.equals(that.parameterTypes) &&
+                    predicateParameterValues.equals(that.predicateParameterValues) &&
+                    tableVersions.equals(that.tableVersions) &&
+                    user.equals(that.user) &&
+                    groups.equals(that.groups) &&
+                    roles.equals(that.roles) &&
+                    catalog.equals(that.catalog) &&
+                    schema.equals(that.schema) &&
+                    path.equals(that.path) &&
+                    timeZoneKey.equals(that.timeZoneKey) &&
+                    systemProperties.equals(that.systemProperties) &&
+                    catalogProperties.equals(that.catalogProperties);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(statement, parameterTypes, predicateParameterValues, tableVersions, user, groups, roles, catalog, schema, path, timeZoneKey, systemProperties, catalogProperties);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("statement", statement)
+                    .add("parameterTypes", parameterTypes)
+                    .add("predicateParameterValues", predicateParameterValues)
+                    .add("tableVersions", tableVersions)
+                    .add("user", user)
+                    .toString();
+        }
+    }
+}
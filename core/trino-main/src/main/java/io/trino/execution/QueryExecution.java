@@ -25,11 +25,13 @@ import io.trino.execution.warnings.WarningCollector;
 import io.trino.memory.VersionedMemoryPoolId;
 import io.trino.server.BasicQueryInfo;
 import io.trino.server.protocol.Slug;
+import io.trino.spi.Page;
 import io.trino.spi.type.Type;
 import io.trino.sql.planner.Plan;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -91,6 +93,9 @@ public interface QueryExecution
      * contain the full location set, but may be empty.  Users of this data should keep a private copy of the seen buffers to
      * handle out of order events from the listener.  Once noMoreBufferLocations is set the locations will never change, and
      * it is guaranteed that all previously sent locations are contained in the buffer locations.
+     * <p>
+     * A query answered from the result cache has no buffer locations, and its pages are contained in the info.
+     * A query whose result can be stored in the result cache carries the key of the result.
      */
     class QueryOutputInfo
     {
@@ -98,13 +103,23 @@ public interface QueryExecution
         private final List<Type> columnTypes;
         private final Set<URI> bufferLocations;
         private final boolean noMoreBufferLocations;
-
-        public QueryOutputInfo(List<String> columnNames, List<Type> columnTypes, Set<URI> bufferLocations, boolean noMoreBufferLocations)
+        private final Optional<ResultCache.Key> resultCacheKey;
+        private final Optional<List<Page>> cachedResult;
+
+        public QueryOutputInfo(
+                List<String> columnNames,
+                List<Type> columnTypes,
+                Set<URI> bufferLocations,
+                boolean noMoreBufferLocations,
+                Optional<ResultCache.Key> resultCacheKey,
+                Optional<List<Page>> cachedResult)
         {
             this.columnNames = ImmutableList.copyOf(requireNonNull(columnNames, "columnNames is null"));
             this.columnTypes = ImmutableList.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
             this.bufferLocations = ImmutableSet.copyOf(requireNonNull(bufferLocations, "bufferLocations is null"));
             this.noMoreBufferLocations = noMoreBufferLocations;
+            this.resultCacheKey = requireNonNull(resultCacheKey, "resultCacheKey is null");
+            this.cachedResult = requireNonNull(cachedResult, "cachedResult is null");
         }
 
         public List<String> getColumnNames()
@@ -126,5 +141,15 @@ public interface QueryExecution
         {
             return noMoreBufferLocations;
         }
+
+        public Optional<ResultCache.Key> getResultCacheKey()
+        {
+            return resultCacheKey;
+        }
+
+        public Optional<List<Page>> getCachedResult()
+        {
+            return cachedResult;
+        }
     }
 }
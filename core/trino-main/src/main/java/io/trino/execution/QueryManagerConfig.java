@@ -45,6 +45,16 @@ public class QueryManagerConfig
     private int maxQueuedQueries = 5000;
 
     private int initialHashPartitions = 100;
+    private boolean adaptiveHashPartitionCountEnabled;
+    private DataSize targetInputSizePerHashPartition = DataSize.of(512, DataSize.Unit.MEGABYTE);
+    private RetryPolicy retryPolicy = RetryPolicy.NONE;
+    private int taskRetryAttempts = 4;
+    private boolean resultCacheEnabled;
+    private DataSize resultCacheMaxSize = DataSize.of(256, DataSize.Unit.MEGABYTE);
+    private DataSize resultCacheMaxEntrySize = DataSize.of(8, DataSize.Unit.MEGABYTE);
+    private boolean fragmentResultCacheEnabled;
+    private boolean planCacheEnabled;
+    private int planCacheMaxEntries = 1000;
     private Duration minQueryExpireAge = new Duration(15, TimeUnit.MINUTES);
     private int maxQueryHistory = 100;
     private int maxQueryLength = 1_000_000;
@@ -137,6 +147,142 @@ public class QueryManagerConfig
         return this;
     }
 
+    public boolean isAdaptiveHashPartitionCountEnabled()
+    {
+        return adaptiveHashPartitionCountEnabled;
+    }
+
+    @Config("query.adaptive-hash-partition-count-enabled")
+    @ConfigDescription("Choose the number of hash partitions of a stage based on the estimated size of its input")
+    public QueryManagerConfig setAdaptiveHashPartitionCountEnabled(boolean adaptiveHashPartitionCountEnabled)
+    {
+        this.adaptiveHashPartitionCountEnabled = adaptiveHashPartitionCountEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getTargetInputSizePerHashPartition()
+    {
+        return targetInputSizePerHashPartition;
+    }
+
+    @Config("query.target-input-size-per-hash-partition")
+    @ConfigDescription("Target size of input of a hash partition, when the number of hash partitions is adaptive")
+    public QueryManagerConfig setTargetInputSizePerHashPartition(DataSize targetInputSizePerHashPartition)
+    {
+        this.targetInputSizePerHashPartition = targetInputSizePerHashPartition;
+        return this;
+    }
+
+    @NotNull
+    public RetryPolicy getRetryPolicy()
+    {
+        return retryPolicy;
+    }
+
+    @Config("retry-policy")
+    @ConfigDescription("Policy for retrying failed tasks")
+    public QueryManagerConfig setRetryPolicy(RetryPolicy retryPolicy)
+    {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    @Min(0)
+    public int getTaskRetryAttempts()
+    {
+        return taskRetryAttempts;
+    }
+
+    @Config("task-retry-attempts")
+    @ConfigDescription("Maximum number of times a failed task is executed again, when the retry policy is TASK")
+    public QueryManagerConfig setTaskRetryAttempts(int taskRetryAttempts)
+    {
+        this.taskRetryAttempts = taskRetryAttempts;
+        return this;
+    }
+
+    public boolean isResultCacheEnabled()
+    {
+        return resultCacheEnabled;
+    }
+
+    @Config("query.result-cache.enabled")
+    @ConfigDescription("Reuse the results of identical queries over unchanged tables")
+    public QueryManagerConfig setResultCacheEnabled(boolean resultCacheEnabled)
+    {
+        this.resultCacheEnabled = resultCacheEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxSize()
+    {
+        return resultCacheMaxSize;
+    }
+
+    @Config("query.result-cache.max-size")
+    @ConfigDescription("Maximum memory used by the query result cache, outside of the Java heap")
+    public QueryManagerConfig setResultCacheMaxSize(DataSize resultCacheMaxSize)
+    {
+        this.resultCacheMaxSize = resultCacheMaxSize;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getResultCacheMaxEntrySize()
+    {
+        return resultCacheMaxEntrySize;
+    }
+
+    @Config("query.result-cache.max-entry-size")
+    @ConfigDescription("Maximum size of the result of a single query stored in the query result cache")
+    public QueryManagerConfig setResultCacheMaxEntrySize(DataSize resultCacheMaxEntrySize)
+    {
+        this.resultCacheMaxEntrySize = resultCacheMaxEntrySize;
+        return this;
+    }
+
+    public boolean isFragmentResultCacheEnabled()
+    {
+        return fragmentResultCacheEnabled;
+    }
+
+    @Config("query.fragment-result-cache.enabled")
+    @ConfigDescription("Reuse the output of leaf fragments for splits of unchanged tables")
+    public QueryManagerConfig setFragmentResultCacheEnabled(boolean fragmentResultCacheEnabled)
+    {
+        this.fragmentResultCacheEnabled = fragmentResultCacheEnabled;
+        return this;
+    }
+
+    public boolean isPlanCacheEnabled()
+    {
+        return planCacheEnabled;
+    }
+
+    @Config("query.plan-cache.enabled")
+    @ConfigDescription("Reuse the plans of prepared statements executed with the same parameters")
+    public QueryManagerConfig setPlanCacheEnabled(boolean planCacheEnabled)
+    {
+        this.planCacheEnabled = planCacheEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getPlanCacheMaxEntries()
+    {
+        return planCacheMaxEntries;
+    }
+
+    @Config("query.plan-cache.max-entries")
+    @ConfigDescription("Maximum number of plans stored in the plan cache")
+    public QueryManagerConfig setPlanCacheMaxEntries(int planCacheMaxEntries)
+    {
+        this.planCacheMaxEntries = planCacheMaxEntries;
+        return this;
+    }
+
     @NotNull
     public Duration getMinQueryExpireAge()
     {
@@ -16,6 +16,7 @@ package io.trino.execution;
 import io.airlift.stats.CounterStat;
 import io.airlift.stats.DistributionStat;
 import io.airlift.stats.TimeStat;
+import io.airlift.units.Duration;
 import io.trino.dispatcher.DispatchQuery;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.server.BasicQueryInfo;
@@ -48,6 +49,13 @@ public class QueryManagerStats
     private final CounterStat consumedInputRows = new CounterStat();
     private final CounterStat consumedInputBytes = new CounterStat();
     private final CounterStat consumedCpuTimeSecs = new CounterStat();
+    private final CounterStat resultCacheHits = new CounterStat();
+    private final CounterStat resultCacheMisses = new CounterStat();
+    private final CounterStat resultCacheEvictions = new CounterStat();
+    private final CounterStat planCacheHits = new CounterStat();
+    private final CounterStat planCacheMisses = new CounterStat();
+    private final CounterStat planCacheInvalidations = new CounterStat();
+    private final TimeStat planCacheSavedPlanningTime = new TimeStat(MILLISECONDS);
     private final TimeStat executionTime = new TimeStat(MILLISECONDS);
     private final TimeStat queuedTime = new TimeStat(MILLISECONDS);
     private final DistributionStat wallInputBytesRate = new DistributionStat();
@@ -71,6 +79,37 @@ public class QueryManagerStats
         startedQueries.update(1);
     }
 
+    public void resultCacheHit()
+    {
+        resultCacheHits.update(1);
+    }
+
+    public void resultCacheMiss()
+    {
+        resultCacheMisses.update(1);
+    }
+
+    public void resultCacheEviction()
+    {
+        resultCacheEvictions.update(1);
+    }
+
+    public void planCacheHit(Duration savedPlanningTime)
+    {
+        planCacheHits.update(1);
+        planCacheSavedPlanningTime.add(savedPlanningTime);
+    }
+
+    public void planCacheMiss()
+    {
+        planCacheMisses.update(1);
+    }
+
+    public void planCacheInvalidation()
+    {
+        planCacheInvalidations.update(1);
+    }
+
     private void queryFinished(BasicQueryInfo info)
     {
         completedQueries.update(1);
@@ -267,6 +306,55 @@ public class QueryManagerStats
         return insufficientResourcesFailures;
     }
 
+    @Managed
+    @Nested
+    public CounterStat getResultCacheHits()
+    {
+        return resultCacheHits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getResultCacheMisses()
+    {
+        return resultCacheMisses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getResultCacheEvictions()
+    {
+        return resultCacheEvictions;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPlanCacheHits()
+    {
+        return planCacheHits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPlanCacheMisses()
+    {
+        return planCacheMisses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getPlanCacheInvalidations()
+    {
+        return planCacheInvalidations;
+    }
+
+    @Managed(description = "Planning time of the cached plans reused by queries")
+    @Nested
+    public TimeStat getPlanCacheSavedPlanningTime()
+    {
+        return planCacheSavedPlanningTime;
+    }
+
     @Managed(description = "Distribution of query input data rates (wall)")
     @Nested
     public DistributionStat getWallInputBytesRate()
@@ -36,6 +36,7 @@ import io.trino.security.AccessControl;
 import io.trino.server.BasicQueryInfo;
 import io.trino.server.BasicQueryStats;
 import io.trino.spi.ErrorCode;
+import io.trino.spi.Page;
 import io.trino.spi.QueryId;
 import io.trino.spi.TrinoException;
 import io.trino.spi.eventlistener.RoutineInfo;
@@ -65,6 +66,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -156,6 +158,7 @@ public class QueryStateMachine
     private final AtomicReference<Optional<Output>> output = new AtomicReference<>(Optional.empty());
     private final AtomicReference<List<TableInfo>> referencedTables = new AtomicReference<>(ImmutableList.of());
     private final AtomicReference<List<RoutineInfo>> routines = new AtomicReference<>(ImmutableList.of());
+    private final List<JoinDistributionSwitch> joinDistributionSwitches = new CopyOnWriteArrayList<>();
     private final StateMachine<Optional<QueryInfo>> finalQueryInfo;
 
     private final WarningCollector warningCollector;
@@ -622,6 +625,8 @@ public class QueryStateMachine
 
                 getDynamicFiltersStats(),
 
+                ImmutableList.copyOf(joinDistributionSwitches),
+
                 operatorStatsSummary.build());
     }
 
@@ -645,6 +650,16 @@ public class QueryStateMachine
         outputManager.setColumns(columnNames, columnTypes);
     }
 
+    public void setResultCacheKey(ResultCache.Key resultCacheKey)
+    {
+        outputManager.setResultCacheKey(resultCacheKey);
+    }
+
+    public void setCachedResult(List<Page> cachedResult)
+    {
+        outputManager.setCachedResult(cachedResult);
+    }
+
     public void updateOutputLocations(Set<URI> newExchangeLocations, boolean noMoreExchangeLocations)
     {
         outputManager.updateOutputLocations(newExchangeLocations, noMoreExchangeLocations);
@@ -674,6 +689,11 @@ public class QueryStateMachine
         this.routines.set(ImmutableList.copyOf(routines));
     }
 
+    public void addJoinDistributionSwitch(JoinDistributionSwitch joinDistributionSwitch)
+    {
+        joinDistributionSwitches.add(requireNonNull(joinDistributionSwitch, "joinDistributionSwitch is null"));
+    }
+
     private DynamicFiltersStats getDynamicFiltersStats()
     {
         synchronized (dynamicFiltersStatsSupplierLock) {
@@ -1167,6 +1187,7 @@ public class QueryStateMachine
                 queryStats.getPhysicalWrittenDataSize(),
                 queryStats.getStageGcStatistics(),
                 queryStats.getDynamicFiltersStats(),
+                queryStats.getJoinDistributionSwitches(),
                 ImmutableList.of()); // Remove the operator summaries as OperatorInfo (especially ExchangeClientStatus) can hold onto a large amount of memory
     }
 
@@ -1185,6 +1206,10 @@ public class QueryStateMachine
         private final Set<URI> exchangeLocations = new LinkedHashSet<>();
         @GuardedBy("this")
         private boolean noMoreExchangeLocations;
+        @GuardedBy("this")
+        private Optional<ResultCache.Key> resultCacheKey = Optional.empty();
+        @GuardedBy("this")
+        private Optional<List<Page>> cachedResult = Optional.empty();
 
         public QueryOutputManager(Executor executor)
         {
@@ -1222,6 +1247,20 @@ public class QueryStateMachine
             queryOutputInfo.ifPresent(info -> fireStateChanged(info, outputInfoListeners));
         }
 
+        public synchronized void setResultCacheKey(ResultCache.Key resultCacheKey)
+        {
+            requireNonNull(resultCacheKey, "resultCacheKey is null");
+            checkState(columnNames == null, "result cache key must be set before the output fields");
+            this.resultCacheKey = Optional.of(resultCacheKey);
+        }
+
+        public synchronized void setCachedResult(List<Page> cachedResult)
+        {
+            requireNonNull(cachedResult, "cachedResult is null");
+            checkState(columnNames == null, "cached result must be set before the output fields");
+            this.cachedResult = Optional.of(ImmutableList.copyOf(cachedResult));
+        }
+
         public void updateOutputLocations(Set<URI> newExchangeLocations, boolean noMoreExchangeLocations)
         {
             requireNonNull(newExchangeLocations, "newExchangeLocations is null");
@@ -1247,7 +1286,7 @@ public class QueryStateMachine
             if (columnNames == null || columnTypes == null) {
                 return Optional.empty();
             }
-            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations));
+            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations, resultCacheKey, cachedResult));
         }
 
         private void fireStateChanged(QueryOutputInfo queryOutputInfo, List<Consumer<QueryOutputInfo>> outputInfoListeners)
@@ -105,6 +105,8 @@ public class QueryStats
 
     private final DynamicFiltersStats dynamicFiltersStats;
 
+    private final List<JoinDistributionSwitch> joinDistributionSwitches;
+
     private final List<OperatorStats> operatorSummaries;
 
     @JsonCreator
@@ -174,6 +176,8 @@ public class QueryStats
 
             @JsonProperty("dynamicFiltersStats") DynamicFiltersStats dynamicFiltersStats,
 
+            @JsonProperty("joinDistributionSwitches") List<JoinDistributionSwitch> joinDistributionSwitches,
+
             @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries)
     {
         this.createTime = requireNonNull(createTime, "createTime is null");
@@ -253,6 +257,8 @@ public class QueryStats
 
         this.dynamicFiltersStats = requireNonNull(dynamicFiltersStats, "dynamicFiltersStats is null");
 
+        this.joinDistributionSwitches = ImmutableList.copyOf(requireNonNull(joinDistributionSwitches, "joinDistributionSwitches is null"));
+
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
     }
 
@@ -582,6 +588,12 @@ public class QueryStats
         return dynamicFiltersStats;
     }
 
+    @JsonProperty
+    public List<JoinDistributionSwitch> getJoinDistributionSwitches()
+    {
+        return joinDistributionSwitches;
+    }
+
     @JsonProperty
     public List<OperatorStats> getOperatorSummaries()
     {
@@ -0,0 +1,321 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.Session;
+import io.trino.cost.StatsAndCosts;
+import io.trino.execution.buffer.PageCodecMarker;
+import io.trino.execution.buffer.PagesSerde;
+import io.trino.execution.buffer.PagesSerdeFactory;
+import io.trino.execution.buffer.SerializedPage;
+import io.trino.metadata.Metadata;
+import io.trino.metadata.ResolvedFunction;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockEncodingSerde;
+import io.trino.spi.type.TimeZoneKey;
+import io.trino.sql.planner.ExpressionExtractor;
+import io.trino.sql.planner.Plan;
+import io.trino.sql.planner.plan.ExplainAnalyzeNode;
+import io.trino.sql.planner.plan.IndexSourceNode;
+import io.trino.sql.planner.plan.PlanNode;
+import io.trino.sql.planner.plan.SampleNode;
+import io.trino.sql.planner.plan.TableScanNode;
+import io.trino.sql.tree.FunctionCall;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SystemSessionProperties.isResultCacheEnabled;
+import static io.trino.sql.analyzer.ExpressionTreeUtils.extractExpressions;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.trino.sql.planner.planprinter.PlanPrinter.textLogicalPlan;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stores the final results of queries on the coordinator, so that an identical query
+ * over unchanged tables can be answered without scheduling any stage. A query is
+ * identified by the text of its optimized plan and by the version tokens of all tables
+ * it reads. Queries that read a table whose connector does not provide a version
+ * token, or that call a nondeterministic function, are never cached.
+ * <p>
+ * Results are kept compressed in direct memory, and the least recently used results
+ * are evicted when the cache is full.
+ */
+@ThreadSafe
+public class ResultCache
+{
+    // functions that do not depend only on their arguments, but are not marked as nondeterministic
+    private static final Set<String> SESSION_DEPENDENT_FUNCTIONS = ImmutableSet.of(
+            "$current_catalog",
+            "$current_schema",
+            "$current_path",
+            "$current_time",
+            "$current_timestamp",
+            "$localtime",
+            "$localtimestamp",
+            "current_date",
+            "now");
+
+    private final Metadata metadata;
+    private final QueryManagerStats stats;
+    private final PagesSerdeFactory serdeFactory;
+    private final long maxEntrySizeInBytes;
+    private final Cache<Key, List<SerializedPage>> cache;
+
+    @Inject
+    public ResultCache(Metadata metadata, BlockEncodingSerde blockEncodingSerde, QueryManagerStats stats, QueryManagerConfig config)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.stats = requireNonNull(stats, "stats is null");
+        this.serdeFactory = new PagesSerdeFactory(requireNonNull(blockEncodingSerde, "blockEncodingSerde is null"), true);
+        this.maxEntrySizeInBytes = config.getResultCacheMaxEntrySize().toBytes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getResultCacheMaxSize().toBytes())
+                .weigher((Key key, List<SerializedPage> pages) -> toIntExact(getSizeInBytes(pages)))
+                .removalListener(this::entryRemoved)
+                .build();
+    }
+
+    /**
+     * Returns the key of the results of the plan, or empty if the results cannot be cached.
+     */
+    public Optional<Key> createKey(Session session, Plan plan)
+    {
+        if (!isResultCacheEnabled(session)) {
+            return Optional.empty();
+        }
+
+        PlanNode root = plan.getRoot();
+        boolean unsupportedNode = searchFrom(root)
+                .where(node -> node instanceof ExplainAnalyzeNode || node instanceof SampleNode || node instanceof IndexSourceNode)
+                .matches();
+        if (unsupportedNode) {
+            return Optional.empty();
+        }
+
+        if (callsVolatileFunction(metadata, root)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<String> tableVersions = ImmutableList.builder();
+        for (TableScanNode tableScan : searchFrom(root).where(TableScanNode.class::isInstance).<TableScanNode>findAll()) {
+            Optional<String> version = metadata.getTableVersionToken(session, tableScan.getTable());
+            if (version.isEmpty()) {
+                return Optional.empty();
+            }
+            tableVersions.add(version.get());
+        }
+
+        return Optional.of(new Key(
+                textLogicalPlan(root, plan.getTypes(), metadata, StatsAndCosts.empty(), session, 0, false),
+                tableVersions.build(),
+                session.getUser(),
+                session.getTimeZoneKey(),
+                session.getSystemProperties(),
+                session.getUnprocessedCatalogProperties()));
+    }
+
+    /**
+     * Returns whether the plan calls a function that may return different results for the same
+     * arguments, either because it is nondeterministic or because it depends on the session.
+     */
+    public static boolean callsVolatileFunction(Metadata metadata, PlanNode root)
+    {
+        for (FunctionCall functionCall : extractExpressions(ExpressionExtractor.extractExpressions(root), FunctionCall.class)) {
+            if (isVolatileFunction(metadata, metadata.decodeFunction(functionCall.getName()))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static boolean isVolatileFunction(Metadata metadata, ResolvedFunction function)
+    {
+        return !metadata.getFunctionMetadata(function).isDeterministic() ||
+                SESSION_DEPENDENT_FUNCTIONS.contains(function.getSignature().getName());
+    }
+
+    public Optional<List<Page>> get(Key key)
+    {
+        List<SerializedPage> pages = cache.getIfPresent(key);
+        if (pages == null) {
+            stats.resultCacheMiss();
+            return Optional.empty();
+        }
+        stats.resultCacheHit();
+        PagesSerde serde = serdeFactory.createPagesSerde();
+        // block decoding may keep references to the serialized data, which must not point to direct memory
+        return Optional.of(pages.stream()
+                .map(page -> serde.deserialize(new SerializedPage(
+                        Slices.copyOf(page.getSlice()),
+                        PageCodecMarker.MarkerSet.fromByteValue(page.getPageCodecMarkers()),
+                        page.getPositionCount(),
+                        page.getUncompressedSizeInBytes())))
+                .collect(toImmutableList()));
+    }
+
+    public ResultRecorder createRecorder(Key key)
+    {
+        return new ResultRecorder(key);
+    }
+
+    private void put(Key key, List<Page> pages)
+    {
+        PagesSerde serde = serdeFactory.createPagesSerde();
+        List<SerializedPage> serializedPages = new ArrayList<>(pages.size());
+        try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
+            for (Page page : pages) {
+                SerializedPage serializedPage = serde.serialize(context, page);
+                Slice slice = Slices.allocateDirect(serializedPage.getSizeInBytes());
+                slice.setBytes(0, serializedPage.getSlice());
+                serializedPages.add(new SerializedPage(
+                        slice,
+                        PageCodecMarker.MarkerSet.fromByteValue(serializedPage.getPageCodecMarkers()),
+                        serializedPage.getPositionCount(),
+                        serializedPage.getUncompressedSizeInBytes()));
+            }
+        }
+        cache.put(key, ImmutableList.copyOf(serializedPages));
+    }
+
+    private void entryRemoved(RemovalNotification<Key, List<SerializedPage>> notification)
+    {
+        if (notification.wasEvicted()) {
+            stats.resultCacheEviction();
+        }
+    }
+
+    private static long getSizeInBytes(List<SerializedPage> pages)
+    {
+        return pages.stream()
+                .mapToLong(SerializedPage::getSizeInBytes)
+                .sum();
+    }
+
+    /**
+     * Collects the result pages of a query while they are sent to the client.
+     * The result is stored when the query finishes, unless it is larger than
+     * the maximum entry size. This class is not thread safe.
+     */
+    public class ResultRecorder
+    {
+        private final Key key;
+        private List<Page> pages = new ArrayList<>();
+        private long sizeInBytes;
+
+        private ResultRecorder(Key key)
+        {
+            this.key = requireNonNull(key, "key is null");
+        }
+
+        public void addPage(Page page)
+        {
+            if (pages == null) {
+                return;
+            }
+            sizeInBytes += page.getSizeInBytes();
+            if (sizeInBytes > maxEntrySizeInBytes) {
+                pages = null;
+                return;
+            }
+            pages.add(page);
+        }
+
+        public void finish()
+        {
+            if (pages == null) {
+                return;
+            }
+            put(key, pages);
+            pages = null;
+        }
+    }
+
+    public static final class Key
+    {
+        private final String plan;
+        private final List<String> tableVersions;
+        private final String user;
+        private final TimeZoneKey timeZoneKey;
+        private final Map<String, String> systemProperties;
+        private final Map<String, Map<String, String>> catalogProperties;
+
+        private Key(
+                String plan,
+                List<String> tableVersions,
+                String user,
+                TimeZoneKey timeZoneKey,
+                Map<String, String> systemProperties,
+                Map<String, Map<String, String>> catalogProperties)
+        {
+            this.plan = requireNonNull(plan, "plan is null");
+            this.tableVersions = ImmutableList.copyOf(requireNonNull(tableVersions, "tableVersions is null"));
+            this.user = requireNonNull(user, "user is null");
+            this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+            this.systemProperties = ImmutableMap.copyOf(requireNonNull(systemProperties, "systemProperties is null"));
+            this.catalogProperties = ImmutableMap.copyOf(requireNonNull(catalogProperties, "catalogProperties is null"));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return plan.equals(that.plan) &&
+                    tableVersions.equals(that.tableVersions) &&
+                    user.equals(that.user) &&
+                    timeZoneKey.equals(that.timeZoneKey) &&
+                    systemProperties.equals(that.systemProperties) &&
+                    catalogProperties.equals(that.catalogProperties);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(plan, tableVersions, user, timeZoneKey, systemProperties, catalogProperties);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("tableVersions", tableVersions)
+                    .add("user", user)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution;
+
+public enum RetryPolicy
+{
+    /**
+     * A failure of any task fails the query.
+     */
+    NONE,
+    /**
+     * Task output is written to the task output spool, and a task that fails
+     * with an internal or external error is executed again, reading the spooled
+     * output of its source tasks.
+     */
+    TASK,
+}
@@ -13,6 +13,8 @@
  */
 package io.trino.execution;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.SetThreadName;
 import io.airlift.log.Logger;
@@ -27,6 +29,7 @@ import io.trino.execution.QueryPreparer.PreparedQuery;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.buffer.OutputBuffers;
 import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.execution.buffer.TaskOutputSpool;
 import io.trino.execution.scheduler.ExecutionPolicy;
 import io.trino.execution.scheduler.NodeScheduler;
 import io.trino.execution.scheduler.SplitSchedulerStats;
@@ -41,6 +44,7 @@ import io.trino.security.AccessControl;
 import io.trino.server.BasicQueryInfo;
 import io.trino.server.DynamicFilterService;
 import io.trino.server.protocol.Slug;
+import io.trino.spi.Page;
 import io.trino.spi.QueryId;
 import io.trino.spi.TrinoException;
 import io.trino.spi.security.GroupProvider;
@@ -57,6 +61,7 @@ import io.trino.sql.planner.LogicalPlanner;
 import io.trino.sql.planner.NodePartitioningManager;
 import io.trino.sql.planner.PartitioningHandle;
 import io.trino.sql.planner.Plan;
+import io.trino.sql.planner.PlanFragment;
 import io.trino.sql.planner.PlanFragmenter;
 import io.trino.sql.planner.PlanNodeIdAllocator;
 import io.trino.sql.planner.PlanOptimizersFactory;
@@ -64,6 +69,8 @@ import io.trino.sql.planner.StageExecutionPlan;
 import io.trino.sql.planner.SubPlan;
 import io.trino.sql.planner.TypeAnalyzer;
 import io.trino.sql.planner.optimizations.PlanOptimizer;
+import io.trino.sql.planner.plan.OutputNode;
+import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.sql.tree.Explain;
 import io.trino.sql.tree.Query;
 import io.trino.sql.tree.Statement;
@@ -76,8 +83,10 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
@@ -86,6 +95,9 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.units.DataSize.succinctBytes;
+import static io.trino.SystemSessionProperties.getAdaptiveJoinMaxBroadcastBuildSize;
+import static io.trino.SystemSessionProperties.getRetryPolicy;
+import static io.trino.SystemSessionProperties.getTaskRetryAttempts;
 import static io.trino.SystemSessionProperties.isEnableDynamicFiltering;
 import static io.trino.execution.QueryState.FAILED;
 import static io.trino.execution.QueryState.PLANNING;
@@ -95,6 +107,8 @@ import static io.trino.execution.scheduler.SqlQueryScheduler.createSqlQuerySched
 import static io.trino.server.DynamicFilterService.DynamicFiltersStats;
 import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.trino.sql.ParameterUtils.parameterExtractor;
+import static io.trino.sql.planner.BroadcastJoinSwitcher.markSwitchableJoins;
+import static io.trino.sql.planner.BroadcastJoinSwitcher.switchToPartitioned;
 import static java.lang.Thread.currentThread;
 import static java.util.Objects.requireNonNull;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -125,6 +139,8 @@ public class SqlQueryExecution
 
     private final AtomicReference<SqlQueryScheduler> queryScheduler = new AtomicReference<>();
     private final AtomicReference<Plan> queryPlan = new AtomicReference<>();
+    private final AtomicReference<PlanRoot> fragmentedPlan = new AtomicReference<>();
+    private final AtomicInteger nextStageId = new AtomicInteger();
     private final NodeTaskMap nodeTaskMap;
     private final ExecutionPolicy executionPolicy;
     private final SplitSchedulerStats schedulerStats;
@@ -132,6 +148,10 @@ public class SqlQueryExecution
     private final StatsCalculator statsCalculator;
     private final CostCalculator costCalculator;
     private final DynamicFilterService dynamicFilterService;
+    private final TaskOutputSpool taskOutputSpool;
+    private final ResultCache resultCache;
+    private final PlanCache planCache;
+    private final Optional<PlanCache.Key> planCacheKey;
 
     private SqlQueryExecution(
             PreparedQuery preparedQuery,
@@ -159,6 +179,9 @@ public class SqlQueryExecution
             StatsCalculator statsCalculator,
             CostCalculator costCalculator,
             DynamicFilterService dynamicFilterService,
+            TaskOutputSpool taskOutputSpool,
+            ResultCache resultCache,
+            PlanCache planCache,
             WarningCollector warningCollector)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", stateMachine.getQueryId())) {
@@ -180,6 +203,9 @@ public class SqlQueryExecution
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
             this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.taskOutputSpool = requireNonNull(taskOutputSpool, "taskOutputSpool is null");
+            this.resultCache = requireNonNull(resultCache, "resultCache is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -188,6 +214,7 @@ public class SqlQueryExecution
 
             // analyze query
             this.analysis = analyze(preparedQuery, stateMachine, metadata, groupProvider, accessControl, sqlParser, queryExplainer, warningCollector);
+            this.planCacheKey = planCache.createKey(stateMachine.getSession(), preparedQuery, analysis);
 
             stateMachine.addStateChangeListener(state -> {
                 if (!state.isDone()) {
@@ -197,6 +224,13 @@ public class SqlQueryExecution
                         dynamicFilterService.getDynamicFilteringStats(stateMachine.getQueryId(), stateMachine.getSession()));
             });
 
+            // the spooled output of the tasks is not read once the query is done
+            stateMachine.addStateChangeListener(state -> {
+                if (state.isDone() && getEffectiveRetryPolicy() == RetryPolicy.TASK) {
+                    taskOutputSpool.removeQuery(stateMachine.getQueryId());
+                }
+            });
+
             // when the query finishes cache the final query info, and clear the reference to the output stage
             AtomicReference<SqlQueryScheduler> queryScheduler = this.queryScheduler;
             stateMachine.addStateChangeListener(state -> {
@@ -407,12 +441,16 @@ public class SqlQueryExecution
                     }
                 }, directExecutor());
 
+                boolean cachedResult;
                 try {
                     PlanRoot plan = planQuery();
-                    // DynamicFilterService needs plan for query to be registered.
-                    // Query should be registered before dynamic filter suppliers are requested in distribution planning.
-                    registerDynamicFilteringQuery(plan);
-                    planDistribution(plan);
+                    cachedResult = useResultCache(plan);
+                    if (!cachedResult) {
+                        // DynamicFilterService needs plan for query to be registered.
+                        // Query should be registered before dynamic filter suppliers are requested in distribution planning.
+                        registerDynamicFilteringQuery(plan);
+                        planDistribution(plan);
+                    }
                 }
                 finally {
                     synchronized (this) {
@@ -428,6 +466,12 @@ public class SqlQueryExecution
                     return;
                 }
 
+                if (cachedResult) {
+                    // the client reads the result from the coordinator, so there is nothing to schedule
+                    stateMachine.transitionToFinishing();
+                    return;
+                }
+
                 // if query is not finished, start the scheduler, otherwise cancel it
                 SqlQueryScheduler scheduler = queryScheduler.get();
 
@@ -475,21 +519,35 @@ public class SqlQueryExecution
     private PlanRoot doPlanQuery()
     {
         // plan query
-        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
-        LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(),
-                planOptimizers,
-                idAllocator,
-                metadata,
-                typeOperators,
-                new TypeAnalyzer(sqlParser, metadata),
-                statsCalculator,
-                costCalculator,
-                stateMachine.getWarningCollector());
-        Plan plan = logicalPlanner.plan(analysis);
+        Optional<Plan> cachedPlan = planCacheKey.flatMap(key -> planCache.get(key, stateMachine.getSession(), analysis));
+        Plan plan;
+        if (cachedPlan.isPresent()) {
+            plan = cachedPlan.get();
+        }
+        else {
+            long planningStart = System.nanoTime();
+            if (planCacheKey.isPresent()) {
+                planCache.setParameterPlaceholders(analysis);
+            }
+            PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+            LogicalPlanner logicalPlanner = new LogicalPlanner(stateMachine.getSession(),
+                    planOptimizers,
+                    idAllocator,
+                    metadata,
+                    typeOperators,
+                    new TypeAnalyzer(sqlParser, metadata),
+                    statsCalculator,
+                    costCalculator,
+                    stateMachine.getWarningCollector());
+            plan = logicalPlanner.plan(analysis);
+            if (planCacheKey.isPresent()) {
+                plan = planCache.put(planCacheKey.get(), plan, stateMachine.getSession(), analysis, Duration.nanosSince(planningStart));
+            }
+        }
         queryPlan.set(plan);
 
         // fragment the plan
-        SubPlan fragmentedPlan = planFragmenter.createSubPlans(stateMachine.getSession(), plan, false, stateMachine.getWarningCollector());
+        SubPlan fragmentedPlan = fragmentPlan(plan);
 
         // extract inputs
         List<Input> inputs = new InputExtractor(metadata, stateMachine.getSession()).extractInputs(fragmentedPlan);
@@ -501,7 +559,59 @@ public class SqlQueryExecution
         return new PlanRoot(fragmentedPlan, !explainAnalyze);
     }
 
+    private SubPlan fragmentPlan(Plan plan)
+    {
+        SubPlan subPlan = planFragmenter.createSubPlans(stateMachine.getSession(), plan, false, stateMachine.getWarningCollector());
+        if (isAdaptiveJoinDistributionEnabled()) {
+            subPlan = markSwitchableJoins(subPlan);
+        }
+        return subPlan;
+    }
+
+    /**
+     * Returns true if the result of the query was found in the result cache. Otherwise, if the
+     * result can be cached, its key is passed to the client protocol, which stores the result.
+     */
+    private boolean useResultCache(PlanRoot plan)
+    {
+        // a query that writes data, or that is being explained, must be executed
+        if (analysis.getUpdateType() != null || analysis.getStatement() instanceof Explain) {
+            return false;
+        }
+        Optional<ResultCache.Key> key = resultCache.createKey(stateMachine.getSession(), queryPlan.get());
+        if (key.isEmpty()) {
+            return false;
+        }
+
+        Optional<List<Page>> pages = resultCache.get(key.get());
+        if (pages.isEmpty()) {
+            stateMachine.setResultCacheKey(key.get());
+            return false;
+        }
+
+        PlanFragment outputFragment = plan.getRoot().getFragment();
+        stateMachine.setCachedResult(pages.get());
+        stateMachine.setColumns(((OutputNode) outputFragment.getRoot()).getColumnNames(), outputFragment.getTypes());
+        return true;
+    }
+
     private void planDistribution(PlanRoot plan)
+    {
+        fragmentedPlan.set(plan);
+        StageExecutionPlan outputStageExecutionPlan = planStageExecution(plan);
+
+        // if query was canceled, skip creating scheduler
+        if (stateMachine.isDone()) {
+            return;
+        }
+
+        // record output field
+        stateMachine.setColumns(outputStageExecutionPlan.getFieldNames(), outputStageExecutionPlan.getFragment().getTypes());
+
+        createScheduler(plan, outputStageExecutionPlan);
+    }
+
+    private StageExecutionPlan planStageExecution(PlanRoot plan)
     {
         // plan the execution on the active nodes
         DistributedExecutionPlanner distributedPlanner = new DistributedExecutionPlanner(splitManager, metadata, dynamicFilterService);
@@ -513,15 +623,11 @@ public class SqlQueryExecution
                 closeSplitSources(outputStageExecutionPlan);
             }
         });
+        return outputStageExecutionPlan;
+    }
 
-        // if query was canceled, skip creating scheduler
-        if (stateMachine.isDone()) {
-            return;
-        }
-
-        // record output field
-        stateMachine.setColumns(outputStageExecutionPlan.getFieldNames(), outputStageExecutionPlan.getFragment().getTypes());
-
+    private void createScheduler(PlanRoot plan, StageExecutionPlan outputStageExecutionPlan)
+    {
         PartitioningHandle partitioningHandle = plan.getRoot().getFragment().getPartitioningScheme().getPartitioning().getHandle();
         OutputBuffers rootOutputBuffers = createInitialEmptyOutputBuffers(partitioningHandle)
                 .withBuffer(OUTPUT_BUFFER_ID, BROADCAST_PARTITION_ID)
@@ -544,7 +650,12 @@ public class SqlQueryExecution
                 nodeTaskMap,
                 executionPolicy,
                 schedulerStats,
-                dynamicFilterService);
+                dynamicFilterService,
+                nextStageId,
+                hasSwitchableJoins(plan),
+                getEffectiveRetryPolicy(),
+                getTaskRetryAttempts(stateMachine.getSession()),
+                this::broadcastJoinBuildSizeExceeded);
 
         queryScheduler.set(scheduler);
 
@@ -556,6 +667,98 @@ public class SqlQueryExecution
         }
     }
 
+    private RetryPolicy getEffectiveRetryPolicy()
+    {
+        if (getRetryPolicy(stateMachine.getSession()) == RetryPolicy.TASK && supportsRetries()) {
+            return RetryPolicy.TASK;
+        }
+        return RetryPolicy.NONE;
+    }
+
+    private boolean supportsRetries()
+    {
+        String updateType = analysis.getUpdateType();
+        if (updateType == null) {
+            return true;
+        }
+        // a failed writer task may leave behind some of its output, unless the connector
+        // only commits the data reported to the table finish by the tasks that finished
+        Optional<CatalogName> catalogName = Optional.empty();
+        if (updateType.equals("INSERT")) {
+            catalogName = analysis.getInsert().map(insert -> insert.getTarget().getCatalogName());
+        }
+        else if (updateType.equals("CREATE TABLE")) {
+            catalogName = analysis.getCreate()
+                    .flatMap(Analysis.Create::getDestination)
+                    .map(destination -> new CatalogName(destination.getCatalogName()));
+        }
+        return catalogName
+                .map(catalog -> metadata.supportsWriteRetries(stateMachine.getSession(), catalog))
+                .orElse(false);
+    }
+
+    private boolean isAdaptiveJoinDistributionEnabled()
+    {
+        // the query is executed again with the switched plan, and a failed attempt of a query
+        // that writes data may leave behind some of its output
+        return SystemSessionProperties.isAdaptiveJoinDistributionEnabled(stateMachine.getSession()) &&
+                analysis.getUpdateType() == null;
+    }
+
+    private static boolean hasSwitchableJoins(PlanRoot plan)
+    {
+        return plan.getRoot().getAllFragments().stream()
+                .anyMatch(fragment -> !fragment.getSwitchableJoins().isEmpty());
+    }
+
+    private synchronized void broadcastJoinBuildSizeExceeded(SqlQueryScheduler scheduler, PlanFragment fragment, Set<PlanNodeId> joins)
+    {
+        if (scheduler.isAbandoned()) {
+            return;
+        }
+        Set<PlanNodeId> switchableJoins = ImmutableSet.copyOf(Sets.intersection(joins, fragment.getSwitchableJoins()));
+        Optional<Plan> switchedPlan = switchableJoins.isEmpty() ? Optional.empty() : switchToPartitioned(queryPlan.get(), switchableJoins);
+        // once the output was made available to the client, the query completes with the broadcast joins
+        if (switchedPlan.isEmpty() || !scheduler.abandon()) {
+            log.debug("Not switching joins %s of query %s to partitioned distribution", switchableJoins, stateMachine.getQueryId());
+            return;
+        }
+        DataSize maxBroadcastBuildSize = getAdaptiveJoinMaxBroadcastBuildSize(stateMachine.getSession());
+        switchableJoins.forEach(join -> stateMachine.addJoinDistributionSwitch(new JoinDistributionSwitch(join, maxBroadcastBuildSize)));
+        log.info("Switching joins %s of query %s to partitioned distribution, as their build side exceeded %s", switchableJoins, stateMachine.getQueryId(), maxBroadcastBuildSize);
+        queryExecutor.execute(() -> switchJoinDistribution(switchedPlan.get()));
+    }
+
+    private void switchJoinDistribution(Plan plan)
+    {
+        try (SetThreadName ignored = new SetThreadName("Query-%s", stateMachine.getQueryId())) {
+            try {
+                if (stateMachine.isDone()) {
+                    return;
+                }
+                queryPlan.set(plan);
+                SubPlan subPlan = fragmentPlan(plan);
+                PlanRoot root = new PlanRoot(subPlan, fragmentedPlan.get().isSummarizeTaskInfos());
+
+                // the dynamic filters are collected from the fragments of the new plan
+                dynamicFilterService.removeQuery(stateMachine.getQueryId());
+                registerDynamicFilteringQuery(root);
+
+                fragmentedPlan.set(root);
+                createScheduler(root, planStageExecution(root));
+
+                SqlQueryScheduler scheduler = queryScheduler.get();
+                if (scheduler != null && !stateMachine.isDone()) {
+                    scheduler.start();
+                }
+            }
+            catch (Throwable e) {
+                fail(e);
+                throwIfInstanceOf(e, Error.class);
+            }
+        }
+    }
+
     private static void closeSplitSources(StageExecutionPlan plan)
     {
         for (SplitSource source : plan.getSplitSources().values()) {
@@ -741,6 +944,9 @@ public class SqlQueryExecution
         private final StatsCalculator statsCalculator;
         private final CostCalculator costCalculator;
         private final DynamicFilterService dynamicFilterService;
+        private final TaskOutputSpool taskOutputSpool;
+        private final ResultCache resultCache;
+        private final PlanCache planCache;
 
         @Inject
         SqlQueryExecutionFactory(
@@ -765,7 +971,10 @@ public class SqlQueryExecution
                 SplitSchedulerStats schedulerStats,
                 StatsCalculator statsCalculator,
                 CostCalculator costCalculator,
-                DynamicFilterService dynamicFilterService)
+                DynamicFilterService dynamicFilterService,
+                TaskOutputSpool taskOutputSpool,
+                ResultCache resultCache,
+                PlanCache planCache)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -790,6 +999,9 @@ public class SqlQueryExecution
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
             this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.taskOutputSpool = requireNonNull(taskOutputSpool, "taskOutputSpool is null");
+            this.resultCache = requireNonNull(resultCache, "resultCache is null");
+            this.planCache = requireNonNull(planCache, "planCache is null");
         }
 
         @Override
@@ -829,6 +1041,9 @@ public class SqlQueryExecution
                     statsCalculator,
                     costCalculator,
                     dynamicFilterService,
+                    taskOutputSpool,
+                    resultCache,
+                    planCache,
                     warningCollector);
         }
     }
@@ -13,21 +13,26 @@
  */
 package io.trino.execution;
 
+import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
 import io.airlift.units.Duration;
 import io.trino.Session;
 import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.buffer.OutputBuffers;
+import io.trino.execution.buffer.SpooledOutputLocation;
+import io.trino.execution.scheduler.NodeSelector;
 import io.trino.execution.scheduler.SplitSchedulerStats;
 import io.trino.failuredetector.FailureDetector;
 import io.trino.metadata.InternalNode;
 import io.trino.metadata.Split;
 import io.trino.server.DynamicFilterService;
+import io.trino.spi.ErrorCode;
 import io.trino.spi.TrinoException;
 import io.trino.split.RemoteSplit;
 import io.trino.sql.planner.PlanFragment;
@@ -41,7 +46,9 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -62,10 +69,14 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.SPOOLING;
 import static io.trino.failuredetector.FailureDetector.State.GONE;
 import static io.trino.operator.ExchangeOperator.REMOTE_CONNECTOR_ID;
+import static io.trino.spi.ErrorType.EXTERNAL;
+import static io.trino.spi.ErrorType.INTERNAL_ERROR;
 import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.trino.spi.StandardErrorCode.REMOTE_HOST_GONE;
+import static io.trino.sql.planner.plan.ExchangeNode.Type.REPLICATE;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -102,10 +113,28 @@ public final class SqlStageExecution
     private final Set<PlanNodeId> completeSources = newConcurrentHashSet();
     @GuardedBy("this")
     private final Set<PlanFragmentId> completeSourceFragments = newConcurrentHashSet();
+    @GuardedBy("this")
+    private final Multimap<RemoteSourceNode, TaskId> spooledSourceTasks = HashMultimap.create();
+
+    @GuardedBy("this")
+    private final Map<TaskId, Integer> taskPartitions = new HashMap<>();
+    @GuardedBy("this")
+    private int taskRetryAttempts;
+    @GuardedBy("this")
+    private NodeSelector retryNodeSelector;
+    @GuardedBy("this")
+    private final Map<Integer, RetryablePartition> retryablePartitions = new HashMap<>();
+    @GuardedBy("this")
+    private final Set<TaskId> retriedTasks = newConcurrentHashSet();
+    @GuardedBy("this")
+    private final Set<RetryablePartition> pendingRetries = new LinkedHashSet<>();
+    @GuardedBy("this")
+    private boolean schedulingComplete;
 
     private final AtomicReference<OutputBuffers> outputBuffers = new AtomicReference<>();
 
     private final ListenerManager<Set<Lifespan>> completedLifespansChangeListeners = new ListenerManager<>();
+    private final ListenerManager<Set<PlanNodeId>> exceededBroadcastJoinsListeners = new ListenerManager<>();
 
     public static SqlStageExecution createSqlStageExecution(
             StageId stageId,
@@ -215,6 +244,14 @@ public final class SqlStageExecution
         completedLifespansChangeListeners.addListener(newlyCompletedDriverGroupConsumer);
     }
 
+    /**
+     * Add a listener for the switchable broadcast joins whose build side exceeded the adaptive join limit in a task of this stage.
+     */
+    public void addExceededBroadcastJoinsListener(Consumer<Set<PlanNodeId>> exceededBroadcastJoinsConsumer)
+    {
+        exceededBroadcastJoinsListeners.addListener(exceededBroadcastJoinsConsumer);
+    }
+
     public PlanFragment getFragment()
     {
         return stateMachine.getFragment();
@@ -241,13 +278,18 @@ public final class SqlStageExecution
             return;
         }
 
+        // all splits of the failed tasks are known now
+        schedulingComplete = true;
+        pendingRetries.forEach(this::scheduleRetry);
+        pendingRetries.clear();
+
         if (getAllTasks().stream().anyMatch(task -> getState() == StageState.RUNNING)) {
             stateMachine.transitionToRunning();
         }
         if (isFlushing()) {
             stateMachine.transitionToFlushing();
         }
-        if (finishedTasks.containsAll(allTasks)) {
+        if (isFinished()) {
             stateMachine.transitionToFinished();
         }
 
@@ -331,18 +373,70 @@ public final class SqlStageExecution
         }
 
         if (noMoreExchangeLocations) {
-            completeSourceFragments.add(fragmentId);
+            sourceFragmentComplete(fragmentId, remoteSource);
+        }
+    }
 
-            // is the source now complete?
-            if (completeSourceFragments.containsAll(remoteSource.getSourceFragmentIds())) {
-                completeSources.add(remoteSource.getId());
-                for (RemoteTask task : getAllTasks()) {
-                    task.noMoreSplits(remoteSource.getId());
-                }
+    /**
+     * Adds the spooled output of the finished tasks of a source stage. The tasks of this stage
+     * read the output from the task output spool, so the source stage must have finished.
+     */
+    public synchronized void addSpooledExchangeLocations(PlanFragmentId fragmentId, Set<TaskId> sourceTaskIds)
+    {
+        requireNonNull(fragmentId, "fragmentId is null");
+        requireNonNull(sourceTaskIds, "sourceTaskIds is null");
+
+        RemoteSourceNode remoteSource = exchangeSources.get(fragmentId);
+        checkArgument(remoteSource != null, "Unknown remote source %s. Known sources are %s", fragmentId, exchangeSources.keySet());
+
+        spooledSourceTasks.putAll(remoteSource, sourceTaskIds);
+
+        for (RemoteTask task : getAllTasks()) {
+            int partition = taskPartitions.get(task.getTaskId());
+            ImmutableMultimap.Builder<PlanNodeId, Split> newSplits = ImmutableMultimap.builder();
+            for (TaskId sourceTaskId : sourceTaskIds) {
+                newSplits.put(remoteSource.getId(), createSpooledSplitFor(remoteSource, sourceTaskId, partition));
+            }
+            task.addSplits(newSplits.build());
+        }
+
+        sourceFragmentComplete(fragmentId, remoteSource);
+    }
+
+    private synchronized void sourceFragmentComplete(PlanFragmentId fragmentId, RemoteSourceNode remoteSource)
+    {
+        completeSourceFragments.add(fragmentId);
+
+        // is the source now complete?
+        if (completeSourceFragments.containsAll(remoteSource.getSourceFragmentIds())) {
+            completeSources.add(remoteSource.getId());
+            for (RemoteTask task : getAllTasks()) {
+                task.noMoreSplits(remoteSource.getId());
             }
         }
     }
 
+    /**
+     * Enables executing a failed task again, up to the given number of times per partition of
+     * the stage. The output of the stage must be spooled, so that the consumers only read the
+     * output of the attempt that finished.
+     */
+    public synchronized void enableTaskRetries(int taskRetryAttempts, NodeSelector nodeSelector)
+    {
+        checkArgument(taskRetryAttempts >= 0, "taskRetryAttempts is negative");
+        checkState(allTasks.isEmpty(), "Task retries must be enabled before tasks are scheduled");
+        this.taskRetryAttempts = taskRetryAttempts;
+        this.retryNodeSelector = requireNonNull(nodeSelector, "nodeSelector is null");
+    }
+
+    /**
+     * Returns the tasks whose output is read by the consumers of this stage, once the stage finished.
+     */
+    public synchronized Set<TaskId> getFinishedTaskIds()
+    {
+        return ImmutableSet.copyOf(finishedTasks);
+    }
+
     public synchronized void setOutputBuffers(OutputBuffers outputBuffers)
     {
         requireNonNull(outputBuffers, "outputBuffers is null");
@@ -389,7 +483,7 @@ public final class SqlStageExecution
             return Optional.empty();
         }
         checkState(!splitsScheduled.get(), "scheduleTask cannot be called once splits have been scheduled");
-        return Optional.of(scheduleTask(node, new TaskId(stateMachine.getStageId(), partition), ImmutableMultimap.of(), totalPartitions));
+        return Optional.of(scheduleTask(node, new TaskId(stateMachine.getStageId(), partition), partition, ImmutableMultimap.of(), totalPartitions));
     }
 
     public synchronized Set<RemoteTask> scheduleSplits(InternalNode node, Multimap<PlanNodeId, Split> splits, Multimap<PlanNodeId, Lifespan> noMoreSplitsNotification)
@@ -411,13 +505,18 @@ public final class SqlStageExecution
             // The output buffer depends on the task id starting from 0 and being sequential, since each
             // task is assigned a private buffer based on task id.
             TaskId taskId = new TaskId(stateMachine.getStageId(), nextTaskId.getAndIncrement());
-            task = scheduleTask(node, taskId, splits, OptionalInt.empty());
+            task = scheduleTask(node, taskId, taskId.getId(), splits, OptionalInt.empty());
             newTasks.add(task);
         }
         else {
             task = tasks.iterator().next();
             task.addSplits(splits);
         }
+        RetryablePartition retryablePartition = retryablePartitions.get(taskPartitions.get(task.getTaskId()));
+        if (retryablePartition != null) {
+            // a task that is executed again must process the same splits
+            retryablePartition.addSplits(splits, noMoreSplitsNotification);
+        }
         if (noMoreSplitsNotification.size() > 1) {
             // The assumption that `noMoreSplitsNotification.size() <= 1` currently holds.
             // If this assumption no longer holds, we should consider calling task.noMoreSplits with multiple entries in one shot.
@@ -430,7 +529,7 @@ public final class SqlStageExecution
         return newTasks.build();
     }
 
-    private synchronized RemoteTask scheduleTask(InternalNode node, TaskId taskId, Multimap<PlanNodeId, Split> sourceSplits, OptionalInt totalPartitions)
+    private synchronized RemoteTask scheduleTask(InternalNode node, TaskId taskId, int partition, Multimap<PlanNodeId, Split> sourceSplits, OptionalInt totalPartitions)
     {
         checkArgument(!allTasks.contains(taskId), "A task with id %s already exists", taskId);
 
@@ -443,6 +542,7 @@ public final class SqlStageExecution
                 initialSplits.put(planNodeId, createRemoteSplitFor(taskId, status.getSelf()));
             }
         });
+        spooledSourceTasks.forEach((remoteSource, sourceTaskId) -> initialSplits.put(remoteSource.getId(), createSpooledSplitFor(remoteSource, sourceTaskId, partition)));
 
         OutputBuffers outputBuffers = this.outputBuffers.get();
         checkState(outputBuffers != null, "Initial output buffers must be set before a task can be scheduled");
@@ -460,6 +560,10 @@ public final class SqlStageExecution
 
         completeSources.forEach(task::noMoreSplits);
 
+        taskPartitions.put(taskId, partition);
+        if (taskRetryAttempts > 0) {
+            retryablePartitions.computeIfAbsent(partition, ignored -> new RetryablePartition(partition, totalPartitions)).setNode(node);
+        }
         allTasks.add(taskId);
         tasks.computeIfAbsent(node, key -> newConcurrentHashSet()).add(task);
         nodeTaskMap.addTask(node, task);
@@ -495,6 +599,14 @@ public final class SqlStageExecution
         return new Split(REMOTE_CONNECTOR_ID, new RemoteSplit(splitLocation), Lifespan.taskWide());
     }
 
+    private static Split createSpooledSplitFor(RemoteSourceNode remoteSource, TaskId sourceTaskId, int partition)
+    {
+        // a replicated source is spooled as a single partition, which is read by all tasks
+        int sourcePartition = remoteSource.getExchangeType() == REPLICATE ? 0 : partition;
+        URI splitLocation = new SpooledOutputLocation(sourceTaskId, sourcePartition).toUri();
+        return new Split(REMOTE_CONNECTOR_ID, new RemoteSplit(splitLocation), Lifespan.taskWide());
+    }
+
     private synchronized void updateTaskStatus(TaskStatus taskStatus)
     {
         try {
@@ -502,14 +614,22 @@ public final class SqlStageExecution
             if (stageState.isDone()) {
                 return;
             }
+            if (retriedTasks.contains(taskStatus.getTaskId())) {
+                // the task was replaced by another attempt
+                return;
+            }
 
             TaskState taskState = taskStatus.getState();
 
             switch (taskState) {
                 case FAILED:
-                    RuntimeException failure = taskStatus.getFailures().stream()
+                    Optional<ExecutionFailureInfo> failureInfo = taskStatus.getFailures().stream()
                             .findFirst()
-                            .map(this::rewriteTransportFailure)
+                            .map(this::rewriteTransportFailure);
+                    if (retryTask(taskStatus.getTaskId(), failureInfo)) {
+                        break;
+                    }
+                    RuntimeException failure = failureInfo
                             .map(ExecutionFailureInfo::toException)
                             .orElse(new TrinoException(GENERIC_INTERNAL_ERROR, "A task failed for an unknown reason"));
                     stateMachine.transitionToFailed(failure);
@@ -535,7 +655,7 @@ public final class SqlStageExecution
                 if (isFlushing()) {
                     stateMachine.transitionToFlushing();
                 }
-                if (finishedTasks.containsAll(allTasks)) {
+                if (isFinished()) {
                     stateMachine.transitionToFinished();
                 }
             }
@@ -546,11 +666,63 @@ public final class SqlStageExecution
         }
     }
 
+    private synchronized boolean retryTask(TaskId taskId, Optional<ExecutionFailureInfo> failure)
+    {
+        RetryablePartition partition = retryablePartitions.get(taskPartitions.get(taskId));
+        if (partition == null || partition.getFailedAttempts() >= taskRetryAttempts || outputBuffers.get().getType() != SPOOLING) {
+            return false;
+        }
+        // user errors and exceeded resource limits would fail again
+        ErrorCode errorCode = failure.map(ExecutionFailureInfo::getErrorCode).orElse(null);
+        if (errorCode != null && errorCode.getType() != INTERNAL_ERROR && errorCode.getType() != EXTERNAL) {
+            return false;
+        }
+
+        partition.recordFailedAttempt();
+        retriedTasks.add(taskId);
+        if (schedulingComplete) {
+            try {
+                scheduleRetry(partition);
+            }
+            catch (RuntimeException e) {
+                stateMachine.transitionToFailed(e);
+            }
+        }
+        else {
+            // the task is executed again once all of its splits are known
+            pendingRetries.add(partition);
+        }
+        return true;
+    }
+
+    private synchronized void scheduleRetry(RetryablePartition partition)
+    {
+        // prefer another node, since the failure may have been caused by the node
+        InternalNode failedNode = partition.getNode();
+        InternalNode node = retryNodeSelector.selectRandomNodes(1, ImmutableSet.of(failedNode)).stream()
+                .findFirst()
+                .orElse(failedNode);
+
+        int nextId = allTasks.stream()
+                .mapToInt(TaskId::getId)
+                .max()
+                .orElse(-1) + 1;
+        TaskId taskId = new TaskId(stateMachine.getStageId(), nextId);
+        RemoteTask task = scheduleTask(node, taskId, partition.getPartition(), partition.getSplits(), partition.getTotalPartitions());
+        partition.getNoMoreSplits().forEach(task::noMoreSplits);
+    }
+
     private synchronized boolean isFlushing()
     {
         // to transition to flushing, there must be at least one flushing task, and all others must be flushing or finished.
         return !flushingTasks.isEmpty()
-                && allTasks.stream().allMatch(taskId -> finishedTasks.contains(taskId) || flushingTasks.contains(taskId));
+                && allTasks.stream().allMatch(taskId -> finishedTasks.contains(taskId) || flushingTasks.contains(taskId) || retriedTasks.contains(taskId));
+    }
+
+    private synchronized boolean isFinished()
+    {
+        // a task that was executed again is replaced by the new attempt
+        return allTasks.stream().allMatch(taskId -> finishedTasks.contains(taskId) || retriedTasks.contains(taskId));
     }
 
     private synchronized void updateFinalTaskInfo(TaskInfo finalTaskInfo)
@@ -611,6 +783,7 @@ public final class SqlStageExecution
         private long previousSystemMemory;
         private long previousRevocableMemory;
         private final Set<Lifespan> completedDriverGroups = new HashSet<>();
+        private final Set<PlanNodeId> exceededBroadcastJoins = new HashSet<>();
 
         @Override
         public void stateChanged(TaskStatus taskStatus)
@@ -618,6 +791,7 @@ public final class SqlStageExecution
             try {
                 updateMemoryUsage(taskStatus);
                 updateCompletedDriverGroups(taskStatus);
+                updateExceededBroadcastJoins(taskStatus);
             }
             finally {
                 updateTaskStatus(taskStatus);
@@ -654,6 +828,78 @@ public final class SqlStageExecution
             // Making changes to completedDriverGroups will change newlyCompletedDriverGroups.
             completedDriverGroups.addAll(newlyCompletedDriverGroups);
         }
+
+        private synchronized void updateExceededBroadcastJoins(TaskStatus taskStatus)
+        {
+            Set<PlanNodeId> newlyExceededBroadcastJoins = ImmutableSet.copyOf(Sets.difference(taskStatus.getExceededBroadcastJoins(), this.exceededBroadcastJoins));
+            if (newlyExceededBroadcastJoins.isEmpty()) {
+                return;
+            }
+            exceededBroadcastJoinsListeners.invoke(newlyExceededBroadcastJoins, executor);
+            exceededBroadcastJoins.addAll(newlyExceededBroadcastJoins);
+        }
+    }
+
+    private static class RetryablePartition
+    {
+        private final int partition;
+        private final OptionalInt totalPartitions;
+        private final ListMultimap<PlanNodeId, Split> splits = ArrayListMultimap.create();
+        private final Multimap<PlanNodeId, Lifespan> noMoreSplits = HashMultimap.create();
+        private InternalNode node;
+        private int failedAttempts;
+
+        public RetryablePartition(int partition, OptionalInt totalPartitions)
+        {
+            this.partition = partition;
+            this.totalPartitions = requireNonNull(totalPartitions, "totalPartitions is null");
+        }
+
+        public int getPartition()
+        {
+            return partition;
+        }
+
+        public OptionalInt getTotalPartitions()
+        {
+            return totalPartitions;
+        }
+
+        public void addSplits(Multimap<PlanNodeId, Split> splits, Multimap<PlanNodeId, Lifespan> noMoreSplits)
+        {
+            this.splits.putAll(splits);
+            this.noMoreSplits.putAll(noMoreSplits);
+        }
+
+        public Multimap<PlanNodeId, Split> getSplits()
+        {
+            return splits;
+        }
+
+        public Multimap<PlanNodeId, Lifespan> getNoMoreSplits()
+        {
+            return noMoreSplits;
+        }
+
+        public InternalNode getNode()
+        {
+            return node;
+        }
+
+        public void setNode(InternalNode node)
+        {
+            this.node = requireNonNull(node, "node is null");
+        }
+
+        public int getFailedAttempts()
+        {
+            return failedAttempts;
+        }
+
+        public void recordFailedAttempt()
+        {
+            failedAttempts++;
+        }
     }
 
     private static class ListenerManager<T>
@@ -638,7 +638,14 @@ public class SqlTaskExecution
         }
 
         // no more output will be created
-        outputBuffer.setNoMorePages();
+        try {
+            outputBuffer.setNoMorePages();
+        }
+        catch (RuntimeException e) {
+            // the output could not be committed to the task output spool
+            taskStateMachine.failed(e);
+            return;
+        }
 
         // are there still pages in the output buffer
         if (!outputBuffer.isFinished()) {
@@ -939,13 +946,20 @@ public class SqlTaskExecution
 
         public Driver createDriver(DriverContext driverContext, @Nullable ScheduledSplit partitionedSplit)
         {
-            Driver driver = driverFactory.createDriver(driverContext);
+            Driver driver;
+            if (partitionedSplit != null) {
+                // drivers of splits with cached output skip all operators before the output operator
+                driver = driverFactory.createDriver(driverContext, partitionedSplit.getSplit());
+            }
+            else {
+                driver = driverFactory.createDriver(driverContext);
+            }
 
             // record driver so other threads add unpartitioned sources can see the driver
             // NOTE: this MUST be done before reading unpartitionedSources, so we see a consistent view of the unpartitioned sources
             drivers.add(new WeakReference<>(driver));
 
-            if (partitionedSplit != null) {
+            if (partitionedSplit != null && driver.getSourceId().isPresent()) {
                 // TableScanOperator requires partitioned split to be added before the first call to process
                 driver.updateSource(new TaskSource(partitionedSplit.getPlanNodeId(), ImmutableSet.of(partitionedSplit), true));
             }
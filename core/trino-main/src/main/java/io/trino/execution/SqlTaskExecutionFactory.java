@@ -88,6 +88,8 @@ public class SqlTaskExecutionFactory
                         fragment.getPartitioningScheme(),
                         fragment.getStageExecutionDescriptor(),
                         fragment.getPartitionedSources(),
+                        fragment.getResultCacheKey(),
+                        fragment.getSwitchableJoins(),
                         outputBuffer);
             }
             catch (Throwable e) {
@@ -23,7 +23,9 @@ import io.trino.execution.StateMachine.StateChangeListener;
 import io.trino.execution.scheduler.SplitSchedulerStats;
 import io.trino.operator.BlockedReason;
 import io.trino.operator.OperatorStats;
+import io.trino.operator.PartitionedOutputOperator.PartitionedOutputInfo;
 import io.trino.operator.PipelineStats;
+import io.trino.operator.SkewedPartitionKey;
 import io.trino.operator.TaskStats;
 import io.trino.spi.eventlistener.StageGcStatistics;
 import io.trino.sql.planner.PlanFragment;
@@ -34,6 +36,7 @@ import org.joda.time.DateTime;
 
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -547,7 +550,9 @@ public class StageStateMachine
                         totalFullGcSec,
                         (int) (1.0 * totalFullGcSec / fullGcCount)),
 
-                ImmutableList.copyOf(operatorToStats.values()));
+                ImmutableList.copyOf(operatorToStats.values()),
+
+                getSkewedPartitionKeys(operatorToStats.values()));
 
         ExecutionFailureInfo failureInfo = null;
         if (state == FAILED) {
@@ -564,6 +569,18 @@ public class StageStateMachine
                 failureInfo);
     }
 
+    private static List<SkewedPartitionKey> getSkewedPartitionKeys(Collection<OperatorStats> operatorSummaries)
+    {
+        List<SkewedPartitionKey> skewedPartitionKeys = ImmutableList.of();
+        for (OperatorStats operatorStats : operatorSummaries) {
+            if (operatorStats.getInfo() instanceof PartitionedOutputInfo) {
+                PartitionedOutputInfo info = (PartitionedOutputInfo) operatorStats.getInfo();
+                skewedPartitionKeys = SkewedPartitionKey.merge(skewedPartitionKeys, info.getSkewedKeys());
+            }
+        }
+        return skewedPartitionKeys;
+    }
+
     public void recordGetSplitTime(long startNanos)
     {
         long elapsedNanos = System.nanoTime() - startNanos;
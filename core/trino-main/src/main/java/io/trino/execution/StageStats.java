@@ -22,6 +22,7 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.trino.operator.BlockedReason;
 import io.trino.operator.OperatorStats;
+import io.trino.operator.SkewedPartitionKey;
 import io.trino.spi.eventlistener.StageGcStatistics;
 import org.joda.time.DateTime;
 
@@ -90,6 +91,8 @@ public class StageStats
 
     private final List<OperatorStats> operatorSummaries;
 
+    private final List<SkewedPartitionKey> skewedPartitionKeys;
+
     @JsonCreator
     public StageStats(
             @JsonProperty("schedulingComplete") DateTime schedulingComplete,
@@ -140,7 +143,9 @@ public class StageStats
 
             @JsonProperty("gcInfo") StageGcStatistics gcInfo,
 
-            @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries)
+            @JsonProperty("operatorSummaries") List<OperatorStats> operatorSummaries,
+
+            @JsonProperty("skewedPartitionKeys") List<SkewedPartitionKey> skewedPartitionKeys)
     {
         this.schedulingComplete = schedulingComplete;
         this.getSplitDistribution = requireNonNull(getSplitDistribution, "getSplitDistribution is null");
@@ -203,6 +208,7 @@ public class StageStats
         this.gcInfo = requireNonNull(gcInfo, "gcInfo is null");
 
         this.operatorSummaries = ImmutableList.copyOf(requireNonNull(operatorSummaries, "operatorSummaries is null"));
+        this.skewedPartitionKeys = ImmutableList.copyOf(requireNonNull(skewedPartitionKeys, "skewedPartitionKeys is null"));
     }
 
     @JsonProperty
@@ -421,6 +427,16 @@ public class StageStats
         return operatorSummaries;
     }
 
+    /**
+     * Keys of the stage output partitioning that were sent to a single partition
+     * much more often than others, with the most frequent key first.
+     */
+    @JsonProperty
+    public List<SkewedPartitionKey> getSkewedPartitionKeys()
+    {
+        return skewedPartitionKeys;
+    }
+
     public BasicStageStats toBasicStageStats(StageState stageState)
     {
         boolean isScheduled = stageState == RUNNING || stageState == FLUSHING || stageState.isDone();
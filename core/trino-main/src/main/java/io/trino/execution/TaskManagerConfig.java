@@ -74,6 +74,7 @@ public class TaskManagerConfig
     private int taskYieldThreads = 3;
 
     private BigDecimal levelTimeMultiplier = new BigDecimal(2.0);
+    private boolean runnerSplitQueuesEnabled;
 
     @MinDuration("1ms")
     @MaxDuration("10s")
@@ -209,6 +210,19 @@ public class TaskManagerConfig
         return this;
     }
 
+    public boolean isRunnerSplitQueuesEnabled()
+    {
+        return runnerSplitQueuesEnabled;
+    }
+
+    @Config("task.runner-split-queues-enabled")
+    @ConfigDescription("Queue splits per worker thread, preferring the thread that last ran a split, with idle threads stealing splits from busy ones")
+    public TaskManagerConfig setRunnerSplitQueuesEnabled(boolean runnerSplitQueuesEnabled)
+    {
+        this.runnerSplitQueuesEnabled = runnerSplitQueuesEnabled;
+        return this;
+    }
+
     @Min(1)
     public int getMaxWorkerThreads()
     {
@@ -19,6 +19,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.trino.sql.planner.plan.PlanNodeId;
 
 import java.net.URI;
 import java.util.List;
@@ -69,6 +70,8 @@ public class TaskStatus
 
     private final long dynamicFiltersVersion;
 
+    private final Set<PlanNodeId> exceededBroadcastJoins;
+
     @JsonCreator
     public TaskStatus(
             @JsonProperty("taskId") TaskId taskId,
@@ -88,7 +91,8 @@ public class TaskStatus
             @JsonProperty("revocableMemoryReservation") DataSize revocableMemoryReservation,
             @JsonProperty("fullGcCount") long fullGcCount,
             @JsonProperty("fullGcTime") Duration fullGcTime,
-            @JsonProperty("dynamicFiltersVersion") long dynamicFiltersVersion)
+            @JsonProperty("dynamicFiltersVersion") long dynamicFiltersVersion,
+            @JsonProperty("exceededBroadcastJoins") Set<PlanNodeId> exceededBroadcastJoins)
     {
         this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
@@ -120,6 +124,7 @@ public class TaskStatus
         this.fullGcTime = requireNonNull(fullGcTime, "fullGcTime is null");
         checkArgument(dynamicFiltersVersion >= INITIAL_DYNAMIC_FILTERS_VERSION, "dynamicFiltersVersion must be >= INITIAL_DYNAMIC_FILTERS_VERSION");
         this.dynamicFiltersVersion = dynamicFiltersVersion;
+        this.exceededBroadcastJoins = ImmutableSet.copyOf(requireNonNull(exceededBroadcastJoins, "exceededBroadcastJoins is null"));
     }
 
     @JsonProperty
@@ -230,6 +235,15 @@ public class TaskStatus
         return dynamicFiltersVersion;
     }
 
+    /**
+     * Broadcast joins whose build side exceeded the adaptive join limit in this task.
+     */
+    @JsonProperty
+    public Set<PlanNodeId> getExceededBroadcastJoins()
+    {
+        return exceededBroadcastJoins;
+    }
+
     @Override
     public String toString()
     {
@@ -259,7 +273,8 @@ public class TaskStatus
                 DataSize.ofBytes(0),
                 0,
                 new Duration(0, MILLISECONDS),
-                INITIAL_DYNAMIC_FILTERS_VERSION);
+                INITIAL_DYNAMIC_FILTERS_VERSION,
+                ImmutableSet.of());
     }
 
     public static TaskStatus failWith(TaskStatus taskStatus, TaskState state, List<ExecutionFailureInfo> exceptions)
@@ -282,6 +297,7 @@ public class TaskStatus
                 taskStatus.getRevocableMemoryReservation(),
                 taskStatus.getFullGcCount(),
                 taskStatus.getFullGcTime(),
-                taskStatus.getDynamicFiltersVersion());
+                taskStatus.getDynamicFiltersVersion(),
+                taskStatus.getExceededBroadcastJoins());
     }
 }
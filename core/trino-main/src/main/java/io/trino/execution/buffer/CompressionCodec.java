@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import io.airlift.compress.Compressor;
+import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
+import io.airlift.compress.lz4.Lz4Decompressor;
+import io.airlift.compress.snappy.SnappyCompressor;
+import io.airlift.compress.snappy.SnappyDecompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
+import io.airlift.compress.zstd.ZstdDecompressor;
+import io.trino.execution.buffer.PageCodecMarker.MarkerSet;
+
+import java.util.Optional;
+
+import static io.trino.execution.buffer.PageCodecMarker.COMPRESSED;
+
+/**
+ * Compression codec of {@link SerializedPage}s. A compressed page always has the
+ * {@link PageCodecMarker#COMPRESSED} marker set. The codec is recorded with an additional
+ * marker, except for {@link #LZ4}, so that pages written before codecs were selectable still decode.
+ */
+public enum CompressionCodec
+{
+    NONE(Optional.empty()),
+    LZ4(Optional.empty()),
+    ZSTD(Optional.of(PageCodecMarker.ZSTD)),
+    SNAPPY(Optional.of(PageCodecMarker.SNAPPY));
+
+    private final Optional<PageCodecMarker> codecMarker;
+
+    CompressionCodec(Optional<PageCodecMarker> codecMarker)
+    {
+        this.codecMarker = codecMarker;
+    }
+
+    public Optional<Compressor> createCompressor()
+    {
+        switch (this) {
+            case NONE:
+                return Optional.empty();
+            case LZ4:
+                return Optional.of(new Lz4Compressor());
+            case ZSTD:
+                return Optional.of(new ZstdCompressor());
+            case SNAPPY:
+                return Optional.of(new SnappyCompressor());
+        }
+        throw new IllegalArgumentException("Unsupported compression codec: " + this);
+    }
+
+    public Decompressor createDecompressor()
+    {
+        switch (this) {
+            case NONE:
+                break;
+            case LZ4:
+                return new Lz4Decompressor();
+            case ZSTD:
+                return new ZstdDecompressor();
+            case SNAPPY:
+                return new SnappyDecompressor();
+        }
+        throw new IllegalArgumentException("Unsupported compression codec: " + this);
+    }
+
+    public void addMarkers(MarkerSet markers)
+    {
+        markers.add(COMPRESSED);
+        codecMarker.ifPresent(markers::add);
+    }
+
+    public static CompressionCodec fromMarkers(byte markers)
+    {
+        if (!COMPRESSED.isSet(markers)) {
+            return NONE;
+        }
+        if (PageCodecMarker.ZSTD.isSet(markers)) {
+            return ZSTD;
+        }
+        if (PageCodecMarker.SNAPPY.isSet(markers)) {
+            return SNAPPY;
+        }
+        return LZ4;
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.airlift.log.Logger;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+import io.trino.execution.TaskId;
+import io.trino.spi.QueryId;
+import io.trino.spi.TrinoException;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.trino.execution.buffer.PagesSerdeUtil.readSerializedPages;
+import static io.trino.execution.buffer.PagesSerdeUtil.writeSerializedPage;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.lang.String.format;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.util.Objects.requireNonNull;
+import static java.util.UUID.randomUUID;
+
+/**
+ * Spools task output to a directory, one file per partition. The output of a task
+ * is written to a temporary directory, which is renamed when the sink is finished.
+ */
+public class FileTaskOutputSpool
+        implements TaskOutputSpool
+{
+    private static final Logger log = Logger.get(FileTaskOutputSpool.class);
+
+    @VisibleForTesting
+    static final int BUFFER_SIZE = 4 * 1024;
+    private static final String PARTITION_FILE_SUFFIX = ".data";
+    private static final String TEMPORARY_DIRECTORY_INFIX = ".tmp-";
+
+    private final Path spoolPath;
+
+    @Inject
+    public FileTaskOutputSpool(FileTaskOutputSpoolConfig config)
+    {
+        this(config.getSpoolPath().toPath());
+    }
+
+    public FileTaskOutputSpool(Path spoolPath)
+    {
+        this.spoolPath = requireNonNull(spoolPath, "spoolPath is null");
+    }
+
+    @Override
+    public TaskOutputSink createSink(TaskId taskId, int partitionCount)
+    {
+        checkArgument(partitionCount > 0, "partitionCount must be positive");
+        Path taskPath = getTaskPath(taskId);
+        Path temporaryPath = taskPath.resolveSibling(taskPath.getFileName() + TEMPORARY_DIRECTORY_INFIX + randomUUID());
+        try {
+            Files.createDirectories(temporaryPath);
+        }
+        catch (IOException e) {
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to create task output spool directory", e);
+        }
+        return new FileTaskOutputSink(taskPath, temporaryPath, partitionCount);
+    }
+
+    @Override
+    public TaskOutputReader createReader(TaskId taskId, int partition)
+    {
+        Path taskPath = getTaskPath(taskId);
+        if (!Files.isDirectory(taskPath)) {
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, format("Output of task %s was not found in the task output spool", taskId));
+        }
+        try {
+            InputStream input = Files.newInputStream(getPartitionPath(taskPath, partition));
+            return new FileTaskOutputReader(input);
+        }
+        catch (NoSuchFileException e) {
+            // the task did not produce any output for the partition
+            return new FileTaskOutputReader(InputStream.nullInputStream());
+        }
+        catch (IOException e) {
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, format("Failed to read output of task %s from the task output spool", taskId), e);
+        }
+    }
+
+    @Override
+    public void removeQuery(QueryId queryId)
+    {
+        Path queryPath = spoolPath.resolve(queryId.getId());
+        if (!Files.exists(queryPath)) {
+            return;
+        }
+        try {
+            deleteRecursively(queryPath, ALLOW_INSECURE);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to remove spooled task output of query %s", queryId);
+        }
+    }
+
+    private Path getTaskPath(TaskId taskId)
+    {
+        return spoolPath.resolve(taskId.getQueryId().getId()).resolve(taskId.toString());
+    }
+
+    private static Path getPartitionPath(Path directory, int partition)
+    {
+        return directory.resolve(partition + PARTITION_FILE_SUFFIX);
+    }
+
+    @ThreadSafe
+    private static class FileTaskOutputSink
+            implements TaskOutputSink
+    {
+        private final Path taskPath;
+        private final Path temporaryPath;
+
+        @GuardedBy("this")
+        private final SliceOutput[] outputs;
+        @GuardedBy("this")
+        private boolean finished;
+        @GuardedBy("this")
+        private boolean aborted;
+
+        public FileTaskOutputSink(Path taskPath, Path temporaryPath, int partitionCount)
+        {
+            this.taskPath = requireNonNull(taskPath, "taskPath is null");
+            this.temporaryPath = requireNonNull(temporaryPath, "temporaryPath is null");
+            this.outputs = new SliceOutput[partitionCount];
+        }
+
+        @Override
+        public synchronized void add(int partition, List<SerializedPage> pages)
+        {
+            checkState(!finished && !aborted, "Sink is already closed");
+            try {
+                if (outputs[partition] == null) {
+                    outputs[partition] = new OutputStreamSliceOutput(Files.newOutputStream(getPartitionPath(temporaryPath, partition)), BUFFER_SIZE);
+                }
+                for (SerializedPage page : pages) {
+                    writeSerializedPage(outputs[partition], page);
+                }
+            }
+            catch (UncheckedIOException | IOException e) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to write task output to the task output spool", e);
+            }
+        }
+
+        @Override
+        public synchronized void finish()
+        {
+            if (finished) {
+                return;
+            }
+            checkState(!aborted, "Sink is already aborted");
+            try {
+                closeOutputs();
+                Files.move(temporaryPath, taskPath, ATOMIC_MOVE);
+            }
+            catch (IOException e) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to commit task output to the task output spool", e);
+            }
+            finished = true;
+        }
+
+        @Override
+        public synchronized void abort()
+        {
+            if (finished || aborted) {
+                return;
+            }
+            aborted = true;
+            try {
+                closeOutputs();
+            }
+            catch (IOException e) {
+                log.warn(e, "Failed to close task output spool file");
+            }
+            try {
+                deleteRecursively(temporaryPath, ALLOW_INSECURE);
+            }
+            catch (IOException e) {
+                log.warn(e, "Failed to remove spooled output of aborted task");
+            }
+        }
+
+        @GuardedBy("this")
+        private void closeOutputs()
+                throws IOException
+        {
+            IOException failure = null;
+            for (int partition = 0; partition < outputs.length; partition++) {
+                if (outputs[partition] == null) {
+                    continue;
+                }
+                try {
+                    outputs[partition].close();
+                }
+                catch (IOException e) {
+                    if (failure == null) {
+                        failure = e;
+                    }
+                }
+                outputs[partition] = null;
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static class FileTaskOutputReader
+            implements TaskOutputReader
+    {
+        private final InputStreamSliceInput input;
+        private final Iterator<SerializedPage> pages;
+
+        public FileTaskOutputReader(InputStream input)
+        {
+            this.input = new InputStreamSliceInput(input, BUFFER_SIZE);
+            this.pages = readSerializedPages(this.input);
+        }
+
+        @Override
+        public SerializedPage readPage()
+        {
+            try {
+                if (!pages.hasNext()) {
+                    return null;
+                }
+                return pages.next();
+            }
+            catch (UncheckedIOException e) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to read task output from the task output spool", e);
+            }
+        }
+
+        @Override
+        public void close()
+        {
+            input.close();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+
+import javax.validation.constraints.NotNull;
+
+import java.io.File;
+
+public class FileTaskOutputSpoolConfig
+{
+    private File spoolPath = new File(System.getProperty("java.io.tmpdir"), "trino-task-output-spool");
+
+    @NotNull
+    public File getSpoolPath()
+    {
+        return spoolPath;
+    }
+
+    @Config("task-output-spool.path")
+    @ConfigDescription("Directory for the spooled output of tasks that can be retried, shared by all nodes")
+    public FileTaskOutputSpoolConfig setSpoolPath(File spoolPath)
+    {
+        this.spoolPath = spoolPath;
+        return this;
+    }
+}
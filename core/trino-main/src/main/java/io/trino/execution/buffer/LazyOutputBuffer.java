@@ -48,12 +48,14 @@ public class LazyOutputBuffer
         implements OutputBuffer
 {
     private final StateMachine<BufferState> state;
+    private final TaskId taskId;
     private final String taskInstanceId;
     private final DataSize maxBufferSize;
     private final DataSize maxBroadcastBufferSize;
     private final Supplier<LocalMemoryContext> systemMemoryContextSupplier;
     private final Executor executor;
     private final Runnable notifyStatusChanged;
+    private final TaskOutputSpool taskOutputSpool;
 
     // Note: this is a write once field, so an unsynchronized volatile read that returns a non-null value is safe, but if a null value is observed instead
     // a subsequent synchronized read is required to ensure the writing thread can complete any in-flight initialization
@@ -73,9 +75,10 @@ public class LazyOutputBuffer
             DataSize maxBufferSize,
             DataSize maxBroadcastBufferSize,
             Supplier<LocalMemoryContext> systemMemoryContextSupplier,
-            Runnable notifyStatusChanged)
+            Runnable notifyStatusChanged,
+            TaskOutputSpool taskOutputSpool)
     {
-        requireNonNull(taskId, "taskId is null");
+        this.taskId = requireNonNull(taskId, "taskId is null");
         this.taskInstanceId = requireNonNull(taskInstanceId, "taskInstanceId is null");
         this.executor = requireNonNull(executor, "executor is null");
         state = new StateMachine<>(taskId + "-buffer", executor, OPEN, TERMINAL_BUFFER_STATES);
@@ -84,6 +87,7 @@ public class LazyOutputBuffer
         checkArgument(maxBufferSize.toBytes() > 0, "maxBufferSize must be at least 1");
         this.systemMemoryContextSupplier = requireNonNull(systemMemoryContextSupplier, "systemMemoryContextSupplier is null");
         this.notifyStatusChanged = requireNonNull(notifyStatusChanged, "notifyStatusChanged is null");
+        this.taskOutputSpool = requireNonNull(taskOutputSpool, "taskOutputSpool is null");
     }
 
     @Override
@@ -168,6 +172,9 @@ public class LazyOutputBuffer
                         case ARBITRARY:
                             outputBuffer = new ArbitraryOutputBuffer(taskInstanceId, state, maxBufferSize, systemMemoryContextSupplier, executor);
                             break;
+                        case SPOOLING:
+                            outputBuffer = new SpoolingOutputBuffer(state, newOutputBuffers, taskOutputSpool.createSink(taskId, newOutputBuffers.getBuffers().size()));
+                            break;
                     }
 
                     // process pending aborts and reads outside of synchronized lock
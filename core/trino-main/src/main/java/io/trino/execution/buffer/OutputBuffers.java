@@ -30,6 +30,7 @@ import static com.google.common.base.Preconditions.checkState;
 import static io.trino.execution.buffer.OutputBuffers.BufferType.ARBITRARY;
 import static io.trino.execution.buffer.OutputBuffers.BufferType.BROADCAST;
 import static io.trino.execution.buffer.OutputBuffers.BufferType.PARTITIONED;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.SPOOLING;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static java.lang.Integer.parseInt;
@@ -59,11 +60,29 @@ public final class OutputBuffers
         return new OutputBuffers(type, 0, false, ImmutableMap.of());
     }
 
+    /**
+     * Creates the output buffers of a task whose output is written to the {@link TaskOutputSpool},
+     * with one partition for each task of the consuming stage, or a single partition when all
+     * consuming tasks read the whole output.
+     */
+    public static OutputBuffers createSpoolingOutputBuffers(int partitionCount)
+    {
+        checkArgument(partitionCount > 0, "partitionCount must be positive");
+        ImmutableMap.Builder<OutputBufferId, Integer> buffers = ImmutableMap.builder();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            buffers.put(new OutputBufferId(partition), partition);
+        }
+        return createInitialEmptyOutputBuffers(SPOOLING)
+                .withBuffers(buffers.build())
+                .withNoMoreBufferIds();
+    }
+
     public enum BufferType
     {
         PARTITIONED,
         BROADCAST,
         ARBITRARY,
+        SPOOLING,
     }
 
     private final BufferType type;
@@ -20,16 +20,30 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.trino.execution.buffer.PageCodecMarker.MarkerSet;
 import io.trino.spi.Page;
+import io.trino.spi.block.AbstractArrayBlock;
+import io.trino.spi.block.AbstractMapBlock;
+import io.trino.spi.block.AbstractRowBlock;
+import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockEncodingSerde;
+import io.trino.spi.block.ByteArrayBlock;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.block.Int128ArrayBlock;
+import io.trino.spi.block.Int96ArrayBlock;
+import io.trino.spi.block.IntArrayBlock;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.block.ShortArrayBlock;
 import io.trino.spiller.SpillCipher;
 
 import javax.annotation.concurrent.NotThreadSafe;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
-import static io.trino.execution.buffer.PageCodecMarker.COMPRESSED;
+import static io.airlift.slice.SizeOf.sizeOf;
 import static io.trino.execution.buffer.PageCodecMarker.ENCRYPTED;
 import static io.trino.execution.buffer.PagesSerdeUtil.readRawPage;
 import static io.trino.execution.buffer.PagesSerdeUtil.writeRawPage;
@@ -41,18 +55,26 @@ import static java.util.Objects.requireNonNull;
 public class PagesSerde
 {
     private static final double MINIMUM_COMPRESSION_RATIO = 0.8;
+    // upper bound of the number of pages sent uncompressed between two compression attempts in adaptive mode
+    private static final int MAX_ADAPTIVE_SKIPPED_PAGES = 64;
 
     private final BlockEncodingSerde blockEncodingSerde;
+    private final CompressionCodec compressionCodec;
     private final Optional<Compressor> compressor;
-    private final Optional<Decompressor> decompressor;
+    private final boolean adaptiveCompression;
     private final Optional<SpillCipher> spillCipher;
+    // decompressors are created on first use, since a page can be compressed with any codec
+    private final Map<CompressionCodec, Decompressor> decompressors = new EnumMap<>(CompressionCodec.class);
 
-    public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor, Optional<SpillCipher> spillCipher)
+    private int adaptiveSkipInterval;
+    private int adaptivePagesToSkip;
+
+    public PagesSerde(BlockEncodingSerde blockEncodingSerde, CompressionCodec compressionCodec, boolean adaptiveCompression, Optional<SpillCipher> spillCipher)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
-        checkArgument(compressor.isPresent() == decompressor.isPresent(), "compressor and decompressor must both be present or both be absent");
-        this.compressor = requireNonNull(compressor, "compressor is null");
-        this.decompressor = requireNonNull(decompressor, "decompressor is null");
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.compressor = compressionCodec.createCompressor();
+        this.adaptiveCompression = adaptiveCompression;
         this.spillCipher = requireNonNull(spillCipher, "spillCipher is null");
     }
 
@@ -71,7 +93,7 @@ public class PagesSerde
             int uncompressedSize = serializationBuffer.size();
             MarkerSet markers = MarkerSet.empty();
 
-            if (compressor.isPresent()) {
+            if (compressor.isPresent() && shouldCompress()) {
                 byte[] compressed = context.acquireBuffer(compressor.get().maxCompressedLength(uncompressedSize));
                 int compressedSize = compressor.get().compress(
                         slice.byteArray(),
@@ -81,9 +103,11 @@ public class PagesSerde
                         0,
                         compressed.length);
 
-                if ((((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO) {
+                boolean compressionEffective = (((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO;
+                recordCompressionResult(compressionEffective);
+                if (compressionEffective) {
                     slice = Slices.wrappedBuffer(compressed, 0, compressedSize);
-                    markers.add(COMPRESSED);
+                    compressionCodec.addMarkers(markers);
                     inUseTempBuffer = compressed; // Track the compression buffer as in use
                 }
                 else {
@@ -132,8 +156,8 @@ public class PagesSerde
         checkArgument(serializedPage != null, "serializedPage is null");
 
         Slice slice = serializedPage.getSlice();
-        // This buffer *must not* be released at the end, since block decoding might create references to the buffer but
-        // *can* be released for reuse if used for decryption and later released after decompression
+        // This buffer *must not* be released at the end when the decoded page references it, since block decoding might create
+        // references to the buffer but *can* be released for reuse if used for decryption and later released after decompression
         byte[] inUseTempBuffer = null;
         if (serializedPage.isEncrypted()) {
             checkState(spillCipher.isPresent(), "Page is encrypted, but spill cipher is missing");
@@ -151,11 +175,13 @@ public class PagesSerde
         }
 
         if (serializedPage.isCompressed()) {
-            checkState(decompressor.isPresent(), "Page is compressed, but decompressor is missing");
+            Decompressor decompressor = decompressors.computeIfAbsent(
+                    CompressionCodec.fromMarkers(serializedPage.getPageCodecMarkers()),
+                    CompressionCodec::createDecompressor);
 
             int uncompressedSize = serializedPage.getUncompressedSizeInBytes();
             byte[] decompressed = context.acquireBuffer(uncompressedSize);
-            checkState(decompressor.get().decompress(
+            checkState(decompressor.decompress(
                     slice.byteArray(),
                     slice.byteArrayOffset(),
                     slice.length(),
@@ -168,9 +194,82 @@ public class PagesSerde
                 //  Previous buffer is no longer in use and safe to release
                 context.releaseBuffer(inUseTempBuffer);
             }
+            inUseTempBuffer = decompressed;
+        }
+
+        Page page = readRawPage(serializedPage.getPositionCount(), slice.getInput(), blockEncodingSerde);
+        if (inUseTempBuffer != null && !referencesSerializedData(page)) {
+            //  All values were copied out of the buffer while decoding, so it can be reused for the next page
+            context.releaseBuffer(inUseTempBuffer);
+        }
+        return page;
+    }
+
+    private static boolean referencesSerializedData(Page page)
+    {
+        for (int channel = 0; channel < page.getChannelCount(); channel++) {
+            if (referencesSerializedData(page.getBlock(channel))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Fixed width blocks are decoded into newly allocated arrays, while variable width blocks
+     * are views over the serialized data. Blocks of unknown types are assumed to reference it.
+     */
+    private static boolean referencesSerializedData(Block block)
+    {
+        if (block instanceof LongArrayBlock ||
+                block instanceof IntArrayBlock ||
+                block instanceof ShortArrayBlock ||
+                block instanceof ByteArrayBlock ||
+                block instanceof Int96ArrayBlock ||
+                block instanceof Int128ArrayBlock) {
+            return false;
+        }
+        if (block instanceof RunLengthEncodedBlock ||
+                block instanceof DictionaryBlock ||
+                block instanceof AbstractArrayBlock ||
+                block instanceof AbstractMapBlock ||
+                block instanceof AbstractRowBlock) {
+            for (Block child : block.getChildren()) {
+                if (referencesSerializedData(child)) {
+                    return true;
+                }
+            }
+            return false;
         }
+        return true;
+    }
 
-        return readRawPage(serializedPage.getPositionCount(), slice.getInput(), blockEncodingSerde);
+    /**
+     * In adaptive mode, every page that does not compress well doubles the number of
+     * following pages that are sent without attempting compression, up to
+     * {@link #MAX_ADAPTIVE_SKIPPED_PAGES}. A page that compresses well resets it.
+     */
+    private boolean shouldCompress()
+    {
+        if (adaptivePagesToSkip > 0) {
+            adaptivePagesToSkip--;
+            return false;
+        }
+        return true;
+    }
+
+    private void recordCompressionResult(boolean compressionEffective)
+    {
+        if (!adaptiveCompression) {
+            return;
+        }
+        if (compressionEffective) {
+            adaptiveSkipInterval = 0;
+        }
+        else {
+            adaptiveSkipInterval = Math.min(Math.max(1, adaptiveSkipInterval * 2), MAX_ADAPTIVE_SKIPPED_PAGES);
+            adaptivePagesToSkip = adaptiveSkipInterval;
+        }
     }
 
     public static final class PagesSerdeContext
@@ -253,6 +352,21 @@ public class PagesSerde
             }
         }
 
+        public long getRetainedSizeInBytes()
+        {
+            long size = 0;
+            if (sliceOutput != null) {
+                size += sliceOutput.getRetainedSize();
+            }
+            if (largerBuffer != null) {
+                size += sizeOf(largerBuffer);
+            }
+            if (smallerBuffer != null) {
+                size += sizeOf(smallerBuffer);
+            }
+            return size;
+        }
+
         @Override
         public void close()
         {
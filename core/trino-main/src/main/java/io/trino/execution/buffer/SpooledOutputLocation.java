@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import io.trino.execution.TaskId;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.spi.QueryId.parseDottedId;
+import static java.lang.Integer.parseInt;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Location of a partition of the output of a task in the {@link TaskOutputSpool}.
+ * It is passed to the consuming tasks in place of the location of a task output buffer.
+ */
+public final class SpooledOutputLocation
+{
+    private static final String SCHEME = "spool";
+
+    private final TaskId taskId;
+    private final int partition;
+
+    public SpooledOutputLocation(TaskId taskId, int partition)
+    {
+        this.taskId = requireNonNull(taskId, "taskId is null");
+        checkArgument(partition >= 0, "partition is negative");
+        this.partition = partition;
+    }
+
+    public static boolean isSpooledOutputLocation(URI location)
+    {
+        return SCHEME.equals(location.getScheme());
+    }
+
+    public static SpooledOutputLocation fromUri(URI location)
+    {
+        checkArgument(isSpooledOutputLocation(location), "Not a spooled output location: %s", location);
+        List<String> ids = parseDottedId(location.getSchemeSpecificPart(), 4, "spooledOutputLocation");
+        return new SpooledOutputLocation(new TaskId(ids.get(0), parseInt(ids.get(1)), parseInt(ids.get(2))), parseInt(ids.get(3)));
+    }
+
+    public URI toUri()
+    {
+        return URI.create(SCHEME + ":" + taskId + "." + partition);
+    }
+
+    public TaskId getTaskId()
+    {
+        return taskId;
+    }
+
+    public int getPartition()
+    {
+        return partition;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SpooledOutputLocation that = (SpooledOutputLocation) o;
+        return partition == that.partition &&
+                taskId.equals(that.taskId);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(taskId, partition);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("taskId", taskId)
+                .add("partition", partition)
+                .toString();
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
+import io.trino.execution.StateMachine;
+import io.trino.execution.StateMachine.StateChangeListener;
+import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
+import io.trino.execution.buffer.TaskOutputSpool.TaskOutputSink;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static io.trino.execution.buffer.BufferState.FAILED;
+import static io.trino.execution.buffer.BufferState.FINISHED;
+import static io.trino.execution.buffer.BufferState.FLUSHING;
+import static io.trino.execution.buffer.BufferState.NO_MORE_BUFFERS;
+import static io.trino.execution.buffer.BufferState.OPEN;
+import static io.trino.execution.buffer.OutputBuffers.BufferType.SPOOLING;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A buffer that writes all pages to the {@link TaskOutputSpool} instead of keeping them in
+ * memory until they are acknowledged. The buffer is finished once the output is committed,
+ * and consumers read the output from the spool, even after this task is gone.
+ */
+@ThreadSafe
+public class SpoolingOutputBuffer
+        implements OutputBuffer
+{
+    private static final ListenableFuture<Void> NOT_FULL = immediateVoidFuture();
+
+    private final StateMachine<BufferState> state;
+    private final TaskOutputSink sink;
+    private final int partitionCount;
+
+    @GuardedBy("this")
+    private int nextPartition;
+
+    private final AtomicLong totalPagesAdded = new AtomicLong();
+    private final AtomicLong totalRowsAdded = new AtomicLong();
+
+    public SpoolingOutputBuffer(StateMachine<BufferState> state, OutputBuffers outputBuffers, TaskOutputSink sink)
+    {
+        this.state = requireNonNull(state, "state is null");
+        this.sink = requireNonNull(sink, "sink is null");
+        requireNonNull(outputBuffers, "outputBuffers is null");
+        checkArgument(outputBuffers.getType() == SPOOLING, "Expected a SPOOLING output buffer");
+        checkArgument(outputBuffers.isNoMoreBufferIds(), "Spooled output partitions must be declared upfront");
+        this.partitionCount = outputBuffers.getBuffers().size();
+        checkArgument(partitionCount > 0, "No output partitions");
+    }
+
+    @Override
+    public void addStateChangeListener(StateChangeListener<BufferState> stateChangeListener)
+    {
+        state.addStateChangeListener(stateChangeListener);
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return state.get() == FINISHED;
+    }
+
+    @Override
+    public double getUtilization()
+    {
+        return 0.0;
+    }
+
+    @Override
+    public boolean isOverutilized()
+    {
+        return false;
+    }
+
+    @Override
+    public OutputBufferInfo getInfo()
+    {
+        BufferState state = this.state.get();
+        return new OutputBufferInfo(
+                "SPOOLING",
+                state,
+                state.canAddBuffers(),
+                state.canAddPages(),
+                0,
+                0,
+                totalRowsAdded.get(),
+                totalPagesAdded.get(),
+                ImmutableList.of());
+    }
+
+    @Override
+    public void setOutputBuffers(OutputBuffers newOutputBuffers)
+    {
+        checkState(!Thread.holdsLock(this), "Cannot set output buffers while holding a lock on this");
+        requireNonNull(newOutputBuffers, "newOutputBuffers is null");
+        checkArgument(newOutputBuffers.getType() == SPOOLING, "Expected a SPOOLING output buffer");
+        checkArgument(newOutputBuffers.getBuffers().size() == partitionCount, "Spooled output partitions cannot change");
+
+        state.compareAndSet(OPEN, NO_MORE_BUFFERS);
+    }
+
+    @Override
+    public ListenableFuture<BufferResult> get(OutputBufferId bufferId, long token, DataSize maxSize)
+    {
+        throw new UnsupportedOperationException("Spooled output is read from the task output spool");
+    }
+
+    @Override
+    public void acknowledge(OutputBufferId bufferId, long token)
+    {
+        throw new UnsupportedOperationException("Spooled output is read from the task output spool");
+    }
+
+    @Override
+    public void abort(OutputBufferId bufferId)
+    {
+        // there are no readers of this buffer
+    }
+
+    @Override
+    public ListenableFuture<Void> isFull()
+    {
+        return NOT_FULL;
+    }
+
+    @Override
+    public synchronized void enqueue(List<SerializedPage> pages)
+    {
+        enqueue(nextPartition, pages);
+        nextPartition = (nextPartition + 1) % partitionCount;
+    }
+
+    @Override
+    public synchronized void enqueue(int partition, List<SerializedPage> pages)
+    {
+        requireNonNull(pages, "pages is null");
+        checkArgument(partition < partitionCount, "Invalid partition %s", partition);
+
+        // ignore pages after "no more pages" is set
+        // this can happen with a limit query
+        if (!state.get().canAddPages()) {
+            return;
+        }
+
+        sink.add(partition, pages);
+        totalPagesAdded.addAndGet(pages.size());
+        totalRowsAdded.addAndGet(pages.stream().mapToLong(SerializedPage::getPositionCount).sum());
+    }
+
+    @Override
+    public void setNoMorePages()
+    {
+        synchronized (this) {
+            if (!state.compareAndSet(NO_MORE_BUFFERS, FLUSHING)) {
+                return;
+            }
+            // a failure to commit fails the task
+            sink.finish();
+        }
+        state.setIf(FINISHED, oldState -> !oldState.isTerminal());
+    }
+
+    @Override
+    public void destroy()
+    {
+        // ignore destroy if the buffer already in a terminal state.
+        if (state.setIf(FINISHED, oldState -> !oldState.isTerminal())) {
+            sink.abort();
+        }
+    }
+
+    @Override
+    public void fail()
+    {
+        // ignore fail if the buffer already in a terminal state.
+        if (state.setIf(FAILED, oldState -> !oldState.isTerminal())) {
+            sink.abort();
+        }
+    }
+
+    @Override
+    public long getPeakMemoryUsage()
+    {
+        return 0;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import io.trino.execution.TaskId;
+import io.trino.spi.QueryId;
+
+import javax.annotation.Nullable;
+
+import java.io.Closeable;
+import java.util.List;
+
+/**
+ * Storage for the output of tasks that must outlive the task and the node it ran on,
+ * so that a task can be retried by reading the output of its source tasks again.
+ * The storage must be shared by all nodes of the cluster.
+ */
+public interface TaskOutputSpool
+{
+    /**
+     * Creates a sink for the partitioned output of the task. The output becomes
+     * visible to readers only once the sink is finished.
+     */
+    TaskOutputSink createSink(TaskId taskId, int partitionCount);
+
+    /**
+     * Opens the output of a partition of a task whose sink was finished.
+     */
+    TaskOutputReader createReader(TaskId taskId, int partition);
+
+    /**
+     * Removes the output of all tasks of the query.
+     */
+    void removeQuery(QueryId queryId);
+
+    interface TaskOutputSink
+    {
+        void add(int partition, List<SerializedPage> pages);
+
+        /**
+         * Commits the output, atomically making all partitions visible to readers.
+         */
+        void finish();
+
+        /**
+         * Discards the output. This is a no-op if the sink was already finished.
+         */
+        void abort();
+    }
+
+    interface TaskOutputReader
+            extends Closeable
+    {
+        /**
+         * @return the next page, or null if all pages have been read
+         */
+        @Nullable
+        SerializedPage readPage();
+
+        @Override
+        void close();
+    }
+}
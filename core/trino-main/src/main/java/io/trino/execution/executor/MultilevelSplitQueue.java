@@ -28,55 +28,82 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.concurrent.TimeUnit.NANOSECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
+/**
+ * Splits are queued in one queue per runner thread when runner split queues are enabled,
+ * or in a single shared queue otherwise. A split is re-queued to the queue of the runner
+ * that last ran it, so it tends to stay on the same thread (and its caches) between quanta,
+ * and runners contend for their own queue lock only. A runner with an empty queue steals
+ * from the queues of other runners before going idle.
+ * <p>
+ * The scheduled time of levels is shared by all queues, so each runner picks the level
+ * furthest behind its target time, preserving fairness between levels.
+ */
 @ThreadSafe
 public class MultilevelSplitQueue
 {
     static final int[] LEVEL_THRESHOLD_SECONDS = {0, 1, 10, 60, 300};
     static final long LEVEL_CONTRIBUTION_CAP = SECONDS.toNanos(30);
 
-    @GuardedBy("lock")
-    private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits;
+    private final List<RunnerQueue> runnerQueues;
+    private final AtomicInteger nextRunnerQueue = new AtomicInteger();
+    private final AtomicInteger idleRunners = new AtomicInteger();
 
+    private final AtomicInteger[] levelWaitingSplitCount = new AtomicInteger[LEVEL_THRESHOLD_SECONDS.length];
     private final AtomicLong[] levelScheduledTime = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
 
     private final AtomicLong[] levelMinPriority;
     private final List<CounterStat> selectedLevelCounters;
-
-    private final ReentrantLock lock = new ReentrantLock();
-    private final Condition notEmpty = lock.newCondition();
+    private final CounterStat stolenSplits = new CounterStat();
+    private final CounterStat lockContentions = new CounterStat();
 
     private final double levelTimeMultiplier;
 
     @Inject
     public MultilevelSplitQueue(TaskManagerConfig taskManagerConfig)
     {
-        this(taskManagerConfig.getLevelTimeMultiplier().doubleValue());
+        this(
+                taskManagerConfig.getLevelTimeMultiplier().doubleValue(),
+                taskManagerConfig.isRunnerSplitQueuesEnabled() ? taskManagerConfig.getMaxWorkerThreads() : 1);
     }
 
     public MultilevelSplitQueue(double levelTimeMultiplier)
     {
+        this(levelTimeMultiplier, 1);
+    }
+
+    public MultilevelSplitQueue(double levelTimeMultiplier, int runnerQueueCount)
+    {
+        checkArgument(runnerQueueCount > 0, "runnerQueueCount must be at least 1");
         this.levelMinPriority = new AtomicLong[LEVEL_THRESHOLD_SECONDS.length];
-        this.levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
         ImmutableList.Builder<CounterStat> counters = ImmutableList.builder();
 
         for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
+            levelWaitingSplitCount[i] = new AtomicInteger();
             levelScheduledTime[i] = new AtomicLong();
             levelMinPriority[i] = new AtomicLong(-1);
-            levelWaitingSplits.add(new PriorityQueue<>());
             counters.add(new CounterStat());
         }
 
         this.selectedLevelCounters = counters.build();
 
+        ImmutableList.Builder<RunnerQueue> runnerQueues = ImmutableList.builder();
+        for (int i = 0; i < runnerQueueCount; i++) {
+            runnerQueues.add(new RunnerQueue());
+        }
+        this.runnerQueues = runnerQueues.build();
+
         this.levelTimeMultiplier = levelTimeMultiplier;
     }
 
@@ -85,6 +112,12 @@ public class MultilevelSplitQueue
         levelScheduledTime[level].addAndGet(nanos);
     }
 
+    @Managed
+    public int getRunnerQueueCount()
+    {
+        return runnerQueues.size();
+    }
+
     /**
      * During periods of time when a level has no waiting splits, it will not accumulate
      * scheduled time and will fall behind relative to other levels.
@@ -101,53 +134,117 @@ public class MultilevelSplitQueue
 
         split.setReady();
         int level = split.getPriority().getLevel();
-        lock.lock();
-        try {
-            if (levelWaitingSplits.get(level).isEmpty()) {
-                // Accesses to levelScheduledTime are not synchronized, so we have a data race
-                // here - our level time math will be off. However, the staleness is bounded by
-                // the fact that only running splits that complete during this computation
-                // can update the level time. Therefore, this is benign.
-                long level0Time = getLevel0TargetTime();
-                long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
-                long delta = levelExpectedTime - levelScheduledTime[level].get();
-                levelScheduledTime[level].addAndGet(delta);
-            }
+        if (levelWaitingSplitCount[level].getAndIncrement() == 0) {
+            // Accesses to levelScheduledTime are not synchronized, so we have a data race
+            // here - our level time math will be off. However, the staleness is bounded by
+            // the fact that only running splits that complete during this computation
+            // can update the level time. Therefore, this is benign.
+            long level0Time = getLevel0TargetTime();
+            long levelExpectedTime = (long) (level0Time / Math.pow(levelTimeMultiplier, level));
+            long delta = levelExpectedTime - levelScheduledTime[level].get();
+            levelScheduledTime[level].addAndGet(delta);
+        }
 
-            levelWaitingSplits.get(level).offer(split);
-            notEmpty.signal();
+        int runnerQueueIndex = split.getRunnerQueue();
+        if (runnerQueueIndex < 0 || runnerQueueIndex >= runnerQueues.size()) {
+            runnerQueueIndex = Math.floorMod(nextRunnerQueue.getAndIncrement(), runnerQueues.size());
+            split.setRunnerQueue(runnerQueueIndex);
         }
-        finally {
-            lock.unlock();
+        RunnerQueue runnerQueue = runnerQueues.get(runnerQueueIndex);
+        boolean runnerSignalled = runnerQueue.offer(split, level);
+        if (!runnerSignalled && idleRunners.get() > 0) {
+            // the runner owning the queue is busy, let an idle runner steal the split
+            signalIdleRunner();
+        }
+    }
+
+    private void signalIdleRunner()
+    {
+        for (RunnerQueue runnerQueue : runnerQueues) {
+            if (runnerQueue.signalWaiter()) {
+                return;
+            }
         }
     }
 
     public PrioritizedSplitRunner take()
             throws InterruptedException
     {
+        return take(0);
+    }
+
+    /**
+     * Takes a split from the queue of the given runner. If the queue is empty,
+     * the split is stolen from the queue of another runner.
+     */
+    public PrioritizedSplitRunner take(int runnerQueueIndex)
+            throws InterruptedException
+    {
+        checkElementIndex(runnerQueueIndex, runnerQueues.size(), "runnerQueueIndex");
+        RunnerQueue runnerQueue = runnerQueues.get(runnerQueueIndex);
         while (true) {
-            lock.lockInterruptibly();
-            try {
-                PrioritizedSplitRunner result;
-                while ((result = pollSplit()) == null) {
-                    notEmpty.await();
-                }
+            PrioritizedSplitRunner result = runnerQueue.poll();
+            if (result == null) {
+                result = steal(runnerQueueIndex);
+            }
+            if (result == null) {
+                awaitSplit(runnerQueue);
+                continue;
+            }
 
-                if (result.updateLevelPriority()) {
-                    offer(result);
-                    continue;
-                }
+            // subsequent quanta of the split prefer this runner
+            result.setRunnerQueue(runnerQueueIndex);
+            if (result.updateLevelPriority()) {
+                offer(result);
+                continue;
+            }
+
+            int selectedLevel = result.getPriority().getLevel();
+            levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
+            selectedLevelCounters.get(selectedLevel).update(1);
 
-                int selectedLevel = result.getPriority().getLevel();
-                levelMinPriority[selectedLevel].set(result.getPriority().getLevelPriority());
-                selectedLevelCounters.get(selectedLevel).update(1);
+            return result;
+        }
+    }
 
-                return result;
+    private PrioritizedSplitRunner steal(int runnerQueueIndex)
+    {
+        for (int i = 1; i < runnerQueues.size(); i++) {
+            RunnerQueue victim = runnerQueues.get((runnerQueueIndex + i) % runnerQueues.size());
+            if (victim.size() == 0) {
+                continue;
             }
-            finally {
-                lock.unlock();
+            PrioritizedSplitRunner split = victim.tryPoll();
+            if (split != null) {
+                stolenSplits.update(1);
+                return split;
+            }
+        }
+        return null;
+    }
+
+    private void awaitSplit(RunnerQueue runnerQueue)
+            throws InterruptedException
+    {
+        // Idle runner is registered before checking for splits, so a split offered after the check
+        // signals this runner (see offer)
+        idleRunners.incrementAndGet();
+        try {
+            runnerQueue.awaitSplit(this::hasWaitingSplits);
+        }
+        finally {
+            idleRunners.decrementAndGet();
+        }
+    }
+
+    private boolean hasWaitingSplits()
+    {
+        for (RunnerQueue runnerQueue : runnerQueues) {
+            if (runnerQueue.size() > 0) {
+                return true;
             }
         }
+        return false;
     }
 
     /**
@@ -158,8 +255,7 @@ public class MultilevelSplitQueue
      * with the objective of minimizing deviation from the target scheduled time. From this level,
      * we pick the split with the lowest priority.
      */
-    @GuardedBy("lock")
-    private PrioritizedSplitRunner pollSplit()
+    private int selectLevel(List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits)
     {
         long targetScheduledTime = getLevel0TargetTime();
         double worstRatio = 1;
@@ -177,17 +273,9 @@ public class MultilevelSplitQueue
             targetScheduledTime /= levelTimeMultiplier;
         }
 
-        if (selectedLevel == -1) {
-            return null;
-        }
-
-        PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
-        checkState(result != null, "pollSplit cannot return null");
-
-        return result;
+        return selectedLevel;
     }
 
-    @GuardedBy("lock")
     private long getLevel0TargetTime()
     {
         long level0TargetTime = levelScheduledTime[0].get();
@@ -247,27 +335,15 @@ public class MultilevelSplitQueue
     public void remove(PrioritizedSplitRunner split)
     {
         checkArgument(split != null, "split is null");
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.remove(split);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (RunnerQueue runnerQueue : runnerQueues) {
+            runnerQueue.removeAll(ImmutableList.of(split));
         }
     }
 
     public void removeAll(Collection<PrioritizedSplitRunner> splits)
     {
-        lock.lock();
-        try {
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                level.removeAll(splits);
-            }
-        }
-        finally {
-            lock.unlock();
+        for (RunnerQueue runnerQueue : runnerQueues) {
+            runnerQueue.removeAll(splits);
         }
     }
 
@@ -279,17 +355,11 @@ public class MultilevelSplitQueue
 
     public int size()
     {
-        lock.lock();
-        try {
-            int total = 0;
-            for (PriorityQueue<PrioritizedSplitRunner> level : levelWaitingSplits) {
-                total += level.size();
-            }
-            return total;
-        }
-        finally {
-            lock.unlock();
+        int total = 0;
+        for (RunnerQueue runnerQueue : runnerQueues) {
+            total += runnerQueue.size();
         }
+        return total;
     }
 
     public static int computeLevel(long threadUsageNanos)
@@ -374,4 +444,168 @@ public class MultilevelSplitQueue
     {
         return selectedLevelCounters.get(4);
     }
+
+    @Managed
+    @Nested
+    public CounterStat getStolenSplits()
+    {
+        return stolenSplits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getLockContentions()
+    {
+        return lockContentions;
+    }
+
+    private class RunnerQueue
+    {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition notEmpty = lock.newCondition();
+
+        @GuardedBy("lock")
+        private final List<PriorityQueue<PrioritizedSplitRunner>> levelWaitingSplits;
+        @GuardedBy("lock")
+        private int waitingRunners;
+
+        // written under the lock, read without it to find queues worth stealing from
+        private volatile int size;
+
+        public RunnerQueue()
+        {
+            levelWaitingSplits = new ArrayList<>(LEVEL_THRESHOLD_SECONDS.length);
+            for (int i = 0; i < LEVEL_THRESHOLD_SECONDS.length; i++) {
+                levelWaitingSplits.add(new PriorityQueue<>());
+            }
+        }
+
+        public int size()
+        {
+            return size;
+        }
+
+        /**
+         * @return whether a runner waiting on this queue was signalled
+         */
+        public boolean offer(PrioritizedSplitRunner split, int level)
+        {
+            lock();
+            try {
+                levelWaitingSplits.get(level).offer(split);
+                size++;
+                if (waitingRunners > 0) {
+                    notEmpty.signal();
+                    return true;
+                }
+                return false;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public PrioritizedSplitRunner poll()
+        {
+            lock();
+            try {
+                return pollSplit();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public PrioritizedSplitRunner tryPoll()
+        {
+            if (!lock.tryLock()) {
+                lockContentions.update(1);
+                return null;
+            }
+            try {
+                return pollSplit();
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        @GuardedBy("lock")
+        private PrioritizedSplitRunner pollSplit()
+        {
+            int selectedLevel = selectLevel(levelWaitingSplits);
+            if (selectedLevel == -1) {
+                return null;
+            }
+
+            PrioritizedSplitRunner result = levelWaitingSplits.get(selectedLevel).poll();
+            checkState(result != null, "pollSplit cannot return null");
+            size--;
+            levelWaitingSplitCount[selectedLevel].decrementAndGet();
+
+            return result;
+        }
+
+        public void awaitSplit(BooleanSupplier hasWaitingSplits)
+                throws InterruptedException
+        {
+            lock.lockInterruptibly();
+            try {
+                waitingRunners++;
+                try {
+                    if (!hasWaitingSplits.getAsBoolean()) {
+                        notEmpty.await();
+                    }
+                }
+                finally {
+                    waitingRunners--;
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public boolean signalWaiter()
+        {
+            lock();
+            try {
+                if (waitingRunners > 0) {
+                    notEmpty.signal();
+                    return true;
+                }
+                return false;
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        public void removeAll(Collection<PrioritizedSplitRunner> splits)
+        {
+            lock();
+            try {
+                for (int level = 0; level < levelWaitingSplits.size(); level++) {
+                    PriorityQueue<PrioritizedSplitRunner> waitingSplits = levelWaitingSplits.get(level);
+                    for (PrioritizedSplitRunner split : splits) {
+                        if (waitingSplits.remove(split)) {
+                            size--;
+                            levelWaitingSplitCount[level].decrementAndGet();
+                        }
+                    }
+                }
+            }
+            finally {
+                lock.unlock();
+            }
+        }
+
+        private void lock()
+        {
+            if (!lock.tryLock()) {
+                lockContentions.update(1);
+                lock.lock();
+            }
+        }
+    }
 }
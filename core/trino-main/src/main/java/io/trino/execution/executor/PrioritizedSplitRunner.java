@@ -66,6 +66,9 @@ public class PrioritizedSplitRunner
     private final AtomicLong cpuTimeNanos = new AtomicLong();
     private final AtomicLong processCalls = new AtomicLong();
 
+    // queue of the runner which last ran this split, or -1 if the split has not been queued yet
+    private volatile int runnerQueue = -1;
+
     private final CounterStat globalCpuTimeMicros;
     private final CounterStat globalScheduledTimeMicros;
 
@@ -125,6 +128,16 @@ public class PrioritizedSplitRunner
         return createdNanos;
     }
 
+    int getRunnerQueue()
+    {
+        return runnerQueue;
+    }
+
+    void setRunnerQueue(int runnerQueue)
+    {
+        this.runnerQueue = runnerQueue;
+    }
+
     public boolean isFinished()
     {
         boolean finished = split.isFinished();
@@ -215,7 +215,7 @@ public class TaskExecutor
     {
         checkState(!closed, "TaskExecutor is closed");
         for (int i = 0; i < runnerThreads; i++) {
-            addRunnerThread();
+            addRunnerThread(i % waitingSplits.getRunnerQueueCount());
         }
     }
 
@@ -240,10 +240,10 @@ public class TaskExecutor
                 .toString();
     }
 
-    private synchronized void addRunnerThread()
+    private synchronized void addRunnerThread(int runnerQueue)
     {
         try {
-            executor.execute(versionEmbedder.embedVersion(new TaskRunner()));
+            executor.execute(versionEmbedder.embedVersion(new TaskRunner(runnerQueue)));
         }
         catch (RejectedExecutionException ignored) {
         }
@@ -457,6 +457,12 @@ public class TaskExecutor
             implements Runnable
     {
         private final long runnerId = NEXT_RUNNER_ID.getAndIncrement();
+        private final int runnerQueue;
+
+        public TaskRunner(int runnerQueue)
+        {
+            this.runnerQueue = runnerQueue;
+        }
 
         @Override
         public void run()
@@ -466,7 +472,7 @@ public class TaskExecutor
                     // select next worker
                     PrioritizedSplitRunner split;
                     try {
-                        split = waitingSplits.take();
+                        split = waitingSplits.take(runnerQueue);
                     }
                     catch (InterruptedException e) {
                         Thread.currentThread().interrupt();
@@ -525,7 +531,7 @@ public class TaskExecutor
             finally {
                 // unless we have been closed, we need to replace this thread
                 if (!closed) {
-                    addRunnerThread();
+                    addRunnerThread(runnerQueue);
                 }
             }
         }
@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.scheduler;
+
+import io.airlift.units.DataSize;
+import io.trino.cost.PlanNodeStatsEstimate;
+import io.trino.sql.planner.PlanFragment;
+import io.trino.sql.planner.TypeProvider;
+
+import java.util.List;
+import java.util.OptionalInt;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
+import static java.lang.Double.isNaN;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Decides the number of partitions of a hash partitioned stage from the estimated size of the data
+ * its source stages send to it, so that small intermediate results are coalesced into few partitions
+ * instead of being spread across all {@code hash_partition_count} partitions.
+ */
+public final class AdaptiveHashPartitioning
+{
+    private AdaptiveHashPartitioning() {}
+
+    /**
+     * @return number of partitions, or empty if the size of data of some source fragment is unknown
+     */
+    public static OptionalInt getHashPartitionCount(List<PlanFragment> sourceFragments, DataSize targetInputSizePerPartition, int maxPartitionCount)
+    {
+        checkArgument(targetInputSizePerPartition.toBytes() > 0, "targetInputSizePerPartition must be positive");
+        checkArgument(maxPartitionCount > 0, "maxPartitionCount must be positive");
+
+        double inputSizeInBytes = 0;
+        for (PlanFragment fragment : sourceFragments) {
+            if (fragment.getPartitioningScheme().getPartitioning().getHandle().equals(FIXED_BROADCAST_DISTRIBUTION)) {
+                // replicated to every partition, so does not add to the size of a partition
+                continue;
+            }
+            PlanNodeStatsEstimate stats = fragment.getStatsAndCosts().getStats().get(fragment.getRoot().getId());
+            if (stats == null || stats.isOutputRowCountUnknown()) {
+                return OptionalInt.empty();
+            }
+            double outputSizeInBytes = stats.getOutputSizeInBytes(fragment.getPartitioningScheme().getOutputLayout(), TypeProvider.viewOf(fragment.getSymbols()));
+            if (isNaN(outputSizeInBytes)) {
+                return OptionalInt.empty();
+            }
+            inputSizeInBytes += outputSizeInBytes;
+        }
+
+        double partitionCount = Math.ceil(inputSizeInBytes / targetInputSizePerPartition.toBytes());
+        return OptionalInt.of((int) max(1, min(partitionCount, maxPartitionCount)));
+    }
+}
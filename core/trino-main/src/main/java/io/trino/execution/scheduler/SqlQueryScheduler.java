@@ -32,6 +32,7 @@ import io.trino.execution.QueryState;
 import io.trino.execution.QueryStateMachine;
 import io.trino.execution.RemoteTask;
 import io.trino.execution.RemoteTaskFactory;
+import io.trino.execution.RetryPolicy;
 import io.trino.execution.SqlStageExecution;
 import io.trino.execution.StageId;
 import io.trino.execution.StageInfo;
@@ -48,20 +49,26 @@ import io.trino.split.SplitSource;
 import io.trino.sql.planner.NodePartitionMap;
 import io.trino.sql.planner.NodePartitioningManager;
 import io.trino.sql.planner.PartitioningHandle;
+import io.trino.sql.planner.PlanFragment;
 import io.trino.sql.planner.StageExecutionPlan;
 import io.trino.sql.planner.plan.PlanFragmentId;
 import io.trino.sql.planner.plan.PlanNodeId;
 
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
@@ -82,7 +89,10 @@ import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
 import static io.airlift.concurrent.MoreFutures.whenAnyComplete;
 import static io.airlift.http.client.HttpUriBuilder.uriBuilderFrom;
 import static io.trino.SystemSessionProperties.getConcurrentLifespansPerNode;
+import static io.trino.SystemSessionProperties.getHashPartitionCount;
+import static io.trino.SystemSessionProperties.getTargetInputSizePerHashPartition;
 import static io.trino.SystemSessionProperties.getWriterMinSize;
+import static io.trino.SystemSessionProperties.isAdaptiveHashPartitionCountEnabled;
 import static io.trino.connector.CatalogName.isInternalSystemConnector;
 import static io.trino.execution.BasicStageStats.aggregateBasicStageStats;
 import static io.trino.execution.SqlStageExecution.createSqlStageExecution;
@@ -93,11 +103,13 @@ import static io.trino.execution.StageState.FINISHED;
 import static io.trino.execution.StageState.FLUSHING;
 import static io.trino.execution.StageState.RUNNING;
 import static io.trino.execution.StageState.SCHEDULED;
+import static io.trino.execution.buffer.OutputBuffers.createSpoolingOutputBuffers;
 import static io.trino.execution.scheduler.SourcePartitionedScheduler.newSourcePartitionedSchedulerAsStageScheduler;
 import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
 import static io.trino.spi.StandardErrorCode.NO_NODES_AVAILABLE;
 import static io.trino.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
+import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
 import static io.trino.sql.planner.plan.ExchangeNode.Type.REPLICATE;
@@ -121,7 +133,12 @@ public class SqlQueryScheduler
     private final SplitSchedulerStats schedulerStats;
     private final boolean summarizeTaskInfo;
     private final DynamicFilterService dynamicFilterService;
+    private final RootOutputLocations rootOutputLocations;
+    private final RetryPolicy retryPolicy;
+    private final int taskRetryAttempts;
+    private final BroadcastJoinHandler broadcastJoinHandler;
     private final AtomicBoolean started = new AtomicBoolean();
+    private final AtomicBoolean abandoned = new AtomicBoolean();
 
     public static SqlQueryScheduler createSqlQueryScheduler(
             QueryStateMachine queryStateMachine,
@@ -139,7 +156,12 @@ public class SqlQueryScheduler
             NodeTaskMap nodeTaskMap,
             ExecutionPolicy executionPolicy,
             SplitSchedulerStats schedulerStats,
-            DynamicFilterService dynamicFilterService)
+            DynamicFilterService dynamicFilterService,
+            AtomicInteger nextStageId,
+            boolean deferOutputLocations,
+            RetryPolicy retryPolicy,
+            int taskRetryAttempts,
+            BroadcastJoinHandler broadcastJoinHandler)
     {
         SqlQueryScheduler sqlQueryScheduler = new SqlQueryScheduler(
                 queryStateMachine,
@@ -157,7 +179,12 @@ public class SqlQueryScheduler
                 nodeTaskMap,
                 executionPolicy,
                 schedulerStats,
-                dynamicFilterService);
+                dynamicFilterService,
+                nextStageId,
+                deferOutputLocations,
+                retryPolicy,
+                taskRetryAttempts,
+                broadcastJoinHandler);
         sqlQueryScheduler.initialize();
         return sqlQueryScheduler;
     }
@@ -178,13 +205,22 @@ public class SqlQueryScheduler
             NodeTaskMap nodeTaskMap,
             ExecutionPolicy executionPolicy,
             SplitSchedulerStats schedulerStats,
-            DynamicFilterService dynamicFilterService)
+            DynamicFilterService dynamicFilterService,
+            AtomicInteger nextStageId,
+            boolean deferOutputLocations,
+            RetryPolicy retryPolicy,
+            int taskRetryAttempts,
+            BroadcastJoinHandler broadcastJoinHandler)
     {
         this.queryStateMachine = requireNonNull(queryStateMachine, "queryStateMachine is null");
         this.executionPolicy = requireNonNull(executionPolicy, "executionPolicy is null");
         this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
         this.summarizeTaskInfo = summarizeTaskInfo;
         this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+        this.retryPolicy = requireNonNull(retryPolicy, "retryPolicy is null");
+        checkArgument(taskRetryAttempts >= 0, "taskRetryAttempts is negative");
+        this.taskRetryAttempts = taskRetryAttempts;
+        this.broadcastJoinHandler = requireNonNull(broadcastJoinHandler, "broadcastJoinHandler is null");
 
         // todo come up with a better way to build this, or eliminate this map
         ImmutableMap.Builder<StageId, StageScheduler> stageSchedulers = ImmutableMap.builder();
@@ -194,9 +230,10 @@ public class SqlQueryScheduler
         Map<PartitioningHandle, NodePartitionMap> partitioningCache = new HashMap<>();
 
         OutputBufferId rootBufferId = Iterables.getOnlyElement(rootOutputBuffers.getBuffers().keySet());
+        this.rootOutputLocations = new RootOutputLocations(queryStateMachine, rootBufferId, deferOutputLocations);
         List<SqlStageExecution> stages = createStages(
-                (fragmentId, tasks, noMoreExchangeLocations) -> updateQueryOutputLocations(queryStateMachine, rootBufferId, tasks, noMoreExchangeLocations),
-                new AtomicInteger(),
+                rootOutputLocations,
+                requireNonNull(nextStageId, "nextStageId is null"),
                 plan.withBucketToPartition(Optional.of(new int[1])),
                 nodeScheduler,
                 remoteTaskFactory,
@@ -229,6 +266,13 @@ public class SqlQueryScheduler
     {
         SqlStageExecution rootStage = stages.get(rootStageId);
         rootStage.addStateChangeListener(state -> {
+            if (abandoned.get()) {
+                return;
+            }
+            if (state == FLUSHING || state == FINISHED) {
+                // all output is buffered, so it can be made available to the client
+                rootOutputLocations.publish();
+            }
             if (state == FINISHED) {
                 queryStateMachine.transitionToFinishing();
             }
@@ -240,7 +284,7 @@ public class SqlQueryScheduler
 
         for (SqlStageExecution stage : stages.values()) {
             stage.addStateChangeListener(state -> {
-                if (queryStateMachine.isDone()) {
+                if (queryStateMachine.isDone() || abandoned.get()) {
                     return;
                 }
                 if (state == FAILED) {
@@ -257,16 +301,27 @@ public class SqlQueryScheduler
                     }
                 }
             });
+            if (!stage.getFragment().getSwitchableJoins().isEmpty()) {
+                stage.addExceededBroadcastJoinsListener(joins -> {
+                    if (!queryStateMachine.isDone() && !abandoned.get()) {
+                        broadcastJoinHandler.buildSizeExceeded(this, stage.getFragment(), joins);
+                    }
+                });
+            }
         }
 
         // when query is done or any time a stage completes, attempt to transition query to "final query info ready"
         queryStateMachine.addStateChangeListener(newState -> {
-            if (newState.isDone()) {
+            if (newState.isDone() && !abandoned.get()) {
                 queryStateMachine.updateQueryInfo(Optional.ofNullable(getStageInfo()));
             }
         });
         for (SqlStageExecution stage : stages.values()) {
-            stage.addFinalStageInfoListener(status -> queryStateMachine.updateQueryInfo(Optional.ofNullable(getStageInfo())));
+            stage.addFinalStageInfoListener(status -> {
+                if (!abandoned.get()) {
+                    queryStateMachine.updateQueryInfo(Optional.ofNullable(getStageInfo()));
+                }
+            });
         }
     }
 
@@ -318,7 +373,8 @@ public class SqlQueryScheduler
             ImmutableSet.Builder<SqlStageExecution> childStagesBuilder = ImmutableSet.builder();
             for (StageExecutionPlan subStagePlan : plan.getSubStages()) {
                 List<SqlStageExecution> subTree = createStages(
-                        stage::addExchangeLocations,
+                        // spooled output is not read from the tasks, see below
+                        retryPolicy == RetryPolicy.TASK ? (fragmentId, tasks, noMoreExchangeLocations) -> {} : stage::addExchangeLocations,
                         nextStageId,
                         subStagePlan.withBucketToPartition(bucketToPartition),
                         nodeScheduler,
@@ -337,11 +393,22 @@ public class SqlQueryScheduler
 
                 SqlStageExecution childStage = subTree.get(0);
                 childStagesBuilder.add(childStage);
+
+                if (retryPolicy == RetryPolicy.TASK) {
+                    // the output of a stage is read from the task output spool once all of its partitions finished,
+                    // so that failed tasks can be executed again without affecting this stage
+                    childStage.addStateChangeListener(state -> {
+                        if (state == FINISHED) {
+                            stage.addSpooledExchangeLocations(childStage.getFragment().getId(), childStage.getFinishedTaskIds());
+                        }
+                    });
+                }
             }
             return childStagesBuilder.build();
         };
 
         Set<SqlStageExecution> childStages;
+        NodeSelector retryNodeSelector;
         PartitioningHandle partitioningHandle = plan.getFragment().getPartitioning();
         if (partitioningHandle.equals(SOURCE_DISTRIBUTION)) {
             // nodes are selected dynamically based on the constraints of the splits and the system load
@@ -352,6 +419,7 @@ public class SqlQueryScheduler
                     .filter(catalog -> !isInternalSystemConnector(catalog));
             NodeSelector nodeSelector = nodeScheduler.createNodeSelector(session, catalogName);
             SplitPlacementPolicy placementPolicy = new DynamicSplitPlacementPolicy(nodeSelector, stage::getAllTasks);
+            retryNodeSelector = nodeSelector;
 
             checkArgument(!plan.getFragment().getStageExecutionDescriptor().isStageGroupedExecution());
 
@@ -372,12 +440,13 @@ public class SqlQueryScheduler
                     .flatMap(List::stream)
                     .collect(toImmutableList());
             Supplier<Collection<TaskStatus>> writerTasksProvider = stage::getTaskStatuses;
+            retryNodeSelector = nodeScheduler.createNodeSelector(session, Optional.empty());
 
             ScaledWriterScheduler scheduler = new ScaledWriterScheduler(
                     stage,
                     sourceTasksProvider,
                     writerTasksProvider,
-                    nodeScheduler.createNodeSelector(session, Optional.empty()),
+                    retryNodeSelector,
                     schedulerExecutor,
                     getWriterMinSize(session));
             whenAllStages(childStages, StageState::isDone)
@@ -430,6 +499,7 @@ public class SqlQueryScheduler
                     bucketToPartition = Optional.of(nodePartitionMap.getBucketToPartition());
                 }
 
+                retryNodeSelector = nodeScheduler.createNodeSelector(session, catalogName);
                 stageSchedulers.put(stageId, new FixedSourcePartitionedScheduler(
                         stage,
                         splitSources,
@@ -439,33 +509,57 @@ public class SqlQueryScheduler
                         bucketNodeMap,
                         splitBatchSize,
                         getConcurrentLifespansPerNode(session),
-                        nodeScheduler.createNodeSelector(session, catalogName),
+                        retryNodeSelector,
                         connectorPartitionHandles,
                         dynamicFilterService));
             }
             else {
                 // all sources are remote
-                NodePartitionMap nodePartitionMap = partitioningCache.apply(plan.getFragment().getPartitioning());
+                NodePartitionMap nodePartitionMap;
+                OptionalInt adaptiveHashPartitionCount = getAdaptiveHashPartitionCount(session, plan);
+                if (adaptiveHashPartitionCount.isPresent()) {
+                    nodePartitionMap = nodePartitioningManager.getNodePartitioningMap(session, partitioningHandle, adaptiveHashPartitionCount.getAsInt());
+                }
+                else {
+                    nodePartitionMap = partitioningCache.apply(plan.getFragment().getPartitioning());
+                }
                 List<InternalNode> partitionToNode = nodePartitionMap.getPartitionToNode();
                 // todo this should asynchronously wait a standard timeout period before failing
                 checkCondition(!partitionToNode.isEmpty(), NO_NODES_AVAILABLE, "No worker nodes available");
                 stageSchedulers.put(stageId, new FixedCountScheduler(stage, partitionToNode));
                 bucketToPartition = Optional.of(nodePartitionMap.getBucketToPartition());
+                retryNodeSelector = nodeScheduler.createNodeSelector(session, Optional.empty());
             }
             childStages = createChildStages.apply(bucketToPartition);
         }
 
+        // the output of the root stage is read by the client, and it is not spooled
+        if (retryPolicy == RetryPolicy.TASK && parent != rootOutputLocations && !partitioningHandle.isCoordinatorOnly()) {
+            stage.enableTaskRetries(taskRetryAttempts, retryNodeSelector);
+        }
+
         stage.addStateChangeListener(newState -> {
             if (newState == FLUSHING || newState.isDone()) {
                 childStages.forEach(SqlStageExecution::cancel);
             }
         });
 
-        stageLinkages.put(stageId, new StageLinkage(plan.getFragment().getId(), parent, childStages));
+        stageLinkages.put(stageId, new StageLinkage(plan.getFragment().getId(), parent, childStages, retryPolicy));
 
         return stages.build();
     }
 
+    private static OptionalInt getAdaptiveHashPartitionCount(Session session, StageExecutionPlan plan)
+    {
+        if (!isAdaptiveHashPartitionCountEnabled(session) || !plan.getFragment().getPartitioning().equals(FIXED_HASH_DISTRIBUTION)) {
+            return OptionalInt.empty();
+        }
+        List<PlanFragment> sourceFragments = plan.getSubStages().stream()
+                .map(StageExecutionPlan::getFragment)
+                .collect(toImmutableList());
+        return AdaptiveHashPartitioning.getHashPartitionCount(sourceFragments, getTargetInputSizePerHashPartition(session), getHashPartitionCount(session));
+    }
+
     public BasicStageStats getBasicStageStats()
     {
         List<BasicStageStats> stageStats = stages.values().stream()
@@ -607,7 +701,9 @@ public class SqlQueryScheduler
             }
         }
         catch (Throwable t) {
-            queryStateMachine.transitionToFailed(t);
+            if (!abandoned.get()) {
+                queryStateMachine.transitionToFailed(t);
+            }
             throw t;
         }
         finally {
@@ -617,7 +713,9 @@ public class SqlQueryScheduler
                     scheduler.close();
                 }
                 catch (Throwable t) {
-                    queryStateMachine.transitionToFailed(t);
+                    if (!abandoned.get()) {
+                        queryStateMachine.transitionToFailed(t);
+                    }
                     // Self-suppression not permitted
                     if (closeError != t) {
                         closeError.addSuppressed(t);
@@ -646,6 +744,28 @@ public class SqlQueryScheduler
         }
     }
 
+    /**
+     * Aborts all stages so that the query can be executed again by another scheduler.
+     * The stages of this scheduler no longer change the state of the query.
+     *
+     * @return false if the query output was already made available to the client,
+     * in which case the query cannot be executed again and nothing is aborted
+     */
+    public synchronized boolean abandon()
+    {
+        if (abandoned.get() || !rootOutputLocations.abandon()) {
+            return false;
+        }
+        abandoned.set(true);
+        abort();
+        return true;
+    }
+
+    public boolean isAbandoned()
+    {
+        return abandoned.get();
+    }
+
     private static ListenableFuture<Void> whenAllStages(Collection<SqlStageExecution> stages, Predicate<StageState> predicate)
     {
         checkArgument(!stages.isEmpty(), "stages is empty");
@@ -665,11 +785,87 @@ public class SqlQueryScheduler
         return future;
     }
 
+    public interface BroadcastJoinHandler
+    {
+        void buildSizeExceeded(SqlQueryScheduler scheduler, PlanFragment fragment, Set<PlanNodeId> joins);
+    }
+
     private interface ExchangeLocationsConsumer
     {
         void addExchangeLocations(PlanFragmentId fragmentId, Set<RemoteTask> tasks, boolean noMoreExchangeLocations);
     }
 
+    /**
+     * Makes the locations of the root stage tasks available to the client. When the
+     * locations are deferred, they are withheld until the root stage has buffered all
+     * of its output, or until the output buffer of a root task fills up. Until then,
+     * the query can be executed again with switched joins without the client seeing
+     * partial results.
+     */
+    @ThreadSafe
+    private static class RootOutputLocations
+            implements ExchangeLocationsConsumer
+    {
+        private final QueryStateMachine queryStateMachine;
+        private final OutputBufferId rootBufferId;
+
+        @GuardedBy("this")
+        private final Set<RemoteTask> tasks = new LinkedHashSet<>();
+        @GuardedBy("this")
+        private boolean noMoreExchangeLocations;
+        @GuardedBy("this")
+        private boolean published;
+        @GuardedBy("this")
+        private boolean abandoned;
+
+        public RootOutputLocations(QueryStateMachine queryStateMachine, OutputBufferId rootBufferId, boolean deferred)
+        {
+            this.queryStateMachine = requireNonNull(queryStateMachine, "queryStateMachine is null");
+            this.rootBufferId = requireNonNull(rootBufferId, "rootBufferId is null");
+            this.published = !deferred;
+        }
+
+        @Override
+        public synchronized void addExchangeLocations(PlanFragmentId fragmentId, Set<RemoteTask> newTasks, boolean noMoreExchangeLocations)
+        {
+            if (abandoned) {
+                return;
+            }
+            tasks.addAll(newTasks);
+            this.noMoreExchangeLocations |= noMoreExchangeLocations;
+            if (published) {
+                updateQueryOutputLocations(queryStateMachine, rootBufferId, newTasks, noMoreExchangeLocations);
+                return;
+            }
+            for (RemoteTask task : newTasks) {
+                task.addStateChangeListener(taskStatus -> {
+                    if (taskStatus.isOutputBufferOverutilized()) {
+                        // the client must start reading, otherwise the task cannot make progress
+                        publish();
+                    }
+                });
+            }
+        }
+
+        public synchronized void publish()
+        {
+            if (published || abandoned) {
+                return;
+            }
+            published = true;
+            updateQueryOutputLocations(queryStateMachine, rootBufferId, ImmutableSet.copyOf(tasks), noMoreExchangeLocations);
+        }
+
+        public synchronized boolean abandon()
+        {
+            if (published) {
+                return false;
+            }
+            abandoned = true;
+            return true;
+        }
+    }
+
     private static class StageLinkage
     {
         private final PlanFragmentId currentStageFragmentId;
@@ -677,11 +873,27 @@ public class SqlQueryScheduler
         private final Set<OutputBufferManager> childOutputBufferManagers;
         private final Set<StageId> childStageIds;
 
-        public StageLinkage(PlanFragmentId fragmentId, ExchangeLocationsConsumer parent, Set<SqlStageExecution> children)
+        public StageLinkage(PlanFragmentId fragmentId, ExchangeLocationsConsumer parent, Set<SqlStageExecution> children, RetryPolicy retryPolicy)
         {
             this.currentStageFragmentId = fragmentId;
             this.parent = parent;
-            this.childOutputBufferManagers = children.stream()
+            if (retryPolicy == RetryPolicy.TASK) {
+                // the child stages write all of their output to the task output spool upfront
+                children.forEach(childStage -> childStage.setOutputBuffers(createSpoolingOutputBuffers(getSpooledPartitionCount(childStage))));
+                this.childOutputBufferManagers = ImmutableSet.of();
+            }
+            else {
+                this.childOutputBufferManagers = createOutputBufferManagers(children);
+            }
+
+            this.childStageIds = children.stream()
+                    .map(SqlStageExecution::getStageId)
+                    .collect(toImmutableSet());
+        }
+
+        private static Set<OutputBufferManager> createOutputBufferManagers(Set<SqlStageExecution> children)
+        {
+            return children.stream()
                     .map(childStage -> {
                         PartitioningHandle partitioningHandle = childStage.getFragment().getPartitioningScheme().getPartitioning().getHandle();
                         if (partitioningHandle.equals(FIXED_BROADCAST_DISTRIBUTION)) {
@@ -696,10 +908,18 @@ public class SqlQueryScheduler
                         }
                     })
                     .collect(toImmutableSet());
+        }
 
-            this.childStageIds = children.stream()
-                    .map(SqlStageExecution::getStageId)
-                    .collect(toImmutableSet());
+        private static int getSpooledPartitionCount(SqlStageExecution childStage)
+        {
+            PartitioningHandle partitioningHandle = childStage.getFragment().getPartitioningScheme().getPartitioning().getHandle();
+            checkState(!partitioningHandle.equals(SCALED_WRITER_DISTRIBUTION), "Writers cannot be scaled when the task output is spooled");
+            if (partitioningHandle.equals(FIXED_BROADCAST_DISTRIBUTION)) {
+                // all consumers read the same partition
+                return 1;
+            }
+            // each consumer task reads the partition with its own partition number
+            return Ints.max(childStage.getFragment().getPartitioningScheme().getBucketToPartition().get()) + 1;
         }
 
         public Set<StageId> getChildStageIds()
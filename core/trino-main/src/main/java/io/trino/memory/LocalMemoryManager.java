@@ -39,6 +39,7 @@ public final class LocalMemoryManager
 {
     public static final MemoryPoolId GENERAL_POOL = new MemoryPoolId("general");
     public static final MemoryPoolId RESERVED_POOL = new MemoryPoolId("reserved");
+    public static final MemoryPoolId FRAGMENT_RESULT_CACHE_POOL = new MemoryPoolId("fragment-result-cache");
     private static final OperatingSystemMXBean OPERATING_SYSTEM_MX_BEAN = ManagementFactory.getOperatingSystemMXBean();
 
     private DataSize maxMemory;
@@ -72,6 +73,10 @@ public final class LocalMemoryManager
             builder.put(RESERVED_POOL, new MemoryPool(RESERVED_POOL, config.getMaxQueryTotalMemoryPerNode()));
             generalPoolSize -= config.getMaxQueryTotalMemoryPerNode().toBytes();
         }
+        if (config.getFragmentResultCacheSize().toBytes() > 0) {
+            builder.put(FRAGMENT_RESULT_CACHE_POOL, new MemoryPool(FRAGMENT_RESULT_CACHE_POOL, config.getFragmentResultCacheSize()));
+            generalPoolSize -= config.getFragmentResultCacheSize().toBytes();
+        }
         verify(generalPoolSize > 0, "general memory pool size is 0");
         builder.put(GENERAL_POOL, new MemoryPool(GENERAL_POOL, DataSize.ofBytes(generalPoolSize)));
         this.pools = builder.build();
@@ -115,4 +120,9 @@ public final class LocalMemoryManager
     {
         return Optional.ofNullable(pools.get(RESERVED_POOL));
     }
+
+    public Optional<MemoryPool> getFragmentResultCachePool()
+    {
+        return Optional.ofNullable(pools.get(FRAGMENT_RESULT_CACHE_POOL));
+    }
 }
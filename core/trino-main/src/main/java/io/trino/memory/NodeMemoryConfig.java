@@ -36,6 +36,7 @@ public class NodeMemoryConfig
     // This is a per-query limit for the user plus system allocations.
     private DataSize maxQueryTotalMemoryPerNode = DataSize.ofBytes(Math.round(AVAILABLE_HEAP_MEMORY * 0.3));
     private DataSize heapHeadroom = DataSize.ofBytes(Math.round(AVAILABLE_HEAP_MEMORY * 0.3));
+    private DataSize fragmentResultCacheSize = DataSize.ofBytes(0);
 
     @NotNull
     public DataSize getMaxQueryMemoryPerNode()
@@ -97,4 +98,18 @@ public class NodeMemoryConfig
         this.heapHeadroom = heapHeadroom;
         return this;
     }
+
+    @NotNull
+    public DataSize getFragmentResultCacheSize()
+    {
+        return fragmentResultCacheSize;
+    }
+
+    @Config("memory.fragment-result-cache-per-node")
+    @ConfigDescription("The amount of heap memory to set aside for cached results of plan fragments")
+    public NodeMemoryConfig setFragmentResultCacheSize(DataSize fragmentResultCacheSize)
+    {
+        this.fragmentResultCacheSize = fragmentResultCacheSize;
+        return this;
+    }
 }
@@ -117,6 +117,12 @@ public interface Metadata
 
     Optional<Object> getInfo(Session session, TableHandle handle);
 
+    /**
+     * Return a token that changes whenever the data read through the table handle changes,
+     * or empty if the connector does not provide one.
+     */
+    Optional<String> getTableVersionToken(Session session, TableHandle handle);
+
     /**
      * Return table schema definition for the specified table handle.
      * Table schema definition is a set of information
@@ -286,6 +292,11 @@ public interface Metadata
      */
     boolean supportsMissingColumnsOnInsert(Session session, TableHandle tableHandle);
 
+    /**
+     * @return whether a write to the catalog can be executed again after a failure
+     */
+    boolean supportsWriteRetries(Session session, CatalogName catalogName);
+
     /**
      * Finish insert query
      */
@@ -552,6 +552,14 @@ public final class MetadataManager
         return metadata.getInfo(handle.getConnectorHandle());
     }
 
+    @Override
+    public Optional<String> getTableVersionToken(Session session, TableHandle handle)
+    {
+        CatalogName catalogName = handle.getCatalogName();
+        ConnectorMetadata metadata = getMetadata(session, catalogName);
+        return metadata.getTableVersionToken(session.toConnectorSession(catalogName), handle.getConnectorHandle());
+    }
+
     @Override
     public TableSchema getTableSchema(Session session, TableHandle tableHandle)
     {
@@ -933,6 +941,13 @@ public final class MetadataManager
         return catalogMetadata.getMetadata().supportsMissingColumnsOnInsert();
     }
 
+    @Override
+    public boolean supportsWriteRetries(Session session, CatalogName catalogName)
+    {
+        CatalogMetadata catalogMetadata = getCatalogMetadata(session, catalogName);
+        return catalogMetadata.getMetadata().supportsWriteRetries();
+    }
+
     @Override
     public Optional<ConnectorOutputMetadata> finishInsert(Session session, InsertTableHandle tableHandle, Collection<Slice> fragments, Collection<ComputedStatistics> computedStatistics)
     {
@@ -21,6 +21,7 @@ import io.trino.spi.HostAddress;
 import io.trino.spi.connector.ConnectorSplit;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -65,6 +66,11 @@ public final class Split
         return connectorSplit.getInfo();
     }
 
+    public Optional<String> getCacheIdentifier()
+    {
+        return connectorSplit.getCacheIdentifier();
+    }
+
     public List<HostAddress> getAddresses()
     {
         return connectorSplit.getAddresses();
@@ -16,6 +16,8 @@ package io.trino.operator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import io.trino.execution.Lifespan;
+import io.trino.metadata.Split;
+import io.trino.operator.FragmentResultCacheOperator.FragmentResultCacheOperatorFactory;
 import io.trino.sql.planner.plan.PlanNodeId;
 
 import java.util.HashSet;
@@ -37,6 +39,7 @@ public class DriverFactory
     private final boolean outputDriver;
     private final List<OperatorFactory> operatorFactories;
     private final Optional<PlanNodeId> sourceId;
+    private final Optional<FragmentResultCacheOperatorFactory> fragmentResultCacheOperatorFactory;
     private final OptionalInt driverInstances;
     private final PipelineExecutionStrategy pipelineExecutionStrategy;
 
@@ -61,6 +64,16 @@ public class DriverFactory
                 .collect(toImmutableList());
         checkArgument(sourceIds.size() <= 1, "Expected at most one source operator in driver factory, but found %s", sourceIds);
         this.sourceId = sourceIds.isEmpty() ? Optional.empty() : Optional.of(sourceIds.get(0));
+
+        List<FragmentResultCacheOperatorFactory> fragmentResultCacheOperatorFactories = operatorFactories.stream()
+                .filter(FragmentResultCacheOperatorFactory.class::isInstance)
+                .map(FragmentResultCacheOperatorFactory.class::cast)
+                .collect(toImmutableList());
+        checkArgument(fragmentResultCacheOperatorFactories.size() <= 1, "Expected at most one fragment result cache operator in driver factory");
+        checkArgument(
+                fragmentResultCacheOperatorFactories.isEmpty() || operatorFactories.indexOf(fragmentResultCacheOperatorFactories.get(0)) == operatorFactories.size() - 2,
+                "Fragment result cache operator must precede the output operator");
+        this.fragmentResultCacheOperatorFactory = fragmentResultCacheOperatorFactories.stream().findFirst();
     }
 
     public int getPipelineId()
@@ -117,6 +130,40 @@ public class DriverFactory
         return Driver.createDriver(driverContext, operators.build());
     }
 
+    /**
+     * Creates a driver that processes the given split. If the output of the split is cached,
+     * the driver produces the cached output and has no source operator.
+     */
+    public synchronized Driver createDriver(DriverContext driverContext, Split split)
+    {
+        requireNonNull(split, "split is null");
+        if (fragmentResultCacheOperatorFactory.isEmpty()) {
+            return createDriver(driverContext);
+        }
+        checkState(!closed, "DriverFactory is already closed");
+        requireNonNull(driverContext, "driverContext is null");
+        checkState(!closedLifespans.contains(driverContext.getLifespan()), "DriverFactory is already closed for driver group %s", driverContext.getLifespan());
+        encounteredLifespans.add(driverContext.getLifespan());
+
+        FragmentResultCacheOperatorFactory cacheOperatorFactory = fragmentResultCacheOperatorFactory.get();
+        OperatorFactory outputOperatorFactory = operatorFactories.get(operatorFactories.size() - 1);
+        Optional<Operator> cachedOutputOperator = cacheOperatorFactory.createCachedOutputOperator(driverContext, split);
+        if (cachedOutputOperator.isPresent()) {
+            return Driver.createDriver(driverContext, cachedOutputOperator.get(), outputOperatorFactory.createOperator(driverContext));
+        }
+
+        ImmutableList.Builder<Operator> operators = ImmutableList.builder();
+        for (OperatorFactory operatorFactory : operatorFactories) {
+            if (operatorFactory == cacheOperatorFactory) {
+                operators.add(cacheOperatorFactory.createRecordingOperator(driverContext, split));
+            }
+            else {
+                operators.add(operatorFactory.createOperator(driverContext));
+            }
+        }
+        return Driver.createDriver(driverContext, operators.build());
+    }
+
     public synchronized void noMoreDrivers(Lifespan lifespan)
     {
         if (closedLifespans.contains(lifespan)) {
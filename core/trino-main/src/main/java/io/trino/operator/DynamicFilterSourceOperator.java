@@ -20,6 +20,7 @@ import io.trino.operator.aggregation.TypedSet;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.predicate.ValueSet;
@@ -28,10 +29,13 @@ import io.trino.sql.planner.plan.DynamicFilterId;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.type.BlockTypeOperators;
 import io.trino.type.BlockTypeOperators.BlockPositionComparison;
+import io.trino.type.BlockTypeOperators.BlockPositionXxHash64;
 
 import javax.annotation.Nullable;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -51,6 +55,8 @@ import static java.util.stream.Collectors.toSet;
  * The collected pages' value are used for creating a run-time filtering constraint (for probe-side table scan in an inner join).
  * We record all values for the run-time filter only for small build-side pages (which should be the case when using "broadcast" join).
  * For large inputs on build side, we can optionally record the min and max values per channel for orderable types (except Double and Real).
+ * When Bloom filter collection is enabled, values of such large inputs are also recorded in a fixed-size {@link BlockedBloomFilter} per channel,
+ * which is reported before the resulting {@link TupleDomain}.
  */
 public class DynamicFilterSourceOperator
         implements Operator
@@ -82,6 +88,8 @@ public class DynamicFilterSourceOperator
         private final DataSize maxFilterSize;
         private final int minMaxCollectionLimit;
         private final BlockTypeOperators blockTypeOperators;
+        private final Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer;
+        private final Optional<DataSize> bloomFilterMaxSize;
 
         private boolean closed;
 
@@ -93,7 +101,9 @@ public class DynamicFilterSourceOperator
                 int maxDisinctValues,
                 DataSize maxFilterSize,
                 int minMaxCollectionLimit,
-                BlockTypeOperators blockTypeOperators)
+                BlockTypeOperators blockTypeOperators,
+                Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer,
+                Optional<DataSize> bloomFilterMaxSize)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -107,6 +117,8 @@ public class DynamicFilterSourceOperator
             this.maxFilterSize = maxFilterSize;
             this.minMaxCollectionLimit = minMaxCollectionLimit;
             this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
+            this.bloomFilterConsumer = requireNonNull(bloomFilterConsumer, "bloomFilterConsumer is null");
+            this.bloomFilterMaxSize = requireNonNull(bloomFilterMaxSize, "bloomFilterMaxSize is null");
         }
 
         @Override
@@ -121,7 +133,9 @@ public class DynamicFilterSourceOperator
                     maxDisinctValues,
                     maxFilterSize,
                     minMaxCollectionLimit,
-                    blockTypeOperators);
+                    blockTypeOperators,
+                    bloomFilterConsumer,
+                    bloomFilterMaxSize);
         }
 
         @Override
@@ -161,6 +175,13 @@ public class DynamicFilterSourceOperator
     @Nullable
     private Block[] maxValues;
 
+    private final Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer;
+    private final Optional<DataSize> bloomFilterMaxSize;
+    private final List<BlockPositionXxHash64> hashOperators;
+    // Created when the predicate becomes too large, if Bloom filter collection is enabled.
+    @Nullable
+    private BlockedBloomFilter[] bloomFilters;
+
     private DynamicFilterSourceOperator(
             OperatorContext context,
             Consumer<TupleDomain<DynamicFilterId>> dynamicPredicateConsumer,
@@ -169,7 +190,9 @@ public class DynamicFilterSourceOperator
             int maxDistinctValues,
             DataSize maxFilterSize,
             int minMaxCollectionLimit,
-            BlockTypeOperators blockTypeOperators)
+            BlockTypeOperators blockTypeOperators,
+            Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer,
+            Optional<DataSize> bloomFilterMaxSize)
     {
         this.context = requireNonNull(context, "context is null");
         this.maxDistinctValues = maxDistinctValues;
@@ -177,13 +200,19 @@ public class DynamicFilterSourceOperator
 
         this.dynamicPredicateConsumer = requireNonNull(dynamicPredicateConsumer, "dynamicPredicateConsumer is null");
         this.channels = requireNonNull(channels, "channels is null");
+        this.bloomFilterConsumer = requireNonNull(bloomFilterConsumer, "bloomFilterConsumer is null");
+        this.bloomFilterMaxSize = requireNonNull(bloomFilterMaxSize, "bloomFilterMaxSize is null");
 
         this.blockBuilders = new BlockBuilder[channels.size()];
         this.valueSets = new TypedSet[channels.size()];
         ImmutableList.Builder<Integer> minMaxChannelsBuilder = ImmutableList.builder();
         ImmutableList.Builder<BlockPositionComparison> minMaxComparisonsBuilder = ImmutableList.builder();
+        ImmutableList.Builder<BlockPositionXxHash64> hashOperatorsBuilder = ImmutableList.builder();
         for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
             Type type = channels.get(channelIndex).type;
+            if (bloomFilterMaxSize.isPresent()) {
+                hashOperatorsBuilder.add(blockTypeOperators.getXxHash64Operator(type));
+            }
             // Skipping DOUBLE and REAL in collectMinMaxValues to avoid dealing with NaN values
             if (minMaxCollectionLimit > 0 && type.isOrderable() && type != DOUBLE && type != REAL) {
                 minMaxChannelsBuilder.add(channelIndex);
@@ -207,6 +236,7 @@ public class DynamicFilterSourceOperator
             this.maxValues = new Block[channels.size()];
         }
         this.minMaxComparisons = minMaxComparisonsBuilder.build();
+        this.hashOperators = hashOperatorsBuilder.build();
     }
 
     @Override
@@ -226,6 +256,11 @@ public class DynamicFilterSourceOperator
     {
         verify(!finished, "DynamicFilterSourceOperator: addInput() may not be called after finish()");
         current = page;
+        if (bloomFilters != null) {
+            for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
+                addToBloomFilter(page.getBlock(channels.get(channelIndex).index), channelIndex);
+            }
+        }
         if (valueSets == null) {
             if (minValues == null) {
                 // there are too many rows to collect min/max range
@@ -268,9 +303,14 @@ public class DynamicFilterSourceOperator
     private void handleTooLargePredicate()
     {
         // The resulting predicate is too large
+        if (bloomFilterMaxSize.isPresent()) {
+            createBloomFilters(bloomFilterMaxSize.get().toBytes());
+        }
         if (minMaxChannels.isEmpty()) {
-            // allow all probe-side values to be read.
-            dynamicPredicateConsumer.accept(TupleDomain.all());
+            if (bloomFilters == null) {
+                // allow all probe-side values to be read.
+                dynamicPredicateConsumer.accept(TupleDomain.all());
+            }
         }
         else {
             if (minMaxCollectionLimit < 0) {
@@ -293,13 +333,41 @@ public class DynamicFilterSourceOperator
 
     private void handleMinMaxCollectionLimitExceeded()
     {
-        // allow all probe-side values to be read.
-        dynamicPredicateConsumer.accept(TupleDomain.all());
+        if (bloomFilters == null) {
+            // allow all probe-side values to be read.
+            dynamicPredicateConsumer.accept(TupleDomain.all());
+        }
         // Drop references to collected values.
         minValues = null;
         maxValues = null;
     }
 
+    private void createBloomFilters(long sizeInBytes)
+    {
+        checkState(blockBuilders != null);
+        bloomFilters = new BlockedBloomFilter[channels.size()];
+        long retainedSizeInBytes = 0;
+        for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
+            bloomFilters[channelIndex] = BlockedBloomFilter.ofSize(sizeInBytes);
+            retainedSizeInBytes += bloomFilters[channelIndex].getRetainedSizeInBytes();
+            // values collected so far
+            addToBloomFilter(blockBuilders[channelIndex].build(), channelIndex);
+        }
+        context.localUserMemoryContext().setBytes(retainedSizeInBytes);
+    }
+
+    private void addToBloomFilter(Block block, int channelIndex)
+    {
+        BlockedBloomFilter bloomFilter = bloomFilters[channelIndex];
+        BlockPositionXxHash64 hashOperator = hashOperators.get(channelIndex);
+        for (int position = 0; position < block.getPositionCount(); ++position) {
+            // Inner and right join doesn't match rows with null key column values.
+            if (!block.isNull(position)) {
+                bloomFilter.add(hashOperator.xxHash64(block, position));
+            }
+        }
+    }
+
     private void updateMinMaxValues(Block block, int channelIndex, BlockPositionComparison comparison)
     {
         checkState(minValues != null && maxValues != null);
@@ -362,11 +430,25 @@ public class DynamicFilterSourceOperator
             return;
         }
         finished = true;
+        boolean bloomFiltersCollected = bloomFilters != null;
+        if (bloomFiltersCollected) {
+            ImmutableMap.Builder<DynamicFilterId, BlockedBloomFilter> bloomFiltersBuilder = ImmutableMap.builder();
+            for (int channelIndex = 0; channelIndex < channels.size(); ++channelIndex) {
+                bloomFiltersBuilder.put(channels.get(channelIndex).filterId, bloomFilters[channelIndex]);
+            }
+            bloomFilters = null;
+            context.localUserMemoryContext().setBytes(0);
+            bloomFilterConsumer.accept(bloomFiltersBuilder.build());
+        }
         ImmutableMap.Builder<DynamicFilterId, Domain> domainsBuilder = new ImmutableMap.Builder<>();
         if (valueSets == null) {
             if (minValues == null) {
                 // there were too many rows to collect min/max range
-                // dynamicPredicateConsumer was notified with 'all' in handleTooLargePredicate if there are no orderable types,
+                if (bloomFiltersCollected) {
+                    // notification with 'all' was deferred until the Bloom filters are reported
+                    dynamicPredicateConsumer.accept(TupleDomain.all());
+                }
+                // otherwise dynamicPredicateConsumer was notified with 'all' in handleTooLargePredicate if there are no orderable types,
                 // else it was notified with 'all' in handleMinMaxCollectionLimitExceeded
                 return;
             }
@@ -21,8 +21,9 @@ import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.trino.execution.buffer.PageCodecMarker;
 import io.trino.execution.buffer.SerializedPage;
+import io.trino.execution.buffer.TaskOutputSpool;
 import io.trino.memory.context.LocalMemoryContext;
-import io.trino.operator.HttpPageBufferClient.ClientCallback;
+import io.trino.operator.PageBufferClient.ClientCallback;
 import io.trino.operator.WorkProcessor.ProcessState;
 import io.trino.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
 
@@ -50,6 +51,7 @@ import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.Sets.newConcurrentHashSet;
 import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 import static io.airlift.slice.Slices.EMPTY_SLICE;
+import static io.trino.execution.buffer.SpooledOutputLocation.isSpooledOutputLocation;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
@@ -68,16 +70,17 @@ public class ExchangeClient
     private final boolean acknowledgePages;
     private final HttpClient httpClient;
     private final ScheduledExecutorService scheduler;
+    private final TaskOutputSpool taskOutputSpool;
 
     @GuardedBy("this")
     private boolean noMoreLocations;
 
-    private final ConcurrentMap<URI, HttpPageBufferClient> allClients = new ConcurrentHashMap<>();
+    private final ConcurrentMap<URI, PageBufferClient> allClients = new ConcurrentHashMap<>();
 
     @GuardedBy("this")
-    private final Deque<HttpPageBufferClient> queuedClients = new LinkedList<>();
+    private final Deque<PageBufferClient> queuedClients = new LinkedList<>();
 
-    private final Set<HttpPageBufferClient> completedClients = newConcurrentHashSet();
+    private final Set<PageBufferClient> completedClients = newConcurrentHashSet();
     private final LinkedBlockingDeque<SerializedPage> pageBuffer = new LinkedBlockingDeque<>();
 
     @GuardedBy("this")
@@ -111,7 +114,8 @@ public class ExchangeClient
             HttpClient httpClient,
             ScheduledExecutorService scheduler,
             LocalMemoryContext systemMemoryContext,
-            Executor pageBufferClientCallbackExecutor)
+            Executor pageBufferClientCallbackExecutor,
+            TaskOutputSpool taskOutputSpool)
     {
         this.selfAddress = requireNonNull(selfAddress, "selfAddress is null");
         this.dataIntegrityVerification = requireNonNull(dataIntegrityVerification, "dataIntegrityVerification is null");
@@ -125,6 +129,7 @@ public class ExchangeClient
         this.systemMemoryContext = systemMemoryContext;
         this.maxBufferRetainedSizeInBytes = Long.MIN_VALUE;
         this.pageBufferClientCallbackExecutor = requireNonNull(pageBufferClientCallbackExecutor, "pageBufferClientCallbackExecutor is null");
+        this.taskOutputSpool = requireNonNull(taskOutputSpool, "taskOutputSpool is null");
     }
 
     public ExchangeClientStatus getStatus()
@@ -133,7 +138,7 @@ public class ExchangeClient
         // It does not guarantee a consistent view between different exchange clients.
         // Guaranteeing a consistent view introduces significant lock contention.
         ImmutableList.Builder<PageBufferClientStatus> pageBufferClientStatusBuilder = ImmutableList.builder();
-        for (HttpPageBufferClient client : allClients.values()) {
+        for (PageBufferClient client : allClients.values()) {
             pageBufferClientStatusBuilder.add(client.getStatus());
         }
         List<PageBufferClientStatus> pageBufferClientStatus = pageBufferClientStatusBuilder.build();
@@ -163,17 +168,29 @@ public class ExchangeClient
 
         checkState(!noMoreLocations, "No more locations already set");
 
-        HttpPageBufferClient client = new HttpPageBufferClient(
-                selfAddress,
-                httpClient,
-                dataIntegrityVerification,
-                maxResponseSize,
-                maxErrorDuration,
-                acknowledgePages,
-                location,
-                new ExchangeClientCallback(),
-                scheduler,
-                pageBufferClientCallbackExecutor);
+        PageBufferClient client;
+        if (isSpooledOutputLocation(location)) {
+            // the output of a task that can be retried is read from the task output spool
+            client = new SpooledPageBufferClient(
+                    taskOutputSpool,
+                    location,
+                    maxResponseSize,
+                    new ExchangeClientCallback(),
+                    pageBufferClientCallbackExecutor);
+        }
+        else {
+            client = new HttpPageBufferClient(
+                    selfAddress,
+                    httpClient,
+                    dataIntegrityVerification,
+                    maxResponseSize,
+                    maxErrorDuration,
+                    acknowledgePages,
+                    location,
+                    new ExchangeClientCallback(),
+                    scheduler,
+                    pageBufferClientCallbackExecutor);
+        }
         allClients.put(location, client);
         queuedClients.add(client);
 
@@ -270,7 +287,7 @@ public class ExchangeClient
             return;
         }
 
-        for (HttpPageBufferClient client : allClients.values()) {
+        for (PageBufferClient client : allClients.values()) {
             closeQuietly(client);
         }
         pageBuffer.clear();
@@ -312,7 +329,7 @@ public class ExchangeClient
         clientCount -= pendingClients;
 
         for (int i = 0; i < clientCount; i++) {
-            HttpPageBufferClient client = queuedClients.poll();
+            PageBufferClient client = queuedClients.poll();
             if (client == null) {
                 // no more clients available
                 return;
@@ -395,7 +412,7 @@ public class ExchangeClient
         }
     }
 
-    private synchronized void requestComplete(HttpPageBufferClient client)
+    private synchronized void requestComplete(PageBufferClient client)
     {
         if (!queuedClients.contains(client)) {
             queuedClients.add(client);
@@ -403,7 +420,7 @@ public class ExchangeClient
         scheduleRequestIfNecessary();
     }
 
-    private synchronized void clientFinished(HttpPageBufferClient client)
+    private synchronized void clientFinished(PageBufferClient client)
     {
         requireNonNull(client, "client is null");
         completedClients.add(client);
@@ -438,7 +455,7 @@ public class ExchangeClient
             implements ClientCallback
     {
         @Override
-        public boolean addPages(HttpPageBufferClient client, List<SerializedPage> pages)
+        public boolean addPages(PageBufferClient client, List<SerializedPage> pages)
         {
             requireNonNull(client, "client is null");
             requireNonNull(pages, "pages is null");
@@ -446,20 +463,20 @@ public class ExchangeClient
         }
 
         @Override
-        public void requestComplete(HttpPageBufferClient client)
+        public void requestComplete(PageBufferClient client)
         {
             requireNonNull(client, "client is null");
             ExchangeClient.this.requestComplete(client);
         }
 
         @Override
-        public void clientFinished(HttpPageBufferClient client)
+        public void clientFinished(PageBufferClient client)
         {
             ExchangeClient.this.clientFinished(client);
         }
 
         @Override
-        public void clientFailed(HttpPageBufferClient client, Throwable cause)
+        public void clientFailed(PageBufferClient client, Throwable cause)
         {
             requireNonNull(client, "client is null");
             requireNonNull(cause, "cause is null");
@@ -467,7 +484,7 @@ public class ExchangeClient
         }
     }
 
-    private static void closeQuietly(HttpPageBufferClient client)
+    private static void closeQuietly(PageBufferClient client)
     {
         try {
             client.close();
@@ -16,8 +16,10 @@ package io.trino.operator;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.connector.CatalogName;
 import io.trino.execution.buffer.PagesSerde;
+import io.trino.execution.buffer.PagesSerde.PagesSerdeContext;
 import io.trino.execution.buffer.PagesSerdeFactory;
 import io.trino.execution.buffer.SerializedPage;
+import io.trino.memory.context.LocalMemoryContext;
 import io.trino.metadata.Split;
 import io.trino.spi.Page;
 import io.trino.spi.connector.UpdatablePageSource;
@@ -92,6 +94,8 @@ public class ExchangeOperator
     private final PlanNodeId sourceId;
     private final ExchangeClient exchangeClient;
     private final PagesSerde serde;
+    private final PagesSerdeContext serdeContext;
+    private final LocalMemoryContext systemMemoryContext;
     private ListenableFuture<Void> isBlocked = NOT_BLOCKED;
 
     public ExchangeOperator(
@@ -104,6 +108,9 @@ public class ExchangeOperator
         this.sourceId = requireNonNull(sourceId, "sourceId is null");
         this.exchangeClient = requireNonNull(exchangeClient, "exchangeClient is null");
         this.serde = requireNonNull(serde, "serde is null");
+        // the context keeps decompression buffers for reuse across pages
+        this.serdeContext = serde.newContext();
+        this.systemMemoryContext = operatorContext.localSystemMemoryContext();
 
         operatorContext.setInfoSupplier(exchangeClient::getStatus);
     }
@@ -185,7 +192,8 @@ public class ExchangeOperator
 
         operatorContext.recordNetworkInput(page.getSizeInBytes(), page.getPositionCount());
 
-        Page deserializedPage = serde.deserialize(page);
+        Page deserializedPage = serde.deserialize(serdeContext, page);
+        systemMemoryContext.setBytes(serdeContext.getRetainedSizeInBytes());
         operatorContext.recordProcessedInput(deserializedPage.getSizeInBytes(), page.getPositionCount());
 
         return deserializedPage;
@@ -195,5 +203,7 @@ public class ExchangeOperator
     public void close()
     {
         exchangeClient.close();
+        serdeContext.close();
+        systemMemoryContext.setBytes(0);
     }
 }
@@ -0,0 +1,667 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.array.LongBigArray;
+import io.trino.operator.scalar.CombineHashFunction;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.TrinoException;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.type.BigintType;
+import io.trino.spi.type.BooleanType;
+import io.trino.spi.type.DateType;
+import io.trino.spi.type.DecimalType;
+import io.trino.spi.type.IntegerType;
+import io.trino.spi.type.SmallintType;
+import io.trino.spi.type.TinyintType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+import io.trino.sql.planner.optimizations.HashGenerationOptimizer;
+import io.trino.type.BlockTypeOperators;
+import io.trino.type.BlockTypeOperators.BlockPositionHashCode;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.operator.SyntheticAddress.decodePosition;
+import static io.trino.operator.SyntheticAddress.decodeSliceIndex;
+import static io.trino.operator.SyntheticAddress.encodeSyntheticAddress;
+import static io.trino.spi.StandardErrorCode.GENERIC_INSUFFICIENT_RESOURCES;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.util.HashCollisionsEstimator.estimateNumberOfHashCollisions;
+import static it.unimi.dsi.fastutil.HashCommon.arraySize;
+import static it.unimi.dsi.fastutil.HashCommon.murmurHash3;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * GroupByHash that stores the group keys row-wise in a flat {@link LongBigArray} instead of
+ * appending them to {@link Block}s. Each row starts with the raw hash of the key and a null mask,
+ * followed by one slot per fixed-width key column. Variable-width key columns use two slots holding
+ * the synthetic address and length of the value in an out-of-line slice arena. Rows are indexed by
+ * group id, so a rehash only rebuilds the open-addressing index and never touches the keys.
+ * <p>
+ * This implementation assumes arrays used in the hash are always a power of 2
+ */
+public class FlatGroupByHash
+        implements GroupByHash
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(FlatGroupByHash.class).instanceSize();
+    private static final float FILL_RATIO = 0.75f;
+
+    private static final int HASH_SLOT = 0;
+    private static final int NULL_MASK_SLOT = 1;
+    private static final int HEADER_SLOTS = 2;
+
+    private static final int ARENA_CHUNK_SIZE = 64 * 1024;
+
+    private final List<Type> types;
+    private final List<Type> hashTypes;
+    private final int[] channels;
+    private final Optional<Integer> inputHashChannel;
+    private final HashGenerator hashGenerator;
+    private final List<BlockPositionHashCode> hashCodeOperators;
+
+    private final boolean[] variableWidth;
+    private final int[] slotOffsets;
+    private final int rowStride;
+
+    // row-wise key storage indexed by group id
+    private final LongBigArray rows;
+    private final SliceArena arena = new SliceArena();
+
+    private int hashCapacity;
+    private int maxFill;
+    private int mask;
+    private int[] groupIdsByHash;
+    private byte[] rawHashByHashPosition;
+
+    private int nextGroupId;
+    private long hashCollisions;
+    private double expectedHashCollisions;
+
+    // reserve enough memory before rehash
+    private final UpdateMemory updateMemory;
+    private long preallocatedMemoryInBytes;
+    private long currentPageSizeInBytes;
+
+    public FlatGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            BlockTypeOperators blockTypeOperators,
+            UpdateMemory updateMemory)
+    {
+        this.hashTypes = ImmutableList.copyOf(requireNonNull(hashTypes, "hashTypes is null"));
+        requireNonNull(hashChannels, "hashChannels is null");
+        checkArgument(hashTypes.size() == hashChannels.length, "hashTypes and hashChannels have different sizes");
+        checkArgument(hashTypes.size() <= Long.SIZE, "FlatGroupByHash supports at most %s channels", Long.SIZE);
+        checkArgument(this.hashTypes.stream().allMatch(FlatGroupByHash::isSupportedType), "Unsupported types: %s", hashTypes);
+        checkArgument(expectedSize > 0, "expectedSize must be greater than zero");
+
+        this.inputHashChannel = requireNonNull(inputHashChannel, "inputHashChannel is null");
+        this.types = inputHashChannel.isPresent() ? ImmutableList.copyOf(Iterables.concat(hashTypes, ImmutableList.of(BIGINT))) : this.hashTypes;
+        this.channels = hashChannels.clone();
+
+        this.hashGenerator = inputHashChannel.isPresent() ? new PrecomputedHashGenerator(inputHashChannel.get()) : new InterpretedHashGenerator(this.hashTypes, hashChannels, blockTypeOperators);
+        this.hashCodeOperators = this.hashTypes.stream()
+                .map(blockTypeOperators::getHashCodeOperator)
+                .collect(toImmutableList());
+
+        this.variableWidth = new boolean[channels.length];
+        this.slotOffsets = new int[channels.length];
+        int slots = HEADER_SLOTS;
+        for (int i = 0; i < channels.length; i++) {
+            variableWidth[i] = this.hashTypes.get(i).getJavaType() == Slice.class;
+            slotOffsets[i] = slots;
+            // variable width values are stored as (address, length) in the arena
+            slots += variableWidth[i] ? 2 : 1;
+        }
+        this.rowStride = slots;
+
+        hashCapacity = arraySize(expectedSize, FILL_RATIO);
+        maxFill = calculateMaxFill(hashCapacity);
+        mask = hashCapacity - 1;
+        groupIdsByHash = new int[hashCapacity];
+        Arrays.fill(groupIdsByHash, -1);
+        rawHashByHashPosition = new byte[hashCapacity];
+
+        rows = new LongBigArray();
+        rows.ensureCapacity((long) maxFill * rowStride);
+
+        // This interface is used for actively reserving memory (push model) for rehash.
+        // The caller can also query memory usage on this object (pull model)
+        this.updateMemory = requireNonNull(updateMemory, "updateMemory is null");
+    }
+
+    public static boolean isSupportedType(Type type)
+    {
+        // only types for which IS NOT DISTINCT FROM is equivalent to comparing the stored representation
+        return type instanceof BigintType ||
+                type instanceof IntegerType ||
+                type instanceof SmallintType ||
+                type instanceof TinyintType ||
+                type instanceof DateType ||
+                type instanceof BooleanType ||
+                (type instanceof DecimalType && ((DecimalType) type).isShort()) ||
+                type instanceof VarcharType ||
+                type instanceof VarbinaryType;
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return INSTANCE_SIZE +
+                rows.sizeOf() +
+                arena.getRetainedSizeInBytes() +
+                sizeOf(groupIdsByHash) +
+                sizeOf(rawHashByHashPosition) +
+                preallocatedMemoryInBytes;
+    }
+
+    @Override
+    public long getHashCollisions()
+    {
+        return hashCollisions;
+    }
+
+    @Override
+    public double getExpectedHashCollisions()
+    {
+        return expectedHashCollisions + estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+    }
+
+    @Override
+    public List<Type> getTypes()
+    {
+        return types;
+    }
+
+    @Override
+    public int getGroupCount()
+    {
+        return nextGroupId;
+    }
+
+    @Override
+    public void appendValuesTo(int groupId, PageBuilder pageBuilder, int outputChannelOffset)
+    {
+        checkArgument(groupId >= 0 && groupId < nextGroupId, "invalid groupId");
+        long rowOffset = (long) groupId * rowStride;
+        long nullMask = rows.get(rowOffset + NULL_MASK_SLOT);
+        for (int i = 0; i < channels.length; i++) {
+            BlockBuilder blockBuilder = pageBuilder.getBlockBuilder(outputChannelOffset + i);
+            if ((nullMask & (1L << i)) != 0) {
+                blockBuilder.appendNull();
+                continue;
+            }
+            Type type = hashTypes.get(i);
+            long value = rows.get(rowOffset + slotOffsets[i]);
+            if (variableWidth[i]) {
+                int length = (int) rows.get(rowOffset + slotOffsets[i] + 1);
+                type.writeSlice(blockBuilder, arena.getChunk(value), decodePosition(value), length);
+            }
+            else if (type.getJavaType() == boolean.class) {
+                type.writeBoolean(blockBuilder, value != 0);
+            }
+            else {
+                type.writeLong(blockBuilder, value);
+            }
+        }
+        if (inputHashChannel.isPresent()) {
+            BIGINT.writeLong(pageBuilder.getBlockBuilder(outputChannelOffset + channels.length), rows.get(rowOffset + HASH_SLOT));
+        }
+    }
+
+    @Override
+    public Work<?> addPage(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        return new AddPageWork(page);
+    }
+
+    @Override
+    public Work<GroupByIdBlock> getGroupIds(Page page)
+    {
+        currentPageSizeInBytes = page.getRetainedSizeInBytes();
+        if (isRunLengthEncoded(page)) {
+            return new GetRunLengthEncodedGroupIdsWork(page);
+        }
+        return new GetGroupIdsWork(page);
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels)
+    {
+        return contains(position, page, hashChannels, hashRow(position, page, hashChannels));
+    }
+
+    @Override
+    public boolean contains(int position, Page page, int[] hashChannels, long rawHash)
+    {
+        int hashPosition = getHashPosition(rawHash, mask);
+
+        // look for a slot containing this key
+        while (groupIdsByHash[hashPosition] != -1) {
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowNotDistinctFromPosition(groupIdsByHash[hashPosition], rawHash, position, page, hashChannels)) {
+                // found an existing slot for this key
+                return true;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+        }
+        return false;
+    }
+
+    @Override
+    public long getRawHash(int groupId)
+    {
+        return rows.get((long) groupId * rowStride + HASH_SLOT);
+    }
+
+    @VisibleForTesting
+    @Override
+    public int getCapacity()
+    {
+        return hashCapacity;
+    }
+
+    private int putIfAbsent(int position, Page page)
+    {
+        long rawHash = hashGenerator.hashPosition(position, page);
+        int hashPosition = getHashPosition(rawHash, mask);
+
+        // look for an empty slot or a slot containing this key
+        while (true) {
+            int groupId = groupIdsByHash[hashPosition];
+            if (groupId == -1) {
+                break;
+            }
+            if (rawHashByHashPosition[hashPosition] == (byte) rawHash && rowNotDistinctFromPosition(groupId, rawHash, position, page, channels)) {
+                return groupId;
+            }
+            // increment position and mask to handle wrap around
+            hashPosition = (hashPosition + 1) & mask;
+            hashCollisions++;
+        }
+
+        return addNewGroup(hashPosition, position, page, rawHash);
+    }
+
+    private int addNewGroup(int hashPosition, int position, Page page, long rawHash)
+    {
+        int groupId = nextGroupId++;
+        long rowOffset = (long) groupId * rowStride;
+
+        long nullMask = 0;
+        for (int i = 0; i < channels.length; i++) {
+            Block block = page.getBlock(channels[i]);
+            long slot = rowOffset + slotOffsets[i];
+            if (block.isNull(position)) {
+                nullMask |= 1L << i;
+                rows.set(slot, 0);
+                if (variableWidth[i]) {
+                    rows.set(slot + 1, 0);
+                }
+                continue;
+            }
+            Type type = hashTypes.get(i);
+            if (variableWidth[i]) {
+                Slice value = type.getSlice(block, position);
+                rows.set(slot, arena.add(value));
+                rows.set(slot + 1, value.length());
+            }
+            else if (type.getJavaType() == boolean.class) {
+                rows.set(slot, type.getBoolean(block, position) ? 1 : 0);
+            }
+            else {
+                rows.set(slot, type.getLong(block, position));
+            }
+        }
+        rows.set(rowOffset + HASH_SLOT, rawHash);
+        rows.set(rowOffset + NULL_MASK_SLOT, nullMask);
+
+        groupIdsByHash[hashPosition] = groupId;
+        rawHashByHashPosition[hashPosition] = (byte) rawHash;
+
+        // increase capacity, if necessary
+        if (needRehash()) {
+            tryRehash();
+        }
+        return groupId;
+    }
+
+    private boolean rowNotDistinctFromPosition(int groupId, long rawHash, int position, Page page, int[] hashChannels)
+    {
+        long rowOffset = (long) groupId * rowStride;
+        if (rows.get(rowOffset + HASH_SLOT) != rawHash) {
+            return false;
+        }
+        long nullMask = rows.get(rowOffset + NULL_MASK_SLOT);
+        for (int i = 0; i < hashChannels.length; i++) {
+            Block block = page.getBlock(hashChannels[i]);
+            boolean rowIsNull = (nullMask & (1L << i)) != 0;
+            if (block.isNull(position)) {
+                if (!rowIsNull) {
+                    return false;
+                }
+                continue;
+            }
+            if (rowIsNull) {
+                return false;
+            }
+
+            Type type = hashTypes.get(i);
+            long value = rows.get(rowOffset + slotOffsets[i]);
+            if (variableWidth[i]) {
+                int length = (int) rows.get(rowOffset + slotOffsets[i] + 1);
+                if (block.getSliceLength(position) != length || !block.bytesEqual(position, 0, arena.getChunk(value), decodePosition(value), length)) {
+                    return false;
+                }
+            }
+            else if (type.getJavaType() == boolean.class) {
+                if (type.getBoolean(block, position) != (value != 0)) {
+                    return false;
+                }
+            }
+            else if (type.getLong(block, position) != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long hashRow(int position, Page page, int[] hashChannels)
+    {
+        long result = HashGenerationOptimizer.INITIAL_HASH_VALUE;
+        for (int i = 0; i < hashChannels.length; i++) {
+            result = CombineHashFunction.getHash(result, hashCodeOperators.get(i).hashCodeNullSafe(page.getBlock(hashChannels[i]), position));
+        }
+        return result;
+    }
+
+    private boolean needRehash()
+    {
+        return nextGroupId >= maxFill;
+    }
+
+    private boolean tryRehash()
+    {
+        long newCapacityLong = hashCapacity * 2L;
+        if (newCapacityLong > Integer.MAX_VALUE) {
+            throw new TrinoException(GENERIC_INSUFFICIENT_RESOURCES, "Size of hash table cannot exceed 1 billion entries");
+        }
+        int newCapacity = toIntExact(newCapacityLong);
+
+        // An estimate of how much extra memory is needed before we can go ahead and expand the hash table.
+        // This includes the new capacity for groupIdsByHash and rawHashByHashPosition, the additional rows, and the size of the current page
+        preallocatedMemoryInBytes = (newCapacity - hashCapacity) * (long) (Integer.BYTES + Byte.BYTES) +
+                (calculateMaxFill(newCapacity) - maxFill) * (long) rowStride * Long.BYTES +
+                currentPageSizeInBytes;
+        if (!updateMemory.update()) {
+            // reserved memory but has exceeded the limit
+            return false;
+        }
+        preallocatedMemoryInBytes = 0;
+
+        expectedHashCollisions += estimateNumberOfHashCollisions(getGroupCount(), hashCapacity);
+
+        int newMask = newCapacity - 1;
+        int[] newGroupIdsByHash = new int[newCapacity];
+        Arrays.fill(newGroupIdsByHash, -1);
+        byte[] newRawHashes = new byte[newCapacity];
+
+        // the raw hash is stored inline with each row, so the keys never need to be rehashed
+        for (int groupId = 0; groupId < nextGroupId; groupId++) {
+            long rawHash = rows.get((long) groupId * rowStride + HASH_SLOT);
+            int hashPosition = getHashPosition(rawHash, newMask);
+            while (newGroupIdsByHash[hashPosition] != -1) {
+                hashPosition = (hashPosition + 1) & newMask;
+                hashCollisions++;
+            }
+            newGroupIdsByHash[hashPosition] = groupId;
+            newRawHashes[hashPosition] = (byte) rawHash;
+        }
+
+        mask = newMask;
+        hashCapacity = newCapacity;
+        maxFill = calculateMaxFill(newCapacity);
+        groupIdsByHash = newGroupIdsByHash;
+        rawHashByHashPosition = newRawHashes;
+        rows.ensureCapacity((long) maxFill * rowStride);
+        return true;
+    }
+
+    private boolean isRunLengthEncoded(Page page)
+    {
+        for (int channel : channels) {
+            if (!(page.getBlock(channel) instanceof RunLengthEncodedBlock)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getHashPosition(long rawHash, int mask)
+    {
+        return (int) (murmurHash3(rawHash) & mask);
+    }
+
+    private static int calculateMaxFill(int hashSize)
+    {
+        checkArgument(hashSize > 0, "hashSize must be greater than 0");
+        int maxFill = (int) Math.ceil(hashSize * FILL_RATIO);
+        if (maxFill == hashSize) {
+            maxFill--;
+        }
+        checkArgument(hashSize > maxFill, "hashSize must be larger than maxFill");
+        return maxFill;
+    }
+
+    /**
+     * Append-only storage for variable width keys. Values are addressed with a synthetic address
+     * of the chunk index and the offset within that chunk.
+     */
+    private static class SliceArena
+    {
+        private final List<Slice> chunks = new ArrayList<>();
+        private Slice currentChunk;
+        private int currentOffset;
+        private long retainedSizeInBytes;
+
+        public long add(Slice value)
+        {
+            int length = value.length();
+            if (currentChunk == null || currentOffset + length > currentChunk.length()) {
+                currentChunk = Slices.allocate(max(ARENA_CHUNK_SIZE, length));
+                currentOffset = 0;
+                chunks.add(currentChunk);
+                retainedSizeInBytes += currentChunk.getRetainedSize();
+            }
+            currentChunk.setBytes(currentOffset, value);
+            long address = encodeSyntheticAddress(chunks.size() - 1, currentOffset);
+            currentOffset += length;
+            return address;
+        }
+
+        public Slice getChunk(long address)
+        {
+            return chunks.get(decodeSliceIndex(address));
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return retainedSizeInBytes;
+        }
+    }
+
+    private class AddPageWork
+            implements Work<Void>
+    {
+        private final Page page;
+        private final int positionCount;
+
+        private int lastPosition;
+
+        public AddPageWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+            // only the first row of a run length encoded page needs to be processed
+            this.positionCount = isRunLengthEncoded(page) ? Math.min(page.getPositionCount(), 1) : page.getPositionCount();
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(lastPosition <= positionCount, "position count out of bound");
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                putIfAbsent(lastPosition, page);
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public Void getResult()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class GetGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final BlockBuilder blockBuilder;
+        private final Page page;
+
+        private boolean finished;
+        private int lastPosition;
+
+        public GetGroupIdsWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+            // we know the exact size required for the block
+            this.blockBuilder = BIGINT.createFixedSizeBlockBuilder(page.getPositionCount());
+        }
+
+        @Override
+        public boolean process()
+        {
+            int positionCount = page.getPositionCount();
+            checkState(lastPosition <= positionCount, "position count out of bound");
+            checkState(!finished);
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // putIfAbsent will rehash automatically if rehash is needed, unless there isn't enough memory to do so.
+            // Therefore needRehash will not generally return true even if we have just crossed the capacity boundary.
+            while (lastPosition < positionCount && !needRehash()) {
+                // output the group id for this row
+                BIGINT.writeLong(blockBuilder, putIfAbsent(lastPosition, page));
+                lastPosition++;
+            }
+            return lastPosition == positionCount;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(lastPosition == page.getPositionCount(), "process has not yet finished");
+            checkState(!finished, "result has produced");
+            finished = true;
+            return new GroupByIdBlock(nextGroupId, blockBuilder.build());
+        }
+    }
+
+    private class GetRunLengthEncodedGroupIdsWork
+            implements Work<GroupByIdBlock>
+    {
+        private final Page page;
+
+        private int groupId = -1;
+        private boolean processFinished;
+        private boolean resultProduced;
+
+        public GetRunLengthEncodedGroupIdsWork(Page page)
+        {
+            this.page = requireNonNull(page, "page is null");
+        }
+
+        @Override
+        public boolean process()
+        {
+            checkState(!processFinished);
+            if (page.getPositionCount() == 0) {
+                processFinished = true;
+                return true;
+            }
+
+            // needRehash() == false indicates we have reached capacity boundary and a rehash is needed.
+            // We can only proceed if tryRehash() successfully did a rehash.
+            if (needRehash() && !tryRehash()) {
+                return false;
+            }
+
+            // Only needs to process the first row since it is Run Length Encoded
+            groupId = putIfAbsent(0, page);
+            processFinished = true;
+            return true;
+        }
+
+        @Override
+        public GroupByIdBlock getResult()
+        {
+            checkState(processFinished);
+            checkState(!resultProduced);
+            resultProduced = true;
+
+            return new GroupByIdBlock(
+                    nextGroupId,
+                    new RunLengthEncodedBlock(
+                            BIGINT.createFixedSizeBlockBuilder(1).writeLong(groupId).build(),
+                            page.getPositionCount()));
+        }
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import io.airlift.stats.CounterStat;
+import io.trino.memory.LocalMemoryManager;
+import io.trino.memory.MemoryPool;
+import io.trino.metadata.Split;
+import io.trino.spi.Page;
+import io.trino.spi.QueryId;
+import org.weakref.jmx.Managed;
+import org.weakref.jmx.Nested;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stores the output of pipelines that read a single split, so that a repeated fragment
+ * over the same split does not need to read and process the split again. An entry is
+ * identified by the fragment cache key computed by the coordinator, which covers the
+ * plan of the fragment and the versions of the tables it reads, and by the cache identifier
+ * of the split. Splits without a cache identifier are not cached.
+ * <p>
+ * The pages are kept on heap, and their retained size is reserved in the fragment result
+ * cache memory pool of the {@link LocalMemoryManager}. The least recently used entries
+ * are evicted when the pool is full. The cache is disabled when the pool is not configured.
+ */
+@ThreadSafe
+public class FragmentResultCache
+{
+    private static final QueryId CACHE_QUERY_ID = new QueryId("fragment_result_cache");
+    private static final String ALLOCATION_TAG = FragmentResultCache.class.getSimpleName();
+    // a single entry may use at most this fraction of the pool, so that one large split does not evict all other entries
+    private static final int MAX_ENTRY_FRACTION = 16;
+
+    private final Optional<MemoryPool> memoryPool;
+    private final long maxEntrySizeInBytes;
+
+    @GuardedBy("this")
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final CounterStat hits = new CounterStat();
+    private final CounterStat misses = new CounterStat();
+    private final CounterStat evictions = new CounterStat();
+
+    @Inject
+    public FragmentResultCache(LocalMemoryManager localMemoryManager)
+    {
+        this(requireNonNull(localMemoryManager, "localMemoryManager is null").getFragmentResultCachePool());
+    }
+
+    public FragmentResultCache(Optional<MemoryPool> memoryPool)
+    {
+        this.memoryPool = requireNonNull(memoryPool, "memoryPool is null");
+        this.maxEntrySizeInBytes = memoryPool.map(pool -> pool.getMaxBytes() / MAX_ENTRY_FRACTION).orElse(0L);
+    }
+
+    public boolean isEnabled()
+    {
+        return memoryPool.isPresent();
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    /**
+     * Returns the cache key of the split, or empty if the connector does not provide a cache identifier for the split.
+     */
+    public static Optional<Key> createKey(String fragmentKey, Split split)
+    {
+        return split.getCacheIdentifier()
+                .map(splitIdentifier -> new Key(fragmentKey, split.getCatalogName().getCatalogName(), splitIdentifier));
+    }
+
+    public synchronized Optional<List<Page>> get(Key key)
+    {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.update(1);
+            return Optional.empty();
+        }
+        hits.update(1);
+        return Optional.of(entry.getPages());
+    }
+
+    public Recorder createRecorder(Key key)
+    {
+        return new Recorder(key);
+    }
+
+    /**
+     * Stores the output pages of a split. The pages are not stored if they are larger than
+     * the maximum entry size, or if the pool cannot fit them even after evicting all other entries.
+     */
+    public synchronized void put(Key key, List<Page> pages)
+    {
+        if (memoryPool.isEmpty() || entries.containsKey(key)) {
+            return;
+        }
+        Entry entry = new Entry(pages);
+        if (entry.getRetainedSizeInBytes() > maxEntrySizeInBytes) {
+            return;
+        }
+
+        MemoryPool pool = memoryPool.get();
+        while (!pool.tryReserve(CACHE_QUERY_ID, ALLOCATION_TAG, entry.getRetainedSizeInBytes())) {
+            Iterator<Entry> leastRecentlyUsed = entries.values().iterator();
+            if (!leastRecentlyUsed.hasNext()) {
+                return;
+            }
+            pool.free(CACHE_QUERY_ID, ALLOCATION_TAG, leastRecentlyUsed.next().getRetainedSizeInBytes());
+            leastRecentlyUsed.remove();
+            evictions.update(1);
+        }
+        entries.put(key, entry);
+    }
+
+    @VisibleForTesting
+    public synchronized int getEntryCount()
+    {
+        return entries.size();
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getHits()
+    {
+        return hits;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getMisses()
+    {
+        return misses;
+    }
+
+    @Managed
+    @Nested
+    public CounterStat getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * Collects the output pages of a split until the split is finished.
+     * This class is not thread safe.
+     */
+    public class Recorder
+    {
+        private final Key key;
+        private List<Page> pages = new ArrayList<>();
+        private long retainedSizeInBytes;
+
+        private Recorder(Key key)
+        {
+            this.key = requireNonNull(key, "key is null");
+        }
+
+        public void addPage(Page page)
+        {
+            if (pages == null) {
+                return;
+            }
+            retainedSizeInBytes += page.getRetainedSizeInBytes();
+            if (retainedSizeInBytes > maxEntrySizeInBytes) {
+                abandon();
+                return;
+            }
+            pages.add(page);
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return retainedSizeInBytes;
+        }
+
+        public void finish()
+        {
+            if (pages == null) {
+                return;
+            }
+            put(key, pages);
+            abandon();
+        }
+
+        public void abandon()
+        {
+            pages = null;
+            retainedSizeInBytes = 0;
+        }
+    }
+
+    private static class Entry
+    {
+        private final List<Page> pages;
+        private final long retainedSizeInBytes;
+
+        private Entry(List<Page> pages)
+        {
+            this.pages = ImmutableList.copyOf(requireNonNull(pages, "pages is null"));
+            this.retainedSizeInBytes = pages.stream()
+                    .mapToLong(Page::getRetainedSizeInBytes)
+                    .sum();
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public long getRetainedSizeInBytes()
+        {
+            return retainedSizeInBytes;
+        }
+    }
+
+    public static final class Key
+    {
+        private final String fragmentKey;
+        private final String catalogName;
+        private final String splitIdentifier;
+
+        private Key(String fragmentKey, String catalogName, String splitIdentifier)
+        {
+            this.fragmentKey = requireNonNull(fragmentKey, "fragmentKey is null");
+            this.catalogName = requireNonNull(catalogName, "catalogName is null");
+            this.splitIdentifier = requireNonNull(splitIdentifier, "splitIdentifier is null");
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key that = (Key) o;
+            return fragmentKey.equals(that.fragmentKey) &&
+                    catalogName.equals(that.catalogName) &&
+                    splitIdentifier.equals(that.splitIdentifier);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(fragmentKey, catalogName, splitIdentifier);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("fragmentKey", fragmentKey)
+                    .add("catalogName", catalogName)
+                    .add("splitIdentifier", splitIdentifier)
+                    .toString();
+        }
+    }
+}
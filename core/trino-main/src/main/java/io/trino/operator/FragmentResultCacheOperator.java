@@ -0,0 +1,191 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.metadata.Split;
+import io.trino.spi.Page;
+import io.trino.sql.planner.plan.PlanNodeId;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Placed in front of the output operator of a pipeline whose output depends only on its split.
+ * When the output of the split is not cached, the operator passes the pages through and stores
+ * them in the {@link FragmentResultCache} once all upstream operators have finished. When the
+ * output is cached, the driver consists only of this operator and the output operator, and this
+ * operator produces the cached pages.
+ */
+public class FragmentResultCacheOperator
+        implements Operator
+{
+    public static class FragmentResultCacheOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final FragmentResultCache cache;
+        private final String fragmentKey;
+        private boolean closed;
+
+        public FragmentResultCacheOperatorFactory(int operatorId, PlanNodeId planNodeId, FragmentResultCache cache, String fragmentKey)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.cache = requireNonNull(cache, "cache is null");
+            this.fragmentKey = requireNonNull(fragmentKey, "fragmentKey is null");
+        }
+
+        /**
+         * Creates an operator that passes pages through without recording them.
+         */
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            return new FragmentResultCacheOperator(addOperatorContext(driverContext), Optional.empty(), Optional.empty());
+        }
+
+        /**
+         * Creates an operator that produces the cached output of the split, or empty if the output is not cached.
+         */
+        public Optional<Operator> createCachedOutputOperator(DriverContext driverContext, Split split)
+        {
+            checkState(!closed, "Factory is already closed");
+            return FragmentResultCache.createKey(fragmentKey, split)
+                    .flatMap(cache::get)
+                    .map(pages -> new FragmentResultCacheOperator(addOperatorContext(driverContext), Optional.empty(), Optional.of(pages)));
+        }
+
+        /**
+         * Creates an operator that passes pages through and caches them as the output of the split,
+         * if the split can be cached.
+         */
+        public Operator createRecordingOperator(DriverContext driverContext, Split split)
+        {
+            checkState(!closed, "Factory is already closed");
+            Optional<FragmentResultCache.Recorder> recorder = FragmentResultCache.createKey(fragmentKey, split)
+                    .map(cache::createRecorder);
+            return new FragmentResultCacheOperator(addOperatorContext(driverContext), recorder, Optional.empty());
+        }
+
+        private OperatorContext addOperatorContext(DriverContext driverContext)
+        {
+            return driverContext.addOperatorContext(operatorId, planNodeId, FragmentResultCacheOperator.class.getSimpleName());
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new FragmentResultCacheOperatorFactory(operatorId, planNodeId, cache, fragmentKey);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final Optional<FragmentResultCache.Recorder> recorder;
+    private final Optional<Iterator<Page>> cachedOutput;
+
+    private Page outputPage;
+    private boolean finishing;
+
+    private FragmentResultCacheOperator(OperatorContext operatorContext, Optional<FragmentResultCache.Recorder> recorder, Optional<List<Page>> cachedOutput)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.recorder = requireNonNull(recorder, "recorder is null");
+        this.cachedOutput = requireNonNull(cachedOutput, "cachedOutput is null").map(pages -> ImmutableList.copyOf(pages).iterator());
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return cachedOutput.isEmpty() && !finishing && outputPage == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(needsInput(), "Operator does not need input");
+
+        // cached pages are shared between drivers, so they must not contain lazy blocks
+        outputPage = page.getLoadedPage();
+        if (recorder.isPresent()) {
+            recorder.get().addPage(outputPage);
+            operatorContext.localUserMemoryContext().setBytes(recorder.get().getRetainedSizeInBytes());
+        }
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (cachedOutput.isPresent()) {
+            if (!cachedOutput.get().hasNext()) {
+                return null;
+            }
+            Page page = cachedOutput.get().next();
+            operatorContext.recordProcessedInput(page.getSizeInBytes(), page.getPositionCount());
+            return page;
+        }
+
+        Page page = outputPage;
+        outputPage = null;
+        return page;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finishing || cachedOutput.isPresent()) {
+            return;
+        }
+        finishing = true;
+        // all upstream operators have finished, so the recorded pages are the complete output of the split
+        recorder.ifPresent(FragmentResultCache.Recorder::finish);
+        operatorContext.localUserMemoryContext().setBytes(0);
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        if (cachedOutput.isPresent()) {
+            return !cachedOutput.get().hasNext();
+        }
+        return finishing && outputPage == null;
+    }
+
+    @Override
+    public void close()
+    {
+        // if the upstream operators have not finished, the recorded output of the split is incomplete
+        recorder.ifPresent(FragmentResultCache.Recorder::abandon);
+        operatorContext.localUserMemoryContext().setBytes(0);
+    }
+}
@@ -25,6 +25,7 @@ import java.util.List;
 import java.util.Optional;
 
 import static io.trino.SystemSessionProperties.isDictionaryAggregationEnabled;
+import static io.trino.SystemSessionProperties.isFlatGroupByHashEnabled;
 import static io.trino.operator.UpdateMemory.NOOP;
 import static io.trino.spi.type.BigintType.BIGINT;
 
@@ -39,7 +40,29 @@ public interface GroupByHash
             JoinCompiler joinCompiler,
             BlockTypeOperators blockTypeOperators)
     {
-        return createGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, isDictionaryAggregationEnabled(session), joinCompiler, blockTypeOperators, NOOP);
+        return createGroupByHash(session, hashTypes, hashChannels, inputHashChannel, expectedSize, joinCompiler, blockTypeOperators, NOOP);
+    }
+
+    static GroupByHash createGroupByHash(
+            Session session,
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            JoinCompiler joinCompiler,
+            BlockTypeOperators blockTypeOperators,
+            UpdateMemory updateMemory)
+    {
+        return createGroupByHash(
+                hashTypes,
+                hashChannels,
+                inputHashChannel,
+                expectedSize,
+                isDictionaryAggregationEnabled(session),
+                isFlatGroupByHashEnabled(session),
+                joinCompiler,
+                blockTypeOperators,
+                updateMemory);
     }
 
     static GroupByHash createGroupByHash(
@@ -51,10 +74,28 @@ public interface GroupByHash
             JoinCompiler joinCompiler,
             BlockTypeOperators blockTypeOperators,
             UpdateMemory updateMemory)
+    {
+        return createGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, processDictionary, false, joinCompiler, blockTypeOperators, updateMemory);
+    }
+
+    static GroupByHash createGroupByHash(
+            List<? extends Type> hashTypes,
+            int[] hashChannels,
+            Optional<Integer> inputHashChannel,
+            int expectedSize,
+            boolean processDictionary,
+            boolean flatHash,
+            JoinCompiler joinCompiler,
+            BlockTypeOperators blockTypeOperators,
+            UpdateMemory updateMemory)
     {
         if (hashTypes.size() == 1 && hashTypes.get(0).equals(BIGINT) && hashChannels.length == 1) {
             return new BigintGroupByHash(hashChannels[0], inputHashChannel.isPresent(), expectedSize, updateMemory);
         }
+        // dictionary processing is only implemented by MultiChannelGroupByHash, so prefer it for single dictionary channels
+        if (flatHash && !(processDictionary && hashChannels.length == 1) && hashTypes.size() <= Long.SIZE && hashTypes.stream().allMatch(FlatGroupByHash::isSupportedType)) {
+            return new FlatGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, blockTypeOperators, updateMemory);
+        }
         return new MultiChannelGroupByHash(hashTypes, hashChannels, inputHashChannel, expectedSize, processDictionary, joinCompiler, blockTypeOperators, updateMemory);
     }
 
@@ -23,6 +23,8 @@ import io.trino.operator.aggregation.AccumulatorFactory;
 import io.trino.operator.aggregation.builder.HashAggregationBuilder;
 import io.trino.operator.aggregation.builder.InMemoryHashAggregationBuilder;
 import io.trino.operator.aggregation.builder.SpillableHashAggregationBuilder;
+import io.trino.operator.aggregation.partial.PartialAggregationController;
+import io.trino.operator.aggregation.partial.SkipAggregationBuilder;
 import io.trino.operator.scalar.CombineHashFunction;
 import io.trino.spi.Page;
 import io.trino.spi.PageBuilder;
@@ -38,6 +40,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
@@ -74,6 +77,7 @@ public class HashAggregationOperator
         private final JoinCompiler joinCompiler;
         private final BlockTypeOperators blockTypeOperators;
         private final boolean useSystemMemory;
+        private final Optional<PartialAggregationController> partialAggregationController;
 
         private boolean closed;
 
@@ -114,7 +118,8 @@ public class HashAggregationOperator
                     },
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    Optional.empty());
         }
 
         public HashAggregationOperatorFactory(
@@ -135,7 +140,8 @@ public class HashAggregationOperator
                 SpillerFactory spillerFactory,
                 JoinCompiler joinCompiler,
                 BlockTypeOperators blockTypeOperators,
-                boolean useSystemMemory)
+                boolean useSystemMemory,
+                Optional<PartialAggregationController> partialAggregationController)
         {
             this(operatorId,
                     planNodeId,
@@ -155,7 +161,8 @@ public class HashAggregationOperator
                     spillerFactory,
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    partialAggregationController);
         }
 
         @VisibleForTesting
@@ -178,7 +185,8 @@ public class HashAggregationOperator
                 SpillerFactory spillerFactory,
                 JoinCompiler joinCompiler,
                 BlockTypeOperators blockTypeOperators,
-                boolean useSystemMemory)
+                boolean useSystemMemory,
+                Optional<PartialAggregationController> partialAggregationController)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -199,6 +207,8 @@ public class HashAggregationOperator
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
             this.useSystemMemory = useSystemMemory;
+            this.partialAggregationController = requireNonNull(partialAggregationController, "partialAggregationController is null");
+            checkArgument(partialAggregationController.isEmpty() || step == Step.PARTIAL, "partialAggregationController is only supported for partial aggregation");
         }
 
         @Override
@@ -225,7 +235,8 @@ public class HashAggregationOperator
                     spillerFactory,
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    partialAggregationController);
             return hashAggregationOperator;
         }
 
@@ -257,7 +268,8 @@ public class HashAggregationOperator
                     spillerFactory,
                     joinCompiler,
                     blockTypeOperators,
-                    useSystemMemory);
+                    useSystemMemory,
+                    partialAggregationController);
         }
     }
 
@@ -279,6 +291,7 @@ public class HashAggregationOperator
     private final JoinCompiler joinCompiler;
     private final BlockTypeOperators blockTypeOperators;
     private final boolean useSystemMemory;
+    private final Optional<PartialAggregationController> partialAggregationController;
 
     private final List<Type> types;
     private final HashCollisionsCounter hashCollisionsCounter;
@@ -293,6 +306,13 @@ public class HashAggregationOperator
     // for yield when memory is not available
     private Work<?> unfinishedWork;
 
+    // adaptive partial aggregation statistics
+    private long aggregatedInputRows;
+    private long aggregatedUniqueRows;
+    private long aggregationBuilderInputRows;
+    private long skippedInputRows;
+    private boolean partialAggregationDisabled;
+
     public HashAggregationOperator(
             OperatorContext operatorContext,
             List<Type> groupByTypes,
@@ -311,7 +331,8 @@ public class HashAggregationOperator
             SpillerFactory spillerFactory,
             JoinCompiler joinCompiler,
             BlockTypeOperators blockTypeOperators,
-            boolean useSystemMemory)
+            boolean useSystemMemory,
+            Optional<PartialAggregationController> partialAggregationController)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         requireNonNull(step, "step is null");
@@ -336,8 +357,14 @@ public class HashAggregationOperator
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
         this.hashCollisionsCounter = new HashCollisionsCounter(operatorContext);
-        operatorContext.setInfoSupplier(hashCollisionsCounter);
         this.useSystemMemory = useSystemMemory;
+        this.partialAggregationController = requireNonNull(partialAggregationController, "partialAggregationController is null");
+        if (partialAggregationController.isPresent()) {
+            operatorContext.setInfoSupplier(this::getHashAggregationOperatorInfo);
+        }
+        else {
+            operatorContext.setInfoSupplier(hashCollisionsCounter);
+        }
 
         this.memoryContext = operatorContext.localUserMemoryContext();
         if (useSystemMemory) {
@@ -369,7 +396,7 @@ public class HashAggregationOperator
         if (finishing || outputPages != null) {
             return false;
         }
-        else if (aggregationBuilder != null && aggregationBuilder.isFull()) {
+        else if (aggregationBuilder != null && isAggregationBuilderFull()) {
             return false;
         }
         else {
@@ -386,8 +413,11 @@ public class HashAggregationOperator
         inputProcessed = true;
 
         if (aggregationBuilder == null) {
+            if (partialAggregationDisabled) {
+                aggregationBuilder = new SkipAggregationBuilder(groupByChannels, hashChannel, accumulatorFactories, memoryContext);
+            }
             // TODO: We ignore spillEnabled here if any aggregate has ORDER BY clause or DISTINCT because they are not yet implemented for spilling.
-            if (step.isOutputPartial() || !spillEnabled || hasOrderBy() || hasDistinct()) {
+            else if (step.isOutputPartial() || !spillEnabled || hasOrderBy() || hasDistinct()) {
                 aggregationBuilder = new InMemoryHashAggregationBuilder(
                         accumulatorFactories,
                         step,
@@ -428,7 +458,7 @@ public class HashAggregationOperator
             // assume initial aggregationBuilder is not full
         }
         else {
-            checkState(!aggregationBuilder.isFull(), "Aggregation buffer is full");
+            checkState(!isAggregationBuilderFull(), "Aggregation buffer is full");
         }
 
         // process the current page; save the unfinished work if we are waiting for memory
@@ -437,6 +467,34 @@ public class HashAggregationOperator
             unfinishedWork = null;
         }
         aggregationBuilder.updateMemory();
+
+        if (partialAggregationController.isPresent()) {
+            updatePartialAggregationStatistics(page.getPositionCount());
+        }
+    }
+
+    private void updatePartialAggregationStatistics(int inputRows)
+    {
+        if (aggregationBuilder instanceof SkipAggregationBuilder) {
+            skippedInputRows += inputRows;
+            return;
+        }
+
+        aggregationBuilderInputRows += inputRows;
+        long uniqueRows = ((InMemoryHashAggregationBuilder) aggregationBuilder).getGroupCount();
+        if (partialAggregationController.get().shouldDisablePartialAggregation(aggregatedInputRows + aggregationBuilderInputRows, aggregatedUniqueRows + uniqueRows)) {
+            // flush the groups collected so far and pass through the remaining input
+            partialAggregationDisabled = true;
+        }
+    }
+
+    private boolean isAggregationBuilderFull()
+    {
+        if (partialAggregationDisabled && !(aggregationBuilder instanceof SkipAggregationBuilder)) {
+            // flush the groups collected before partial aggregation was disabled
+            return true;
+        }
+        return aggregationBuilder.isFull();
     }
 
     private boolean hasOrderBy()
@@ -498,10 +556,15 @@ public class HashAggregationOperator
             }
 
             // only flush if we are finishing or the aggregation builder is full
-            if (!finishing && (aggregationBuilder == null || !aggregationBuilder.isFull())) {
+            if (!finishing && (aggregationBuilder == null || !isAggregationBuilderFull())) {
                 return null;
             }
 
+            if (aggregationBuilder instanceof InMemoryHashAggregationBuilder && partialAggregationController.isPresent()) {
+                aggregatedInputRows += aggregationBuilderInputRows;
+                aggregatedUniqueRows += ((InMemoryHashAggregationBuilder) aggregationBuilder).getGroupCount();
+                aggregationBuilderInputRows = 0;
+            }
             outputPages = aggregationBuilder.buildResult();
         }
 
@@ -510,7 +573,13 @@ public class HashAggregationOperator
         }
 
         if (outputPages.isFinished()) {
-            closeAggregationBuilder();
+            if (aggregationBuilder instanceof SkipAggregationBuilder && !finishing) {
+                // the builder holds no data once its output is built, so it is reused for the next page
+                outputPages = null;
+            }
+            else {
+                closeAggregationBuilder();
+            }
             return null;
         }
 
@@ -529,6 +598,23 @@ public class HashAggregationOperator
         return aggregationBuilder;
     }
 
+    @VisibleForTesting
+    boolean isPartialAggregationDisabled()
+    {
+        return partialAggregationDisabled;
+    }
+
+    private HashAggregationOperatorInfo getHashAggregationOperatorInfo()
+    {
+        return new HashAggregationOperatorInfo(
+                hashCollisionsCounter.get(),
+                aggregatedInputRows,
+                aggregatedUniqueRows,
+                skippedInputRows,
+                partialAggregationDisabled ? 1 : 0,
+                1);
+    }
+
     private void closeAggregationBuilder()
     {
         outputPages = null;
@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.trino.util.Mergeable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Info of a partial {@link HashAggregationOperator} with adaptive partial aggregation.
+ * Besides the hash collisions it records how many rows were aggregated and how many
+ * rows were passed through after partial aggregation was disabled.
+ */
+public class HashAggregationOperatorInfo
+        implements Mergeable<HashAggregationOperatorInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final long aggregatedInputRows;
+    private final long aggregatedUniqueRows;
+    private final long skippedInputRows;
+    private final long partialAggregationDisabledOperators;
+    private final long totalOperators;
+
+    @JsonCreator
+    public HashAggregationOperatorInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("aggregatedInputRows") long aggregatedInputRows,
+            @JsonProperty("aggregatedUniqueRows") long aggregatedUniqueRows,
+            @JsonProperty("skippedInputRows") long skippedInputRows,
+            @JsonProperty("partialAggregationDisabledOperators") long partialAggregationDisabledOperators,
+            @JsonProperty("totalOperators") long totalOperators)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.aggregatedInputRows = aggregatedInputRows;
+        this.aggregatedUniqueRows = aggregatedUniqueRows;
+        this.skippedInputRows = skippedInputRows;
+        this.partialAggregationDisabledOperators = partialAggregationDisabledOperators;
+        this.totalOperators = totalOperators;
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    /**
+     * Number of input rows that were aggregated in the hash table.
+     */
+    @JsonProperty
+    public long getAggregatedInputRows()
+    {
+        return aggregatedInputRows;
+    }
+
+    /**
+     * Number of groups produced from the aggregated input rows.
+     */
+    @JsonProperty
+    public long getAggregatedUniqueRows()
+    {
+        return aggregatedUniqueRows;
+    }
+
+    /**
+     * Number of input rows passed through without aggregation.
+     */
+    @JsonProperty
+    public long getSkippedInputRows()
+    {
+        return skippedInputRows;
+    }
+
+    @JsonProperty
+    public long getPartialAggregationDisabledOperators()
+    {
+        return partialAggregationDisabledOperators;
+    }
+
+    @JsonProperty
+    public long getTotalOperators()
+    {
+        return totalOperators;
+    }
+
+    @Override
+    public HashAggregationOperatorInfo mergeWith(HashAggregationOperatorInfo other)
+    {
+        return new HashAggregationOperatorInfo(
+                hashCollisionsInfo.mergeWith(other.hashCollisionsInfo),
+                aggregatedInputRows + other.aggregatedInputRows,
+                aggregatedUniqueRows + other.aggregatedUniqueRows,
+                skippedInputRows + other.skippedInputRows,
+                partialAggregationDisabledOperators + other.partialAggregationDisabledOperators,
+                totalOperators + other.totalOperators);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("aggregatedInputRows", aggregatedInputRows)
+                .add("aggregatedUniqueRows", aggregatedUniqueRows)
+                .add("skippedInputRows", skippedInputRows)
+                .add("partialAggregationDisabledOperators", partialAggregationDisabledOperators)
+                .add("totalOperators", totalOperators)
+                .toString();
+    }
+}
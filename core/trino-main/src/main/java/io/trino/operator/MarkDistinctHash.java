@@ -14,14 +14,17 @@
 package io.trino.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
 import io.trino.Session;
 import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.type.Type;
 import io.trino.sql.gen.JoinCompiler;
 import io.trino.type.BlockTypeOperators;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -68,6 +71,34 @@ public class MarkDistinctHash
                 });
     }
 
+    /**
+     * Returns pages with the distinct values marked so far. When the hash is precomputed,
+     * the raw hash of the values is in the last channel.
+     */
+    public Iterator<Page> getDistinctValues()
+    {
+        return new AbstractIterator<>()
+        {
+            private int groupId;
+
+            @Override
+            protected Page computeNext()
+            {
+                if (groupId == groupByHash.getGroupCount()) {
+                    return endOfData();
+                }
+
+                PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+                while (!pageBuilder.isFull() && groupId < groupByHash.getGroupCount()) {
+                    pageBuilder.declarePosition();
+                    groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+                    groupId++;
+                }
+                return pageBuilder.build();
+            }
+        };
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
@@ -15,27 +15,51 @@ package io.trino.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.exchange.LocalPartitionGenerator;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
+import io.trino.spi.block.RunLengthEncodedBlock;
 import io.trino.spi.type.Type;
+import io.trino.spiller.PartitioningSpiller;
+import io.trino.spiller.PartitioningSpiller.PartitioningSpillResult;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.gen.JoinCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.type.BlockTypeOperators;
 
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
+import static io.trino.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static java.util.Objects.requireNonNull;
 
 public class MarkDistinctOperator
         implements Operator
 {
+    // the input is spilled to this many partitions, which are unspilled one at a time
+    private static final int SPILL_PARTITION_COUNT = 16;
+    // the local exchange on the distinct symbols partitions the input by the lowest bits of the same hash,
+    // so the spill partitions use the highest bits, which differ between the values of a driver
+    private static final int SPILL_HASH_BITS_OFFSET = Integer.SIZE - Integer.numberOfTrailingZeros(SPILL_PARTITION_COUNT);
+
     public static class MarkDistinctOperatorFactory
             implements OperatorFactory
     {
@@ -46,6 +70,8 @@ public class MarkDistinctOperator
         private final List<Type> types;
         private final JoinCompiler joinCompiler;
         private final BlockTypeOperators blockTypeOperators;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private boolean closed;
 
         public MarkDistinctOperatorFactory(
@@ -56,6 +82,20 @@ public class MarkDistinctOperator
                 Optional<Integer> hashChannel,
                 JoinCompiler joinCompiler,
                 BlockTypeOperators blockTypeOperators)
+        {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashChannel, joinCompiler, blockTypeOperators, false, unsupportedPartitioningSpillerFactory());
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                Optional<Integer> hashChannel,
+                JoinCompiler joinCompiler,
+                BlockTypeOperators blockTypeOperators,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -64,6 +104,8 @@ public class MarkDistinctOperator
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
             this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
             this.types = ImmutableList.<Type>builder()
                     .addAll(sourceTypes)
                     .add(BOOLEAN)
@@ -75,7 +117,7 @@ public class MarkDistinctOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MarkDistinctOperator.class.getSimpleName());
-            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, blockTypeOperators);
+            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, blockTypeOperators, spillEnabled, partitioningSpillerFactory);
         }
 
         @Override
@@ -87,33 +129,68 @@ public class MarkDistinctOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler, blockTypeOperators);
+            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler, blockTypeOperators, spillEnabled, partitioningSpillerFactory);
         }
     }
 
     private final OperatorContext operatorContext;
-    private final MarkDistinctHash markDistinctHash;
+    private final List<Type> types;
+    private final List<Type> distinctTypes;
+    private final int[] markDistinctChannels;
+    private final Optional<Integer> hashChannel;
+    private final JoinCompiler joinCompiler;
+    private final BlockTypeOperators blockTypeOperators;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
+
+    // null once the values are spilled, until a spilled partition is being unspilled
+    @Nullable
+    private MarkDistinctHash markDistinctHash;
 
     private Page inputPage;
+    private Page outputPage;
     private boolean finishing;
 
     // for yield when memory is not available
     private Work<Block> unfinishedWork;
 
-    public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, Optional<Integer> hashChannel, JoinCompiler joinCompiler, BlockTypeOperators blockTypeOperators)
+    // once spilled, all remaining input is spilled and marked when the partitions are unspilled
+    private Optional<PartitioningSpiller> spiller = Optional.empty();
+    private ListenableFuture<Void> spillInProgress = immediateVoidFuture();
+    private int unspilledPartition;
+    @Nullable
+    private Iterator<Page> unspilledPages;
+
+    public MarkDistinctOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            List<Integer> markDistinctChannels,
+            Optional<Integer> hashChannel,
+            JoinCompiler joinCompiler,
+            BlockTypeOperators blockTypeOperators,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
-
-        requireNonNull(hashChannel, "hashChannel is null");
+        this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
         requireNonNull(markDistinctChannels, "markDistinctChannels is null");
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
 
         ImmutableList.Builder<Type> distinctTypes = ImmutableList.builder();
         for (int channel : markDistinctChannels) {
             distinctTypes.add(types.get(channel));
         }
-        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes.build(), Ints.toArray(markDistinctChannels), hashChannel, joinCompiler, blockTypeOperators, this::updateMemoryReservation);
+        this.distinctTypes = distinctTypes.build();
+        this.markDistinctChannels = Ints.toArray(markDistinctChannels);
+        this.markDistinctHash = createMarkDistinctHash();
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
     }
 
     @Override
@@ -126,18 +203,25 @@ public class MarkDistinctOperator
     public void finish()
     {
         finishing = true;
+        releaseMarkDistinctHashIfFinished();
     }
 
     @Override
     public boolean isFinished()
     {
-        return finishing && !hasUnfinishedInput();
+        return finishing && !hasUnfinishedInput() && spiller.isEmpty();
+    }
+
+    @Override
+    public ListenableFuture<Void> isBlocked()
+    {
+        return spillInProgress.isDone() ? NOT_BLOCKED : spillInProgress;
     }
 
     @Override
     public boolean needsInput()
     {
-        return !finishing && !hasUnfinishedInput();
+        return !finishing && !hasUnfinishedInput() && spillInProgress.isDone();
     }
 
     @Override
@@ -146,6 +230,11 @@ public class MarkDistinctOperator
         requireNonNull(page, "page is null");
         checkState(needsInput());
 
+        if (spiller.isPresent()) {
+            spillInProgress = spillPage(page.appendColumn(RunLengthEncodedBlock.create(BOOLEAN, false, page.getPositionCount())));
+            return;
+        }
+
         inputPage = page;
 
         unfinishedWork = markDistinctHash.markDistinctRows(page);
@@ -155,6 +244,20 @@ public class MarkDistinctOperator
     @Override
     public Page getOutput()
     {
+        if (outputPage != null) {
+            Page result = outputPage;
+            outputPage = null;
+            releaseMarkDistinctHashIfFinished();
+            return result;
+        }
+
+        if (spiller.isPresent()) {
+            if (!finishing || !spillInProgress.isDone()) {
+                return null;
+            }
+            return unspill();
+        }
+
         if (unfinishedWork == null) {
             return null;
         }
@@ -164,18 +267,169 @@ public class MarkDistinctOperator
         }
 
         // add the new boolean column to the page
-        Page outputPage = inputPage.appendColumn(unfinishedWork.getResult());
+        Page page = inputPage.appendColumn(unfinishedWork.getResult());
 
         unfinishedWork = null;
         inputPage = null;
 
         updateMemoryReservation();
-        return outputPage;
+        releaseMarkDistinctHashIfFinished();
+        return page;
+    }
+
+    @Override
+    public ListenableFuture<Void> startMemoryRevoke()
+    {
+        if (spiller.isPresent() || markDistinctHash == null) {
+            // all values are already spilled, or no more input is expected
+            verify(localRevocableMemoryContext.getBytes() == 0);
+            return NOT_BLOCKED;
+        }
+
+        if (unfinishedWork != null) {
+            // spillable hash does not yield, so the pending page can be marked before its values are spilled
+            verify(unfinishedWork.process());
+            outputPage = inputPage.appendColumn(unfinishedWork.getResult());
+            unfinishedWork = null;
+            inputPage = null;
+        }
+
+        spiller = Optional.of(partitioningSpillerFactory.create(
+                types,
+                new LocalPartitionGenerator(new InterpretedHashGenerator(distinctTypes, markDistinctChannels, blockTypeOperators), SPILL_PARTITION_COUNT, SPILL_HASH_BITS_OFFSET),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext()));
+
+        // the values marked so far are spilled first, so that they are known before the spilled input is marked
+        spillInProgress = spillPages(Iterators.transform(markDistinctHash.getDistinctValues(), this::toSpilledDistinctValues));
+        return spillInProgress;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkSuccess(spillInProgress, "spilling failed");
+        if (spiller.isPresent() && localRevocableMemoryContext.getBytes() > 0) {
+            // the marked values are spilled
+            markDistinctHash = null;
+            localRevocableMemoryContext.setBytes(0);
+        }
+    }
+
+    private Page unspill()
+    {
+        while (unspilledPartition < SPILL_PARTITION_COUNT) {
+            if (unspilledPages == null) {
+                unspilledPages = spiller.get().getSpilledPages(unspilledPartition);
+                markDistinctHash = createMarkDistinctHash();
+            }
+
+            while (unspilledPages.hasNext()) {
+                Page page = markSpilledPage(unspilledPages.next());
+                updateMemoryReservation();
+                if (page != null) {
+                    return page;
+                }
+            }
+
+            unspilledPages = null;
+            markDistinctHash = null;
+            localUserMemoryContext.setBytes(0);
+            unspilledPartition++;
+        }
+
+        spiller.get().verifyAllPartitionsRead();
+        closeSpiller();
+        return null;
+    }
+
+    private Page markSpilledPage(Page page)
+    {
+        int seenChannel = types.size() - 1;
+        Block seen = page.getBlock(seenChannel);
+        int[] seenPositions = new int[page.getPositionCount()];
+        int seenCount = 0;
+        int[] inputPositions = new int[page.getPositionCount()];
+        int inputCount = 0;
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            if (BOOLEAN.getBoolean(seen, position)) {
+                seenPositions[seenCount++] = position;
+            }
+            else {
+                inputPositions[inputCount++] = position;
+            }
+        }
+
+        // values marked before spilling precede the spilled input of their partition
+        if (seenCount > 0) {
+            verify(markDistinctHash.markDistinctRows(page.getPositions(seenPositions, 0, seenCount)).process());
+        }
+        if (inputCount == 0) {
+            return null;
+        }
+
+        Page input = page.getPositions(inputPositions, 0, inputCount);
+        Work<Block> work = markDistinctHash.markDistinctRows(input);
+        verify(work.process());
+        Block[] blocks = new Block[types.size()];
+        for (int channel = 0; channel < seenChannel; channel++) {
+            blocks[channel] = input.getBlock(channel);
+        }
+        blocks[seenChannel] = work.getResult();
+        return new Page(inputCount, blocks);
+    }
+
+    private Page toSpilledDistinctValues(Page distinctValues)
+    {
+        int positionCount = distinctValues.getPositionCount();
+        Block[] blocks = new Block[types.size()];
+        for (int channel = 0; channel < blocks.length - 1; channel++) {
+            blocks[channel] = RunLengthEncodedBlock.create(types.get(channel), null, positionCount);
+        }
+        for (int i = 0; i < markDistinctChannels.length; i++) {
+            blocks[markDistinctChannels[i]] = distinctValues.getBlock(i);
+        }
+        hashChannel.ifPresent(channel -> blocks[channel] = distinctValues.getBlock(markDistinctChannels.length));
+        blocks[blocks.length - 1] = RunLengthEncodedBlock.create(BOOLEAN, true, positionCount);
+        return new Page(positionCount, blocks);
+    }
+
+    private ListenableFuture<Void> spillPages(Iterator<Page> pages)
+    {
+        while (pages.hasNext()) {
+            ListenableFuture<Void> future = spillPage(pages.next());
+            if (!future.isDone()) {
+                return Futures.transformAsync(future, ignored -> spillPages(pages), directExecutor());
+            }
+            checkSuccess(future, "spilling failed");
+        }
+        return immediateVoidFuture();
+    }
+
+    private ListenableFuture<Void> spillPage(Page page)
+    {
+        PartitioningSpillResult result = spiller.get().partitionAndSpill(page, partition -> true);
+        verify(result.getRetained().getPositionCount() == 0, "all positions should be spilled");
+        return result.getSpillingFuture();
     }
 
     private boolean hasUnfinishedInput()
     {
-        return inputPage != null || unfinishedWork != null;
+        return inputPage != null || unfinishedWork != null || outputPage != null;
+    }
+
+    private MarkDistinctHash createMarkDistinctHash()
+    {
+        return new MarkDistinctHash(operatorContext.getSession(), distinctTypes, markDistinctChannels, hashChannel, joinCompiler, blockTypeOperators, this::updateMemoryReservation);
+    }
+
+    private void releaseMarkDistinctHashIfFinished()
+    {
+        // spillable hash is only needed to mark the remaining input
+        if (spillEnabled && finishing && !hasUnfinishedInput() && spiller.isEmpty()) {
+            markDistinctHash = null;
+            localRevocableMemoryContext.setBytes(0);
+        }
     }
 
     /**
@@ -188,13 +442,48 @@ public class MarkDistinctOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        long estimatedSize = markDistinctHash == null ? 0 : markDistinctHash.getEstimatedSize();
+        if (spillEnabled) {
+            // memory is released by spilling instead of yielding
+            if (spiller.isEmpty()) {
+                localRevocableMemoryContext.setBytes(estimatedSize);
+            }
+            else {
+                localUserMemoryContext.setBytes(estimatedSize);
+            }
+            return true;
+        }
+
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
-        localUserMemoryContext.setBytes(markDistinctHash.getEstimatedSize());
+        localUserMemoryContext.setBytes(estimatedSize);
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
     }
 
+    private void closeSpiller()
+    {
+        try {
+            spiller.get().close();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        spiller = Optional.empty();
+    }
+
+    @Override
+    public void close()
+    {
+        markDistinctHash = null;
+        unspilledPages = null;
+        if (spiller.isPresent()) {
+            closeSpiller();
+        }
+        localUserMemoryContext.setBytes(0);
+        localRevocableMemoryContext.setBytes(0);
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
@@ -66,6 +66,7 @@ public class PartitionedOutputOperator
         private final boolean replicatesAnyRow;
         private final OptionalInt nullChannel;
         private final DataSize maxMemory;
+        private final Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory;
 
         public PartitionedOutputFactory(
                 PartitionFunction partitionFunction,
@@ -74,7 +75,8 @@ public class PartitionedOutputOperator
                 boolean replicatesAnyRow,
                 OptionalInt nullChannel,
                 OutputBuffer outputBuffer,
-                DataSize maxMemory)
+                DataSize maxMemory,
+                Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory)
         {
             this.partitionFunction = requireNonNull(partitionFunction, "partitionFunction is null");
             this.partitionChannels = requireNonNull(partitionChannels, "partitionChannels is null");
@@ -83,6 +85,7 @@ public class PartitionedOutputOperator
             this.nullChannel = requireNonNull(nullChannel, "nullChannel is null");
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.maxMemory = requireNonNull(maxMemory, "maxMemory is null");
+            this.skewedKeyDetectorFactory = requireNonNull(skewedKeyDetectorFactory, "skewedKeyDetectorFactory is null");
         }
 
         @Override
@@ -105,7 +108,8 @@ public class PartitionedOutputOperator
                     nullChannel,
                     outputBuffer,
                     serdeFactory,
-                    maxMemory);
+                    maxMemory,
+                    skewedKeyDetectorFactory);
         }
     }
 
@@ -124,6 +128,7 @@ public class PartitionedOutputOperator
         private final OutputBuffer outputBuffer;
         private final PagesSerdeFactory serdeFactory;
         private final DataSize maxMemory;
+        private final Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory;
 
         public PartitionedOutputOperatorFactory(
                 int operatorId,
@@ -137,7 +142,8 @@ public class PartitionedOutputOperator
                 OptionalInt nullChannel,
                 OutputBuffer outputBuffer,
                 PagesSerdeFactory serdeFactory,
-                DataSize maxMemory)
+                DataSize maxMemory,
+                Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -151,6 +157,7 @@ public class PartitionedOutputOperator
             this.outputBuffer = requireNonNull(outputBuffer, "outputBuffer is null");
             this.serdeFactory = requireNonNull(serdeFactory, "serdeFactory is null");
             this.maxMemory = requireNonNull(maxMemory, "maxMemory is null");
+            this.skewedKeyDetectorFactory = requireNonNull(skewedKeyDetectorFactory, "skewedKeyDetectorFactory is null");
         }
 
         @Override
@@ -168,7 +175,8 @@ public class PartitionedOutputOperator
                     nullChannel,
                     outputBuffer,
                     serdeFactory,
-                    maxMemory);
+                    maxMemory,
+                    skewedKeyDetectorFactory);
         }
 
         @Override
@@ -191,7 +199,8 @@ public class PartitionedOutputOperator
                     nullChannel,
                     outputBuffer,
                     serdeFactory,
-                    maxMemory);
+                    maxMemory,
+                    skewedKeyDetectorFactory);
         }
     }
 
@@ -214,7 +223,8 @@ public class PartitionedOutputOperator
             OptionalInt nullChannel,
             OutputBuffer outputBuffer,
             PagesSerdeFactory serdeFactory,
-            DataSize maxMemory)
+            DataSize maxMemory,
+            Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.pagePreprocessor = requireNonNull(pagePreprocessor, "pagePreprocessor is null");
@@ -228,6 +238,7 @@ public class PartitionedOutputOperator
                 serdeFactory,
                 sourceTypes,
                 maxMemory,
+                skewedKeyDetectorFactory,
                 operatorContext);
 
         operatorContext.setInfoSupplier(this.partitionFunction.getOperatorInfoSupplier());
@@ -316,6 +327,7 @@ public class PartitionedOutputOperator
         private final AtomicLong rowsAdded = new AtomicLong();
         private final AtomicLong pagesAdded = new AtomicLong();
         private boolean hasAnyRowBeenReplicated;
+        private final Optional<SkewedPartitionKeyDetector> skewedKeyDetector;
         private final OperatorContext operatorContext;
 
         public PagePartitioner(
@@ -328,6 +340,7 @@ public class PartitionedOutputOperator
                 PagesSerdeFactory serdeFactory,
                 List<Type> sourceTypes,
                 DataSize maxMemory,
+                Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory,
                 OperatorContext operatorContext)
         {
             this.partitionFunction = requireNonNull(partitionFunction, "partitionFunction is null");
@@ -357,6 +370,11 @@ public class PartitionedOutputOperator
             }
 
             int partitionCount = partitionFunction.getPartitionCount();
+            // a single partition cannot be skewed
+            this.skewedKeyDetector = requireNonNull(skewedKeyDetectorFactory, "skewedKeyDetectorFactory is null")
+                    .filter(factory -> partitionCount > 1)
+                    .map(factory -> factory.createDetector(operatorContext.getSession().toConnectorSession(), partitionCount));
+
             int pageSize = toIntExact(min(DEFAULT_MAX_PAGE_SIZE_IN_BYTES, maxMemory.toBytes() / partitionCount));
             pageSize = max(1, pageSize);
 
@@ -396,16 +414,25 @@ public class PartitionedOutputOperator
 
         public Supplier<PartitionedOutputInfo> getOperatorInfoSupplier()
         {
-            return createPartitionedOutputOperatorInfoSupplier(rowsAdded, pagesAdded, outputBuffer);
+            return createPartitionedOutputOperatorInfoSupplier(rowsAdded, pagesAdded, outputBuffer, skewedKeyDetector);
         }
 
-        private static Supplier<PartitionedOutputInfo> createPartitionedOutputOperatorInfoSupplier(AtomicLong rowsAdded, AtomicLong pagesAdded, OutputBuffer outputBuffer)
+        private static Supplier<PartitionedOutputInfo> createPartitionedOutputOperatorInfoSupplier(
+                AtomicLong rowsAdded,
+                AtomicLong pagesAdded,
+                OutputBuffer outputBuffer,
+                Optional<SkewedPartitionKeyDetector> skewedKeyDetector)
         {
             // Must be a separate static method to avoid embedding references to "this" in the supplier
             requireNonNull(rowsAdded, "rowsAdded is null");
             requireNonNull(pagesAdded, "pagesAdded is null");
             requireNonNull(outputBuffer, "outputBuffer is null");
-            return () -> new PartitionedOutputInfo(rowsAdded.get(), pagesAdded.get(), outputBuffer.getPeakMemoryUsage());
+            requireNonNull(skewedKeyDetector, "skewedKeyDetector is null");
+            return () -> new PartitionedOutputInfo(
+                    rowsAdded.get(),
+                    pagesAdded.get(),
+                    outputBuffer.getPeakMemoryUsage(),
+                    skewedKeyDetector.map(SkewedPartitionKeyDetector::getSkewedKeys).orElse(ImmutableList.of()));
         }
 
         public void partitionPage(Page page)
@@ -425,8 +452,12 @@ public class PartitionedOutputOperator
                 else {
                     int partition = partitionFunction.getPartition(partitionFunctionArgs, position);
                     appendRow(pageBuilders[partition], page, position);
+                    if (skewedKeyDetector.isPresent()) {
+                        skewedKeyDetector.get().addRow(page, position, partition);
+                    }
                 }
             }
+            skewedKeyDetector.ifPresent(SkewedPartitionKeyDetector::updateSkewedKeys);
             flush(false);
         }
 
@@ -497,16 +528,19 @@ public class PartitionedOutputOperator
         private final long rowsAdded;
         private final long pagesAdded;
         private final long outputBufferPeakMemoryUsage;
+        private final List<SkewedPartitionKey> skewedKeys;
 
         @JsonCreator
         public PartitionedOutputInfo(
                 @JsonProperty("rowsAdded") long rowsAdded,
                 @JsonProperty("pagesAdded") long pagesAdded,
-                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage)
+                @JsonProperty("outputBufferPeakMemoryUsage") long outputBufferPeakMemoryUsage,
+                @JsonProperty("skewedKeys") List<SkewedPartitionKey> skewedKeys)
         {
             this.rowsAdded = rowsAdded;
             this.pagesAdded = pagesAdded;
             this.outputBufferPeakMemoryUsage = outputBufferPeakMemoryUsage;
+            this.skewedKeys = ImmutableList.copyOf(requireNonNull(skewedKeys, "skewedKeys is null"));
         }
 
         @JsonProperty
@@ -527,13 +561,23 @@ public class PartitionedOutputOperator
             return outputBufferPeakMemoryUsage;
         }
 
+        /**
+         * Partitioning keys detected as skewed, with the most frequent key first.
+         */
+        @JsonProperty
+        public List<SkewedPartitionKey> getSkewedKeys()
+        {
+            return skewedKeys;
+        }
+
         @Override
         public PartitionedOutputInfo mergeWith(PartitionedOutputInfo other)
         {
             return new PartitionedOutputInfo(
                     rowsAdded + other.rowsAdded,
                     pagesAdded + other.pagesAdded,
-                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage));
+                    Math.max(outputBufferPeakMemoryUsage, other.outputBufferPeakMemoryUsage),
+                    SkewedPartitionKey.merge(skewedKeys, other.skewedKeys));
         }
 
         @Override
@@ -549,6 +593,7 @@ public class PartitionedOutputOperator
                     .add("rowsAdded", rowsAdded)
                     .add("pagesAdded", pagesAdded)
                     .add("outputBufferPeakMemoryUsage", outputBufferPeakMemoryUsage)
+                    .add("skewedKeys", skewedKeys)
                     .toString();
         }
     }
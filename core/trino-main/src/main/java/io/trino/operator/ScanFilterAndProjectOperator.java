@@ -32,6 +32,7 @@ import io.trino.operator.project.CursorProcessorOutput;
 import io.trino.operator.project.PageProcessor;
 import io.trino.spi.Page;
 import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.DynamicFilter;
@@ -39,20 +40,25 @@ import io.trino.spi.connector.EmptyPageSource;
 import io.trino.spi.connector.RecordCursor;
 import io.trino.spi.connector.RecordPageSource;
 import io.trino.spi.connector.UpdatablePageSource;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.type.Type;
 import io.trino.split.EmptySplit;
 import io.trino.split.PageSourceProvider;
 import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.type.BlockTypeOperators;
+import io.trino.type.BlockTypeOperators.BlockPositionXxHash64;
 
 import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Supplier;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.toListenableFuture;
@@ -90,7 +96,9 @@ public class ScanFilterAndProjectOperator
             PageProcessor pageProcessor,
             TableHandle table,
             Iterable<ColumnHandle> columns,
+            List<Type> columnTypes,
             DynamicFilter dynamicFilter,
+            BlockTypeOperators blockTypeOperators,
             Iterable<Type> types,
             DataSize minOutputPageSize,
             int minOutputPageRowCount,
@@ -105,7 +113,9 @@ public class ScanFilterAndProjectOperator
                         pageProcessor,
                         table,
                         columns,
+                        columnTypes,
                         dynamicFilter,
+                        blockTypeOperators,
                         types,
                         requireNonNull(memoryTrackingContext, "memoryTrackingContext is null").aggregateSystemMemoryContext(),
                         minOutputPageSize,
@@ -192,7 +202,9 @@ public class ScanFilterAndProjectOperator
         final PageProcessor pageProcessor;
         final TableHandle table;
         final List<ColumnHandle> columns;
+        final List<Type> columnTypes;
         final DynamicFilter dynamicFilter;
+        final BlockTypeOperators blockTypeOperators;
         final List<Type> types;
         final LocalMemoryContext memoryContext;
         final AggregatedMemoryContext localAggregatedMemoryContext;
@@ -210,7 +222,9 @@ public class ScanFilterAndProjectOperator
                 PageProcessor pageProcessor,
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
+                List<Type> columnTypes,
                 DynamicFilter dynamicFilter,
+                BlockTypeOperators blockTypeOperators,
                 Iterable<Type> types,
                 AggregatedMemoryContext aggregatedMemoryContext,
                 DataSize minOutputPageSize,
@@ -224,7 +238,10 @@ public class ScanFilterAndProjectOperator
             this.pageProcessor = requireNonNull(pageProcessor, "pageProcessor is null");
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.columnTypes = ImmutableList.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
+            checkArgument(this.columns.size() == this.columnTypes.size(), "columns and columnTypes sizes don't match");
             this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilterSupplier is null");
+            this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
             this.types = ImmutableList.copyOf(requireNonNull(types, "types is null"));
             this.memoryContext = aggregatedMemoryContext.newLocalMemoryContext(ScanFilterAndProjectOperator.class.getSimpleName());
             this.localAggregatedMemoryContext = newSimpleAggregatedMemoryContext();
@@ -245,7 +262,7 @@ public class ScanFilterAndProjectOperator
 
             checkState(cursor == null && pageSource == null, "Table scan split already set");
 
-            if (!dynamicFilter.getCurrentPredicate().isAll()) {
+            if (!dynamicFilter.getCurrentPredicate().isAll() || !dynamicFilter.getCurrentBloomFilters().isEmpty()) {
                 dynamicFilterSplitsProcessed++;
             }
 
@@ -280,6 +297,7 @@ public class ScanFilterAndProjectOperator
             return WorkProcessor
                     .create(new ConnectorPageSourceToPages(pageSourceMemoryContext))
                     .yielding(yieldSignal::isSet)
+                    .map(this::filterWithBloomFilters)
                     .flatMap(page -> pageProcessor.createWorkProcessor(
                             session.toConnectorSession(),
                             yieldSignal,
@@ -289,6 +307,50 @@ public class ScanFilterAndProjectOperator
                     .transformProcessor(processor -> mergePages(types, minOutputPageSize.toBytes(), minOutputPageRowCount, processor, localAggregatedMemoryContext))
                     .withProcessStateMonitor(state -> memoryContext.setBytes(localAggregatedMemoryContext.getBytes()));
         }
+
+        Page filterWithBloomFilters(Page page)
+        {
+            Map<ColumnHandle, BlockedBloomFilter> bloomFilters = dynamicFilter.getCurrentBloomFilters();
+            if (bloomFilters.isEmpty() || page.getPositionCount() == 0) {
+                return page;
+            }
+
+            int[] retainedPositions = null;
+            int retainedPositionCount = page.getPositionCount();
+            for (Map.Entry<ColumnHandle, BlockedBloomFilter> entry : bloomFilters.entrySet()) {
+                int channel = columns.indexOf(entry.getKey());
+                if (channel < 0) {
+                    continue;
+                }
+                BlockedBloomFilter bloomFilter = entry.getValue();
+                BlockPositionXxHash64 hashOperator = blockTypeOperators.getXxHash64Operator(columnTypes.get(channel));
+                Block block = page.getBlock(channel);
+                int positionCount = 0;
+                if (retainedPositions == null) {
+                    retainedPositions = new int[retainedPositionCount];
+                    for (int position = 0; position < retainedPositionCount; position++) {
+                        // null values are left to the filter expression
+                        if (block.isNull(position) || bloomFilter.mightContain(hashOperator.xxHash64(block, position))) {
+                            retainedPositions[positionCount++] = position;
+                        }
+                    }
+                }
+                else {
+                    for (int i = 0; i < retainedPositionCount; i++) {
+                        int position = retainedPositions[i];
+                        if (block.isNull(position) || bloomFilter.mightContain(hashOperator.xxHash64(block, position))) {
+                            retainedPositions[positionCount++] = position;
+                        }
+                    }
+                }
+                retainedPositionCount = positionCount;
+            }
+
+            if (retainedPositions == null || retainedPositionCount == page.getPositionCount()) {
+                return page;
+            }
+            return page.getPositions(retainedPositions, 0, retainedPositionCount);
+        }
     }
 
     private class RecordCursorToPages
@@ -415,7 +477,9 @@ public class ScanFilterAndProjectOperator
         private final PageSourceProvider pageSourceProvider;
         private final TableHandle table;
         private final List<ColumnHandle> columns;
+        private final List<Type> columnTypes;
         private final DynamicFilter dynamicFilter;
+        private final BlockTypeOperators blockTypeOperators;
         private final List<Type> types;
         private final DataSize minOutputPageSize;
         private final int minOutputPageRowCount;
@@ -430,7 +494,9 @@ public class ScanFilterAndProjectOperator
                 Supplier<PageProcessor> pageProcessor,
                 TableHandle table,
                 Iterable<ColumnHandle> columns,
+                List<Type> columnTypes,
                 DynamicFilter dynamicFilter,
+                BlockTypeOperators blockTypeOperators,
                 List<Type> types,
                 DataSize minOutputPageSize,
                 int minOutputPageRowCount)
@@ -443,7 +509,9 @@ public class ScanFilterAndProjectOperator
             this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
             this.table = requireNonNull(table, "table is null");
             this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+            this.columnTypes = ImmutableList.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
             this.dynamicFilter = dynamicFilter;
+            this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
             this.types = requireNonNull(types, "types is null");
             this.minOutputPageSize = requireNonNull(minOutputPageSize, "minOutputPageSize is null");
             this.minOutputPageRowCount = minOutputPageRowCount;
@@ -518,7 +586,9 @@ public class ScanFilterAndProjectOperator
                     pageProcessor.get(),
                     table,
                     columns,
+                    columnTypes,
                     dynamicFilter,
+                    blockTypeOperators,
                     types,
                     minOutputPageSize,
                     minOutputPageRowCount,
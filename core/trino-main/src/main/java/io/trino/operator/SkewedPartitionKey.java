@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A partitioning key that was sent to a single partition much more often than
+ * the average key. The values are rendered as strings, with {@code null}
+ * rendered as {@code "NULL"}.
+ */
+@Immutable
+public class SkewedPartitionKey
+{
+    public static final int MAX_REPORTED_KEYS = 10;
+
+    private final List<String> values;
+    private final int partition;
+    private final long estimatedRows;
+
+    @JsonCreator
+    public SkewedPartitionKey(
+            @JsonProperty("values") List<String> values,
+            @JsonProperty("partition") int partition,
+            @JsonProperty("estimatedRows") long estimatedRows)
+    {
+        this.values = ImmutableList.copyOf(requireNonNull(values, "values is null"));
+        checkArgument(partition >= 0, "partition is negative");
+        checkArgument(estimatedRows >= 0, "estimatedRows is negative");
+        this.partition = partition;
+        this.estimatedRows = estimatedRows;
+    }
+
+    @JsonProperty
+    public List<String> getValues()
+    {
+        return values;
+    }
+
+    @JsonProperty
+    public int getPartition()
+    {
+        return partition;
+    }
+
+    /**
+     * Number of rows with this key, extrapolated from the sampled rows.
+     */
+    @JsonProperty
+    public long getEstimatedRows()
+    {
+        return estimatedRows;
+    }
+
+    /**
+     * Combines keys reported by different operators. Rows of equal keys are summed
+     * and only the {@link #MAX_REPORTED_KEYS} keys with the most rows are kept.
+     */
+    public static List<SkewedPartitionKey> merge(List<SkewedPartitionKey> first, List<SkewedPartitionKey> second)
+    {
+        if (second.isEmpty()) {
+            return first;
+        }
+        if (first.isEmpty()) {
+            return second;
+        }
+
+        Map<List<String>, SkewedPartitionKey> merged = new LinkedHashMap<>();
+        List<SkewedPartitionKey> keys = new ArrayList<>(first);
+        keys.addAll(second);
+        for (SkewedPartitionKey key : keys) {
+            merged.merge(key.getValues(), key, (left, right) -> new SkewedPartitionKey(
+                    left.getValues(),
+                    left.getPartition(),
+                    left.getEstimatedRows() + right.getEstimatedRows()));
+        }
+        return merged.values().stream()
+                .sorted(Comparator.comparingLong(SkewedPartitionKey::getEstimatedRows).reversed())
+                .limit(MAX_REPORTED_KEYS)
+                .collect(toImmutableList());
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        SkewedPartitionKey that = (SkewedPartitionKey) o;
+        return partition == that.partition &&
+                estimatedRows == that.estimatedRows &&
+                values.equals(that.values);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(values, partition, estimatedRows);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("values", values)
+                .add("partition", partition)
+                .add("estimatedRows", estimatedRows)
+                .toString();
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import io.trino.spi.Page;
+import io.trino.spi.connector.ConnectorSession;
+import io.trino.spi.type.Type;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Finds partitioning keys that send a disproportionate share of rows to a single
+ * partition. Every {@link #SAMPLE_INTERVAL}-th row is counted in a fixed size
+ * space-saving sketch. A key is reported as skewed when its guaranteed share of the
+ * sampled rows is at least {@code skewFactor} times the share of an average partition.
+ * <p>
+ * This class is not thread safe, except for {@link #getSkewedKeys()}.
+ */
+public class SkewedPartitionKeyDetector
+{
+    static final int SAMPLE_INTERVAL = 16;
+    static final int MIN_SAMPLED_ROWS = 1_000;
+    private static final int MAX_CANDIDATES = 32;
+
+    private final int[] keyChannels;
+    private final List<Type> keyTypes;
+    private final ConnectorSession session;
+    private final double skewedShare;
+
+    private final Map<List<Object>, Candidate> candidates = new HashMap<>();
+    private long rowsSeen;
+    private long sampledRows;
+    private boolean candidatesChanged;
+
+    private volatile List<SkewedPartitionKey> skewedKeys = ImmutableList.of();
+
+    public SkewedPartitionKeyDetector(List<Integer> keyChannels, List<Type> keyTypes, ConnectorSession session, int partitionCount, double skewFactor)
+    {
+        requireNonNull(keyChannels, "keyChannels is null");
+        requireNonNull(keyTypes, "keyTypes is null");
+        checkArgument(keyChannels.size() == keyTypes.size(), "keyChannels and keyTypes do not match");
+        checkArgument(partitionCount > 1, "partitionCount must be greater than 1");
+        checkArgument(skewFactor > 1, "skewFactor must be greater than 1");
+        this.keyChannels = Ints.toArray(keyChannels);
+        this.keyTypes = ImmutableList.copyOf(keyTypes);
+        this.session = requireNonNull(session, "session is null");
+        this.skewedShare = skewFactor / partitionCount;
+    }
+
+    /**
+     * Records that the row at {@code position} was sent to {@code partition}.
+     */
+    public void addRow(Page page, int position, int partition)
+    {
+        if (rowsSeen++ % SAMPLE_INTERVAL != 0) {
+            return;
+        }
+        sampledRows++;
+        candidatesChanged = true;
+
+        Object[] values = new Object[keyChannels.length];
+        for (int i = 0; i < keyChannels.length; i++) {
+            values[i] = keyTypes.get(i).getObjectValue(session, page.getBlock(keyChannels[i]), position);
+        }
+        // Arrays.asList allows null values, which are valid keys
+        List<Object> key = Arrays.asList(values);
+
+        Candidate candidate = candidates.get(key);
+        if (candidate != null) {
+            candidate.count++;
+            return;
+        }
+        if (candidates.size() < MAX_CANDIDATES) {
+            candidates.put(key, new Candidate(partition, 1, 0));
+            return;
+        }
+
+        // Replace the least frequent candidate. The new key may have been seen up to
+        // that many times before, which is recorded as the error of its count.
+        Map.Entry<List<Object>, Candidate> leastFrequent = null;
+        for (Map.Entry<List<Object>, Candidate> entry : candidates.entrySet()) {
+            if (leastFrequent == null || entry.getValue().count < leastFrequent.getValue().count) {
+                leastFrequent = entry;
+            }
+        }
+        candidates.remove(leastFrequent.getKey());
+        long evictedCount = leastFrequent.getValue().count;
+        candidates.put(key, new Candidate(partition, evictedCount + 1, evictedCount));
+    }
+
+    /**
+     * Re-evaluates the skewed keys from the rows sampled so far.
+     */
+    public void updateSkewedKeys()
+    {
+        if (!candidatesChanged || sampledRows < MIN_SAMPLED_ROWS) {
+            return;
+        }
+        candidatesChanged = false;
+
+        long minCount = (long) Math.ceil(sampledRows * skewedShare);
+        skewedKeys = candidates.entrySet().stream()
+                .filter(entry -> entry.getValue().count - entry.getValue().error >= minCount)
+                .sorted(Comparator.comparingLong((Map.Entry<List<Object>, Candidate> entry) -> entry.getValue().count).reversed())
+                .limit(SkewedPartitionKey.MAX_REPORTED_KEYS)
+                .map(entry -> new SkewedPartitionKey(
+                        entry.getKey().stream()
+                                .map(value -> value == null ? "NULL" : value.toString())
+                                .collect(toImmutableList()),
+                        entry.getValue().partition,
+                        entry.getValue().count * SAMPLE_INTERVAL))
+                .collect(toImmutableList());
+    }
+
+    public List<SkewedPartitionKey> getSkewedKeys()
+    {
+        return skewedKeys;
+    }
+
+    private static class Candidate
+    {
+        private final int partition;
+        private final long error;
+        private long count;
+
+        private Candidate(int partition, long count, long error)
+        {
+            this.partition = partition;
+            this.count = count;
+            this.error = error;
+        }
+    }
+
+    public static class Factory
+    {
+        private final List<Integer> keyChannels;
+        private final List<Type> keyTypes;
+        private final double skewFactor;
+
+        public Factory(List<Integer> keyChannels, List<Type> keyTypes, double skewFactor)
+        {
+            this.keyChannels = ImmutableList.copyOf(requireNonNull(keyChannels, "keyChannels is null"));
+            this.keyTypes = ImmutableList.copyOf(requireNonNull(keyTypes, "keyTypes is null"));
+            checkArgument(keyChannels.size() == keyTypes.size(), "keyChannels and keyTypes do not match");
+            checkArgument(skewFactor > 1, "skewFactor must be greater than 1");
+            this.skewFactor = skewFactor;
+        }
+
+        public SkewedPartitionKeyDetector createDetector(ConnectorSession session, int partitionCount)
+        {
+            return new SkewedPartitionKeyDetector(keyChannels, keyTypes, session, partitionCount, skewFactor);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.trino.execution.buffer.SerializedPage;
+import io.trino.execution.buffer.SpooledOutputLocation;
+import io.trino.execution.buffer.TaskOutputSpool;
+import io.trino.execution.buffer.TaskOutputSpool.TaskOutputReader;
+import org.joda.time.DateTime;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.net.URI;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static io.trino.execution.buffer.SpooledOutputLocation.fromUri;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the output of a task partition from the {@link TaskOutputSpool}. Each request
+ * reads up to the max response size, and is executed on the callback executor.
+ */
+@ThreadSafe
+public final class SpooledPageBufferClient
+        implements PageBufferClient
+{
+    private final TaskOutputSpool taskOutputSpool;
+    private final URI location;
+    private final SpooledOutputLocation spooledOutputLocation;
+    private final DataSize maxResponseSize;
+    private final ClientCallback clientCallback;
+    private final Executor executor;
+
+    @GuardedBy("this")
+    private TaskOutputReader reader;
+    @GuardedBy("this")
+    private boolean closed;
+    @GuardedBy("this")
+    private boolean scheduled;
+    @GuardedBy("this")
+    private boolean completed;
+    @GuardedBy("this")
+    private DateTime lastUpdate = DateTime.now();
+
+    private final AtomicLong rowsReceived = new AtomicLong();
+    private final AtomicInteger pagesReceived = new AtomicInteger();
+
+    private final AtomicInteger requestsScheduled = new AtomicInteger();
+    private final AtomicInteger requestsCompleted = new AtomicInteger();
+    private final AtomicInteger requestsFailed = new AtomicInteger();
+
+    public SpooledPageBufferClient(
+            TaskOutputSpool taskOutputSpool,
+            URI location,
+            DataSize maxResponseSize,
+            ClientCallback clientCallback,
+            Executor executor)
+    {
+        this.taskOutputSpool = requireNonNull(taskOutputSpool, "taskOutputSpool is null");
+        this.location = requireNonNull(location, "location is null");
+        this.spooledOutputLocation = fromUri(location);
+        this.maxResponseSize = requireNonNull(maxResponseSize, "maxResponseSize is null");
+        this.clientCallback = requireNonNull(clientCallback, "clientCallback is null");
+        this.executor = requireNonNull(executor, "executor is null");
+    }
+
+    @Override
+    public synchronized PageBufferClientStatus getStatus()
+    {
+        String state;
+        if (closed) {
+            state = "closed";
+        }
+        else if (scheduled) {
+            state = "running";
+        }
+        else if (completed) {
+            state = "completed";
+        }
+        else {
+            state = "queued";
+        }
+
+        return new PageBufferClientStatus(
+                location,
+                state,
+                lastUpdate,
+                rowsReceived.get(),
+                pagesReceived.get(),
+                OptionalLong.empty(),
+                OptionalInt.empty(),
+                requestsScheduled.get(),
+                requestsCompleted.get(),
+                requestsFailed.get(),
+                "not scheduled");
+    }
+
+    @Override
+    public synchronized void scheduleRequest()
+    {
+        if (closed || scheduled || completed) {
+            return;
+        }
+        scheduled = true;
+        executor.execute(this::readPages);
+
+        lastUpdate = DateTime.now();
+        requestsScheduled.incrementAndGet();
+    }
+
+    @Override
+    public void close()
+    {
+        TaskOutputReader reader;
+        synchronized (this) {
+            closed = true;
+            reader = this.reader;
+            this.reader = null;
+            lastUpdate = DateTime.now();
+        }
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private void readPages()
+    {
+        List<SerializedPage> pages;
+        boolean finished;
+        try {
+            synchronized (this) {
+                scheduled = false;
+                if (closed) {
+                    return;
+                }
+                if (reader == null) {
+                    reader = taskOutputSpool.createReader(spooledOutputLocation.getTaskId(), spooledOutputLocation.getPartition());
+                }
+
+                ImmutableList.Builder<SerializedPage> pagesBuilder = ImmutableList.builder();
+                long bytes = 0;
+                SerializedPage page = null;
+                while (bytes < maxResponseSize.toBytes()) {
+                    page = reader.readPage();
+                    if (page == null) {
+                        break;
+                    }
+                    pagesBuilder.add(page);
+                    bytes += page.getSizeInBytes();
+                }
+                pages = pagesBuilder.build();
+                finished = page == null;
+                if (finished) {
+                    completed = true;
+                    reader.close();
+                    reader = null;
+                }
+                lastUpdate = DateTime.now();
+            }
+        }
+        catch (RuntimeException e) {
+            requestsFailed.incrementAndGet();
+            requestsCompleted.incrementAndGet();
+            clientCallback.clientFailed(this, e);
+            return;
+        }
+        requestsCompleted.incrementAndGet();
+
+        // callbacks must not be invoked while holding a lock on this
+        if (!pages.isEmpty()) {
+            pagesReceived.addAndGet(pages.size());
+            rowsReceived.addAndGet(pages.stream().mapToLong(SerializedPage::getPositionCount).sum());
+            if (!clientCallback.addPages(this, pages)) {
+                // the exchange client was closed
+                return;
+            }
+        }
+        if (finished) {
+            clientCallback.clientFinished(this);
+        }
+        else {
+            clientCallback.requestComplete(this);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("location", location)
+                .toString();
+    }
+}
@@ -36,6 +36,7 @@ import io.trino.memory.context.LocalMemoryContext;
 import io.trino.memory.context.MemoryTrackingContext;
 import io.trino.spi.predicate.Domain;
 import io.trino.sql.planner.plan.DynamicFilterId;
+import io.trino.sql.planner.plan.PlanNodeId;
 import org.joda.time.DateTime;
 
 import javax.annotation.concurrent.GuardedBy;
@@ -106,6 +107,8 @@ public class TaskContext
 
     private final MemoryTrackingContext taskMemoryContext;
     private final DynamicFiltersCollector dynamicFiltersCollector;
+    private final Runnable notifyStatusChanged;
+    private final Set<PlanNodeId> exceededBroadcastJoins = newConcurrentHashSet();
 
     public static TaskContext createTaskContext(
             QueryContext queryContext,
@@ -159,6 +162,7 @@ public class TaskContext
         // Initialize the local memory contexts with the LazyOutputBuffer tag as LazyOutputBuffer will do the local memory allocations
         taskMemoryContext.initializeLocalMemoryContexts(LazyOutputBuffer.class.getSimpleName());
         this.dynamicFiltersCollector = new DynamicFiltersCollector(notifyStatusChanged);
+        this.notifyStatusChanged = requireNonNull(notifyStatusChanged, "notifyStatusChanged is null");
         this.perOperatorCpuTimerEnabled = perOperatorCpuTimerEnabled;
         this.cpuTimerEnabled = cpuTimerEnabled;
         this.totalPartitions = requireNonNull(totalPartitions, "totalPartitions is null");
@@ -409,6 +413,21 @@ public class TaskContext
         return dynamicFiltersCollector.acknowledgeAndGetNewDomains(callersCurrentVersion);
     }
 
+    /**
+     * Reports a broadcast join whose build side exceeded the adaptive join limit in this task.
+     */
+    public void addExceededBroadcastJoin(PlanNodeId joinId)
+    {
+        if (exceededBroadcastJoins.add(joinId)) {
+            notifyStatusChanged.run();
+        }
+    }
+
+    public Set<PlanNodeId> getExceededBroadcastJoins()
+    {
+        return ImmutableSet.copyOf(exceededBroadcastJoins);
+    }
+
     public TaskStats getTaskStats()
     {
         // check for end state to avoid callback ordering problems
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.aggregation.partial;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Decides whether a partial aggregation should stop hashing its input.
+ * Partial aggregation is only worth its cost when it reduces the number of rows
+ * sent to the final aggregation. When the ratio of unique groups to input rows
+ * is above the threshold, the operator passes the rows through instead.
+ */
+public class PartialAggregationController
+{
+    private final long minRows;
+    private final double uniqueRowsRatioThreshold;
+
+    public PartialAggregationController(long minRows, double uniqueRowsRatioThreshold)
+    {
+        checkArgument(minRows > 0, "minRows must be positive");
+        checkArgument(uniqueRowsRatioThreshold >= 0 && uniqueRowsRatioThreshold <= 1, "uniqueRowsRatioThreshold must be between 0 and 1");
+        this.minRows = minRows;
+        this.uniqueRowsRatioThreshold = uniqueRowsRatioThreshold;
+    }
+
+    public boolean shouldDisablePartialAggregation(long inputRows, long uniqueRows)
+    {
+        return inputRows >= minRows && uniqueRows > inputRows * uniqueRowsRatioThreshold;
+    }
+
+    public long getMinRows()
+    {
+        return minRows;
+    }
+
+    public double getUniqueRowsRatioThreshold()
+    {
+        return uniqueRowsRatioThreshold;
+    }
+}
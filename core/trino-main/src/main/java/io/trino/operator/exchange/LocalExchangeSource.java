@@ -25,15 +25,18 @@ import javax.annotation.concurrent.ThreadSafe;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingDeque;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 import static java.util.Objects.requireNonNull;
 
+/**
+ * Buffer of pages between the sinks of a local exchange and the single operator that reads
+ * this source. Adding and removing pages does not take a lock. The lock is only taken to
+ * register a reader that waits for pages, and to notify it.
+ */
 @ThreadSafe
 public class LocalExchangeSource
 {
@@ -41,14 +44,18 @@ public class LocalExchangeSource
 
     private final Consumer<LocalExchangeSource> onFinish;
 
-    private final BlockingQueue<PageReference> buffer = new LinkedBlockingDeque<>();
-    private final AtomicLong bufferedBytes = new AtomicLong();
+    private final MpscSegmentedQueue<PageReference> buffer = new MpscSegmentedQueue<>();
+    // updated by all writers, so use a counter that does not contend
+    private final LongAdder bufferedBytes = new LongAdder();
 
     @Nullable
     @GuardedBy("this")
     private SettableFuture<Void> notEmptyFuture; // null indicates no callback has been registered
+    // allows writers to skip the lock when no reader is waiting
+    private volatile boolean readerWaiting;
 
     private volatile boolean finishing;
+    private volatile boolean closed;
 
     public LocalExchangeSource(Consumer<LocalExchangeSource> onFinish)
     {
@@ -59,42 +66,30 @@ public class LocalExchangeSource
     {
         // This must be lock free to assure task info creation is fast
         // Note: the stats my be internally inconsistent
-        return new LocalExchangeBufferInfo(bufferedBytes.get(), buffer.size());
+        return new LocalExchangeBufferInfo(bufferedBytes.sum(), buffer.size());
     }
 
     void addPage(PageReference pageReference)
     {
         assertNotHoldsLock();
 
-        boolean added = false;
-        SettableFuture<Void> notEmptyFuture = null;
-        long retainedSizeInBytes = pageReference.getRetainedSizeInBytes();
-        synchronized (this) {
-            // ignore pages after finish
-            if (!finishing) {
-                // buffered bytes must be updated before adding to the buffer to assure
-                // the count does not go negative
-                bufferedBytes.addAndGet(retainedSizeInBytes);
-                buffer.add(pageReference);
-                added = true;
-            }
-
-            // we just added a page (or we are finishing) so we are not empty
-            if (this.notEmptyFuture != null) {
-                notEmptyFuture = this.notEmptyFuture;
-                this.notEmptyFuture = null;
-            }
-        }
-
-        if (!added) {
-            // dereference the page outside of lock
+        // ignore pages after finish
+        if (finishing) {
             pageReference.removePage();
+            return;
         }
 
-        // notify readers outside of lock since this may result in a callback
-        if (notEmptyFuture != null) {
-            notEmptyFuture.set(null);
+        bufferedBytes.add(pageReference.getRetainedSizeInBytes());
+        buffer.add(pageReference);
+
+        if (closed) {
+            // the source was closed while the page was added, and the drain in close() may have missed it
+            drainClosedBuffer();
+            return;
         }
+
+        // we just added a page so we are not empty
+        notifyReader();
     }
 
     public WorkProcessor<Page> pages()
@@ -122,9 +117,7 @@ public class LocalExchangeSource
     {
         assertNotHoldsLock();
 
-        // NOTE: there is no need to acquire a lock here. The buffer is concurrent
-        // and buffered bytes is not expected to be consistent with the buffer (only
-        // best effort).
+        // NOTE: buffered bytes is not expected to be consistent with the buffer (only best effort).
         PageReference pageReference = buffer.poll();
         if (pageReference == null) {
             return null;
@@ -132,7 +125,7 @@ public class LocalExchangeSource
 
         // dereference the page outside of lock, since may trigger a callback
         Page page = pageReference.removePage();
-        bufferedBytes.addAndGet(-page.getRetainedSizeInBytes());
+        bufferedBytes.add(-page.getRetainedSizeInBytes());
 
         checkFinished();
 
@@ -148,50 +141,38 @@ public class LocalExchangeSource
         }
 
         synchronized (this) {
-            // re-check after synchronizing
-            if (finishing || !buffer.isEmpty()) {
-                return NOT_BLOCKED;
-            }
             // if we need to block readers, and the current future is complete, create a new one
             if (notEmptyFuture == null) {
                 notEmptyFuture = SettableFuture.create();
             }
+            readerWaiting = true;
+
+            // re-check after publishing the waiter, since a writer that added a page
+            // before this point may not have seen the waiter
+            if (finishing || !buffer.isEmpty()) {
+                return NOT_BLOCKED;
+            }
             return notEmptyFuture;
         }
     }
 
     public boolean isFinished()
     {
-        // Common case fast-path without synchronizing
-        if (!finishing) {
-            return false;
-        }
-        synchronized (this) {
-            // Synchronize to ensure effects of an in-flight close() or finish() are observed
-            return finishing && buffer.isEmpty();
-        }
+        // pages added after close are dropped
+        return closed || (finishing && buffer.isEmpty());
     }
 
     public void finish()
     {
         assertNotHoldsLock();
 
-        SettableFuture<Void> notEmptyFuture;
-        synchronized (this) {
-            if (finishing) {
-                return;
-            }
-            finishing = true;
-
-            // Unblock any waiters
-            notEmptyFuture = this.notEmptyFuture;
-            this.notEmptyFuture = null;
+        if (finishing) {
+            return;
         }
+        finishing = true;
 
-        // notify readers outside of lock since this may result in a callback
-        if (notEmptyFuture != null) {
-            notEmptyFuture.set(null);
-        }
+        // Unblock any waiters
+        notifyReader();
 
         checkFinished();
     }
@@ -200,29 +181,52 @@ public class LocalExchangeSource
     {
         assertNotHoldsLock();
 
-        List<PageReference> remainingPages = new ArrayList<>();
-        SettableFuture<Void> notEmptyFuture;
-        synchronized (this) {
-            finishing = true;
+        finishing = true;
+        closed = true;
+
+        // free all the remaining pages
+        drainClosedBuffer();
+
+        // Unblock any waiters
+        notifyReader();
 
-            buffer.drainTo(remainingPages);
-            bufferedBytes.addAndGet(-remainingPages.stream().mapToLong(PageReference::getRetainedSizeInBytes).sum());
+        // this will always fire the finished event
+        checkState(isFinished(), "Expected buffer to be finished");
+        checkFinished();
+    }
+
+    private void notifyReader()
+    {
+        // Fast path, no reader is waiting
+        if (!readerWaiting) {
+            return;
+        }
 
+        SettableFuture<Void> notEmptyFuture;
+        synchronized (this) {
+            readerWaiting = false;
             notEmptyFuture = this.notEmptyFuture;
             this.notEmptyFuture = null;
         }
 
-        // free all the remaining pages
-        remainingPages.forEach(PageReference::removePage);
-
         // notify readers outside of lock since this may result in a callback
         if (notEmptyFuture != null) {
             notEmptyFuture.set(null);
         }
+    }
 
-        // this will always fire the finished event
-        checkState(isFinished(), "Expected buffer to be finished");
-        checkFinished();
+    private void drainClosedBuffer()
+    {
+        // both close() and writers racing with it can drain the buffer, so the drain
+        // is serialized on a separate lock, which is not held when pages are freed
+        List<PageReference> remainingPages = new ArrayList<>();
+        synchronized (buffer) {
+            for (PageReference pageReference = buffer.poll(); pageReference != null; pageReference = buffer.poll()) {
+                remainingPages.add(pageReference);
+            }
+        }
+        bufferedBytes.add(-remainingPages.stream().mapToLong(PageReference::getRetainedSizeInBytes).sum());
+        remainingPages.forEach(PageReference::removePage);
     }
 
     private void checkFinished()
@@ -26,13 +26,25 @@ public class LocalPartitionGenerator
     private final HashGenerator hashGenerator;
     private final int partitionCount;
     private final int hashMask;
+    private final int hashBitsOffset;
 
     public LocalPartitionGenerator(HashGenerator hashGenerator, int partitionCount)
+    {
+        this(hashGenerator, partitionCount, 0);
+    }
+
+    /**
+     * Creates partition generator that uses the hash bits starting at {@code hashBitsOffset}, so that
+     * rows of a single partition of a generator using lower hash bits can be partitioned further.
+     */
+    public LocalPartitionGenerator(HashGenerator hashGenerator, int partitionCount, int hashBitsOffset)
     {
         this.hashGenerator = hashGenerator;
         checkArgument(Integer.bitCount(partitionCount) == 1, "partitionCount must be a power of 2");
+        checkArgument(hashBitsOffset >= 0 && hashBitsOffset + Integer.numberOfTrailingZeros(partitionCount) <= Integer.SIZE, "invalid hashBitsOffset: %s", hashBitsOffset);
         this.partitionCount = partitionCount;
         hashMask = partitionCount - 1;
+        this.hashBitsOffset = hashBitsOffset;
     }
 
     @Override
@@ -45,7 +57,7 @@ public class LocalPartitionGenerator
     public int getPartition(Page page, int position)
     {
         long rawHash = getRawHash(page, position);
-        return processRawHash(rawHash) & hashMask;
+        return getPartition(rawHash);
     }
 
     public long getRawHash(Page page, int position)
@@ -55,7 +67,7 @@ public class LocalPartitionGenerator
 
     public int getPartition(long rawHash)
     {
-        return processRawHash(rawHash) & hashMask;
+        return (processRawHash(rawHash) >>> hashBitsOffset) & hashMask;
     }
 
     private static int processRawHash(long rawHash)
@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.exchange;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Unbounded lock-free queue with many producers and a single consumer. Producers claim
+ * a slot with a single atomic increment and publish the element into an array segment,
+ * so they never wait for each other or for the consumer. Segments are linked when they
+ * fill up, because the local exchange bounds its buffers by size in bytes rather than
+ * by page count.
+ * <p>
+ * Only one thread at a time may call {@link #poll()}. Different threads may act as the
+ * consumer over time, as long as their calls are ordered by a happens-before relationship,
+ * as is the case for operators of a driver.
+ */
+@ThreadSafe
+final class MpscSegmentedQueue<T>
+{
+    private static final int SEGMENT_SIZE = 1024;
+
+    private final AtomicLong producerIndex = new AtomicLong();
+    // a recent segment used by producers, it can lag behind the last segment
+    private final AtomicReference<Segment<T>> producerSegment;
+
+    // only written by the consumer, but read by producers and by size()
+    private volatile Segment<T> consumerSegment;
+    private volatile long consumerIndex;
+
+    public MpscSegmentedQueue()
+    {
+        Segment<T> segment = new Segment<>(0);
+        this.producerSegment = new AtomicReference<>(segment);
+        this.consumerSegment = segment;
+    }
+
+    public void add(T element)
+    {
+        requireNonNull(element, "element is null");
+
+        long index = producerIndex.getAndIncrement();
+        Segment<T> segment = producerSegment.get();
+        if (segment.getFirstIndex() > index) {
+            // another producer already moved to a later segment, but the consumer
+            // cannot have moved past the slot claimed above, which is still empty
+            segment = consumerSegment;
+        }
+        while (index >= segment.getFirstIndex() + SEGMENT_SIZE) {
+            segment = segment.getOrCreateNext();
+        }
+        advanceProducerSegment(segment);
+
+        // volatile write, so that a producer that checks for a closed buffer after adding
+        // is ordered with a consumer that drains the buffer after closing it
+        segment.set(toIntExact(index - segment.getFirstIndex()), element);
+    }
+
+    /**
+     * Returns the next element, or null if the queue is empty, or if the producer
+     * of the next element has claimed its slot but not published the element yet.
+     */
+    public T poll()
+    {
+        long index = consumerIndex;
+        Segment<T> segment = consumerSegment;
+        int offset = toIntExact(index - segment.getFirstIndex());
+        if (offset == SEGMENT_SIZE) {
+            Segment<T> next = segment.getNext();
+            if (next == null) {
+                return null;
+            }
+            consumerSegment = next;
+            segment = next;
+            offset = 0;
+        }
+
+        T element = segment.get(offset);
+        if (element == null) {
+            return null;
+        }
+        // the segment stays reachable until the consumer moves on, so release the element early
+        segment.clear(offset);
+        consumerIndex = index + 1;
+        return element;
+    }
+
+    /**
+     * Returns true if no slot has been claimed after the last polled element. Elements that
+     * are claimed, but not yet published, make the queue non-empty.
+     */
+    public boolean isEmpty()
+    {
+        return producerIndex.get() == consumerIndex;
+    }
+
+    public int size()
+    {
+        // the consumer index must be read first, so that the result is never negative
+        long consumed = consumerIndex;
+        return toIntExact(producerIndex.get() - consumed);
+    }
+
+    private void advanceProducerSegment(Segment<T> segment)
+    {
+        Segment<T> current = producerSegment.get();
+        while (current.getFirstIndex() < segment.getFirstIndex() && !producerSegment.compareAndSet(current, segment)) {
+            current = producerSegment.get();
+        }
+    }
+
+    private static final class Segment<T>
+    {
+        private final long firstIndex;
+        private final AtomicReferenceArray<T> elements = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        private final AtomicReference<Segment<T>> next = new AtomicReference<>();
+
+        private Segment(long firstIndex)
+        {
+            this.firstIndex = firstIndex;
+        }
+
+        public long getFirstIndex()
+        {
+            return firstIndex;
+        }
+
+        public T get(int offset)
+        {
+            return elements.get(offset);
+        }
+
+        public void set(int offset, T element)
+        {
+            elements.set(offset, element);
+        }
+
+        public void clear(int offset)
+        {
+            elements.lazySet(offset, null);
+        }
+
+        public Segment<T> getNext()
+        {
+            return next.get();
+        }
+
+        public Segment<T> getOrCreateNext()
+        {
+            Segment<T> segment = next.get();
+            if (segment != null) {
+                return segment;
+            }
+            Segment<T> created = new Segment<>(firstIndex + SEGMENT_SIZE);
+            if (next.compareAndSet(null, created)) {
+                return created;
+            }
+            return next.get();
+        }
+    }
+}
@@ -35,6 +35,7 @@ class PartitioningExchanger
     private final Function<Page, Page> partitionedPagePreparer;
     private final PartitionFunction partitionFunction;
     private final IntArrayList[] partitionAssignments;
+    private final Page[] partitionPages;
     private final PageReleasedListener onPageReleased;
 
     public PartitioningExchanger(
@@ -53,6 +54,7 @@ class PartitioningExchanger
         for (int i = 0; i < partitionAssignments.length; i++) {
             partitionAssignments[i] = new IntArrayList();
         }
+        partitionPages = new Page[partitions.size()];
     }
 
     @Override
@@ -71,11 +73,21 @@ class PartitioningExchanger
         }
 
         // build a page for each partition
+        long retainedSizeInBytes = 0;
         for (int partition = 0; partition < buffers.size(); partition++) {
             IntArrayList positions = partitionAssignments[partition];
             if (!positions.isEmpty()) {
-                Page pageSplit = page.copyPositions(positions.elements(), 0, positions.size());
-                memoryManager.updateMemoryUsage(pageSplit.getRetainedSizeInBytes());
+                partitionPages[partition] = page.copyPositions(positions.elements(), 0, positions.size());
+                retainedSizeInBytes += partitionPages[partition].getRetainedSizeInBytes();
+            }
+        }
+
+        // the memory manager is shared by all sinks, so reserve the memory of all pages at once
+        memoryManager.updateMemoryUsage(retainedSizeInBytes);
+        for (int partition = 0; partition < buffers.size(); partition++) {
+            Page pageSplit = partitionPages[partition];
+            if (pageSplit != null) {
+                partitionPages[partition] = null;
                 buffers.get(partition).accept(new PageReference(pageSplit, 1, onPageReleased));
             }
         }
@@ -15,39 +15,54 @@ package io.trino.operator.join;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.DataSize;
 import io.trino.execution.Lifespan;
 import io.trino.memory.context.LocalMemoryContext;
 import io.trino.operator.DriverContext;
 import io.trino.operator.HashCollisionsCounter;
+import io.trino.operator.HashGenerator;
+import io.trino.operator.InterpretedHashGenerator;
 import io.trino.operator.Operator;
 import io.trino.operator.OperatorContext;
 import io.trino.operator.OperatorFactory;
 import io.trino.operator.PagesIndex;
+import io.trino.operator.PrecomputedHashGenerator;
+import io.trino.operator.TaskContext;
+import io.trino.operator.exchange.LocalPartitionGenerator;
 import io.trino.spi.Page;
+import io.trino.spi.type.Type;
 import io.trino.spiller.SingleStreamSpiller;
 import io.trino.spiller.SingleStreamSpillerFactory;
 import io.trino.sql.gen.JoinFilterFunctionCompiler.JoinFilterFunctionFactory;
 import io.trino.sql.planner.plan.PlanNodeId;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
@@ -76,6 +91,11 @@ public class HashBuilderOperator
         private final int expectedPositions;
         private final boolean spillEnabled;
         private final SingleStreamSpillerFactory singleStreamSpillerFactory;
+        private final long unspillMemoryLimit;
+        private final OptionalLong maxBroadcastBuildSize;
+        // size of the build input of all operators of the task
+        private final AtomicLong broadcastBuildSize = new AtomicLong();
+        private final AtomicBoolean broadcastBuildSizeExceeded = new AtomicBoolean();
 
         private final Map<Lifespan, Integer> partitionIndexManager = new HashMap<>();
 
@@ -95,6 +115,78 @@ public class HashBuilderOperator
                 PagesIndex.Factory pagesIndexFactory,
                 boolean spillEnabled,
                 SingleStreamSpillerFactory singleStreamSpillerFactory)
+        {
+            this(
+                    operatorId,
+                    planNodeId,
+                    lookupSourceFactoryManager,
+                    outputChannels,
+                    hashChannels,
+                    preComputedHashChannel,
+                    filterFunctionFactory,
+                    sortChannel,
+                    searchFunctionFactories,
+                    expectedPositions,
+                    pagesIndexFactory,
+                    spillEnabled,
+                    singleStreamSpillerFactory,
+                    DataSize.ofBytes(Long.MAX_VALUE));
+        }
+
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager,
+                List<Integer> outputChannels,
+                List<Integer> hashChannels,
+                OptionalInt preComputedHashChannel,
+                Optional<JoinFilterFunctionFactory> filterFunctionFactory,
+                Optional<Integer> sortChannel,
+                List<JoinFilterFunctionFactory> searchFunctionFactories,
+                int expectedPositions,
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                SingleStreamSpillerFactory singleStreamSpillerFactory,
+                DataSize unspillMemoryLimit)
+        {
+            this(
+                    operatorId,
+                    planNodeId,
+                    lookupSourceFactoryManager,
+                    outputChannels,
+                    hashChannels,
+                    preComputedHashChannel,
+                    filterFunctionFactory,
+                    sortChannel,
+                    searchFunctionFactories,
+                    expectedPositions,
+                    pagesIndexFactory,
+                    spillEnabled,
+                    singleStreamSpillerFactory,
+                    unspillMemoryLimit,
+                    Optional.empty());
+        }
+
+        /**
+         * @param maxBroadcastBuildSize maximum size of the build input of a broadcast join in a task,
+         * after which the task reports the join, so that the coordinator can switch it to partitioned distribution
+         */
+        public HashBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager,
+                List<Integer> outputChannels,
+                List<Integer> hashChannels,
+                OptionalInt preComputedHashChannel,
+                Optional<JoinFilterFunctionFactory> filterFunctionFactory,
+                Optional<Integer> sortChannel,
+                List<JoinFilterFunctionFactory> searchFunctionFactories,
+                int expectedPositions,
+                PagesIndex.Factory pagesIndexFactory,
+                boolean spillEnabled,
+                SingleStreamSpillerFactory singleStreamSpillerFactory,
+                DataSize unspillMemoryLimit,
+                Optional<DataSize> maxBroadcastBuildSize)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -112,6 +204,10 @@ public class HashBuilderOperator
             this.pagesIndexFactory = requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
             this.spillEnabled = spillEnabled;
             this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+            this.unspillMemoryLimit = requireNonNull(unspillMemoryLimit, "unspillMemoryLimit is null").toBytes();
+            this.maxBroadcastBuildSize = requireNonNull(maxBroadcastBuildSize, "maxBroadcastBuildSize is null")
+                    .map(size -> OptionalLong.of(size.toBytes()))
+                    .orElse(OptionalLong.empty());
 
             this.expectedPositions = expectedPositions;
         }
@@ -138,7 +234,18 @@ public class HashBuilderOperator
                     expectedPositions,
                     pagesIndexFactory,
                     spillEnabled,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    unspillMemoryLimit,
+                    maxBroadcastBuildSize.isPresent() ? bytes -> recordBroadcastBuildInput(driverContext.getPipelineContext().getTaskContext(), bytes) : bytes -> {});
+        }
+
+        private void recordBroadcastBuildInput(TaskContext taskContext, long bytes)
+        {
+            // the join keeps building, as the coordinator may no longer be able to switch it
+            long buildSize = broadcastBuildSize.addAndGet(bytes);
+            if (buildSize > maxBroadcastBuildSize.getAsLong() && broadcastBuildSizeExceeded.compareAndSet(false, true)) {
+                taskContext.addExceededBroadcastJoin(planNodeId);
+            }
         }
 
         @Override
@@ -182,6 +289,11 @@ public class HashBuilderOperator
          */
         INPUT_SPILLED,
 
+        /**
+         * Spilled input, which is too large to be unspilled, is being re-partitioned into sub-partitions
+         */
+        INPUT_REPARTITIONING,
+
         /**
          * Spilled input is being unspilled
          */
@@ -199,6 +311,7 @@ public class HashBuilderOperator
     }
 
     private static final double INDEX_COMPACTION_ON_REVOCATION_TARGET = 0.8;
+    private static final int SUB_PARTITION_HASH_BITS = 3;
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
@@ -218,6 +331,9 @@ public class HashBuilderOperator
 
     private final boolean spillEnabled;
     private final SingleStreamSpillerFactory singleStreamSpillerFactory;
+    private final long unspillMemoryLimit;
+    private final LongConsumer buildInputListener;
+    private final HashGenerator hashGenerator;
 
     private final HashCollisionsCounter hashCollisionsCounter;
 
@@ -227,6 +343,13 @@ public class HashBuilderOperator
     private Optional<SingleStreamSpiller> spiller = Optional.empty();
     private ListenableFuture<Void> spillInProgress = NOT_BLOCKED;
     private Optional<ListenableFuture<List<Page>>> unspillInProgress = Optional.empty();
+    // spilled partition being unspilled is on top, followed by re-partitioned partitions it is a sub-partition of
+    private final Deque<SpilledPartition> spilledPartitions = new ArrayDeque<>();
+    @Nullable
+    private Iterator<Page> repartitionedPages;
+    private List<SingleStreamSpiller> subPartitionSpillers = ImmutableList.of();
+    @Nullable
+    private LocalPartitionGenerator subPartitionGenerator;
     @Nullable
     private LookupSourceSupplier lookupSourceSupplier;
     private OptionalLong lookupSourceChecksum = OptionalLong.empty();
@@ -246,7 +369,9 @@ public class HashBuilderOperator
             int expectedPositions,
             PagesIndex.Factory pagesIndexFactory,
             boolean spillEnabled,
-            SingleStreamSpillerFactory singleStreamSpillerFactory)
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            long unspillMemoryLimit,
+            LongConsumer buildInputListener)
     {
         requireNonNull(pagesIndexFactory, "pagesIndexFactory is null");
 
@@ -271,6 +396,17 @@ public class HashBuilderOperator
 
         this.spillEnabled = spillEnabled;
         this.singleStreamSpillerFactory = requireNonNull(singleStreamSpillerFactory, "singleStreamSpillerFactory is null");
+        this.unspillMemoryLimit = unspillMemoryLimit;
+        this.buildInputListener = requireNonNull(buildInputListener, "buildInputListener is null");
+        if (preComputedHashChannel.isPresent()) {
+            this.hashGenerator = new PrecomputedHashGenerator(preComputedHashChannel.getAsInt());
+        }
+        else {
+            List<Type> hashTypes = hashChannels.stream()
+                    .map(lookupSourceFactory.getTypes()::get)
+                    .collect(toImmutableList());
+            this.hashGenerator = new InterpretedHashGenerator(hashTypes, hashChannels, lookupSourceFactory.getBlockTypeOperators());
+        }
     }
 
     @Override
@@ -299,14 +435,17 @@ public class HashBuilderOperator
                 return lookupSourceNotNeeded.orElseThrow(() -> new IllegalStateException("Lookup source built, but disposal future not set"));
 
             case INPUT_SPILLED:
-                return spilledLookupSourceHandle.getUnspillingOrDisposeRequested();
+                return getSpilledPartition().getHandle().getUnspillingOrDisposeRequested();
+
+            case INPUT_REPARTITIONING:
+                return spillInProgress;
 
             case INPUT_UNSPILLING:
                 return unspillInProgress.map(HashBuilderOperator::asVoid)
                         .orElseThrow(() -> new IllegalStateException("Unspilling in progress, but unspilling future not set"));
 
             case INPUT_UNSPILLED_AND_BUILT:
-                return spilledLookupSourceHandle.getDisposeRequested();
+                return getSpilledPartition().getHandle().getDisposeRequested();
 
             case CLOSED:
                 return NOT_BLOCKED;
@@ -338,6 +477,8 @@ public class HashBuilderOperator
             return;
         }
 
+        buildInputListener.accept(page.getSizeInBytes());
+
         if (state == State.SPILLING_INPUT) {
             spillInput(page);
             return;
@@ -353,6 +494,13 @@ public class HashBuilderOperator
 
         if (spillEnabled) {
             localRevocableMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+            if (index.getEstimatedSize().toBytes() > unspillMemoryLimit) {
+                // The partition will have to be re-partitioned when unspilled anyway, so spill it
+                // right away, leaving the memory to the partitions that can stay in memory.
+                lookupSourceFactory.setPartitionSpilledLookupSourceHandle(partitionIndex, spilledLookupSourceHandle);
+                spillInProgress = spillIndex();
+                state = State.SPILLING_INPUT;
+            }
         }
         else {
             if (!localUserMemoryContext.trySetBytes(index.getEstimatedSize().toBytes())) {
@@ -367,9 +515,20 @@ public class HashBuilderOperator
     {
         checkState(spillInProgress.isDone(), "Previous spill still in progress");
         checkSuccess(spillInProgress, "spilling failed");
+        releaseSpilledIndex();
         spillInProgress = getSpiller().spill(page);
     }
 
+    private void releaseSpilledIndex()
+    {
+        verify(spillInProgress.isDone());
+        if (index.getPositionCount() > 0) {
+            index.clear();
+            localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+            localRevocableMemoryContext.setBytes(0);
+        }
+    }
+
     @Override
     public ListenableFuture<Void> startMemoryRevoke()
     {
@@ -402,10 +561,18 @@ public class HashBuilderOperator
                 localRevocableMemoryContext.setBytes(0);
                 lookupSourceChecksum = OptionalLong.of(lookupSourceSupplier.checksum());
                 lookupSourceSupplier = null;
-                state = State.INPUT_SPILLED;
+                inputSpilled();
             });
             return spillIndex();
         }
+        if (state == State.SPILLING_INPUT) {
+            // Index spilled up front is released once spilled
+            finishMemoryRevoke = Optional.of(() -> {
+                checkSuccess(spillInProgress, "spilling failed");
+                releaseSpilledIndex();
+            });
+            return spillInProgress;
+        }
         if (operatorContext.getReservedRevocableBytes() == 0) {
             // Probably stale revoking request
             finishMemoryRevoke = Optional.of(() -> {});
@@ -418,11 +585,16 @@ public class HashBuilderOperator
     private ListenableFuture<Void> spillIndex()
     {
         checkState(spiller.isEmpty(), "Spiller already created");
-        spiller = Optional.of(singleStreamSpillerFactory.create(
+        spiller = Optional.of(createSpiller());
+        return getSpiller().spill(index.getPages());
+    }
+
+    private SingleStreamSpiller createSpiller()
+    {
+        return singleStreamSpillerFactory.create(
                 index.getTypes(),
                 operatorContext.getSpillContext().newLocalSpillContext(),
-                operatorContext.newLocalSystemMemoryContext(HashBuilderOperator.class.getSimpleName())));
-        return getSpiller().spill(index.getPages());
+                operatorContext.newLocalSystemMemoryContext(HashBuilderOperator.class.getSimpleName()));
     }
 
     @Override
@@ -465,14 +637,18 @@ public class HashBuilderOperator
                 return;
 
             case INPUT_SPILLED:
-                if (spilledLookupSourceHandle.getDisposeRequested().isDone()) {
-                    close();
+                if (getSpilledPartition().getHandle().getDisposeRequested().isDone()) {
+                    releaseSpilledPartition();
                 }
                 else {
                     unspillLookupSourceIfRequested();
                 }
                 return;
 
+            case INPUT_REPARTITIONING:
+                repartitionSpilledInput();
+                return;
+
             case INPUT_UNSPILLING:
                 finishLookupSourceUnspilling();
                 return;
@@ -532,26 +708,143 @@ public class HashBuilderOperator
             return;
         }
         checkSuccess(spillInProgress, "spilling failed");
+        releaseSpilledIndex();
+        inputSpilled();
+    }
+
+    private void inputSpilled()
+    {
+        int partitionHashBits = Integer.numberOfTrailingZeros(lookupSourceFactory.partitions());
+        // A partition which has been probed before it was spilled cannot be re-partitioned, as probe rows may be saved
+        // together with positions in the original lookup source. Such partition fitted in memory, so it does not have to be.
+        boolean repartitionable = lookupSourceChecksum.isEmpty();
+        spilledPartitions.push(new SpilledPartition(spilledLookupSourceHandle, getSpiller(), partitionHashBits, repartitionable, false));
         state = State.INPUT_SPILLED;
     }
 
     private void unspillLookupSourceIfRequested()
     {
         checkState(state == State.INPUT_SPILLED);
-        if (!spilledLookupSourceHandle.getUnspillingRequested().isDone()) {
+        SpilledPartition partition = getSpilledPartition();
+        if (!partition.getHandle().getUnspillingRequested().isDone()) {
             // Nothing to do yet.
             return;
         }
 
-        verify(spiller.isPresent());
         verify(unspillInProgress.isEmpty());
 
-        localUserMemoryContext.setBytes(getSpiller().getSpilledPagesInMemorySize() + index.getEstimatedSize().toBytes());
-        unspillInProgress = Optional.of(getSpiller().getAllSpilledPages());
+        long spilledPagesSize = partition.getSpiller().getSpilledPagesInMemorySize();
+        if (partition.isRepartitionable() && spilledPagesSize > unspillMemoryLimit && partition.getHashBitsOffset() + SUB_PARTITION_HASH_BITS <= Integer.SIZE) {
+            startRepartitioning(partition);
+            return;
+        }
+
+        localUserMemoryContext.setBytes(spilledPagesSize + index.getEstimatedSize().toBytes());
+        unspillInProgress = Optional.of(partition.getSpiller().getAllSpilledPages());
 
         state = State.INPUT_UNSPILLING;
     }
 
+    private void startRepartitioning(SpilledPartition partition)
+    {
+        verify(subPartitionSpillers.isEmpty());
+        ImmutableList.Builder<SingleStreamSpiller> subPartitionSpillers = ImmutableList.builder();
+        for (int subPartition = 0; subPartition < 1 << SUB_PARTITION_HASH_BITS; subPartition++) {
+            subPartitionSpillers.add(createSpiller());
+        }
+        this.subPartitionSpillers = subPartitionSpillers.build();
+        subPartitionGenerator = new LocalPartitionGenerator(hashGenerator, 1 << SUB_PARTITION_HASH_BITS, partition.getHashBitsOffset());
+        repartitionedPages = partition.getSpiller().getSpilledPages();
+        state = State.INPUT_REPARTITIONING;
+    }
+
+    private void repartitionSpilledInput()
+    {
+        checkState(state == State.INPUT_REPARTITIONING);
+        if (!spillInProgress.isDone()) {
+            return;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+
+        if (repartitionedPages.hasNext()) {
+            spillInProgress = spillSubPartitions(repartitionedPages.next());
+            return;
+        }
+
+        SpilledPartition partition = getSpilledPartition();
+        long spilledPagesSize = partition.getSpiller().getSpilledPagesInMemorySize();
+        ImmutableList.Builder<SpilledPartition> subPartitions = ImmutableList.builder();
+        for (SingleStreamSpiller subPartitionSpiller : subPartitionSpillers) {
+            // re-partitioning again does not help when all rows hash to a single sub-partition
+            boolean repartitionable = subPartitionSpiller.getSpilledPagesInMemorySize() < spilledPagesSize;
+            subPartitions.add(new SpilledPartition(
+                    new SpilledLookupSourceHandle(),
+                    subPartitionSpiller,
+                    partition.getHashBitsOffset() + SUB_PARTITION_HASH_BITS,
+                    repartitionable,
+                    true));
+        }
+        List<SpilledPartition> newPartitions = subPartitions.build();
+        subPartitionSpillers = ImmutableList.of();
+        repartitionedPages = null;
+        subPartitionGenerator = null;
+
+        partition.setRepartitioned();
+        if (partition.isSubPartition()) {
+            // data is now in sub-partitions
+            partition.getSpiller().close();
+        }
+        // sub-partitions are consumed in order, so the first one goes on top
+        for (SpilledPartition subPartition : Lists.reverse(newPartitions)) {
+            spilledPartitions.push(subPartition);
+        }
+        state = State.INPUT_SPILLED;
+        partition.getHandle().setSubPartitions(
+                partition.getHashBitsOffset(),
+                newPartitions.stream()
+                        .map(SpilledPartition::getHandle)
+                        .collect(toImmutableList()));
+    }
+
+    private ListenableFuture<Void> spillSubPartitions(Page page)
+    {
+        int subPartitionCount = subPartitionSpillers.size();
+        IntArrayList[] positions = new IntArrayList[subPartitionCount];
+        for (int subPartition = 0; subPartition < subPartitionCount; subPartition++) {
+            positions[subPartition] = new IntArrayList();
+        }
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            positions[subPartitionGenerator.getPartition(page, position)].add(position);
+        }
+
+        ImmutableList.Builder<ListenableFuture<Void>> spills = ImmutableList.builder();
+        for (int subPartition = 0; subPartition < subPartitionCount; subPartition++) {
+            IntArrayList subPartitionPositions = positions[subPartition];
+            if (!subPartitionPositions.isEmpty()) {
+                spills.add(subPartitionSpillers.get(subPartition).spill(page.copyPositions(subPartitionPositions.elements(), 0, subPartitionPositions.size())));
+            }
+        }
+        return asVoid(Futures.allAsList(spills.build()));
+    }
+
+    private void releaseSpilledPartition()
+    {
+        SpilledPartition partition = spilledPartitions.pop();
+        if (partition.isSubPartition()) {
+            partition.getSpiller().close();
+        }
+        if (spilledPartitions.isEmpty()) {
+            close();
+            return;
+        }
+        state = getSpilledPartition().isRepartitioned() ? State.INPUT_UNSPILLED_AND_BUILT : State.INPUT_SPILLED;
+    }
+
+    private SpilledPartition getSpilledPartition()
+    {
+        return requireNonNull(spilledPartitions.peek(), "no spilled partition");
+    }
+
     private void finishLookupSourceUnspilling()
     {
         checkState(state == State.INPUT_UNSPILLING);
@@ -575,12 +868,13 @@ public class HashBuilderOperator
             localUserMemoryContext.setBytes(memoryRetainedByRemainingPages + index.getEstimatedSize().toBytes());
         }
 
+        unspillInProgress = Optional.empty();
         LookupSourceSupplier partition = buildLookupSource();
         lookupSourceChecksum.ifPresent(checksum ->
                 checkState(partition.checksum() == checksum, "Unspilled lookupSource checksum does not match original one"));
         localUserMemoryContext.setBytes(partition.get().getInMemorySizeInBytes());
 
-        spilledLookupSourceHandle.setLookupSource(partition);
+        getSpilledPartition().getHandle().setLookupSource(partition);
 
         state = State.INPUT_UNSPILLED_AND_BUILT;
     }
@@ -588,14 +882,15 @@ public class HashBuilderOperator
     private void disposeUnspilledLookupSourceIfRequested()
     {
         checkState(state == State.INPUT_UNSPILLED_AND_BUILT);
-        if (!spilledLookupSourceHandle.getDisposeRequested().isDone()) {
+        if (!getSpilledPartition().getHandle().getDisposeRequested().isDone()) {
             return;
         }
 
         index.clear();
         localUserMemoryContext.setBytes(index.getEstimatedSize().toBytes());
+        lookupSourceSupplier = null;
 
-        close();
+        releaseSpilledPartition();
     }
 
     private LookupSourceSupplier buildLookupSource()
@@ -639,6 +934,11 @@ public class HashBuilderOperator
         try (Closer closer = Closer.create()) {
             closer.register(index::clear);
             spiller.ifPresent(closer::register);
+            spilledPartitions.stream()
+                    .filter(SpilledPartition::isSubPartition)
+                    .map(SpilledPartition::getSpiller)
+                    .forEach(closer::register);
+            subPartitionSpillers.forEach(closer::register);
             closer.register(() -> localUserMemoryContext.setBytes(0));
             closer.register(() -> localRevocableMemoryContext.setBytes(0));
         }
@@ -646,4 +946,61 @@ public class HashBuilderOperator
             throw new RuntimeException(e);
         }
     }
+
+    private static class SpilledPartition
+    {
+        private final SpilledLookupSourceHandle handle;
+        private final SingleStreamSpiller spiller;
+        private final int hashBitsOffset;
+        private final boolean repartitionable;
+        private final boolean subPartition;
+        private boolean repartitioned;
+
+        public SpilledPartition(SpilledLookupSourceHandle handle, SingleStreamSpiller spiller, int hashBitsOffset, boolean repartitionable, boolean subPartition)
+        {
+            this.handle = requireNonNull(handle, "handle is null");
+            this.spiller = requireNonNull(spiller, "spiller is null");
+            this.hashBitsOffset = hashBitsOffset;
+            this.repartitionable = repartitionable;
+            this.subPartition = subPartition;
+        }
+
+        public SpilledLookupSourceHandle getHandle()
+        {
+            return handle;
+        }
+
+        public SingleStreamSpiller getSpiller()
+        {
+            return spiller;
+        }
+
+        /**
+         * First bit of the partitioning hash which is not yet used to assign rows to this partition
+         */
+        public int getHashBitsOffset()
+        {
+            return hashBitsOffset;
+        }
+
+        public boolean isRepartitionable()
+        {
+            return repartitionable;
+        }
+
+        public boolean isSubPartition()
+        {
+            return subPartition;
+        }
+
+        public boolean isRepartitioned()
+        {
+            return repartitioned;
+        }
+
+        public void setRepartitioned()
+        {
+            repartitioned = true;
+        }
+    }
 }
@@ -16,6 +16,7 @@ package io.trino.operator.join;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
@@ -51,6 +52,10 @@ public class JoinProbe
     private final Page probePage;
     private final Optional<Block> probeHashBlock;
 
+    // join positions of all remaining probe positions, looked up in a single batch if supported by batchLookupSource
+    private LookupSource batchLookupSource;
+    private long[] joinPositions;
+
     private int position = -1;
 
     private JoinProbe(int[] probeOutputChannels, Page page, List<Integer> probeJoinChannels, OptionalInt probeHashChannel)
@@ -86,7 +91,15 @@ public class JoinProbe
 
     public long getCurrentJoinPosition(LookupSource lookupSource)
     {
-        if (currentRowContainsNull()) {
+        if (batchLookupSource != lookupSource) {
+            batchLookupSource = lookupSource;
+            joinPositions = lookupSource.supportsBatchedJoinPositions() ? lookupJoinPositions(lookupSource) : null;
+        }
+        if (joinPositions != null) {
+            return joinPositions[position];
+        }
+
+        if (rowContainsNull(position)) {
             return -1;
         }
         if (probeHashBlock.isPresent()) {
@@ -106,7 +119,35 @@ public class JoinProbe
         return page;
     }
 
-    private boolean currentRowContainsNull()
+    private long[] lookupJoinPositions(LookupSource lookupSource)
+    {
+        // positions before the current one are already processed
+        int[] positions = new int[positionCount];
+        long[] rawHashes = probeHashBlock.isPresent() ? new long[positionCount] : null;
+        int nonNullPositionCount = 0;
+        for (int position = this.position; position < positionCount; position++) {
+            if (rowContainsNull(position)) {
+                continue;
+            }
+            positions[nonNullPositionCount] = position;
+            if (rawHashes != null) {
+                rawHashes[nonNullPositionCount] = BIGINT.getLong(probeHashBlock.get(), position);
+            }
+            nonNullPositionCount++;
+        }
+
+        long[] nonNullJoinPositions = new long[nonNullPositionCount];
+        lookupSource.getJoinPositions(positions, nonNullPositionCount, probePage, page, rawHashes, nonNullJoinPositions);
+
+        long[] joinPositions = new long[positionCount];
+        Arrays.fill(joinPositions, -1);
+        for (int i = 0; i < nonNullPositionCount; i++) {
+            joinPositions[positions[i]] = nonNullJoinPositions[i];
+        }
+        return joinPositions;
+    }
+
+    private boolean rowContainsNull(int position)
     {
         for (Block probeBlock : probeBlocks) {
             if (probeBlock.isNull(position)) {
@@ -84,7 +84,10 @@ public class LookupJoinOperator
                 lookupSourceProviderFuture,
                 partitioningSpillerFactory,
                 pageJoinerFactory,
-                sourcePages.orElse(pageBuffer.pages()));
+                sourcePages.orElse(pageBuffer.pages()),
+                probeTypes,
+                hashGenerator,
+                processorContext);
         pages = flatten(WorkProcessor.create(joinProcessor));
     }
 
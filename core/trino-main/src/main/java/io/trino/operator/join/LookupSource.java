@@ -16,6 +16,7 @@ package io.trino.operator.join;
 import io.trino.spi.Page;
 import io.trino.spi.PageBuilder;
 
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.Closeable;
@@ -36,6 +37,32 @@ public interface LookupSource
 
     long getJoinPosition(int position, Page hashChannelsPage, Page allChannelsPage);
 
+    /**
+     * Returns true if {@link #getJoinPositions} can be used to look up all positions of a probe page
+     * upfront, i.e. the result of a lookup does not depend on the lookups made before it.
+     */
+    default boolean supportsBatchedJoinPositions()
+    {
+        return false;
+    }
+
+    /**
+     * Looks up the first join position for the first {@code positionCount} probe positions in {@code positions}
+     * and stores them in {@code joinPositions}. If {@code rawHashes} is not null, it contains the precomputed
+     * hash of each of the probe positions.
+     */
+    default void getJoinPositions(int[] positions, int positionCount, Page hashChannelsPage, Page allChannelsPage, @Nullable long[] rawHashes, long[] joinPositions)
+    {
+        for (int i = 0; i < positionCount; i++) {
+            if (rawHashes == null) {
+                joinPositions[i] = getJoinPosition(positions[i], hashChannelsPage, allChannelsPage);
+            }
+            else {
+                joinPositions[i] = getJoinPosition(positions[i], hashChannelsPage, allChannelsPage, rawHashes[i]);
+            }
+        }
+    }
+
     long getNextJoinPosition(long currentJoinPosition, int probePosition, Page allProbeChannelsPage);
 
     void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset);
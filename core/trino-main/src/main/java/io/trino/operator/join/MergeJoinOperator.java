@@ -0,0 +1,513 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.join;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.DriverContext;
+import io.trino.operator.Operator;
+import io.trino.operator.OperatorContext;
+import io.trino.operator.OperatorFactory;
+import io.trino.operator.exchange.LocalExchange.LocalExchangeFactory;
+import io.trino.operator.exchange.LocalExchangeSource;
+import io.trino.operator.join.LookupJoinOperatorFactory.JoinType;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.TrinoException;
+import io.trino.spi.block.Block;
+import io.trino.spi.connector.SortOrder;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.planner.plan.PlanNodeId;
+
+import java.lang.invoke.MethodHandle;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static io.trino.operator.join.LookupJoinOperatorFactory.JoinType.INNER;
+import static io.trino.operator.join.LookupJoinOperatorFactory.JoinType.PROBE_OUTER;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spi.function.InvocationConvention.InvocationArgumentConvention.BLOCK_POSITION;
+import static io.trino.spi.function.InvocationConvention.InvocationReturnConvention.FAIL_ON_NULL;
+import static io.trino.spi.function.InvocationConvention.simpleConvention;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Joins two inputs that are sorted on the join keys. The left input is added to the operator,
+ * and the right input is read from a local exchange with a single buffer. Only the rows of the
+ * right input with the key of the current left row are retained.
+ */
+public class MergeJoinOperator
+        implements Operator
+{
+    public static class MergeJoinOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final PlanNodeId planNodeId;
+        private final JoinType joinType;
+        private final LocalExchangeFactory rightExchangeFactory;
+        private final List<Type> leftTypes;
+        private final List<Type> rightTypes;
+        private final List<Integer> leftKeyChannels;
+        private final List<Integer> rightKeyChannels;
+        private final List<Integer> leftOutputChannels;
+        private final List<Integer> rightOutputChannels;
+        private final List<MethodHandle> orderingOperators;
+        private boolean closed;
+
+        public MergeJoinOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                JoinType joinType,
+                LocalExchangeFactory rightExchangeFactory,
+                List<Type> leftTypes,
+                List<Type> rightTypes,
+                List<Integer> leftKeyChannels,
+                List<Integer> rightKeyChannels,
+                List<SortOrder> sortOrders,
+                List<Integer> leftOutputChannels,
+                List<Integer> rightOutputChannels,
+                TypeOperators typeOperators)
+        {
+            this.operatorId = operatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.joinType = requireNonNull(joinType, "joinType is null");
+            checkArgument(joinType == INNER || joinType == PROBE_OUTER, "Unsupported join type: %s", joinType);
+            this.rightExchangeFactory = requireNonNull(rightExchangeFactory, "rightExchangeFactory is null");
+            checkArgument(rightExchangeFactory.getBufferCount() == 1, "right input must be a single stream");
+            this.leftTypes = ImmutableList.copyOf(requireNonNull(leftTypes, "leftTypes is null"));
+            this.rightTypes = ImmutableList.copyOf(requireNonNull(rightTypes, "rightTypes is null"));
+            this.leftKeyChannels = ImmutableList.copyOf(requireNonNull(leftKeyChannels, "leftKeyChannels is null"));
+            this.rightKeyChannels = ImmutableList.copyOf(requireNonNull(rightKeyChannels, "rightKeyChannels is null"));
+            this.leftOutputChannels = ImmutableList.copyOf(requireNonNull(leftOutputChannels, "leftOutputChannels is null"));
+            this.rightOutputChannels = ImmutableList.copyOf(requireNonNull(rightOutputChannels, "rightOutputChannels is null"));
+            requireNonNull(sortOrders, "sortOrders is null");
+            requireNonNull(typeOperators, "typeOperators is null");
+            checkArgument(leftKeyChannels.size() == rightKeyChannels.size(), "left and right key channels do not match");
+            checkArgument(leftKeyChannels.size() == sortOrders.size(), "key channels and sort orders do not match");
+
+            ImmutableList.Builder<MethodHandle> orderingOperators = ImmutableList.builder();
+            for (int index = 0; index < leftKeyChannels.size(); index++) {
+                Type type = leftTypes.get(leftKeyChannels.get(index));
+                checkArgument(type.equals(rightTypes.get(rightKeyChannels.get(index))), "left and right key types do not match");
+                orderingOperators.add(typeOperators.getOrderingOperator(type, sortOrders.get(index), simpleConvention(FAIL_ON_NULL, BLOCK_POSITION, BLOCK_POSITION)));
+            }
+            this.orderingOperators = orderingOperators.build();
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MergeJoinOperator.class.getSimpleName());
+            LocalExchangeSource rightSource = rightExchangeFactory.getLocalExchange(driverContext.getLifespan()).getNextSource();
+
+            ImmutableList.Builder<Type> outputTypes = ImmutableList.builder();
+            leftOutputChannels.forEach(channel -> outputTypes.add(leftTypes.get(channel)));
+            rightOutputChannels.forEach(channel -> outputTypes.add(rightTypes.get(channel)));
+
+            return new MergeJoinOperator(
+                    operatorContext,
+                    joinType,
+                    rightSource,
+                    outputTypes.build(),
+                    Ints.toArray(leftKeyChannels),
+                    Ints.toArray(rightKeyChannels),
+                    Ints.toArray(leftOutputChannels),
+                    Ints.toArray(rightOutputChannels),
+                    orderingOperators);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            throw new UnsupportedOperationException("Merge join operator factories cannot be duplicated");
+        }
+    }
+
+    private enum MatchResult
+    {
+        MATCH,
+        NO_MATCH,
+        BLOCKED,
+    }
+
+    private final OperatorContext operatorContext;
+    private final JoinType joinType;
+    private final LocalExchangeSource rightSource;
+    private final List<Type> outputTypes;
+    private final int[] leftKeyChannels;
+    private final int[] rightKeyChannels;
+    private final int[] leftOutputChannels;
+    private final int[] rightOutputChannels;
+    private final List<MethodHandle> orderingOperators;
+    private final LocalMemoryContext memoryContext;
+    private final PageBuilder pageBuilder;
+
+    private Page leftPage;
+    private int leftPosition;
+    private boolean finishing;
+    private boolean finished;
+
+    private Page rightPage;
+    private int rightPosition;
+    private boolean rightFinished;
+    private boolean rightBlocked;
+
+    // the rows of the right input with the same key, which the current left row is compared to
+    private final List<Page> groupPages = new ArrayList<>();
+    private final List<Integer> groupPositions = new ArrayList<>();
+    private boolean groupComplete;
+    private long groupRetainedSizeInBytes;
+    // next row of the group to join with the current left row, if the output page filled up in between
+    private int groupOutputPosition = -1;
+
+    public MergeJoinOperator(
+            OperatorContext operatorContext,
+            JoinType joinType,
+            LocalExchangeSource rightSource,
+            List<Type> outputTypes,
+            int[] leftKeyChannels,
+            int[] rightKeyChannels,
+            int[] leftOutputChannels,
+            int[] rightOutputChannels,
+            List<MethodHandle> orderingOperators)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.joinType = requireNonNull(joinType, "joinType is null");
+        this.rightSource = requireNonNull(rightSource, "rightSource is null");
+        this.outputTypes = ImmutableList.copyOf(requireNonNull(outputTypes, "outputTypes is null"));
+        this.leftKeyChannels = requireNonNull(leftKeyChannels, "leftKeyChannels is null");
+        this.rightKeyChannels = requireNonNull(rightKeyChannels, "rightKeyChannels is null");
+        this.leftOutputChannels = requireNonNull(leftOutputChannels, "leftOutputChannels is null");
+        this.rightOutputChannels = requireNonNull(rightOutputChannels, "rightOutputChannels is null");
+        this.orderingOperators = ImmutableList.copyOf(requireNonNull(orderingOperators, "orderingOperators is null"));
+        this.memoryContext = operatorContext.localUserMemoryContext();
+        this.pageBuilder = new PageBuilder(outputTypes);
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public void finish()
+    {
+        finishing = true;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public ListenableFuture<Void> isBlocked()
+    {
+        if (!rightBlocked) {
+            return NOT_BLOCKED;
+        }
+        ListenableFuture<Void> blocked = rightSource.waitForReading();
+        if (blocked.isDone()) {
+            return NOT_BLOCKED;
+        }
+        return blocked;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && !finished && leftPage == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        requireNonNull(page, "page is null");
+        checkState(needsInput(), "Operator does not need input");
+        if (page.getPositionCount() > 0) {
+            leftPage = page;
+            leftPosition = 0;
+        }
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (!finished) {
+            rightBlocked = false;
+            processLeftPage();
+            if (finishing && leftPage == null && !rightBlocked) {
+                finishJoin();
+            }
+        }
+
+        if (pageBuilder.isFull() || (finished && !pageBuilder.isEmpty())) {
+            Page page = pageBuilder.build();
+            pageBuilder.reset();
+            return page;
+        }
+        return null;
+    }
+
+    @Override
+    public void close()
+    {
+        leftPage = null;
+        clearGroup();
+        rightSource.close();
+    }
+
+    private void processLeftPage()
+    {
+        while (leftPage != null && !pageBuilder.isFull()) {
+            if (groupOutputPosition >= 0) {
+                if (appendMatches()) {
+                    advanceLeft();
+                }
+                continue;
+            }
+
+            if (hasNullKey(leftPage, leftPosition, leftKeyChannels)) {
+                // null keys never match
+                appendUnmatched();
+                advanceLeft();
+                continue;
+            }
+
+            MatchResult result = matchGroup();
+            if (result == MatchResult.BLOCKED) {
+                rightBlocked = true;
+                return;
+            }
+            if (result == MatchResult.NO_MATCH) {
+                if (joinType == INNER && rightFinished && groupPages.isEmpty()) {
+                    // there are no more rows to match the remaining left rows with
+                    finishJoin();
+                    return;
+                }
+                appendUnmatched();
+                advanceLeft();
+                continue;
+            }
+            groupOutputPosition = 0;
+        }
+    }
+
+    /**
+     * Positions the group on the rows of the right input with the key of the current left row.
+     */
+    private MatchResult matchGroup()
+    {
+        while (true) {
+            if (!groupPages.isEmpty()) {
+                int comparison = compare(leftPage, leftPosition, leftKeyChannels, groupPages.get(0), groupPositions.get(0), rightKeyChannels);
+                if (comparison < 0) {
+                    return MatchResult.NO_MATCH;
+                }
+                if (comparison == 0) {
+                    if (!groupComplete && !completeGroup()) {
+                        return MatchResult.BLOCKED;
+                    }
+                    return MatchResult.MATCH;
+                }
+                // all later left rows are greater than the group
+                clearGroup();
+            }
+
+            if (!nextRightRow()) {
+                return rightFinished ? MatchResult.NO_MATCH : MatchResult.BLOCKED;
+            }
+            if (compare(leftPage, leftPosition, leftKeyChannels, rightPage, rightPosition, rightKeyChannels) > 0) {
+                rightPosition++;
+                continue;
+            }
+            addToGroup();
+        }
+    }
+
+    /**
+     * Adds the following right rows with the key of the group to the group. Returns false, if the
+     * right input has no rows available before the key changes.
+     */
+    private boolean completeGroup()
+    {
+        while (nextRightRow()) {
+            if (compare(rightPage, rightPosition, rightKeyChannels, groupPages.get(0), groupPositions.get(0), rightKeyChannels) != 0) {
+                groupComplete = true;
+                return true;
+            }
+            addToGroup();
+        }
+        if (rightFinished) {
+            groupComplete = true;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Positions the right input on the next row without null keys. Returns false, if no row is available.
+     */
+    private boolean nextRightRow()
+    {
+        while (true) {
+            while (rightPage != null && rightPosition < rightPage.getPositionCount()) {
+                if (!hasNullKey(rightPage, rightPosition, rightKeyChannels)) {
+                    return true;
+                }
+                rightPosition++;
+            }
+            rightPage = null;
+            if (rightFinished) {
+                return false;
+            }
+
+            Page page = rightSource.removePage();
+            if (page == null) {
+                rightFinished = rightSource.isFinished();
+                return false;
+            }
+            rightPage = page;
+            rightPosition = 0;
+        }
+    }
+
+    private void addToGroup()
+    {
+        if (groupPages.isEmpty()) {
+            groupComplete = false;
+        }
+        if (groupPages.isEmpty() || groupPages.get(groupPages.size() - 1) != rightPage) {
+            groupRetainedSizeInBytes += rightPage.getRetainedSizeInBytes();
+            memoryContext.setBytes(groupRetainedSizeInBytes);
+        }
+        groupPages.add(rightPage);
+        groupPositions.add(rightPosition);
+        rightPosition++;
+    }
+
+    private void clearGroup()
+    {
+        groupPages.clear();
+        groupPositions.clear();
+        groupComplete = false;
+        groupRetainedSizeInBytes = 0;
+        memoryContext.setBytes(0);
+    }
+
+    /**
+     * Joins the current left row with the rows of the group. Returns false, if the output page filled up before all the rows were joined.
+     */
+    private boolean appendMatches()
+    {
+        while (groupOutputPosition < groupPages.size()) {
+            if (pageBuilder.isFull()) {
+                return false;
+            }
+            pageBuilder.declarePosition();
+            appendLeft();
+            Page page = groupPages.get(groupOutputPosition);
+            int position = groupPositions.get(groupOutputPosition);
+            for (int i = 0; i < rightOutputChannels.length; i++) {
+                int outputChannel = leftOutputChannels.length + i;
+                outputTypes.get(outputChannel).appendTo(page.getBlock(rightOutputChannels[i]), position, pageBuilder.getBlockBuilder(outputChannel));
+            }
+            groupOutputPosition++;
+        }
+        groupOutputPosition = -1;
+        return true;
+    }
+
+    private void appendUnmatched()
+    {
+        if (joinType != PROBE_OUTER) {
+            return;
+        }
+        pageBuilder.declarePosition();
+        appendLeft();
+        for (int i = 0; i < rightOutputChannels.length; i++) {
+            pageBuilder.getBlockBuilder(leftOutputChannels.length + i).appendNull();
+        }
+    }
+
+    private void appendLeft()
+    {
+        for (int i = 0; i < leftOutputChannels.length; i++) {
+            outputTypes.get(i).appendTo(leftPage.getBlock(leftOutputChannels[i]), leftPosition, pageBuilder.getBlockBuilder(i));
+        }
+    }
+
+    private void advanceLeft()
+    {
+        leftPosition++;
+        if (leftPosition == leftPage.getPositionCount()) {
+            leftPage = null;
+        }
+    }
+
+    private void finishJoin()
+    {
+        finished = true;
+        leftPage = null;
+        clearGroup();
+        rightPage = null;
+        // the rest of the right input is not needed
+        rightSource.close();
+    }
+
+    private static boolean hasNullKey(Page page, int position, int[] keyChannels)
+    {
+        for (int channel : keyChannels) {
+            if (page.getBlock(channel).isNull(position)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int compare(Page left, int leftPosition, int[] leftChannels, Page right, int rightPosition, int[] rightChannels)
+    {
+        try {
+            for (int i = 0; i < orderingOperators.size(); i++) {
+                Block leftBlock = left.getBlock(leftChannels[i]);
+                Block rightBlock = right.getBlock(rightChannels[i]);
+                int comparison = (int) orderingOperators.get(i).invokeExact(leftBlock, leftPosition, rightBlock, rightPosition);
+                if (comparison != 0) {
+                    return comparison;
+                }
+            }
+            return 0;
+        }
+        catch (Throwable throwable) {
+            throwIfUnchecked(throwable);
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, throwable);
+        }
+    }
+}
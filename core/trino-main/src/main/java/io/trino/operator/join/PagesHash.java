@@ -21,6 +21,8 @@ import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.longs.LongArrayList;
 import org.openjdk.jol.info.ClassLayout;
 
+import javax.annotation.Nullable;
+
 import java.util.Arrays;
 
 import static io.airlift.slice.SizeOf.sizeOf;
@@ -169,6 +171,50 @@ public final class PagesHash
         return -1;
     }
 
+    /**
+     * Batched version of {@link #getAddressIndex(int, Page, long)}. Hashes are computed for all positions first,
+     * then the initial buckets are read in a tight loop, and only then the candidate rows are compared with
+     * the probe rows. Positions that collide with a different key fall back to linear probing.
+     */
+    public int[] getAddressIndexes(int[] positions, int positionCount, Page hashChannelsPage, @Nullable long[] rawHashes)
+    {
+        if (rawHashes == null) {
+            rawHashes = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                rawHashes[i] = pagesHashStrategy.hashRow(positions[i], hashChannelsPage);
+            }
+        }
+
+        int[] hashPositions = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            hashPositions[i] = getHashPosition(rawHashes[i], mask);
+        }
+
+        int[] addressIndexes = new int[positionCount];
+        for (int i = 0; i < positionCount; i++) {
+            addressIndexes[i] = key[hashPositions[i]];
+        }
+
+        for (int i = 0; i < positionCount; i++) {
+            int addressIndex = addressIndexes[i];
+            if (addressIndex == -1 || positionEqualsCurrentRowIgnoreNulls(addressIndex, (byte) rawHashes[i], positions[i], hashChannelsPage)) {
+                continue;
+            }
+            // collision with a different key, continue with the next slot
+            int pos = (hashPositions[i] + 1) & mask;
+            addressIndexes[i] = -1;
+            while (key[pos] != -1) {
+                if (positionEqualsCurrentRowIgnoreNulls(key[pos], (byte) rawHashes[i], positions[i], hashChannelsPage)) {
+                    addressIndexes[i] = key[pos];
+                    break;
+                }
+                // increment position and mask to handler wrap around
+                pos = (pos + 1) & mask;
+            }
+        }
+        return addressIndexes;
+    }
+
     public void appendTo(long position, PageBuilder pageBuilder, int outputChannelOffset)
     {
         long pageAddress = addresses.getLong(toIntExact(position));
@@ -97,7 +97,7 @@ public final class PartitionedLookupSourceFactory
     private OptionalInt partitionedConsumptionParticipants = OptionalInt.empty();
 
     @GuardedBy("lock")
-    private final SettableFuture<PartitionedConsumption<Supplier<LookupSource>>> partitionedConsumption = SettableFuture.create();
+    private final SettableFuture<PartitionedConsumption<UnspilledPartition>> partitionedConsumption = SettableFuture.create();
 
     /**
      * Cached LookupSource on behalf of LookupJoinOperator (represented by SpillAwareLookupSourceProvider). LookupSource instantiation has non-negligible cost.
@@ -129,6 +129,11 @@ public final class PartitionedLookupSourceFactory
         return types;
     }
 
+    public BlockTypeOperators getBlockTypeOperators()
+    {
+        return blockTypeOperators;
+    }
+
     @Override
     public List<Type> getOutputTypes()
     {
@@ -297,7 +302,7 @@ public final class PartitionedLookupSourceFactory
     }
 
     @Override
-    public ListenableFuture<PartitionedConsumption<Supplier<LookupSource>>> finishProbeOperator(OptionalInt lookupJoinsCount)
+    public ListenableFuture<PartitionedConsumption<UnspilledPartition>> finishProbeOperator(OptionalInt lookupJoinsCount)
     {
         lock.writeLock().lock();
         try {
@@ -348,9 +353,17 @@ public final class PartitionedLookupSourceFactory
         }
     }
 
-    private ListenableFuture<Supplier<LookupSource>> loadSpilledLookupSource(int partitionNumber)
+    private ListenableFuture<UnspilledPartition> loadSpilledLookupSource(int partitionNumber)
     {
-        return getSpilledLookupSourceHandle(partitionNumber).getLookupSource();
+        int consumersCount;
+        lock.readLock().lock();
+        try {
+            consumersCount = partitionedConsumptionParticipants.orElseThrow(() -> new IllegalStateException("partitioned consumption not started"));
+        }
+        finally {
+            lock.readLock().unlock();
+        }
+        return getSpilledLookupSourceHandle(partitionNumber).getLookupSource(consumersCount);
     }
 
     private void disposeSpilledLookupSource(int partitionNumber)
@@ -21,9 +21,13 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.util.List;
 import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.concurrent.MoreFutures.whenAnyComplete;
 import static java.util.Objects.requireNonNull;
 
@@ -45,7 +49,13 @@ final class SpilledLookupSourceHandle
 
     @GuardedBy("this")
     @Nullable
-    private SettableFuture<Supplier<LookupSource>> unspilledLookupSource;
+    private SettableFuture<UnspilledPartition> unspilledLookupSource;
+
+    @GuardedBy("this")
+    private int consumersCount;
+
+    @GuardedBy("this")
+    private List<SpilledLookupSourceHandle> subPartitions = ImmutableList.of();
 
     private final SettableFuture<Void> disposeRequested = SettableFuture.create();
 
@@ -56,9 +66,11 @@ final class SpilledLookupSourceHandle
         return unspillingRequested;
     }
 
-    public synchronized ListenableFuture<Supplier<LookupSource>> getLookupSource()
+    public synchronized ListenableFuture<UnspilledPartition> getLookupSource(int consumersCount)
     {
+        checkArgument(consumersCount > 0, "consumersCount must be positive");
         assertState(State.SPILLED);
+        this.consumersCount = consumersCount;
         unspillingRequested.set(null);
         setState(State.UNSPILLING);
         checkState(unspilledLookupSource == null, "unspilledLookupSource already set");
@@ -74,18 +86,55 @@ final class SpilledLookupSourceHandle
             return;
         }
 
+        produce(UnspilledPartition.unspilled(lookupSource));
+    }
+
+    /**
+     * Replaces the lookup source of this partition with lookup sources of its sub-partitions, which are consumed one at a time.
+     */
+    public synchronized void setSubPartitions(int hashBitsOffset, List<SpilledLookupSourceHandle> subPartitions)
+    {
+        requireNonNull(subPartitions, "subPartitions is null");
+
+        if (state == State.DISPOSED) {
+            subPartitions.forEach(SpilledLookupSourceHandle::dispose);
+            return;
+        }
+
+        this.subPartitions = ImmutableList.copyOf(subPartitions);
+        int consumersCount = this.consumersCount;
+        produce(UnspilledPartition.repartitioned(
+                subPartitions.size(),
+                hashBitsOffset,
+                new PartitionedConsumption<>(
+                        consumersCount,
+                        IntStream.range(0, subPartitions.size()).boxed().collect(toImmutableList()),
+                        partition -> subPartitions.get(partition).getLookupSource(consumersCount),
+                        partition -> subPartitions.get(partition).dispose())));
+    }
+
+    @GuardedBy("this")
+    private void produce(UnspilledPartition partition)
+    {
         assertState(State.UNSPILLING);
         checkState(unspilledLookupSource != null, "unspilledLookupSource not set");
-        unspilledLookupSource.set(lookupSource);
+        unspilledLookupSource.set(partition);
         unspilledLookupSource = null; // let the memory go
         setState(State.PRODUCED);
     }
 
-    public synchronized void dispose()
+    public void dispose()
     {
-        disposeRequested.set(null);
-        unspilledLookupSource = null; // let the memory go
-        setState(State.DISPOSED);
+        List<SpilledLookupSourceHandle> subPartitions;
+        synchronized (this) {
+            disposeRequested.set(null);
+            unspilledLookupSource = null; // let the memory go
+            setState(State.DISPOSED);
+            subPartitions = this.subPartitions;
+            this.subPartitions = ImmutableList.of();
+        }
+        // sub-partitions are normally disposed already when consumed, but not when the whole lookup source is destroyed early
+        subPartitions.forEach(SpilledLookupSourceHandle::dispose);
     }
 
     public SettableFuture<Void> getDisposeRequested()
@@ -16,23 +16,35 @@ package io.trino.operator.join;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.memory.context.MemoryTrackingContext;
+import io.trino.operator.HashGenerator;
+import io.trino.operator.ProcessorContext;
+import io.trino.operator.SpillContext;
 import io.trino.operator.WorkProcessor;
+import io.trino.operator.exchange.LocalPartitionGenerator;
 import io.trino.operator.join.DefaultPageJoiner.SavedRow;
 import io.trino.operator.join.PageJoiner.PageJoinerFactory;
 import io.trino.spi.Page;
+import io.trino.spi.type.Type;
+import io.trino.spiller.PartitioningSpiller;
 import io.trino.spiller.PartitioningSpillerFactory;
 
 import javax.annotation.Nullable;
 
 import java.io.IOException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
-import java.util.function.Supplier;
 
+import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Iterators.singletonIterator;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
 import static io.airlift.concurrent.MoreFutures.getDone;
+import static io.trino.operator.WorkProcessor.flatten;
 import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
@@ -47,17 +59,23 @@ public class SpillingJoinProcessor
     private final PageJoinerFactory pageJoinerFactory;
     private final PageJoiner sourcePagesJoiner;
     private final WorkProcessor<Page> joinedSourcePages;
+    private final List<Type> probeTypes;
+    private final HashGenerator hashGenerator;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+    private final SpillContext spillContext;
+    private final MemoryTrackingContext memoryTrackingContext;
+    private final Closer subPartitionSpillers = Closer.create();
 
     private boolean closed;
 
     @Nullable
-    private ListenableFuture<PartitionedConsumption<Supplier<LookupSource>>> partitionedConsumption;
+    private ListenableFuture<PartitionedConsumption<UnspilledPartition>> partitionedConsumption;
     @Nullable
-    private Iterator<PartitionedConsumption.Partition<Supplier<LookupSource>>> lookupPartitions;
+    private Iterator<PartitionedConsumption.Partition<UnspilledPartition>> lookupPartitions;
     @Nullable
-    private PartitionedConsumption.Partition<Supplier<LookupSource>> previousPartition;
+    private PartitionedConsumption.Partition<UnspilledPartition> previousPartition;
     @Nullable
-    private ListenableFuture<Supplier<LookupSource>> previousPartitionLookupSource;
+    private ListenableFuture<UnspilledPartition> previousPartitionLookupSource;
 
     public SpillingJoinProcessor(
             Runnable afterClose,
@@ -67,7 +85,10 @@ public class SpillingJoinProcessor
             ListenableFuture<LookupSourceProvider> lookupSourceProvider,
             PartitioningSpillerFactory partitioningSpillerFactory,
             PageJoinerFactory pageJoinerFactory,
-            WorkProcessor<Page> sourcePages)
+            WorkProcessor<Page> sourcePages,
+            List<Type> probeTypes,
+            HashGenerator hashGenerator,
+            ProcessorContext processorContext)
     {
         this.afterClose = requireNonNull(afterClose, "afterClose is null");
         this.lookupJoinsCount = requireNonNull(lookupJoinsCount, "lookupJoinsCount is null");
@@ -75,6 +96,12 @@ public class SpillingJoinProcessor
         this.lookupSourceFactory = requireNonNull(lookupSourceFactory, "lookupSourceFactory is null");
         this.lookupSourceProvider = requireNonNull(lookupSourceProvider, "lookupSourceProvider is null");
         this.pageJoinerFactory = requireNonNull(pageJoinerFactory, "pageJoinerFactory is null");
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        this.probeTypes = requireNonNull(probeTypes, "probeTypes is null");
+        this.hashGenerator = requireNonNull(hashGenerator, "hashGenerator is null");
+        requireNonNull(processorContext, "processorContext is null");
+        this.spillContext = processorContext.getSpillContext();
+        this.memoryTrackingContext = processorContext.getMemoryTrackingContext();
         sourcePagesJoiner = pageJoinerFactory.getPageJoiner(
                 lookupSourceProvider,
                 Optional.of(partitioningSpillerFactory),
@@ -96,6 +123,7 @@ public class SpillingJoinProcessor
 
             closer.register(sourcePagesJoiner);
             sourcePagesJoiner.getSpiller().ifPresent(closer::register);
+            closer.register(subPartitionSpillers);
         }
         catch (IOException e) {
             throw new RuntimeException(e);
@@ -141,7 +169,7 @@ public class SpillingJoinProcessor
             return WorkProcessor.ProcessState.finished();
         }
 
-        PartitionedConsumption.Partition<Supplier<LookupSource>> partition = lookupPartitions.next();
+        PartitionedConsumption.Partition<UnspilledPartition> partition = lookupPartitions.next();
         previousPartition = partition;
         previousPartitionLookupSource = partition.load();
 
@@ -153,24 +181,114 @@ public class SpillingJoinProcessor
         return Futures.transform(future, v -> null, directExecutor());
     }
 
-    private WorkProcessor<Page> joinUnspilledPages(PartitionedConsumption.Partition<Supplier<LookupSource>> partition)
+    private WorkProcessor<Page> joinUnspilledPages(PartitionedConsumption.Partition<UnspilledPartition> partition)
     {
         int partitionNumber = partition.number();
-        WorkProcessor<Page> unspilledInputPages = WorkProcessor.fromIterator(sourcePagesJoiner.getSpiller()
+        Iterator<Page> unspilledInputPages = sourcePagesJoiner.getSpiller()
                 .map(spiller -> spiller.getSpilledPages(partitionNumber))
-                .orElse(emptyIterator()));
+                .orElse(emptyIterator());
         Iterator<SavedRow> savedRow = Optional.ofNullable(sourcePagesJoiner.getSpilledRows().remove(partitionNumber))
                 .map(row -> (Iterator<SavedRow>) singletonIterator(row))
                 .orElse(emptyIterator());
 
-        ListenableFuture<LookupSourceProvider> unspilledLookupSourceProvider = Futures.transform(
-                partition.load(),
-                supplier -> new StaticLookupSourceProvider(supplier.get()),
-                directExecutor());
+        return joinUnspilledPages(partition.load(), unspilledInputPages, savedRow);
+    }
+
+    private WorkProcessor<Page> joinUnspilledPages(ListenableFuture<UnspilledPartition> partitionFuture, Iterator<Page> unspilledInputPages, Iterator<SavedRow> savedRow)
+    {
+        return flatten(WorkProcessor.create(new WorkProcessor.Process<>()
+        {
+            private boolean produced;
+
+            @Override
+            public WorkProcessor.ProcessState<WorkProcessor<Page>> process()
+            {
+                if (produced) {
+                    return WorkProcessor.ProcessState.finished();
+                }
+                if (!partitionFuture.isDone()) {
+                    return WorkProcessor.ProcessState.blocked(asVoid(partitionFuture));
+                }
+                produced = true;
+
+                UnspilledPartition partition = getDone(partitionFuture);
+                if (partition.isRepartitioned()) {
+                    // only partitions which have not been probed before being spilled are re-partitioned, so there cannot be a saved row
+                    verify(!savedRow.hasNext(), "saved row for re-partitioned partition");
+                    return WorkProcessor.ProcessState.ofResult(flatten(WorkProcessor.create(new SubPartitionsJoinProcessor(partition, unspilledInputPages))));
+                }
+
+                return WorkProcessor.ProcessState.ofResult(WorkProcessor.fromIterator(unspilledInputPages).transform(pageJoinerFactory.getPageJoiner(
+                        immediateFuture(new StaticLookupSourceProvider(partition.getLookupSource().get())),
+                        Optional.empty(),
+                        savedRow)));
+            }
+        }));
+    }
+
+    /**
+     * Re-partitions probe rows of a re-partitioned build partition and joins them with its sub-partitions one at a time.
+     */
+    private class SubPartitionsJoinProcessor
+            implements WorkProcessor.Process<WorkProcessor<Page>>
+    {
+        private final UnspilledPartition partition;
+        private final Iterator<Page> unspilledInputPages;
+        private final PartitioningSpiller spiller;
+        private ListenableFuture<Void> spillInProgress = immediateVoidFuture();
+
+        @Nullable
+        private Iterator<PartitionedConsumption.Partition<UnspilledPartition>> subPartitions;
+        @Nullable
+        private PartitionedConsumption.Partition<UnspilledPartition> previousSubPartition;
+        @Nullable
+        private ListenableFuture<UnspilledPartition> previousSubPartitionLookupSource;
+
+        public SubPartitionsJoinProcessor(UnspilledPartition partition, Iterator<Page> unspilledInputPages)
+        {
+            this.partition = requireNonNull(partition, "partition is null");
+            this.unspilledInputPages = requireNonNull(unspilledInputPages, "unspilledInputPages is null");
+            this.spiller = subPartitionSpillers.register(partitioningSpillerFactory.create(
+                    probeTypes,
+                    new LocalPartitionGenerator(hashGenerator, partition.getSubPartitionCount(), partition.getHashBitsOffset()),
+                    spillContext.newLocalSpillContext(),
+                    memoryTrackingContext.newAggregateSystemMemoryContext()));
+        }
+
+        @Override
+        public WorkProcessor.ProcessState<WorkProcessor<Page>> process()
+        {
+            if (subPartitions == null) {
+                if (!spillInProgress.isDone()) {
+                    return WorkProcessor.ProcessState.blocked(spillInProgress);
+                }
+                checkSuccess(spillInProgress, "spilling failed");
+                if (unspilledInputPages.hasNext()) {
+                    spillInProgress = spiller.partitionAndSpill(unspilledInputPages.next(), subPartition -> true).getSpillingFuture();
+                    return WorkProcessor.ProcessState.yield();
+                }
+                subPartitions = partition.getSubPartitions().beginConsumption();
+            }
 
-        return unspilledInputPages.transform(pageJoinerFactory.getPageJoiner(
-                unspilledLookupSourceProvider,
-                Optional.empty(),
-                savedRow));
+            if (previousSubPartition != null) {
+                if (!previousSubPartitionLookupSource.isDone()) {
+                    return WorkProcessor.ProcessState.blocked(asVoid(previousSubPartitionLookupSource));
+                }
+                previousSubPartition.release();
+                previousSubPartition = null;
+                previousSubPartitionLookupSource = null;
+            }
+
+            if (!subPartitions.hasNext()) {
+                spiller.verifyAllPartitionsRead();
+                return WorkProcessor.ProcessState.finished();
+            }
+
+            PartitionedConsumption.Partition<UnspilledPartition> subPartition = subPartitions.next();
+            previousSubPartition = subPartition;
+            previousSubPartitionLookupSource = subPartition.load();
+
+            return WorkProcessor.ProcessState.ofResult(joinUnspilledPages(previousSubPartitionLookupSource, spiller.getSpilledPages(subPartition.number()), emptyIterator()));
+        }
     }
 }
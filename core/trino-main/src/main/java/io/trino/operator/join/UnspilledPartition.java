@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.join;
+
+import javax.annotation.Nullable;
+
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A spilled build side partition made available to the probe side. A partition which is too large to be unspilled
+ * whole is re-partitioned by the build side instead, in which case the probe side re-partitions its spilled rows
+ * of this partition the same way, and joins the sub-partitions one at a time.
+ */
+public final class UnspilledPartition
+{
+    @Nullable
+    private final Supplier<LookupSource> lookupSource;
+    private final int subPartitionCount;
+    private final int hashBitsOffset;
+    @Nullable
+    private final PartitionedConsumption<UnspilledPartition> subPartitions;
+
+    public static UnspilledPartition unspilled(Supplier<LookupSource> lookupSource)
+    {
+        return new UnspilledPartition(requireNonNull(lookupSource, "lookupSource is null"), 0, 0, null);
+    }
+
+    public static UnspilledPartition repartitioned(int subPartitionCount, int hashBitsOffset, PartitionedConsumption<UnspilledPartition> subPartitions)
+    {
+        checkArgument(subPartitionCount > 1, "subPartitionCount must be greater than 1");
+        return new UnspilledPartition(null, subPartitionCount, hashBitsOffset, requireNonNull(subPartitions, "subPartitions is null"));
+    }
+
+    private UnspilledPartition(@Nullable Supplier<LookupSource> lookupSource, int subPartitionCount, int hashBitsOffset, @Nullable PartitionedConsumption<UnspilledPartition> subPartitions)
+    {
+        this.lookupSource = lookupSource;
+        this.subPartitionCount = subPartitionCount;
+        this.hashBitsOffset = hashBitsOffset;
+        this.subPartitions = subPartitions;
+    }
+
+    public boolean isRepartitioned()
+    {
+        return subPartitions != null;
+    }
+
+    public Supplier<LookupSource> getLookupSource()
+    {
+        checkState(lookupSource != null, "partition is re-partitioned");
+        return lookupSource;
+    }
+
+    public int getSubPartitionCount()
+    {
+        checkState(isRepartitioned(), "partition is not re-partitioned");
+        return subPartitionCount;
+    }
+
+    /**
+     * First bit of the partitioning hash used to assign rows to sub-partitions
+     */
+    public int getHashBitsOffset()
+    {
+        checkState(isRepartitioned(), "partition is not re-partitioned");
+        return hashBitsOffset;
+    }
+
+    public PartitionedConsumption<UnspilledPartition> getSubPartitions()
+    {
+        checkState(subPartitions != null, "partition is not re-partitioned");
+        return subPartitions;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.scalar;
+
+import io.trino.spi.function.Description;
+import io.trino.spi.function.ScalarFunction;
+import io.trino.spi.function.SqlNullable;
+import io.trino.spi.function.SqlType;
+import io.trino.spi.function.TypeParameter;
+import io.trino.spi.function.TypeParameterSpecialization;
+import io.trino.spi.type.StandardTypes;
+
+import static io.trino.operator.scalar.ParameterPlaceholderFunction.NAME;
+
+/**
+ * Marks the value of a statement parameter in a plan that is reused for other parameter values.
+ * The function is not deterministic, so that the optimizers do not fold the value into the plan.
+ * The plan cache replaces every call with the value of the current execution before the plan
+ * is executed, and the function itself returns the value it was planned with.
+ */
+@Description("Internal placeholder for a statement parameter")
+@ScalarFunction(value = NAME, hidden = true, deterministic = false)
+public final class ParameterPlaceholderFunction
+{
+    public static final String NAME = "$internal$parameter";
+
+    private ParameterPlaceholderFunction() {}
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = Object.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Object parameter(@SqlNullable @SqlType("T") Object value, @SqlType(StandardTypes.BIGINT) long position)
+    {
+        return value;
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = long.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Long parameter(@SqlNullable @SqlType("T") Long value, @SqlType(StandardTypes.BIGINT) long position)
+    {
+        return value;
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = double.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Double parameter(@SqlNullable @SqlType("T") Double value, @SqlType(StandardTypes.BIGINT) long position)
+    {
+        return value;
+    }
+
+    @TypeParameter("T")
+    @TypeParameterSpecialization(name = "T", nativeContainerType = boolean.class)
+    @SqlNullable
+    @SqlType("T")
+    public static Boolean parameter(@SqlNullable @SqlType("T") Boolean value, @SqlType(StandardTypes.BIGINT) long position)
+    {
+        return value;
+    }
+}
@@ -44,13 +44,16 @@ import io.trino.execution.DynamicFiltersCollector.VersionedDynamicFilterDomains;
 import io.trino.execution.ExecutionFailureInfo;
 import io.trino.execution.ExplainAnalyzeContext;
 import io.trino.execution.ForQueryExecution;
+import io.trino.execution.PlanCache;
 import io.trino.execution.QueryExecution;
 import io.trino.execution.QueryExecutionMBean;
 import io.trino.execution.QueryIdGenerator;
 import io.trino.execution.QueryManager;
+import io.trino.execution.QueryManagerStats;
 import io.trino.execution.QueryPerformanceFetcher;
 import io.trino.execution.QueryPreparer;
 import io.trino.execution.RemoteTaskFactory;
+import io.trino.execution.ResultCache;
 import io.trino.execution.SqlQueryManager;
 import io.trino.execution.StageInfo;
 import io.trino.execution.TaskInfo;
@@ -175,6 +178,7 @@ public class CoordinatorModule
         newExporter(binder).export(DispatchManager.class).as(generator -> generator.generatedNameOf(QueryManager.class));
         binder.bind(FailedDispatchQueryFactory.class).in(Scopes.SINGLETON);
         binder.bind(DispatchExecutor.class).in(Scopes.SINGLETON);
+        binder.bind(QueryManagerStats.class).in(Scopes.SINGLETON);
 
         // local dispatcher
         binder.bind(DispatchQueryFactory.class).to(LocalDispatchQueryFactory.class);
@@ -253,6 +257,9 @@ public class CoordinatorModule
         newExporter(binder).export(QueryExecutionMBean.class)
                 .as(generator -> generator.generatedNameOf(QueryExecution.class));
 
+        binder.bind(ResultCache.class).in(Scopes.SINGLETON);
+        binder.bind(PlanCache.class).in(Scopes.SINGLETON);
+
         binder.bind(SplitSchedulerStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(SplitSchedulerStats.class).withGeneratedName();
 
@@ -669,7 +669,11 @@ public class DynamicFilterService
                     .collect(toImmutableMap(
                             identity(),
                             filter -> Optional.ofNullable(taskDynamicFilters.get(filter))
-                                    .map(taskDomains -> ImmutableList.copyOf(taskDomains.values()))
+                                    // only count domains of this stage, as a query with switched joins can have reported domains from tasks of the abandoned plan
+                                    .map(taskDomains -> taskDomains.entrySet().stream()
+                                            .filter(taskDomain -> taskDomain.getKey().getStageId().equals(stageId))
+                                            .map(Map.Entry::getValue)
+                                            .collect(toImmutableList()))
                                     // return empty list in case filter has already been collected and task domains have been removed
                                     .orElse(ImmutableList.of())));
         }
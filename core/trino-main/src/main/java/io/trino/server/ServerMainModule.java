@@ -46,6 +46,9 @@ import io.trino.execution.SqlTaskManager;
 import io.trino.execution.TaskManagementExecutor;
 import io.trino.execution.TaskManager;
 import io.trino.execution.TaskManagerConfig;
+import io.trino.execution.buffer.FileTaskOutputSpool;
+import io.trino.execution.buffer.FileTaskOutputSpoolConfig;
+import io.trino.execution.buffer.TaskOutputSpool;
 import io.trino.execution.executor.MultilevelSplitQueue;
 import io.trino.execution.executor.TaskExecutor;
 import io.trino.execution.scheduler.NodeScheduler;
@@ -79,6 +82,7 @@ import io.trino.operator.ExchangeClientConfig;
 import io.trino.operator.ExchangeClientFactory;
 import io.trino.operator.ExchangeClientSupplier;
 import io.trino.operator.ForExchange;
+import io.trino.operator.FragmentResultCache;
 import io.trino.operator.OperatorFactories;
 import io.trino.operator.PagesIndex;
 import io.trino.operator.TrinoOperatorFactories;
@@ -104,6 +108,7 @@ import io.trino.spiller.LocalSpillManager;
 import io.trino.spiller.NodeSpillConfig;
 import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.spiller.SingleStreamSpillerFactory;
+import io.trino.spiller.SpillPathStatsExporter;
 import io.trino.spiller.SpillerFactory;
 import io.trino.spiller.SpillerStats;
 import io.trino.split.PageSinkManager;
@@ -276,6 +281,8 @@ public class ServerMainModule
         configBinder(binder).bindConfig(NodeMemoryConfig.class);
         binder.bind(LocalMemoryManager.class).in(Scopes.SINGLETON);
         binder.bind(LocalMemoryManagerExporter.class).in(Scopes.SINGLETON);
+        binder.bind(FragmentResultCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FragmentResultCache.class).withGeneratedName();
         newOptionalBinder(binder, VersionEmbedder.class).setDefault().to(EmbedVersion.class).in(Scopes.SINGLETON);
         newExporter(binder).export(TaskManager.class).withGeneratedName();
         binder.bind(TaskExecutor.class).in(Scopes.SINGLETON);
@@ -320,6 +327,10 @@ public class ServerMainModule
         binder.bind(ExchangeExecutionMBean.class).in(Scopes.SINGLETON);
         newExporter(binder).export(ExchangeExecutionMBean.class).withGeneratedName();
 
+        // task output spool
+        binder.bind(TaskOutputSpool.class).to(FileTaskOutputSpool.class).in(Scopes.SINGLETON);
+        configBinder(binder).bindConfig(FileTaskOutputSpoolConfig.class);
+
         // execution
         binder.bind(LocationFactory.class).to(HttpLocationFactory.class).in(Scopes.SINGLETON);
 
@@ -426,6 +437,7 @@ public class ServerMainModule
         binder.bind(SingleStreamSpillerFactory.class).to(FileSingleStreamSpillerFactory.class).in(Scopes.SINGLETON);
         binder.bind(PartitioningSpillerFactory.class).to(GenericPartitioningSpillerFactory.class).in(Scopes.SINGLETON);
         binder.bind(SpillerStats.class).in(Scopes.SINGLETON);
+        binder.bind(SpillPathStatsExporter.class).in(Scopes.SINGLETON);
         newExporter(binder).export(SpillerFactory.class).withGeneratedName();
         binder.bind(LocalSpillManager.class).in(Scopes.SINGLETON);
         configBinder(binder).bindConfig(NodeSpillConfig.class);
@@ -42,6 +42,8 @@ import io.trino.execution.QueryInfo;
 import io.trino.execution.QueryManager;
 import io.trino.execution.QueryState;
 import io.trino.execution.QueryStats;
+import io.trino.execution.ResultCache;
+import io.trino.execution.ResultCache.ResultRecorder;
 import io.trino.execution.StageId;
 import io.trino.execution.StageInfo;
 import io.trino.execution.TaskInfo;
@@ -78,6 +80,8 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -97,7 +101,8 @@ import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addTimeout;
-import static io.trino.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.trino.SystemSessionProperties.getExchangeCompressionCodec;
+import static io.trino.SystemSessionProperties.isExchangeAdaptiveCompressionEnabled;
 import static io.trino.execution.QueryState.FAILED;
 import static io.trino.server.protocol.QueryResultRows.queryResultRowsBuilder;
 import static io.trino.server.protocol.Slug.Context.EXECUTING_QUERY;
@@ -132,6 +137,7 @@ class Query
 
     private final PagesSerde serde;
     private final boolean supportsParametricDateTime;
+    private final ResultCache resultCache;
 
     @GuardedBy("this")
     private OptionalLong nextToken = OptionalLong.of(0);
@@ -184,6 +190,12 @@ class Query
     @GuardedBy("this")
     private Long updateCount;
 
+    @GuardedBy("this")
+    private Deque<Page> cachedResultPages;
+
+    @GuardedBy("this")
+    private Optional<ResultRecorder> resultRecorder = Optional.empty();
+
     public static Query create(
             Session session,
             Slug slug,
@@ -192,9 +204,10 @@ class Query
             ExchangeClient exchangeClient,
             Executor dataProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            ResultCache resultCache)
     {
-        Query result = new Query(session, slug, queryManager, queryInfoUrl, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde);
+        Query result = new Query(session, slug, queryManager, queryInfoUrl, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde, resultCache);
 
         result.queryManager.addOutputInfoListener(result.getQueryId(), result::setQueryOutputInfo);
 
@@ -216,7 +229,8 @@ class Query
             ExchangeClient exchangeClient,
             Executor resultsProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            ResultCache resultCache)
     {
         requireNonNull(session, "session is null");
         requireNonNull(slug, "slug is null");
@@ -236,7 +250,8 @@ class Query
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
         this.supportsParametricDateTime = session.getClientCapabilities().contains(ClientCapabilities.PARAMETRIC_DATETIME.toString());
-        serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)).createPagesSerde();
+        serde = new PagesSerdeFactory(blockEncodingSerde, getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)).createPagesSerde();
+        this.resultCache = requireNonNull(resultCache, "resultCache is null");
     }
 
     public void cancel()
@@ -352,6 +367,10 @@ class Query
 
     private synchronized ListenableFuture<Void> getFutureStateChange()
     {
+        if (cachedResultPages != null && !cachedResultPages.isEmpty()) {
+            return immediateVoidFuture();
+        }
+
         // if the exchange client is open, wait for data
         if (!exchangeClient.isClosed()) {
             return exchangeClient.isBlocked();
@@ -437,11 +456,16 @@ class Query
         // (1) the query is not done AND the query state is not FAILED
         //   OR
         // (2)there is more data to send (due to buffering)
-        if ((!queryInfo.isFinalQueryInfo() && queryInfo.getState() != FAILED) || !exchangeClient.isClosed()) {
+        if ((!queryInfo.isFinalQueryInfo() && queryInfo.getState() != FAILED) || !exchangeClient.isClosed() || hasPendingCachedResult(queryInfo)) {
             nextToken = OptionalLong.of(token + 1);
         }
         else {
             nextToken = OptionalLong.empty();
+            // all pages of a successful query have been read
+            if (queryInfo.getState() == QueryState.FINISHED) {
+                resultRecorder.ifPresent(ResultRecorder::finish);
+            }
+            resultRecorder = Optional.empty();
         }
 
         URI nextResultsUri = null;
@@ -498,7 +522,8 @@ class Query
     private synchronized QueryResultRows removePagesFromExchange(QueryInfo queryInfo, long targetResultBytes)
     {
         // For queries with no output, return a fake boolean result for clients that require it.
-        if ((queryInfo.getState() == QueryState.FINISHED) && queryInfo.getOutputStage().isEmpty()) {
+        // Queries answered from the result cache have output fields, but no output stage.
+        if ((queryInfo.getState() == QueryState.FINISHED) && queryInfo.getOutputStage().isEmpty() && queryInfo.getFieldNames().isEmpty()) {
             return queryResultRowsBuilder(session)
                     .withSingleBooleanValue(createColumn("result", BooleanType.BOOLEAN), true)
                     .build();
@@ -518,12 +543,21 @@ class Query
         try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
             long bytes = 0;
             while (bytes < targetResultBytes) {
-                SerializedPage serializedPage = exchangeClient.pollPage();
-                if (serializedPage == null) {
-                    break;
+                Page page;
+                if (cachedResultPages != null && !cachedResultPages.isEmpty()) {
+                    page = cachedResultPages.poll();
+                }
+                else {
+                    SerializedPage serializedPage = exchangeClient.pollPage();
+                    if (serializedPage == null) {
+                        break;
+                    }
+                    page = serde.deserialize(context, serializedPage);
+                    if (resultRecorder.isPresent()) {
+                        resultRecorder.get().addPage(page);
+                    }
                 }
 
-                Page page = serde.deserialize(context, serializedPage);
                 bytes += page.getLogicalSizeInBytes();
                 resultBuilder.addPage(page);
             }
@@ -575,6 +609,9 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+
+            outputInfo.getCachedResult().ifPresent(pages -> cachedResultPages = new ArrayDeque<>(pages));
+            resultRecorder = outputInfo.getResultCacheKey().map(resultCache::createRecorder);
         }
 
         for (URI outputLocation : outputInfo.getBufferLocations()) {
@@ -585,6 +622,15 @@ class Query
         }
     }
 
+    private synchronized boolean hasPendingCachedResult(QueryInfo queryInfo)
+    {
+        if (cachedResultPages != null) {
+            return !cachedResultPages.isEmpty();
+        }
+        // the output info of a query answered from the result cache can arrive after the query finished
+        return queryInfo.getState() == QueryState.FINISHED && queryInfo.getOutputStage().isEmpty() && !queryInfo.getFieldNames().isEmpty();
+    }
+
     private ListenableFuture<Void> queryDoneFuture(QueryState currentState)
     {
         if (currentState.isDone()) {
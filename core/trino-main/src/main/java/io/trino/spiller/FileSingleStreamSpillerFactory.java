@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.inject.Inject;
 import io.airlift.log.Logger;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.execution.buffer.PagesSerde;
 import io.trino.execution.buffer.PagesSerdeFactory;
 import io.trino.memory.context.LocalMemoryContext;
@@ -42,10 +43,12 @@ import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.trino.spi.StandardErrorCode.OUT_OF_SPILL_SPACE;
 import static io.trino.sql.analyzer.FeaturesConfig.SPILLER_SPILL_PATH;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.nio.file.Files.createDirectories;
 import static java.nio.file.Files.createTempFile;
@@ -77,6 +80,8 @@ public class FileSingleStreamSpillerFactory
     private final SpillerStats spillerStats;
     private final double maxUsedSpaceThreshold;
     private final boolean spillEncryptionEnabled;
+    private final boolean spillStripingEnabled;
+    private final int spillStripeSize;
     private int roundRobinIndex;
     private final LoadingCache<Path, Boolean> spillPathHealthCache;
 
@@ -91,8 +96,10 @@ public class FileSingleStreamSpillerFactory
                 spillerStats,
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths(),
                 requireNonNull(featuresConfig, "featuresConfig is null").getSpillMaxUsedSpaceThreshold(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled(),
-                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled());
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillCompressionEnabled() ? nodeSpillConfig.getSpillCompressionCodec() : CompressionCodec.NONE,
+                requireNonNull(nodeSpillConfig, "nodeSpillConfig is null").isSpillEncryptionEnabled(),
+                featuresConfig.isSpillerStripingEnabled(),
+                toIntExact(featuresConfig.getSpillerStripeSize().toBytes()));
     }
 
     @VisibleForTesting
@@ -102,10 +109,25 @@ public class FileSingleStreamSpillerFactory
             SpillerStats spillerStats,
             List<Path> spillPaths,
             double maxUsedSpaceThreshold,
-            boolean spillCompressionEnabled,
+            CompressionCodec spillCompressionCodec,
             boolean spillEncryptionEnabled)
     {
-        this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionEnabled);
+        this(executor, blockEncodingSerde, spillerStats, spillPaths, maxUsedSpaceThreshold, spillCompressionCodec, spillEncryptionEnabled, false, StripedFileSingleStreamSpiller.ALIGNMENT);
+    }
+
+    @VisibleForTesting
+    public FileSingleStreamSpillerFactory(
+            ListeningExecutorService executor,
+            BlockEncodingSerde blockEncodingSerde,
+            SpillerStats spillerStats,
+            List<Path> spillPaths,
+            double maxUsedSpaceThreshold,
+            CompressionCodec spillCompressionCodec,
+            boolean spillEncryptionEnabled,
+            boolean spillStripingEnabled,
+            int spillStripeSize)
+    {
+        this.serdeFactory = new PagesSerdeFactory(blockEncodingSerde, spillCompressionCodec, false);
         this.executor = requireNonNull(executor, "executor is null");
         this.spillerStats = requireNonNull(spillerStats, "spillerStats cannot be null");
         requireNonNull(spillPaths, "spillPaths is null");
@@ -123,6 +145,9 @@ public class FileSingleStreamSpillerFactory
         });
         this.maxUsedSpaceThreshold = maxUsedSpaceThreshold;
         this.spillEncryptionEnabled = spillEncryptionEnabled;
+        checkArgument(spillStripeSize % StripedFileSingleStreamSpiller.ALIGNMENT == 0, "spill stripe size must be a multiple of %s bytes", StripedFileSingleStreamSpiller.ALIGNMENT);
+        this.spillStripingEnabled = spillStripingEnabled;
+        this.spillStripeSize = spillStripeSize;
         this.roundRobinIndex = 0;
 
         this.spillPathHealthCache = CacheBuilder.newBuilder()
@@ -168,6 +193,18 @@ public class FileSingleStreamSpillerFactory
             spillCipher = Optional.of(new AesSpillCipher());
         }
         PagesSerde serde = serdeFactory.createPagesSerdeForSpill(spillCipher);
+        if (spillStripingEnabled) {
+            return new StripedFileSingleStreamSpiller(
+                    serde,
+                    executor,
+                    getNextSpillPaths(),
+                    spillStripeSize,
+                    spillerStats,
+                    spillContext,
+                    memoryContext,
+                    spillCipher,
+                    spillPathHealthCache::invalidateAll);
+        }
         return new FileSingleStreamSpiller(
                 serde,
                 executor,
@@ -196,6 +233,28 @@ public class FileSingleStreamSpillerFactory
         throw new TrinoException(OUT_OF_SPILL_SPACE, "No free or healthy space available for spill");
     }
 
+    private synchronized List<Path> getNextSpillPaths()
+    {
+        // all eligible paths are used, starting from the next path in order, so that short spills are spread evenly
+        ImmutableList.Builder<Path> paths = ImmutableList.builder();
+        int spillPathsCount = spillPaths.size();
+        for (int i = 0; i < spillPathsCount; ++i) {
+            Path path = spillPaths.get((roundRobinIndex + i) % spillPathsCount);
+            if (hasEnoughDiskSpace(path) && spillPathHealthCache.getUnchecked(path)) {
+                paths.add(path);
+            }
+        }
+        if (spillPaths.isEmpty()) {
+            throw new TrinoException(OUT_OF_SPILL_SPACE, "No spill paths configured");
+        }
+        roundRobinIndex = (roundRobinIndex + 1) % spillPathsCount;
+        List<Path> eligiblePaths = paths.build();
+        if (eligiblePaths.isEmpty()) {
+            throw new TrinoException(OUT_OF_SPILL_SPACE, "No free or healthy space available for spill");
+        }
+        return eligiblePaths;
+    }
+
     private boolean hasEnoughDiskSpace(Path path)
     {
         try {
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.spiller.SpillerStats.SpillPathStats;
+import io.trino.sql.analyzer.FeaturesConfig;
+import org.weakref.jmx.MBeanExport;
+import org.weakref.jmx.MBeanExporter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.GuardedBy;
+import javax.inject.Inject;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Exports the {@link SpillPathStats} of every configured spill path as a separate MBean.
+ */
+public class SpillPathStatsExporter
+{
+    @GuardedBy("this")
+    private final List<MBeanExport> mbeanExports = new ArrayList<>();
+
+    private final MBeanExporter exporter;
+    private final SpillerStats spillerStats;
+    private final List<Path> spillPaths;
+
+    @Inject
+    public SpillPathStatsExporter(MBeanExporter exporter, SpillerStats spillerStats, FeaturesConfig featuresConfig)
+    {
+        this.exporter = requireNonNull(exporter, "exporter is null");
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.spillPaths = ImmutableList.copyOf(requireNonNull(featuresConfig, "featuresConfig is null").getSpillerSpillPaths());
+    }
+
+    @PostConstruct
+    public synchronized void export()
+    {
+        checkState(mbeanExports.isEmpty(), "MBeans already exported");
+
+        for (Path spillPath : spillPaths) {
+            mbeanExports.add(exporter.exportWithGeneratedName(spillerStats.getSpillPathStats(spillPath), SpillPathStats.class, ImmutableMap.<String, String>builder()
+                    .put("name", SpillPathStats.class.getSimpleName())
+                    .put("path", spillPath.toString())
+                    .build()));
+        }
+    }
+
+    @PreDestroy
+    public synchronized void unexport()
+    {
+        for (MBeanExport mbeanExport : mbeanExports) {
+            mbeanExport.unexport();
+        }
+        mbeanExports.clear();
+    }
+}
@@ -13,13 +13,21 @@
  */
 package io.trino.spiller;
 
+import com.google.common.collect.ImmutableMap;
 import org.weakref.jmx.Managed;
 
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static java.util.concurrent.TimeUnit.SECONDS;
+
 public class SpillerStats
 {
     protected final AtomicLong totalSpilledBytes = new AtomicLong();
+    private final ConcurrentMap<Path, SpillPathStats> spillPathStats = new ConcurrentHashMap<>();
 
     @Managed
     public long getTotalSpilledBytes()
@@ -31,4 +39,76 @@ public class SpillerStats
     {
         totalSpilledBytes.addAndGet(delta);
     }
+
+    public SpillPathStats getSpillPathStats(Path spillPath)
+    {
+        return spillPathStats.computeIfAbsent(spillPath, ignored -> new SpillPathStats());
+    }
+
+    public Map<Path, SpillPathStats> getSpillPathStats()
+    {
+        return ImmutableMap.copyOf(spillPathStats);
+    }
+
+    public static class SpillPathStats
+    {
+        private final AtomicLong writtenBytes = new AtomicLong();
+        private final AtomicLong writeTimeNanos = new AtomicLong();
+        private final AtomicLong readBytes = new AtomicLong();
+        private final AtomicLong readTimeNanos = new AtomicLong();
+
+        public void addWrite(long bytes, long nanos)
+        {
+            writtenBytes.addAndGet(bytes);
+            writeTimeNanos.addAndGet(nanos);
+        }
+
+        public void addReadBytes(long bytes)
+        {
+            readBytes.addAndGet(bytes);
+        }
+
+        public void addReadTime(long nanos)
+        {
+            readTimeNanos.addAndGet(nanos);
+        }
+
+        @Managed
+        public long getWrittenBytes()
+        {
+            return writtenBytes.get();
+        }
+
+        @Managed
+        public long getReadBytes()
+        {
+            return readBytes.get();
+        }
+
+        /**
+         * Bytes written per second of time spent in writes to this path
+         */
+        @Managed
+        public double getWriteThroughput()
+        {
+            return throughput(writtenBytes.get(), writeTimeNanos.get());
+        }
+
+        /**
+         * Bytes read per second of time spent in reads from this path
+         */
+        @Managed
+        public double getReadThroughput()
+        {
+            return throughput(readBytes.get(), readTimeNanos.get());
+        }
+
+        private static double throughput(long bytes, long nanos)
+        {
+            if (nanos == 0) {
+                return 0;
+            }
+            return (double) bytes * SECONDS.toNanos(1) / nanos;
+        }
+    }
 }
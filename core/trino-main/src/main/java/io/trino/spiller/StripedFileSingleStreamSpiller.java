@@ -0,0 +1,468 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.slice.InputStreamSliceInput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.SliceOutput;
+import io.trino.execution.buffer.PagesSerde;
+import io.trino.execution.buffer.PagesSerdeUtil;
+import io.trino.execution.buffer.SerializedPage;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.SpillContext;
+import io.trino.spi.Page;
+import io.trino.spi.TrinoException;
+import io.trino.spiller.SpillerStats.SpillPathStats;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.Futures.immediateVoidFuture;
+import static io.trino.execution.buffer.PagesSerdeUtil.writeSerializedPage;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spiller.FileSingleStreamSpiller.BUFFER_SIZE;
+import static io.trino.spiller.FileSingleStreamSpiller.closeWhenExhausted;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_PREFIX;
+import static io.trino.spiller.FileSingleStreamSpillerFactory.SPILL_FILE_SUFFIX;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spiller that stripes the spilled stream across files on several spill paths.
+ * The stream is cut into stripes of equal size, and stripe {@code i} is stored in
+ * the file on path {@code i % paths}. Full stripes are written with positional
+ * asynchronous writes from aligned buffers, so all paths are written concurrently.
+ * Spilled pages are read back through memory-mapped stripes, with the next stripe
+ * of every path being loaded ahead of the reader.
+ */
+@NotThreadSafe
+public class StripedFileSingleStreamSpiller
+        implements SingleStreamSpiller
+{
+    @VisibleForTesting
+    static final int ALIGNMENT = 4096;
+
+    private final List<FileHolder> targetFiles;
+    private final List<AsynchronousFileChannel> channels;
+    private final List<SpillPathStats> spillPathStats;
+    private final int stripeSize;
+    private final ByteBuffer[] stripeBuffers;
+    private final ListenableFuture<?>[] stripeWrites;
+    private final StripeOutputStream stripeOutput = new StripeOutputStream();
+
+    private final Closer closer = Closer.create();
+    private final PagesSerde serde;
+    private final SpillerStats spillerStats;
+    private final SpillContext localSpillContext;
+    private final LocalMemoryContext memoryContext;
+
+    private final ListeningExecutorService executor;
+
+    private boolean writable = true;
+    private long spilledPagesInMemorySize;
+    private ListenableFuture<Void> spillInProgress = immediateVoidFuture();
+
+    private final Runnable fileSystemErrorHandler;
+
+    public StripedFileSingleStreamSpiller(
+            PagesSerde serde,
+            ListeningExecutorService executor,
+            List<Path> spillPaths,
+            int stripeSize,
+            SpillerStats spillerStats,
+            SpillContext spillContext,
+            LocalMemoryContext memoryContext,
+            Optional<SpillCipher> spillCipher,
+            Runnable fileSystemErrorHandler)
+    {
+        this.serde = requireNonNull(serde, "serde is null");
+        this.executor = requireNonNull(executor, "executor is null");
+        requireNonNull(spillPaths, "spillPaths is null");
+        checkArgument(!spillPaths.isEmpty(), "spillPaths is empty");
+        checkArgument(stripeSize > 0 && stripeSize % ALIGNMENT == 0, "stripeSize must be a positive multiple of %s", ALIGNMENT);
+        this.stripeSize = stripeSize;
+        this.spillerStats = requireNonNull(spillerStats, "spillerStats is null");
+        this.localSpillContext = spillContext.newLocalSpillContext();
+        this.memoryContext = requireNonNull(memoryContext, "memoryContext is null");
+        if (requireNonNull(spillCipher, "spillCipher is null").isPresent()) {
+            closer.register(spillCipher.get()::close);
+        }
+        // The stripe buffers are reserved up front and released in close() for the same reason
+        // as in FileSingleStreamSpiller: close() may run concurrently with writePages()
+        this.memoryContext.setBytes((long) stripeSize * spillPaths.size());
+        this.fileSystemErrorHandler = requireNonNull(fileSystemErrorHandler, "filesystemErrorHandler is null");
+        this.stripeBuffers = new ByteBuffer[spillPaths.size()];
+        this.stripeWrites = new ListenableFuture<?>[spillPaths.size()];
+        Arrays.fill(stripeWrites, immediateVoidFuture());
+
+        ImmutableList.Builder<FileHolder> targetFiles = ImmutableList.builder();
+        ImmutableList.Builder<AsynchronousFileChannel> channels = ImmutableList.builder();
+        ImmutableList.Builder<SpillPathStats> spillPathStats = ImmutableList.builder();
+        try {
+            for (Path spillPath : spillPaths) {
+                FileHolder targetFile = closer.register(new FileHolder(Files.createTempFile(spillPath, SPILL_FILE_PREFIX, SPILL_FILE_SUFFIX)));
+                targetFiles.add(targetFile);
+                channels.add(closer.register(targetFile.newAsynchronousFileChannel(WRITE)));
+                spillPathStats.add(spillerStats.getSpillPathStats(spillPath));
+            }
+        }
+        catch (IOException e) {
+            this.fileSystemErrorHandler.run();
+            try {
+                closer.close();
+            }
+            catch (IOException | RuntimeException closeException) {
+                e.addSuppressed(closeException);
+            }
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to create spill file", e);
+        }
+        this.targetFiles = targetFiles.build();
+        this.channels = channels.build();
+        this.spillPathStats = spillPathStats.build();
+    }
+
+    @Override
+    public ListenableFuture<Void> spill(Iterator<Page> pageIterator)
+    {
+        requireNonNull(pageIterator, "pageIterator is null");
+        checkNoSpillInProgress();
+        spillInProgress = Futures.submit(() -> writePages(pageIterator), executor);
+        return spillInProgress;
+    }
+
+    @Override
+    public long getSpilledPagesInMemorySize()
+    {
+        return spilledPagesInMemorySize;
+    }
+
+    @Override
+    public Iterator<Page> getSpilledPages()
+    {
+        checkNoSpillInProgress();
+        return readPages();
+    }
+
+    @Override
+    public ListenableFuture<List<Page>> getAllSpilledPages()
+    {
+        return executor.submit(() -> ImmutableList.copyOf(getSpilledPages()));
+    }
+
+    private void writePages(Iterator<Page> pageIterator)
+    {
+        checkState(writable, "Spilling no longer allowed. The spiller has been made non-writable on first read for subsequent reads to be consistent");
+        // the slice output is only flushed, as the stripe stream outlives a single spill
+        SliceOutput output = new OutputStreamSliceOutput(stripeOutput, BUFFER_SIZE);
+        try (PagesSerde.PagesSerdeContext context = serde.newContext()) {
+            while (pageIterator.hasNext()) {
+                Page page = pageIterator.next();
+                spilledPagesInMemorySize += page.getSizeInBytes();
+                SerializedPage serializedPage = serde.serialize(context, page);
+                long pageSize = serializedPage.getSizeInBytes();
+                localSpillContext.updateBytes(pageSize);
+                spillerStats.addToTotalSpilledBytes(pageSize);
+                writeSerializedPage(output, serializedPage);
+            }
+            output.flush();
+        }
+        catch (UncheckedIOException | IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to spill pages", e);
+        }
+    }
+
+    private Iterator<Page> readPages()
+    {
+        checkState(writable, "Repeated reads are disallowed to prevent potential resource leaks");
+        writable = false;
+
+        try {
+            stripeOutput.finish();
+            InputStream input = closer.register(new StripeInputStream(stripeOutput.getSize()));
+            Iterator<Page> pages = PagesSerdeUtil.readPages(serde, new InputStreamSliceInput(input, BUFFER_SIZE));
+            return closeWhenExhausted(pages, input);
+        }
+        catch (IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to read spilled pages", e);
+        }
+    }
+
+    @Override
+    public void close()
+    {
+        closer.register(localSpillContext);
+        closer.register(() -> memoryContext.setBytes(0));
+        try {
+            closer.close();
+        }
+        catch (IOException e) {
+            fileSystemErrorHandler.run();
+            throw new TrinoException(GENERIC_INTERNAL_ERROR, "Failed to close spiller", e);
+        }
+    }
+
+    private void checkNoSpillInProgress()
+    {
+        checkState(spillInProgress.isDone(), "spill in progress");
+    }
+
+    private int getPath(long stripe)
+    {
+        return toIntExact(stripe % targetFiles.size());
+    }
+
+    private long getPositionInFile(long stripe)
+    {
+        return stripe / targetFiles.size() * stripeSize;
+    }
+
+    private ListenableFuture<?> writeStripe(int path, ByteBuffer buffer, long position)
+    {
+        SettableFuture<?> future = SettableFuture.create();
+        AsynchronousFileChannel channel = channels.get(path);
+        long start = System.nanoTime();
+        channel.write(buffer, position, null, new CompletionHandler<>()
+        {
+            @Override
+            public void completed(Integer written, Object attachment)
+            {
+                if (buffer.hasRemaining()) {
+                    channel.write(buffer, position + buffer.position(), null, this);
+                    return;
+                }
+                spillPathStats.get(path).addWrite(buffer.limit(), System.nanoTime() - start);
+                future.set(null);
+            }
+
+            @Override
+            public void failed(Throwable exception, Object attachment)
+            {
+                future.setException(exception);
+            }
+        });
+        return future;
+    }
+
+    private static void waitForWrite(ListenableFuture<?> write)
+            throws IOException
+    {
+        try {
+            write.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing spill stripe");
+        }
+        catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to write spill stripe", e.getCause());
+        }
+    }
+
+    private static ByteBuffer allocateAligned(int size)
+    {
+        return ByteBuffer.allocateDirect(size + ALIGNMENT).alignedSlice(ALIGNMENT);
+    }
+
+    private class StripeOutputStream
+            extends OutputStream
+    {
+        private long stripe;
+        private ByteBuffer buffer;
+        private long size;
+
+        @Override
+        public void write(int value)
+                throws IOException
+        {
+            write(new byte[] {(byte) value}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length)
+                throws IOException
+        {
+            while (length > 0) {
+                if (buffer == null) {
+                    buffer = nextBuffer();
+                }
+                int chunk = min(length, buffer.remaining());
+                buffer.put(bytes, offset, chunk);
+                offset += chunk;
+                length -= chunk;
+                size += chunk;
+                if (!buffer.hasRemaining()) {
+                    submitStripe();
+                }
+            }
+        }
+
+        public long getSize()
+        {
+            return size;
+        }
+
+        /**
+         * Writes the last, partially filled stripe and waits for all pending writes.
+         */
+        public void finish()
+                throws IOException
+        {
+            if (buffer != null && buffer.position() > 0) {
+                submitStripe();
+            }
+            for (ListenableFuture<?> write : stripeWrites) {
+                waitForWrite(write);
+            }
+        }
+
+        private ByteBuffer nextBuffer()
+                throws IOException
+        {
+            int path = getPath(stripe);
+            // the buffer of a path is reused once the previous stripe of that path is written
+            waitForWrite(stripeWrites[path]);
+            if (stripeBuffers[path] == null) {
+                stripeBuffers[path] = allocateAligned(stripeSize);
+            }
+            ByteBuffer buffer = stripeBuffers[path];
+            buffer.clear();
+            return buffer;
+        }
+
+        private void submitStripe()
+        {
+            int path = getPath(stripe);
+            buffer.flip();
+            stripeWrites[path] = writeStripe(path, buffer, getPositionInFile(stripe));
+            buffer = null;
+            stripe++;
+        }
+    }
+
+    private class StripeInputStream
+            extends InputStream
+    {
+        private final long size;
+        private final long stripes;
+        private final List<FileChannel> readChannels;
+        private final Deque<MappedByteBuffer> readAhead = new ArrayDeque<>();
+        private long nextStripe;
+        private MappedByteBuffer current;
+
+        public StripeInputStream(long size)
+                throws IOException
+        {
+            this.size = size;
+            this.stripes = (size + stripeSize - 1) / stripeSize;
+            ImmutableList.Builder<FileChannel> readChannels = ImmutableList.builder();
+            for (FileHolder targetFile : targetFiles) {
+                readChannels.add(closer.register(targetFile.newFileChannel(READ)));
+            }
+            this.readChannels = readChannels.build();
+        }
+
+        @Override
+        public int read()
+                throws IOException
+        {
+            if (!ensureCurrent()) {
+                return -1;
+            }
+            return current.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length)
+                throws IOException
+        {
+            if (length == 0) {
+                return 0;
+            }
+            if (!ensureCurrent()) {
+                return -1;
+            }
+            int chunk = min(length, current.remaining());
+            current.get(bytes, offset, chunk);
+            return chunk;
+        }
+
+        private boolean ensureCurrent()
+                throws IOException
+        {
+            if (current != null && current.hasRemaining()) {
+                return true;
+            }
+            // keep the next stripe of every path mapped and loading, so that all paths are read concurrently
+            while (readAhead.size() < readChannels.size() && nextStripe < stripes) {
+                readAhead.add(mapStripe(nextStripe));
+                nextStripe++;
+            }
+            current = readAhead.poll();
+            return current != null;
+        }
+
+        private MappedByteBuffer mapStripe(long stripe)
+                throws IOException
+        {
+            int path = getPath(stripe);
+            int length = toIntExact(min(stripeSize, size - stripe * stripeSize));
+            MappedByteBuffer mapped = readChannels.get(path).map(READ_ONLY, getPositionInFile(stripe), length);
+            SpillPathStats stats = spillPathStats.get(path);
+            stats.addReadBytes(length);
+            executor.execute(() -> {
+                long start = System.nanoTime();
+                mapped.load();
+                stats.addReadTime(System.nanoTime() - start);
+            });
+            return mapped;
+        }
+    }
+}
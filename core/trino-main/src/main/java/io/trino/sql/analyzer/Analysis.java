@@ -175,6 +175,7 @@ public class Analysis
     private final Map<NodeRef<Expression>, ResolvedFunction> frameBoundCalculations = new LinkedHashMap<>();
     private final Map<NodeRef<Relation>, List<Type>> relationCoercions = new LinkedHashMap<>();
     private final Map<NodeRef<FunctionCall>, RoutineEntry> resolvedFunctions = new LinkedHashMap<>();
+    private final Map<NodeRef<Parameter>, ResolvedFunction> parameterPlaceholders = new LinkedHashMap<>();
     private final Map<NodeRef<Identifier>, LambdaArgumentDeclaration> lambdaArgumentReferences = new LinkedHashMap<>();
 
     private final Map<Field, ColumnHandle> columns = new LinkedHashMap<>();
@@ -592,6 +593,13 @@ public class Analysis
         resolvedFunctions.put(NodeRef.of(node), new RoutineEntry(function, authorization));
     }
 
+    public List<ResolvedFunction> getResolvedFunctions()
+    {
+        return resolvedFunctions.values().stream()
+                .map(RoutineEntry::getFunction)
+                .collect(toImmutableList());
+    }
+
     public Set<NodeRef<Expression>> getColumnReferences()
     {
         return unmodifiableSet(columnReferences.keySet());
@@ -819,6 +827,19 @@ public class Analysis
         return parameters;
     }
 
+    /**
+     * Plans the parameter as a call to the placeholder function instead of its value, so that the plan can be reused for other values.
+     */
+    public void setParameterPlaceholder(Parameter parameter, ResolvedFunction placeholder)
+    {
+        parameterPlaceholders.put(NodeRef.of(parameter), requireNonNull(placeholder, "placeholder is null"));
+    }
+
+    public Optional<ResolvedFunction> getParameterPlaceholder(Parameter parameter)
+    {
+        return Optional.ofNullable(parameterPlaceholders.get(NodeRef.of(parameter)));
+    }
+
     public boolean isDescribe()
     {
         return isDescribe;
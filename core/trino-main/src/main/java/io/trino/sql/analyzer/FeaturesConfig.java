@@ -23,6 +23,8 @@ import io.airlift.configuration.LegacyConfig;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
 import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+import io.trino.execution.buffer.CompressionCodec;
 
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
@@ -70,6 +72,9 @@ public class FeaturesConfig
     private double networkCostWeight = 15;
     private boolean distributedIndexJoinsEnabled;
     private DataSize joinMaxBroadcastTableSize = DataSize.of(100, MEGABYTE);
+    private boolean adaptiveJoinDistributionEnabled;
+    private DataSize adaptiveJoinMaxBroadcastBuildSize = DataSize.of(100, MEGABYTE);
+    private boolean mergeJoinEnabled;
     private JoinDistributionType joinDistributionType = JoinDistributionType.AUTOMATIC;
     private boolean colocatedJoinsEnabled;
     private boolean groupedExecutionEnabled;
@@ -89,6 +94,8 @@ public class FeaturesConfig
     private boolean pushTableWriteThroughUnion = true;
     private DataIntegrityVerification exchangeDataIntegrityVerification = DataIntegrityVerification.ABORT;
     private boolean exchangeCompressionEnabled;
+    private CompressionCodec exchangeCompressionCodec = CompressionCodec.LZ4;
+    private boolean exchangeAdaptiveCompressionEnabled;
     private boolean legacyRowToJsonCast;
     private boolean optimizeMixedDistinctAggregations;
     private boolean unwrapCasts = true;
@@ -99,6 +106,12 @@ public class FeaturesConfig
     private int maxRecursionDepth = 10;
 
     private boolean dictionaryAggregation;
+    private boolean flatGroupByHash;
+    private boolean adaptivePartialAggregationEnabled;
+    private long adaptivePartialAggregationMinRows = 100_000;
+    private double adaptivePartialAggregationUniqueRowsRatioThreshold = 0.8;
+    private boolean skewedPartitionKeyDetectionEnabled;
+    private double skewedPartitionKeyFactor = 4.0;
 
     private int re2JDfaStatesLimit = Integer.MAX_VALUE;
     private int re2JDfaRetries = 5;
@@ -107,8 +120,11 @@ public class FeaturesConfig
     private boolean spillOrderBy = true;
     private boolean spillWindowOperator = true;
     private DataSize aggregationOperatorUnspillMemoryLimit = DataSize.of(4, DataSize.Unit.MEGABYTE);
+    private DataSize joinOperatorUnspillMemoryLimit = DataSize.of(1, DataSize.Unit.GIGABYTE);
     private List<Path> spillerSpillPaths = ImmutableList.of();
     private int spillerThreads = 4;
+    private boolean spillerStripingEnabled;
+    private DataSize spillerStripeSize = DataSize.of(1, MEGABYTE);
     private double spillMaxUsedSpaceThreshold = 0.9;
     private boolean enableStatsCalculator = true;
     private boolean statisticsPrecalculationForPushdownEnabled;
@@ -272,6 +288,46 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isAdaptiveJoinDistributionEnabled()
+    {
+        return adaptiveJoinDistributionEnabled;
+    }
+
+    @Config("adaptive-join-distribution.enabled")
+    @ConfigDescription("Execute the query again with a partitioned join, when the build side of a broadcast join is larger than expected")
+    public FeaturesConfig setAdaptiveJoinDistributionEnabled(boolean adaptiveJoinDistributionEnabled)
+    {
+        this.adaptiveJoinDistributionEnabled = adaptiveJoinDistributionEnabled;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getAdaptiveJoinMaxBroadcastBuildSize()
+    {
+        return adaptiveJoinMaxBroadcastBuildSize;
+    }
+
+    @Config("adaptive-join-distribution.max-broadcast-build-size")
+    @ConfigDescription("Maximum observed size of the build side of a broadcast join, before the join is switched to partitioned distribution")
+    public FeaturesConfig setAdaptiveJoinMaxBroadcastBuildSize(DataSize adaptiveJoinMaxBroadcastBuildSize)
+    {
+        this.adaptiveJoinMaxBroadcastBuildSize = adaptiveJoinMaxBroadcastBuildSize;
+        return this;
+    }
+
+    public boolean isMergeJoinEnabled()
+    {
+        return mergeJoinEnabled;
+    }
+
+    @Config("optimizer.merge-join-enabled")
+    @ConfigDescription("Use a merge join instead of a hash join when both inputs are sorted on the join keys and the merge join is cheaper")
+    public FeaturesConfig setMergeJoinEnabled(boolean mergeJoinEnabled)
+    {
+        this.mergeJoinEnabled = mergeJoinEnabled;
+        return this;
+    }
+
     public boolean isGroupedExecutionEnabled()
     {
         return groupedExecutionEnabled;
@@ -515,6 +571,88 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isFlatGroupByHash()
+    {
+        return flatGroupByHash;
+    }
+
+    @Config("flat-group-by-hash")
+    @ConfigDescription("Use flat row-wise hash table for aggregations on fixed width and varchar keys")
+    public FeaturesConfig setFlatGroupByHash(boolean flatGroupByHash)
+    {
+        this.flatGroupByHash = flatGroupByHash;
+        return this;
+    }
+
+    public boolean isAdaptivePartialAggregationEnabled()
+    {
+        return adaptivePartialAggregationEnabled;
+    }
+
+    @Config("adaptive-partial-aggregation.enabled")
+    @ConfigDescription("Skip partial aggregation when it does not reduce the number of rows")
+    public FeaturesConfig setAdaptivePartialAggregationEnabled(boolean adaptivePartialAggregationEnabled)
+    {
+        this.adaptivePartialAggregationEnabled = adaptivePartialAggregationEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public long getAdaptivePartialAggregationMinRows()
+    {
+        return adaptivePartialAggregationMinRows;
+    }
+
+    @Config("adaptive-partial-aggregation.min-rows")
+    @ConfigDescription("Minimum number of rows a partial aggregation must process before it can be skipped")
+    public FeaturesConfig setAdaptivePartialAggregationMinRows(long adaptivePartialAggregationMinRows)
+    {
+        this.adaptivePartialAggregationMinRows = adaptivePartialAggregationMinRows;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    public double getAdaptivePartialAggregationUniqueRowsRatioThreshold()
+    {
+        return adaptivePartialAggregationUniqueRowsRatioThreshold;
+    }
+
+    @Config("adaptive-partial-aggregation.unique-rows-ratio-threshold")
+    @ConfigDescription("Skip partial aggregation when the ratio of unique groups to input rows is above this threshold")
+    public FeaturesConfig setAdaptivePartialAggregationUniqueRowsRatioThreshold(double adaptivePartialAggregationUniqueRowsRatioThreshold)
+    {
+        this.adaptivePartialAggregationUniqueRowsRatioThreshold = adaptivePartialAggregationUniqueRowsRatioThreshold;
+        return this;
+    }
+
+    public boolean isSkewedPartitionKeyDetectionEnabled()
+    {
+        return skewedPartitionKeyDetectionEnabled;
+    }
+
+    @Config("skewed-partition-key-detection.enabled")
+    @ConfigDescription("Sample the keys of hash partitioned exchanges and report keys that are sent to one partition much more often than others")
+    public FeaturesConfig setSkewedPartitionKeyDetectionEnabled(boolean skewedPartitionKeyDetectionEnabled)
+    {
+        this.skewedPartitionKeyDetectionEnabled = skewedPartitionKeyDetectionEnabled;
+        return this;
+    }
+
+    @DecimalMin(value = "1.0", inclusive = false)
+    public double getSkewedPartitionKeyFactor()
+    {
+        return skewedPartitionKeyFactor;
+    }
+
+    @Config("skewed-partition-key-detection.factor")
+    @ConfigDescription("A key is skewed when its share of rows is at least this many times the share of an average partition")
+    public FeaturesConfig setSkewedPartitionKeyFactor(double skewedPartitionKeyFactor)
+    {
+        this.skewedPartitionKeyFactor = skewedPartitionKeyFactor;
+        return this;
+    }
+
     @Min(2)
     public int getRe2JDfaStatesLimit()
     {
@@ -693,6 +831,19 @@ public class FeaturesConfig
         return this;
     }
 
+    public DataSize getJoinOperatorUnspillMemoryLimit()
+    {
+        return joinOperatorUnspillMemoryLimit;
+    }
+
+    @Config("join-operator-unspill-memory-limit")
+    @ConfigDescription("Spilled join build partition larger than this is re-partitioned instead of being unspilled at once")
+    public FeaturesConfig setJoinOperatorUnspillMemoryLimit(DataSize joinOperatorUnspillMemoryLimit)
+    {
+        this.joinOperatorUnspillMemoryLimit = joinOperatorUnspillMemoryLimit;
+        return this;
+    }
+
     public List<Path> getSpillerSpillPaths()
     {
         return spillerSpillPaths;
@@ -721,6 +872,34 @@ public class FeaturesConfig
         return this;
     }
 
+    public boolean isSpillerStripingEnabled()
+    {
+        return spillerStripingEnabled;
+    }
+
+    @Config("spiller-striping-enabled")
+    @ConfigDescription("Stripe each spill file across all spill paths instead of placing it on a single path")
+    public FeaturesConfig setSpillerStripingEnabled(boolean spillerStripingEnabled)
+    {
+        this.spillerStripingEnabled = spillerStripingEnabled;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    public DataSize getSpillerStripeSize()
+    {
+        return spillerStripeSize;
+    }
+
+    @Config("spiller-stripe-size")
+    @ConfigDescription("Size of a single stripe written to a spill path, when spill striping is enabled")
+    public FeaturesConfig setSpillerStripeSize(DataSize spillerStripeSize)
+    {
+        this.spillerStripeSize = spillerStripeSize;
+        return this;
+    }
+
     @DecimalMin("0.0")
     @DecimalMax("1.0")
     public double getMemoryRevokingThreshold()
@@ -802,6 +981,33 @@ public class FeaturesConfig
         return this;
     }
 
+    @NotNull
+    public CompressionCodec getExchangeCompressionCodec()
+    {
+        return exchangeCompressionCodec;
+    }
+
+    @Config("exchange.compression-codec")
+    @ConfigDescription("Compression codec used for exchanges when exchange compression is enabled")
+    public FeaturesConfig setExchangeCompressionCodec(CompressionCodec exchangeCompressionCodec)
+    {
+        this.exchangeCompressionCodec = exchangeCompressionCodec;
+        return this;
+    }
+
+    public boolean isExchangeAdaptiveCompressionEnabled()
+    {
+        return exchangeAdaptiveCompressionEnabled;
+    }
+
+    @Config("exchange.adaptive-compression-enabled")
+    @ConfigDescription("Stop compressing exchange pages for a while after pages do not compress well")
+    public FeaturesConfig setExchangeAdaptiveCompressionEnabled(boolean exchangeAdaptiveCompressionEnabled)
+    {
+        this.exchangeAdaptiveCompressionEnabled = exchangeAdaptiveCompressionEnabled;
+        return this;
+    }
+
     public DataIntegrityVerification getExchangeDataIntegrityVerification()
     {
         return exchangeDataIntegrityVerification;
@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.planner;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.trino.sql.planner.plan.ExchangeNode;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.PlanNode;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.sql.planner.plan.ProjectNode;
+import io.trino.sql.planner.plan.SimplePlanRewriter;
+import io.trino.sql.tree.Expression;
+import io.trino.sql.tree.SymbolReference;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.trino.operator.join.JoinUtils.isBuildSideReplicated;
+import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static io.trino.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.trino.sql.planner.plan.ExchangeNode.Scope.LOCAL;
+import static io.trino.sql.planner.plan.ExchangeNode.Scope.REMOTE;
+import static io.trino.sql.planner.plan.ExchangeNode.Type.REPARTITION;
+import static io.trino.sql.planner.plan.ExchangeNode.Type.REPLICATE;
+import static io.trino.sql.planner.plan.ExchangeNode.partitionedExchange;
+import static io.trino.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
+import static io.trino.sql.planner.plan.JoinNode.DistributionType.REPLICATED;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Switches broadcast joins of an optimized plan to partitioned distribution, after the build
+ * side of the join turned out to be too large to be replicated to every task. The remote
+ * exchange that replicates the build side is changed to repartition it on the join keys, and
+ * a remote exchange that repartitions the probe side on the join keys is added.
+ */
+public final class BroadcastJoinSwitcher
+{
+    private BroadcastJoinSwitcher() {}
+
+    /**
+     * Returns the broadcast joins of the fragment that can be switched to partitioned distribution.
+     */
+    public static Set<PlanNodeId> getSwitchableJoins(PlanFragment fragment)
+    {
+        // the stage of the join becomes hash partitioned, which is not compatible
+        // with connector partitioning, single node partitioning or grouped execution
+        PartitioningHandle partitioning = fragment.getPartitioning();
+        if (!(partitioning.equals(SOURCE_DISTRIBUTION) || partitioning.equals(FIXED_HASH_DISTRIBUTION)) ||
+                fragment.getStageExecutionDescriptor().isStageGroupedExecution()) {
+            return ImmutableSet.of();
+        }
+        return searchFrom(fragment.getRoot())
+                .where(node -> node instanceof JoinNode && isSwitchable((JoinNode) node))
+                .<JoinNode>findAll().stream()
+                .map(JoinNode::getId)
+                .collect(toImmutableSet());
+    }
+
+    /**
+     * Marks the switchable joins in all fragments of the plan, so that tasks report when
+     * the build side of these joins exceeds the limit.
+     */
+    public static SubPlan markSwitchableJoins(SubPlan subPlan)
+    {
+        List<SubPlan> children = subPlan.getChildren().stream()
+                .map(BroadcastJoinSwitcher::markSwitchableJoins)
+                .collect(toImmutableList());
+        PlanFragment fragment = subPlan.getFragment();
+        return new SubPlan(fragment.withSwitchableJoins(getSwitchableJoins(fragment)), children);
+    }
+
+    /**
+     * Returns true if the join replicates its build side to all tasks, and the build side could be partitioned instead.
+     */
+    public static boolean isSwitchable(JoinNode node)
+    {
+        return node.getDistributionType().orElse(null) == REPLICATED &&
+                !node.getCriteria().isEmpty() &&
+                isBuildSideReplicated(node);
+    }
+
+    /**
+     * Returns the plan with the given joins switched to partitioned distribution, or empty if any of them cannot be switched.
+     */
+    public static Optional<Plan> switchToPartitioned(Plan plan, Set<PlanNodeId> joins)
+    {
+        requireNonNull(plan, "plan is null");
+        requireNonNull(joins, "joins is null");
+
+        Set<PlanNodeId> switchedJoins = new HashSet<>();
+        PlanNode root = SimplePlanRewriter.rewriteWith(new Rewriter(joins, switchedJoins), plan.getRoot());
+        if (!switchedJoins.equals(joins)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Plan(root, plan.getTypes(), plan.getStatsAndCosts()));
+    }
+
+    private static class Rewriter
+            extends SimplePlanRewriter<Void>
+    {
+        private final Set<PlanNodeId> joins;
+        private final Set<PlanNodeId> switchedJoins;
+
+        public Rewriter(Set<PlanNodeId> joins, Set<PlanNodeId> switchedJoins)
+        {
+            this.joins = requireNonNull(joins, "joins is null");
+            this.switchedJoins = requireNonNull(switchedJoins, "switchedJoins is null");
+        }
+
+        @Override
+        public PlanNode visitJoin(JoinNode node, RewriteContext<Void> context)
+        {
+            JoinNode rewritten = (JoinNode) context.defaultRewrite(node);
+            if (!joins.contains(node.getId()) || rewritten.getDistributionType().orElse(null) != REPLICATED) {
+                return rewritten;
+            }
+
+            List<Symbol> probeKeys = rewritten.getCriteria().stream()
+                    .map(JoinNode.EquiJoinClause::getLeft)
+                    .collect(toImmutableList());
+            List<Symbol> buildKeys = rewritten.getCriteria().stream()
+                    .map(JoinNode.EquiJoinClause::getRight)
+                    .collect(toImmutableList());
+
+            Optional<PlanNode> build = repartitionReplicatedBuild(rewritten.getRight(), buildKeys);
+            if (build.isEmpty()) {
+                return rewritten;
+            }
+            // the hash is computed from the keys on both sides, so that the partitions of the two sides match
+            PlanNode probe = partitionedExchange(
+                    new PlanNodeId(node.getId() + "_probe"),
+                    REMOTE,
+                    rewritten.getLeft(),
+                    probeKeys,
+                    Optional.empty());
+
+            switchedJoins.add(node.getId());
+            return ((JoinNode) rewritten.replaceChildren(ImmutableList.of(probe, build.get())))
+                    .withDistributionType(PARTITIONED);
+        }
+
+        /**
+         * Finds the remote exchange that replicates the build side, through the projections and
+         * local exchanges above it, and changes it to repartition the build side on the keys.
+         */
+        private static Optional<PlanNode> repartitionReplicatedBuild(PlanNode node, List<Symbol> keys)
+        {
+            if (node instanceof ProjectNode) {
+                ProjectNode project = (ProjectNode) node;
+                ImmutableList.Builder<Symbol> sourceKeys = ImmutableList.builder();
+                for (Symbol key : keys) {
+                    Expression expression = project.getAssignments().get(key);
+                    if (!(expression instanceof SymbolReference)) {
+                        // the key is computed above the exchange
+                        return Optional.empty();
+                    }
+                    sourceKeys.add(Symbol.from(expression));
+                }
+                return repartitionReplicatedBuild(project.getSource(), sourceKeys.build())
+                        .map(source -> project.replaceChildren(ImmutableList.of(source)));
+            }
+
+            if (!(node instanceof ExchangeNode) || node.getSources().size() != 1 || !node.getOutputSymbols().containsAll(keys)) {
+                return Optional.empty();
+            }
+            ExchangeNode exchange = (ExchangeNode) node;
+            if (exchange.getScope() == LOCAL) {
+                List<Symbol> sourceKeys = keys.stream()
+                        .map(key -> exchange.getInputs().get(0).get(exchange.getOutputSymbols().indexOf(key)))
+                        .collect(toImmutableList());
+                return repartitionReplicatedBuild(exchange.getSources().get(0), sourceKeys)
+                        .map(source -> exchange.replaceChildren(ImmutableList.of(source)));
+            }
+            if (exchange.getType() != REPLICATE) {
+                return Optional.empty();
+            }
+            return Optional.of(new ExchangeNode(
+                    exchange.getId(),
+                    REPARTITION,
+                    REMOTE,
+                    new PartitioningScheme(Partitioning.create(FIXED_HASH_DISTRIBUTION, keys), exchange.getOutputSymbols()),
+                    exchange.getSources(),
+                    exchange.getInputs(),
+                    exchange.getOrderingScheme()));
+        }
+    }
+}
@@ -17,17 +17,25 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.type.Type;
 import io.trino.sql.planner.plan.DynamicFilterId;
 import io.trino.sql.planner.plan.JoinNode;
 import io.trino.sql.planner.plan.PlanNode;
+import io.trino.type.BlockTypeOperators;
+import io.trino.type.BlockTypeOperators.BlockPositionXxHash64;
+
+import javax.annotation.concurrent.GuardedBy;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -36,6 +44,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.trino.spi.type.TypeUtils.writeNativeValue;
 import static java.util.Objects.requireNonNull;
 import static java.util.function.Function.identity;
 
@@ -55,7 +64,26 @@ public class LocalDynamicFilterConsumer
     // The resulting predicates from each build-side partition.
     private final List<TupleDomain<DynamicFilterId>> partitions;
 
-    public LocalDynamicFilterConsumer(Map<DynamicFilterId, Integer> buildChannels, Map<DynamicFilterId, Type> filterBuildTypes, int partitionCount)
+    // Whether build-side partitions may report Bloom filters before their predicates.
+    private final boolean collectBloomFilters;
+
+    // Hashes the discrete values of partitions which did not report a Bloom filter, as the build-side partitions hash their values.
+    private final BlockTypeOperators blockTypeOperators;
+
+    // Union of the Bloom filters reported so far, and the number of partitions which reported each of them.
+    @GuardedBy("this")
+    private final Map<DynamicFilterId, BlockedBloomFilter> bloomFilters = new HashMap<>();
+    @GuardedBy("this")
+    private final Map<DynamicFilterId, Integer> bloomFilterPartitions = new HashMap<>();
+    @GuardedBy("this")
+    private Map<DynamicFilterId, BlockedBloomFilter> bloomFiltersResult = ImmutableMap.of();
+
+    public LocalDynamicFilterConsumer(
+            Map<DynamicFilterId, Integer> buildChannels,
+            Map<DynamicFilterId, Type> filterBuildTypes,
+            int partitionCount,
+            boolean collectBloomFilters,
+            BlockTypeOperators blockTypeOperators)
     {
         this.buildChannels = requireNonNull(buildChannels, "buildChannels is null");
         this.filterBuildTypes = requireNonNull(filterBuildTypes, "filterBuildTypes is null");
@@ -65,6 +93,8 @@ public class LocalDynamicFilterConsumer
 
         this.partitionCount = partitionCount;
         this.partitions = new ArrayList<>(partitionCount);
+        this.collectBloomFilters = collectBloomFilters;
+        this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
     }
 
     public ListenableFuture<Map<DynamicFilterId, Domain>> getDynamicFilterDomains()
@@ -81,9 +111,17 @@ public class LocalDynamicFilterConsumer
             // NOTE: may result in a bit more relaxed constraint if there are multiple columns and multiple rows.
             // See the comment at TupleDomain::columnWiseUnion() for more details.
             partitions.add(tupleDomain);
-            if (partitions.size() == partitionCount || tupleDomain.isAll()) {
+            // When Bloom filters are collected, an 'all' predicate doesn't make the remaining partitions irrelevant.
+            if (partitions.size() == partitionCount || (tupleDomain.isAll() && !collectBloomFilters)) {
                 // No more partitions are left to be processed.
                 result = TupleDomain.columnWiseUnion(partitions);
+                if (partitions.size() == partitionCount) {
+                    ImmutableMap.Builder<DynamicFilterId, BlockedBloomFilter> bloomFiltersBuilder = ImmutableMap.builder();
+                    bloomFilters.forEach((filterId, bloomFilter) -> addDiscreteValues(filterId, bloomFilter)
+                            .ifPresent(completeBloomFilter -> bloomFiltersBuilder.put(filterId, completeBloomFilter)));
+                    bloomFiltersResult = bloomFiltersBuilder.build();
+                }
+                bloomFilters.clear();
             }
         }
 
@@ -92,6 +130,74 @@ public class LocalDynamicFilterConsumer
         }
     }
 
+    /**
+     * Adds the values of the partitions which stayed below the distinct values limit, and therefore reported
+     * their values instead of a Bloom filter, to the union of the reported Bloom filters. Returns empty if
+     * the values of some partition are in neither, because the Bloom filter would not be usable then.
+     */
+    @GuardedBy("this")
+    private Optional<BlockedBloomFilter> addDiscreteValues(DynamicFilterId filterId, BlockedBloomFilter bloomFilter)
+    {
+        int missingPartitions = partitionCount - bloomFilterPartitions.get(filterId);
+        if (missingPartitions == 0) {
+            return Optional.of(bloomFilter);
+        }
+
+        Type type = filterBuildTypes.get(filterId);
+        BlockBuilder values = type.createBlockBuilder(null, 0);
+        int discretePartitions = 0;
+        for (TupleDomain<DynamicFilterId> partition : partitions) {
+            if (partition.isNone()) {
+                // the partition has no rows which can be matched
+                discretePartitions++;
+                continue;
+            }
+            Domain domain = partition.getDomains().get().get(filterId);
+            if (domain == null) {
+                // the partition reported 'all'
+                continue;
+            }
+            if (domain.getValues().isNone()) {
+                // only null values, which are not matched
+                discretePartitions++;
+            }
+            else if (domain.getValues().isDiscreteSet()) {
+                domain.getValues().getDiscreteSet().forEach(value -> writeNativeValue(type, values, value));
+                discretePartitions++;
+            }
+        }
+        if (discretePartitions < missingPartitions) {
+            return Optional.empty();
+        }
+
+        BlockedBloomFilter result = new BlockedBloomFilter(bloomFilter.getBits().clone());
+        Block block = values.build();
+        BlockPositionXxHash64 hashOperator = blockTypeOperators.getXxHash64Operator(type);
+        for (int position = 0; position < block.getPositionCount(); position++) {
+            result.add(hashOperator.xxHash64(block, position));
+        }
+        return Optional.of(result);
+    }
+
+    private synchronized void addBloomFilters(Map<DynamicFilterId, BlockedBloomFilter> partitionBloomFilters)
+    {
+        // Called by DynamicFilterSourceOperator instances before they report their predicate.
+        verify(collectBloomFilters, "Bloom filters are not collected");
+        partitionBloomFilters.forEach((filterId, bloomFilter) -> {
+            bloomFilters.merge(filterId, bloomFilter, BlockedBloomFilter::union);
+            bloomFilterPartitions.merge(filterId, 1, Integer::sum);
+        });
+    }
+
+    /**
+     * Returns the Bloom filters collected from all build-side partitions.
+     * Valid only after the future returned by {@link #getDynamicFilterDomains()} is completed.
+     */
+    public synchronized Map<DynamicFilterId, BlockedBloomFilter> getBloomFilters()
+    {
+        return bloomFiltersResult;
+    }
+
     private Map<DynamicFilterId, Domain> convertTupleDomain(TupleDomain<DynamicFilterId> result)
     {
         if (result.isNone()) {
@@ -110,7 +216,9 @@ public class LocalDynamicFilterConsumer
             JoinNode planNode,
             List<Type> buildSourceTypes,
             int partitionCount,
-            Set<DynamicFilterId> collectedFilters)
+            Set<DynamicFilterId> collectedFilters,
+            boolean collectBloomFilters,
+            BlockTypeOperators blockTypeOperators)
     {
         checkArgument(!planNode.getDynamicFilters().isEmpty(), "Join node dynamicFilters is empty.");
         checkArgument(!collectedFilters.isEmpty(), "Collected dynamic filters set is empty");
@@ -134,7 +242,7 @@ public class LocalDynamicFilterConsumer
                 .collect(toImmutableMap(
                         Map.Entry::getKey,
                         entry -> buildSourceTypes.get(entry.getValue())));
-        return new LocalDynamicFilterConsumer(buildChannels, filterBuildTypes, partitionCount);
+        return new LocalDynamicFilterConsumer(buildChannels, filterBuildTypes, partitionCount, collectBloomFilters, blockTypeOperators);
     }
 
     public Map<DynamicFilterId, Integer> getBuildChannels()
@@ -147,6 +255,16 @@ public class LocalDynamicFilterConsumer
         return this::addPartition;
     }
 
+    public boolean isCollectingBloomFilters()
+    {
+        return collectBloomFilters;
+    }
+
+    public Consumer<Map<DynamicFilterId, BlockedBloomFilter>> getBloomFilterConsumer()
+    {
+        return this::addBloomFilters;
+    }
+
     @Override
     public String toString()
     {
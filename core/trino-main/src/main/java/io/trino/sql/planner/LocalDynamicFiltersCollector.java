@@ -13,6 +13,7 @@
  */
 package io.trino.sql.planner;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -21,6 +22,7 @@ import io.trino.Session;
 import io.trino.metadata.Metadata;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.DynamicFilter;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.type.Type;
@@ -35,6 +37,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -45,6 +48,7 @@ import static io.airlift.concurrent.MoreFutures.unmodifiableFuture;
 import static io.trino.sql.DynamicFilters.Descriptor;
 import static io.trino.sql.DynamicFilters.extractSourceSymbols;
 import static io.trino.sql.planner.DomainCoercer.applySaturatedCasts;
+import static io.trino.sql.tree.ComparisonExpression.Operator.EQUAL;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -56,6 +60,8 @@ class LocalDynamicFiltersCollector
     private final Session session;
     // Each future blocks until its dynamic filter is collected.
     private final Map<DynamicFilterId, SettableFuture<Domain>> futures = new HashMap<>();
+    // Bloom filters are collected before the domains of the corresponding dynamic filters.
+    private final Map<DynamicFilterId, BlockedBloomFilter> bloomFilters = new ConcurrentHashMap<>();
 
     public LocalDynamicFiltersCollector(Metadata metadata, TypeOperators typeOperators, Session session)
     {
@@ -87,6 +93,17 @@ class LocalDynamicFiltersCollector
                 });
     }
 
+    // Used during execution, before the domains of the same dynamic filters are collected.
+    public void collectDynamicFilterBloomFilters(Map<DynamicFilterId, BlockedBloomFilter> dynamicFilterBloomFilters)
+    {
+        dynamicFilterBloomFilters.forEach((filterId, bloomFilter) -> {
+            // Skip dynamic filters that are not applied locally.
+            if (futures.containsKey(filterId)) {
+                verify(bloomFilters.put(filterId, bloomFilter) == null, "Bloom filter %s already collected", filterId);
+            }
+        });
+    }
+
     // Called during TableScan planning (no need to be synchronized as local planning is single threaded)
     public DynamicFilter createDynamicFilter(List<Descriptor> descriptors, Map<Symbol, ColumnHandle> columnsMap, TypeProvider typeProvider)
     {
@@ -95,32 +112,61 @@ class LocalDynamicFiltersCollector
         // Iterate over dynamic filters that are collected (correspond to one of the futures), and required for filtering (correspond to one of the descriptors).
         // It is possible that some dynamic filters are collected in a different stage - and will not available here.
         // It is also possible that not all local dynamic filters are needed for this specific table scan.
-        List<ListenableFuture<TupleDomain<ColumnHandle>>> predicateFutures = descriptorMap.keySet().stream()
+        List<ListenableFuture<CollectedFilter>> filterFutures = descriptorMap.keySet().stream()
                 .filter(futures.keySet()::contains)
                 .map(filterId -> {
                     // Probe-side columns that can be filtered with this dynamic filter resulting domain.
                     return Futures.transform(
                             requireNonNull(futures.get(filterId), () -> format("Missing dynamic filter %s", filterId)),
-                            // Construct a probe-side predicate by duplicating the resulting domain over the corresponding columns.
-                            domain -> TupleDomain.withColumnDomains(
+                            domain -> {
+                                // Construct a probe-side predicate by duplicating the resulting domain over the corresponding columns.
+                                TupleDomain<ColumnHandle> predicate = TupleDomain.withColumnDomains(
+                                        descriptorMap.get(filterId).stream()
+                                                .collect(toImmutableMap(
+                                                        descriptor -> getProbeColumn(descriptor, columnsMap),
+                                                        descriptor -> {
+                                                            Type targetType = typeProvider.get(Symbol.from(descriptor.getInput()));
+                                                            Domain updatedDomain = descriptor.applyComparison(domain);
+                                                            if (!updatedDomain.getType().equals(targetType)) {
+                                                                return applySaturatedCasts(metadata, typeOperators, session, updatedDomain, targetType);
+                                                            }
+                                                            return updatedDomain;
+                                                        })));
+                                // Bloom filters hash build-side values, so they can only be used for equality on probe columns of the same type.
+                                BlockedBloomFilter bloomFilter = bloomFilters.get(filterId);
+                                ImmutableMap.Builder<ColumnHandle, BlockedBloomFilter> columnBloomFilters = ImmutableMap.builder();
+                                if (bloomFilter != null) {
                                     descriptorMap.get(filterId).stream()
-                                            .collect(toImmutableMap(
-                                                    descriptor -> {
-                                                        Symbol probeSymbol = Symbol.from(descriptor.getInput());
-                                                        return requireNonNull(columnsMap.get(probeSymbol), () -> format("Missing probe column for %s", probeSymbol));
-                                                    },
-                                                    descriptor -> {
-                                                        Type targetType = typeProvider.get(Symbol.from(descriptor.getInput()));
-                                                        Domain updatedDomain = descriptor.applyComparison(domain);
-                                                        if (!updatedDomain.getType().equals(targetType)) {
-                                                            return applySaturatedCasts(metadata, typeOperators, session, updatedDomain, targetType);
-                                                        }
-                                                        return updatedDomain;
-                                                    }))),
+                                            .filter(descriptor -> descriptor.getOperator() == EQUAL)
+                                            .filter(descriptor -> typeProvider.get(Symbol.from(descriptor.getInput())).equals(domain.getType()))
+                                            .map(descriptor -> getProbeColumn(descriptor, columnsMap))
+                                            .distinct()
+                                            .forEach(column -> columnBloomFilters.put(column, bloomFilter));
+                                }
+                                return new CollectedFilter(predicate, columnBloomFilters.build());
+                            },
                             directExecutor());
                 })
                 .collect(toImmutableList());
-        return new TableSpecificDynamicFilter(predicateFutures);
+        return new TableSpecificDynamicFilter(filterFutures);
+    }
+
+    private static ColumnHandle getProbeColumn(Descriptor descriptor, Map<Symbol, ColumnHandle> columnsMap)
+    {
+        Symbol probeSymbol = Symbol.from(descriptor.getInput());
+        return requireNonNull(columnsMap.get(probeSymbol), () -> format("Missing probe column for %s", probeSymbol));
+    }
+
+    private static class CollectedFilter
+    {
+        private final TupleDomain<ColumnHandle> predicate;
+        private final Map<ColumnHandle, BlockedBloomFilter> bloomFilters;
+
+        private CollectedFilter(TupleDomain<ColumnHandle> predicate, Map<ColumnHandle, BlockedBloomFilter> bloomFilters)
+        {
+            this.predicate = requireNonNull(predicate, "predicate is null");
+            this.bloomFilters = requireNonNull(bloomFilters, "bloomFilters is null");
+        }
     }
 
     // Table-specific dynamic filter (collects all domains for a specific table scan)
@@ -133,24 +179,34 @@ class LocalDynamicFiltersCollector
         @GuardedBy("this")
         private TupleDomain<ColumnHandle> currentPredicate;
 
+        @GuardedBy("this")
+        private Map<ColumnHandle, BlockedBloomFilter> currentBloomFilters;
+
         @GuardedBy("this")
         private int futuresLeft;
 
-        private TableSpecificDynamicFilter(List<ListenableFuture<TupleDomain<ColumnHandle>>> predicateFutures)
+        private TableSpecificDynamicFilter(List<ListenableFuture<CollectedFilter>> filterFutures)
         {
-            this.futuresLeft = predicateFutures.size();
-            this.isBlocked = predicateFutures.isEmpty() ? NOT_BLOCKED : new CompletableFuture();
+            this.futuresLeft = filterFutures.size();
+            this.isBlocked = filterFutures.isEmpty() ? NOT_BLOCKED : new CompletableFuture();
             this.currentPredicate = TupleDomain.all();
-            predicateFutures.stream().forEach(future -> addSuccessCallback(future, this::update, directExecutor()));
+            this.currentBloomFilters = ImmutableMap.of();
+            filterFutures.stream().forEach(future -> addSuccessCallback(future, this::update, directExecutor()));
         }
 
-        private void update(TupleDomain<ColumnHandle> predicate)
+        private void update(CollectedFilter filter)
         {
             CompletableFuture<?> currentFuture;
             synchronized (this) {
                 futuresLeft -= 1;
                 verify(futuresLeft >= 0);
-                currentPredicate = currentPredicate.intersect(predicate);
+                currentPredicate = currentPredicate.intersect(filter.predicate);
+                if (!filter.bloomFilters.isEmpty()) {
+                    Map<ColumnHandle, BlockedBloomFilter> bloomFilters = new HashMap<>(currentBloomFilters);
+                    // a column may be filtered by multiple dynamic filters, keep the first one
+                    filter.bloomFilters.forEach(bloomFilters::putIfAbsent);
+                    currentBloomFilters = ImmutableMap.copyOf(bloomFilters);
+                }
                 currentFuture = isBlocked;
                 // create next blocking future (if needed)
                 isBlocked = isComplete() ? NOT_BLOCKED : new CompletableFuture();
@@ -182,5 +238,11 @@ class LocalDynamicFiltersCollector
         {
             return currentPredicate;
         }
+
+        @Override
+        public synchronized Map<ColumnHandle, BlockedBloomFilter> getCurrentBloomFilters()
+        {
+            return currentBloomFilters;
+        }
     }
 }
@@ -54,6 +54,8 @@ import io.trino.operator.ExchangeClientSupplier;
 import io.trino.operator.ExchangeOperator.ExchangeOperatorFactory;
 import io.trino.operator.ExplainAnalyzeOperator.ExplainAnalyzeOperatorFactory;
 import io.trino.operator.FilterAndProjectOperator;
+import io.trino.operator.FragmentResultCache;
+import io.trino.operator.FragmentResultCacheOperator.FragmentResultCacheOperatorFactory;
 import io.trino.operator.GroupIdOperator;
 import io.trino.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import io.trino.operator.HashSemiJoinOperator;
@@ -75,6 +77,7 @@ import io.trino.operator.RowNumberOperator;
 import io.trino.operator.ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory;
 import io.trino.operator.SetBuilderOperator.SetBuilderOperatorFactory;
 import io.trino.operator.SetBuilderOperator.SetSupplier;
+import io.trino.operator.SkewedPartitionKeyDetector;
 import io.trino.operator.SourceOperatorFactory;
 import io.trino.operator.SpatialIndexBuilderOperator.SpatialIndexBuilderOperatorFactory;
 import io.trino.operator.SpatialIndexBuilderOperator.SpatialPredicate;
@@ -96,6 +99,7 @@ import io.trino.operator.WorkProcessorPipelineSourceOperator;
 import io.trino.operator.aggregation.AccumulatorFactory;
 import io.trino.operator.aggregation.InternalAggregationFunction;
 import io.trino.operator.aggregation.LambdaProvider;
+import io.trino.operator.aggregation.partial.PartialAggregationController;
 import io.trino.operator.exchange.LocalExchange.LocalExchangeFactory;
 import io.trino.operator.exchange.LocalExchangeSinkOperator.LocalExchangeSinkOperatorFactory;
 import io.trino.operator.exchange.LocalExchangeSourceOperator.LocalExchangeSourceOperatorFactory;
@@ -111,8 +115,10 @@ import io.trino.operator.join.HashBuilderOperator.HashBuilderOperatorFactory;
 import io.trino.operator.join.JoinBridgeManager;
 import io.trino.operator.join.JoinOperatorFactory;
 import io.trino.operator.join.JoinOperatorFactory.OuterOperatorFactoryResult;
+import io.trino.operator.join.LookupJoinOperatorFactory.JoinType;
 import io.trino.operator.join.LookupOuterOperator.LookupOuterOperatorFactory;
 import io.trino.operator.join.LookupSourceFactory;
+import io.trino.operator.join.MergeJoinOperator.MergeJoinOperatorFactory;
 import io.trino.operator.join.NestedLoopJoinBridge;
 import io.trino.operator.join.NestedLoopJoinPagesSupplier;
 import io.trino.operator.join.PartitionedLookupSourceFactory;
@@ -141,6 +147,7 @@ import io.trino.spi.connector.ConnectorSession;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.connector.RecordSet;
 import io.trino.spi.connector.SortOrder;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.NullableValue;
 import io.trino.spi.type.RowType;
@@ -178,6 +185,7 @@ import io.trino.sql.planner.plan.IndexSourceNode;
 import io.trino.sql.planner.plan.JoinNode;
 import io.trino.sql.planner.plan.LimitNode;
 import io.trino.sql.planner.plan.MarkDistinctNode;
+import io.trino.sql.planner.plan.MergeJoinNode;
 import io.trino.sql.planner.plan.OutputNode;
 import io.trino.sql.planner.plan.PatternRecognitionNode;
 import io.trino.sql.planner.plan.PatternRecognitionNode.Measure;
@@ -257,14 +265,23 @@ import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Range.closedOpen;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
+import static io.trino.SystemSessionProperties.getAdaptiveJoinMaxBroadcastBuildSize;
+import static io.trino.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static io.trino.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
 import static io.trino.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
+import static io.trino.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.trino.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static io.trino.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
+import static io.trino.SystemSessionProperties.getJoinOperatorUnspillMemoryLimit;
+import static io.trino.SystemSessionProperties.getSkewedPartitionKeyFactor;
 import static io.trino.SystemSessionProperties.getTaskConcurrency;
 import static io.trino.SystemSessionProperties.getTaskWriterCount;
+import static io.trino.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
+import static io.trino.SystemSessionProperties.isEnableBloomFilterDynamicFilters;
 import static io.trino.SystemSessionProperties.isEnableLargeDynamicFilters;
-import static io.trino.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.trino.SystemSessionProperties.isExchangeAdaptiveCompressionEnabled;
 import static io.trino.SystemSessionProperties.isLateMaterializationEnabled;
+import static io.trino.SystemSessionProperties.isSkewedPartitionKeyDetectionEnabled;
 import static io.trino.SystemSessionProperties.isSpillEnabled;
 import static io.trino.SystemSessionProperties.isSpillOrderBy;
 import static io.trino.SystemSessionProperties.isSpillWindowOperator;
@@ -361,6 +378,7 @@ public class LocalExecutionPlanner
     private final DynamicFilterConfig dynamicFilterConfig;
     private final TypeOperators typeOperators;
     private final BlockTypeOperators blockTypeOperators;
+    private final FragmentResultCache fragmentResultCache;
 
     @Inject
     public LocalExecutionPlanner(
@@ -386,7 +404,8 @@ public class LocalExecutionPlanner
             OrderingCompiler orderingCompiler,
             DynamicFilterConfig dynamicFilterConfig,
             TypeOperators typeOperators,
-            BlockTypeOperators blockTypeOperators)
+            BlockTypeOperators blockTypeOperators,
+            FragmentResultCache fragmentResultCache)
     {
         this.explainAnalyzeContext = requireNonNull(explainAnalyzeContext, "explainAnalyzeContext is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
@@ -414,6 +433,7 @@ public class LocalExecutionPlanner
         this.dynamicFilterConfig = requireNonNull(dynamicFilterConfig, "dynamicFilterConfig is null");
         this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
         this.blockTypeOperators = requireNonNull(blockTypeOperators, "blockTypeOperators is null");
+        this.fragmentResultCache = requireNonNull(fragmentResultCache, "fragmentResultCache is null");
     }
 
     public LocalExecutionPlan plan(
@@ -423,6 +443,8 @@ public class LocalExecutionPlanner
             PartitioningScheme partitioningScheme,
             StageExecutionDescriptor stageExecutionDescriptor,
             List<PlanNodeId> partitionedSourceOrder,
+            Optional<String> resultCacheKey,
+            Set<PlanNodeId> switchableJoins,
             OutputBuffer outputBuffer)
     {
         List<Symbol> outputLayout = partitioningScheme.getOutputLayout();
@@ -432,7 +454,7 @@ public class LocalExecutionPlanner
                 partitioningScheme.getPartitioning().getHandle().equals(SCALED_WRITER_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(SINGLE_DISTRIBUTION) ||
                 partitioningScheme.getPartitioning().getHandle().equals(COORDINATOR_DISTRIBUTION)) {
-            return plan(taskContext, stageExecutionDescriptor, plan, outputLayout, types, partitionedSourceOrder, new TaskOutputFactory(outputBuffer));
+            return plan(taskContext, stageExecutionDescriptor, plan, outputLayout, types, partitionedSourceOrder, resultCacheKey, switchableJoins, new TaskOutputFactory(outputBuffer));
         }
 
         // We can convert the symbols directly into channels, because the root must be a sink and therefore the layout is fixed
@@ -481,6 +503,19 @@ public class LocalExecutionPlanner
             nullChannel = OptionalInt.of(outputLayout.indexOf(getOnlyElement(partitioningColumns)));
         }
 
+        Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory = Optional.empty();
+        if (isSkewedPartitionKeyDetectionEnabled(taskContext.getSession()) && !partitioningColumns.isEmpty()) {
+            List<Symbol> keySymbols = ImmutableList.copyOf(partitioningColumns);
+            skewedKeyDetectorFactory = Optional.of(new SkewedPartitionKeyDetector.Factory(
+                    keySymbols.stream()
+                            .map(outputLayout::indexOf)
+                            .collect(toImmutableList()),
+                    keySymbols.stream()
+                            .map(types::get)
+                            .collect(toImmutableList()),
+                    getSkewedPartitionKeyFactor(taskContext.getSession())));
+        }
+
         return plan(
                 taskContext,
                 stageExecutionDescriptor,
@@ -488,6 +523,8 @@ public class LocalExecutionPlanner
                 outputLayout,
                 types,
                 partitionedSourceOrder,
+                resultCacheKey,
+                switchableJoins,
                 new PartitionedOutputFactory(
                         partitionFunction,
                         partitionChannels,
@@ -495,7 +532,8 @@ public class LocalExecutionPlanner
                         partitioningScheme.isReplicateNullsAndAny(),
                         nullChannel,
                         outputBuffer,
-                        maxPagePartitioningBufferSize));
+                        maxPagePartitioningBufferSize,
+                        skewedKeyDetectorFactory));
     }
 
     public LocalExecutionPlan plan(
@@ -506,14 +544,36 @@ public class LocalExecutionPlanner
             TypeProvider types,
             List<PlanNodeId> partitionedSourceOrder,
             OutputFactory outputOperatorFactory)
+    {
+        return plan(taskContext, stageExecutionDescriptor, plan, outputLayout, types, partitionedSourceOrder, Optional.empty(), ImmutableSet.of(), outputOperatorFactory);
+    }
+
+    private LocalExecutionPlan plan(
+            TaskContext taskContext,
+            StageExecutionDescriptor stageExecutionDescriptor,
+            PlanNode plan,
+            List<Symbol> outputLayout,
+            TypeProvider types,
+            List<PlanNodeId> partitionedSourceOrder,
+            Optional<String> resultCacheKey,
+            Set<PlanNodeId> switchableJoins,
+            OutputFactory outputOperatorFactory)
     {
         Session session = taskContext.getSession();
         LocalExecutionPlanContext context = new LocalExecutionPlanContext(taskContext, metadata, typeOperators, types);
 
-        PhysicalOperation physicalOperation = plan.accept(new Visitor(session, stageExecutionDescriptor), context);
+        PhysicalOperation physicalOperation = plan.accept(new Visitor(session, stageExecutionDescriptor, switchableJoins), context);
 
         Function<Page, Page> pagePreprocessor = enforceLayoutProcessor(outputLayout, physicalOperation.getLayout());
 
+        // the coordinator only provides a result cache key for fragments that are planned as a single pipeline
+        // reading one partitioned source, so the output of every driver depends only on its split
+        if (resultCacheKey.isPresent() && fragmentResultCache.isEnabled() && context.getDriverFactories().isEmpty() && partitionedSourceOrder.size() == 1) {
+            physicalOperation = new PhysicalOperation(
+                    new FragmentResultCacheOperatorFactory(context.getNextOperatorId(), plan.getId(), fragmentResultCache, resultCacheKey.get()),
+                    physicalOperation);
+        }
+
         List<Type> outputTypes = outputLayout.stream()
                 .map(types::get)
                 .collect(toImmutableList());
@@ -527,7 +587,7 @@ public class LocalExecutionPlanner
                                 plan.getId(),
                                 outputTypes,
                                 pagePreprocessor,
-                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session))),
+                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session))),
                         physicalOperation),
                 context.getDriverInstanceCount());
 
@@ -680,8 +740,10 @@ public class LocalExecutionPlanner
             return dynamicFiltersCollector;
         }
 
-        private void addLocalDynamicFilters(Map<DynamicFilterId, Domain> dynamicTupleDomain)
+        private void addLocalDynamicFilters(Map<DynamicFilterId, Domain> dynamicTupleDomain, Map<DynamicFilterId, BlockedBloomFilter> bloomFilters)
         {
+            // Bloom filters must be available when the domains are collected
+            dynamicFiltersCollector.collectDynamicFilterBloomFilters(bloomFilters);
             dynamicFiltersCollector.collectDynamicFilterDomains(dynamicTupleDomain);
         }
 
@@ -812,11 +874,13 @@ public class LocalExecutionPlanner
     {
         private final Session session;
         private final StageExecutionDescriptor stageExecutionDescriptor;
+        private final Set<PlanNodeId> switchableJoins;
 
-        private Visitor(Session session, StageExecutionDescriptor stageExecutionDescriptor)
+        private Visitor(Session session, StageExecutionDescriptor stageExecutionDescriptor, Set<PlanNodeId> switchableJoins)
         {
             this.session = session;
             this.stageExecutionDescriptor = stageExecutionDescriptor;
+            this.switchableJoins = switchableJoins;
         }
 
         @Override
@@ -850,7 +914,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)),
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)),
                     orderingCompiler,
                     types,
                     outputChannels,
@@ -870,7 +934,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)));
+                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), getExchangeCompressionCodec(session), isExchangeAdaptiveCompressionEnabled(session)));
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, UNGROUPED_EXECUTION);
         }
@@ -1513,7 +1577,16 @@ public class LocalExecutionPlanner
 
             List<Integer> channels = getChannelsForSymbols(node.getDistinctSymbols(), source.getLayout());
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
-            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), channels, hashChannel, joinCompiler, blockTypeOperators);
+            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    source.getTypes(),
+                    channels,
+                    hashChannel,
+                    joinCompiler,
+                    blockTypeOperators,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operator, makeLayout(node), context, source);
         }
 
@@ -1577,6 +1650,7 @@ public class LocalExecutionPlanner
             Map<Symbol, Integer> sourceLayout;
             TableHandle table = null;
             List<ColumnHandle> columns = null;
+            List<Type> columnTypes = null;
             PhysicalOperation source = null;
             if (sourceNode instanceof TableScanNode) {
                 TableScanNode tableScanNode = (TableScanNode) sourceNode;
@@ -1585,9 +1659,11 @@ public class LocalExecutionPlanner
                 // extract the column handles and channel to type mapping
                 sourceLayout = new LinkedHashMap<>();
                 columns = new ArrayList<>();
+                columnTypes = new ArrayList<>();
                 int channel = 0;
                 for (Symbol symbol : tableScanNode.getOutputSymbols()) {
                     columns.add(tableScanNode.getAssignments().get(symbol));
+                    columnTypes.add(context.getTypes().get(symbol));
 
                     Integer input = channel;
                     sourceLayout.put(symbol, input);
@@ -1656,7 +1732,9 @@ public class LocalExecutionPlanner
                             pageProcessor,
                             table,
                             columns,
+                            columnTypes,
                             dynamicFilter,
+                            blockTypeOperators,
                             getTypes(projections, expressionTypes),
                             getFilterAndProjectMinOutputPageSize(session),
                             getFilterAndProjectMinOutputPageRowCount(session));
@@ -2089,6 +2167,68 @@ public class LocalExecutionPlanner
             throw new UnsupportedOperationException("Unsupported join type: " + node.getType());
         }
 
+        @Override
+        public PhysicalOperation visitMergeJoin(MergeJoinNode node, LocalExecutionPlanContext context)
+        {
+            PhysicalOperation leftSource = node.getLeft().accept(this, context);
+            checkState(context.getDriverInstanceCount().orElse(1) == 1, "Left input of a merge join is expected to be a single stream");
+
+            // the right input is passed to the merge join through a local exchange with a single buffer
+            LocalExecutionPlanContext rightContext = context.createSubContext();
+            PhysicalOperation rightSource = node.getRight().accept(this, rightContext);
+            checkState(rightContext.getDriverInstanceCount().orElse(1) == 1, "Right input of a merge join is expected to be a single stream");
+            checkState(
+                    leftSource.getPipelineExecutionStrategy() == rightSource.getPipelineExecutionStrategy(),
+                    "Left and right inputs of a merge join are expected to have the same pipeline execution strategy");
+
+            LocalExchangeFactory rightExchangeFactory = new LocalExchangeFactory(
+                    nodePartitioningManager,
+                    session,
+                    SINGLE_DISTRIBUTION,
+                    1,
+                    rightSource.getTypes(),
+                    ImmutableList.of(),
+                    Optional.empty(),
+                    rightSource.getPipelineExecutionStrategy(),
+                    maxLocalExchangeBufferSize,
+                    blockTypeOperators);
+            context.addDriverFactory(
+                    rightContext.isInputDriver(),
+                    false,
+                    new PhysicalOperation(
+                            new LocalExchangeSinkOperatorFactory(
+                                    rightExchangeFactory,
+                                    rightContext.getNextOperatorId(),
+                                    node.getId(),
+                                    rightExchangeFactory.newSinkFactoryId(),
+                                    Function.identity()),
+                            rightSource),
+                    rightContext.getDriverInstanceCount());
+
+            List<Symbol> leftKeys = Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getLeft);
+            List<Symbol> rightKeys = Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getRight);
+            OperatorFactory operatorFactory = new MergeJoinOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    node.getType() == INNER ? JoinType.INNER : JoinType.PROBE_OUTER,
+                    rightExchangeFactory,
+                    leftSource.getTypes(),
+                    rightSource.getTypes(),
+                    getChannelsForSymbols(leftKeys, leftSource.getLayout()),
+                    getChannelsForSymbols(rightKeys, rightSource.getLayout()),
+                    node.getSortOrders(),
+                    getChannelsForSymbols(node.getLeftOutputSymbols(), leftSource.getLayout()),
+                    getChannelsForSymbols(node.getRightOutputSymbols(), rightSource.getLayout()),
+                    typeOperators);
+
+            ImmutableMap.Builder<Symbol, Integer> outputMappings = ImmutableMap.builder();
+            List<Symbol> outputSymbols = node.getOutputSymbols();
+            for (int i = 0; i < outputSymbols.size(); i++) {
+                outputMappings.put(outputSymbols.get(i), i);
+            }
+            return new PhysicalOperation(operatorFactory, outputMappings.build(), context, leftSource);
+        }
+
         @Override
         public PhysicalOperation visitSpatialJoin(SpatialJoinNode node, LocalExecutionPlanContext context)
         {
@@ -2428,6 +2568,15 @@ public class LocalExecutionPlanner
             return new PhysicalOperation(operator, outputMappings.build(), context, probeSource);
         }
 
+        private Optional<DataSize> getMaxBroadcastBuildSize(JoinNode node)
+        {
+            // the coordinator marks the joins that it can switch to partitioned distribution
+            if (!switchableJoins.contains(node.getId())) {
+                return Optional.empty();
+            }
+            return Optional.of(getAdaptiveJoinMaxBroadcastBuildSize(session));
+        }
+
         private JoinBridgeManager<PartitionedLookupSourceFactory> createLookupSourceFactory(
                 JoinNode node,
                 PlanNode buildNode,
@@ -2522,7 +2671,9 @@ public class LocalExecutionPlanner
                     10_000,
                     pagesIndexFactory,
                     spillEnabled && partitionCount > 1,
-                    singleStreamSpillerFactory);
+                    singleStreamSpillerFactory,
+                    getJoinOperatorUnspillMemoryLimit(session),
+                    getMaxBroadcastBuildSize(node));
 
             context.addDriverFactory(
                     buildContext.isInputDriver(),
@@ -2558,7 +2709,9 @@ public class LocalExecutionPlanner
                             getDynamicFilteringMaxDistinctValuesPerDriver(session, isReplicatedJoin),
                             getDynamicFilteringMaxSizePerDriver(session, isReplicatedJoin),
                             getDynamicFilteringRangeRowLimitPerDriver(session, isReplicatedJoin),
-                            blockTypeOperators),
+                            blockTypeOperators,
+                            dynamicFilter.getBloomFilterConsumer(),
+                            getDynamicFilteringBloomFilterMaxSize(dynamicFilter)),
                     buildSource.getLayout(),
                     context,
                     buildSource);
@@ -2583,10 +2736,12 @@ public class LocalExecutionPlanner
                     buildSource.getPipelineExecutionStrategy() != GROUPED_EXECUTION,
                     "Dynamic filtering cannot be used with grouped execution");
             log.debug("[Join] Dynamic filters: %s", node.getDynamicFilters());
-            LocalDynamicFilterConsumer filterConsumer = LocalDynamicFilterConsumer.create(node, buildSource.getTypes(), partitionCount, collectedDynamicFilters);
+            // Bloom filters are only applied by local table scans
+            boolean collectBloomFilters = isEnableBloomFilterDynamicFilters(session) && !localDynamicFilters.isEmpty();
+            LocalDynamicFilterConsumer filterConsumer = LocalDynamicFilterConsumer.create(node, buildSource.getTypes(), partitionCount, collectedDynamicFilters, collectBloomFilters, blockTypeOperators);
             ListenableFuture<Map<DynamicFilterId, Domain>> domainsFuture = filterConsumer.getDynamicFilterDomains();
             if (!localDynamicFilters.isEmpty()) {
-                addSuccessCallback(domainsFuture, context::addLocalDynamicFilters);
+                addSuccessCallback(domainsFuture, domains -> context.addLocalDynamicFilters(domains, filterConsumer.getBloomFilters()));
             }
             if (!coordinatorDynamicFilters.isEmpty()) {
                 addSuccessCallback(
@@ -2750,10 +2905,12 @@ public class LocalExecutionPlanner
                 LocalDynamicFilterConsumer filterConsumer = new LocalDynamicFilterConsumer(
                         ImmutableMap.of(filterId, buildChannel),
                         ImmutableMap.of(filterId, buildSource.getTypes().get(buildChannel)),
-                        partitionCount);
+                        partitionCount,
+                        isLocalDynamicFilter && isEnableBloomFilterDynamicFilters(session),
+                        blockTypeOperators);
                 ListenableFuture<Map<DynamicFilterId, Domain>> domainsFuture = filterConsumer.getDynamicFilterDomains();
                 if (isLocalDynamicFilter) {
-                    addSuccessCallback(domainsFuture, context::addLocalDynamicFilters);
+                    addSuccessCallback(domainsFuture, domains -> context.addLocalDynamicFilters(domains, filterConsumer.getBloomFilters()));
                 }
                 if (isCoordinatorDynamicFilter) {
                     addSuccessCallback(domainsFuture, context::addCoordinatorDynamicFilters);
@@ -2768,7 +2925,9 @@ public class LocalExecutionPlanner
                                 getDynamicFilteringMaxDistinctValuesPerDriver(session, isReplicatedJoin),
                                 getDynamicFilteringMaxSizePerDriver(session, isReplicatedJoin),
                                 getDynamicFilteringRangeRowLimitPerDriver(session, isReplicatedJoin),
-                                blockTypeOperators),
+                                blockTypeOperators,
+                                filterConsumer.getBloomFilterConsumer(),
+                                getDynamicFilteringBloomFilterMaxSize(filterConsumer)),
                         buildSource.getLayout(),
                         buildContext,
                         buildSource);
@@ -3459,6 +3618,12 @@ public class LocalExecutionPlanner
             }
             else {
                 Optional<Integer> hashChannel = hashSymbol.map(channelGetter(source));
+                Optional<PartialAggregationController> partialAggregationController = Optional.empty();
+                if (step == PARTIAL && maxPartialAggregationMemorySize.isPresent() && isAdaptivePartialAggregationEnabled(session)) {
+                    partialAggregationController = Optional.of(new PartialAggregationController(
+                            getAdaptivePartialAggregationMinRows(session),
+                            getAdaptivePartialAggregationUniqueRowsRatioThreshold(session)));
+                }
                 return new HashAggregationOperatorFactory(
                         context.getNextOperatorId(),
                         planNodeId,
@@ -3477,7 +3642,8 @@ public class LocalExecutionPlanner
                         spillerFactory,
                         joinCompiler,
                         blockTypeOperators,
-                        useSystemMemory);
+                        useSystemMemory,
+                        partialAggregationController);
             }
         }
     }
@@ -3524,6 +3690,14 @@ public class LocalExecutionPlanner
         return dynamicFilterConfig.getSmallPartitionedRangeRowLimitPerDriver();
     }
 
+    private Optional<DataSize> getDynamicFilteringBloomFilterMaxSize(LocalDynamicFilterConsumer dynamicFilter)
+    {
+        if (dynamicFilter.isCollectingBloomFilters()) {
+            return Optional.of(dynamicFilterConfig.getBloomFilterMaxSizePerDriver());
+        }
+        return Optional.empty();
+    }
+
     private static List<Type> getTypes(List<Expression> expressions, Map<NodeRef<Expression>, Type> expressionTypes)
     {
         return expressions.stream()
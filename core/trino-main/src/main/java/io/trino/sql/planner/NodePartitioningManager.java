@@ -124,6 +124,15 @@ public class NodePartitioningManager
                 partitioningHandle.getConnectorHandle());
     }
 
+    public NodePartitionMap getNodePartitioningMap(Session session, PartitioningHandle partitioningHandle, int hashPartitionCount)
+    {
+        requireNonNull(session, "session is null");
+        requireNonNull(partitioningHandle, "partitioningHandle is null");
+        checkArgument(partitioningHandle.getConnectorHandle() instanceof SystemPartitioningHandle, "Partition count can be only chosen for system partitioning: %s", partitioningHandle);
+
+        return ((SystemPartitioningHandle) partitioningHandle.getConnectorHandle()).getNodePartitionMap(session, nodeScheduler, hashPartitionCount);
+    }
+
     public NodePartitionMap getNodePartitioningMap(Session session, PartitioningHandle partitioningHandle)
     {
         requireNonNull(session, "session is null");
@@ -52,6 +52,8 @@ public class PlanFragment
     private final PartitioningScheme partitioningScheme;
     private final StageExecutionDescriptor stageExecutionDescriptor;
     private final StatsAndCosts statsAndCosts;
+    private final Optional<String> resultCacheKey;
+    private final Set<PlanNodeId> switchableJoins;
     private final Optional<String> jsonRepresentation;
 
     // Only for creating instances without the JSON representation embedded
@@ -67,7 +69,9 @@ public class PlanFragment
             List<RemoteSourceNode> remoteSourceNodes,
             PartitioningScheme partitioningScheme,
             StageExecutionDescriptor stageExecutionDescriptor,
-            StatsAndCosts statsAndCosts)
+            StatsAndCosts statsAndCosts,
+            Optional<String> resultCacheKey,
+            Set<PlanNodeId> switchableJoins)
     {
         this.id = requireNonNull(id, "id is null");
         this.root = requireNonNull(root, "root is null");
@@ -81,6 +85,8 @@ public class PlanFragment
         this.partitioningScheme = requireNonNull(partitioningScheme, "partitioningScheme is null");
         this.stageExecutionDescriptor = requireNonNull(stageExecutionDescriptor, "stageExecutionDescriptor is null");
         this.statsAndCosts = requireNonNull(statsAndCosts, "statsAndCosts is null");
+        this.resultCacheKey = requireNonNull(resultCacheKey, "resultCacheKey is null");
+        this.switchableJoins = requireNonNull(switchableJoins, "switchableJoins is null");
         this.jsonRepresentation = Optional.empty();
     }
 
@@ -94,6 +100,8 @@ public class PlanFragment
             @JsonProperty("partitioningScheme") PartitioningScheme partitioningScheme,
             @JsonProperty("stageExecutionDescriptor") StageExecutionDescriptor stageExecutionDescriptor,
             @JsonProperty("statsAndCosts") StatsAndCosts statsAndCosts,
+            @JsonProperty("resultCacheKey") Optional<String> resultCacheKey,
+            @JsonProperty("switchableJoins") Set<PlanNodeId> switchableJoins,
             @JsonProperty("jsonRepresentation") Optional<String> jsonRepresentation)
     {
         this.id = requireNonNull(id, "id is null");
@@ -104,6 +112,8 @@ public class PlanFragment
         this.partitionedSourcesSet = ImmutableSet.copyOf(partitionedSources);
         this.stageExecutionDescriptor = requireNonNull(stageExecutionDescriptor, "stageExecutionDescriptor is null");
         this.statsAndCosts = requireNonNull(statsAndCosts, "statsAndCosts is null");
+        this.resultCacheKey = requireNonNull(resultCacheKey, "resultCacheKey is null");
+        this.switchableJoins = ImmutableSet.copyOf(requireNonNull(switchableJoins, "switchableJoins is null"));
         this.jsonRepresentation = requireNonNull(jsonRepresentation, "jsonRepresentation is null");
 
         checkArgument(partitionedSourcesSet.size() == partitionedSources.size(), "partitionedSources contains duplicates");
@@ -176,6 +186,27 @@ public class PlanFragment
         return statsAndCosts;
     }
 
+    /**
+     * Identifies the output of this fragment for a split in the fragment result cache.
+     * It is present only if the output depends on nothing but the plan of the fragment,
+     * the versions of the tables it reads, and the split.
+     */
+    @JsonProperty
+    public Optional<String> getResultCacheKey()
+    {
+        return resultCacheKey;
+    }
+
+    /**
+     * Broadcast joins that the coordinator can still switch to partitioned distribution.
+     * Tasks report these joins when their build side grows beyond the adaptive join limit.
+     */
+    @JsonProperty
+    public Set<PlanNodeId> getSwitchableJoins()
+    {
+        return switchableJoins;
+    }
+
     @JsonProperty
     public Optional<String> getJsonRepresentation()
     {
@@ -201,7 +232,9 @@ public class PlanFragment
                 this.remoteSourceNodes,
                 this.partitioningScheme,
                 this.stageExecutionDescriptor,
-                this.statsAndCosts);
+                this.statsAndCosts,
+                this.resultCacheKey,
+                this.switchableJoins);
     }
 
     public List<Type> getTypes()
@@ -255,17 +288,22 @@ public class PlanFragment
 
     public PlanFragment withBucketToPartition(Optional<int[]> bucketToPartition)
     {
-        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme.withBucketToPartition(bucketToPartition), stageExecutionDescriptor, statsAndCosts, jsonRepresentation);
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme.withBucketToPartition(bucketToPartition), stageExecutionDescriptor, statsAndCosts, resultCacheKey, switchableJoins, jsonRepresentation);
     }
 
     public PlanFragment withFixedLifespanScheduleGroupedExecution(List<PlanNodeId> capableTableScanNodes)
     {
-        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, StageExecutionDescriptor.fixedLifespanScheduleGroupedExecution(capableTableScanNodes), statsAndCosts, jsonRepresentation);
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, StageExecutionDescriptor.fixedLifespanScheduleGroupedExecution(capableTableScanNodes), statsAndCosts, resultCacheKey, switchableJoins, jsonRepresentation);
     }
 
     public PlanFragment withDynamicLifespanScheduleGroupedExecution(List<PlanNodeId> capableTableScanNodes)
     {
-        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, StageExecutionDescriptor.dynamicLifespanScheduleGroupedExecution(capableTableScanNodes), statsAndCosts, jsonRepresentation);
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, StageExecutionDescriptor.dynamicLifespanScheduleGroupedExecution(capableTableScanNodes), statsAndCosts, resultCacheKey, switchableJoins, jsonRepresentation);
+    }
+
+    public PlanFragment withSwitchableJoins(Set<PlanNodeId> switchableJoins)
+    {
+        return new PlanFragment(id, root, symbols, partitioning, partitionedSources, partitioningScheme, stageExecutionDescriptor, statsAndCosts, resultCacheKey, switchableJoins, jsonRepresentation);
     }
 
     @Override
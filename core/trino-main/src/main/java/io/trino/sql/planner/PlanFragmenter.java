@@ -16,6 +16,7 @@ package io.trino.sql.planner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Hashing;
 import io.trino.Session;
 import io.trino.SystemSessionProperties;
 import io.trino.cost.StatsAndCosts;
@@ -33,12 +34,15 @@ import io.trino.spi.type.Type;
 import io.trino.sql.planner.plan.AggregationNode;
 import io.trino.sql.planner.plan.ExchangeNode;
 import io.trino.sql.planner.plan.ExplainAnalyzeNode;
+import io.trino.sql.planner.plan.FilterNode;
 import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.LimitNode;
 import io.trino.sql.planner.plan.OutputNode;
 import io.trino.sql.planner.plan.PlanFragmentId;
 import io.trino.sql.planner.plan.PlanNode;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.sql.planner.plan.PlanVisitor;
+import io.trino.sql.planner.plan.ProjectNode;
 import io.trino.sql.planner.plan.RefreshMaterializedViewNode;
 import io.trino.sql.planner.plan.RemoteSourceNode;
 import io.trino.sql.planner.plan.RowNumberNode;
@@ -48,6 +52,7 @@ import io.trino.sql.planner.plan.TableDeleteNode;
 import io.trino.sql.planner.plan.TableFinishNode;
 import io.trino.sql.planner.plan.TableScanNode;
 import io.trino.sql.planner.plan.TableWriterNode;
+import io.trino.sql.planner.plan.TopNNode;
 import io.trino.sql.planner.plan.TopNRankingNode;
 import io.trino.sql.planner.plan.ValuesNode;
 import io.trino.sql.planner.plan.WindowNode;
@@ -69,18 +74,24 @@ import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.trino.SystemSessionProperties.getQueryMaxStageCount;
 import static io.trino.SystemSessionProperties.isDynamicScheduleForGroupedExecution;
 import static io.trino.SystemSessionProperties.isForceSingleNodeOutput;
+import static io.trino.SystemSessionProperties.isFragmentResultCacheEnabled;
+import static io.trino.execution.ResultCache.callsVolatileFunction;
 import static io.trino.operator.StageExecutionDescriptor.ungroupedExecution;
 import static io.trino.spi.StandardErrorCode.QUERY_HAS_TOO_MANY_STAGES;
 import static io.trino.spi.connector.NotPartitionedPartitionHandle.NOT_PARTITIONED;
 import static io.trino.spi.connector.StandardWarningCode.TOO_MANY_STAGES;
+import static io.trino.sql.DynamicFilters.extractDynamicFilters;
 import static io.trino.sql.planner.SchedulingOrderVisitor.scheduleOrder;
 import static io.trino.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static io.trino.sql.planner.plan.ExchangeNode.Scope.REMOTE;
 import static io.trino.sql.planner.plan.ExchangeNode.Type.REPLICATE;
 import static io.trino.sql.planner.planprinter.PlanPrinter.jsonFragmentPlan;
+import static io.trino.sql.planner.planprinter.PlanPrinter.textLogicalPlan;
 import static java.lang.String.format;
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Objects.requireNonNull;
 
 /**
@@ -203,6 +214,8 @@ public class PlanFragmenter
                         outputPartitioningScheme.getBucketToPartition()),
                 fragment.getStageExecutionDescriptor(),
                 fragment.getStatsAndCosts(),
+                fragment.getResultCacheKey(),
+                fragment.getSwitchableJoins(),
                 fragment.getJsonRepresentation());
 
         ImmutableList.Builder<SubPlan> childrenBuilder = ImmutableList.builder();
@@ -260,11 +273,64 @@ public class PlanFragmenter
                     properties.getPartitioningScheme(),
                     ungroupedExecution(),
                     statsAndCosts.getForSubplan(root),
+                    createResultCacheKey(root, properties),
+                    ImmutableSet.of(),
                     Optional.of(jsonFragmentPlan(root, symbols, metadata, session)));
 
             return new SubPlan(fragment, properties.getChildren());
         }
 
+        private Optional<String> createResultCacheKey(PlanNode root, FragmentProperties properties)
+        {
+            if (!isFragmentResultCacheEnabled(session) || !properties.getPartitioningHandle().equals(SOURCE_DISTRIBUTION)) {
+                return Optional.empty();
+            }
+            if (searchFrom(root).where(node -> !isSplitLocal(node)).matches() || callsVolatileFunction(metadata, root)) {
+                return Optional.empty();
+            }
+
+            List<TableScanNode> tableScans = searchFrom(root).where(TableScanNode.class::isInstance).findAll();
+            if (tableScans.size() != 1) {
+                return Optional.empty();
+            }
+            Optional<String> tableVersion = metadata.getTableVersionToken(session, getOnlyElement(tableScans).getTable());
+            if (tableVersion.isEmpty()) {
+                return Optional.empty();
+            }
+
+            String key = String.join("\n",
+                    textLogicalPlan(root, types, metadata, StatsAndCosts.empty(), session, 0, false),
+                    tableVersion.get(),
+                    session.getTimeZoneKey().getId(),
+                    session.getSystemProperties().toString(),
+                    session.getUnprocessedCatalogProperties().toString());
+            return Optional.of(Hashing.sha256().hashString(key, UTF_8).toString());
+        }
+
+        /**
+         * Returns whether the output of the node for a split depends only on the input of the node for the same split.
+         */
+        private static boolean isSplitLocal(PlanNode node)
+        {
+            if (node instanceof TableScanNode) {
+                return !((TableScanNode) node).isUpdateTarget();
+            }
+            if (node instanceof FilterNode) {
+                // dynamic filters depend on the data of other stages
+                return extractDynamicFilters(((FilterNode) node).getPredicate()).getDynamicConjuncts().isEmpty();
+            }
+            if (node instanceof AggregationNode) {
+                return ((AggregationNode) node).getStep() == AggregationNode.Step.PARTIAL;
+            }
+            if (node instanceof LimitNode) {
+                return ((LimitNode) node).isPartial();
+            }
+            if (node instanceof TopNNode) {
+                return ((TopNNode) node).getStep() == TopNNode.Step.PARTIAL;
+            }
+            return node instanceof ProjectNode;
+        }
+
         @Override
         public PlanNode visitOutput(OutputNode node, RewriteContext<FragmentProperties> context)
         {
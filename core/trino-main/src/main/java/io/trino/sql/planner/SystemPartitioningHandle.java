@@ -136,6 +136,11 @@ public final class SystemPartitioningHandle
     }
 
     public NodePartitionMap getNodePartitionMap(Session session, NodeScheduler nodeScheduler)
+    {
+        return getNodePartitionMap(session, nodeScheduler, getHashPartitionCount(session));
+    }
+
+    public NodePartitionMap getNodePartitionMap(Session session, NodeScheduler nodeScheduler, int hashPartitionCount)
     {
         NodeSelector nodeSelector = nodeScheduler.createNodeSelector(session, Optional.empty());
         List<InternalNode> nodes;
@@ -148,7 +153,7 @@ public final class SystemPartitioningHandle
                 nodes = nodeSelector.selectRandomNodes(1);
                 break;
             case FIXED:
-                nodes = nodeSelector.selectRandomNodes(getHashPartitionCount(session));
+                nodes = nodeSelector.selectRandomNodes(hashPartitionCount);
                 break;
             default:
                 throw new IllegalArgumentException("Unsupported plan distribution " + partitioning);
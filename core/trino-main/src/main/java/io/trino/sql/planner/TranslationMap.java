@@ -323,7 +323,12 @@ class TranslationMap
                 }
 
                 checkState(analysis.getParameters().size() > node.getPosition(), "Too few parameter values");
-                return coerceIfNecessary(node, treeRewriter.rewrite(analysis.getParameters().get(NodeRef.of(node)), null));
+                Expression value = treeRewriter.rewrite(analysis.getParameters().get(NodeRef.of(node)), null);
+                Optional<ResolvedFunction> placeholder = analysis.getParameterPlaceholder(node);
+                if (placeholder.isPresent()) {
+                    value = new FunctionCall(placeholder.get().toQualifiedName(), ImmutableList.of(value, new LongLiteral(Long.toString(node.getPosition()))));
+                }
+                return coerceIfNecessary(node, value);
             }
 
             @Override
@@ -17,11 +17,21 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Lists;
 import io.trino.Session;
+import io.trino.cost.CachingCostProvider;
+import io.trino.cost.CachingStatsProvider;
+import io.trino.cost.CostCalculator;
+import io.trino.cost.CostComparator;
+import io.trino.cost.CostProvider;
+import io.trino.cost.PlanCostEstimate;
+import io.trino.cost.StatsCalculator;
 import io.trino.execution.warnings.WarningCollector;
 import io.trino.metadata.Metadata;
 import io.trino.spi.connector.ConstantProperty;
 import io.trino.spi.connector.GroupingProperty;
 import io.trino.spi.connector.LocalProperty;
+import io.trino.spi.connector.SortOrder;
+import io.trino.spi.connector.SortingProperty;
+import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
 import io.trino.sql.planner.Partitioning;
 import io.trino.sql.planner.PartitioningScheme;
@@ -36,13 +46,16 @@ import io.trino.sql.planner.plan.AggregationNode;
 import io.trino.sql.planner.plan.ApplyNode;
 import io.trino.sql.planner.plan.CorrelatedJoinNode;
 import io.trino.sql.planner.plan.DistinctLimitNode;
+import io.trino.sql.planner.plan.DynamicFilterId;
 import io.trino.sql.planner.plan.EnforceSingleRowNode;
 import io.trino.sql.planner.plan.ExchangeNode;
 import io.trino.sql.planner.plan.ExplainAnalyzeNode;
+import io.trino.sql.planner.plan.FilterNode;
 import io.trino.sql.planner.plan.IndexJoinNode;
 import io.trino.sql.planner.plan.JoinNode;
 import io.trino.sql.planner.plan.LimitNode;
 import io.trino.sql.planner.plan.MarkDistinctNode;
+import io.trino.sql.planner.plan.MergeJoinNode;
 import io.trino.sql.planner.plan.OutputNode;
 import io.trino.sql.planner.plan.PatternRecognitionNode;
 import io.trino.sql.planner.plan.PlanNode;
@@ -50,6 +63,7 @@ import io.trino.sql.planner.plan.PlanVisitor;
 import io.trino.sql.planner.plan.ProjectNode;
 import io.trino.sql.planner.plan.RowNumberNode;
 import io.trino.sql.planner.plan.SemiJoinNode;
+import io.trino.sql.planner.plan.SimplePlanRewriter;
 import io.trino.sql.planner.plan.SortNode;
 import io.trino.sql.planner.plan.SpatialJoinNode;
 import io.trino.sql.planner.plan.StatisticsWriterNode;
@@ -59,12 +73,15 @@ import io.trino.sql.planner.plan.TopNNode;
 import io.trino.sql.planner.plan.TopNRankingNode;
 import io.trino.sql.planner.plan.UnionNode;
 import io.trino.sql.planner.plan.WindowNode;
+import io.trino.sql.tree.Expression;
 import io.trino.sql.tree.Literal;
 import io.trino.sql.tree.SymbolReference;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
@@ -76,10 +93,17 @@ import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.SystemSessionProperties.getTaskConcurrency;
 import static io.trino.SystemSessionProperties.getTaskWriterCount;
 import static io.trino.SystemSessionProperties.isDistributedSortEnabled;
+import static io.trino.SystemSessionProperties.isMergeJoinEnabled;
 import static io.trino.SystemSessionProperties.isSpillEnabled;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.RealType.REAL;
+import static io.trino.sql.DynamicFilters.getDescriptor;
+import static io.trino.sql.ExpressionUtils.combineConjuncts;
+import static io.trino.sql.ExpressionUtils.extractConjuncts;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
 import static io.trino.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static io.trino.sql.planner.optimizations.LocalProperties.stripLeadingConstants;
 import static io.trino.sql.planner.optimizations.StreamPreferredProperties.any;
 import static io.trino.sql.planner.optimizations.StreamPreferredProperties.defaultParallelism;
 import static io.trino.sql.planner.optimizations.StreamPreferredProperties.exactlyPartitionedOn;
@@ -105,12 +129,24 @@ public class AddLocalExchanges
     private final Metadata metadata;
     private final TypeOperators typeOperators;
     private final TypeAnalyzer typeAnalyzer;
-
-    public AddLocalExchanges(Metadata metadata, TypeOperators typeOperators, TypeAnalyzer typeAnalyzer)
+    private final StatsCalculator statsCalculator;
+    private final CostCalculator costCalculator;
+    private final CostComparator costComparator;
+
+    public AddLocalExchanges(
+            Metadata metadata,
+            TypeOperators typeOperators,
+            TypeAnalyzer typeAnalyzer,
+            StatsCalculator statsCalculator,
+            CostCalculator costCalculator,
+            CostComparator costComparator)
     {
         this.metadata = requireNonNull(metadata, "metadata is null");
         this.typeOperators = requireNonNull(typeOperators, "typeOperators is null");
         this.typeAnalyzer = requireNonNull(typeAnalyzer, "typeAnalyzer is null");
+        this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
+        this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
+        this.costComparator = requireNonNull(costComparator, "costComparator is null");
     }
 
     @Override
@@ -706,11 +742,24 @@ public class AddLocalExchanges
         @Override
         public PlanWithProperties visitJoin(JoinNode node, StreamPreferredProperties parentPreferences)
         {
-            PlanWithProperties probe = planAndEnforce(
-                    node.getLeft(),
-                    defaultParallelism(session),
+            PlanWithProperties probeSource = node.getLeft().accept(
+                    this,
                     parentPreferences.constrainTo(node.getLeft().getOutputSymbols()).withDefaultParallelism(session));
 
+            // this build consumes the input completely, so we do not pass through parent preferences
+            List<Symbol> buildHashSymbols = Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getRight);
+            StreamPreferredProperties buildPreference;
+            if (getTaskConcurrency(session) > 1) {
+                buildPreference = exactlyPartitionedOn(buildHashSymbols);
+            }
+            else {
+                buildPreference = singleStream();
+            }
+            PlanWithProperties buildSource = node.getRight().accept(this, buildPreference);
+
+            PlanWithProperties probe = enforce(probeSource, defaultParallelism(session));
+            PlanWithProperties build = enforce(buildSource, buildPreference);
+
             if (isSpillEnabled(session)) {
                 if (probe.getProperties().getDistribution() != FIXED) {
                     // Disable spill for joins over non-fixed streams as otherwise we would need to insert local exchange.
@@ -723,18 +772,108 @@ public class AddLocalExchanges
                 }
             }
 
-            // this build consumes the input completely, so we do not pass through parent preferences
-            List<Symbol> buildHashSymbols = Lists.transform(node.getCriteria(), JoinNode.EquiJoinClause::getRight);
-            StreamPreferredProperties buildPreference;
-            if (getTaskConcurrency(session) > 1) {
-                buildPreference = exactlyPartitionedOn(buildHashSymbols);
+            PlanWithProperties hashJoin = rebaseAndDeriveProperties(node, ImmutableList.of(probe, build));
+            if (isMergeJoinEnabled(session)) {
+                Optional<PlanWithProperties> mergeJoin = planMergeJoin(node, probeSource, buildSource);
+                if (mergeJoin.isPresent() && isCheaper(mergeJoin.get().getNode(), hashJoin.getNode())) {
+                    return mergeJoin.get();
+                }
             }
-            else {
-                buildPreference = singleStream();
+            return hashJoin;
+        }
+
+        /**
+         * Plans the join as a merge join, if both inputs are single streams sorted on the join keys.
+         * A merge join does not collect dynamic filters, so the dynamic filters of the join are
+         * removed from the left input.
+         */
+        private Optional<PlanWithProperties> planMergeJoin(JoinNode node, PlanWithProperties left, PlanWithProperties right)
+        {
+            if ((node.getType() != JoinNode.Type.INNER && node.getType() != JoinNode.Type.LEFT) ||
+                    node.getCriteria().isEmpty() ||
+                    node.getFilter().isPresent() ||
+                    !left.getProperties().isSingleStream() ||
+                    !right.getProperties().isSingleStream()) {
+                return Optional.empty();
             }
-            PlanWithProperties build = planAndEnforce(node.getRight(), buildPreference, buildPreference);
 
-            return rebaseAndDeriveProperties(node, ImmutableList.of(probe, build));
+            Map<Symbol, JoinNode.EquiJoinClause> clauses = new HashMap<>();
+            for (JoinNode.EquiJoinClause clause : node.getCriteria()) {
+                Type type = types.get(clause.getLeft());
+                // keys that are equal in the sort order, but not equal to each other (e.g. NaN), would be matched
+                if (!type.isOrderable() || type.equals(DOUBLE) || type.equals(REAL) || clauses.put(clause.getLeft(), clause) != null) {
+                    return Optional.empty();
+                }
+            }
+
+            // the clauses are ordered as the left input is sorted, and the right input must be sorted the same way
+            ImmutableList.Builder<JoinNode.EquiJoinClause> criteria = ImmutableList.builder();
+            ImmutableList.Builder<SortOrder> sortOrders = ImmutableList.builder();
+            ImmutableList.Builder<LocalProperty<Symbol>> rightProperties = ImmutableList.builder();
+            for (LocalProperty<Symbol> property : stripLeadingConstants(left.getProperties().getLocalProperties())) {
+                if (clauses.isEmpty() || !(property instanceof SortingProperty)) {
+                    break;
+                }
+                SortingProperty<Symbol> sorting = (SortingProperty<Symbol>) property;
+                JoinNode.EquiJoinClause clause = clauses.remove(sorting.getColumn());
+                if (clause == null) {
+                    return Optional.empty();
+                }
+                criteria.add(clause);
+                sortOrders.add(sorting.getOrder());
+                rightProperties.add(new SortingProperty<>(clause.getRight(), sorting.getOrder()));
+            }
+            if (!clauses.isEmpty() ||
+                    LocalProperties.match(right.getProperties().getLocalProperties(), rightProperties.build()).stream().anyMatch(Optional::isPresent)) {
+                return Optional.empty();
+            }
+
+            MergeJoinNode mergeJoin = new MergeJoinNode(
+                    node.getId(),
+                    node.getType(),
+                    removeDynamicFilters(left.getNode(), node.getDynamicFilters().keySet()),
+                    right.getNode(),
+                    criteria.build(),
+                    sortOrders.build(),
+                    node.getLeftOutputSymbols(),
+                    node.getRightOutputSymbols());
+            return Optional.of(deriveProperties(mergeJoin, ImmutableList.of(left.getProperties(), right.getProperties())));
+        }
+
+        private PlanNode removeDynamicFilters(PlanNode node, Set<DynamicFilterId> dynamicFilters)
+        {
+            if (dynamicFilters.isEmpty()) {
+                return node;
+            }
+            return SimplePlanRewriter.rewriteWith(new SimplePlanRewriter<Void>()
+            {
+                @Override
+                public PlanNode visitFilter(FilterNode filter, RewriteContext<Void> context)
+                {
+                    PlanNode source = context.rewrite(filter.getSource());
+                    List<Expression> conjuncts = extractConjuncts(filter.getPredicate()).stream()
+                            .filter(conjunct -> getDescriptor(conjunct)
+                                    .map(descriptor -> !dynamicFilters.contains(descriptor.getId()))
+                                    .orElse(true))
+                            .collect(toImmutableList());
+                    if (conjuncts.isEmpty()) {
+                        return source;
+                    }
+                    return new FilterNode(filter.getId(), source, combineConjuncts(metadata, conjuncts));
+                }
+            }, node);
+        }
+
+        private boolean isCheaper(PlanNode mergeJoin, PlanNode hashJoin)
+        {
+            CostProvider costProvider = new CachingCostProvider(costCalculator, new CachingStatsProvider(statsCalculator, session, types), session, types);
+            PlanCostEstimate mergeJoinCost = costProvider.getCost(mergeJoin);
+            PlanCostEstimate hashJoinCost = costProvider.getCost(hashJoin);
+            if (mergeJoinCost.hasUnknownComponents() || hashJoinCost.hasUnknownComponents()) {
+                // both inputs are already sorted single streams, so the merge join does not need additional work
+                return true;
+            }
+            return costComparator.compare(session, mergeJoinCost, hashJoinCost) < 0;
         }
 
         @Override
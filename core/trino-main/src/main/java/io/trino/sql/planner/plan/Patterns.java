@@ -103,6 +103,11 @@ public final class Patterns
         return typeOf(SpatialJoinNode.class);
     }
 
+    public static Pattern<MergeJoinNode> mergeJoin()
+    {
+        return typeOf(MergeJoinNode.class);
+    }
+
     public static Pattern<CorrelatedJoinNode> correlatedJoin()
     {
         return typeOf(CorrelatedJoinNode.class);
@@ -46,6 +46,7 @@ import static java.util.Objects.requireNonNull;
         @JsonSubTypes.Type(value = SemiJoinNode.class, name = "semijoin"),
         @JsonSubTypes.Type(value = SpatialJoinNode.class, name = "spatialjoin"),
         @JsonSubTypes.Type(value = IndexJoinNode.class, name = "indexjoin"),
+        @JsonSubTypes.Type(value = MergeJoinNode.class, name = "mergejoin"),
         @JsonSubTypes.Type(value = IndexSourceNode.class, name = "indexsource"),
         @JsonSubTypes.Type(value = RefreshMaterializedViewNode.class, name = "refreshmaterializedview"),
         @JsonSubTypes.Type(value = TableWriterNode.class, name = "tablewriter"),
@@ -18,6 +18,7 @@ import io.airlift.units.Duration;
 import io.trino.sql.planner.plan.PlanNodeId;
 
 import java.util.Map;
+import java.util.Optional;
 
 import static java.lang.Math.max;
 import static java.lang.Math.sqrt;
@@ -28,6 +29,7 @@ public class HashCollisionPlanNodeStats
         extends PlanNodeStats
 {
     private final Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats;
+    private final Optional<PartialAggregationStats> partialAggregationStats;
 
     public HashCollisionPlanNodeStats(
             PlanNodeId planNodeId,
@@ -39,7 +41,8 @@ public class HashCollisionPlanNodeStats
             DataSize planNodeOutputDataSize,
             DataSize planNodeSpilledDataSize,
             Map<String, OperatorInputStats> operatorInputStats,
-            Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats)
+            Map<String, OperatorHashCollisionsStats> operatorHashCollisionsStats,
+            Optional<PartialAggregationStats> partialAggregationStats)
     {
         super(
                 planNodeId,
@@ -52,6 +55,7 @@ public class HashCollisionPlanNodeStats
                 planNodeSpilledDataSize,
                 operatorInputStats);
         this.operatorHashCollisionsStats = requireNonNull(operatorHashCollisionsStats, "operatorHashCollisionsStats is null");
+        this.partialAggregationStats = requireNonNull(partialAggregationStats, "partialAggregationStats is null");
     }
 
     public Map<String, Double> getOperatorHashCollisionsAverages()
@@ -89,11 +93,20 @@ public class HashCollisionPlanNodeStats
                         entry -> entry.getValue().getWeightedExpectedHashCollisions() / entry.getValue().getInputPositions()));
     }
 
+    public Optional<PartialAggregationStats> getPartialAggregationStats()
+    {
+        return partialAggregationStats;
+    }
+
     @Override
     public PlanNodeStats mergeWith(PlanNodeStats other)
     {
         checkMergeable(other);
         PlanNodeStats merged = super.mergeWith(other);
+        Optional<PartialAggregationStats> otherPartialAggregationStats = ((HashCollisionPlanNodeStats) other).partialAggregationStats;
+        Optional<PartialAggregationStats> mergedPartialAggregationStats = partialAggregationStats.isPresent() && otherPartialAggregationStats.isPresent()
+                ? Optional.of(partialAggregationStats.get().mergeWith(otherPartialAggregationStats.get()))
+                : partialAggregationStats.or(() -> otherPartialAggregationStats);
 
         return new HashCollisionPlanNodeStats(
                 merged.getPlanNodeId(),
@@ -105,6 +118,7 @@ public class HashCollisionPlanNodeStats
                 merged.getPlanNodeOutputDataSize(),
                 merged.getPlanNodeSpilledDataSize(),
                 merged.operatorInputStats,
-                operatorHashCollisionsStats);
+                operatorHashCollisionsStats,
+                mergedPartialAggregationStats);
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.planner.planprinter;
+
+import io.trino.operator.HashAggregationOperatorInfo;
+import io.trino.util.Mergeable;
+
+class PartialAggregationStats
+        implements Mergeable<PartialAggregationStats>
+{
+    private final long aggregatedInputRows;
+    private final long aggregatedUniqueRows;
+    private final long skippedInputRows;
+    private final long partialAggregationDisabledOperators;
+    private final long totalOperators;
+
+    public static PartialAggregationStats create(HashAggregationOperatorInfo info)
+    {
+        return new PartialAggregationStats(
+                info.getAggregatedInputRows(),
+                info.getAggregatedUniqueRows(),
+                info.getSkippedInputRows(),
+                info.getPartialAggregationDisabledOperators(),
+                info.getTotalOperators());
+    }
+
+    private PartialAggregationStats(
+            long aggregatedInputRows,
+            long aggregatedUniqueRows,
+            long skippedInputRows,
+            long partialAggregationDisabledOperators,
+            long totalOperators)
+    {
+        this.aggregatedInputRows = aggregatedInputRows;
+        this.aggregatedUniqueRows = aggregatedUniqueRows;
+        this.skippedInputRows = skippedInputRows;
+        this.partialAggregationDisabledOperators = partialAggregationDisabledOperators;
+        this.totalOperators = totalOperators;
+    }
+
+    public long getAggregatedInputRows()
+    {
+        return aggregatedInputRows;
+    }
+
+    public long getAggregatedUniqueRows()
+    {
+        return aggregatedUniqueRows;
+    }
+
+    public long getSkippedInputRows()
+    {
+        return skippedInputRows;
+    }
+
+    public long getPartialAggregationDisabledOperators()
+    {
+        return partialAggregationDisabledOperators;
+    }
+
+    public long getTotalOperators()
+    {
+        return totalOperators;
+    }
+
+    @Override
+    public PartialAggregationStats mergeWith(PartialAggregationStats other)
+    {
+        return new PartialAggregationStats(
+                aggregatedInputRows + other.aggregatedInputRows,
+                aggregatedUniqueRows + other.aggregatedUniqueRows,
+                skippedInputRows + other.skippedInputRows,
+                partialAggregationDisabledOperators + other.partialAggregationDisabledOperators,
+                totalOperators + other.totalOperators);
+    }
+}
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.units.Duration;
 import io.trino.execution.StageInfo;
 import io.trino.execution.TaskInfo;
+import io.trino.operator.HashAggregationOperatorInfo;
 import io.trino.operator.HashCollisionsInfo;
 import io.trino.operator.OperatorStats;
 import io.trino.operator.PipelineStats;
@@ -29,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.collect.Iterables.getLast;
@@ -82,6 +84,7 @@ public final class PlanNodeStatsSummarizer
         Map<PlanNodeId, Map<String, OperatorInputStats>> operatorInputStats = new HashMap<>();
         Map<PlanNodeId, Map<String, OperatorHashCollisionsStats>> operatorHashCollisionsStats = new HashMap<>();
         Map<PlanNodeId, WindowOperatorStats> windowNodeStats = new HashMap<>();
+        Map<PlanNodeId, PartialAggregationStats> partialAggregationStats = new HashMap<>();
 
         for (PipelineStats pipelineStats : taskStats.getPipelines()) {
             // Due to eventual consistently collected stats, these could be empty
@@ -149,17 +152,14 @@ public final class PlanNodeStatsSummarizer
             for (OperatorStats operatorStats : pipelineStats.getOperatorSummaries()) {
                 PlanNodeId planNodeId = operatorStats.getPlanNodeId();
 
+                if (operatorStats.getInfo() instanceof HashAggregationOperatorInfo) {
+                    HashAggregationOperatorInfo hashAggregationOperatorInfo = (HashAggregationOperatorInfo) operatorStats.getInfo();
+                    partialAggregationStats.merge(planNodeId, PartialAggregationStats.create(hashAggregationOperatorInfo), PartialAggregationStats::mergeWith);
+                    addHashCollisionsStats(operatorHashCollisionsStats, operatorStats, hashAggregationOperatorInfo.getHashCollisionsInfo());
+                }
+
                 if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
-                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
-                    operatorHashCollisionsStats.merge(planNodeId,
-                            ImmutableMap.of(
-                                    operatorStats.getOperatorType(),
-                                    new OperatorHashCollisionsStats(
-                                            hashCollisionsInfo.getWeightedHashCollisions(),
-                                            hashCollisionsInfo.getWeightedSumSquaredHashCollisions(),
-                                            hashCollisionsInfo.getWeightedExpectedHashCollisions(),
-                                            operatorStats.getInputPositions())),
-                            (map1, map2) -> mergeMaps(map1, map2, OperatorHashCollisionsStats::merge));
+                    addHashCollisionsStats(operatorHashCollisionsStats, operatorStats, (HashCollisionsInfo) operatorStats.getInfo());
                 }
 
                 // The only statistics we have for Window Functions are very low level, thus displayed only in VERBOSE mode
@@ -195,7 +195,8 @@ public final class PlanNodeStatsSummarizer
                         succinctBytes(planNodeOutputBytes.getOrDefault(planNodeId, 0L)),
                         succinctBytes(planNodeSpilledDataSize.get(planNodeId)),
                         operatorInputStats.get(planNodeId),
-                        operatorHashCollisionsStats.get(planNodeId));
+                        operatorHashCollisionsStats.get(planNodeId),
+                        Optional.ofNullable(partialAggregationStats.get(planNodeId)));
             }
             else if (windowNodeStats.containsKey(planNodeId)) {
                 nodeStats = new WindowPlanNodeStats(
@@ -227,4 +228,20 @@ public final class PlanNodeStatsSummarizer
         }
         return stats;
     }
+
+    private static void addHashCollisionsStats(
+            Map<PlanNodeId, Map<String, OperatorHashCollisionsStats>> operatorHashCollisionsStats,
+            OperatorStats operatorStats,
+            HashCollisionsInfo hashCollisionsInfo)
+    {
+        operatorHashCollisionsStats.merge(operatorStats.getPlanNodeId(),
+                ImmutableMap.of(
+                        operatorStats.getOperatorType(),
+                        new OperatorHashCollisionsStats(
+                                hashCollisionsInfo.getWeightedHashCollisions(),
+                                hashCollisionsInfo.getWeightedSumSquaredHashCollisions(),
+                                hashCollisionsInfo.getWeightedExpectedHashCollisions(),
+                                operatorStats.getInputPositions())),
+                (map1, map2) -> mergeMaps(map1, map2, OperatorHashCollisionsStats::merge));
+    }
 }
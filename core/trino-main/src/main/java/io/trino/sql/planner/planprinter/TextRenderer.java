@@ -137,6 +137,7 @@ public class TextRenderer
 
         printDistributions(output, nodeStats);
         printCollisions(output, nodeStats);
+        printPartialAggregationStats(output, nodeStats);
 
         if (nodeStats instanceof WindowPlanNodeStats) {
             printWindowOperatorStats(output, ((WindowPlanNodeStats) nodeStats).getWindowOperatorStats());
@@ -187,6 +188,26 @@ public class TextRenderer
         }
     }
 
+    private void printPartialAggregationStats(StringBuilder output, PlanNodeStats stats)
+    {
+        if (!(stats instanceof HashCollisionPlanNodeStats)) {
+            return;
+        }
+
+        Optional<PartialAggregationStats> partialAggregationStats = ((HashCollisionPlanNodeStats) stats).getPartialAggregationStats();
+        if (partialAggregationStats.isEmpty()) {
+            return;
+        }
+
+        PartialAggregationStats partialStats = partialAggregationStats.get();
+        output.append(format(Locale.US, "Partial aggregation: disabled in %s of %s operators, Aggregated: %s into %s, Passed through: %s\n",
+                partialStats.getPartialAggregationDisabledOperators(),
+                partialStats.getTotalOperators(),
+                formatPositions(partialStats.getAggregatedInputRows()),
+                formatPositions(partialStats.getAggregatedUniqueRows()),
+                formatPositions(partialStats.getSkippedInputRows())));
+    }
+
     private void printWindowOperatorStats(StringBuilder output, WindowOperatorStats stats)
     {
         if (!verbose) {
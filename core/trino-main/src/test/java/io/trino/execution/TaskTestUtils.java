@@ -15,6 +15,7 @@ package io.trino.execution;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.json.ObjectMapperProvider;
 import io.trino.connector.CatalogName;
 import io.trino.cost.StatsAndCosts;
@@ -30,6 +31,7 @@ import io.trino.index.IndexManager;
 import io.trino.metadata.InMemoryNodeManager;
 import io.trino.metadata.Metadata;
 import io.trino.metadata.Split;
+import io.trino.operator.FragmentResultCache;
 import io.trino.operator.PagesIndex;
 import io.trino.operator.TrinoOperatorFactories;
 import io.trino.operator.index.IndexJoinLookupStats;
@@ -101,6 +103,8 @@ public final class TaskTestUtils
                     .withBucketToPartition(Optional.of(new int[1])),
             ungroupedExecution(),
             StatsAndCosts.empty(),
+            Optional.empty(),
+            ImmutableSet.of(),
             Optional.empty());
 
     public static LocalExecutionPlanner createTestingPlanner()
@@ -151,7 +155,8 @@ public final class TaskTestUtils
                 new OrderingCompiler(typeOperators),
                 new DynamicFilterConfig(),
                 typeOperators,
-                blockTypeOperators);
+                blockTypeOperators,
+                new FragmentResultCache(Optional.empty()));
     }
 
     public static TaskInfo updateTask(SqlTask sqlTask, List<TaskSource> taskSources, OutputBuffers outputBuffers)
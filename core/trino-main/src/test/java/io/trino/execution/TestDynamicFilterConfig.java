@@ -23,6 +23,7 @@ import static io.airlift.configuration.testing.ConfigAssertions.assertFullMappin
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
 import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 
 public class TestDynamicFilterConfig
 {
@@ -32,6 +33,8 @@ public class TestDynamicFilterConfig
         assertRecordedDefaults(recordDefaults(DynamicFilterConfig.class)
                 .setEnableDynamicFiltering(true)
                 .setEnableLargeDynamicFilters(false)
+                .setEnableBloomFilterDynamicFilters(false)
+                .setBloomFilterMaxSizePerDriver(DataSize.of(1, MEGABYTE))
                 .setServiceThreadCount(2)
                 .setSmallBroadcastMaxDistinctValuesPerDriver(200)
                 .setSmallBroadcastMaxSizePerDriver(DataSize.of(20, KILOBYTE))
@@ -53,6 +56,8 @@ public class TestDynamicFilterConfig
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("enable-dynamic-filtering", "false")
                 .put("enable-large-dynamic-filters", "true")
+                .put("enable-bloom-filter-dynamic-filters", "true")
+                .put("dynamic-filtering.bloom-filter.max-size-per-driver", "4MB")
                 .put("dynamic-filtering.service-thread-count", "4")
                 .put("dynamic-filtering.small-broadcast.max-distinct-values-per-driver", "256")
                 .put("dynamic-filtering.small-broadcast.max-size-per-driver", "64kB")
@@ -71,6 +76,8 @@ public class TestDynamicFilterConfig
         DynamicFilterConfig expected = new DynamicFilterConfig()
                 .setEnableDynamicFiltering(false)
                 .setEnableLargeDynamicFilters(true)
+                .setEnableBloomFilterDynamicFilters(true)
+                .setBloomFilterMaxSizePerDriver(DataSize.of(4, MEGABYTE))
                 .setServiceThreadCount(4)
                 .setSmallBroadcastMaxDistinctValuesPerDriver(256)
                 .setSmallBroadcastMaxSizePerDriver(DataSize.of(64, KILOBYTE))
@@ -21,6 +21,8 @@ import com.google.common.collect.Sets;
 import io.airlift.stats.CounterStat;
 import io.airlift.stats.TestingGcMonitor;
 import io.airlift.units.DataSize;
+import io.trino.execution.buffer.FileTaskOutputSpool;
+import io.trino.execution.buffer.FileTaskOutputSpoolConfig;
 import io.trino.execution.executor.TaskExecutor;
 import io.trino.memory.MemoryPool;
 import io.trino.memory.QueryContext;
@@ -306,6 +308,7 @@ public class TestMemoryRevokingScheduler
                 sqlTask -> {},
                 DataSize.of(32, MEGABYTE),
                 DataSize.of(200, MEGABYTE),
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()),
                 new CounterStat());
     }
 
@@ -23,7 +23,9 @@ import java.util.Map;
 import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
 import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
 import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
 import static java.util.concurrent.TimeUnit.DAYS;
 import static java.util.concurrent.TimeUnit.HOURS;
 import static java.util.concurrent.TimeUnit.MINUTES;
@@ -46,6 +48,8 @@ public class TestQueryManagerConfig
                 .setMaxConcurrentQueries(1000)
                 .setMaxQueuedQueries(5000)
                 .setInitialHashPartitions(100)
+                .setAdaptiveHashPartitionCountEnabled(false)
+                .setTargetInputSizePerHashPartition(DataSize.of(512, MEGABYTE))
                 .setQueryManagerExecutorPoolSize(5)
                 .setRemoteTaskMinErrorDuration(new Duration(5, MINUTES))
                 .setRemoteTaskMaxErrorDuration(new Duration(5, MINUTES))
@@ -57,7 +61,15 @@ public class TestQueryManagerConfig
                 .setQueryMaxCpuTime(new Duration(1_000_000_000, DAYS))
                 .setQueryMaxScanPhysicalBytes(null)
                 .setRequiredWorkers(1)
-                .setRequiredWorkersMaxWait(new Duration(5, MINUTES)));
+                .setRequiredWorkersMaxWait(new Duration(5, MINUTES))
+                .setRetryPolicy(RetryPolicy.NONE)
+                .setTaskRetryAttempts(4)
+                .setResultCacheEnabled(false)
+                .setResultCacheMaxSize(DataSize.of(256, MEGABYTE))
+                .setResultCacheMaxEntrySize(DataSize.of(8, MEGABYTE))
+                .setFragmentResultCacheEnabled(false)
+                .setPlanCacheEnabled(false)
+                .setPlanCacheMaxEntries(1000));
     }
 
     @Test
@@ -75,6 +87,8 @@ public class TestQueryManagerConfig
                 .put("query.max-concurrent-queries", "10")
                 .put("query.max-queued-queries", "15")
                 .put("query.initial-hash-partitions", "16")
+                .put("query.adaptive-hash-partition-count-enabled", "true")
+                .put("query.target-input-size-per-hash-partition", "64MB")
                 .put("query.manager-executor-pool-size", "11")
                 .put("query.remote-task.min-error-duration", "30s")
                 .put("query.remote-task.max-error-duration", "60s")
@@ -87,6 +101,14 @@ public class TestQueryManagerConfig
                 .put("query.max-scan-physical-bytes", "1kB")
                 .put("query-manager.required-workers", "333")
                 .put("query-manager.required-workers-max-wait", "33m")
+                .put("retry-policy", "TASK")
+                .put("task-retry-attempts", "2")
+                .put("query.result-cache.enabled", "true")
+                .put("query.result-cache.max-size", "1GB")
+                .put("query.result-cache.max-entry-size", "64MB")
+                .put("query.fragment-result-cache.enabled", "true")
+                .put("query.plan-cache.enabled", "true")
+                .put("query.plan-cache.max-entries", "50")
                 .build();
 
         QueryManagerConfig expected = new QueryManagerConfig()
@@ -101,6 +123,8 @@ public class TestQueryManagerConfig
                 .setMaxConcurrentQueries(10)
                 .setMaxQueuedQueries(15)
                 .setInitialHashPartitions(16)
+                .setAdaptiveHashPartitionCountEnabled(true)
+                .setTargetInputSizePerHashPartition(DataSize.of(64, MEGABYTE))
                 .setQueryManagerExecutorPoolSize(11)
                 .setRemoteTaskMinErrorDuration(new Duration(60, SECONDS))
                 .setRemoteTaskMaxErrorDuration(new Duration(60, SECONDS))
@@ -112,7 +136,15 @@ public class TestQueryManagerConfig
                 .setQueryMaxCpuTime(new Duration(2, DAYS))
                 .setQueryMaxScanPhysicalBytes(DataSize.of(1, KILOBYTE))
                 .setRequiredWorkers(333)
-                .setRequiredWorkersMaxWait(new Duration(33, MINUTES));
+                .setRequiredWorkersMaxWait(new Duration(33, MINUTES))
+                .setRetryPolicy(RetryPolicy.TASK)
+                .setTaskRetryAttempts(2)
+                .setResultCacheEnabled(true)
+                .setResultCacheMaxSize(DataSize.of(1, GIGABYTE))
+                .setResultCacheMaxEntrySize(DataSize.of(64, MEGABYTE))
+                .setFragmentResultCacheEnabled(true)
+                .setPlanCacheEnabled(true)
+                .setPlanCacheMaxEntries(50);
 
         assertFullMapping(properties, expected);
     }
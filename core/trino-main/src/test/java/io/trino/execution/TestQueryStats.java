@@ -229,6 +229,8 @@ public class TestQueryStats
 
             DynamicFiltersStats.EMPTY,
 
+            ImmutableList.of(new JoinDistributionSwitch(new PlanNodeId("7"), DataSize.ofBytes(108))),
+
             operatorSummaries);
 
     @Test
@@ -316,5 +318,6 @@ public class TestQueryStats
         assertEquals(58, actual.getLogicalWrittenDataSize().toBytes());
 
         assertEquals(DynamicFiltersStats.EMPTY, actual.getDynamicFiltersStats());
+        assertEquals(actual.getJoinDistributionSwitches(), ImmutableList.of(new JoinDistributionSwitch(new PlanNodeId("7"), DataSize.ofBytes(108))));
     }
 }
@@ -23,6 +23,8 @@ import io.airlift.stats.TestingGcMonitor;
 import io.airlift.units.DataSize;
 import io.trino.execution.buffer.BufferResult;
 import io.trino.execution.buffer.BufferState;
+import io.trino.execution.buffer.FileTaskOutputSpool;
+import io.trino.execution.buffer.FileTaskOutputSpoolConfig;
 import io.trino.execution.buffer.OutputBuffers;
 import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
 import io.trino.execution.executor.TaskExecutor;
@@ -365,6 +367,7 @@ public class TestSqlTask
                 sqlTask -> {},
                 DataSize.of(32, MEGABYTE),
                 DataSize.of(200, MEGABYTE),
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()),
                 new CounterStat());
     }
 }
@@ -23,6 +23,8 @@ import io.airlift.units.DataSize.Unit;
 import io.airlift.units.Duration;
 import io.trino.execution.buffer.BufferResult;
 import io.trino.execution.buffer.BufferState;
+import io.trino.execution.buffer.FileTaskOutputSpool;
+import io.trino.execution.buffer.FileTaskOutputSpoolConfig;
 import io.trino.execution.buffer.OutputBuffers;
 import io.trino.execution.buffer.OutputBuffers.OutputBufferId;
 import io.trino.execution.executor.TaskExecutor;
@@ -310,7 +312,8 @@ public class TestSqlTaskManager
                 nodeMemoryConfig,
                 localSpillManager,
                 new NodeSpillConfig(),
-                new TestingGcMonitor());
+                new TestingGcMonitor(),
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()));
     }
 
     private TaskInfo createTask(SqlTaskManager sqlTaskManager, TaskId taskId, ImmutableSet<ScheduledSplit> splits, OutputBuffers outputBuffers)
@@ -20,6 +20,7 @@ import io.airlift.stats.Distribution;
 import io.airlift.stats.Distribution.DistributionSnapshot;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.trino.operator.SkewedPartitionKey;
 import io.trino.spi.eventlistener.StageGcStatistics;
 import org.joda.time.DateTime;
 import org.testng.annotations.Test;
@@ -85,7 +86,9 @@ public class TestStageStats
                     106,
                     107),
 
-            ImmutableList.of());
+            ImmutableList.of(),
+
+            ImmutableList.of(new SkewedPartitionKey(ImmutableList.of("42", "NULL"), 3, 1000)));
 
     @Test
     public void testJson()
@@ -151,6 +154,8 @@ public class TestStageStats
         assertEquals(actual.getGcInfo().getMaxFullGcSec(), 105);
         assertEquals(actual.getGcInfo().getTotalFullGcSec(), 106);
         assertEquals(actual.getGcInfo().getAverageFullGcSec(), 107);
+
+        assertEquals(actual.getSkewedPartitionKeys(), ImmutableList.of(new SkewedPartitionKey(ImmutableList.of("42", "NULL"), 3, 1000)));
     }
 
     private static DistributionSnapshot getTestDistribution(int count)
@@ -0,0 +1,170 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.buffer;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.TaskOutputSpool.TaskOutputReader;
+import io.trino.execution.buffer.TaskOutputSpool.TaskOutputSink;
+import io.trino.spi.Page;
+import io.trino.spi.QueryId;
+import io.trino.spi.TrinoException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
+import static io.trino.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
+import static io.trino.operator.PageAssertions.assertPageEquals;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static java.nio.file.Files.createTempDirectory;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+
+@Test(singleThreaded = true)
+public class TestFileTaskOutputSpool
+{
+    private static final PagesSerde PAGES_SERDE = testingPagesSerde();
+    private static final TaskId TASK_ID = new TaskId("query", 1, 0);
+
+    private Path spoolPath;
+    private TaskOutputSpool taskOutputSpool;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        spoolPath = createTempDirectory(getClass().getSimpleName());
+        taskOutputSpool = new FileTaskOutputSpool(spoolPath);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(spoolPath, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testRoundTrip()
+    {
+        TaskOutputSink sink = taskOutputSpool.createSink(TASK_ID, 3);
+        sink.add(0, serialize(createPage(1), createPage(2)));
+        sink.add(2, serialize(createPage(3)));
+        sink.add(0, serialize(createPage(4)));
+        sink.finish();
+
+        assertPartition(TASK_ID, 0, createPage(1), createPage(2), createPage(4));
+        assertPartition(TASK_ID, 1);
+        assertPartition(TASK_ID, 2, createPage(3));
+
+        // a partition can be read any number of times
+        assertPartition(TASK_ID, 0, createPage(1), createPage(2), createPage(4));
+    }
+
+    @Test
+    public void testOutputInvisibleUntilFinished()
+    {
+        TaskOutputSink sink = taskOutputSpool.createSink(TASK_ID, 1);
+        sink.add(0, serialize(createPage(1)));
+
+        assertThatThrownBy(() -> taskOutputSpool.createReader(TASK_ID, 0))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("Output of task query.1.0 was not found in the task output spool");
+
+        sink.finish();
+        assertPartition(TASK_ID, 0, createPage(1));
+    }
+
+    @Test
+    public void testAbort()
+    {
+        TaskOutputSink sink = taskOutputSpool.createSink(TASK_ID, 1);
+        sink.add(0, serialize(createPage(1)));
+        sink.abort();
+
+        assertThatThrownBy(() -> taskOutputSpool.createReader(TASK_ID, 0))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("Output of task query.1.0 was not found in the task output spool");
+
+        // aborting a finished sink keeps the output
+        TaskId retriedTaskId = new TaskId("query", 1, 1);
+        sink = taskOutputSpool.createSink(retriedTaskId, 1);
+        sink.add(0, serialize(createPage(2)));
+        sink.finish();
+        sink.abort();
+        assertPartition(retriedTaskId, 0, createPage(2));
+    }
+
+    @Test
+    public void testRemoveQuery()
+    {
+        TaskOutputSink sink = taskOutputSpool.createSink(TASK_ID, 1);
+        sink.add(0, serialize(createPage(1)));
+        sink.finish();
+
+        TaskId otherQueryTaskId = new TaskId("other_query", 1, 0);
+        sink = taskOutputSpool.createSink(otherQueryTaskId, 1);
+        sink.add(0, serialize(createPage(2)));
+        sink.finish();
+
+        taskOutputSpool.removeQuery(new QueryId("query"));
+        assertThatThrownBy(() -> taskOutputSpool.createReader(TASK_ID, 0))
+                .isInstanceOf(TrinoException.class)
+                .hasMessage("Output of task query.1.0 was not found in the task output spool");
+        assertPartition(otherQueryTaskId, 0, createPage(2));
+
+        // removing a query without spooled output is a no-op
+        taskOutputSpool.removeQuery(new QueryId("unknown_query"));
+    }
+
+    private void assertPartition(TaskId taskId, int partition, Page... expectedPages)
+    {
+        TaskOutputReader reader = taskOutputSpool.createReader(taskId, partition);
+        try {
+            for (Page expectedPage : expectedPages) {
+                SerializedPage page = reader.readPage();
+                assertNotNull(page);
+                assertPageEquals(ImmutableList.of(BIGINT), PAGES_SERDE.deserialize(page), expectedPage);
+            }
+            assertNull(reader.readPage());
+        }
+        finally {
+            reader.close();
+        }
+    }
+
+    private static List<SerializedPage> serialize(Page... pages)
+    {
+        try (PagesSerde.PagesSerdeContext context = PAGES_SERDE.newContext()) {
+            ImmutableList.Builder<SerializedPage> serializedPages = ImmutableList.builder();
+            for (Page page : pages) {
+                serializedPages.add(PAGES_SERDE.serialize(context, page));
+            }
+            return serializedPages.build();
+        }
+    }
+
+    private static Page createPage(int start)
+    {
+        return new Page(createLongSequenceBlock(start, start + 10));
+    }
+}
@@ -19,20 +19,27 @@ import io.airlift.slice.Slice;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.LongArrayBlock;
 import io.trino.spi.type.Type;
 import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Random;
 
+import static io.airlift.slice.SizeOf.sizeOf;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
 import static io.trino.execution.buffer.PagesSerdeUtil.readPages;
 import static io.trino.execution.buffer.PagesSerdeUtil.writePages;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.operator.PageAssertions.assertPageEquals;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.VarcharType.VARCHAR;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -60,6 +67,78 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testCompressionCodecs()
+    {
+        Page page = new Page(createLongSequenceBlock(0, 1000), new LongArrayBlock(1000, Optional.empty(), new long[1000]));
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = createPagesSerde(codec, false);
+            SerializedPage serializedPage = serde.serialize(serde.newContext(), page);
+            assertEquals(serializedPage.isCompressed(), codec != CompressionCodec.NONE);
+            assertEquals(CompressionCodec.fromMarkers(serializedPage.getPageCodecMarkers()), codec);
+            assertPageEquals(ImmutableList.of(BIGINT, BIGINT), serde.deserialize(serializedPage), page);
+
+            // the codec is recorded in the page, so the receiver does not need to use the same codec
+            assertPageEquals(ImmutableList.of(BIGINT, BIGINT), createPagesSerde(CompressionCodec.LZ4, false).deserialize(serializedPage), page);
+            assertPageEquals(ImmutableList.of(BIGINT, BIGINT), createPagesSerde(CompressionCodec.NONE, false).deserialize(serializedPage), page);
+        }
+    }
+
+    @Test
+    public void testAdaptiveCompression()
+    {
+        Random random = new Random(42);
+        long[] randomValues = new long[1000];
+        for (int i = 0; i < randomValues.length; i++) {
+            randomValues[i] = random.nextLong();
+        }
+        Page incompressiblePage = new Page(new LongArrayBlock(randomValues.length, Optional.empty(), randomValues));
+        Page compressiblePage = new Page(new LongArrayBlock(1000, Optional.empty(), new long[1000]));
+
+        PagesSerde serde = createPagesSerde(CompressionCodec.ZSTD, true);
+        PagesSerde.PagesSerdeContext context = serde.newContext();
+        assertFalse(serde.serialize(context, incompressiblePage).isCompressed());
+        // compression is not attempted for the next page after a page that did not compress well
+        assertFalse(serde.serialize(context, compressiblePage).isCompressed());
+        assertTrue(serde.serialize(context, compressiblePage).isCompressed());
+
+        // the skip interval doubles with every consecutive poorly compressed page
+        assertFalse(serde.serialize(context, incompressiblePage).isCompressed());
+        assertFalse(serde.serialize(context, incompressiblePage).isCompressed());
+        assertFalse(serde.serialize(context, incompressiblePage).isCompressed());
+        assertFalse(serde.serialize(context, compressiblePage).isCompressed());
+        assertFalse(serde.serialize(context, compressiblePage).isCompressed());
+        SerializedPage serializedPage = serde.serialize(context, compressiblePage);
+        assertTrue(serializedPage.isCompressed());
+        assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), compressiblePage);
+    }
+
+    @Test
+    public void testDecompressionBufferReuse()
+    {
+        PagesSerde serde = createPagesSerde(CompressionCodec.LZ4, false);
+        Page fixedWidthPage = new Page(new LongArrayBlock(1000, Optional.empty(), new long[1000]));
+        BlockBuilder varcharBlockBuilder = VARCHAR.createBlockBuilder(null, 500);
+        for (int i = 0; i < 500; i++) {
+            VARCHAR.writeString(varcharBlockBuilder, "value");
+        }
+        Page variableWidthPage = new Page(varcharBlockBuilder.build());
+
+        SerializedPage serializedFixedWidthPage = serde.serialize(serde.newContext(), fixedWidthPage);
+        SerializedPage serializedVariableWidthPage = serde.serialize(serde.newContext(), variableWidthPage);
+        assertTrue(serializedFixedWidthPage.isCompressed());
+        assertTrue(serializedVariableWidthPage.isCompressed());
+
+        PagesSerde.PagesSerdeContext context = serde.newContext();
+        // values of fixed width blocks are copied, so the decompression buffer is kept for reuse
+        assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(context, serializedFixedWidthPage), fixedWidthPage);
+        assertEquals(context.getRetainedSizeInBytes(), sizeOf(new byte[serializedFixedWidthPage.getUncompressedSizeInBytes()]));
+        // variable width blocks reference the decompressed data, so the buffer is handed over to the page
+        Page deserializedVariableWidthPage = serde.deserialize(context, serializedVariableWidthPage);
+        assertEquals(context.getRetainedSizeInBytes(), 0);
+        assertPageEquals(ImmutableList.of(VARCHAR), deserializedVariableWidthPage, variableWidthPage);
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -119,6 +198,11 @@ public class TestPagesSerde
                 .hasMessage("PagesSerdeContext is already closed");
     }
 
+    private static PagesSerde createPagesSerde(CompressionCodec compressionCodec, boolean adaptiveCompression)
+    {
+        return new PagesSerde(createTestMetadataManager().getBlockEncodingSerde(), compressionCodec, adaptiveCompression, Optional.empty());
+    }
+
     private static int serializedSize(List<? extends Type> types, Page expectedPage)
     {
         PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
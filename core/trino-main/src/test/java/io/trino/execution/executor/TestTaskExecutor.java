@@ -16,6 +16,8 @@ package io.trino.execution.executor;
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.stats.CounterStat;
+import io.airlift.stats.TimeStat;
 import io.airlift.testing.TestingTicker;
 import io.airlift.units.Duration;
 import io.trino.execution.SplitRunner;
@@ -36,11 +38,13 @@ import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertLessThan;
 import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_CONTRIBUTION_CAP;
 import static io.trino.execution.executor.MultilevelSplitQueue.LEVEL_THRESHOLD_SECONDS;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 public class TestTaskExecutor
@@ -364,6 +368,61 @@ public class TestTaskExecutor
         }
     }
 
+    @Test
+    public void testRunnerSplitQueues()
+            throws Exception
+    {
+        MultilevelSplitQueue splitQueue = new MultilevelSplitQueue(2, 2);
+        TestingTicker ticker = new TestingTicker();
+        TaskHandle taskHandle = new TaskHandle(new TaskId("test", 0, 0), splitQueue, () -> 1, 1, new Duration(1, SECONDS), OptionalInt.empty());
+        PrioritizedSplitRunner split = new PrioritizedSplitRunner(
+                taskHandle,
+                new TestingJob(ticker, new Phaser(), new Phaser(), new Phaser(), 1, 0),
+                ticker,
+                new CounterStat(),
+                new CounterStat(),
+                new TimeStat(MICROSECONDS),
+                new TimeStat(MICROSECONDS));
+
+        // new split is queued for the first runner, and stolen by the idle second runner
+        splitQueue.offer(split);
+        assertSame(splitQueue.take(1), split);
+        assertEquals(splitQueue.getStolenSplits().getTotalCount(), 1);
+
+        // split is queued again for the runner which ran it
+        splitQueue.offer(split);
+        assertEquals(splitQueue.size(), 1);
+        assertSame(splitQueue.take(1), split);
+        assertEquals(splitQueue.getStolenSplits().getTotalCount(), 1);
+        assertEquals(splitQueue.size(), 0);
+    }
+
+    @Test(timeOut = 30_000)
+    public void testTasksCompleteWithRunnerSplitQueues()
+            throws Exception
+    {
+        TestingTicker ticker = new TestingTicker();
+        TaskExecutor taskExecutor = new TaskExecutor(4, 8, 3, 4, new MultilevelSplitQueue(2, 4), ticker);
+        taskExecutor.start();
+
+        try {
+            TaskHandle taskHandle = taskExecutor.addTask(new TaskId("test", 0, 0), () -> 0, 10, new Duration(1, MILLISECONDS), OptionalInt.empty());
+
+            ImmutableList.Builder<TestingJob> jobs = ImmutableList.builder();
+            for (int i = 0; i < 16; i++) {
+                jobs.add(new TestingJob(ticker, new Phaser(), new Phaser(), new Phaser(), 10, 0));
+            }
+            List<ListenableFuture<Void>> futures = taskExecutor.enqueueSplits(taskHandle, false, jobs.build());
+            for (ListenableFuture<Void> future : futures) {
+                future.get(10, SECONDS);
+            }
+            taskExecutor.removeTask(taskHandle);
+        }
+        finally {
+            taskExecutor.stop();
+        }
+    }
+
     @Test(timeOut = 30_000)
     public void testMinMaxDriversPerTask()
     {
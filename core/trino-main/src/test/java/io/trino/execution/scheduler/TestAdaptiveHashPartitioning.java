@@ -0,0 +1,119 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.execution.scheduler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.units.DataSize;
+import io.trino.cost.PlanNodeStatsEstimate;
+import io.trino.cost.StatsAndCosts;
+import io.trino.sql.planner.Partitioning;
+import io.trino.sql.planner.PartitioningHandle;
+import io.trino.sql.planner.PartitioningScheme;
+import io.trino.sql.planner.PlanFragment;
+import io.trino.sql.planner.Symbol;
+import io.trino.sql.planner.plan.PlanFragmentId;
+import io.trino.sql.planner.plan.PlanNode;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.sql.planner.plan.ValuesNode;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.trino.execution.scheduler.AdaptiveHashPartitioning.getHashPartitionCount;
+import static io.trino.operator.StageExecutionDescriptor.ungroupedExecution;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
+import static io.trino.sql.planner.SystemPartitioningHandle.FIXED_HASH_DISTRIBUTION;
+import static io.trino.sql.planner.SystemPartitioningHandle.SOURCE_DISTRIBUTION;
+import static org.testng.Assert.assertEquals;
+
+public class TestAdaptiveHashPartitioning
+{
+    private static final DataSize TARGET_INPUT_SIZE = DataSize.of(64, MEGABYTE);
+    private static final Symbol SYMBOL = new Symbol("column");
+    // BIGINT value and its null flag
+    private static final int ROW_SIZE = 9;
+
+    @Test
+    public void testSmallInput()
+    {
+        assertEquals(getHashPartitionCount(ImmutableList.of(createFragment("a", 1_000, FIXED_HASH_DISTRIBUTION)), TARGET_INPUT_SIZE, 100), OptionalInt.of(1));
+        assertEquals(getHashPartitionCount(ImmutableList.of(createFragment("a", 0, FIXED_HASH_DISTRIBUTION)), TARGET_INPUT_SIZE, 100), OptionalInt.of(1));
+        assertEquals(getHashPartitionCount(ImmutableList.of(), TARGET_INPUT_SIZE, 100), OptionalInt.of(1));
+    }
+
+    @Test
+    public void testPartitionCount()
+    {
+        long rows = 10 * TARGET_INPUT_SIZE.toBytes() / ROW_SIZE;
+        List<PlanFragment> sourceFragments = ImmutableList.of(
+                createFragment("a", rows, FIXED_HASH_DISTRIBUTION),
+                createFragment("b", rows / 2, FIXED_HASH_DISTRIBUTION));
+        // 15 times the target size, rounded up
+        assertEquals(getHashPartitionCount(sourceFragments, TARGET_INPUT_SIZE, 100), OptionalInt.of(15));
+        assertEquals(getHashPartitionCount(sourceFragments, TARGET_INPUT_SIZE, 8), OptionalInt.of(8));
+    }
+
+    @Test
+    public void testBroadcastSourceIgnored()
+    {
+        List<PlanFragment> sourceFragments = ImmutableList.of(
+                createFragment("a", 1_000, FIXED_HASH_DISTRIBUTION),
+                createFragment("b", 100 * TARGET_INPUT_SIZE.toBytes() / ROW_SIZE, FIXED_BROADCAST_DISTRIBUTION));
+        assertEquals(getHashPartitionCount(sourceFragments, TARGET_INPUT_SIZE, 100), OptionalInt.of(1));
+    }
+
+    @Test
+    public void testUnknownStatistics()
+    {
+        List<PlanFragment> sourceFragments = ImmutableList.of(
+                createFragment("a", 1_000, FIXED_HASH_DISTRIBUTION),
+                createFragment("b", StatsAndCosts.empty(), FIXED_HASH_DISTRIBUTION));
+        assertEquals(getHashPartitionCount(sourceFragments, TARGET_INPUT_SIZE, 100), OptionalInt.empty());
+
+        sourceFragments = ImmutableList.of(createFragment("a", Double.NaN, FIXED_HASH_DISTRIBUTION));
+        assertEquals(getHashPartitionCount(sourceFragments, TARGET_INPUT_SIZE, 100), OptionalInt.empty());
+    }
+
+    private static PlanFragment createFragment(String name, double outputRowCount, PartitioningHandle outputPartitioning)
+    {
+        PlanNodeStatsEstimate stats = PlanNodeStatsEstimate.builder()
+                .setOutputRowCount(outputRowCount)
+                .build();
+        return createFragment(name, new StatsAndCosts(ImmutableMap.of(new PlanNodeId(name), stats), ImmutableMap.of()), outputPartitioning);
+    }
+
+    private static PlanFragment createFragment(String name, StatsAndCosts statsAndCosts, PartitioningHandle outputPartitioning)
+    {
+        PlanNode root = new ValuesNode(new PlanNodeId(name), ImmutableList.of(SYMBOL), ImmutableList.of());
+        List<Symbol> partitioningColumns = outputPartitioning.equals(FIXED_HASH_DISTRIBUTION) ? ImmutableList.of(SYMBOL) : ImmutableList.of();
+        return new PlanFragment(
+                new PlanFragmentId(name),
+                root,
+                ImmutableMap.of(SYMBOL, BIGINT),
+                SOURCE_DISTRIBUTION,
+                ImmutableList.of(),
+                new PartitioningScheme(Partitioning.create(outputPartitioning, partitioningColumns), root.getOutputSymbols()),
+                ungroupedExecution(),
+                statsAndCosts,
+                Optional.empty(),
+                ImmutableSet.of(),
+                Optional.empty());
+    }
+}
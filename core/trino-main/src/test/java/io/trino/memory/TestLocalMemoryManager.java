@@ -34,6 +34,7 @@ public class TestLocalMemoryManager
 
         LocalMemoryManager localMemoryManager = new LocalMemoryManager(config, DataSize.of(60, GIGABYTE).toBytes());
         assertFalse(localMemoryManager.getReservedPool().isPresent());
+        assertFalse(localMemoryManager.getFragmentResultCachePool().isPresent());
         assertEquals(localMemoryManager.getPools().size(), 1);
     }
 
@@ -51,6 +52,22 @@ public class TestLocalMemoryManager
         assertEquals(localMemoryManager.getPools().size(), 2);
     }
 
+    @Test
+    public void testFragmentResultCachePool()
+    {
+        NodeMemoryConfig config = new NodeMemoryConfig()
+                .setHeapHeadroom(DataSize.of(10, GIGABYTE))
+                .setMaxQueryMemoryPerNode(DataSize.of(20, GIGABYTE))
+                .setMaxQueryTotalMemoryPerNode(DataSize.of(20, GIGABYTE))
+                .setFragmentResultCacheSize(DataSize.of(5, GIGABYTE));
+
+        LocalMemoryManager localMemoryManager = new LocalMemoryManager(config, DataSize.of(60, GIGABYTE).toBytes());
+        assertTrue(localMemoryManager.getFragmentResultCachePool().isPresent());
+        assertEquals(localMemoryManager.getFragmentResultCachePool().get().getMaxBytes(), DataSize.of(5, GIGABYTE).toBytes());
+        assertEquals(localMemoryManager.getGeneralPool().getMaxBytes(), DataSize.of(45, GIGABYTE).toBytes());
+        assertEquals(localMemoryManager.getPools().size(), 2);
+    }
+
     @Test
     public void testMaxQueryMemoryPerNodeBiggerThanQueryTotalMemoryPerNode()
     {
@@ -34,7 +34,8 @@ public class TestNodeMemoryConfig
                 .setMaxQueryMemoryPerNode(DataSize.ofBytes(Math.round(AVAILABLE_HEAP_MEMORY * 0.1)))
                 .setMaxQueryTotalMemoryPerNode(DataSize.ofBytes(Math.round(AVAILABLE_HEAP_MEMORY * 0.3)))
                 .setHeapHeadroom(DataSize.ofBytes(Math.round(AVAILABLE_HEAP_MEMORY * 0.3)))
-                .setReservedPoolDisabled(true));
+                .setReservedPoolDisabled(true)
+                .setFragmentResultCacheSize(DataSize.ofBytes(0)));
     }
 
     @Test
@@ -45,13 +46,15 @@ public class TestNodeMemoryConfig
                 .put("query.max-total-memory-per-node", "3GB")
                 .put("memory.heap-headroom-per-node", "1GB")
                 .put("experimental.reserved-pool-disabled", "false")
+                .put("memory.fragment-result-cache-per-node", "2GB")
                 .build();
 
         NodeMemoryConfig expected = new NodeMemoryConfig()
                 .setMaxQueryMemoryPerNode(DataSize.of(1, GIGABYTE))
                 .setMaxQueryTotalMemoryPerNode(DataSize.of(3, GIGABYTE))
                 .setHeapHeadroom(DataSize.of(1, GIGABYTE))
-                .setReservedPoolDisabled(false);
+                .setReservedPoolDisabled(false)
+                .setFragmentResultCacheSize(DataSize.of(2, GIGABYTE));
 
         assertFullMapping(properties, expected);
     }
@@ -167,6 +167,12 @@ public abstract class AbstractMockMetadata
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public Optional<String> getTableVersionToken(Session session, TableHandle handle)
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public TableSchema getTableSchema(Session session, TableHandle tableHandle)
     {
@@ -353,6 +359,12 @@ public abstract class AbstractMockMetadata
         throw new UnsupportedOperationException();
     }
 
+    @Override
+    public boolean supportsWriteRetries(Session session, CatalogName catalogName)
+    {
+        throw new UnsupportedOperationException();
+    }
+
     @Override
     public Optional<ConnectorOutputMetadata> finishInsert(Session session, InsertTableHandle tableHandle, Collection<Slice> fragments, Collection<ComputedStatistics> computedStatistics)
     {
@@ -41,6 +41,7 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -98,7 +99,9 @@ public class BenchmarkDynamicFilterSourceOperator
                     maxDistinctValuesCount,
                     DataSize.ofBytes(Long.MAX_VALUE),
                     minMaxCollectionLimit,
-                    new BlockTypeOperators(new TypeOperators()));
+                    new BlockTypeOperators(new TypeOperators()),
+                    bloomFilters -> {},
+                    Optional.empty());
         }
 
         @TearDown
@@ -19,6 +19,7 @@ import io.airlift.units.DataSize;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.predicate.ValueSet;
@@ -35,6 +36,8 @@ import org.testng.annotations.Test;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.IntStream;
@@ -74,6 +77,7 @@ import static io.trino.type.ColorType.COLOR;
 import static java.lang.Float.floatToRawIntBits;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestDynamicFilterSourceOperator
@@ -84,6 +88,7 @@ public class TestDynamicFilterSourceOperator
     private PipelineContext pipelineContext;
 
     private ImmutableList.Builder<TupleDomain<DynamicFilterId>> partitions;
+    private ImmutableList.Builder<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilters;
 
     @BeforeMethod
     public void setUp()
@@ -95,6 +100,7 @@ public class TestDynamicFilterSourceOperator
                 .addPipelineContext(0, true, true, false);
 
         partitions = ImmutableList.builder();
+        bloomFilters = ImmutableList.builder();
     }
 
     @AfterMethod(alwaysRun = true)
@@ -128,6 +134,16 @@ public class TestDynamicFilterSourceOperator
             DataSize maxFilterSize,
             int minMaxCollectionLimit,
             Iterable<DynamicFilterSourceOperator.Channel> buildChannels)
+    {
+        return createOperatorFactory(maxFilterDistinctValues, maxFilterSize, minMaxCollectionLimit, buildChannels, Optional.empty());
+    }
+
+    private OperatorFactory createOperatorFactory(
+            int maxFilterDistinctValues,
+            DataSize maxFilterSize,
+            int minMaxCollectionLimit,
+            Iterable<DynamicFilterSourceOperator.Channel> buildChannels,
+            Optional<DataSize> bloomFilterMaxSize)
     {
         return new DynamicFilterSourceOperator.DynamicFilterSourceOperatorFactory(
                 0,
@@ -137,7 +153,9 @@ public class TestDynamicFilterSourceOperator
                 maxFilterDistinctValues,
                 maxFilterSize,
                 minMaxCollectionLimit,
-                blockTypeOperators);
+                blockTypeOperators,
+                bloomFilters::add,
+                bloomFilterMaxSize);
     }
 
     private void consumePredicate(TupleDomain<DynamicFilterId> partitionPredicate)
@@ -568,4 +586,56 @@ public class TestDynamicFilterSourceOperator
                         new Page(createLongSequenceBlock(0, maxDistinctValues + 1))),
                 ImmutableList.of(TupleDomain.all()));
     }
+
+    @Test
+    public void testCollectBloomFilters()
+    {
+        int maxDistinctValues = 100;
+        OperatorFactory operatorFactory = createOperatorFactory(
+                maxDistinctValues,
+                DataSize.of(10, KILOBYTE),
+                2 * maxDistinctValues,
+                ImmutableList.of(channel(0, BIGINT)),
+                Optional.of(DataSize.of(4, KILOBYTE)));
+        Operator operator = createOperator(operatorFactory);
+        verifyPassthrough(operator,
+                ImmutableList.of(BIGINT),
+                new Page(createLongSequenceBlock(0, maxDistinctValues + 1)),
+                new Page(createLongsBlock(1_000L, null)),
+                new Page(createLongSequenceBlock(2_000, 2_000 + (2 * maxDistinctValues))));
+        operatorFactory.noMoreOperators();
+
+        // min/max collection limit is exceeded, so only the Bloom filter is left
+        assertEquals(partitions.build(), ImmutableList.of(TupleDomain.all()));
+        List<Map<DynamicFilterId, BlockedBloomFilter>> collected = bloomFilters.build();
+        assertEquals(collected.size(), 1);
+        BlockedBloomFilter bloomFilter = collected.get(0).get(new DynamicFilterId("0"));
+        BlockTypeOperators.BlockPositionXxHash64 hashOperator = blockTypeOperators.getXxHash64Operator(BIGINT);
+        Block values = createLongsBlock(0L, 100L, 1_000L, 2_000L, 2_199L);
+        for (int position = 0; position < values.getPositionCount(); position++) {
+            assertTrue(bloomFilter.mightContain(hashOperator.xxHash64(values, position)));
+        }
+        assertEquals(operator.getOperatorContext().getOperatorMemoryContext().getUserMemory(), 0);
+    }
+
+    @Test
+    public void testBloomFiltersNotCollectedBelowLimit()
+    {
+        OperatorFactory operatorFactory = createOperatorFactory(
+                100,
+                DataSize.of(10, KILOBYTE),
+                1_000_000,
+                ImmutableList.of(channel(0, BIGINT)),
+                Optional.of(DataSize.of(4, KILOBYTE)));
+        verifyPassthrough(createOperator(operatorFactory),
+                ImmutableList.of(BIGINT),
+                new Page(createLongsBlock(1L, 2L, 3L)));
+        operatorFactory.noMoreOperators();
+
+        assertEquals(partitions.build(), ImmutableList.of(
+                TupleDomain.withColumnDomains(ImmutableMap.of(
+                        new DynamicFilterId("0"),
+                        Domain.create(ValueSet.of(BIGINT, 1L, 2L, 3L), false)))));
+        assertEquals(bloomFilters.build(), ImmutableList.of());
+    }
 }
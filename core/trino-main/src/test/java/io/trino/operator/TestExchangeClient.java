@@ -13,6 +13,7 @@
  */
 package io.trino.operator;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.util.concurrent.Futures;
@@ -26,8 +27,15 @@ import io.airlift.units.DataSize;
 import io.airlift.units.DataSize.Unit;
 import io.airlift.units.Duration;
 import io.trino.block.BlockAssertions;
+import io.trino.execution.TaskId;
+import io.trino.execution.buffer.FileTaskOutputSpool;
+import io.trino.execution.buffer.FileTaskOutputSpoolConfig;
 import io.trino.execution.buffer.PagesSerde;
+import io.trino.execution.buffer.PagesSerde.PagesSerdeContext;
 import io.trino.execution.buffer.SerializedPage;
+import io.trino.execution.buffer.SpooledOutputLocation;
+import io.trino.execution.buffer.TaskOutputSpool;
+import io.trino.execution.buffer.TaskOutputSpool.TaskOutputSink;
 import io.trino.memory.context.SimpleLocalMemoryContext;
 import io.trino.spi.Page;
 import io.trino.spi.TrinoException;
@@ -37,6 +45,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.net.URI;
+import java.nio.file.Path;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -48,6 +57,8 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableListMultimap.toImmutableListMultimap;
 import static com.google.common.collect.Maps.uniqueIndex;
 import static com.google.common.io.ByteStreams.toByteArray;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
 import static io.airlift.concurrent.MoreFutures.tryGetFutureValue;
@@ -55,6 +66,7 @@ import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertLessThan;
 import static io.trino.execution.buffer.TestingPagesSerdeFactory.testingPagesSerde;
 import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static java.nio.file.Files.createTempDirectory;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -117,7 +129,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, scheduler),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()));
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -158,7 +171,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-testAddLocation-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()));
 
         URI location1 = URI.create("http://localhost:8081/foo");
         processor.addPage(location1, createPage(1));
@@ -232,7 +246,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-testBufferLimit-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()));
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -387,7 +402,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, scheduler),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()));
 
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
@@ -419,7 +435,8 @@ public class TestExchangeClient
                 new TestingHttpClient(processor, newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-testClose-%s"))),
                 scheduler,
                 new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
-                pageBufferClientCallbackExecutor);
+                pageBufferClientCallbackExecutor,
+                new FileTaskOutputSpool(new FileTaskOutputSpoolConfig()));
         exchangeClient.addLocation(location);
         exchangeClient.noMoreLocations();
 
@@ -444,6 +461,56 @@ public class TestExchangeClient
         assertEquals(clientStatus.getHttpRequestState(), "not scheduled", "httpRequestState");
     }
 
+    @Test
+    public void testSpooledLocation()
+            throws Exception
+    {
+        Path spoolPath = createTempDirectory(getClass().getSimpleName());
+        try {
+            TaskOutputSpool taskOutputSpool = new FileTaskOutputSpool(spoolPath);
+            TaskId taskId = new TaskId("query", 0, 0);
+            TaskOutputSink sink = taskOutputSpool.createSink(taskId, 2);
+            try (PagesSerdeContext context = PAGES_SERDE.newContext()) {
+                sink.add(1, ImmutableList.of(PAGES_SERDE.serialize(context, createPage(1)), PAGES_SERDE.serialize(context, createPage(2))));
+                sink.add(0, ImmutableList.of(PAGES_SERDE.serialize(context, createPage(3))));
+            }
+            sink.finish();
+
+            DataSize maxResponseSize = DataSize.of(10, Unit.MEGABYTE);
+            @SuppressWarnings("resource")
+            ExchangeClient exchangeClient = new ExchangeClient(
+                    "localhost",
+                    DataIntegrityVerification.ABORT,
+                    DataSize.of(32, Unit.MEGABYTE),
+                    maxResponseSize,
+                    1,
+                    new Duration(1, TimeUnit.MINUTES),
+                    true,
+                    new TestingHttpClient(new MockExchangeRequestProcessor(maxResponseSize), scheduler),
+                    scheduler,
+                    new SimpleLocalMemoryContext(newSimpleAggregatedMemoryContext(), "test"),
+                    pageBufferClientCallbackExecutor,
+                    taskOutputSpool);
+
+            URI location = new SpooledOutputLocation(taskId, 1).toUri();
+            exchangeClient.addLocation(location);
+            exchangeClient.noMoreLocations();
+
+            assertPageEquals(getNextPage(exchangeClient), createPage(1));
+            assertPageEquals(getNextPage(exchangeClient), createPage(2));
+            assertNull(getNextPage(exchangeClient));
+            assertEquals(exchangeClient.isClosed(), true);
+
+            PageBufferClientStatus clientStatus = exchangeClient.getStatus().getPageBufferClientStatuses().get(0);
+            assertEquals(clientStatus.getUri(), location);
+            assertEquals(clientStatus.getState(), "closed", "status");
+            assertEquals(clientStatus.getPagesReceived(), 2, "pagesReceived");
+        }
+        finally {
+            deleteRecursively(spoolPath, ALLOW_INSECURE);
+        }
+    }
+
     private static Page createPage(int size)
     {
         return new Page(BlockAssertions.createLongSequenceBlock(0, size));
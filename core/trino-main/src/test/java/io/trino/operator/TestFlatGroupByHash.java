@@ -0,0 +1,173 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.spi.Page;
+import io.trino.spi.PageBuilder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.RunLengthEncodedBlock;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.gen.JoinCompiler;
+import io.trino.type.BlockTypeOperators;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.block.BlockAssertions.assertBlockEquals;
+import static io.trino.block.BlockAssertions.createLongSequenceBlock;
+import static io.trino.block.BlockAssertions.createLongsBlock;
+import static io.trino.block.BlockAssertions.createStringSequenceBlock;
+import static io.trino.block.BlockAssertions.createStringsBlock;
+import static io.trino.block.BlockAssertions.createTypedLongsBlock;
+import static io.trino.operator.GroupByHash.createGroupByHash;
+import static io.trino.operator.UpdateMemory.NOOP;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.type.TypeTestUtils.getHashBlock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestFlatGroupByHash
+{
+    private static final TypeOperators TYPE_OPERATORS = new TypeOperators();
+    private static final BlockTypeOperators TYPE_OPERATOR_FACTORY = new BlockTypeOperators(TYPE_OPERATORS);
+    private static final JoinCompiler JOIN_COMPILER = new JoinCompiler(TYPE_OPERATORS);
+
+    @Test
+    public void testCreateGroupByHash()
+    {
+        assertTrue(createGroupByHash(ImmutableList.of(BIGINT, VARCHAR), new int[] {0, 1}, Optional.empty(), 10, false, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP) instanceof FlatGroupByHash);
+        assertTrue(createGroupByHash(ImmutableList.of(BIGINT, VARCHAR), new int[] {0, 1}, Optional.empty(), 10, false, false, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP) instanceof MultiChannelGroupByHash);
+        // single bigint channel still uses the specialized implementation
+        assertTrue(createGroupByHash(ImmutableList.of(BIGINT), new int[] {0}, Optional.empty(), 10, false, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP) instanceof BigintGroupByHash);
+        // double is not supported because of its IS DISTINCT FROM semantics
+        assertTrue(createGroupByHash(ImmutableList.of(DOUBLE, VARCHAR), new int[] {0, 1}, Optional.empty(), 10, false, true, JOIN_COMPILER, TYPE_OPERATOR_FACTORY, NOOP) instanceof MultiChannelGroupByHash);
+    }
+
+    @Test
+    public void testGroupIdsAndAppendTo()
+    {
+        Block longs = createLongsBlock(1L, 2L, null, 1L, 2L, null, 3L);
+        Block strings = createStringsBlock("a", "b", "c", "a", "x", "c", null);
+        Block hashBlock = getHashBlock(ImmutableList.of(BIGINT, VARCHAR), longs, strings);
+        GroupByHash groupByHash = new FlatGroupByHash(ImmutableList.of(BIGINT, VARCHAR), new int[] {0, 1}, Optional.of(2), 100, TYPE_OPERATOR_FACTORY, NOOP);
+
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(new Page(longs, strings, hashBlock));
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupIds.getGroupCount(), 5);
+        long[] expected = {0, 1, 2, 0, 3, 2, 4};
+        for (int position = 0; position < expected.length; position++) {
+            assertEquals(groupIds.getGroupId(position), expected[position]);
+        }
+
+        PageBuilder pageBuilder = new PageBuilder(groupByHash.getTypes());
+        for (int groupId = 0; groupId < groupByHash.getGroupCount(); groupId++) {
+            pageBuilder.declarePosition();
+            groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+            assertEquals(groupByHash.getRawHash(groupId), BIGINT.getLong(hashBlock, positionOfGroup(expected, groupId)));
+        }
+        Page output = pageBuilder.build();
+        assertBlockEquals(BIGINT, output.getBlock(0), createLongsBlock(1L, 2L, null, 2L, 3L));
+        assertBlockEquals(VARCHAR, output.getBlock(1), createStringsBlock("a", "b", "c", "x", null));
+        assertBlockEquals(BIGINT, output.getBlock(2), getHashBlock(ImmutableList.of(BIGINT, VARCHAR), output.getBlock(0), output.getBlock(1)));
+    }
+
+    @Test
+    public void testContains()
+    {
+        Block longs = createLongSequenceBlock(0, 100);
+        Block strings = createStringSequenceBlock(0, 100);
+        GroupByHash groupByHash = new FlatGroupByHash(ImmutableList.of(BIGINT, VARCHAR), new int[] {0, 1}, Optional.empty(), 4, TYPE_OPERATOR_FACTORY, NOOP);
+        assertTrue(groupByHash.addPage(new Page(longs, strings)).process());
+        assertEquals(groupByHash.getGroupCount(), 100);
+
+        // probe with the key columns in a different order in the page
+        int[] hashChannels = {1, 0};
+        assertTrue(groupByHash.contains(0, new Page(createStringsBlock("42"), createLongsBlock(42L)), hashChannels));
+        assertFalse(groupByHash.contains(0, new Page(createStringsBlock("42"), createLongsBlock(43L)), hashChannels));
+        assertFalse(groupByHash.contains(0, new Page(createStringsBlock((String) null), createLongsBlock(42L)), hashChannels));
+    }
+
+    @Test
+    public void testRunLengthEncoded()
+    {
+        Block longs = new RunLengthEncodedBlock(createLongsBlock(7L), 10);
+        Block otherLongs = new RunLengthEncodedBlock(createLongsBlock(3L), 10);
+        GroupByHash groupByHash = new FlatGroupByHash(ImmutableList.of(BIGINT, BIGINT), new int[] {0, 1}, Optional.empty(), 100, TYPE_OPERATOR_FACTORY, NOOP);
+
+        Work<GroupByIdBlock> work = groupByHash.getGroupIds(new Page(longs, otherLongs));
+        assertTrue(work.process());
+        GroupByIdBlock groupIds = work.getResult();
+        assertEquals(groupIds.getPositionCount(), 10);
+        assertEquals(groupIds.getGroupCount(), 1);
+        assertEquals(groupIds.getGroupId(9), 0);
+    }
+
+    @Test
+    public void testMemoryReservationYield()
+    {
+        int length = 1_000_000;
+        Block integers = createTypedLongsBlock(INTEGER, LongStream.range(0, length).boxed().collect(toImmutableList()));
+        Block strings = createStringSequenceBlock(0, length);
+        AtomicInteger currentQuota = new AtomicInteger(0);
+        AtomicInteger allowedQuota = new AtomicInteger(3);
+        UpdateMemory updateMemory = () -> {
+            if (currentQuota.get() < allowedQuota.get()) {
+                currentQuota.getAndIncrement();
+                return true;
+            }
+            return false;
+        };
+
+        GroupByHash groupByHash = new FlatGroupByHash(ImmutableList.of(INTEGER, VARCHAR), new int[] {0, 1}, Optional.empty(), 1, TYPE_OPERATOR_FACTORY, updateMemory);
+        long initialSize = groupByHash.getEstimatedSize();
+        int yields = 0;
+        Work<?> addPageWork = groupByHash.addPage(new Page(integers, strings));
+        boolean finish = false;
+        while (!finish) {
+            finish = addPageWork.process();
+            if (!finish) {
+                assertEquals(currentQuota.get(), allowedQuota.get());
+                // assert if we are blocked, we are going to be blocked again without changing allowedQuota
+                assertFalse(addPageWork.process());
+                yields++;
+                allowedQuota.getAndAdd(3);
+            }
+        }
+
+        assertEquals(groupByHash.getGroupCount(), length);
+        // the rehash count is 20 = log2(1_000_000 / 0.75)
+        assertEquals(currentQuota.get(), 20);
+        assertEquals(currentQuota.get() / 3, yields);
+        assertTrue(groupByHash.getEstimatedSize() > initialSize);
+    }
+
+    private static int positionOfGroup(long[] groupIds, int groupId)
+    {
+        for (int position = 0; position < groupIds.length; position++) {
+            if (groupIds[position] == groupId) {
+                return position;
+            }
+        }
+        throw new IllegalArgumentException("group not found: " + groupId);
+    }
+}
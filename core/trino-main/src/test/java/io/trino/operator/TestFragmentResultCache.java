@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.trino.connector.CatalogName;
+import io.trino.execution.Lifespan;
+import io.trino.memory.MemoryPool;
+import io.trino.metadata.Split;
+import io.trino.spi.HostAddress;
+import io.trino.spi.Page;
+import io.trino.spi.connector.ConnectorSplit;
+import io.trino.spi.memory.MemoryPoolId;
+import io.trino.testing.TestingSplit;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static io.trino.RowPagesBuilder.rowPagesBuilder;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestFragmentResultCache
+{
+    private static final Split SPLIT = new Split(new CatalogName("test"), new CacheableSplit("split"), Lifespan.taskWide());
+
+    @Test
+    public void testDisabledWithoutMemoryPool()
+    {
+        FragmentResultCache cache = new FragmentResultCache(Optional.empty());
+        assertFalse(cache.isEnabled());
+
+        FragmentResultCache.Key key = createKey("fragment");
+        cache.put(key, createPages(10));
+        assertFalse(cache.get(key).isPresent());
+    }
+
+    @Test
+    public void testSplitWithoutCacheIdentifierIsNotCached()
+    {
+        Split split = new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide());
+        assertFalse(FragmentResultCache.createKey("fragment", split).isPresent());
+    }
+
+    @Test
+    public void testRecordedPagesAreStoredWhenFinished()
+    {
+        FragmentResultCache cache = new FragmentResultCache(Optional.of(createPool(DataSize.of(1, DataSize.Unit.MEGABYTE))));
+        FragmentResultCache.Key key = createKey("fragment");
+        List<Page> pages = createPages(10);
+
+        FragmentResultCache.Recorder recorder = cache.createRecorder(key);
+        pages.forEach(recorder::addPage);
+        assertFalse(cache.get(key).isPresent());
+
+        recorder.finish();
+        assertEquals(cache.get(key), Optional.of(pages));
+        assertFalse(cache.get(createKey("other fragment")).isPresent());
+        assertEquals(cache.getHits().getTotalCount(), 1);
+        assertEquals(cache.getMisses().getTotalCount(), 2);
+    }
+
+    @Test
+    public void testAbandonedRecordingIsNotStored()
+    {
+        FragmentResultCache cache = new FragmentResultCache(Optional.of(createPool(DataSize.of(1, DataSize.Unit.MEGABYTE))));
+        FragmentResultCache.Key key = createKey("fragment");
+
+        FragmentResultCache.Recorder recorder = cache.createRecorder(key);
+        createPages(10).forEach(recorder::addPage);
+        recorder.abandon();
+        recorder.finish();
+        assertFalse(cache.get(key).isPresent());
+    }
+
+    @Test
+    public void testEntryLargerThanMaxEntrySizeIsNotStored()
+    {
+        MemoryPool pool = createPool(DataSize.of(16, DataSize.Unit.KILOBYTE));
+        FragmentResultCache cache = new FragmentResultCache(Optional.of(pool));
+        FragmentResultCache.Key key = createKey("fragment");
+
+        cache.put(key, createPages(1000));
+        assertFalse(cache.get(key).isPresent());
+        assertEquals(pool.getReservedBytes(), 0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted()
+    {
+        List<Page> pages = createPages(10);
+        long entrySize = pages.stream().mapToLong(Page::getRetainedSizeInBytes).sum();
+        MemoryPool pool = createPool(DataSize.ofBytes(entrySize * 16));
+        FragmentResultCache cache = new FragmentResultCache(Optional.of(pool));
+
+        for (int i = 0; i < 16; i++) {
+            cache.put(createKey("fragment " + i), pages);
+        }
+        assertEquals(cache.getEntryCount(), 16);
+        assertEquals(pool.getFreeBytes(), 0);
+
+        // the first entry becomes the most recently used one
+        assertTrue(cache.get(createKey("fragment 0")).isPresent());
+        cache.put(createKey("fragment 16"), pages);
+
+        assertEquals(cache.getEntryCount(), 16);
+        assertEquals(cache.getEvictions().getTotalCount(), 1);
+        assertTrue(cache.get(createKey("fragment 0")).isPresent());
+        assertFalse(cache.get(createKey("fragment 1")).isPresent());
+        assertTrue(cache.get(createKey("fragment 16")).isPresent());
+        assertEquals(pool.getReservedBytes(), entrySize * 16);
+    }
+
+    private static FragmentResultCache.Key createKey(String fragmentKey)
+    {
+        return FragmentResultCache.createKey(fragmentKey, SPLIT).orElseThrow();
+    }
+
+    private static MemoryPool createPool(DataSize size)
+    {
+        return new MemoryPool(new MemoryPoolId("test"), size);
+    }
+
+    private static List<Page> createPages(int rowsPerPage)
+    {
+        return ImmutableList.copyOf(rowPagesBuilder(BIGINT)
+                .addSequencePage(rowsPerPage, 0)
+                .addSequencePage(rowsPerPage, rowsPerPage)
+                .build());
+    }
+
+    private static class CacheableSplit
+            implements ConnectorSplit
+    {
+        private final String identifier;
+
+        public CacheableSplit(String identifier)
+        {
+            this.identifier = identifier;
+        }
+
+        @Override
+        public boolean isRemotelyAccessible()
+        {
+            return true;
+        }
+
+        @Override
+        public List<HostAddress> getAddresses()
+        {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public Object getInfo()
+        {
+            return identifier;
+        }
+
+        @Override
+        public Optional<String> getCacheIdentifier()
+        {
+            return Optional.of(identifier);
+        }
+    }
+}
@@ -27,6 +27,8 @@ import io.trino.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import io.trino.operator.aggregation.InternalAggregationFunction;
 import io.trino.operator.aggregation.builder.HashAggregationBuilder;
 import io.trino.operator.aggregation.builder.InMemoryHashAggregationBuilder;
+import io.trino.operator.aggregation.partial.PartialAggregationController;
+import io.trino.operator.aggregation.partial.SkipAggregationBuilder;
 import io.trino.spi.Page;
 import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.block.PageBuilderStatus;
@@ -89,6 +91,8 @@ import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
 import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
@@ -201,7 +205,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         DriverContext driverContext = createDriverContext(memoryLimitForMerge);
 
@@ -259,7 +264,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         DriverContext driverContext = createDriverContext(memoryLimitForMerge);
         MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, BIGINT, BIGINT, DOUBLE, VARCHAR, BIGINT, BIGINT)
@@ -308,7 +314,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         Operator operator = operatorFactory.createOperator(driverContext);
         toPages(operator, input.iterator(), revokeMemoryWhenAddingPages);
@@ -392,7 +399,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         toPages(operatorFactory, driverContext, input, revokeMemoryWhenAddingPages);
     }
@@ -591,6 +599,131 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(10, 0)
+                .addSequencePage(10, 10)
+                .addSequencePage(10, 20)
+                .addSequencePage(10, 30)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = createPartialAggregationOperatorFactory(rowPagesBuilder, hashChannels, new PartialAggregationController(10, 0.5));
+        DriverContext driverContext = createDriverContext();
+        MaterializedResult.Builder expectedBuilder = resultBuilder(driverContext.getSession(), BIGINT, BIGINT, BIGINT);
+        for (long key = 0; key < 40; key++) {
+            expectedBuilder.row(key, 1L, key);
+        }
+
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            List<Page> pages = toPages(operator, input.iterator());
+            assertPagesEqualIgnoreOrder(driverContext, pages, expectedBuilder.build(), hashEnabled, Optional.of(hashChannels.size()));
+
+            // every input row is unique, so only the first page is aggregated
+            assertTrue(((HashAggregationOperator) operator).isPartialAggregationDisabled());
+            HashAggregationOperatorInfo info = (HashAggregationOperatorInfo) operator.getOperatorContext().getOperatorStats().getInfo();
+            assertEquals(info.getAggregatedInputRows(), 10);
+            assertEquals(info.getAggregatedUniqueRows(), 10);
+            assertEquals(info.getSkippedInputRows(), 30);
+            assertEquals(info.getPartialAggregationDisabledOperators(), 1);
+            assertEquals(info.getTotalOperators(), 1);
+        }
+    }
+
+    @Test
+    public void testAdaptivePartialAggregationReusesSkipAggregationBuilder()
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(false, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(10, 0)
+                .addSequencePage(10, 10)
+                .addSequencePage(10, 20)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = createPartialAggregationOperatorFactory(rowPagesBuilder, hashChannels, new PartialAggregationController(10, 0.5));
+        DriverContext driverContext = createDriverContext();
+        try (HashAggregationOperator operator = (HashAggregationOperator) operatorFactory.createOperator(driverContext)) {
+            List<Page> output = new ArrayList<>();
+
+            // the first page is aggregated, then partial aggregation is disabled and the groups are flushed
+            operator.addInput(input.get(0));
+            assertTrue(operator.isPartialAggregationDisabled());
+            drainOutput(operator, output);
+
+            operator.addInput(input.get(1));
+            HashAggregationBuilder skipAggregationBuilder = operator.getAggregationBuilder();
+            assertThat(skipAggregationBuilder).isInstanceOf(SkipAggregationBuilder.class);
+            assertTrue(operator.startMemoryRevoke().isDone());
+            operator.finishMemoryRevoke();
+            drainOutput(operator, output);
+            assertSame(operator.getAggregationBuilder(), skipAggregationBuilder);
+            assertEquals(driverContext.getMemoryUsage(), 0);
+
+            operator.addInput(input.get(2));
+            assertSame(operator.getAggregationBuilder(), skipAggregationBuilder);
+            drainOutput(operator, output);
+            assertEquals(driverContext.getMemoryUsage(), 0);
+
+            operator.finish();
+            while (!operator.isFinished()) {
+                Page page = operator.getOutput();
+                if (page != null) {
+                    output.add(page);
+                }
+            }
+            assertEquals(output.stream().mapToInt(Page::getPositionCount).sum(), 30);
+            assertEquals(driverContext.getMemoryUsage(), 0);
+        }
+    }
+
+    private static void drainOutput(Operator operator, List<Page> output)
+    {
+        while (!operator.needsInput()) {
+            Page page = operator.getOutput();
+            if (page != null) {
+                output.add(page);
+            }
+        }
+    }
+
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregationWithGoodReduction(boolean hashEnabled)
+            throws Exception
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(10, 0)
+                .addSequencePage(10, 0)
+                .addSequencePage(10, 0)
+                .addSequencePage(10, 0)
+                .build();
+
+        HashAggregationOperatorFactory operatorFactory = createPartialAggregationOperatorFactory(rowPagesBuilder, hashChannels, new PartialAggregationController(20, 0.5));
+        DriverContext driverContext = createDriverContext();
+        MaterializedResult.Builder expectedBuilder = resultBuilder(driverContext.getSession(), BIGINT, BIGINT, BIGINT);
+        for (long key = 0; key < 10; key++) {
+            expectedBuilder.row(key, 4L, key);
+        }
+
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            List<Page> pages = toPages(operator, input.iterator());
+            assertPagesEqualIgnoreOrder(driverContext, pages, expectedBuilder.build(), hashEnabled, Optional.of(hashChannels.size()));
+
+            assertFalse(((HashAggregationOperator) operator).isPartialAggregationDisabled());
+            HashAggregationOperatorInfo info = (HashAggregationOperatorInfo) operator.getOperatorContext().getOperatorStats().getInfo();
+            assertEquals(info.getAggregatedInputRows(), 40);
+            assertEquals(info.getAggregatedUniqueRows(), 10);
+            assertEquals(info.getSkippedInputRows(), 0);
+            assertEquals(info.getPartialAggregationDisabledOperators(), 0);
+        }
+    }
+
     @Test
     public void testMergeWithMemorySpill()
     {
@@ -622,7 +755,8 @@ public class TestHashAggregationOperator
                 spillerFactory,
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         DriverContext driverContext = createDriverContext(smallPagesSpillThresholdSize);
 
@@ -679,7 +813,8 @@ public class TestHashAggregationOperator
                 new FailingSpillerFactory(),
                 joinCompiler,
                 blockTypeOperators,
-                false);
+                false,
+                Optional.empty());
 
         assertThatThrownBy(() -> toPages(operatorFactory, driverContext, input))
                 .isInstanceOf(RuntimeException.class)
@@ -740,6 +875,31 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+    private HashAggregationOperatorFactory createPartialAggregationOperatorFactory(RowPagesBuilder rowPagesBuilder, List<Integer> hashChannels, PartialAggregationController partialAggregationController)
+    {
+        return new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(COUNT.bind(ImmutableList.of(0), Optional.empty()),
+                        LONG_MIN.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                Optional.of(DataSize.of(16, MEGABYTE)),
+                false,
+                DataSize.ofBytes(0),
+                spillerFactory,
+                joinCompiler,
+                blockTypeOperators,
+                false,
+                Optional.of(partialAggregationController));
+    }
+
     private DriverContext createDriverContext()
     {
         return createDriverContext(Integer.MAX_VALUE);
@@ -17,9 +17,13 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import io.trino.RowPagesBuilder;
 import io.trino.operator.MarkDistinctOperator.MarkDistinctOperatorFactory;
+import io.trino.operator.exchange.LocalPartitionGenerator;
+import io.trino.operator.join.JoinTestUtils.DummySpillerFactory;
 import io.trino.spi.Page;
 import io.trino.spi.type.Type;
 import io.trino.spi.type.TypeOperators;
+import io.trino.spiller.GenericPartitioningSpillerFactory;
+import io.trino.spiller.PartitioningSpillerFactory;
 import io.trino.sql.gen.JoinCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.testing.MaterializedResult;
@@ -31,18 +35,27 @@ import org.testng.annotations.Test;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.SessionTestUtils.TEST_SESSION;
 import static io.trino.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
 import static io.trino.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
+import static io.trino.operator.OperatorAssertion.assertPagesEqualIgnoreOrder;
+import static io.trino.operator.OperatorAssertion.toPages;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
 import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
 import static io.trino.testing.MaterializedResult.resultBuilder;
 import static io.trino.testing.TestingTaskContext.createTaskContext;
 import static java.util.concurrent.Executors.newCachedThreadPool;
@@ -52,6 +65,8 @@ import static org.testng.Assert.assertEquals;
 @Test(singleThreaded = true)
 public class TestMarkDistinctOperator
 {
+    private static final PartitioningSpillerFactory PARTITIONING_SPILLER_FACTORY = new GenericPartitioningSpillerFactory(new DummySpillerFactory());
+
     private ExecutorService executor;
     private ScheduledExecutorService scheduledExecutor;
     private DriverContext driverContext;
@@ -108,6 +123,118 @@ public class TestMarkDistinctOperator
         OperatorAssertion.assertOperatorEqualsIgnoreOrder(operatorFactory, driverContext, input, expected.build(), hashEnabled, Optional.of(1));
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testMarkDistinctWithSpill(boolean hashEnabled)
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT, VARCHAR);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(100, 0, 0)
+                .addSequencePage(100, 50, 0)
+                .addSequencePage(100, 0, 0)
+                .build();
+
+        AtomicInteger spillersCount = new AtomicInteger();
+        PartitioningSpillerFactory spillerFactory = (types, partitionFunction, spillContext, memoryContext) -> {
+            spillersCount.incrementAndGet();
+            return PARTITIONING_SPILLER_FACTORY.create(types, partitionFunction, spillContext, memoryContext);
+        };
+        OperatorFactory operatorFactory = new MarkDistinctOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                ImmutableList.of(0),
+                rowPagesBuilder.getHashChannel(),
+                joinCompiler,
+                blockTypeOperators,
+                true,
+                spillerFactory);
+
+        // values marked before the first revoke are spilled along with the remaining input, so every value is marked exactly once
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, VARCHAR, BOOLEAN);
+        for (long i = 0; i < 100; i++) {
+            expected.row(i, String.valueOf(i), true);
+            expected.row(i + 50, String.valueOf(i), i >= 50);
+            expected.row(i, String.valueOf(i), false);
+        }
+
+        List<Page> pages = toPages(operatorFactory, driverContext, input, true);
+        assertPagesEqualIgnoreOrder(driverContext, pages, expected.build(), hashEnabled, Optional.of(2));
+        assertEquals(spillersCount.get(), 1);
+        assertEquals(driverContext.getRevocableMemoryUsage(), 0);
+    }
+
+    @Test
+    public void testSpillPartitionsOfLocalExchangePartition()
+    {
+        // the input of a driver is a single partition of the local exchange on the distinct symbols
+        PartitionFunction localExchangePartitions = new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}, blockTypeOperators), 16);
+        Page values = getOnlyElement(rowPagesBuilder(BIGINT).addSequencePage(10_000, 0).build());
+        int[] positions = IntStream.range(0, values.getPositionCount())
+                .filter(position -> localExchangePartitions.getPartition(values, position) == 0)
+                .toArray();
+        Page input = values.getPositions(positions, 0, positions.length);
+
+        AtomicReference<PartitionFunction> spillPartitions = new AtomicReference<>();
+        PartitioningSpillerFactory spillerFactory = (types, partitionFunction, spillContext, memoryContext) -> {
+            spillPartitions.set(partitionFunction);
+            return PARTITIONING_SPILLER_FACTORY.create(types, partitionFunction, spillContext, memoryContext);
+        };
+        OperatorFactory operatorFactory = new MarkDistinctOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                ImmutableList.of(0),
+                Optional.empty(),
+                joinCompiler,
+                blockTypeOperators,
+                true,
+                spillerFactory);
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BOOLEAN);
+        for (int position : positions) {
+            expected.row((long) position, true);
+        }
+        List<Page> pages = toPages(operatorFactory, driverContext, ImmutableList.of(input), true);
+        assertPagesEqualIgnoreOrder(driverContext, pages, expected.build(), false, Optional.empty());
+
+        // the values of the driver are spread over the spill partitions, so each unspilled partition holds only some of them
+        Set<Integer> nonEmptySpillPartitions = IntStream.range(0, input.getPositionCount())
+                .mapToObj(position -> spillPartitions.get().getPartition(input, position))
+                .collect(toImmutableSet());
+        assertGreaterThan(nonEmptySpillPartitions.size(), 1);
+    }
+
+    @Test(dataProvider = "hashEnabledValues")
+    public void testMarkDistinctSpillEnabledWithoutRevoke(boolean hashEnabled)
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(100, 0)
+                .addSequencePage(100, 0)
+                .build();
+
+        OperatorFactory operatorFactory = new MarkDistinctOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                rowPagesBuilder.getTypes(),
+                ImmutableList.of(0),
+                rowPagesBuilder.getHashChannel(),
+                joinCompiler,
+                blockTypeOperators,
+                true,
+                unsupportedPartitioningSpillerFactory());
+
+        MaterializedResult.Builder expected = resultBuilder(driverContext.getSession(), BIGINT, BOOLEAN);
+        for (long i = 0; i < 100; i++) {
+            expected.row(i, true);
+            expected.row(i, false);
+        }
+
+        List<Page> pages = toPages(operatorFactory, driverContext, input, false);
+        assertPagesEqualIgnoreOrder(driverContext, pages, expected.build(), hashEnabled, Optional.of(1));
+        assertEquals(driverContext.getRevocableMemoryUsage(), 0);
+    }
+
     @Test(dataProvider = "dataType")
     public void testMemoryReservationYield(Type type)
     {
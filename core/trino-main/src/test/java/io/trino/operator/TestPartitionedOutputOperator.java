@@ -20,6 +20,7 @@ import io.trino.execution.buffer.OutputBuffers;
 import io.trino.execution.buffer.PagesSerdeFactory;
 import io.trino.execution.buffer.PartitionedOutputBuffer;
 import io.trino.memory.context.SimpleLocalMemoryContext;
+import io.trino.operator.PartitionedOutputOperator.PartitionedOutputInfo;
 import io.trino.operator.exchange.LocalPartitionGenerator;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
@@ -56,6 +57,7 @@ import static io.trino.spi.type.BigintType.BIGINT;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 public class TestPartitionedOutputOperator
 {
@@ -179,12 +181,60 @@ public class TestPartitionedOutputOperator
         assertEquals(operatorContext.getOutputPositions().getTotalCount(), PAGE_COUNT * PARTITION_COUNT * TESTING_PAGE_WITH_NULL_BLOCK.getPositionCount());
     }
 
-    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate)
+    @Test
+    public void testSkewedKeyDetection()
+    {
+        PartitionedOutputOperator partitionedOutputOperator = createPartitionedOutputOperator(
+                false,
+                Optional.of(new SkewedPartitionKeyDetector.Factory(ImmutableList.of(0), TYPES, 4.0)));
+        for (int i = 0; i < PAGE_COUNT; i++) {
+            partitionedOutputOperator.addInput(new Page(TESTING_RLE_BLOCK));
+            partitionedOutputOperator.addInput(TESTING_PAGE);
+        }
+        partitionedOutputOperator.finish();
+
+        long skewedKey = BIGINT.getLong(TESTING_RLE_BLOCK, 0);
+        int skewedPartition = createPartitionFunction().getPartition(new Page(TESTING_RLE_BLOCK), 0);
+        PartitionedOutputInfo info = (PartitionedOutputInfo) partitionedOutputOperator.getOperatorContext().getOperatorStats().getInfo();
+        assertEquals(info.getSkewedKeys().size(), 1);
+        SkewedPartitionKey key = info.getSkewedKeys().get(0);
+        assertEquals(key.getValues(), ImmutableList.of(String.valueOf(skewedKey)));
+        assertEquals(key.getPartition(), skewedPartition);
+        // the row count is extrapolated from every SAMPLE_INTERVAL-th row
+        assertTrue(Math.abs(key.getEstimatedRows() - PAGE_COUNT * POSITIONS_PER_PAGE) <= PAGE_COUNT * SkewedPartitionKeyDetector.SAMPLE_INTERVAL);
+    }
+
+    @Test
+    public void testNoSkewedKeysForUniformInput()
+    {
+        PartitionedOutputOperator partitionedOutputOperator = createPartitionedOutputOperator(
+                false,
+                Optional.of(new SkewedPartitionKeyDetector.Factory(ImmutableList.of(0), TYPES, 4.0)));
+        for (int i = 0; i < PAGE_COUNT * 2; i++) {
+            partitionedOutputOperator.addInput(TESTING_PAGE);
+        }
+        partitionedOutputOperator.finish();
+
+        PartitionedOutputInfo info = (PartitionedOutputInfo) partitionedOutputOperator.getOperatorContext().getOperatorStats().getInfo();
+        assertEquals(info.getSkewedKeys(), ImmutableList.of());
+    }
+
+    private static PartitionFunction createPartitionFunction()
     {
         BlockTypeOperators blockTypeOperators = new BlockTypeOperators(new TypeOperators());
-        PartitionFunction partitionFunction = new LocalPartitionGenerator(
+        return new LocalPartitionGenerator(
                 new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}, blockTypeOperators),
                 PARTITION_COUNT);
+    }
+
+    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate)
+    {
+        return createPartitionedOutputOperator(shouldReplicate, Optional.empty());
+    }
+
+    private PartitionedOutputOperator createPartitionedOutputOperator(boolean shouldReplicate, Optional<SkewedPartitionKeyDetector.Factory> skewedKeyDetectorFactory)
+    {
+        PartitionFunction partitionFunction = createPartitionFunction();
         PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), false);
 
         DriverContext driverContext = TestingTaskContext.builder(executor, scheduledExecutor, TEST_SESSION)
@@ -214,7 +264,8 @@ public class TestPartitionedOutputOperator
                     true,
                     OptionalInt.of(0),
                     buffer,
-                    PARTITION_MAX_MEMORY);
+                    PARTITION_MAX_MEMORY,
+                    skewedKeyDetectorFactory);
             return (PartitionedOutputOperator) operatorFactory
                     .createOutputOperator(0, new PlanNodeId("plan-node-0"), REPLICATION_TYPES, Function.identity(), serdeFactory)
                     .createOperator(driverContext);
@@ -227,7 +278,8 @@ public class TestPartitionedOutputOperator
                     false,
                     OptionalInt.empty(),
                     buffer,
-                    PARTITION_MAX_MEMORY);
+                    PARTITION_MAX_MEMORY,
+                    skewedKeyDetectorFactory);
             return (PartitionedOutputOperator) operatorFactory
                     .createOutputOperator(0, new PlanNodeId("plan-node-0"), TYPES, Function.identity(), serdeFactory)
                     .createOperator(driverContext);
@@ -14,6 +14,7 @@
 package io.trino.operator;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.trino.SequencePageBuilder;
 import io.trino.block.BlockAssertions;
@@ -31,22 +32,31 @@ import io.trino.operator.scalar.AbstractTestFunctions;
 import io.trino.spi.Page;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.LazyBlock;
+import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.ConnectorPageSource;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.connector.FixedPageSource;
 import io.trino.spi.connector.RecordPageSource;
+import io.trino.spi.predicate.BlockedBloomFilter;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.type.TypeOperators;
 import io.trino.sql.gen.ExpressionCompiler;
 import io.trino.sql.gen.PageFunctionCompiler;
 import io.trino.sql.planner.plan.PlanNodeId;
 import io.trino.sql.relational.RowExpression;
 import io.trino.sql.tree.QualifiedName;
 import io.trino.testing.MaterializedResult;
+import io.trino.testing.TestingMetadata.TestingColumnHandle;
 import io.trino.testing.TestingSplit;
+import io.trino.type.BlockTypeOperators;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Supplier;
@@ -55,6 +65,7 @@ import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.KILOBYTE;
 import static io.trino.RowPagesBuilder.rowPagesBuilder;
 import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.block.BlockAssertions.createLongsBlock;
 import static io.trino.block.BlockAssertions.toValues;
 import static io.trino.metadata.MetadataManager.createTestMetadataManager;
 import static io.trino.operator.OperatorAssertion.toMaterializedResult;
@@ -80,6 +91,8 @@ import static org.testng.Assert.assertTrue;
 public class TestScanFilterAndProjectOperator
         extends AbstractTestFunctions
 {
+    private static final BlockTypeOperators TYPE_OPERATORS = new BlockTypeOperators(new TypeOperators());
+
     private final Metadata metadata = createTestMetadataManager();
     private final ExpressionCompiler expressionCompiler = new ExpressionCompiler(metadata, new PageFunctionCompiler(metadata, 0));
     private ExecutorService executor = newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-%s"));
@@ -113,7 +126,9 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                ImmutableList.of(),
                 DynamicFilter.EMPTY,
+                TYPE_OPERATORS,
                 ImmutableList.of(VARCHAR),
                 DataSize.ofBytes(0),
                 0);
@@ -129,6 +144,82 @@ public class TestScanFilterAndProjectOperator
         assertEquals(actual, expected);
     }
 
+    @Test
+    public void testPageSourceBloomFilter()
+    {
+        Page input = SequencePageBuilder.createSequencePage(ImmutableList.of(BIGINT), 10_000, 0);
+        DriverContext driverContext = newDriverContext();
+
+        ColumnHandle column = new TestingColumnHandle("key");
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.ofSize(1024);
+        Block values = createLongsBlock(5L, 17L, 9_999L);
+        for (int position = 0; position < values.getPositionCount(); position++) {
+            bloomFilter.add(TYPE_OPERATORS.getXxHash64Operator(BIGINT).xxHash64(values, position));
+        }
+        DynamicFilter dynamicFilter = new DynamicFilter()
+        {
+            @Override
+            public CompletableFuture<?> isBlocked()
+            {
+                return NOT_BLOCKED;
+            }
+
+            @Override
+            public boolean isComplete()
+            {
+                return true;
+            }
+
+            @Override
+            public boolean isAwaitable()
+            {
+                return false;
+            }
+
+            @Override
+            public TupleDomain<ColumnHandle> getCurrentPredicate()
+            {
+                return TupleDomain.all();
+            }
+
+            @Override
+            public Map<ColumnHandle, BlockedBloomFilter> getCurrentBloomFilters()
+            {
+                return ImmutableMap.of(column, bloomFilter);
+            }
+        };
+
+        List<RowExpression> projections = ImmutableList.of(field(0, BIGINT));
+        Supplier<CursorProcessor> cursorProcessor = expressionCompiler.compileCursorProcessor(Optional.empty(), projections, "key");
+        Supplier<PageProcessor> pageProcessor = expressionCompiler.compilePageProcessor(Optional.empty(), projections);
+
+        ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory factory = new ScanFilterAndProjectOperator.ScanFilterAndProjectOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                new PlanNodeId("0"),
+                (session, split, table, columns, filter) -> new FixedPageSource(ImmutableList.of(input)),
+                cursorProcessor,
+                pageProcessor,
+                TEST_TABLE_HANDLE,
+                ImmutableList.of(column),
+                ImmutableList.of(BIGINT),
+                dynamicFilter,
+                TYPE_OPERATORS,
+                ImmutableList.of(BIGINT),
+                DataSize.ofBytes(0),
+                0);
+
+        SourceOperator operator = factory.createOperator(driverContext);
+        operator.addSplit(new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide()));
+        operator.noMoreSplits();
+
+        Set<Object> actual = toMaterializedResult(driverContext.getSession(), ImmutableList.of(BIGINT), toPages(operator)).getOnlyColumnAsSet();
+        // all build-side values are retained, most other rows are dropped
+        assertTrue(actual.containsAll(ImmutableList.of(5L, 17L, 9_999L)));
+        assertTrue(actual.size() < 100, "too many rows retained: " + actual.size());
+        assertEquals(operator.getOperatorContext().getOperatorStats().getDynamicFilterSplitsProcessed(), 1);
+    }
+
     @Test
     public void testPageSourceMergeOutput()
     {
@@ -156,7 +247,9 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                ImmutableList.of(),
                 DynamicFilter.EMPTY,
+                TYPE_OPERATORS,
                 ImmutableList.of(BIGINT),
                 DataSize.of(64, KILOBYTE),
                 2);
@@ -201,7 +294,9 @@ public class TestScanFilterAndProjectOperator
                 () -> pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                ImmutableList.of(),
                 DynamicFilter.EMPTY,
+                TYPE_OPERATORS,
                 ImmutableList.of(BIGINT),
                 DataSize.ofBytes(0),
                 0);
@@ -236,7 +331,9 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                ImmutableList.of(),
                 DynamicFilter.EMPTY,
+                TYPE_OPERATORS,
                 ImmutableList.of(VARCHAR),
                 DataSize.ofBytes(0),
                 0);
@@ -289,7 +386,9 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                ImmutableList.of(),
                 DynamicFilter.EMPTY,
+                TYPE_OPERATORS,
                 ImmutableList.of(BIGINT),
                 DataSize.ofBytes(0),
                 0);
@@ -354,7 +453,9 @@ public class TestScanFilterAndProjectOperator
                 pageProcessor,
                 TEST_TABLE_HANDLE,
                 ImmutableList.of(),
+                ImmutableList.of(),
                 DynamicFilter.EMPTY,
+                TYPE_OPERATORS,
                 ImmutableList.of(BIGINT),
                 DataSize.ofBytes(0),
                 0);
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import io.airlift.units.DataSize;
 import io.trino.ExceededMemoryLimitException;
+import io.trino.operator.WindowInfo.DriverWindowInfo;
 import io.trino.operator.WindowOperator.WindowOperatorFactory;
 import io.trino.operator.window.FirstValueFunction;
 import io.trino.operator.window.FrameInfo;
@@ -47,6 +48,7 @@ import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.units.DataSize.succinctBytes;
@@ -230,6 +232,51 @@ public class TestWindowOperator
         assertOperatorEquals(operatorFactory, driverContext, input, expected, revokeMemoryWhenAddingPages);
     }
 
+    @Test
+    public void testSpilledPartitionsAreProcessedOneAtATime()
+    {
+        List<Page> input = rowPagesBuilder(VARCHAR, BIGINT)
+                .row("b", 1L)
+                .row("a", 2L)
+                .pageBreak()
+                .row("c", 3L)
+                .row("a", 4L)
+                .pageBreak()
+                .row("b", 5L)
+                .row("c", 6L)
+                .build();
+
+        WindowOperatorFactory operatorFactory = createFactoryUnbounded(
+                ImmutableList.of(VARCHAR, BIGINT),
+                Ints.asList(0, 1),
+                ROW_NUMBER,
+                Ints.asList(0),
+                Ints.asList(1),
+                ImmutableList.copyOf(new SortOrder[] {SortOrder.ASC_NULLS_LAST}),
+                true);
+
+        DriverContext driverContext = createDriverContext();
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), VARCHAR, BIGINT, BIGINT)
+                .row("a", 2L, 1L)
+                .row("a", 4L, 2L)
+                .row("b", 1L, 1L)
+                .row("b", 5L, 2L)
+                .row("c", 3L, 1L)
+                .row("c", 6L, 2L)
+                .build();
+
+        List<Page> pages = toPages(operatorFactory, driverContext, input, true);
+        MaterializedResult actual = toMaterializedResult(driverContext.getSession(), expected.getTypes(), pages);
+        assertEquals(actual.getMaterializedRows(), expected.getMaterializedRows());
+        assertGreaterThan(spillerFactory.getSpillsCount(), 0L);
+
+        // spilled runs are merged into a separate index for every partition, so only a single partition is held in memory
+        WindowInfo windowInfo = (WindowInfo) getOnlyElement(driverContext.getOperatorContexts()).getOperatorStats().getInfo();
+        DriverWindowInfo driverWindowInfo = getOnlyElement(windowInfo.getWindowInfos());
+        assertEquals(driverWindowInfo.getNumberOfIndexes(), 3);
+        assertEquals(driverWindowInfo.getTotalPartitionsCount(), 3);
+    }
+
     @Test
     public void testRowNumberArbitrary()
     {
@@ -0,0 +1,168 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.exchange;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Control;
+import org.openjdk.jmh.runner.RunnerException;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.trino.jmh.Benchmarks.benchmark;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Compares the page handoff of {@link LocalExchangeSource}, where many sinks add pages and a single
+ * operator removes them, with the synchronized queue that the source used before.
+ */
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(3)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+public class BenchmarkLocalExchangeBuffer
+{
+    private static final int PRODUCERS = 8;
+    // keeps producers from running ahead of the consumer, like the memory manager of the exchange does
+    private static final int MAX_BUFFERED_PAGES = 1024;
+    private static final long PAGE_SIZE = 4096;
+
+    private static final Object PAGE = new Object();
+
+    @State(Scope.Group)
+    public static class SegmentedQueueBuffer
+    {
+        private final MpscSegmentedQueue<Object> queue = new MpscSegmentedQueue<>();
+        private final LongAdder bufferedBytes = new LongAdder();
+
+        public void add(Object page, Control control)
+        {
+            while (queue.size() > MAX_BUFFERED_PAGES && !control.stopMeasurement) {
+                Thread.onSpinWait();
+            }
+            bufferedBytes.add(PAGE_SIZE);
+            queue.add(page);
+        }
+
+        public Object poll()
+        {
+            Object page = queue.poll();
+            if (page != null) {
+                bufferedBytes.add(-PAGE_SIZE);
+            }
+            return page;
+        }
+    }
+
+    @State(Scope.Group)
+    public static class SynchronizedQueueBuffer
+    {
+        private final BlockingQueue<Object> queue = new LinkedBlockingDeque<>();
+        private final AtomicLong bufferedBytes = new AtomicLong();
+        private volatile boolean finishing;
+
+        public void add(Object page, Control control)
+        {
+            while (queue.size() > MAX_BUFFERED_PAGES && !control.stopMeasurement) {
+                Thread.onSpinWait();
+            }
+            synchronized (this) {
+                if (!finishing) {
+                    bufferedBytes.addAndGet(PAGE_SIZE);
+                    queue.add(page);
+                }
+            }
+        }
+
+        public Object poll()
+        {
+            Object page = queue.poll();
+            if (page != null) {
+                bufferedBytes.addAndGet(-PAGE_SIZE);
+            }
+            return page;
+        }
+    }
+
+    @Benchmark
+    @Group("segmentedQueue")
+    @GroupThreads(PRODUCERS)
+    public void segmentedQueueAdd(SegmentedQueueBuffer buffer, Control control)
+    {
+        buffer.add(PAGE, control);
+    }
+
+    @Benchmark
+    @Group("segmentedQueue")
+    @GroupThreads(1)
+    public Object segmentedQueuePoll(SegmentedQueueBuffer buffer)
+    {
+        return buffer.poll();
+    }
+
+    @Benchmark
+    @Group("synchronizedQueue")
+    @GroupThreads(PRODUCERS)
+    public void synchronizedQueueAdd(SynchronizedQueueBuffer buffer, Control control)
+    {
+        buffer.add(PAGE, control);
+    }
+
+    @Benchmark
+    @Group("synchronizedQueue")
+    @GroupThreads(1)
+    public Object synchronizedQueuePoll(SynchronizedQueueBuffer buffer)
+    {
+        return buffer.poll();
+    }
+
+    @Test
+    public void verify()
+    {
+        SegmentedQueueBuffer segmentedQueue = new SegmentedQueueBuffer();
+        SynchronizedQueueBuffer synchronizedQueue = new SynchronizedQueueBuffer();
+        Control control = new Control();
+        for (int i = 0; i < MAX_BUFFERED_PAGES; i++) {
+            segmentedQueueAdd(segmentedQueue, control);
+            synchronizedQueueAdd(synchronizedQueue, control);
+        }
+        for (int i = 0; i < MAX_BUFFERED_PAGES; i++) {
+            assertEquals(segmentedQueuePoll(segmentedQueue), PAGE);
+            assertEquals(synchronizedQueuePoll(synchronizedQueue), PAGE);
+        }
+        assertNull(segmentedQueuePoll(segmentedQueue));
+        assertNull(synchronizedQueuePoll(synchronizedQueue));
+        assertEquals(segmentedQueue.bufferedBytes.sum(), 0);
+        assertEquals(synchronizedQueue.bufferedBytes.get(), 0);
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        benchmark(BenchmarkLocalExchangeBuffer.class).run();
+    }
+}
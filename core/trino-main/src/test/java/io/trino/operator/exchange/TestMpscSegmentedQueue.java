@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.exchange;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestMpscSegmentedQueue
+{
+    private static final int PRODUCERS = 8;
+
+    private final ListeningExecutorService executor = listeningDecorator(newFixedThreadPool(PRODUCERS, daemonThreadsNamed("test-mpsc-queue-%s")));
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testFifoAcrossSegments()
+    {
+        MpscSegmentedQueue<Integer> queue = new MpscSegmentedQueue<>();
+        assertTrue(queue.isEmpty());
+        assertNull(queue.poll());
+
+        for (int i = 0; i < 5000; i++) {
+            queue.add(i);
+        }
+        assertFalse(queue.isEmpty());
+        assertEquals(queue.size(), 5000);
+
+        for (int i = 0; i < 3000; i++) {
+            assertEquals(queue.poll(), (Integer) i);
+        }
+        assertEquals(queue.size(), 2000);
+
+        for (int i = 5000; i < 6000; i++) {
+            queue.add(i);
+        }
+        for (int i = 3000; i < 6000; i++) {
+            assertEquals(queue.poll(), (Integer) i);
+        }
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+        assertEquals(queue.size(), 0);
+    }
+
+    @Test(timeOut = 60_000)
+    public void testConcurrentProducers()
+            throws Exception
+    {
+        int elementsPerProducer = 100_000;
+        MpscSegmentedQueue<Long> queue = new MpscSegmentedQueue<>();
+
+        ImmutableList.Builder<ListenableFuture<?>> producers = ImmutableList.builder();
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            long first = (long) producer * elementsPerProducer;
+            producers.add(executor.submit(() -> {
+                for (long value = first; value < first + elementsPerProducer; value++) {
+                    queue.add(value);
+                }
+            }));
+        }
+        ListenableFuture<List<Object>> allProducers = Futures.allAsList(producers.build());
+
+        // elements of each producer are polled in the order they were added
+        long[] lastValues = new long[PRODUCERS];
+        for (int producer = 0; producer < PRODUCERS; producer++) {
+            lastValues[producer] = (long) producer * elementsPerProducer - 1;
+        }
+        int polled = 0;
+        while (polled < PRODUCERS * elementsPerProducer) {
+            Long value = queue.poll();
+            if (value == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int producer = (int) (value / elementsPerProducer);
+            assertEquals((long) value, lastValues[producer] + 1);
+            lastValues[producer] = value;
+            polled++;
+        }
+
+        allProducers.get(10, TimeUnit.SECONDS);
+        assertNull(queue.poll());
+        assertTrue(queue.isEmpty());
+    }
+}
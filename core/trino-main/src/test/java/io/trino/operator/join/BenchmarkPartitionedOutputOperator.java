@@ -136,7 +136,8 @@ public class BenchmarkPartitionedOutputOperator
                     false,
                     OptionalInt.empty(),
                     buffer,
-                    DataSize.of(1, GIGABYTE));
+                    DataSize.of(1, GIGABYTE),
+                    Optional.empty());
             return (PartitionedOutputOperator) operatorFactory
                     .createOutputOperator(0, new PlanNodeId("plan-node-0"), TYPES, Function.identity(), serdeFactory)
                     .createOperator(createDriverContext());
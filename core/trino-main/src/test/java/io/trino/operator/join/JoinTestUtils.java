@@ -138,6 +138,29 @@ public final class JoinTestUtils
             Optional<InternalJoinFilterFunction> filterFunction,
             boolean spillEnabled,
             SingleStreamSpillerFactory singleStreamSpillerFactory)
+    {
+        return setupBuildSide(
+                nodePartitioningManager,
+                parallelBuild,
+                taskContext,
+                hashChannels,
+                buildPages,
+                filterFunction,
+                spillEnabled,
+                singleStreamSpillerFactory,
+                DataSize.ofBytes(Long.MAX_VALUE));
+    }
+
+    public static BuildSideSetup setupBuildSide(
+            NodePartitioningManager nodePartitioningManager,
+            boolean parallelBuild,
+            TaskContext taskContext,
+            List<Integer> hashChannels,
+            RowPagesBuilder buildPages,
+            Optional<InternalJoinFilterFunction> filterFunction,
+            boolean spillEnabled,
+            SingleStreamSpillerFactory singleStreamSpillerFactory,
+            DataSize unspillMemoryLimit)
     {
         Optional<JoinFilterFunctionCompiler.JoinFilterFunctionFactory> filterFunctionFactory = filterFunction
                 .map(function -> (session, addresses, pages) -> new StandardJoinFilterFunction(function, addresses, pages));
@@ -199,7 +222,8 @@ public final class JoinTestUtils
                 100,
                 new PagesIndex.TestingFactory(false),
                 spillEnabled,
-                singleStreamSpillerFactory);
+                singleStreamSpillerFactory,
+                unspillMemoryLimit);
         return new BuildSideSetup(lookupSourceFactoryManager, buildOperatorFactory, sourceOperatorFactory, partitionCount);
     }
 
@@ -0,0 +1,214 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.join;
+
+import com.google.common.collect.ImmutableList;
+import io.trino.operator.InterpretedHashGenerator;
+import io.trino.operator.SimplePagesHashStrategy;
+import io.trino.operator.exchange.LocalPartitionGenerator;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.TypeOperators;
+import io.trino.type.BlockTypeOperators;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.function.Supplier;
+
+import static io.trino.operator.SyntheticAddress.encodeSyntheticAddress;
+import static io.trino.operator.join.PartitionedLookupSource.createPartitionedLookupSourceSupplier;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBatchedJoinPositions
+{
+    private static final BlockTypeOperators TYPE_OPERATORS = new BlockTypeOperators(new TypeOperators());
+    private static final int COLLIDING_HASH_COUNT = 4;
+
+    @Test
+    public void testNullKeys()
+    {
+        List<Long> buildKeys = keys(1000, 300, 7);
+        JoinHash joinHash = createJoinHash(buildKeys, false);
+        assertTrue(joinHash.supportsBatchedJoinPositions());
+
+        Page probePage = new Page(createKeyBlock(keys(2000, 600, 11)));
+        assertBatchedLookupMatches(joinHash, probePage, null);
+    }
+
+    @Test
+    public void testHashCollisions()
+    {
+        List<Long> buildKeys = keys(1000, 300, 7);
+        JoinHash joinHash = createJoinHash(buildKeys, true);
+        assertTrue(joinHash.supportsBatchedJoinPositions());
+
+        // all keys share a few hash values, so most lookups have to probe past other keys with the same hash
+        Page probePage = new Page(createKeyBlock(keys(2000, 600, 11)));
+        long[] rawHashes = new long[probePage.getPositionCount()];
+        for (int position = 0; position < probePage.getPositionCount(); position++) {
+            rawHashes[position] = collidingHash(BIGINT.getLong(probePage.getBlock(0), position));
+        }
+        assertBatchedLookupMatches(joinHash, probePage, rawHashes);
+    }
+
+    @Test
+    public void testMultiplePartitions()
+    {
+        int partitionCount = 4;
+        LocalPartitionGenerator partitionGenerator = new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(BIGINT), new int[] {0}, TYPE_OPERATORS), partitionCount);
+
+        List<Long> buildKeys = keys(1000, 300, 7);
+        Page buildPage = new Page(createKeyBlock(buildKeys));
+        List<List<Long>> partitionKeys = new ArrayList<>();
+        for (int partition = 0; partition < partitionCount; partition++) {
+            partitionKeys.add(new ArrayList<>());
+        }
+        for (int position = 0; position < buildKeys.size(); position++) {
+            partitionKeys.get(partitionGenerator.getPartition(buildPage, position)).add(buildKeys.get(position));
+        }
+
+        ImmutableList.Builder<Supplier<LookupSource>> partitions = ImmutableList.builder();
+        for (List<Long> keys : partitionKeys) {
+            assertFalse(keys.isEmpty());
+            JoinHash joinHash = createJoinHash(keys, false);
+            partitions.add(() -> joinHash);
+        }
+        LookupSource lookupSource = createPartitionedLookupSourceSupplier(partitions.build(), ImmutableList.of(BIGINT), false, TYPE_OPERATORS).getLookupSource();
+        assertTrue(lookupSource.supportsBatchedJoinPositions());
+
+        Page probePage = new Page(createKeyBlock(keys(2000, 600, 11)));
+        assertBatchedLookupMatches(lookupSource, probePage, null);
+
+        long[] rawHashes = new long[probePage.getPositionCount()];
+        for (int position = 0; position < probePage.getPositionCount(); position++) {
+            rawHashes[position] = partitionGenerator.getRawHash(probePage, position);
+        }
+        assertBatchedLookupMatches(lookupSource, probePage, rawHashes);
+    }
+
+    private static void assertBatchedLookupMatches(LookupSource lookupSource, Page probePage, long[] rawHashes)
+    {
+        // probe only the non-null positions, like JoinProbe does
+        Block probeKeys = probePage.getBlock(0);
+        int[] positions = new int[probePage.getPositionCount()];
+        long[] positionRawHashes = rawHashes == null ? null : new long[probePage.getPositionCount()];
+        int positionCount = 0;
+        for (int position = 0; position < probePage.getPositionCount(); position++) {
+            if (probeKeys.isNull(position)) {
+                continue;
+            }
+            positions[positionCount] = position;
+            if (rawHashes != null) {
+                positionRawHashes[positionCount] = rawHashes[position];
+            }
+            positionCount++;
+        }
+
+        long[] joinPositions = new long[positionCount];
+        lookupSource.getJoinPositions(positions, positionCount, probePage, probePage, positionRawHashes, joinPositions);
+
+        int matches = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            long expected = rawHashes == null
+                    ? lookupSource.getJoinPosition(position, probePage, probePage)
+                    : lookupSource.getJoinPosition(position, probePage, probePage, rawHashes[position]);
+            assertEquals(joinPositions[i], expected, "join position for probe position " + position);
+            if (expected >= 0) {
+                matches++;
+            }
+        }
+        // make sure the probe side contains both matching and non-matching keys
+        assertTrue(matches > 0);
+        assertTrue(matches < positionCount);
+    }
+
+    private static JoinHash createJoinHash(List<Long> keys, boolean collidingHashes)
+    {
+        Block keyBlock = createKeyBlock(keys);
+        LongArrayList addresses = new LongArrayList();
+        for (int position = 0; position < keys.size(); position++) {
+            addresses.add(encodeSyntheticAddress(0, position));
+        }
+
+        SimplePagesHashStrategy hashStrategy;
+        if (collidingHashes) {
+            BlockBuilder hashBlockBuilder = BIGINT.createBlockBuilder(null, keys.size());
+            for (Long key : keys) {
+                BIGINT.writeLong(hashBlockBuilder, key == null ? 0 : collidingHash(key));
+            }
+            hashStrategy = new SimplePagesHashStrategy(
+                    ImmutableList.of(BIGINT, BIGINT),
+                    ImmutableList.of(0),
+                    ImmutableList.of(ImmutableList.of(keyBlock), ImmutableList.of(hashBlockBuilder.build())),
+                    ImmutableList.of(0),
+                    OptionalInt.of(1),
+                    Optional.empty(),
+                    TYPE_OPERATORS);
+        }
+        else {
+            hashStrategy = new SimplePagesHashStrategy(
+                    ImmutableList.of(BIGINT),
+                    ImmutableList.of(0),
+                    ImmutableList.of(ImmutableList.of(keyBlock)),
+                    ImmutableList.of(0),
+                    OptionalInt.empty(),
+                    Optional.empty(),
+                    TYPE_OPERATORS);
+        }
+
+        PositionLinks.FactoryBuilder positionLinks = ArrayPositionLinks.builder(keys.size());
+        PagesHash pagesHash = new PagesHash(addresses, hashStrategy, positionLinks);
+        return new JoinHash(pagesHash, Optional.empty(), Optional.of(positionLinks.build().create(ImmutableList.of())));
+    }
+
+    private static long collidingHash(long key)
+    {
+        return key % COLLIDING_HASH_COUNT;
+    }
+
+    /**
+     * Returns {@code count} keys in range {@code [0, distinctKeys)}, with every {@code nullEvery}-th key being null.
+     */
+    private static List<Long> keys(int count, int distinctKeys, int nullEvery)
+    {
+        List<Long> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            keys.add(i % nullEvery == 0 ? null : (long) ((i * 31) % distinctKeys));
+        }
+        return keys;
+    }
+
+    private static Block createKeyBlock(List<Long> keys)
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, keys.size());
+        for (Long key : keys) {
+            if (key == null) {
+                blockBuilder.appendNull();
+            }
+            else {
+                BIGINT.writeLong(blockBuilder, key);
+            }
+        }
+        return blockBuilder.build();
+    }
+}
@@ -690,6 +690,75 @@ public class TestHashJoinOperator
         assertTrue(hashBuilderOperator.isFinished());
     }
 
+    @Test(timeOut = 60_000)
+    public void testInnerJoinWithRepartitionedSpill()
+            throws Exception
+    {
+        TaskStateMachine taskStateMachine = new TaskStateMachine(new TaskId("query", 0, 0), executor);
+        TaskContext taskContext = TestingTaskContext.createTaskContext(executor, scheduledExecutor, TEST_SESSION, taskStateMachine);
+
+        // build factory
+        RowPagesBuilder buildPages = rowPagesBuilder(ImmutableList.of(VARCHAR, BIGINT))
+                .addSequencePage(100, 0, 1000)
+                .addSequencePage(100, 50, 2000);
+
+        AtomicInteger spillersCount = new AtomicInteger();
+        SingleStreamSpillerFactory buildSpillerFactory = (types, spillContext, memoryContext) -> {
+            spillersCount.incrementAndGet();
+            return SINGLE_STREAM_SPILLER_FACTORY.create(types, spillContext, memoryContext);
+        };
+
+        // every build partition exceeds the unspill memory limit, so it is spilled right away and re-partitioned when unspilled
+        BuildSideSetup buildSideSetup = setupBuildSide(nodePartitioningManager, true, taskContext, Ints.asList(0), buildPages, Optional.empty(), true, buildSpillerFactory, DataSize.ofBytes(1));
+        JoinBridgeManager<PartitionedLookupSourceFactory> lookupSourceFactoryManager = buildSideSetup.getLookupSourceFactoryManager();
+
+        // probe factory
+        RowPagesBuilder probePages = rowPagesBuilder(false, Ints.asList(0), ImmutableList.of(VARCHAR, BIGINT))
+                .addSequencePage(100, 100, 0)
+                .addSequencePage(100, 0, 0);
+        OperatorFactory joinOperatorFactory = innerJoinOperatorFactory(operatorFactories, lookupSourceFactoryManager, probePages, PARTITIONING_SPILLER_FACTORY, true);
+
+        instantiateBuildDrivers(buildSideSetup, taskContext);
+        for (Driver buildDriver : buildSideSetup.getBuildDrivers()) {
+            runDriverInThread(executor, buildDriver);
+        }
+
+        DriverContext joinDriverContext = taskContext.addPipelineContext(2, true, true, false).addDriverContext();
+        try (Operator joinOperator = joinOperatorFactory.createOperator(joinDriverContext)) {
+            ValuesOperatorFactory valuesOperatorFactory = new ValuesOperatorFactory(17, new PlanNodeId("values"), probePages.build());
+            PageBuffer pageBuffer = new PageBuffer(1000);
+            PageBufferOperatorFactory pageBufferOperatorFactory = new PageBufferOperatorFactory(18, new PlanNodeId("pageBuffer"), pageBuffer);
+            Driver joinDriver = Driver.createDriver(joinDriverContext,
+                    valuesOperatorFactory.createOperator(joinDriverContext),
+                    joinOperator,
+                    pageBufferOperatorFactory.createOperator(joinDriverContext));
+
+            List<Page> actualPages = new ArrayList<>();
+            while (!joinDriver.isFinished()) {
+                processRow(joinDriver, taskStateMachine);
+                actualPages.addAll(getPages(pageBuffer));
+            }
+            checkErrors(taskStateMachine);
+
+            MaterializedResult.Builder expected = MaterializedResult.resultBuilder(taskContext.getSession(), concat(probePages.getTypes(), buildPages.getTypes()));
+            for (int i = 0; i < 150; i++) {
+                if (i < 100) {
+                    expected.row(String.valueOf(i), (long) i, String.valueOf(i), 1000L + i);
+                }
+                if (i >= 50) {
+                    expected.row(String.valueOf(i), (long) i - (i >= 100 ? 100 : 0), String.valueOf(i), 2000L + i - 50);
+                }
+            }
+            assertEqualsIgnoreOrder(getProperColumns(joinOperator, concat(probePages.getTypes(), buildPages.getTypes()), probePages, actualPages).getMaterializedRows(), expected.build().getMaterializedRows());
+        }
+        finally {
+            joinOperatorFactory.noMoreOperators();
+        }
+
+        // spilled build partitions have been re-partitioned
+        assertTrue(spillersCount.get() > PARTITION_COUNT, "expected more spillers than build partitions, got " + spillersCount.get());
+    }
+
     @Test(dataProvider = "hashJoinTestValues")
     public void testInnerJoinWithNullProbe(boolean parallelBuild, boolean probeHashEnabled, boolean buildHashEnabled)
     {
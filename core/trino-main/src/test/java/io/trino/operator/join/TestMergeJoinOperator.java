@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.operator.join;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.units.DataSize;
+import io.trino.execution.Lifespan;
+import io.trino.execution.NodeTaskMap;
+import io.trino.execution.scheduler.NodeScheduler;
+import io.trino.execution.scheduler.NodeSchedulerConfig;
+import io.trino.execution.scheduler.UniformNodeSelectorFactory;
+import io.trino.metadata.InMemoryNodeManager;
+import io.trino.operator.TaskContext;
+import io.trino.operator.exchange.LocalExchange;
+import io.trino.operator.exchange.LocalExchange.LocalExchangeFactory;
+import io.trino.operator.exchange.LocalExchange.LocalExchangeSinkFactory;
+import io.trino.operator.exchange.LocalExchange.LocalExchangeSinkFactoryId;
+import io.trino.operator.exchange.LocalExchangeSink;
+import io.trino.operator.join.LookupJoinOperatorFactory.JoinType;
+import io.trino.operator.join.MergeJoinOperator.MergeJoinOperatorFactory;
+import io.trino.spi.Page;
+import io.trino.spi.connector.SortOrder;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.planner.NodePartitioningManager;
+import io.trino.sql.planner.plan.PlanNodeId;
+import io.trino.testing.MaterializedResult;
+import io.trino.type.BlockTypeOperators;
+import io.trino.util.FinalizerService;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.trino.RowPagesBuilder.rowPagesBuilder;
+import static io.trino.SessionTestUtils.TEST_SESSION;
+import static io.trino.operator.OperatorAssertion.assertOperatorEquals;
+import static io.trino.operator.PipelineExecutionStrategy.UNGROUPED_EXECUTION;
+import static io.trino.operator.join.LookupJoinOperatorFactory.JoinType.INNER;
+import static io.trino.operator.join.LookupJoinOperatorFactory.JoinType.PROBE_OUTER;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_FIRST;
+import static io.trino.spi.connector.SortOrder.DESC_NULLS_LAST;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static io.trino.testing.MaterializedResult.resultBuilder;
+import static io.trino.testing.TestingTaskContext.createTaskContext;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+
+@Test(singleThreaded = true)
+public class TestMergeJoinOperator
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+    private static final TypeOperators TYPE_OPERATORS = new TypeOperators();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+    private NodePartitioningManager nodePartitioningManager;
+
+    @BeforeClass
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed(getClass().getSimpleName() + "-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed(getClass().getSimpleName() + "-scheduledExecutor-%s"));
+        NodeScheduler nodeScheduler = new NodeScheduler(new UniformNodeSelectorFactory(
+                new InMemoryNodeManager(),
+                new NodeSchedulerConfig().setIncludeCoordinator(true),
+                new NodeTaskMap(new FinalizerService())));
+        nodePartitioningManager = new NodePartitioningManager(nodeScheduler, new BlockTypeOperators(TYPE_OPERATORS));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testInnerJoinWithDuplicateKeys()
+    {
+        List<Page> left = rowPagesBuilder(TYPES)
+                .row(1L, "a")
+                .row(2L, "b")
+                .pageBreak()
+                .row(2L, "c")
+                .row(4L, "d")
+                .row(5L, "e")
+                .build();
+        List<Page> right = rowPagesBuilder(TYPES)
+                .row(0L, "x")
+                .row(2L, "y1")
+                .pageBreak()
+                .row(2L, "y2")
+                .row(3L, "z")
+                .row(5L, "w")
+                .build();
+
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(2L, "b", 2L, "y1")
+                .row(2L, "b", 2L, "y2")
+                .row(2L, "c", 2L, "y1")
+                .row(2L, "c", 2L, "y2")
+                .row(5L, "e", 5L, "w")
+                .build();
+
+        assertMergeJoin(INNER, ASC_NULLS_FIRST, left, right, expected);
+    }
+
+    @Test
+    public void testLeftJoinWithNullKeys()
+    {
+        List<Page> left = rowPagesBuilder(TYPES)
+                .row(3L, "c")
+                .row(1L, "a")
+                .row(null, "n")
+                .build();
+        List<Page> right = rowPagesBuilder(TYPES)
+                .row(2L, "y")
+                .row(1L, "x")
+                .row(null, "rn")
+                .build();
+
+        MaterializedResult expected = resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT, VARCHAR)
+                .row(3L, "c", null, null)
+                .row(1L, "a", 1L, "x")
+                .row(null, "n", null, null)
+                .build();
+
+        assertMergeJoin(PROBE_OUTER, DESC_NULLS_LAST, left, right, expected);
+    }
+
+    @Test
+    public void testRightInputFinishedFirst()
+    {
+        List<Page> left = rowPagesBuilder(TYPES)
+                .row(1L, "a")
+                .row(7L, "b")
+                .row(8L, "c")
+                .build();
+        List<Page> right = rowPagesBuilder(TYPES)
+                .row(1L, "x")
+                .build();
+
+        assertMergeJoin(
+                INNER,
+                ASC_NULLS_FIRST,
+                left,
+                right,
+                resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT, VARCHAR)
+                        .row(1L, "a", 1L, "x")
+                        .build());
+        assertMergeJoin(
+                PROBE_OUTER,
+                ASC_NULLS_FIRST,
+                left,
+                right,
+                resultBuilder(TEST_SESSION, BIGINT, VARCHAR, BIGINT, VARCHAR)
+                        .row(1L, "a", 1L, "x")
+                        .row(7L, "b", null, null)
+                        .row(8L, "c", null, null)
+                        .build());
+    }
+
+    private void assertMergeJoin(JoinType joinType, SortOrder sortOrder, List<Page> left, List<Page> right, MaterializedResult expected)
+    {
+        TaskContext taskContext = createTaskContext(executor, scheduledExecutor, TEST_SESSION);
+
+        LocalExchangeFactory rightExchangeFactory = new LocalExchangeFactory(
+                nodePartitioningManager,
+                TEST_SESSION,
+                SINGLE_DISTRIBUTION,
+                1,
+                TYPES,
+                ImmutableList.of(),
+                Optional.empty(),
+                UNGROUPED_EXECUTION,
+                DataSize.of(32, DataSize.Unit.MEGABYTE),
+                new BlockTypeOperators(TYPE_OPERATORS));
+        LocalExchangeSinkFactoryId sinkFactoryId = rightExchangeFactory.newSinkFactoryId();
+        rightExchangeFactory.noMoreSinkFactories();
+
+        // the right input is written completely before the join runs
+        LocalExchange rightExchange = rightExchangeFactory.getLocalExchange(Lifespan.taskWide());
+        LocalExchangeSinkFactory sinkFactory = rightExchange.getSinkFactory(sinkFactoryId);
+        LocalExchangeSink sink = sinkFactory.createSink();
+        sinkFactory.close();
+        sinkFactory.noMoreSinkFactories();
+        right.forEach(sink::addPage);
+        sink.finish();
+
+        MergeJoinOperatorFactory operatorFactory = new MergeJoinOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                joinType,
+                rightExchangeFactory,
+                TYPES,
+                TYPES,
+                ImmutableList.of(0),
+                ImmutableList.of(0),
+                ImmutableList.of(sortOrder),
+                ImmutableList.of(0, 1),
+                ImmutableList.of(0, 1),
+                TYPE_OPERATORS);
+
+        assertOperatorEquals(operatorFactory, taskContext.addPipelineContext(0, true, true, false).addDriverContext(), left, expected);
+    }
+}
@@ -783,7 +783,9 @@ public final class FunctionAssertions
                     pageProcessor,
                     TEST_TABLE_HANDLE,
                     ImmutableList.of(),
+                    ImmutableList.of(),
                     DynamicFilter.EMPTY,
+                    new BlockTypeOperators(new TypeOperators()),
                     ImmutableList.of(projection.getType()),
                     DataSize.ofBytes(0),
                     0);
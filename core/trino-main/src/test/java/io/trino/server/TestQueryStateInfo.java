@@ -159,6 +159,7 @@ public class TestQueryStateInfo
                         DataSize.valueOf("33GB"),
                         ImmutableList.of(),
                         DynamicFiltersStats.EMPTY,
+                        ImmutableList.of(),
                         ImmutableList.of()),
                 Optional.empty(),
                 Optional.empty(),
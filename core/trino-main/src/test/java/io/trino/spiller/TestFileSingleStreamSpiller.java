@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import io.airlift.slice.InputStreamSliceInput;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.execution.buffer.PageCodecMarker;
 import io.trino.execution.buffer.PagesSerdeUtil;
 import io.trino.execution.buffer.SerializedPage;
@@ -78,31 +79,45 @@ public class TestFileSingleStreamSpiller
     public void testSpill()
             throws Exception
     {
-        assertSpill(false, false);
+        assertSpill(CompressionCodec.NONE, false);
     }
 
     @Test
     public void testSpillCompression()
             throws Exception
     {
-        assertSpill(true, false);
+        assertSpill(CompressionCodec.LZ4, false);
+    }
+
+    @Test
+    public void testSpillZstdCompression()
+            throws Exception
+    {
+        assertSpill(CompressionCodec.ZSTD, false);
+    }
+
+    @Test
+    public void testSpillSnappyCompression()
+            throws Exception
+    {
+        assertSpill(CompressionCodec.SNAPPY, false);
     }
 
     @Test
     public void testSpillEncryption()
             throws Exception
     {
-        assertSpill(false, true);
+        assertSpill(CompressionCodec.NONE, true);
     }
 
     @Test
     public void testSpillEncryptionWithCompression()
             throws Exception
     {
-        assertSpill(true, true);
+        assertSpill(CompressionCodec.LZ4, true);
     }
 
-    private void assertSpill(boolean compression, boolean encryption)
+    private void assertSpill(CompressionCodec compressionCodec, boolean encryption)
             throws Exception
     {
         FileSingleStreamSpillerFactory spillerFactory = new FileSingleStreamSpillerFactory(
@@ -111,7 +126,7 @@ public class TestFileSingleStreamSpiller
                 new SpillerStats(),
                 ImmutableList.of(spillPath.toPath()),
                 1.0,
-                compression,
+                compressionCodec,
                 encryption);
         LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
         SingleStreamSpiller singleStreamSpiller = spillerFactory.create(TYPES, bytes -> {}, memoryContext);
@@ -131,7 +146,7 @@ public class TestFileSingleStreamSpiller
             Iterator<SerializedPage> serializedPages = PagesSerdeUtil.readSerializedPages(new InputStreamSliceInput(is));
             assertTrue(serializedPages.hasNext(), "at least one page should be successfully read back");
             byte markers = serializedPages.next().getPageCodecMarkers();
-            assertEquals(PageCodecMarker.COMPRESSED.isSet(markers), compression);
+            assertEquals(CompressionCodec.fromMarkers(markers), compressionCodec);
             assertEquals(PageCodecMarker.ENCRYPTED.isSet(markers), encryption);
         }
 
@@ -158,13 +173,16 @@ public class TestFileSingleStreamSpiller
 
     private Page buildPage()
     {
-        BlockBuilder col1 = BIGINT.createBlockBuilder(null, 1);
-        BlockBuilder col2 = DOUBLE.createBlockBuilder(null, 1);
-        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, 1);
-
-        col1.writeLong(42).closeEntry();
-        col2.writeLong(doubleToLongBits(43.0)).closeEntry();
-        col3.writeLong(doubleToLongBits(43.0)).writeLong(1).closeEntry();
+        BlockBuilder col1 = BIGINT.createBlockBuilder(null, 100);
+        BlockBuilder col2 = DOUBLE.createBlockBuilder(null, 100);
+        BlockBuilder col3 = VARBINARY.createBlockBuilder(null, 100);
+
+        // repeat the row, so that the page is compressible with every codec
+        for (int i = 0; i < 100; i++) {
+            col1.writeLong(42).closeEntry();
+            col2.writeLong(doubleToLongBits(43.0)).closeEntry();
+            col3.writeLong(doubleToLongBits(43.0)).writeLong(1).closeEntry();
+        }
 
         return new Page(col1.build(), col2.build(), col3.build());
     }
@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.io.Closer;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.spi.Page;
 import io.trino.spi.block.BlockBuilder;
 import io.trino.spi.block.BlockEncodingSerde;
@@ -268,7 +269,7 @@ public class TestFileSingleStreamSpillerFactory
                 new SpillerStats(),
                 paths,
                 maxUsedSpaceThreshold,
-                false,
+                CompressionCodec.NONE,
                 false);
     }
 }
@@ -15,6 +15,7 @@ package io.trino.spiller;
 
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
+import io.trino.execution.buffer.CompressionCodec;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -34,6 +35,7 @@ public class TestNodeSpillConfig
                 .setMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(100, GIGABYTE))
                 .setSpillCompressionEnabled(false)
+                .setSpillCompressionCodec(CompressionCodec.LZ4)
                 .setSpillEncryptionEnabled(false));
     }
 
@@ -44,6 +46,7 @@ public class TestNodeSpillConfig
                 .put("max-spill-per-node", "10MB")
                 .put("query-max-spill-per-node", "15 MB")
                 .put("spill-compression-enabled", "true")
+                .put("spill-compression-codec", "ZSTD")
                 .put("spill-encryption-enabled", "true")
                 .build();
 
@@ -51,6 +54,7 @@ public class TestNodeSpillConfig
                 .setMaxSpillPerNode(DataSize.of(10, MEGABYTE))
                 .setQueryMaxSpillPerNode(DataSize.of(15, MEGABYTE))
                 .setSpillCompressionEnabled(true)
+                .setSpillCompressionCodec(CompressionCodec.ZSTD)
                 .setSpillEncryptionEnabled(true);
 
         assertFullMapping(properties, expected);
@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.ImmutableSet;
+import io.trino.sql.analyzer.FeaturesConfig;
+import org.testng.annotations.Test;
+import org.weakref.jmx.MBeanExporter;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+
+import java.nio.file.Paths;
+import java.util.Map;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestSpillPathStatsExporter
+{
+    @Test
+    public void testExportSpillPathStats()
+            throws Exception
+    {
+        MBeanServer mbeanServer = MBeanServerFactory.newMBeanServer();
+        SpillerStats spillerStats = new SpillerStats();
+        SpillPathStatsExporter exporter = new SpillPathStatsExporter(
+                new MBeanExporter(mbeanServer),
+                spillerStats,
+                new FeaturesConfig().setSpillerSpillPaths("/tmp/spill-a,/tmp/spill-b"));
+        exporter.export();
+
+        spillerStats.getSpillPathStats(Paths.get("/tmp/spill-a")).addWrite(1000, SECONDS.toNanos(2));
+        spillerStats.getSpillPathStats(Paths.get("/tmp/spill-b")).addReadBytes(3000);
+        spillerStats.getSpillPathStats(Paths.get("/tmp/spill-b")).addReadTime(SECONDS.toNanos(1));
+
+        Map<String, ObjectName> names = getExportedNames(mbeanServer);
+        assertEquals(names.keySet(), ImmutableSet.of("/tmp/spill-a", "/tmp/spill-b"));
+
+        ObjectName pathA = names.get("/tmp/spill-a");
+        assertEquals(mbeanServer.getAttribute(pathA, "WrittenBytes"), 1000L);
+        assertEquals(mbeanServer.getAttribute(pathA, "WriteThroughput"), 500.0);
+        ObjectName pathB = names.get("/tmp/spill-b");
+        assertEquals(mbeanServer.getAttribute(pathB, "ReadBytes"), 3000L);
+        assertEquals(mbeanServer.getAttribute(pathB, "ReadThroughput"), 3000.0);
+
+        exporter.unexport();
+        assertTrue(getExportedNames(mbeanServer).isEmpty());
+    }
+
+    private static Map<String, ObjectName> getExportedNames(MBeanServer mbeanServer)
+            throws Exception
+    {
+        return mbeanServer.queryNames(new ObjectName("*:name=SpillPathStats,*"), null).stream()
+                .collect(toImmutableMap(name -> unquote(name.getKeyProperty("path")), name -> name));
+    }
+
+    private static String unquote(String value)
+    {
+        return value.startsWith("\"") ? ObjectName.unquote(value) : value;
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spiller;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import io.trino.execution.buffer.CompressionCodec;
+import io.trino.memory.context.LocalMemoryContext;
+import io.trino.operator.PageAssertions;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import io.trino.spiller.SpillerStats.SpillPathStats;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.MoreFiles.listFiles;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static com.google.common.util.concurrent.MoreExecutors.listeningDecorator;
+import static io.airlift.testing.Assertions.assertGreaterThan;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.metadata.MetadataManager.createTestMetadataManager;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static io.trino.spiller.StripedFileSingleStreamSpiller.ALIGNMENT;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestStripedFileSingleStreamSpiller
+{
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR);
+
+    private final ListeningExecutorService executor = listeningDecorator(newCachedThreadPool());
+    private List<Path> spillPaths;
+
+    @BeforeMethod
+    public void setUp()
+            throws IOException
+    {
+        ImmutableList.Builder<Path> spillPaths = ImmutableList.builder();
+        for (int i = 0; i < 3; i++) {
+            spillPaths.add(Files.createTempDirectory("tmp"));
+        }
+        this.spillPaths = spillPaths.build();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        for (Path spillPath : spillPaths) {
+            deleteRecursively(spillPath, ALLOW_INSECURE);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void shutdown()
+    {
+        executor.shutdown();
+    }
+
+    @Test
+    public void testSpill()
+            throws Exception
+    {
+        assertSpill(CompressionCodec.NONE, false);
+    }
+
+    @Test
+    public void testSpillCompression()
+            throws Exception
+    {
+        assertSpill(CompressionCodec.LZ4, false);
+    }
+
+    @Test
+    public void testSpillEncryption()
+            throws Exception
+    {
+        assertSpill(CompressionCodec.NONE, true);
+    }
+
+    @Test
+    public void testEmptySpill()
+    {
+        SingleStreamSpiller spiller = createSpillerFactory(CompressionCodec.NONE, false, new SpillerStats())
+                .create(TYPES, bytes -> {}, newSimpleAggregatedMemoryContext().newLocalMemoryContext("test"));
+        assertEquals(ImmutableList.copyOf(spiller.getSpilledPages()), ImmutableList.of());
+        spiller.close();
+    }
+
+    private void assertSpill(CompressionCodec compressionCodec, boolean encryption)
+            throws Exception
+    {
+        SpillerStats spillerStats = new SpillerStats();
+        FileSingleStreamSpillerFactory spillerFactory = createSpillerFactory(compressionCodec, encryption, spillerStats);
+        LocalMemoryContext memoryContext = newSimpleAggregatedMemoryContext().newLocalMemoryContext("test");
+        SingleStreamSpiller spiller = spillerFactory.create(TYPES, bytes -> {}, memoryContext);
+        assertTrue(spiller instanceof StripedFileSingleStreamSpiller);
+
+        // one stripe buffer is reserved for every spill path
+        assertEquals(memoryContext.getBytes(), 3 * ALIGNMENT);
+
+        // pages are larger than a stripe, so that pages span stripes on different paths
+        List<Page> pages = ImmutableList.of(buildPage(0), buildPage(1), buildPage(2), buildPage(3));
+        spiller.spill(pages.get(0)).get();
+        spiller.spill(Iterators.forArray(pages.get(1), pages.get(2), pages.get(3))).get();
+        for (Path spillPath : spillPaths) {
+            assertEquals(listFiles(spillPath).size(), 1);
+        }
+
+        List<Page> spilledPages = ImmutableList.copyOf(spiller.getSpilledPages());
+        assertEquals(spilledPages.size(), pages.size());
+        for (int i = 0; i < pages.size(); i++) {
+            PageAssertions.assertPageEquals(TYPES, spilledPages.get(i), pages.get(i));
+        }
+
+        long spilledBytes = 0;
+        for (Path spillPath : spillPaths) {
+            SpillPathStats stats = spillerStats.getSpillPathStats().get(spillPath);
+            assertGreaterThan(stats.getWrittenBytes(), 0L);
+            assertEquals(stats.getReadBytes(), stats.getWrittenBytes());
+            assertEquals(Files.size(getOnlyFile(spillPath)), stats.getWrittenBytes());
+            spilledBytes += stats.getWrittenBytes();
+        }
+        assertGreaterThan(spilledBytes, (long) ALIGNMENT * spillPaths.size());
+
+        spiller.close();
+        for (Path spillPath : spillPaths) {
+            assertEquals(listFiles(spillPath).size(), 0);
+        }
+        assertEquals(memoryContext.getBytes(), 0);
+    }
+
+    private FileSingleStreamSpillerFactory createSpillerFactory(CompressionCodec compressionCodec, boolean encryption, SpillerStats spillerStats)
+    {
+        return new FileSingleStreamSpillerFactory(
+                executor, // executor won't be closed, because we don't call destroy() on the spiller factory
+                createTestMetadataManager().getBlockEncodingSerde(),
+                spillerStats,
+                spillPaths,
+                1.0,
+                compressionCodec,
+                encryption,
+                true,
+                ALIGNMENT);
+    }
+
+    private static Path getOnlyFile(Path spillPath)
+            throws IOException
+    {
+        return listFiles(spillPath).get(0);
+    }
+
+    private static Page buildPage(int seed)
+    {
+        BlockBuilder col1 = BIGINT.createBlockBuilder(null, 1000);
+        BlockBuilder col2 = VARCHAR.createBlockBuilder(null, 1000);
+        for (int i = 0; i < 1000; i++) {
+            BIGINT.writeLong(col1, seed * 1000L + i);
+            VARCHAR.writeString(col2, "value " + (seed * 1000 + i));
+        }
+        return new Page(col1.build(), col2.build());
+    }
+}
@@ -16,6 +16,7 @@ package io.trino.sql.analyzer;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
 import io.airlift.units.Duration;
+import io.trino.execution.buffer.CompressionCodec;
 import io.trino.sql.analyzer.FeaturesConfig.DataIntegrityVerification;
 import io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
@@ -47,6 +48,9 @@ public class TestFeaturesConfig
                 .setNetworkCostWeight(15)
                 .setDistributedIndexJoinsEnabled(false)
                 .setJoinMaxBroadcastTableSize(DataSize.of(100, MEGABYTE))
+                .setAdaptiveJoinDistributionEnabled(false)
+                .setAdaptiveJoinMaxBroadcastBuildSize(DataSize.of(100, MEGABYTE))
+                .setMergeJoinEnabled(false)
                 .setJoinDistributionType(JoinDistributionType.AUTOMATIC)
                 .setGroupedExecutionEnabled(false)
                 .setDynamicScheduleForGroupedExecutionEnabled(false)
@@ -64,6 +68,12 @@ public class TestFeaturesConfig
                 .setOptimizeHashGeneration(true)
                 .setPushTableWriteThroughUnion(true)
                 .setDictionaryAggregation(false)
+                .setFlatGroupByHash(false)
+                .setAdaptivePartialAggregationEnabled(false)
+                .setAdaptivePartialAggregationMinRows(100_000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.8)
+                .setSkewedPartitionKeyDetectionEnabled(false)
+                .setSkewedPartitionKeyFactor(4.0)
                 .setRegexLibrary(JONI)
                 .setRe2JDfaStatesLimit(Integer.MAX_VALUE)
                 .setRe2JDfaRetries(5)
@@ -71,8 +81,11 @@ public class TestFeaturesConfig
                 .setSpillOrderBy(true)
                 .setSpillWindowOperator(true)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("4MB"))
+                .setJoinOperatorUnspillMemoryLimit(DataSize.valueOf("1GB"))
                 .setSpillerSpillPaths("")
                 .setSpillerThreads(4)
+                .setSpillerStripingEnabled(false)
+                .setSpillerStripeSize(DataSize.of(1, MEGABYTE))
                 .setSpillMaxUsedSpaceThreshold(0.9)
                 .setMemoryRevokingThreshold(0.9)
                 .setMemoryRevokingTarget(0.5)
@@ -86,6 +99,8 @@ public class TestFeaturesConfig
                 .setDefaultFilterFactorEnabled(false)
                 .setEnableForcedExchangeBelowGroupId(true)
                 .setExchangeCompressionEnabled(false)
+                .setExchangeCompressionCodec(CompressionCodec.LZ4)
+                .setExchangeAdaptiveCompressionEnabled(false)
                 .setExchangeDataIntegrityVerification(DataIntegrityVerification.ABORT)
                 .setLegacyRowToJsonCast(false)
                 .setEnableIntermediateAggregations(false)
@@ -133,6 +148,9 @@ public class TestFeaturesConfig
                 .put("distributed-index-joins-enabled", "true")
                 .put("join-distribution-type", "BROADCAST")
                 .put("join-max-broadcast-table-size", "42GB")
+                .put("adaptive-join-distribution.enabled", "true")
+                .put("adaptive-join-distribution.max-broadcast-build-size", "2GB")
+                .put("optimizer.merge-join-enabled", "true")
                 .put("grouped-execution-enabled", "true")
                 .put("dynamic-schedule-for-grouped-execution", "true")
                 .put("concurrent-lifespans-per-task", "1")
@@ -151,6 +169,12 @@ public class TestFeaturesConfig
                 .put("optimizer.unwrap-casts", "false")
                 .put("optimizer.push-table-write-through-union", "false")
                 .put("optimizer.dictionary-aggregation", "true")
+                .put("flat-group-by-hash", "true")
+                .put("adaptive-partial-aggregation.enabled", "true")
+                .put("adaptive-partial-aggregation.min-rows", "1000")
+                .put("adaptive-partial-aggregation.unique-rows-ratio-threshold", "0.5")
+                .put("skewed-partition-key-detection.enabled", "true")
+                .put("skewed-partition-key-detection.factor", "8.0")
                 .put("optimizer.push-aggregation-through-outer-join", "false")
                 .put("optimizer.push-partial-aggregation-through-join", "true")
                 .put("regex-library", "RE2J")
@@ -160,12 +184,17 @@ public class TestFeaturesConfig
                 .put("spill-order-by", "false")
                 .put("spill-window-operator", "false")
                 .put("aggregation-operator-unspill-memory-limit", "100MB")
+                .put("join-operator-unspill-memory-limit", "200MB")
                 .put("spiller-spill-path", "/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .put("spiller-threads", "42")
+                .put("spiller-striping-enabled", "true")
+                .put("spiller-stripe-size", "64kB")
                 .put("spiller-max-used-space-threshold", "0.8")
                 .put("memory-revoking-threshold", "0.2")
                 .put("memory-revoking-target", "0.8")
                 .put("exchange.compression-enabled", "true")
+                .put("exchange.compression-codec", "ZSTD")
+                .put("exchange.adaptive-compression-enabled", "true")
                 .put("exchange.data-integrity-verification", "RETRY")
                 .put("deprecated.legacy-row-to-json-cast", "true")
                 .put("optimizer.enable-intermediate-aggregations", "true")
@@ -207,6 +236,9 @@ public class TestFeaturesConfig
                 .setDistributedIndexJoinsEnabled(true)
                 .setJoinDistributionType(BROADCAST)
                 .setJoinMaxBroadcastTableSize(DataSize.of(42, GIGABYTE))
+                .setAdaptiveJoinDistributionEnabled(true)
+                .setAdaptiveJoinMaxBroadcastBuildSize(DataSize.of(2, GIGABYTE))
+                .setMergeJoinEnabled(true)
                 .setGroupedExecutionEnabled(true)
                 .setDynamicScheduleForGroupedExecutionEnabled(true)
                 .setConcurrentLifespansPerTask(1)
@@ -225,6 +257,12 @@ public class TestFeaturesConfig
                 .setUnwrapCasts(false)
                 .setPushTableWriteThroughUnion(false)
                 .setDictionaryAggregation(true)
+                .setFlatGroupByHash(true)
+                .setAdaptivePartialAggregationEnabled(true)
+                .setAdaptivePartialAggregationMinRows(1000)
+                .setAdaptivePartialAggregationUniqueRowsRatioThreshold(0.5)
+                .setSkewedPartitionKeyDetectionEnabled(true)
+                .setSkewedPartitionKeyFactor(8.0)
                 .setPushAggregationThroughOuterJoin(false)
                 .setPushPartialAggregationThoughJoin(true)
                 .setRegexLibrary(RE2J)
@@ -234,12 +272,17 @@ public class TestFeaturesConfig
                 .setSpillOrderBy(false)
                 .setSpillWindowOperator(false)
                 .setAggregationOperatorUnspillMemoryLimit(DataSize.valueOf("100MB"))
+                .setJoinOperatorUnspillMemoryLimit(DataSize.valueOf("200MB"))
                 .setSpillerSpillPaths("/tmp/custom/spill/path1,/tmp/custom/spill/path2")
                 .setSpillerThreads(42)
+                .setSpillerStripingEnabled(true)
+                .setSpillerStripeSize(DataSize.of(64, KILOBYTE))
                 .setSpillMaxUsedSpaceThreshold(0.8)
                 .setMemoryRevokingThreshold(0.2)
                 .setMemoryRevokingTarget(0.8)
                 .setExchangeCompressionEnabled(true)
+                .setExchangeCompressionCodec(CompressionCodec.ZSTD)
+                .setExchangeAdaptiveCompressionEnabled(true)
                 .setExchangeDataIntegrityVerification(DataIntegrityVerification.RETRY)
                 .setLegacyRowToJsonCast(true)
                 .setEnableIntermediateAggregations(true)
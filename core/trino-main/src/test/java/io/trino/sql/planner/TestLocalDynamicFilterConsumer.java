@@ -18,8 +18,12 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.ListenableFuture;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
 import io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType;
 import io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy;
 import io.trino.sql.planner.assertions.BasePlanTest;
@@ -27,6 +31,7 @@ import io.trino.sql.planner.iterative.rule.test.PlanBuilder;
 import io.trino.sql.planner.plan.DynamicFilterId;
 import io.trino.sql.planner.plan.JoinNode;
 import io.trino.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.trino.type.BlockTypeOperators;
 import org.testng.annotations.Test;
 
 import java.util.Map;
@@ -38,16 +43,21 @@ import static io.trino.SystemSessionProperties.FORCE_SINGLE_NODE_OUTPUT;
 import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
 import static io.trino.metadata.AbstractMockMetadata.dummyMetadata;
+import static io.trino.spi.predicate.Range.range;
+import static io.trino.spi.predicate.Utils.nativeValueToBlock;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.spi.type.SmallintType.SMALLINT;
 import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
 import static io.trino.testing.assertions.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestLocalDynamicFilterConsumer
         extends BasePlanTest
 {
+    private final BlockTypeOperators blockTypeOperators = new BlockTypeOperators(new TypeOperators());
+
     public TestLocalDynamicFilterConsumer()
     {
         super(ImmutableMap.of(
@@ -64,7 +74,9 @@ public class TestLocalDynamicFilterConsumer
         LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
                 ImmutableMap.of(new DynamicFilterId("123"), 0),
                 ImmutableMap.of(new DynamicFilterId("123"), INTEGER),
-                1);
+                1,
+                false,
+                blockTypeOperators);
         assertEquals(filter.getBuildChannels(), ImmutableMap.of(new DynamicFilterId("123"), 0));
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -83,7 +95,9 @@ public class TestLocalDynamicFilterConsumer
         LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
                 ImmutableMap.of(new DynamicFilterId("123"), 0),
                 ImmutableMap.of(new DynamicFilterId("123"), INTEGER),
-                2);
+                2,
+                false,
+                blockTypeOperators);
 
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -106,7 +120,9 @@ public class TestLocalDynamicFilterConsumer
         LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
                 ImmutableMap.of(new DynamicFilterId("123"), 0),
                 ImmutableMap.of(new DynamicFilterId("123"), INTEGER),
-                2);
+                2,
+                false,
+                blockTypeOperators);
         assertEquals(filter.getBuildChannels(), ImmutableMap.of(new DynamicFilterId("123"), 0));
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -136,7 +152,9 @@ public class TestLocalDynamicFilterConsumer
                 ImmutableMap.of(
                         filter1, INTEGER,
                         filter2, INTEGER),
-                1);
+                1,
+                false,
+                blockTypeOperators);
 
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -155,7 +173,9 @@ public class TestLocalDynamicFilterConsumer
         LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
                 ImmutableMap.of(new DynamicFilterId("123"), 0),
                 ImmutableMap.of(new DynamicFilterId("123"), INTEGER),
-                1);
+                1,
+                false,
+                blockTypeOperators);
         assertEquals(filter.getBuildChannels(), ImmutableMap.of(new DynamicFilterId("123"), 0));
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -174,7 +194,9 @@ public class TestLocalDynamicFilterConsumer
         LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
                 ImmutableMap.of(new DynamicFilterId("123"), 0, new DynamicFilterId("456"), 1),
                 ImmutableMap.of(new DynamicFilterId("123"), INTEGER, new DynamicFilterId("456"), INTEGER),
-                1);
+                1,
+                false,
+                blockTypeOperators);
         assertEquals(filter.getBuildChannels(), ImmutableMap.of(new DynamicFilterId("123"), 0, new DynamicFilterId("456"), 1));
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -195,7 +217,9 @@ public class TestLocalDynamicFilterConsumer
         LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
                 ImmutableMap.of(new DynamicFilterId("123"), 0, new DynamicFilterId("456"), 1),
                 ImmutableMap.of(new DynamicFilterId("123"), INTEGER, new DynamicFilterId("456"), BIGINT),
-                2);
+                2,
+                false,
+                blockTypeOperators);
         assertEquals(filter.getBuildChannels(), ImmutableMap.of(new DynamicFilterId("123"), 0, new DynamicFilterId("456"), 1));
         Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
         ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
@@ -215,6 +239,108 @@ public class TestLocalDynamicFilterConsumer
                 new DynamicFilterId("456"), Domain.multipleValues(BIGINT, ImmutableList.of(100L, 200L))));
     }
 
+    @Test
+    public void testBloomFilters()
+            throws Exception
+    {
+        DynamicFilterId filter1 = new DynamicFilterId("123");
+        DynamicFilterId filter2 = new DynamicFilterId("456");
+        LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
+                ImmutableMap.of(filter1, 0, filter2, 1),
+                ImmutableMap.of(filter1, BIGINT, filter2, BIGINT),
+                2,
+                true,
+                blockTypeOperators);
+        Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
+        Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer = filter.getBloomFilterConsumer();
+        ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
+
+        BlockedBloomFilter first = BlockedBloomFilter.ofSize(1024);
+        first.add(1);
+        BlockedBloomFilter second = BlockedBloomFilter.ofSize(1024);
+        second.add(2);
+
+        // 'all' doesn't short circuit when Bloom filters are collected
+        bloomFilterConsumer.accept(ImmutableMap.of(filter1, first, filter2, first));
+        consumer.accept(TupleDomain.all());
+        assertFalse(result.isDone());
+
+        // the second partition collected a Bloom filter only for the first dynamic filter, and a range for the second one
+        bloomFilterConsumer.accept(ImmutableMap.of(filter1, second));
+        consumer.accept(TupleDomain.withColumnDomains(ImmutableMap.of(filter2, Domain.create(ValueSet.ofRanges(range(BIGINT, 3L, true, 5L, true)), false))));
+        assertEquals(result.get(), ImmutableMap.of(filter1, Domain.all(BIGINT), filter2, Domain.all(BIGINT)));
+        assertEquals(filter.getBloomFilters(), ImmutableMap.of(filter1, first.union(second)));
+    }
+
+    @Test
+    public void testBloomFilterWithSmallPartition()
+            throws Exception
+    {
+        DynamicFilterId filterId = new DynamicFilterId("123");
+        LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
+                ImmutableMap.of(filterId, 0),
+                ImmutableMap.of(filterId, BIGINT),
+                4,
+                true,
+                blockTypeOperators);
+        Consumer<TupleDomain<DynamicFilterId>> consumer = filter.getTupleDomainConsumer();
+        Consumer<Map<DynamicFilterId, BlockedBloomFilter>> bloomFilterConsumer = filter.getBloomFilterConsumer();
+        ListenableFuture<Map<DynamicFilterId, Domain>> result = filter.getDynamicFilterDomains();
+
+        BlockedBloomFilter first = BlockedBloomFilter.ofSize(1024);
+        first.add(xxHash64(BIGINT, 1L));
+        BlockedBloomFilter second = BlockedBloomFilter.ofSize(1024);
+        second.add(xxHash64(BIGINT, 2L));
+
+        // two partitions exceeded the distinct values limit and collected Bloom filters
+        bloomFilterConsumer.accept(ImmutableMap.of(filterId, first));
+        consumer.accept(TupleDomain.withColumnDomains(ImmutableMap.of(filterId, Domain.create(ValueSet.ofRanges(range(BIGINT, 1L, true, 100L, true)), false))));
+        bloomFilterConsumer.accept(ImmutableMap.of(filterId, second));
+        consumer.accept(TupleDomain.withColumnDomains(ImmutableMap.of(filterId, Domain.create(ValueSet.ofRanges(range(BIGINT, 2L, true, 200L, true)), false))));
+        // the remaining partitions stayed below the limit, and reported their values or no rows
+        consumer.accept(TupleDomain.withColumnDomains(ImmutableMap.of(filterId, Domain.multipleValues(BIGINT, ImmutableList.of(3L, 4L)))));
+        assertFalse(result.isDone());
+        consumer.accept(TupleDomain.none());
+
+        assertEquals(result.get(), ImmutableMap.of(filterId, Domain.create(ValueSet.ofRanges(range(BIGINT, 1L, true, 200L, true)), false)));
+        BlockedBloomFilter bloomFilter = filter.getBloomFilters().get(filterId);
+        for (long value = 1; value <= 4; value++) {
+            assertTrue(bloomFilter.mightContain(xxHash64(BIGINT, value)));
+        }
+        BlockedBloomFilter expected = first.union(second);
+        expected.add(xxHash64(BIGINT, 3L));
+        expected.add(xxHash64(BIGINT, 4L));
+        assertEquals(bloomFilter, expected);
+    }
+
+    @Test
+    public void testBloomFilterDiscardedForPartitionWithoutValues()
+            throws Exception
+    {
+        DynamicFilterId filterId = new DynamicFilterId("123");
+        LocalDynamicFilterConsumer filter = new LocalDynamicFilterConsumer(
+                ImmutableMap.of(filterId, 0),
+                ImmutableMap.of(filterId, BIGINT),
+                2,
+                true,
+                blockTypeOperators);
+
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.ofSize(1024);
+        bloomFilter.add(xxHash64(BIGINT, 1L));
+        filter.getBloomFilterConsumer().accept(ImmutableMap.of(filterId, bloomFilter));
+        filter.getTupleDomainConsumer().accept(TupleDomain.all());
+        // neither a Bloom filter nor the values of the second partition are known
+        filter.getTupleDomainConsumer().accept(TupleDomain.all());
+
+        assertEquals(filter.getDynamicFilterDomains().get(), ImmutableMap.of(filterId, Domain.all(BIGINT)));
+        assertEquals(filter.getBloomFilters(), ImmutableMap.of());
+    }
+
+    private long xxHash64(Type type, Object value)
+    {
+        return blockTypeOperators.getXxHash64Operator(type).xxHash64(nativeValueToBlock(type, value), 0);
+    }
+
     @Test
     public void testDynamicFilterPruning()
             throws Exception
@@ -247,7 +373,9 @@ public class TestLocalDynamicFilterConsumer
                 joinNode,
                 ImmutableList.of(BIGINT, INTEGER, SMALLINT),
                 1,
-                ImmutableSet.of(filter1, filter3));
+                ImmutableSet.of(filter1, filter3),
+                false,
+                blockTypeOperators);
         assertEquals(consumer.getBuildChannels(), ImmutableMap.of(filter1, 0, filter3, 2));
 
         // make sure domain types got propagated correctly
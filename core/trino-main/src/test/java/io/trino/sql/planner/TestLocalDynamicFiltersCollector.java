@@ -22,6 +22,7 @@ import io.trino.metadata.Metadata;
 import io.trino.spi.connector.ColumnHandle;
 import io.trino.spi.connector.DynamicFilter;
 import io.trino.spi.connector.TestingColumnHandle;
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.Range;
 import io.trino.spi.predicate.TupleDomain;
@@ -116,6 +117,38 @@ public class TestLocalDynamicFiltersCollector
         assertEquals(filter.getCurrentPredicate(), TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.singleValue(INTEGER, 7L))));
     }
 
+    @Test
+    public void testBloomFilters()
+    {
+        LocalDynamicFiltersCollector collector = new LocalDynamicFiltersCollector(metadata, typeOperators, session);
+        DynamicFilterId filterId = new DynamicFilterId("filter");
+        collector.register(ImmutableSet.of(filterId));
+
+        SymbolAllocator symbolAllocator = new SymbolAllocator();
+        Symbol symbol1 = symbolAllocator.newSymbol("symbol1", BIGINT);
+        Symbol symbol2 = symbolAllocator.newSymbol("symbol2", BIGINT);
+        Symbol symbol3 = symbolAllocator.newSymbol("symbol3", INTEGER);
+        ColumnHandle column1 = new TestingColumnHandle("column1");
+        ColumnHandle column2 = new TestingColumnHandle("column2");
+        ColumnHandle column3 = new TestingColumnHandle("column3");
+        DynamicFilter filter = collector.createDynamicFilter(
+                ImmutableList.of(
+                        new DynamicFilters.Descriptor(filterId, symbol1.toSymbolReference()),
+                        new DynamicFilters.Descriptor(filterId, symbol2.toSymbolReference(), GREATER_THAN),
+                        new DynamicFilters.Descriptor(filterId, new Cast(symbol3.toSymbolReference(), toSqlType(BIGINT)))),
+                ImmutableMap.of(symbol1, column1, symbol2, column2, symbol3, column3),
+                symbolAllocator.getTypes());
+        assertEquals(filter.getCurrentBloomFilters(), ImmutableMap.of());
+
+        BlockedBloomFilter bloomFilter = BlockedBloomFilter.ofSize(1024);
+        collector.collectDynamicFilterBloomFilters(ImmutableMap.of(filterId, bloomFilter));
+        collector.collectDynamicFilterDomains(ImmutableMap.of(filterId, Domain.all(BIGINT)));
+
+        // Bloom filter is only used for equality with probe columns of the build type
+        assertTrue(filter.isComplete());
+        assertEquals(filter.getCurrentBloomFilters(), ImmutableMap.of(column1, bloomFilter));
+    }
+
     @Test
     public void testDynamicFilterCancellation()
     {
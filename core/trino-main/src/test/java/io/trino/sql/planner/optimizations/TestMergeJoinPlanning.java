@@ -0,0 +1,302 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.sql.planner.optimizations;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.trino.cost.CostComparator;
+import io.trino.cost.StatsCalculator;
+import io.trino.execution.warnings.WarningCollector;
+import io.trino.metadata.Metadata;
+import io.trino.spi.connector.SortOrder;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.TypeOperators;
+import io.trino.sql.analyzer.FeaturesConfig;
+import io.trino.sql.parser.SqlParser;
+import io.trino.sql.planner.OrderingScheme;
+import io.trino.sql.planner.PlanNodeIdAllocator;
+import io.trino.sql.planner.Symbol;
+import io.trino.sql.planner.SymbolAllocator;
+import io.trino.sql.planner.TypeAnalyzer;
+import io.trino.sql.planner.assertions.BasePlanTest;
+import io.trino.sql.planner.iterative.rule.test.PlanBuilder;
+import io.trino.sql.planner.plan.DynamicFilterId;
+import io.trino.sql.planner.plan.FilterNode;
+import io.trino.sql.planner.plan.JoinNode;
+import io.trino.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.trino.sql.planner.plan.MergeJoinNode;
+import io.trino.sql.planner.plan.PlanNode;
+import io.trino.sql.planner.plan.SortNode;
+import io.trino.sql.tree.Expression;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.trino.SystemSessionProperties.MERGE_JOIN_ENABLED;
+import static io.trino.cost.StatsCalculator.noopStatsCalculator;
+import static io.trino.spi.connector.SortOrder.ASC_NULLS_FIRST;
+import static io.trino.spi.connector.SortOrder.DESC_NULLS_LAST;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.sql.DynamicFilters.createDynamicFilterExpression;
+import static io.trino.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.trino.sql.planner.plan.JoinNode.Type.FULL;
+import static io.trino.sql.planner.plan.JoinNode.Type.INNER;
+import static io.trino.sql.planner.plan.JoinNode.Type.LEFT;
+import static java.util.function.Function.identity;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+@Test(singleThreaded = true) // e.g. PlanBuilder is mutable
+public class TestMergeJoinPlanning
+        extends BasePlanTest
+{
+    private Metadata metadata;
+    private final TypeOperators typeOperators = new TypeOperators();
+    private PlanNodeIdAllocator idAllocator;
+    private PlanBuilder builder;
+
+    public TestMergeJoinPlanning()
+    {
+        super(ImmutableMap.of(MERGE_JOIN_ENABLED, "true"));
+    }
+
+    @BeforeMethod
+    public void setup()
+    {
+        metadata = getQueryRunner().getMetadata();
+        idAllocator = new PlanNodeIdAllocator();
+        builder = new PlanBuilder(idAllocator, metadata);
+    }
+
+    @Test
+    public void testMatchingSortOrders()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        PlanNode plan = addLocalExchanges(join(INNER, sorted(left), sorted(right), new EquiJoinClause(left, right)));
+
+        MergeJoinNode mergeJoin = searchFrom(plan).where(MergeJoinNode.class::isInstance).findOnlyElement();
+        assertEquals(mergeJoin.getType(), INNER);
+        assertEquals(mergeJoin.getCriteria(), ImmutableList.of(new EquiJoinClause(left, right)));
+        assertEquals(mergeJoin.getSortOrders(), ImmutableList.of(ASC_NULLS_FIRST));
+        assertEquals(mergeJoin.getLeftOutputSymbols(), ImmutableList.of(left));
+        assertEquals(mergeJoin.getRightOutputSymbols(), ImmutableList.of(right));
+    }
+
+    @Test
+    public void testCriteriaOrderedAsInputs()
+    {
+        Symbol left1 = builder.symbol("left_key1", BIGINT);
+        Symbol left2 = builder.symbol("left_key2", BIGINT);
+        Symbol right1 = builder.symbol("right_key1", BIGINT);
+        Symbol right2 = builder.symbol("right_key2", BIGINT);
+        PlanNode plan = addLocalExchanges(join(
+                LEFT,
+                sorted(left1, left2),
+                sorted(right1, right2),
+                new EquiJoinClause(left2, right2),
+                new EquiJoinClause(left1, right1)));
+
+        MergeJoinNode mergeJoin = searchFrom(plan).where(MergeJoinNode.class::isInstance).findOnlyElement();
+        assertEquals(mergeJoin.getType(), LEFT);
+        assertEquals(mergeJoin.getCriteria(), ImmutableList.of(new EquiJoinClause(left1, right1), new EquiJoinClause(left2, right2)));
+        assertEquals(mergeJoin.getSortOrders(), ImmutableList.of(ASC_NULLS_FIRST, ASC_NULLS_FIRST));
+    }
+
+    @Test
+    public void testDescendingSortOrders()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        PlanNode plan = addLocalExchanges(join(INNER, sorted(DESC_NULLS_LAST, left), sorted(DESC_NULLS_LAST, right), new EquiJoinClause(left, right)));
+
+        MergeJoinNode mergeJoin = searchFrom(plan).where(MergeJoinNode.class::isInstance).findOnlyElement();
+        assertEquals(mergeJoin.getSortOrders(), ImmutableList.of(DESC_NULLS_LAST));
+    }
+
+    @Test
+    public void testMismatchedSortOrders()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        assertHashJoin(addLocalExchanges(join(INNER, sorted(left), sorted(DESC_NULLS_LAST, right), new EquiJoinClause(left, right))));
+    }
+
+    @Test
+    public void testMismatchedSortKeys()
+    {
+        Symbol left1 = builder.symbol("left_key1", BIGINT);
+        Symbol left2 = builder.symbol("left_key2", BIGINT);
+        Symbol right1 = builder.symbol("right_key1", BIGINT);
+        Symbol right2 = builder.symbol("right_key2", BIGINT);
+        assertHashJoin(addLocalExchanges(join(
+                INNER,
+                sorted(left1, left2),
+                sorted(right2, right1),
+                new EquiJoinClause(left1, right1),
+                new EquiJoinClause(left2, right2))));
+    }
+
+    @Test
+    public void testUnsortedInput()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        assertHashJoin(addLocalExchanges(join(INNER, sorted(left), values(right), new EquiJoinClause(left, right))));
+    }
+
+    @Test
+    public void testDoubleKeys()
+    {
+        Symbol left = builder.symbol("left_key", DOUBLE);
+        Symbol right = builder.symbol("right_key", DOUBLE);
+        assertHashJoin(addLocalExchanges(join(INNER, sorted(left), sorted(right), new EquiJoinClause(left, right))));
+    }
+
+    @Test
+    public void testUnsupportedJoinType()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        assertHashJoin(addLocalExchanges(join(FULL, sorted(left), sorted(right), new EquiJoinClause(left, right))));
+    }
+
+    @Test
+    public void testRemoveDynamicFilters()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        Expression dynamicFilter = createDynamicFilterExpression(metadata, new DynamicFilterId("DF"), BIGINT, left.toSymbolReference());
+        PlanNode root = builder.join(
+                INNER,
+                builder.filter(dynamicFilter, sorted(left)),
+                sorted(right),
+                ImmutableList.of(new EquiJoinClause(left, right)),
+                ImmutableList.of(left),
+                ImmutableList.of(right),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                ImmutableMap.of(new DynamicFilterId("DF"), right));
+        PlanNode plan = addLocalExchanges(root);
+
+        assertFalse(searchFrom(plan).where(JoinNode.class::isInstance).matches());
+        assertFalse(searchFrom(plan).where(FilterNode.class::isInstance).matches());
+        assertThat(searchFrom(plan).where(MergeJoinNode.class::isInstance).findAll()).hasSize(1);
+    }
+
+    @Test
+    public void testKeepOtherFilterConjuncts()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        Expression dynamicFilter = createDynamicFilterExpression(metadata, new DynamicFilterId("DF"), BIGINT, left.toSymbolReference());
+        PlanNode root = builder.join(
+                INNER,
+                builder.filter(expression("left_key > BIGINT '1'"), builder.filter(dynamicFilter, sorted(left))),
+                sorted(right),
+                ImmutableList.of(new EquiJoinClause(left, right)),
+                ImmutableList.of(left),
+                ImmutableList.of(right),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                ImmutableMap.of(new DynamicFilterId("DF"), right));
+        PlanNode plan = addLocalExchanges(root);
+
+        List<FilterNode> filters = searchFrom(plan).where(FilterNode.class::isInstance).findAll();
+        assertThat(filters).hasSize(1);
+        assertEquals(filters.get(0).getPredicate(), expression("left_key > BIGINT '1'"));
+        assertThat(searchFrom(plan).where(MergeJoinNode.class::isInstance).findAll()).hasSize(1);
+    }
+
+    @Test
+    public void testUnknownCosts()
+    {
+        Symbol left = builder.symbol("left_key", BIGINT);
+        Symbol right = builder.symbol("right_key", BIGINT);
+        PlanNode plan = addLocalExchanges(join(INNER, sorted(left), sorted(right), new EquiJoinClause(left, right)), noopStatsCalculator());
+
+        assertThat(searchFrom(plan).where(MergeJoinNode.class::isInstance).findAll()).hasSize(1);
+        assertFalse(searchFrom(plan).where(JoinNode.class::isInstance).matches());
+    }
+
+    private PlanNode join(JoinNode.Type type, PlanNode left, PlanNode right, EquiJoinClause... criteria)
+    {
+        return builder.join(type, left, right, ImmutableList.copyOf(criteria), left.getOutputSymbols(), right.getOutputSymbols(), Optional.empty());
+    }
+
+    private PlanNode sorted(Symbol... symbols)
+    {
+        return sorted(ASC_NULLS_FIRST, symbols);
+    }
+
+    private PlanNode sorted(SortOrder sortOrder, Symbol... symbols)
+    {
+        List<Symbol> orderBy = ImmutableList.copyOf(symbols);
+        return new SortNode(
+                idAllocator.getNextId(),
+                values(symbols),
+                new OrderingScheme(orderBy, orderBy.stream().collect(ImmutableMap.toImmutableMap(identity(), symbol -> sortOrder))),
+                false);
+    }
+
+    private PlanNode values(Symbol... symbols)
+    {
+        List<List<Expression>> rows = ImmutableList.of(1, 2, 3).stream()
+                .map(value -> ImmutableList.copyOf(symbols).stream()
+                        .map(symbol -> literal(builder.getTypes().get(symbol), value))
+                        .collect(toImmutableList()))
+                .collect(toImmutableList());
+        return builder.values(ImmutableList.copyOf(symbols), rows);
+    }
+
+    private static Expression literal(Type type, int value)
+    {
+        return expression(type.getDisplayName().toUpperCase() + " '" + value + "'");
+    }
+
+    private static void assertHashJoin(PlanNode plan)
+    {
+        assertFalse(searchFrom(plan).where(MergeJoinNode.class::isInstance).matches());
+        assertThat(searchFrom(plan).where(JoinNode.class::isInstance).findAll()).hasSize(1);
+    }
+
+    private PlanNode addLocalExchanges(PlanNode root)
+    {
+        return addLocalExchanges(root, getQueryRunner().getStatsCalculator());
+    }
+
+    private PlanNode addLocalExchanges(PlanNode root, StatsCalculator statsCalculator)
+    {
+        return getQueryRunner().inTransaction(session -> {
+            // metadata.getCatalogHandle() registers the catalog for the transaction
+            session.getCatalog().ifPresent(catalog -> metadata.getCatalogHandle(session, catalog));
+            AddLocalExchanges optimizer = new AddLocalExchanges(
+                    metadata,
+                    typeOperators,
+                    new TypeAnalyzer(new SqlParser(), metadata),
+                    statsCalculator,
+                    getQueryRunner().getCostCalculator(),
+                    new CostComparator(new FeaturesConfig()));
+            return optimizer.optimize(root, session, builder.getTypes(), new SymbolAllocator(), new PlanNodeIdAllocator(), WarningCollector.NOOP);
+        });
+    }
+}
@@ -206,6 +206,17 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Returns a token that identifies the version of the table data read through the handle.
+     * The token must change whenever the data visible through the handle changes. The engine
+     * only reuses results of queries while the tokens of all tables they read are unchanged.
+     * An empty result means the connector cannot tell when the data changes.
+     */
+    default Optional<String> getTableVersionToken(ConnectorSession session, ConnectorTableHandle table)
+    {
+        return Optional.empty();
+    }
+
     /**
      * List table and view names, possibly filtered by schema. An empty list is returned if none match.
      */
@@ -483,6 +494,16 @@ public interface ConnectorMetadata
         return false;
     }
 
+    /**
+     * @return whether data written for an insert or a new table only becomes visible through the fragments
+     * passed to {@link #finishInsert} or {@link #finishCreateTable}, so that a write can be executed again
+     * after a failure without committing the data written by the failed attempt
+     */
+    default boolean supportsWriteRetries()
+    {
+        return false;
+    }
+
     /**
      * Finish insert query
      */
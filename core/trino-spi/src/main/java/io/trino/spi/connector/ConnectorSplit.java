@@ -16,6 +16,7 @@ package io.trino.spi.connector;
 import io.trino.spi.HostAddress;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ConnectorSplit
 {
@@ -24,4 +25,15 @@ public interface ConnectorSplit
     List<HostAddress> getAddresses();
 
     Object getInfo();
+
+    /**
+     * Returns an identifier of the data read by this split that is stable across queries.
+     * Two splits created for the same version of a table must have the same identifier only
+     * if they produce the same rows. The engine caches the results of processing a split
+     * only when the split provides an identifier.
+     */
+    default Optional<String> getCacheIdentifier()
+    {
+        return Optional.empty();
+    }
 }
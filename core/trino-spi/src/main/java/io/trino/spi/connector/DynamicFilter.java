@@ -13,8 +13,10 @@
  */
 package io.trino.spi.connector;
 
+import io.trino.spi.predicate.BlockedBloomFilter;
 import io.trino.spi.predicate.TupleDomain;
 
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
 public interface DynamicFilter
@@ -69,4 +71,15 @@ public interface DynamicFilter
     boolean isAwaitable();
 
     TupleDomain<ColumnHandle> getCurrentPredicate();
+
+    /**
+     * Returns Bloom filters for columns whose collected values did not fit into
+     * {@link DynamicFilter#getCurrentPredicate()}. A row can only match if, for each
+     * returned column, the {@code XX_HASH_64} hash of its non-null value is
+     * reported by {@link BlockedBloomFilter#mightContain(long)}.
+     */
+    default Map<ColumnHandle, BlockedBloomFilter> getCurrentBloomFilters()
+    {
+        return Map.of();
+    }
 }
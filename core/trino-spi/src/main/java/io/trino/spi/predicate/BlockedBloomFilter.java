@@ -0,0 +1,162 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spi.predicate;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.Arrays;
+
+import static io.airlift.slice.SizeOf.sizeOf;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A blocked Bloom filter over 64-bit value hashes. Every hash selects a single
+ * 512-bit block (one cache line) and sets one bit in each of the eight words of
+ * that block, so both insertion and lookup touch one cache line only.
+ * <p>
+ * Filters with the same number of blocks can be combined with {@link #union(BlockedBloomFilter)},
+ * which makes them suitable for collecting values on many drivers or tasks.
+ * Dynamic filters hash values with the {@code XX_HASH_64} operator of the value type.
+ */
+public final class BlockedBloomFilter
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BlockedBloomFilter.class).instanceSize();
+
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BLOCK_SIZE_IN_BYTES = WORDS_PER_BLOCK * Long.BYTES;
+    private static final int MAX_BLOCK_COUNT = Integer.MAX_VALUE / WORDS_PER_BLOCK;
+
+    // odd multipliers used to derive the bit positions within a block
+    private static final long[] SALTS = {
+            0x47b6137b44974d91L,
+            0x8824ad5ba2b7289dL,
+            0x705495c72df1424bL,
+            0x9efc49475c6bfb31L,
+            0x3c6ef372fe94f82bL,
+            0xa54ff53a5f1d36f1L,
+            0x510e527fade682d1L,
+            0x9b05688c2b3e6c1fL};
+
+    private final long[] bits;
+    private final int blockCount;
+
+    /**
+     * Creates an empty filter that uses at most {@code sizeInBytes} bytes for its bits.
+     */
+    public static BlockedBloomFilter ofSize(long sizeInBytes)
+    {
+        if (sizeInBytes < 0) {
+            throw new IllegalArgumentException("sizeInBytes is negative");
+        }
+        long blockCount = Math.max(1, sizeInBytes / BLOCK_SIZE_IN_BYTES);
+        return new BlockedBloomFilter(new long[(int) Math.min(blockCount, MAX_BLOCK_COUNT) * WORDS_PER_BLOCK]);
+    }
+
+    @JsonCreator
+    public BlockedBloomFilter(@JsonProperty("bits") long[] bits)
+    {
+        requireNonNull(bits, "bits is null");
+        if (bits.length == 0 || bits.length % WORDS_PER_BLOCK != 0) {
+            throw new IllegalArgumentException(format("bits length must be a positive multiple of %s: %s", WORDS_PER_BLOCK, bits.length));
+        }
+        this.bits = bits;
+        this.blockCount = bits.length / WORDS_PER_BLOCK;
+    }
+
+    @JsonProperty
+    public long[] getBits()
+    {
+        return bits;
+    }
+
+    public void add(long hash)
+    {
+        int offset = blockOffset(hash);
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            bits[offset + i] |= bitMask(hash, i);
+        }
+    }
+
+    public boolean mightContain(long hash)
+    {
+        int offset = blockOffset(hash);
+        for (int i = 0; i < WORDS_PER_BLOCK; i++) {
+            long mask = bitMask(hash, i);
+            if ((bits[offset + i] & mask) != mask) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a new filter which contains the values of both this filter and {@code other}.
+     */
+    public BlockedBloomFilter union(BlockedBloomFilter other)
+    {
+        requireNonNull(other, "other is null");
+        if (blockCount != other.blockCount) {
+            throw new IllegalArgumentException(format("Mismatched Bloom filter sizes: %s and %s blocks", blockCount, other.blockCount));
+        }
+        long[] result = new long[bits.length];
+        for (int i = 0; i < bits.length; i++) {
+            result[i] = bits[i] | other.bits[i];
+        }
+        return new BlockedBloomFilter(result);
+    }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + sizeOf(bits);
+    }
+
+    private int blockOffset(long hash)
+    {
+        // map the high 32 bits of the hash into [0, blockCount) without a division
+        return (int) (((hash >>> 32) * blockCount) >>> 32) * WORDS_PER_BLOCK;
+    }
+
+    private static long bitMask(long hash, int word)
+    {
+        return 1L << ((hash * SALTS[word]) >>> 58);
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BlockedBloomFilter that = (BlockedBloomFilter) o;
+        return Arrays.equals(bits, that.bits);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "BlockedBloomFilter{blocks=" + blockCount + "}";
+    }
+}
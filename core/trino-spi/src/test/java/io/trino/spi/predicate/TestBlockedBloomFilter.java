@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.spi.predicate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.slice.XxHash64;
+import org.testng.annotations.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestBlockedBloomFilter
+{
+    @Test
+    public void testMightContain()
+    {
+        BlockedBloomFilter filter = BlockedBloomFilter.ofSize(64 * 1024);
+        for (long value = 0; value < 10_000; value++) {
+            filter.add(XxHash64.hash(value));
+        }
+        for (long value = 0; value < 10_000; value++) {
+            assertTrue(filter.mightContain(XxHash64.hash(value)));
+        }
+
+        // ~52 bits per value, so false positives should be very rare
+        int falsePositives = 0;
+        for (long value = 10_000; value < 110_000; value++) {
+            if (filter.mightContain(XxHash64.hash(value))) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 100, "too many false positives: " + falsePositives);
+    }
+
+    @Test
+    public void testUnion()
+    {
+        BlockedBloomFilter first = BlockedBloomFilter.ofSize(1024);
+        BlockedBloomFilter second = BlockedBloomFilter.ofSize(1024);
+        first.add(XxHash64.hash(1));
+        second.add(XxHash64.hash(2));
+        assertFalse(first.mightContain(XxHash64.hash(2)));
+
+        BlockedBloomFilter union = first.union(second);
+        assertTrue(union.mightContain(XxHash64.hash(1)));
+        assertTrue(union.mightContain(XxHash64.hash(2)));
+        // inputs are not modified
+        assertFalse(first.mightContain(XxHash64.hash(2)));
+
+        assertThatThrownBy(() -> first.union(BlockedBloomFilter.ofSize(2048)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Mismatched Bloom filter sizes: 16 and 32 blocks");
+    }
+
+    @Test
+    public void testSize()
+    {
+        assertEquals(BlockedBloomFilter.ofSize(0).getBits().length, 8);
+        assertEquals(BlockedBloomFilter.ofSize(100).getBits().length, 8);
+        assertEquals(BlockedBloomFilter.ofSize(1024).getBits().length, 128);
+        assertThatThrownBy(() -> new BlockedBloomFilter(new long[7]))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("bits length must be a positive multiple of 8: 7");
+    }
+
+    @Test
+    public void testJsonSerialization()
+            throws Exception
+    {
+        ObjectMapper mapper = new ObjectMapperProvider().get();
+
+        BlockedBloomFilter filter = BlockedBloomFilter.ofSize(1024);
+        filter.add(XxHash64.hash(42));
+        BlockedBloomFilter copy = mapper.readValue(mapper.writeValueAsString(filter), BlockedBloomFilter.class);
+        assertEquals(copy, filter);
+        assertTrue(copy.mightContain(XxHash64.hash(42)));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.airlift.slice.XxHash64;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Split block Bloom filter of a Parquet column chunk, as described in the Parquet format specification.
+ * The filter is made of blocks of eight 32-bit words. A value is hashed with XXH64, the upper half of the
+ * hash selects a block, and the lower half sets one bit in each word of the block.
+ * <p>
+ * Like other Bloom filters, false positives are possible but false negatives are not: if a value was
+ * inserted, the test methods always return true for it.
+ */
+public final class BloomFilter
+{
+    public static final int BYTES_PER_BLOCK = 32;
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int[] SALT = {0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
+
+    private final Slice bitset;
+    private final int numberOfBlocks;
+
+    public BloomFilter(int numBytes)
+    {
+        this(Slices.allocate(numBytes));
+    }
+
+    public BloomFilter(Slice bitset)
+    {
+        this.bitset = requireNonNull(bitset, "bitset is null");
+        checkArgument(bitset.length() > 0 && bitset.length() % BYTES_PER_BLOCK == 0, "Bloom filter size must be a positive multiple of %s bytes: %s", BYTES_PER_BLOCK, bitset.length());
+        this.numberOfBlocks = bitset.length() / BYTES_PER_BLOCK;
+    }
+
+    public Slice getBitset()
+    {
+        return bitset;
+    }
+
+    public void insertHash(long hash)
+    {
+        int block = getBlockOffset(hash);
+        int key = (int) hash;
+        for (int word = 0; word < WORDS_PER_BLOCK; word++) {
+            int position = block + word * SIZE_OF_INT;
+            bitset.setInt(position, bitset.getInt(position) | mask(key, word));
+        }
+    }
+
+    public boolean testHash(long hash)
+    {
+        int block = getBlockOffset(hash);
+        int key = (int) hash;
+        for (int word = 0; word < WORDS_PER_BLOCK; word++) {
+            if ((bitset.getInt(block + word * SIZE_OF_INT) & mask(key, word)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean testInt(int value)
+    {
+        return testHash(hashInt(value));
+    }
+
+    public boolean testLong(long value)
+    {
+        return testHash(hashLong(value));
+    }
+
+    public boolean testSlice(Slice value)
+    {
+        return testHash(hashSlice(value));
+    }
+
+    /**
+     * Hashes the value as a little endian INT32, the same as Parquet writers do.
+     */
+    public static long hashInt(int value)
+    {
+        Slice slice = Slices.allocate(SIZE_OF_INT);
+        slice.setInt(0, value);
+        return XxHash64.hash(slice);
+    }
+
+    /**
+     * Hashes the value as a little endian INT64, the same as Parquet writers do.
+     */
+    public static long hashLong(long value)
+    {
+        Slice slice = Slices.allocate(SIZE_OF_LONG);
+        slice.setLong(0, value);
+        return XxHash64.hash(slice);
+    }
+
+    public static long hashSlice(Slice value)
+    {
+        return XxHash64.hash(value);
+    }
+
+    private int getBlockOffset(long hash)
+    {
+        // multiply the upper 32 bits of the hash by the number of blocks, and keep the upper 32 bits of the result
+        return (int) (((hash >>> 32) * numberOfBlocks) >>> 32) * BYTES_PER_BLOCK;
+    }
+
+    private static int mask(int key, int word)
+    {
+        return 1 << ((key * SALT[word]) >>> 27);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("numBytes", bitset.length())
+                .toString();
+    }
+}
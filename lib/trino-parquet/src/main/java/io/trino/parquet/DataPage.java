@@ -13,19 +13,33 @@
  */
 package io.trino.parquet;
 
+import java.util.OptionalLong;
+
+import static java.util.Objects.requireNonNull;
+
 public abstract class DataPage
         extends Page
 {
     protected final int valueCount;
+    private final OptionalLong firstRowIndex;
 
-    public DataPage(int uncompressedSize, int valueCount)
+    public DataPage(int uncompressedSize, int valueCount, OptionalLong firstRowIndex)
     {
         super(uncompressedSize);
         this.valueCount = valueCount;
+        this.firstRowIndex = requireNonNull(firstRowIndex, "firstRowIndex is null");
     }
 
     public int getValueCount()
     {
         return valueCount;
     }
+
+    /**
+     * Returns the index in the row group of the first row of the page, if the page was read using the offset index.
+     */
+    public OptionalLong getFirstRowIndex()
+    {
+        return firstRowIndex;
+    }
 }
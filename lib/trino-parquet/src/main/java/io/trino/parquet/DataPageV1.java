@@ -15,6 +15,8 @@ package io.trino.parquet;
 
 import io.airlift.slice.Slice;
 
+import java.util.OptionalLong;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
 
@@ -32,9 +34,10 @@ public class DataPageV1
             int uncompressedSize,
             ParquetEncoding repetitionLevelEncoding,
             ParquetEncoding definitionLevelEncoding,
-            ParquetEncoding valuesEncoding)
+            ParquetEncoding valuesEncoding,
+            OptionalLong firstRowIndex)
     {
-        super(uncompressedSize, valueCount);
+        super(uncompressedSize, valueCount, firstRowIndex);
         this.slice = requireNonNull(slice, "slice is null");
         this.repetitionLevelEncoding = repetitionLevelEncoding;
         this.definitionLevelEncoding = definitionLevelEncoding;
@@ -71,6 +74,7 @@ public class DataPageV1
                 .add("valuesEncoding", valuesEncoding)
                 .add("valueCount", valueCount)
                 .add("uncompressedSize", uncompressedSize)
+                .add("firstRowIndex", getFirstRowIndex())
                 .toString();
     }
 }
@@ -16,6 +16,8 @@ package io.trino.parquet;
 import io.airlift.slice.Slice;
 import org.apache.parquet.column.statistics.Statistics;
 
+import java.util.OptionalLong;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
 
@@ -41,9 +43,10 @@ public class DataPageV2
             Slice slice,
             int uncompressedSize,
             Statistics<?> statistics,
-            boolean isCompressed)
+            boolean isCompressed,
+            OptionalLong firstRowIndex)
     {
-        super(uncompressedSize, valueCount);
+        super(uncompressedSize, valueCount, firstRowIndex);
         this.rowCount = rowCount;
         this.nullCount = nullCount;
         this.repetitionLevels = requireNonNull(repetitionLevels, "repetitionLevels slice is null");
@@ -108,6 +111,7 @@ public class DataPageV2
                 .add("isCompressed", isCompressed)
                 .add("valueCount", valueCount)
                 .add("uncompressedSize", uncompressedSize)
+                .add("firstRowIndex", getFirstRowIndex())
                 .toString();
     }
 }
@@ -13,12 +13,16 @@
  */
 package io.trino.parquet.predicate;
 
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.ParquetCorruptionException;
 import io.trino.parquet.ParquetDataSourceId;
+import io.trino.parquet.reader.PageIndexStore;
 import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
 
 import java.util.Map;
+import java.util.Set;
 
 public interface Predicate
 {
@@ -41,4 +45,31 @@ public interface Predicate
      * @param dictionary The single column dictionary
      */
     boolean matches(DictionaryDescriptor dictionary);
+
+    /**
+     * Should the Parquet Reader process a file section with the specified Bloom filter of a column.
+     * This is safe to check repeatedly to avoid loading more Bloom filters if the section can
+     * already be eliminated.
+     *
+     * @param column the column of the Bloom filter
+     * @param bloomFilter the Bloom filter of the column in the file section
+     */
+    boolean matches(ColumnDescriptor column, BloomFilter bloomFilter);
+
+    /**
+     * Returns the rows of a row group the Parquet Reader should process, based on the statistics
+     * of the pages of the row group in its page index.
+     *
+     * @param numberOfRows the number of rows in the row group
+     * @param pageIndexStore page index of the columns of the row group
+     * @param id Parquet file name
+     */
+    RowRanges getMatchingRows(long numberOfRows, PageIndexStore pageIndexStore, ParquetDataSourceId id)
+            throws ParquetCorruptionException;
+
+    /**
+     * Returns the columns the predicate is evaluated on. Only the column indexes of these columns
+     * are used by {@link #getMatchingRows}.
+     */
+    Set<ColumnPath> getPredicateColumns();
 }
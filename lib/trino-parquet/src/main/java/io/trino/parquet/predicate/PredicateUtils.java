@@ -20,11 +20,13 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Sets;
 import io.airlift.slice.Slice;
 import io.airlift.slice.SliceInput;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.DictionaryPage;
 import io.trino.parquet.ParquetCorruptionException;
 import io.trino.parquet.ParquetDataSource;
 import io.trino.parquet.ParquetEncoding;
 import io.trino.parquet.RichColumnDescriptor;
+import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.type.DecimalType;
 import io.trino.spi.type.Type;
@@ -53,6 +55,8 @@ import java.util.Set;
 import static com.google.common.base.Verify.verify;
 import static io.trino.parquet.ParquetCompressionUtils.decompress;
 import static io.trino.parquet.ParquetTypeUtils.getParquetEncoding;
+import static io.trino.parquet.reader.BloomFilterReader.hasBloomFilter;
+import static io.trino.parquet.reader.BloomFilterReader.readBloomFilter;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.spi.type.SmallintType.SMALLINT;
@@ -133,6 +137,29 @@ public final class PredicateUtils
         return dictionaryPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain);
     }
 
+    /**
+     * Checks the predicate against the Bloom filters of the columns of the row group. Only the columns
+     * whose predicate is a set of values are checked, as Bloom filters can only reject single values.
+     */
+    public static boolean bloomFilterPredicatesMatch(Predicate parquetPredicate, BlockMetaData blockMetadata, ParquetDataSource dataSource, Map<List<String>, RichColumnDescriptor> descriptorsByPath, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+            throws ParquetCorruptionException
+    {
+        for (ColumnChunkMetaData columnMetaData : blockMetadata.getColumns()) {
+            RichColumnDescriptor descriptor = descriptorsByPath.get(Arrays.asList(columnMetaData.getPath().toArray()));
+            if (descriptor != null) {
+                // columns with only dictionary encoded pages are already checked against the dictionary
+                if (hasBloomFilter(columnMetaData) && !isOnlyDictionaryEncodingPages(columnMetaData) && isBloomFilterPredicate(descriptor, parquetTupleDomain)) {
+                    Optional<BloomFilter> bloomFilter = readBloomFilter(dataSource, columnMetaData);
+                    // Early abort, predicate already filters block so no more Bloom filters need be read
+                    if (bloomFilter.isPresent() && !parquetPredicate.matches(descriptor, bloomFilter.get())) {
+                        return false;
+                    }
+                }
+            }
+        }
+        return true;
+    }
+
     private static Map<ColumnDescriptor, Statistics<?>> getStatistics(BlockMetaData blockMetadata, Map<List<String>, RichColumnDescriptor> descriptorsByPath)
     {
         ImmutableMap.Builder<ColumnDescriptor, Statistics<?>> statistics = ImmutableMap.builder();
@@ -193,9 +220,16 @@ public final class PredicateUtils
         return parquetTupleDomain.getDomains().get().containsKey(columnDescriptor);
     }
 
+    private static boolean isBloomFilterPredicate(ColumnDescriptor columnDescriptor, TupleDomain<ColumnDescriptor> parquetTupleDomain)
+    {
+        verify(parquetTupleDomain.getDomains().isPresent(), "parquetTupleDomain is empty");
+        Domain domain = parquetTupleDomain.getDomains().get().get(columnDescriptor);
+        return domain != null && !domain.isNullAllowed() && domain.getValues().isDiscreteSet();
+    }
+
     @VisibleForTesting
     @SuppressWarnings("deprecation")
-    static boolean isOnlyDictionaryEncodingPages(ColumnChunkMetaData columnMetaData)
+    public static boolean isOnlyDictionaryEncodingPages(ColumnChunkMetaData columnMetaData)
     {
         // Files written with newer versions of Parquet libraries (e.g. parquet-mr 1.9.0) will have EncodingStats available
         // Otherwise, fallback to v1 logic
@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.predicate;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkElementIndex;
+
+/**
+ * Sorted and disjoint ranges of rows of a row group. The end of each range is exclusive.
+ */
+public final class RowRanges
+{
+    private static final RowRanges EMPTY = new RowRanges(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+
+    private RowRanges(long[] starts, long[] ends)
+    {
+        this.starts = starts;
+        this.ends = ends;
+    }
+
+    public static RowRanges empty()
+    {
+        return EMPTY;
+    }
+
+    public static RowRanges all(long rowCount)
+    {
+        checkArgument(rowCount >= 0, "rowCount is negative");
+        if (rowCount == 0) {
+            return EMPTY;
+        }
+        return new RowRanges(new long[] {0}, new long[] {rowCount});
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public int getRangeCount()
+    {
+        return starts.length;
+    }
+
+    public long getRangeStart(int range)
+    {
+        checkElementIndex(range, starts.length);
+        return starts[range];
+    }
+
+    public long getRangeEnd(int range)
+    {
+        checkElementIndex(range, ends.length);
+        return ends[range];
+    }
+
+    public boolean isEmpty()
+    {
+        return starts.length == 0;
+    }
+
+    public long getRowCount()
+    {
+        long rowCount = 0;
+        for (int range = 0; range < starts.length; range++) {
+            rowCount += ends[range] - starts[range];
+        }
+        return rowCount;
+    }
+
+    /**
+     * Returns true if any of the rows from start (inclusive) to end (exclusive) is in these ranges.
+     */
+    public boolean overlaps(long start, long end)
+    {
+        // find the first range that ends after the start
+        int range = Arrays.binarySearch(ends, start);
+        range = range >= 0 ? range + 1 : -range - 1;
+        return range < starts.length && starts[range] < end;
+    }
+
+    public RowRanges intersect(RowRanges other)
+    {
+        Builder builder = builder();
+        int left = 0;
+        int right = 0;
+        while (left < starts.length && right < other.starts.length) {
+            long start = Math.max(starts[left], other.starts[right]);
+            long end = Math.min(ends[left], other.ends[right]);
+            if (start < end) {
+                builder.add(start, end);
+            }
+            if (ends[left] < other.ends[right]) {
+                left++;
+            }
+            else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        RowRanges other = (RowRanges) obj;
+        return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return 31 * Arrays.hashCode(starts) + Arrays.hashCode(ends);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder builder = new StringBuilder("[");
+        for (int range = 0; range < starts.length; range++) {
+            if (range > 0) {
+                builder.append(", ");
+            }
+            builder.append(starts[range]).append("..").append(ends[range]);
+        }
+        return builder.append("]").toString();
+    }
+
+    public static class Builder
+    {
+        private final LongArrayList starts = new LongArrayList();
+        private final LongArrayList ends = new LongArrayList();
+
+        private Builder() {}
+
+        /**
+         * Adds the rows from start (inclusive) to end (exclusive). Ranges must be added in increasing order,
+         * and a range that overlaps or adjoins the previous range is merged with it.
+         */
+        public Builder add(long start, long end)
+        {
+            checkArgument(start >= 0 && start < end, "invalid range: %s..%s", start, end);
+            int last = starts.size() - 1;
+            if (last >= 0) {
+                checkArgument(start >= starts.getLong(last), "ranges must be added in increasing order");
+                if (start <= ends.getLong(last)) {
+                    ends.set(last, Math.max(end, ends.getLong(last)));
+                    return this;
+                }
+            }
+            starts.add(start);
+            ends.add(end);
+            return this;
+        }
+
+        public RowRanges build()
+        {
+            if (starts.isEmpty()) {
+                return EMPTY;
+            }
+            return new RowRanges(starts.toLongArray(), ends.toLongArray());
+        }
+    }
+}
@@ -16,13 +16,16 @@ package io.trino.parquet.predicate;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.VerifyException;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.DictionaryPage;
 import io.trino.parquet.ParquetCorruptionException;
 import io.trino.parquet.ParquetDataSourceId;
 import io.trino.parquet.RichColumnDescriptor;
 import io.trino.parquet.dictionary.Dictionary;
+import io.trino.parquet.reader.PageIndexStore;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.Range;
 import io.trino.spi.predicate.TupleDomain;
@@ -39,16 +42,22 @@ import org.apache.parquet.column.statistics.FloatStatistics;
 import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.column.statistics.LongStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
 import org.joda.time.DateTimeZone;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.trino.parquet.ParquetTimestampUtils.decode;
 import static io.trino.parquet.predicate.PredicateUtils.isStatisticsOverflow;
 import static io.trino.plugin.base.type.TrinoTimestampEncoderFactory.createTimestampEncoder;
@@ -61,7 +70,9 @@ import static io.trino.spi.type.IntegerType.INTEGER;
 import static io.trino.spi.type.RealType.REAL;
 import static io.trino.spi.type.SmallintType.SMALLINT;
 import static io.trino.spi.type.TinyintType.TINYINT;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
 import static java.lang.Float.floatToRawIntBits;
+import static java.lang.Math.toIntExact;
 import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 
@@ -127,11 +138,184 @@ public class TupleDomainParquetPredicate
         return effectivePredicateDomain == null || effectivePredicateMatches(effectivePredicateDomain, dictionary);
     }
 
+    @Override
+    public boolean matches(ColumnDescriptor column, BloomFilter bloomFilter)
+    {
+        requireNonNull(column, "column is null");
+        requireNonNull(bloomFilter, "bloomFilter is null");
+        if (effectivePredicate.isNone()) {
+            return false;
+        }
+        Map<ColumnDescriptor, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
+                .orElseThrow(() -> new IllegalStateException("Effective predicate other than none should have domains"));
+
+        Domain effectivePredicateDomain = effectivePredicateDomains.get(column);
+
+        return effectivePredicateDomain == null || effectivePredicateMatches(effectivePredicateDomain, column.getPrimitiveType().getPrimitiveTypeName(), bloomFilter);
+    }
+
+    @Override
+    public RowRanges getMatchingRows(long numberOfRows, PageIndexStore pageIndexStore, ParquetDataSourceId id)
+            throws ParquetCorruptionException
+    {
+        if (numberOfRows == 0 || effectivePredicate.isNone()) {
+            return RowRanges.empty();
+        }
+        Map<ColumnDescriptor, Domain> effectivePredicateDomains = effectivePredicate.getDomains()
+                .orElseThrow(() -> new IllegalStateException("Effective predicate other than none should have domains"));
+
+        RowRanges matchingRows = RowRanges.all(numberOfRows);
+        for (RichColumnDescriptor column : columns) {
+            Domain effectivePredicateDomain = effectivePredicateDomains.get(column);
+            if (effectivePredicateDomain == null) {
+                continue;
+            }
+
+            ColumnPath path = ColumnPath.get(column.getPath());
+            Optional<ColumnIndex> columnIndex = pageIndexStore.getColumnIndex(path);
+            Optional<OffsetIndex> offsetIndex = pageIndexStore.getOffsetIndex(path);
+            if (columnIndex.isEmpty() || offsetIndex.isEmpty()) {
+                // no page index for column
+                continue;
+            }
+
+            matchingRows = matchingRows.intersect(getMatchingRows(effectivePredicateDomain, numberOfRows, column, columnIndex.get(), offsetIndex.get(), id));
+            if (matchingRows.isEmpty()) {
+                break;
+            }
+        }
+        return matchingRows;
+    }
+
+    @Override
+    public Set<ColumnPath> getPredicateColumns()
+    {
+        Optional<Map<ColumnDescriptor, Domain>> effectivePredicateDomains = effectivePredicate.getDomains();
+        if (effectivePredicateDomains.isEmpty()) {
+            return ImmutableSet.of();
+        }
+        return columns.stream()
+                .filter(effectivePredicateDomains.get()::containsKey)
+                .map(column -> ColumnPath.get(column.getPath()))
+                .collect(toImmutableSet());
+    }
+
+    private RowRanges getMatchingRows(
+            Domain effectivePredicateDomain,
+            long numberOfRows,
+            RichColumnDescriptor column,
+            ColumnIndex columnIndex,
+            OffsetIndex offsetIndex,
+            ParquetDataSourceId id)
+            throws ParquetCorruptionException
+    {
+        int pageCount = offsetIndex.getPageCount();
+        List<Boolean> nullPages = columnIndex.getNullPages();
+        List<ByteBuffer> minValues = columnIndex.getMinValues();
+        List<ByteBuffer> maxValues = columnIndex.getMaxValues();
+        List<Long> nullCounts = columnIndex.getNullCounts();
+        if (nullPages.size() != pageCount || minValues.size() != pageCount || maxValues.size() != pageCount || (nullCounts != null && nullCounts.size() != pageCount)) {
+            throw new ParquetCorruptionException("Column index of column %s in %s does not match the offset index with %s pages", column, id, pageCount);
+        }
+
+        RowRanges.Builder matchingRows = RowRanges.builder();
+        for (int page = 0; page < pageCount; page++) {
+            long firstRow = offsetIndex.getFirstRowIndex(page);
+            long lastRow = offsetIndex.getLastRowIndex(page, numberOfRows);
+
+            Domain domain;
+            if (nullPages.get(page)) {
+                domain = Domain.onlyNull(effectivePredicateDomain.getType());
+            }
+            else {
+                Statistics.Builder statistics = Statistics.getBuilderForReading(column.getPrimitiveType())
+                        .withMin(getBytes(minValues.get(page)))
+                        .withMax(getBytes(maxValues.get(page)));
+                if (nullCounts != null) {
+                    statistics.withNumNulls(nullCounts.get(page));
+                }
+                domain = getDomain(effectivePredicateDomain.getType(), lastRow - firstRow + 1, statistics.build(), id, column.toString(), timeZone);
+            }
+            if (effectivePredicateDomain.overlaps(domain)) {
+                matchingRows.add(firstRow, lastRow + 1);
+            }
+        }
+        return matchingRows.build();
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
     private static boolean effectivePredicateMatches(Domain effectivePredicateDomain, DictionaryDescriptor dictionary)
     {
         return effectivePredicateDomain.overlaps(getDomain(effectivePredicateDomain.getType(), dictionary));
     }
 
+    private static boolean effectivePredicateMatches(Domain effectivePredicateDomain, PrimitiveTypeName physicalType, BloomFilter bloomFilter)
+    {
+        // null values are not added to Bloom filters
+        if (effectivePredicateDomain.isNullAllowed() || !effectivePredicateDomain.getValues().isDiscreteSet()) {
+            return true;
+        }
+        Type type = effectivePredicateDomain.getType();
+        if (!isBloomFilterSupported(type, physicalType)) {
+            return true;
+        }
+        for (Object value : effectivePredicateDomain.getValues().getDiscreteSet()) {
+            if (bloomFilterMightContain(bloomFilter, physicalType, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Bloom filters hash the physical values, so only types whose values are stored unchanged can be used.
+     * Floating point values are excluded, as equal values like 0.0 and -0.0 have different hashes, and
+     * so are bounded varchar values, as the values in the file could be longer than the type.
+     */
+    public static boolean isBloomFilterSupported(Type type, PrimitiveTypeName physicalType)
+    {
+        switch (physicalType) {
+            case INT32:
+                return type == INTEGER || type == SMALLINT || type == TINYINT || type == DATE;
+            case INT64:
+                return type == BIGINT;
+            case BINARY:
+                return (type instanceof VarcharType && ((VarcharType) type).isUnbounded()) || type == VARBINARY;
+            case BOOLEAN:
+            case INT96:
+            case FLOAT:
+            case DOUBLE:
+            case FIXED_LEN_BYTE_ARRAY:
+                return false;
+        }
+        throw new IllegalArgumentException("Unsupported physical type: " + physicalType);
+    }
+
+    private static boolean bloomFilterMightContain(BloomFilter bloomFilter, PrimitiveTypeName physicalType, Object value)
+    {
+        switch (physicalType) {
+            case INT32:
+                return bloomFilter.testInt(toIntExact((long) value));
+            case INT64:
+                return bloomFilter.testLong((long) value);
+            case BINARY:
+                return bloomFilter.testSlice((Slice) value);
+            case BOOLEAN:
+            case INT96:
+            case FLOAT:
+            case DOUBLE:
+            case FIXED_LEN_BYTE_ARRAY:
+                break;
+        }
+        throw new IllegalArgumentException("Unsupported physical type: " + physicalType);
+    }
+
     @VisibleForTesting
     public static Domain getDomain(
             Type type,
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkProperties;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Metadata of a column chunk that has a Bloom filter. The {@link ColumnChunkMetaData}
+ * of the Parquet library in use has no field for the offset of the Bloom filter.
+ */
+class BloomFilterColumnChunkMetaData
+        extends ColumnChunkMetaData
+{
+    private final ColumnChunkMetaData delegate;
+    private final long bloomFilterOffset;
+
+    public BloomFilterColumnChunkMetaData(ColumnChunkMetaData delegate, long bloomFilterOffset)
+    {
+        super(delegate.getEncodingStats(), ColumnChunkProperties.get(delegate.getPath(), delegate.getPrimitiveType(), delegate.getCodec(), delegate.getEncodings()));
+        this.delegate = requireNonNull(delegate, "delegate is null");
+        this.bloomFilterOffset = bloomFilterOffset;
+    }
+
+    public long getBloomFilterOffset()
+    {
+        return bloomFilterOffset;
+    }
+
+    @Override
+    public long getFirstDataPageOffset()
+    {
+        return delegate.getFirstDataPageOffset();
+    }
+
+    @Override
+    public long getDictionaryPageOffset()
+    {
+        return delegate.getDictionaryPageOffset();
+    }
+
+    @Override
+    public long getValueCount()
+    {
+        return delegate.getValueCount();
+    }
+
+    @Override
+    public long getTotalUncompressedSize()
+    {
+        return delegate.getTotalUncompressedSize();
+    }
+
+    @Override
+    public long getTotalSize()
+    {
+        return delegate.getTotalSize();
+    }
+
+    @Override
+    public Statistics getStatistics()
+    {
+        return delegate.getStatistics();
+    }
+}
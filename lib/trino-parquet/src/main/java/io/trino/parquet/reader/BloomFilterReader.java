@@ -0,0 +1,159 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.SliceInput;
+import io.trino.parquet.BloomFilter;
+import io.trino.parquet.ParquetCorruptionException;
+import io.trino.parquet.ParquetDataSource;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+
+import java.util.Optional;
+import java.util.OptionalInt;
+
+import static io.trino.parquet.BloomFilter.BYTES_PER_BLOCK;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Reads the split block Bloom filter of a column chunk. A Bloom filter is stored as a
+ * {@code BloomFilterHeader} thrift struct in compact protocol, followed by the bitset.
+ * The header is decoded here, as the parquet-format version in use does not define it.
+ */
+public final class BloomFilterReader
+{
+    private static final int MAX_HEADER_SIZE = 64;
+    // same as the upper bound of Bloom filters written by parquet-mr
+    private static final int MAX_BLOOM_FILTER_SIZE = 128 * 1024 * 1024;
+
+    // thrift compact protocol field types
+    private static final int STOP = 0;
+    private static final int I32 = 5;
+    private static final int STRUCT = 12;
+
+    // fields of BloomFilterHeader
+    private static final int NUM_BYTES = 1;
+    private static final int ALGORITHM = 2;
+    private static final int COMPRESSION = 4;
+
+    private BloomFilterReader() {}
+
+    public static boolean hasBloomFilter(ColumnChunkMetaData column)
+    {
+        return column instanceof BloomFilterColumnChunkMetaData;
+    }
+
+    /**
+     * Returns the Bloom filter of the column chunk, or empty if the column chunk has no Bloom filter,
+     * or the Bloom filter uses an algorithm, hash or compression that is not supported.
+     */
+    public static Optional<BloomFilter> readBloomFilter(ParquetDataSource dataSource, ColumnChunkMetaData column)
+            throws ParquetCorruptionException
+    {
+        if (!hasBloomFilter(column)) {
+            return Optional.empty();
+        }
+        long offset = ((BloomFilterColumnChunkMetaData) column).getBloomFilterOffset();
+        long fileSize = dataSource.getEstimatedSize();
+        if (offset < 0 || offset >= fileSize) {
+            throw new ParquetCorruptionException("Bloom filter offset %s of column %s is out of range in %s", offset, column.getPath(), dataSource.getId());
+        }
+
+        SliceInput header = dataSource.readFully(offset, toIntExact(min(MAX_HEADER_SIZE, fileSize - offset))).getInput();
+        OptionalInt numBytes;
+        try {
+            numBytes = readNumBytes(header);
+        }
+        catch (IndexOutOfBoundsException e) {
+            throw new ParquetCorruptionException(e, "Invalid Bloom filter header of column %s in %s", column.getPath(), dataSource.getId());
+        }
+        if (numBytes.isEmpty()) {
+            return Optional.empty();
+        }
+
+        long bitsetOffset = offset + header.position();
+        int size = numBytes.getAsInt();
+        if (size <= 0 || size > MAX_BLOOM_FILTER_SIZE || size % BYTES_PER_BLOCK != 0 || bitsetOffset + size > fileSize) {
+            throw new ParquetCorruptionException("Invalid Bloom filter size %s of column %s in %s", size, column.getPath(), dataSource.getId());
+        }
+        Slice bitset = dataSource.readFully(bitsetOffset, size);
+        return Optional.of(new BloomFilter(bitset));
+    }
+
+    /**
+     * Returns the size of the bitset, or empty if the filter is not a split block filter of xxHash
+     * values without compression. These are the only variants of the unions of the header.
+     */
+    private static OptionalInt readNumBytes(SliceInput input)
+    {
+        int numBytes = -1;
+        int fieldId = 0;
+        while (true) {
+            int fieldHeader = input.readUnsignedByte();
+            int type = fieldHeader & 0x0F;
+            if (type == STOP) {
+                return OptionalInt.of(numBytes);
+            }
+            int delta = fieldHeader >>> 4;
+            if (delta == 0) {
+                // absolute field ids are only used for ids that cannot be encoded as a delta
+                return OptionalInt.empty();
+            }
+            fieldId += delta;
+            if (fieldId == NUM_BYTES && type == I32) {
+                numBytes = decodeZigZag(readVarInt(input));
+            }
+            else if (fieldId >= ALGORITHM && fieldId <= COMPRESSION && type == STRUCT) {
+                if (readUnionFieldId(input) != 1) {
+                    return OptionalInt.empty();
+                }
+            }
+            else {
+                return OptionalInt.empty();
+            }
+        }
+    }
+
+    private static int readUnionFieldId(SliceInput input)
+    {
+        int fieldHeader = input.readUnsignedByte();
+        if ((fieldHeader & 0x0F) != STRUCT) {
+            return -1;
+        }
+        // the variants are empty structs, followed by the end of the union
+        if (input.readUnsignedByte() != STOP || input.readUnsignedByte() != STOP) {
+            return -1;
+        }
+        return fieldHeader >>> 4;
+    }
+
+    private static int readVarInt(SliceInput input)
+    {
+        int result = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int value = input.readUnsignedByte();
+            result |= (value & 0x7F) << shift;
+            if ((value & 0x80) == 0) {
+                return result;
+            }
+        }
+        return -1;
+    }
+
+    private static int decodeZigZag(int value)
+    {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
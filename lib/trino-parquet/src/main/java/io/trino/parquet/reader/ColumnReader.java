@@ -0,0 +1,30 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.Field;
+
+public interface ColumnReader
+{
+    PageReader getPageReader();
+
+    void setPageReader(PageReader pageReader);
+
+    /**
+     * Sets the rows of the next batch, which start at the given row of the row group.
+     */
+    void prepareNextRead(long batchStartRow, int batchSize);
+
+    ColumnChunk readPrimitive(Field field);
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.reader.flat.FlatColumnReader;
+import org.apache.parquet.schema.OriginalType;
+import org.joda.time.DateTimeZone;
+
+import static io.trino.parquet.ParquetTypeUtils.createDecimalType;
+import static io.trino.parquet.reader.flat.BinaryColumnAdapter.BINARY_ADAPTER;
+import static io.trino.parquet.reader.flat.FlatColumnReader.isFlatColumn;
+import static io.trino.parquet.reader.flat.IntColumnAdapter.INT_ADAPTER;
+import static io.trino.parquet.reader.flat.LongColumnAdapter.LONG_ADAPTER;
+
+public final class ColumnReaderFactory
+{
+    private ColumnReaderFactory() {}
+
+    /**
+     * Creates a reader which decodes values in batches for flat columns of the primitive types
+     * supported by {@link FlatColumnReader}, and a value at a time for other columns. Binary columns
+     * of which all data pages are dictionary encoded are read as dictionary blocks.
+     */
+    public static ColumnReader create(RichColumnDescriptor descriptor, DateTimeZone timeZone)
+    {
+        if (isFlatColumn(descriptor) && createDecimalType(descriptor).isEmpty()) {
+            OriginalType originalType = descriptor.getPrimitiveType().getOriginalType();
+            switch (descriptor.getPrimitiveType().getPrimitiveTypeName()) {
+                case INT32:
+                    return new FlatColumnReader<>(descriptor, INT_ADAPTER, false);
+                case INT64:
+                    if (originalType != OriginalType.TIME_MICROS && originalType != OriginalType.TIMESTAMP_MICROS && originalType != OriginalType.TIMESTAMP_MILLIS) {
+                        return new FlatColumnReader<>(descriptor, LONG_ADAPTER, false);
+                    }
+                    break;
+                case BINARY:
+                    return new FlatColumnReader<>(descriptor, BINARY_ADAPTER, true);
+                case BOOLEAN:
+                case INT96:
+                case FLOAT:
+                case DOUBLE:
+                case FIXED_LEN_BYTE_ARRAY:
+                    break;
+            }
+        }
+        return PrimitiveColumnReader.createReader(descriptor, timeZone);
+    }
+}
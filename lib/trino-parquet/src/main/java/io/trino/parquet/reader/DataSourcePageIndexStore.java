@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import com.google.common.collect.ImmutableMap;
+import io.trino.parquet.ChunkReader;
+import io.trino.parquet.DiskRange;
+import io.trino.parquet.ParquetCorruptionException;
+import io.trino.parquet.ParquetDataSource;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.hadoop.metadata.IndexReference;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the page index of the columns of a row group from the data source. The column indexes are
+ * only read for the columns of the predicate, and the offset indexes for all columns that are read.
+ * Each kind of index is read when first requested, for all of its columns at once.
+ */
+public class DataSourcePageIndexStore
+        implements PageIndexStore
+{
+    private final ParquetDataSource dataSource;
+    private final Map<ColumnPath, ColumnChunkMetaData> columnIndexColumns;
+    private final Map<ColumnPath, ColumnChunkMetaData> offsetIndexColumns;
+
+    private Map<ColumnPath, ColumnIndex> columnIndexes;
+    private Map<ColumnPath, OffsetIndex> offsetIndexes;
+
+    public DataSourcePageIndexStore(ParquetDataSource dataSource, BlockMetaData block, Set<ColumnPath> predicateColumns, Set<ColumnPath> columnsRead)
+    {
+        this.dataSource = requireNonNull(dataSource, "dataSource is null");
+        requireNonNull(block, "block is null");
+        this.columnIndexColumns = getColumns(block, requireNonNull(predicateColumns, "predicateColumns is null"));
+        this.offsetIndexColumns = getColumns(block, requireNonNull(columnsRead, "columnsRead is null"));
+    }
+
+    private static Map<ColumnPath, ColumnChunkMetaData> getColumns(BlockMetaData block, Set<ColumnPath> paths)
+    {
+        ImmutableMap.Builder<ColumnPath, ColumnChunkMetaData> columns = ImmutableMap.builder();
+        for (ColumnChunkMetaData column : block.getColumns()) {
+            if (paths.contains(column.getPath())) {
+                columns.put(column.getPath(), column);
+            }
+        }
+        return columns.build();
+    }
+
+    @Override
+    public Optional<ColumnIndex> getColumnIndex(ColumnPath column)
+            throws ParquetCorruptionException
+    {
+        if (columnIndexes == null) {
+            columnIndexes = readIndexes(
+                    columnIndexColumns,
+                    ColumnChunkMetaData::getColumnIndexReference,
+                    (metadata, input) -> ParquetMetadataConverter.fromParquetColumnIndex(metadata.getPrimitiveType(), Util.readColumnIndex(input)));
+        }
+        return Optional.ofNullable(columnIndexes.get(column));
+    }
+
+    @Override
+    public Optional<OffsetIndex> getOffsetIndex(ColumnPath column)
+            throws ParquetCorruptionException
+    {
+        if (offsetIndexes == null) {
+            offsetIndexes = readIndexes(
+                    offsetIndexColumns,
+                    ColumnChunkMetaData::getOffsetIndexReference,
+                    (metadata, input) -> ParquetMetadataConverter.fromParquetOffsetIndex(Util.readOffsetIndex(input)));
+        }
+        return Optional.ofNullable(offsetIndexes.get(column));
+    }
+
+    private <T> Map<ColumnPath, T> readIndexes(Map<ColumnPath, ColumnChunkMetaData> columns, Function<ColumnChunkMetaData, IndexReference> referenceGetter, IndexReader<T> indexReader)
+            throws ParquetCorruptionException
+    {
+        ImmutableMap.Builder<ColumnPath, DiskRange> ranges = ImmutableMap.builder();
+        for (ColumnChunkMetaData column : columns.values()) {
+            IndexReference reference = referenceGetter.apply(column);
+            if (reference != null && reference.getLength() > 0) {
+                ranges.put(column.getPath(), new DiskRange(reference.getOffset(), reference.getLength()));
+            }
+        }
+
+        ImmutableMap.Builder<ColumnPath, T> indexes = ImmutableMap.builder();
+        for (Map.Entry<ColumnPath, ChunkReader> entry : dataSource.planRead(ranges.build()).entrySet()) {
+            ChunkReader chunkReader = entry.getValue();
+            try {
+                T index = indexReader.read(columns.get(entry.getKey()), chunkReader.read().getInput());
+                // a writer may write the index without any pages in it
+                if (index != null) {
+                    indexes.put(entry.getKey(), index);
+                }
+            }
+            catch (IOException e) {
+                throw new ParquetCorruptionException(e, "Failed to read page index of column %s in %s", entry.getKey(), dataSource.getId());
+            }
+            finally {
+                chunkReader.free();
+            }
+        }
+        return indexes.build();
+    }
+
+    private interface IndexReader<T>
+    {
+        T read(ColumnChunkMetaData metadata, InputStream input)
+                throws IOException;
+    }
+}
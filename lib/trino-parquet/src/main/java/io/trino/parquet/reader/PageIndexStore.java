@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import io.trino.parquet.ParquetCorruptionException;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+
+import java.util.Optional;
+
+/**
+ * Page index of the columns of a row group: the column index with the statistics of each page,
+ * and the offset index with the location and the first row of each page.
+ */
+public interface PageIndexStore
+{
+    Optional<ColumnIndex> getColumnIndex(ColumnPath column)
+            throws ParquetCorruptionException;
+
+    Optional<OffsetIndex> getOffsetIndex(ColumnPath column)
+            throws ParquetCorruptionException;
+}
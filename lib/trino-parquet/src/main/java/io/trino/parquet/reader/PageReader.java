@@ -25,18 +25,20 @@ import java.util.List;
 
 import static io.trino.parquet.ParquetCompressionUtils.decompress;
 
-class PageReader
+public class PageReader
 {
     private final CompressionCodecName codec;
     private final long valueCount;
     private final List<DataPage> compressedPages;
     private final DictionaryPage compressedDictionaryPage;
+    private final boolean hasOnlyDictionaryEncodedPages;
 
-    public PageReader(CompressionCodecName codec, List<DataPage> compressedPages, DictionaryPage compressedDictionaryPage)
+    public PageReader(CompressionCodecName codec, List<DataPage> compressedPages, DictionaryPage compressedDictionaryPage, boolean hasOnlyDictionaryEncodedPages)
     {
         this.codec = codec;
         this.compressedPages = new LinkedList<>(compressedPages);
         this.compressedDictionaryPage = compressedDictionaryPage;
+        this.hasOnlyDictionaryEncodedPages = hasOnlyDictionaryEncodedPages;
         int count = 0;
         for (DataPage page : compressedPages) {
             count += page.getValueCount();
@@ -49,6 +51,14 @@ class PageReader
         return valueCount;
     }
 
+    /**
+     * Returns true if the column chunk metadata states that all data pages use the dictionary.
+     */
+    public boolean hasOnlyDictionaryEncodedPages()
+    {
+        return hasOnlyDictionaryEncodedPages;
+    }
+
     public DataPage readPage()
     {
         if (compressedPages.isEmpty()) {
@@ -64,7 +74,8 @@ class PageReader
                         dataPageV1.getUncompressedSize(),
                         dataPageV1.getRepetitionLevelEncoding(),
                         dataPageV1.getDefinitionLevelEncoding(),
-                        dataPageV1.getValueEncoding());
+                        dataPageV1.getValueEncoding(),
+                        dataPageV1.getFirstRowIndex());
             }
             else {
                 DataPageV2 dataPageV2 = (DataPageV2) compressedPage;
@@ -84,7 +95,8 @@ class PageReader
                         decompress(codec, dataPageV2.getSlice(), uncompressedSize),
                         dataPageV2.getUncompressedSize(),
                         dataPageV2.getStatistics(),
-                        false);
+                        false,
+                        dataPageV2.getFirstRowIndex());
             }
         }
         catch (IOException e) {
@@ -20,19 +20,25 @@ import io.trino.parquet.DataPageV1;
 import io.trino.parquet.DataPageV2;
 import io.trino.parquet.DictionaryPage;
 import io.trino.parquet.ParquetCorruptionException;
+import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.parquet.column.Encoding;
 import org.apache.parquet.format.DataPageHeader;
 import org.apache.parquet.format.DataPageHeaderV2;
 import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
 import org.apache.parquet.format.Util;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.trino.parquet.ParquetTypeUtils.getParquetEncoding;
+import static io.trino.parquet.predicate.PredicateUtils.isOnlyDictionaryEncodingPages;
 import static java.util.Objects.requireNonNull;
 
 public class ParquetColumnChunk
@@ -72,58 +78,103 @@ public class ParquetColumnChunk
                     if (dictionaryPage != null) {
                         throw new ParquetCorruptionException("%s has more than one dictionary page in column chunk", descriptor.getColumnDescriptor());
                     }
-                    dictionaryPage = readDictionaryPage(pageHeader, uncompressedPageSize, compressedPageSize);
+                    dictionaryPage = readDictionaryPage(input, pageHeader, uncompressedPageSize, compressedPageSize);
                     break;
                 case DATA_PAGE:
-                    valueCount += readDataPageV1(pageHeader, uncompressedPageSize, compressedPageSize, pages);
+                    valueCount += readDataPageV1(input, pageHeader, uncompressedPageSize, compressedPageSize, OptionalLong.empty(), pages);
                     break;
                 case DATA_PAGE_V2:
-                    valueCount += readDataPageV2(pageHeader, uncompressedPageSize, compressedPageSize, pages);
+                    valueCount += readDataPageV2(input, pageHeader, uncompressedPageSize, compressedPageSize, OptionalLong.empty(), pages);
                     break;
                 default:
                     input.skip(compressedPageSize);
                     break;
             }
         }
-        return new PageReader(descriptor.getColumnChunkMetaData().getCodec(), pages, dictionaryPage);
+        return new PageReader(descriptor.getColumnChunkMetaData().getCodec(), pages, dictionaryPage, isOnlyDictionaryEncodingPages(descriptor.getColumnChunkMetaData()));
     }
 
-    private Slice getSlice(int size)
+    /**
+     * Reads a column chunk of which only some data pages were read. The data of this chunk holds
+     * the pages before the first data page, which includes the dictionary page if there is one,
+     * and each of the page slices holds the data page of the offset index with the same position
+     * in the page indexes.
+     */
+    public PageReader readPages(OffsetIndex offsetIndex, IntList pageIndexes, List<Slice> pageSlices)
+            throws IOException
     {
-        return input.readSlice(size);
+        checkArgument(pageIndexes.size() == pageSlices.size(), "pageIndexes and pageSlices sizes do not match");
+
+        DictionaryPage dictionaryPage = null;
+        while (input.isReadable()) {
+            PageHeader pageHeader = readPageHeader();
+            if (pageHeader.type != PageType.DICTIONARY_PAGE) {
+                input.skip(pageHeader.getCompressed_page_size());
+                continue;
+            }
+            if (dictionaryPage != null) {
+                throw new ParquetCorruptionException("%s has more than one dictionary page in column chunk", descriptor.getColumnDescriptor());
+            }
+            dictionaryPage = readDictionaryPage(input, pageHeader, pageHeader.getUncompressed_page_size(), pageHeader.getCompressed_page_size());
+        }
+
+        List<DataPage> pages = new ArrayList<>();
+        for (int i = 0; i < pageIndexes.size(); i++) {
+            BasicSliceInput pageInput = pageSlices.get(i).getInput();
+            PageHeader pageHeader = Util.readPageHeader(pageInput);
+            int uncompressedPageSize = pageHeader.getUncompressed_page_size();
+            int compressedPageSize = pageHeader.getCompressed_page_size();
+            OptionalLong firstRowIndex = OptionalLong.of(offsetIndex.getFirstRowIndex(pageIndexes.getInt(i)));
+            switch (pageHeader.type) {
+                case DATA_PAGE:
+                    readDataPageV1(pageInput, pageHeader, uncompressedPageSize, compressedPageSize, firstRowIndex, pages);
+                    break;
+                case DATA_PAGE_V2:
+                    readDataPageV2(pageInput, pageHeader, uncompressedPageSize, compressedPageSize, firstRowIndex, pages);
+                    break;
+                default:
+                    throw new ParquetCorruptionException("%s has a page of type %s in the offset index", descriptor.getColumnDescriptor(), pageHeader.type);
+            }
+        }
+        return new PageReader(descriptor.getColumnChunkMetaData().getCodec(), pages, dictionaryPage, isOnlyDictionaryEncodingPages(descriptor.getColumnChunkMetaData()));
     }
 
-    private DictionaryPage readDictionaryPage(PageHeader pageHeader, int uncompressedPageSize, int compressedPageSize)
+    private DictionaryPage readDictionaryPage(BasicSliceInput input, PageHeader pageHeader, int uncompressedPageSize, int compressedPageSize)
     {
         DictionaryPageHeader dicHeader = pageHeader.getDictionary_page_header();
         return new DictionaryPage(
-                getSlice(compressedPageSize),
+                input.readSlice(compressedPageSize),
                 uncompressedPageSize,
                 dicHeader.getNum_values(),
                 getParquetEncoding(Encoding.valueOf(dicHeader.getEncoding().name())));
     }
 
     private long readDataPageV1(
+            BasicSliceInput input,
             PageHeader pageHeader,
             int uncompressedPageSize,
             int compressedPageSize,
+            OptionalLong firstRowIndex,
             List<DataPage> pages)
     {
         DataPageHeader dataHeaderV1 = pageHeader.getData_page_header();
         pages.add(new DataPageV1(
-                getSlice(compressedPageSize),
+                input.readSlice(compressedPageSize),
                 dataHeaderV1.getNum_values(),
                 uncompressedPageSize,
                 getParquetEncoding(Encoding.valueOf(dataHeaderV1.getRepetition_level_encoding().name())),
                 getParquetEncoding(Encoding.valueOf(dataHeaderV1.getDefinition_level_encoding().name())),
-                getParquetEncoding(Encoding.valueOf(dataHeaderV1.getEncoding().name()))));
+                getParquetEncoding(Encoding.valueOf(dataHeaderV1.getEncoding().name())),
+                firstRowIndex));
         return dataHeaderV1.getNum_values();
     }
 
     private long readDataPageV2(
+            BasicSliceInput input,
             PageHeader pageHeader,
             int uncompressedPageSize,
             int compressedPageSize,
+            OptionalLong firstRowIndex,
             List<DataPage> pages)
     {
         DataPageHeaderV2 dataHeaderV2 = pageHeader.getData_page_header_v2();
@@ -132,16 +183,17 @@ public class ParquetColumnChunk
                 dataHeaderV2.getNum_rows(),
                 dataHeaderV2.getNum_nulls(),
                 dataHeaderV2.getNum_values(),
-                getSlice(dataHeaderV2.getRepetition_levels_byte_length()),
-                getSlice(dataHeaderV2.getDefinition_levels_byte_length()),
+                input.readSlice(dataHeaderV2.getRepetition_levels_byte_length()),
+                input.readSlice(dataHeaderV2.getDefinition_levels_byte_length()),
                 getParquetEncoding(Encoding.valueOf(dataHeaderV2.getEncoding().name())),
-                getSlice(dataSize),
+                input.readSlice(dataSize),
                 uncompressedPageSize,
                 MetadataReader.readStats(
                         fileCreatedBy,
                         Optional.ofNullable(dataHeaderV2.getStatistics()),
                         descriptor.getColumnDescriptor().getPrimitiveType()),
-                dataHeaderV2.isIs_compressed()));
+                dataHeaderV2.isIs_compressed(),
+                firstRowIndex));
         return dataHeaderV2.getNum_values();
     }
 }
@@ -13,6 +13,10 @@
  */
 package io.trino.parquet.reader;
 
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.ListMultimap;
 import io.airlift.slice.Slice;
 import io.trino.memory.context.AggregatedMemoryContext;
 import io.trino.parquet.ChunkKey;
@@ -25,6 +29,8 @@ import io.trino.parquet.ParquetDataSource;
 import io.trino.parquet.ParquetReaderOptions;
 import io.trino.parquet.PrimitiveField;
 import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.predicate.Predicate;
+import io.trino.parquet.predicate.RowRanges;
 import io.trino.spi.block.ArrayBlock;
 import io.trino.spi.block.Block;
 import io.trino.spi.block.RowBlock;
@@ -42,6 +48,7 @@ import org.apache.parquet.column.ColumnDescriptor;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
 import org.apache.parquet.io.MessageColumnIO;
 import org.apache.parquet.io.PrimitiveColumnIO;
 import org.joda.time.DateTimeZone;
@@ -53,8 +60,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.airlift.slice.Slices.EMPTY_SLICE;
 import static io.trino.parquet.ParquetValidationUtils.validateParquet;
 import static io.trino.parquet.reader.ListColumnReader.calculateCollectionOffsets;
 import static java.lang.Math.max;
@@ -79,7 +91,12 @@ public class ParquetReader
 
     private int currentRowGroup = -1;
     private BlockMetaData currentBlockMetadata;
-    private long currentGroupRowCount;
+    /**
+     * Rows of the current group to read, and the index of the range of the next batch
+     */
+    private RowRanges currentGroupRowRanges = RowRanges.empty();
+    private int currentRange = -1;
+    private long currentRangeEnd;
     /**
      * Index in the Parquet file of the first row of the current group
      */
@@ -90,14 +107,16 @@ public class ParquetReader
     private long nextRowInGroup;
     private int batchSize;
     private int nextBatchSize = INITIAL_BATCH_SIZE;
-    private final PrimitiveColumnReader[] columnReaders;
+    private final ColumnReader[] columnReaders;
     private final long[] maxBytesPerCell;
     private long maxCombinedBytesPerRow;
     private final ParquetReaderOptions options;
     private int maxBatchSize = MAX_VECTOR_LENGTH;
 
     private AggregatedMemoryContext currentRowGroupMemoryContext;
-    private final Map<ChunkKey, ChunkReader> chunkReaders;
+    private final List<RowRanges> blockRowRanges;
+    private final ListMultimap<ChunkKey, ChunkReader> chunkReaders;
+    private final Map<ChunkKey, ColumnChunkPages> columnChunkPages = new HashMap<>();
 
     public ParquetReader(
             Optional<String> fileCreatedBy,
@@ -107,7 +126,8 @@ public class ParquetReader
             ParquetDataSource dataSource,
             DateTimeZone timeZone,
             AggregatedMemoryContext systemMemoryContext,
-            ParquetReaderOptions options)
+            ParquetReaderOptions options,
+            Optional<Predicate> parquetPredicate)
             throws IOException
     {
         this.fileCreatedBy = requireNonNull(fileCreatedBy, "fileCreatedBy is null");
@@ -119,25 +139,88 @@ public class ParquetReader
         this.systemMemoryContext = requireNonNull(systemMemoryContext, "systemMemoryContext is null");
         this.currentRowGroupMemoryContext = systemMemoryContext.newAggregatedMemoryContext();
         this.options = requireNonNull(options, "options is null");
-        this.columnReaders = new PrimitiveColumnReader[columns.size()];
+        requireNonNull(parquetPredicate, "parquetPredicate is null");
+        this.columnReaders = new ColumnReader[columns.size()];
         this.maxBytesPerCell = new long[columns.size()];
 
         firstRowsOfBlocks.ifPresent(firstRows -> {
             checkArgument(blocks.size() == firstRows.size(), "elements of firstRowsOfBlocks must correspond to blocks");
         });
 
-        Map<ChunkKey, DiskRange> ranges = new HashMap<>();
+        Set<ColumnPath> columnPaths = columns.stream()
+                .map(column -> ColumnPath.get(column.getColumnDescriptor().getPath()))
+                .collect(toImmutableSet());
+        ImmutableList.Builder<RowRanges> blockRowRanges = ImmutableList.builder();
+        ListMultimap<ChunkKey, DiskRange> ranges = ArrayListMultimap.create();
         for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
             BlockMetaData metadata = blocks.get(rowGroup);
+            RowRanges rowRanges = RowRanges.all(metadata.getRowCount());
+            Optional<PageIndexStore> pageIndexStore = Optional.empty();
+            if (parquetPredicate.isPresent() && options.isUseColumnIndex()) {
+                pageIndexStore = Optional.of(new DataSourcePageIndexStore(dataSource, metadata, parquetPredicate.get().getPredicateColumns(), columnPaths));
+                rowRanges = parquetPredicate.get().getMatchingRows(metadata.getRowCount(), pageIndexStore.get(), dataSource.getId());
+            }
+            blockRowRanges.add(rowRanges);
+            boolean filtered = rowRanges.getRowCount() < metadata.getRowCount();
+
             for (PrimitiveColumnIO column : columns) {
+                if (rowRanges.isEmpty()) {
+                    // none of the rows of the row group are read
+                    break;
+                }
                 int columnId = column.getId();
+                ChunkKey key = new ChunkKey(columnId, rowGroup);
                 ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(metadata, column.getColumnDescriptor());
-                DiskRange range = new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize()));
-                ranges.put(new ChunkKey(columnId, rowGroup), range);
+
+                // The rows of a repeated column are not known without reading the levels,
+                // so the column readers can only skip pages of columns with a value per row
+                Optional<OffsetIndex> offsetIndex = Optional.empty();
+                if (filtered && column.getColumnDescriptor().getMaxRepetitionLevel() == 0) {
+                    offsetIndex = pageIndexStore.get().getOffsetIndex(ColumnPath.get(column.getColumnDescriptor().getPath()));
+                }
+                if (offsetIndex.isEmpty()) {
+                    ranges.put(key, new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize())));
+                    continue;
+                }
+
+                // the pages before the first data page hold the dictionary page
+                long firstDataPageOffset = offsetIndex.get().getOffset(0);
+                boolean hasDictionaryRange = firstDataPageOffset > chunkMetadata.getStartingPos();
+                if (hasDictionaryRange) {
+                    ranges.put(key, new DiskRange(chunkMetadata.getStartingPos(), toIntExact(firstDataPageOffset - chunkMetadata.getStartingPos())));
+                }
+                IntList pageIndexes = new IntArrayList();
+                for (int page = 0; page < offsetIndex.get().getPageCount(); page++) {
+                    long firstRow = offsetIndex.get().getFirstRowIndex(page);
+                    long lastRow = offsetIndex.get().getLastRowIndex(page, metadata.getRowCount());
+                    if (rowRanges.overlaps(firstRow, lastRow + 1)) {
+                        pageIndexes.add(page);
+                        ranges.put(key, new DiskRange(offsetIndex.get().getOffset(page), offsetIndex.get().getCompressedPageSize(page)));
+                    }
+                }
+                columnChunkPages.put(key, new ColumnChunkPages(offsetIndex.get(), pageIndexes, hasDictionaryRange));
             }
         }
 
-        this.chunkReaders = dataSource.planRead(ranges);
+        this.blockRowRanges = blockRowRanges.build();
+        this.chunkReaders = planRead(dataSource, ranges);
+    }
+
+    private static <K> ListMultimap<K, ChunkReader> planRead(ParquetDataSource dataSource, ListMultimap<K, DiskRange> ranges)
+    {
+        // the data source plans the reads of a single range per key, so the ranges are keyed by their position
+        List<Map.Entry<K, DiskRange>> entries = ImmutableList.copyOf(ranges.entries());
+        Map<Integer, DiskRange> indexedRanges = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            indexedRanges.put(i, entries.get(i).getValue());
+        }
+        Map<Integer, ChunkReader> indexedReaders = dataSource.planRead(indexedRanges);
+
+        ImmutableListMultimap.Builder<K, ChunkReader> chunkReaders = ImmutableListMultimap.builder();
+        for (int i = 0; i < entries.size(); i++) {
+            chunkReaders.put(entries.get(i).getKey(), indexedReaders.get(i));
+        }
+        return chunkReaders.build();
     }
 
     @Override
@@ -160,20 +243,38 @@ public class ParquetReader
 
     public int nextBatch()
     {
-        if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
+        if (nextRowInGroup >= currentRangeEnd && !advanceToNextRange()) {
             return -1;
         }
 
         batchSize = min(nextBatchSize, maxBatchSize);
         nextBatchSize = min(batchSize * BATCH_SIZE_GROWTH_FACTOR, MAX_VECTOR_LENGTH);
-        batchSize = toIntExact(min(batchSize, currentGroupRowCount - nextRowInGroup));
+        batchSize = toIntExact(min(batchSize, currentRangeEnd - nextRowInGroup));
 
+        long batchStartRow = nextRowInGroup;
         nextRowInGroup += batchSize;
         Arrays.stream(columnReaders)
-                .forEach(reader -> reader.prepareNextRead(batchSize));
+                .forEach(reader -> reader.prepareNextRead(batchStartRow, batchSize));
         return batchSize;
     }
 
+    /**
+     * Advances to the next range of rows to read, so that a batch never spans rows that are not read.
+     */
+    private boolean advanceToNextRange()
+    {
+        currentRange++;
+        while (currentRange >= currentGroupRowRanges.getRangeCount()) {
+            if (!advanceToNextRowGroup()) {
+                return false;
+            }
+            currentRange = 0;
+        }
+        nextRowInGroup = currentGroupRowRanges.getRangeStart(currentRange);
+        currentRangeEnd = currentGroupRowRanges.getRangeEnd(currentRange);
+        return true;
+    }
+
     private boolean advanceToNextRowGroup()
     {
         currentRowGroupMemoryContext.close();
@@ -186,8 +287,7 @@ public class ParquetReader
         }
         currentBlockMetadata = blocks.get(currentRowGroup);
         firstRowIndexInGroup = firstRowsOfBlocks.map(firstRows -> firstRows.get(currentRowGroup));
-        nextRowInGroup = 0L;
-        currentGroupRowCount = currentBlockMetadata.getRowCount();
+        currentGroupRowRanges = blockRowRanges.get(currentRowGroup);
         initializeColumnReaders();
         return true;
     }
@@ -199,8 +299,7 @@ public class ParquetReader
         }
 
         for (int column = 0; column < columns.size(); column++) {
-            ChunkReader reader = chunkReaders.get(new ChunkKey(column, currentRowGroup));
-            if (reader != null) {
+            for (ChunkReader reader : chunkReaders.get(new ChunkKey(column, currentRowGroup))) {
                 reader.free();
             }
         }
@@ -268,19 +367,30 @@ public class ParquetReader
     {
         ColumnDescriptor columnDescriptor = field.getDescriptor();
         int fieldId = field.getId();
-        PrimitiveColumnReader columnReader = columnReaders[fieldId];
+        ColumnReader columnReader = columnReaders[fieldId];
         if (columnReader.getPageReader() == null) {
             validateParquet(currentBlockMetadata.getRowCount() > 0, "Row group has 0 rows");
             ColumnChunkMetaData metadata = getColumnChunkMetaData(currentBlockMetadata, columnDescriptor);
 
-            Slice data = chunkReaders.get(new ChunkKey(fieldId, currentRowGroup)).read();
+            ChunkKey key = new ChunkKey(fieldId, currentRowGroup);
+            List<Slice> data = chunkReaders.get(key).stream()
+                    .map(ChunkReader::read)
+                    .collect(toImmutableList());
             // todo this just an estimate and doesn't reflect actual retained memory
             currentRowGroupMemoryContext.newLocalMemoryContext(ParquetReader.class.getSimpleName())
-                    .setBytes(data.length());
+                    .setBytes(data.stream().mapToLong(Slice::length).sum());
 
             ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata);
-            ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, data);
-            columnReader.setPageReader(columnChunk.readAllPages());
+            ColumnChunkPages pages = columnChunkPages.get(key);
+            if (pages == null) {
+                ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, getOnlyElement(data));
+                columnReader.setPageReader(columnChunk.readAllPages());
+            }
+            else {
+                int firstPageSlice = pages.hasDictionaryRange() ? 1 : 0;
+                ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, pages.hasDictionaryRange() ? data.get(0) : EMPTY_SLICE);
+                columnReader.setPageReader(columnChunk.readPages(pages.getOffsetIndex(), pages.getPageIndexes(), data.subList(firstPageSlice, data.size())));
+            }
         }
         ColumnChunk columnChunk = columnReader.readPrimitive(field);
 
@@ -310,7 +420,7 @@ public class ParquetReader
     {
         for (PrimitiveColumnIO columnIO : columns) {
             RichColumnDescriptor column = new RichColumnDescriptor(columnIO.getColumnDescriptor(), columnIO.getType().asPrimitiveType());
-            columnReaders[columnIO.getId()] = PrimitiveColumnReader.createReader(column, timeZone);
+            columnReaders[columnIO.getId()] = ColumnReaderFactory.create(column, timeZone);
         }
     }
 
@@ -348,4 +458,36 @@ public class ParquetReader
     {
         return systemMemoryContext;
     }
+
+    /**
+     * Pages of a column chunk of which only the pages with rows to read are read
+     */
+    private static class ColumnChunkPages
+    {
+        private final OffsetIndex offsetIndex;
+        private final IntList pageIndexes;
+        private final boolean hasDictionaryRange;
+
+        public ColumnChunkPages(OffsetIndex offsetIndex, IntList pageIndexes, boolean hasDictionaryRange)
+        {
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
+            this.pageIndexes = requireNonNull(pageIndexes, "pageIndexes is null");
+            this.hasDictionaryRange = hasDictionaryRange;
+        }
+
+        public OffsetIndex getOffsetIndex()
+        {
+            return offsetIndex;
+        }
+
+        public IntList getPageIndexes()
+        {
+            return pageIndexes;
+        }
+
+        public boolean hasDictionaryRange()
+        {
+            return hasDictionaryRange;
+        }
+    }
 }
@@ -47,9 +47,11 @@ import static io.trino.parquet.ValuesType.DEFINITION_LEVEL;
 import static io.trino.parquet.ValuesType.REPETITION_LEVEL;
 import static io.trino.parquet.ValuesType.VALUES;
 import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
 public abstract class PrimitiveColumnReader
+        implements ColumnReader
 {
     private static final int EMPTY_LEVEL_VALUE = -1;
     protected final RichColumnDescriptor columnDescriptor;
@@ -67,7 +69,14 @@ public abstract class PrimitiveColumnReader
     private int currentValueCount;
     private DataPage page;
     private int remainingValueCountInPage;
-    private int readOffset;
+    /**
+     * Index in the row group of the first row of the next batch
+     */
+    private long batchStartRow;
+    /**
+     * Index in the row group of the next row to read or skip
+     */
+    private long currentRow;
 
     protected abstract void readValue(BlockBuilder blockBuilder, Type type);
 
@@ -123,11 +132,13 @@ public abstract class PrimitiveColumnReader
         pageReader = null;
     }
 
+    @Override
     public PageReader getPageReader()
     {
         return pageReader;
     }
 
+    @Override
     public void setPageReader(PageReader pageReader)
     {
         this.pageReader = requireNonNull(pageReader, "pageReader");
@@ -148,12 +159,14 @@ public abstract class PrimitiveColumnReader
         totalValueCount = pageReader.getTotalValueCount();
     }
 
-    public void prepareNextRead(int batchSize)
+    @Override
+    public void prepareNextRead(long batchStartRow, int batchSize)
     {
-        readOffset = readOffset + nextBatchSize;
+        this.batchStartRow = batchStartRow;
         nextBatchSize = batchSize;
     }
 
+    @Override
     public ColumnChunk readPrimitive(Field field)
     {
         IntList definitionLevels = new IntArrayList();
@@ -171,7 +184,6 @@ public abstract class PrimitiveColumnReader
         }
         checkArgument(valueCount == nextBatchSize, "valueCount %s not equals to batchSize %s", valueCount, nextBatchSize);
 
-        readOffset = 0;
         nextBatchSize = 0;
         return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
     }
@@ -198,6 +210,7 @@ public abstract class PrimitiveColumnReader
         }
         int valueCount = 0;
         for (int i = 0; i < valuesToRead; i++) {
+            currentRow++;
             do {
                 valueReader.run();
                 valueCount++;
@@ -219,19 +232,15 @@ public abstract class PrimitiveColumnReader
     private void seek()
     {
         checkArgument(currentValueCount <= totalValueCount, "Already read all values in column chunk");
-        if (readOffset == 0) {
-            return;
-        }
-        int valuePosition = 0;
-        while (valuePosition < readOffset) {
+        while (currentRow < batchStartRow) {
             if (page == null) {
-                readNextPage();
+                // pages without rows of any batch were not read, so the next page may start after the current row
+                verify(readNextPage(), "No page with row %s in column chunk", batchStartRow);
+                continue;
             }
-            int offset = Math.min(remainingValueCountInPage, readOffset - valuePosition);
-            skipValues(offset);
-            valuePosition = valuePosition + offset;
+            skipValues(toIntExact(Math.min(remainingValueCountInPage, batchStartRow - currentRow)));
         }
-        checkArgument(valuePosition == readOffset, "valuePosition %s must be equal to readOffset %s", valuePosition, readOffset);
+        checkArgument(currentRow == batchStartRow, "currentRow %s must be equal to batchStartRow %s", currentRow, batchStartRow);
     }
 
     private boolean readNextPage()
@@ -243,6 +252,7 @@ public abstract class PrimitiveColumnReader
             return false;
         }
         remainingValueCountInPage = page.getValueCount();
+        page.getFirstRowIndex().ifPresent(firstRowIndex -> currentRow = firstRowIndex);
         if (page instanceof DataPageV1) {
             valuesReader = readPageV1((DataPageV1) page);
         }
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static java.lang.Math.max;
+
+/**
+ * Buffer of variable width values, laid out as the data and offsets of a {@code VariableWidthBlock}.
+ * Values must be added in increasing order of positions.
+ */
+public final class BinaryBuffer
+{
+    private final int[] offsets;
+    private byte[] data;
+
+    public BinaryBuffer(int positionCount)
+    {
+        this(positionCount, positionCount * SIZE_OF_INT);
+    }
+
+    public BinaryBuffer(int positionCount, int expectedDataSize)
+    {
+        checkArgument(positionCount >= 0, "positionCount is negative");
+        offsets = new int[positionCount + 1];
+        data = new byte[max(expectedDataSize, 0)];
+    }
+
+    public int getPositionCount()
+    {
+        return offsets.length - 1;
+    }
+
+    public void add(Slice source, int sourceIndex, int length, int position)
+    {
+        int offset = offsets[position];
+        ensureCapacity(offset + length);
+        source.getBytes(sourceIndex, data, offset, length);
+        offsets[position + 1] = offset + length;
+    }
+
+    public void add(byte[] source, int sourceIndex, int length, int position)
+    {
+        int offset = offsets[position];
+        ensureCapacity(offset + length);
+        System.arraycopy(source, sourceIndex, data, offset, length);
+        offsets[position + 1] = offset + length;
+    }
+
+    public void addNull(int position)
+    {
+        offsets[position + 1] = offsets[position];
+    }
+
+    public int[] getOffsets()
+    {
+        return offsets;
+    }
+
+    public Slice getSlice()
+    {
+        return Slices.wrappedBuffer(data, 0, offsets[offsets.length - 1]);
+    }
+
+    private void ensureCapacity(int capacity)
+    {
+        if (data.length < capacity) {
+            data = Arrays.copyOf(data, max(capacity, data.length + (data.length >> 1)));
+        }
+    }
+}
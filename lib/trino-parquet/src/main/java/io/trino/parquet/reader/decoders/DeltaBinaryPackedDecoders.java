@@ -0,0 +1,225 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+
+/**
+ * Decoders of the DELTA_BINARY_PACKED encoding. All values of a page are decoded up front,
+ * one miniblock of deltas at a time.
+ */
+public final class DeltaBinaryPackedDecoders
+{
+    private DeltaBinaryPackedDecoders() {}
+
+    public static final class IntDeltaBinaryPackedDecoder
+            implements ValueDecoder<int[]>
+    {
+        private long[] values;
+        private int position;
+
+        @Override
+        public void init(Slice input)
+        {
+            values = new DeltaBinaryPackedReader(input, 0).getValues();
+            position = 0;
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            checkAvailable(this.values, position, length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = (int) this.values[position + i];
+            }
+            position += length;
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            checkAvailable(values, position, n);
+            position += n;
+        }
+    }
+
+    public static final class LongDeltaBinaryPackedDecoder
+            implements ValueDecoder<long[]>
+    {
+        private long[] values;
+        private int position;
+
+        @Override
+        public void init(Slice input)
+        {
+            values = new DeltaBinaryPackedReader(input, 0).getValues();
+            position = 0;
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            checkAvailable(this.values, position, length);
+            System.arraycopy(this.values, position, values, offset, length);
+            position += length;
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            checkAvailable(values, position, n);
+            position += n;
+        }
+    }
+
+    static void checkAvailable(long[] values, int position, int length)
+    {
+        if (position + length > values.length) {
+            throw new ParquetDecodingException("Not enough values in DELTA_BINARY_PACKED encoded data");
+        }
+    }
+
+    /**
+     * Decodes the header and the blocks of DELTA_BINARY_PACKED encoded values starting at the given offset of the input,
+     * and records where the encoded values end, which is where the data of the delta byte array encodings starts.
+     */
+    static final class DeltaBinaryPackedReader
+    {
+        private final Slice input;
+        private int position;
+        private final long[] values;
+
+        DeltaBinaryPackedReader(Slice input, int offset)
+        {
+            this.input = input;
+            this.position = offset;
+
+            int blockSize = readUnsignedVarInt();
+            int miniBlockCount = readUnsignedVarInt();
+            int valueCount = readUnsignedVarInt();
+            if (blockSize <= 0 || miniBlockCount <= 0 || blockSize % miniBlockCount != 0 || valueCount < 0) {
+                throw new ParquetDecodingException("Invalid DELTA_BINARY_PACKED header");
+            }
+            int miniBlockSize = blockSize / miniBlockCount;
+
+            values = new long[valueCount];
+            long value = decodeZigZag(readUnsignedVarLong());
+            if (valueCount == 0) {
+                return;
+            }
+            values[0] = value;
+            int decoded = 1;
+            while (decoded < valueCount) {
+                long minDelta = decodeZigZag(readUnsignedVarLong());
+                int bitWidthsPosition = position;
+                position += miniBlockCount;
+                for (int miniBlock = 0; miniBlock < miniBlockCount && decoded < valueCount; miniBlock++) {
+                    int bitWidth = input.getUnsignedByte(bitWidthsPosition + miniBlock);
+                    if (bitWidth > Long.SIZE) {
+                        throw new ParquetDecodingException("Invalid bit width of DELTA_BINARY_PACKED miniblock: " + bitWidth);
+                    }
+                    int count = Math.min(miniBlockSize, valueCount - decoded);
+                    value = unpackDeltas(value, minDelta, bitWidth, decoded, count);
+                    decoded += count;
+                    // miniblocks are padded to their full size
+                    position += miniBlockSize / Byte.SIZE * bitWidth;
+                }
+            }
+        }
+
+        long[] getValues()
+        {
+            return values;
+        }
+
+        int getEndPosition()
+        {
+            return Math.min(position, input.length());
+        }
+
+        private long unpackDeltas(long previous, long minDelta, int bitWidth, int offset, int count)
+        {
+            long value = previous;
+            if (bitWidth == 0) {
+                for (int i = offset; i < offset + count; i++) {
+                    value += minDelta;
+                    values[i] = value;
+                }
+                return value;
+            }
+            long mask = bitWidth == Long.SIZE ? -1L : (1L << bitWidth) - 1;
+            long bitOffset = 0;
+            for (int i = offset; i < offset + count; i++) {
+                int byteOffset = position + (int) (bitOffset >>> 3);
+                int shift = (int) (bitOffset & 7);
+                long delta = readLong(byteOffset) >>> shift;
+                if (shift + bitWidth > Long.SIZE) {
+                    delta |= (long) readByte(byteOffset + SIZE_OF_LONG) << (Long.SIZE - shift);
+                }
+                value += minDelta + (delta & mask);
+                values[i] = value;
+                bitOffset += bitWidth;
+            }
+            return value;
+        }
+
+        private long readLong(int byteOffset)
+        {
+            if (byteOffset + SIZE_OF_LONG <= input.length()) {
+                return input.getLong(byteOffset);
+            }
+            long value = 0;
+            for (int i = 0; i < SIZE_OF_LONG; i++) {
+                value |= (long) readByte(byteOffset + i) << (i * Byte.SIZE);
+            }
+            return value;
+        }
+
+        private int readByte(int byteOffset)
+        {
+            // the last miniblock may be truncated by writers which do not pad it
+            return byteOffset < input.length() ? input.getUnsignedByte(byteOffset) : 0;
+        }
+
+        private int readUnsignedVarInt()
+        {
+            long value = readUnsignedVarLong();
+            if (value > Integer.MAX_VALUE) {
+                throw new ParquetDecodingException("Invalid DELTA_BINARY_PACKED header");
+            }
+            return (int) value;
+        }
+
+        private long readUnsignedVarLong()
+        {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = input.getUnsignedByte(position++);
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new ParquetDecodingException("Invalid variable length integer in DELTA_BINARY_PACKED encoded data");
+        }
+
+        private static long decodeZigZag(long value)
+        {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.DeltaBinaryPackedReader;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import java.util.Arrays;
+
+import static java.lang.Math.max;
+
+/**
+ * Decoders of the DELTA_LENGTH_BYTE_ARRAY and DELTA_BYTE_ARRAY encodings, which store the lengths
+ * of the values (and of the prefixes shared with the previous value) as DELTA_BINARY_PACKED
+ * values, followed by the concatenated bytes of the values (or suffixes).
+ */
+public final class DeltaByteArrayDecoders
+{
+    private DeltaByteArrayDecoders() {}
+
+    public static final class DeltaLengthByteArrayDecoder
+            implements ValueDecoder<BinaryBuffer>
+    {
+        private Slice input;
+        private long[] lengths;
+        private int currentValue;
+        private int position;
+
+        @Override
+        public void init(Slice input)
+        {
+            DeltaBinaryPackedReader lengthsReader = new DeltaBinaryPackedReader(input, 0);
+            this.input = input;
+            this.lengths = lengthsReader.getValues();
+            this.currentValue = 0;
+            this.position = lengthsReader.getEndPosition();
+        }
+
+        @Override
+        public void read(BinaryBuffer values, int offset, int length)
+        {
+            DeltaBinaryPackedDecoders.checkAvailable(lengths, currentValue, length);
+            for (int i = offset; i < offset + length; i++) {
+                int valueLength = (int) lengths[currentValue++];
+                values.add(input, position, valueLength, i);
+                position += valueLength;
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            DeltaBinaryPackedDecoders.checkAvailable(lengths, currentValue, n);
+            for (int i = 0; i < n; i++) {
+                position += (int) lengths[currentValue++];
+            }
+        }
+    }
+
+    public static final class DeltaByteArrayDecoder
+            implements ValueDecoder<BinaryBuffer>
+    {
+        private Slice input;
+        private long[] prefixLengths;
+        private long[] suffixLengths;
+        private int currentValue;
+        private int position;
+        private byte[] previousValue = new byte[0];
+        private int previousLength;
+
+        @Override
+        public void init(Slice input)
+        {
+            DeltaBinaryPackedReader prefixLengthsReader = new DeltaBinaryPackedReader(input, 0);
+            DeltaBinaryPackedReader suffixLengthsReader = new DeltaBinaryPackedReader(input, prefixLengthsReader.getEndPosition());
+            this.input = input;
+            this.prefixLengths = prefixLengthsReader.getValues();
+            this.suffixLengths = suffixLengthsReader.getValues();
+            if (prefixLengths.length != suffixLengths.length) {
+                throw new ParquetDecodingException("Different number of prefix and suffix lengths in DELTA_BYTE_ARRAY encoded data");
+            }
+            this.currentValue = 0;
+            this.position = suffixLengthsReader.getEndPosition();
+            this.previousLength = 0;
+        }
+
+        @Override
+        public void read(BinaryBuffer values, int offset, int length)
+        {
+            DeltaBinaryPackedDecoders.checkAvailable(prefixLengths, currentValue, length);
+            for (int i = offset; i < offset + length; i++) {
+                decodeNextValue();
+                values.add(previousValue, 0, previousLength, i);
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            DeltaBinaryPackedDecoders.checkAvailable(prefixLengths, currentValue, n);
+            // every value depends on the previous one
+            for (int i = 0; i < n; i++) {
+                decodeNextValue();
+            }
+        }
+
+        private void decodeNextValue()
+        {
+            int prefixLength = (int) prefixLengths[currentValue];
+            int suffixLength = (int) suffixLengths[currentValue];
+            currentValue++;
+            if (prefixLength < 0 || prefixLength > previousLength || suffixLength < 0) {
+                throw new ParquetDecodingException("Invalid prefix or suffix length in DELTA_BYTE_ARRAY encoded data");
+            }
+            int valueLength = prefixLength + suffixLength;
+            if (previousValue.length < valueLength) {
+                previousValue = Arrays.copyOf(previousValue, max(valueLength, previousValue.length * 2));
+            }
+            input.getBytes(position, previousValue, prefixLength, suffixLength);
+            position += suffixLength;
+            previousLength = valueLength;
+        }
+    }
+}
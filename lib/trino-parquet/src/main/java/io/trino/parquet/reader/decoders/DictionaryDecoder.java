@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Looks up the values of dictionary ids in the decoded dictionary.
+ */
+public abstract class DictionaryDecoder<T>
+        implements ValueDecoder<T>
+{
+    private final DictionaryIdsDecoder idsDecoder = new DictionaryIdsDecoder();
+    private int[] ids = new int[0];
+
+    @Override
+    public final void init(Slice input)
+    {
+        idsDecoder.init(input);
+    }
+
+    @Override
+    public final void skip(int n)
+    {
+        idsDecoder.skip(n);
+    }
+
+    protected final int[] readIds(int length)
+    {
+        if (ids.length < length) {
+            ids = new int[length];
+        }
+        idsDecoder.read(ids, 0, length);
+        return ids;
+    }
+
+    public static final class IntDictionaryDecoder
+            extends DictionaryDecoder<int[]>
+    {
+        private final int[] dictionary;
+
+        public IntDictionaryDecoder(int[] dictionary)
+        {
+            this.dictionary = requireNonNull(dictionary, "dictionary is null");
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            int[] ids = readIds(length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = dictionary[ids[i]];
+            }
+        }
+    }
+
+    public static final class LongDictionaryDecoder
+            extends DictionaryDecoder<long[]>
+    {
+        private final long[] dictionary;
+
+        public LongDictionaryDecoder(long[] dictionary)
+        {
+            this.dictionary = requireNonNull(dictionary, "dictionary is null");
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            int[] ids = readIds(length);
+            for (int i = 0; i < length; i++) {
+                values[offset + i] = dictionary[ids[i]];
+            }
+        }
+    }
+
+    public static final class BinaryDictionaryDecoder
+            extends DictionaryDecoder<BinaryBuffer>
+    {
+        private final Slice dictionary;
+        private final int[] dictionaryOffsets;
+
+        public BinaryDictionaryDecoder(BinaryBuffer dictionary)
+        {
+            this.dictionary = dictionary.getSlice();
+            this.dictionaryOffsets = dictionary.getOffsets();
+        }
+
+        @Override
+        public void read(BinaryBuffer values, int offset, int length)
+        {
+            int[] ids = readIds(length);
+            for (int i = 0; i < length; i++) {
+                int id = ids[i];
+                int start = dictionaryOffsets[id];
+                values.add(dictionary, start, dictionaryOffsets[id + 1] - start, offset + i);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import org.apache.parquet.io.ParquetDecodingException;
+
+/**
+ * Decodes dictionary ids of the RLE_DICTIONARY and PLAIN_DICTIONARY encodings, which store the bit width
+ * of the ids in the first byte followed by the RLE/bit-packing hybrid encoded ids.
+ */
+public final class DictionaryIdsDecoder
+        implements ValueDecoder<int[]>
+{
+    private RleBitPackingHybridDecoder decoder;
+
+    @Override
+    public void init(Slice input)
+    {
+        // a page without any non-null values may have no ids at all
+        int bitWidth = input.length() == 0 ? 0 : input.getUnsignedByte(0);
+        if (bitWidth > Integer.SIZE) {
+            throw new ParquetDecodingException("Invalid bit width of dictionary ids: " + bitWidth);
+        }
+        decoder = new RleBitPackingHybridDecoder(bitWidth);
+        decoder.init(input.length() == 0 ? input : input.slice(1, input.length() - 1));
+    }
+
+    @Override
+    public void read(int[] values, int offset, int length)
+    {
+        decoder.read(values, offset, length);
+    }
+
+    @Override
+    public void skip(int n)
+    {
+        decoder.skip(n);
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+
+/**
+ * Decoders of the PLAIN encoding, which stores fixed width values in little endian order
+ * and variable width values prefixed with their length.
+ */
+public final class PlainValueDecoders
+{
+    private PlainValueDecoders() {}
+
+    public static final class IntPlainDecoder
+            implements ValueDecoder<int[]>
+    {
+        private Slice input;
+        private int position;
+
+        @Override
+        public void init(Slice input)
+        {
+            this.input = input;
+            this.position = 0;
+        }
+
+        @Override
+        public void read(int[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = input.getInt(position);
+                position += SIZE_OF_INT;
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            position += n * SIZE_OF_INT;
+        }
+    }
+
+    public static final class LongPlainDecoder
+            implements ValueDecoder<long[]>
+    {
+        private Slice input;
+        private int position;
+
+        @Override
+        public void init(Slice input)
+        {
+            this.input = input;
+            this.position = 0;
+        }
+
+        @Override
+        public void read(long[] values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                values[i] = input.getLong(position);
+                position += SIZE_OF_LONG;
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            position += n * SIZE_OF_LONG;
+        }
+    }
+
+    public static final class BinaryPlainDecoder
+            implements ValueDecoder<BinaryBuffer>
+    {
+        private Slice input;
+        private int position;
+
+        @Override
+        public void init(Slice input)
+        {
+            this.input = input;
+            this.position = 0;
+        }
+
+        @Override
+        public void read(BinaryBuffer values, int offset, int length)
+        {
+            for (int i = offset; i < offset + length; i++) {
+                int valueLength = input.getInt(position);
+                values.add(input, position + SIZE_OF_INT, valueLength, i);
+                position += SIZE_OF_INT + valueLength;
+            }
+        }
+
+        @Override
+        public void skip(int n)
+        {
+            for (int i = 0; i < n; i++) {
+                position += SIZE_OF_INT + input.getInt(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import java.util.Arrays;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+
+/**
+ * Decodes values of the RLE/bit-packing hybrid encoding, which is used for definition and repetition levels
+ * and for dictionary ids. A run of repeated values is filled in bulk, a bit-packed run is unpacked with
+ * a single unaligned read per value.
+ */
+public final class RleBitPackingHybridDecoder
+        implements ValueDecoder<int[]>
+{
+    private final int bitWidth;
+    private final int byteWidth;
+    private final long mask;
+
+    private Slice input;
+    private int position;
+    private int end;
+
+    private boolean rle;
+    private int remainingInRun;
+    private int rleValue;
+    private int packedStart;
+    private int packedIndex;
+
+    public RleBitPackingHybridDecoder(int bitWidth)
+    {
+        checkArgument(bitWidth >= 0 && bitWidth <= Integer.SIZE, "Invalid bit width: %s", bitWidth);
+        this.bitWidth = bitWidth;
+        this.byteWidth = (bitWidth + Byte.SIZE - 1) / Byte.SIZE;
+        this.mask = (1L << bitWidth) - 1;
+    }
+
+    @Override
+    public void init(Slice input)
+    {
+        this.input = input;
+        this.position = 0;
+        this.end = input.length();
+        this.remainingInRun = 0;
+    }
+
+    @Override
+    public void read(int[] values, int offset, int length)
+    {
+        while (length > 0) {
+            if (remainingInRun == 0) {
+                readNextRun();
+            }
+            int chunkSize = min(length, remainingInRun);
+            if (rle) {
+                Arrays.fill(values, offset, offset + chunkSize, rleValue);
+            }
+            else {
+                unpack(values, offset, chunkSize);
+                packedIndex += chunkSize;
+            }
+            offset += chunkSize;
+            length -= chunkSize;
+            remainingInRun -= chunkSize;
+        }
+    }
+
+    @Override
+    public void skip(int n)
+    {
+        while (n > 0) {
+            if (remainingInRun == 0) {
+                readNextRun();
+            }
+            int chunkSize = min(n, remainingInRun);
+            if (!rle) {
+                packedIndex += chunkSize;
+            }
+            n -= chunkSize;
+            remainingInRun -= chunkSize;
+        }
+    }
+
+    private void readNextRun()
+    {
+        if (position >= end) {
+            if (bitWidth == 0) {
+                // values of width 0 may be omitted altogether
+                rle = true;
+                rleValue = 0;
+                remainingInRun = Integer.MAX_VALUE;
+                return;
+            }
+            throw new ParquetDecodingException("Not enough values in RLE/bit-packed hybrid encoded data");
+        }
+        int header = readUnsignedVarInt();
+        if ((header & 1) == 0) {
+            rle = true;
+            remainingInRun = header >>> 1;
+            int value = 0;
+            for (int i = 0; i < byteWidth; i++) {
+                value |= input.getUnsignedByte(position++) << (i * Byte.SIZE);
+            }
+            rleValue = value;
+        }
+        else {
+            rle = false;
+            int groupCount = header >>> 1;
+            remainingInRun = toIntExact(groupCount * 8L);
+            packedStart = position;
+            packedIndex = 0;
+            // the last run may be truncated, the missing values are then never read
+            position = toIntExact(min(end, position + (long) groupCount * bitWidth));
+        }
+    }
+
+    private void unpack(int[] values, int offset, int length)
+    {
+        long bitOffset = (long) packedIndex * bitWidth;
+        for (int i = offset; i < offset + length; i++) {
+            int byteOffset = packedStart + (int) (bitOffset >>> 3);
+            values[i] = (int) ((readLong(byteOffset) >>> (bitOffset & 7)) & mask);
+            bitOffset += bitWidth;
+        }
+    }
+
+    private long readLong(int byteOffset)
+    {
+        if (byteOffset + SIZE_OF_LONG <= end) {
+            return input.getLong(byteOffset);
+        }
+        long value = 0;
+        for (int i = 0; byteOffset + i < end && i < SIZE_OF_LONG; i++) {
+            value |= (long) input.getUnsignedByte(byteOffset + i) << (i * Byte.SIZE);
+        }
+        return value;
+    }
+
+    private int readUnsignedVarInt()
+    {
+        int value = 0;
+        for (int shift = 0; shift < Integer.SIZE; shift += 7) {
+            int b = input.getUnsignedByte(position++);
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ParquetDecodingException("Invalid RLE/bit-packed hybrid run header");
+    }
+}
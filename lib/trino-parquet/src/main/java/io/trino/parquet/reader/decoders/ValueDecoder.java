@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+
+/**
+ * Decodes the values of a data page in batches, directly into a buffer of primitive values.
+ *
+ * @param <T> the type of the buffer, e.g. {@code int[]}, {@code long[]} or {@link BinaryBuffer}
+ */
+public interface ValueDecoder<T>
+{
+    /**
+     * Starts decoding the values of a page, which are the whole input.
+     */
+    void init(Slice input);
+
+    /**
+     * Decodes the next values into the positions from offset (inclusive) to offset + length (exclusive) of the buffer.
+     */
+    void read(T values, int offset, int length);
+
+    void skip(int n);
+}
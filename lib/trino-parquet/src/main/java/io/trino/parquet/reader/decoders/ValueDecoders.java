@@ -0,0 +1,95 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.IntDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.LongDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DeltaByteArrayDecoders.DeltaByteArrayDecoder;
+import io.trino.parquet.reader.decoders.DeltaByteArrayDecoders.DeltaLengthByteArrayDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.BinaryPlainDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.IntPlainDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.LongPlainDecoder;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import static java.lang.String.format;
+
+/**
+ * Creates the decoders of the encodings which do not use a dictionary.
+ */
+public final class ValueDecoders
+{
+    private ValueDecoders() {}
+
+    public static ValueDecoder<int[]> getIntDecoder(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        switch (encoding) {
+            case PLAIN:
+                return new IntPlainDecoder();
+            case DELTA_BINARY_PACKED:
+                return new IntDeltaBinaryPackedDecoder();
+            case RLE:
+            case BIT_PACKED:
+            case PLAIN_DICTIONARY:
+            case DELTA_LENGTH_BYTE_ARRAY:
+            case DELTA_BYTE_ARRAY:
+            case RLE_DICTIONARY:
+                break;
+        }
+        throw unsupportedEncoding(encoding, column);
+    }
+
+    public static ValueDecoder<long[]> getLongDecoder(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        switch (encoding) {
+            case PLAIN:
+                return new LongPlainDecoder();
+            case DELTA_BINARY_PACKED:
+                return new LongDeltaBinaryPackedDecoder();
+            case RLE:
+            case BIT_PACKED:
+            case PLAIN_DICTIONARY:
+            case DELTA_LENGTH_BYTE_ARRAY:
+            case DELTA_BYTE_ARRAY:
+            case RLE_DICTIONARY:
+                break;
+        }
+        throw unsupportedEncoding(encoding, column);
+    }
+
+    public static ValueDecoder<BinaryBuffer> getBinaryDecoder(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        switch (encoding) {
+            case PLAIN:
+                return new BinaryPlainDecoder();
+            case DELTA_LENGTH_BYTE_ARRAY:
+                return new DeltaLengthByteArrayDecoder();
+            case DELTA_BYTE_ARRAY:
+                return new DeltaByteArrayDecoder();
+            case RLE:
+            case BIT_PACKED:
+            case PLAIN_DICTIONARY:
+            case DELTA_BINARY_PACKED:
+            case RLE_DICTIONARY:
+                break;
+        }
+        throw unsupportedEncoding(encoding, column);
+    }
+
+    private static ParquetDecodingException unsupportedEncoding(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        return new ParquetDecodingException(format("%s encoding is not supported for column %s", encoding, column));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.reader.decoders.BinaryBuffer;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.BinaryDictionaryDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.VariableWidthBlock;
+import io.trino.spi.type.CharType;
+import io.trino.spi.type.Type;
+import io.trino.spi.type.VarbinaryType;
+import io.trino.spi.type.VarcharType;
+import org.apache.parquet.column.ColumnDescriptor;
+
+import java.util.Optional;
+
+import static io.trino.parquet.reader.decoders.ValueDecoders.getBinaryDecoder;
+import static io.trino.spi.type.Chars.truncateToLengthAndTrimSpaces;
+import static io.trino.spi.type.Varchars.truncateToLength;
+
+public final class BinaryColumnAdapter
+        implements ColumnAdapter<BinaryBuffer>
+{
+    public static final BinaryColumnAdapter BINARY_ADAPTER = new BinaryColumnAdapter();
+
+    private BinaryColumnAdapter() {}
+
+    @Override
+    public BinaryBuffer createBuffer(int size)
+    {
+        return new BinaryBuffer(size);
+    }
+
+    @Override
+    public void setNull(BinaryBuffer values, int position)
+    {
+        values.addNull(position);
+    }
+
+    @Override
+    public ValueDecoder<BinaryBuffer> createValueDecoder(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        return getBinaryDecoder(encoding, column);
+    }
+
+    @Override
+    public ValueDecoder<BinaryBuffer> createDictionaryDecoder(BinaryBuffer dictionary)
+    {
+        return new BinaryDictionaryDecoder(dictionary);
+    }
+
+    @Override
+    public Block createBlock(Type type, BinaryBuffer values, int positionCount, Optional<boolean[]> isNull)
+    {
+        Slice slice = values.getSlice();
+        int[] offsets = values.getOffsets();
+        if (type instanceof VarbinaryType || (type instanceof VarcharType && ((VarcharType) type).isUnbounded())) {
+            return new VariableWidthBlock(positionCount, slice, offsets, isNull);
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            if (isNull.isPresent() && isNull.get()[i]) {
+                blockBuilder.appendNull();
+                continue;
+            }
+            Slice value = slice.slice(offsets[i], offsets[i + 1] - offsets[i]);
+            if (type instanceof VarcharType) {
+                value = truncateToLength(value, type);
+            }
+            if (type instanceof CharType) {
+                value = truncateToLengthAndTrimSpaces(value, type);
+            }
+            type.writeSlice(blockBuilder, value);
+        }
+        return blockBuilder.build();
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.parquet.column.ColumnDescriptor;
+
+import java.util.Optional;
+
+/**
+ * Bridges the buffer of decoded values of a physical type and the blocks of the Trino types read from it.
+ *
+ * @param <T> the type of the buffer of decoded values
+ */
+public interface ColumnAdapter<T>
+{
+    T createBuffer(int size);
+
+    /**
+     * Marks a null position of the buffer. Called for every null position, in order with the positions of values.
+     */
+    void setNull(T values, int position);
+
+    ValueDecoder<T> createValueDecoder(ParquetEncoding encoding, ColumnDescriptor column);
+
+    ValueDecoder<T> createDictionaryDecoder(T dictionary);
+
+    Block createBlock(Type type, T values, int positionCount, Optional<boolean[]> isNull);
+}
@@ -0,0 +1,340 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.DataPage;
+import io.trino.parquet.DataPageV1;
+import io.trino.parquet.DataPageV2;
+import io.trino.parquet.DictionaryPage;
+import io.trino.parquet.Field;
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.reader.ColumnChunk;
+import io.trino.parquet.reader.ColumnReader;
+import io.trino.parquet.reader.PageReader;
+import io.trino.parquet.reader.decoders.DictionaryIdsDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.type.Type;
+import org.apache.parquet.io.ParquetDecodingException;
+
+import java.util.Optional;
+import java.util.function.ObjIntConsumer;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Verify.verify;
+import static io.airlift.slice.SizeOf.SIZE_OF_INT;
+import static io.trino.parquet.ParquetEncoding.PLAIN;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads a column which is neither repeated nor nested in an optional group. The values of a batch are decoded
+ * in bulk into a buffer of primitive values, which becomes the block of the batch without copying when possible.
+ * <p>
+ * When dictionary blocks are enabled and all data pages of the column chunk are dictionary encoded, only the
+ * dictionary ids are decoded, and the batches are dictionary blocks sharing the dictionary of the column chunk.
+ */
+public class FlatColumnReader<T>
+        implements ColumnReader
+{
+    private final RichColumnDescriptor columnDescriptor;
+    private final ColumnAdapter<T> columnAdapter;
+    private final boolean nullable;
+    private final boolean produceDictionaryBlock;
+    private final NullsDecoder nullsDecoder = new NullsDecoder();
+    private final DictionaryIdsDecoder idsDecoder = new DictionaryIdsDecoder();
+
+    private PageReader pageReader;
+    private ValueDecoder<T> dictionaryDecoder;
+    private boolean readDictionaryIds;
+    private T dictionary;
+    private int dictionarySize;
+    private Block dictionaryBlock;
+    private DataPage page;
+    private ValueDecoder<T> valueDecoder;
+    private int remainingValueCountInPage;
+    private int nextBatchSize;
+    /**
+     * Index in the row group of the first row of the next batch
+     */
+    private long batchStartRow;
+    /**
+     * Index in the row group of the next row to read or skip
+     */
+    private long currentRow;
+
+    public static boolean isFlatColumn(RichColumnDescriptor descriptor)
+    {
+        return descriptor.getMaxRepetitionLevel() == 0
+                && (descriptor.getMaxDefinitionLevel() == 0 || (descriptor.getMaxDefinitionLevel() == 1 && !descriptor.isRequired()));
+    }
+
+    public FlatColumnReader(RichColumnDescriptor columnDescriptor, ColumnAdapter<T> columnAdapter, boolean produceDictionaryBlock)
+    {
+        this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
+        this.columnAdapter = requireNonNull(columnAdapter, "columnAdapter is null");
+        checkArgument(isFlatColumn(columnDescriptor), "Column is not flat: %s", columnDescriptor);
+        this.nullable = columnDescriptor.getMaxDefinitionLevel() == 1;
+        this.produceDictionaryBlock = produceDictionaryBlock;
+    }
+
+    @Override
+    public PageReader getPageReader()
+    {
+        return pageReader;
+    }
+
+    @Override
+    public void setPageReader(PageReader pageReader)
+    {
+        this.pageReader = requireNonNull(pageReader, "pageReader");
+        DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
+        if (dictionaryPage != null) {
+            // values of the dictionary page are always PLAIN encoded, and the last entry is null for the ids of null values
+            dictionarySize = dictionaryPage.getDictionarySize();
+            dictionary = columnAdapter.createBuffer(dictionarySize + 1);
+            ValueDecoder<T> decoder = columnAdapter.createValueDecoder(PLAIN, columnDescriptor);
+            decoder.init(dictionaryPage.getSlice());
+            decoder.read(dictionary, 0, dictionarySize);
+            columnAdapter.setNull(dictionary, dictionarySize);
+            dictionaryDecoder = columnAdapter.createDictionaryDecoder(dictionary);
+        }
+        else {
+            dictionary = null;
+            dictionaryDecoder = null;
+        }
+        readDictionaryIds = produceDictionaryBlock && dictionaryPage != null && pageReader.hasOnlyDictionaryEncodedPages();
+        dictionaryBlock = null;
+        checkArgument(pageReader.getTotalValueCount() > 0, "page is empty");
+    }
+
+    @Override
+    public void prepareNextRead(long batchStartRow, int batchSize)
+    {
+        this.batchStartRow = batchStartRow;
+        nextBatchSize = batchSize;
+    }
+
+    @Override
+    public ColumnChunk readPrimitive(Field field)
+    {
+        seek();
+        int batchSize = nextBatchSize;
+        boolean[] isNull = nullable ? new boolean[batchSize] : null;
+        Block block;
+        Optional<boolean[]> valueIsNull;
+        if (readDictionaryIds) {
+            int[] ids = new int[batchSize];
+            int nonNullCount = readBatch(() -> idsDecoder, ids, isNull, batchSize, (values, position) -> values[position] = dictionarySize);
+            valueIsNull = nonNullCount == batchSize ? Optional.empty() : Optional.of(isNull);
+            block = new DictionaryBlock(batchSize, getDictionaryBlock(field.getType()), ids);
+        }
+        else {
+            T values = columnAdapter.createBuffer(batchSize);
+            int nonNullCount = readBatch(() -> valueDecoder, values, isNull, batchSize, columnAdapter::setNull);
+            valueIsNull = nonNullCount == batchSize ? Optional.empty() : Optional.of(isNull);
+            block = columnAdapter.createBlock(field.getType(), values, batchSize, valueIsNull);
+        }
+
+        nextBatchSize = 0;
+        return new ColumnChunk(block, getDefinitionLevels(valueIsNull, batchSize), new int[batchSize]);
+    }
+
+    /**
+     * Decodes the next batch, with the decoder of the current page, which changes with every page read.
+     *
+     * @return the number of non-null values
+     */
+    private <B> int readBatch(Supplier<ValueDecoder<B>> currentDecoder, B values, boolean[] isNull, int batchSize, ObjIntConsumer<B> nullSetter)
+    {
+        int nonNullCount = 0;
+        int offset = 0;
+        while (offset < batchSize) {
+            if (page == null) {
+                verify(readNextPage(), "No page with row %s in column chunk", currentRow);
+            }
+            ValueDecoder<B> decoder = currentDecoder.get();
+            int chunkSize = min(remainingValueCountInPage, batchSize - offset);
+            if (nullable) {
+                int chunkNonNullCount = nullsDecoder.read(isNull, offset, chunkSize);
+                if (chunkNonNullCount == chunkSize) {
+                    decoder.read(values, offset, chunkSize);
+                }
+                else {
+                    readNullableValues(decoder, values, isNull, offset, chunkSize, nullSetter);
+                }
+                nonNullCount += chunkNonNullCount;
+            }
+            else {
+                decoder.read(values, offset, chunkSize);
+                nonNullCount += chunkSize;
+            }
+            offset += chunkSize;
+            consumeValues(chunkSize);
+        }
+        return nonNullCount;
+    }
+
+    private static <B> void readNullableValues(ValueDecoder<B> decoder, B values, boolean[] isNull, int offset, int length, ObjIntConsumer<B> nullSetter)
+    {
+        int end = offset + length;
+        int position = offset;
+        while (position < end) {
+            if (isNull[position]) {
+                nullSetter.accept(values, position);
+                position++;
+                continue;
+            }
+            int runEnd = position + 1;
+            while (runEnd < end && !isNull[runEnd]) {
+                runEnd++;
+            }
+            decoder.read(values, position, runEnd - position);
+            position = runEnd;
+        }
+    }
+
+    private Block getDictionaryBlock(Type type)
+    {
+        if (dictionaryBlock == null) {
+            boolean[] isNull = new boolean[dictionarySize + 1];
+            isNull[dictionarySize] = true;
+            dictionaryBlock = columnAdapter.createBlock(type, dictionary, dictionarySize + 1, Optional.of(isNull));
+        }
+        return dictionaryBlock;
+    }
+
+    private static int[] getDefinitionLevels(Optional<boolean[]> valueIsNull, int positionCount)
+    {
+        int[] definitionLevels = new int[positionCount];
+        if (valueIsNull.isEmpty()) {
+            // the maximum definition level of a flat column is 0 or 1, and levels are only needed by enclosing required groups
+            return definitionLevels;
+        }
+        boolean[] isNull = valueIsNull.get();
+        for (int i = 0; i < positionCount; i++) {
+            definitionLevels[i] = isNull[i] ? 0 : 1;
+        }
+        return definitionLevels;
+    }
+
+    private void seek()
+    {
+        while (currentRow < batchStartRow) {
+            if (page == null) {
+                // pages without rows of any batch were not read, so the next page may start after the current row
+                verify(readNextPage(), "No page with row %s in column chunk", batchStartRow);
+                continue;
+            }
+            int chunkSize = toIntExact(min(remainingValueCountInPage, batchStartRow - currentRow));
+            int nonNullCount = nullable ? nullsDecoder.skip(chunkSize) : chunkSize;
+            if (readDictionaryIds) {
+                idsDecoder.skip(nonNullCount);
+            }
+            else {
+                valueDecoder.skip(nonNullCount);
+            }
+            consumeValues(chunkSize);
+        }
+        checkArgument(currentRow == batchStartRow, "currentRow %s must be equal to batchStartRow %s", currentRow, batchStartRow);
+    }
+
+    private void consumeValues(int valueCount)
+    {
+        currentRow += valueCount;
+        remainingValueCountInPage -= valueCount;
+        if (remainingValueCountInPage == 0) {
+            page = null;
+            valueDecoder = null;
+        }
+    }
+
+    private boolean readNextPage()
+    {
+        verify(page == null, "readNextPage has to be called when page is null");
+        page = pageReader.readPage();
+        if (page == null) {
+            // we have read all pages
+            return false;
+        }
+        remainingValueCountInPage = page.getValueCount();
+        page.getFirstRowIndex().ifPresent(firstRowIndex -> currentRow = firstRowIndex);
+        if (page instanceof DataPageV1) {
+            readPageV1((DataPageV1) page);
+        }
+        else {
+            readPageV2((DataPageV2) page);
+        }
+        return true;
+    }
+
+    private void readPageV1(DataPageV1 page)
+    {
+        // repetition levels and the definition levels of required columns are not stored
+        Slice slice = page.getSlice();
+        int valuesOffset = 0;
+        if (nullable) {
+            ParquetEncoding encoding = page.getDefinitionLevelEncoding();
+            if (encoding == ParquetEncoding.RLE) {
+                int length = slice.getInt(0);
+                nullsDecoder.init(slice.slice(SIZE_OF_INT, length), false);
+                valuesOffset = SIZE_OF_INT + length;
+            }
+            else if (encoding == ParquetEncoding.BIT_PACKED) {
+                int length = (page.getValueCount() + 7) / 8;
+                nullsDecoder.init(slice.slice(0, length), true);
+                valuesOffset = length;
+            }
+            else {
+                throw new ParquetDecodingException("Unsupported encoding of definition levels " + encoding + " in column " + columnDescriptor);
+            }
+        }
+        initValueDecoder(page.getValueEncoding(), slice.slice(valuesOffset, slice.length() - valuesOffset));
+    }
+
+    private void readPageV2(DataPageV2 page)
+    {
+        if (nullable) {
+            nullsDecoder.init(page.getDefinitionLevels(), false);
+        }
+        initValueDecoder(page.getDataEncoding(), page.getSlice());
+    }
+
+    private void initValueDecoder(ParquetEncoding encoding, Slice data)
+    {
+        if (readDictionaryIds) {
+            if (!encoding.usesDictionary()) {
+                throw new ParquetDecodingException(format("Column chunk of column %s has %s encoded data pages, but its metadata states that all are dictionary encoded", columnDescriptor, encoding));
+            }
+            idsDecoder.init(data);
+            return;
+        }
+        if (encoding.usesDictionary()) {
+            if (dictionaryDecoder == null) {
+                throw new ParquetDecodingException("Dictionary is missing for Page");
+            }
+            valueDecoder = dictionaryDecoder;
+        }
+        else {
+            valueDecoder = columnAdapter.createValueDecoder(encoding, columnDescriptor);
+        }
+        valueDecoder.init(data);
+    }
+}
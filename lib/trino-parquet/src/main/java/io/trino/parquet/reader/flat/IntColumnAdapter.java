@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.IntDictionaryDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.IntArrayBlock;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.type.Type;
+import org.apache.parquet.column.ColumnDescriptor;
+
+import java.util.Optional;
+
+import static io.trino.parquet.reader.decoders.ValueDecoders.getIntDecoder;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DateType.DATE;
+import static io.trino.spi.type.IntegerType.INTEGER;
+
+public final class IntColumnAdapter
+        implements ColumnAdapter<int[]>
+{
+    public static final IntColumnAdapter INT_ADAPTER = new IntColumnAdapter();
+
+    private IntColumnAdapter() {}
+
+    @Override
+    public int[] createBuffer(int size)
+    {
+        return new int[size];
+    }
+
+    @Override
+    public void setNull(int[] values, int position) {}
+
+    @Override
+    public ValueDecoder<int[]> createValueDecoder(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        return getIntDecoder(encoding, column);
+    }
+
+    @Override
+    public ValueDecoder<int[]> createDictionaryDecoder(int[] dictionary)
+    {
+        return new IntDictionaryDecoder(dictionary);
+    }
+
+    @Override
+    public Block createBlock(Type type, int[] values, int positionCount, Optional<boolean[]> isNull)
+    {
+        if (type.equals(INTEGER) || type.equals(DATE)) {
+            return new IntArrayBlock(positionCount, isNull, values);
+        }
+        if (type.equals(BIGINT)) {
+            long[] longValues = new long[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                longValues[i] = values[i];
+            }
+            return new LongArrayBlock(positionCount, isNull, longValues);
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            if (isNull.isPresent() && isNull.get()[i]) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.writeLong(blockBuilder, values[i]);
+            }
+        }
+        return blockBuilder.build();
+    }
+}
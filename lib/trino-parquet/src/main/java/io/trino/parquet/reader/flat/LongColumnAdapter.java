@@ -0,0 +1,75 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.LongDictionaryDecoder;
+import io.trino.parquet.reader.decoders.ValueDecoder;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.block.LongArrayBlock;
+import io.trino.spi.type.Type;
+import org.apache.parquet.column.ColumnDescriptor;
+
+import java.util.Optional;
+
+import static io.trino.parquet.reader.decoders.ValueDecoders.getLongDecoder;
+import static io.trino.spi.type.BigintType.BIGINT;
+
+public final class LongColumnAdapter
+        implements ColumnAdapter<long[]>
+{
+    public static final LongColumnAdapter LONG_ADAPTER = new LongColumnAdapter();
+
+    private LongColumnAdapter() {}
+
+    @Override
+    public long[] createBuffer(int size)
+    {
+        return new long[size];
+    }
+
+    @Override
+    public void setNull(long[] values, int position) {}
+
+    @Override
+    public ValueDecoder<long[]> createValueDecoder(ParquetEncoding encoding, ColumnDescriptor column)
+    {
+        return getLongDecoder(encoding, column);
+    }
+
+    @Override
+    public ValueDecoder<long[]> createDictionaryDecoder(long[] dictionary)
+    {
+        return new LongDictionaryDecoder(dictionary);
+    }
+
+    @Override
+    public Block createBlock(Type type, long[] values, int positionCount, Optional<boolean[]> isNull)
+    {
+        if (type.equals(BIGINT)) {
+            return new LongArrayBlock(positionCount, isNull, values);
+        }
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            if (isNull.isPresent() && isNull.get()[i]) {
+                blockBuilder.appendNull();
+            }
+            else {
+                type.writeLong(blockBuilder, values[i]);
+            }
+        }
+        return blockBuilder.build();
+    }
+}
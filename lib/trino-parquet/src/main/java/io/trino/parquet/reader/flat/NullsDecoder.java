@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.reader.decoders.RleBitPackingHybridDecoder;
+
+/**
+ * Decodes the definition levels of a column with a maximum definition level of 1 into null flags.
+ */
+final class NullsDecoder
+{
+    private final RleBitPackingHybridDecoder rleDecoder = new RleBitPackingHybridDecoder(1);
+    private int[] levels = new int[0];
+
+    // levels of data page V1 may use the deprecated BIT_PACKED encoding
+    private boolean bitPacked;
+    private Slice input;
+    private int bitPackedIndex;
+
+    public void init(Slice input, boolean bitPacked)
+    {
+        this.bitPacked = bitPacked;
+        if (bitPacked) {
+            this.input = input;
+            this.bitPackedIndex = 0;
+        }
+        else {
+            rleDecoder.init(input);
+        }
+    }
+
+    /**
+     * Decodes the null flags of the positions from offset to offset + length.
+     *
+     * @return the number of non-null positions
+     */
+    public int read(boolean[] isNull, int offset, int length)
+    {
+        int[] levels = readLevels(length);
+        int nonNullCount = 0;
+        for (int i = 0; i < length; i++) {
+            isNull[offset + i] = levels[i] == 0;
+            nonNullCount += levels[i];
+        }
+        return nonNullCount;
+    }
+
+    /**
+     * @return the number of non-null positions skipped
+     */
+    public int skip(int length)
+    {
+        int[] levels = readLevels(length);
+        int nonNullCount = 0;
+        for (int i = 0; i < length; i++) {
+            nonNullCount += levels[i];
+        }
+        return nonNullCount;
+    }
+
+    private int[] readLevels(int length)
+    {
+        if (levels.length < length) {
+            levels = new int[length];
+        }
+        if (bitPacked) {
+            // values are packed from the most significant bit
+            for (int i = 0; i < length; i++) {
+                int index = bitPackedIndex + i;
+                levels[i] = (input.getUnsignedByte(index >>> 3) >>> (7 - (index & 7))) & 1;
+            }
+            bitPackedIndex += length;
+        }
+        else {
+            rleDecoder.read(levels, 0, length);
+        }
+        return levels;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.writer;
+
+import io.airlift.slice.Slice;
+import io.trino.parquet.BloomFilter;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import org.openjdk.jol.info.ClassLayout;
+
+import javax.annotation.Nullable;
+
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
+import static io.trino.parquet.BloomFilter.BYTES_PER_BLOCK;
+import static java.lang.Math.ceil;
+import static java.lang.Math.log;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+
+/**
+ * Builds the Bloom filter of a column chunk. The hashes of the distinct values are collected while the
+ * column chunk is written, so that the filter can be sized for the number of distinct values and the
+ * false positive probability. Once the filter reaches the maximum size, the values are added to it directly.
+ */
+public class BloomFilterBuilder
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(BloomFilterBuilder.class).instanceSize();
+
+    // same upper bound as the default of parquet-mr
+    private static final int MAX_BLOOM_FILTER_SIZE = 1024 * 1024;
+
+    private final double fpp;
+    private final int maxDistinctHashes;
+
+    private LongOpenHashSet hashes = new LongOpenHashSet();
+    @Nullable
+    private BloomFilter maxSizeBloomFilter;
+
+    public BloomFilterBuilder(double fpp)
+    {
+        checkArgument(fpp > 0.0 && fpp < 1.0, "fpp should be > 0.0 & < 1.0");
+        this.fpp = fpp;
+        this.maxDistinctHashes = (int) (MAX_BLOOM_FILTER_SIZE * -log(1 - pow(fpp, 1.0 / 8)));
+    }
+
+    public void addInt(int value)
+    {
+        addHash(BloomFilter.hashInt(value));
+    }
+
+    public void addLong(long value)
+    {
+        addHash(BloomFilter.hashLong(value));
+    }
+
+    public void addSlice(Slice value)
+    {
+        addHash(BloomFilter.hashSlice(value));
+    }
+
+    private void addHash(long hash)
+    {
+        if (maxSizeBloomFilter != null) {
+            maxSizeBloomFilter.insertHash(hash);
+            return;
+        }
+        hashes.add(hash);
+        if (hashes.size() > maxDistinctHashes) {
+            maxSizeBloomFilter = createBloomFilter(MAX_BLOOM_FILTER_SIZE);
+            hashes = new LongOpenHashSet();
+        }
+    }
+
+    /**
+     * Returns the Bloom filter of the values added since the last reset, or empty if no value was added.
+     */
+    public Optional<BloomFilter> build()
+    {
+        if (maxSizeBloomFilter != null) {
+            return Optional.of(maxSizeBloomFilter);
+        }
+        if (hashes.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(createBloomFilter(getOptimalSize(hashes.size(), fpp)));
+    }
+
+    public void reset()
+    {
+        hashes = new LongOpenHashSet();
+        maxSizeBloomFilter = null;
+    }
+
+    public long getRetainedBytes()
+    {
+        // the hash set uses an open addressing table of at least twice the number of entries
+        return INSTANCE_SIZE +
+                2L * SIZE_OF_LONG * hashes.size() +
+                (maxSizeBloomFilter == null ? 0 : maxSizeBloomFilter.getBitset().getRetainedSize());
+    }
+
+    private BloomFilter createBloomFilter(int size)
+    {
+        BloomFilter bloomFilter = new BloomFilter(size);
+        LongIterator iterator = hashes.iterator();
+        while (iterator.hasNext()) {
+            bloomFilter.insertHash(iterator.nextLong());
+        }
+        return bloomFilter;
+    }
+
+    /**
+     * Returns the size in bytes of a split block Bloom filter with the given false positive probability,
+     * rounded up to a power of two, using the formula of the Parquet specification.
+     */
+    static int getOptimalSize(long distinctValues, double fpp)
+    {
+        double bits = -8 * distinctValues / log(1 - pow(fpp, 1.0 / 8));
+        int size = (int) min(max(ceil(bits / Byte.SIZE), BYTES_PER_BLOCK), MAX_BLOOM_FILTER_SIZE);
+        return Integer.highestOneBit(size - 1) << 1;
+    }
+}
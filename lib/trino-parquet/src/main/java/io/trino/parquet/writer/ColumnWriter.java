@@ -13,10 +13,14 @@
  */
 package io.trino.parquet.writer;
 
+import io.trino.parquet.BloomFilter;
+import org.apache.parquet.format.ColumnIndex;
 import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.OffsetIndex;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Optional;
 
 import static java.util.Objects.requireNonNull;
 
@@ -40,11 +44,17 @@ public interface ColumnWriter
     {
         private final ColumnMetaData metaData;
         private final List<ParquetDataOutput> data;
+        private final Optional<ColumnIndex> columnIndex;
+        private final Optional<OffsetIndex> offsetIndex;
+        private final Optional<BloomFilter> bloomFilter;
 
-        public BufferData(List<ParquetDataOutput> data, ColumnMetaData metaData)
+        public BufferData(List<ParquetDataOutput> data, ColumnMetaData metaData, Optional<ColumnIndex> columnIndex, Optional<OffsetIndex> offsetIndex, Optional<BloomFilter> bloomFilter)
         {
             this.data = requireNonNull(data, "data is null");
             this.metaData = requireNonNull(metaData, "metaData is null");
+            this.columnIndex = requireNonNull(columnIndex, "columnIndex is null");
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
+            this.bloomFilter = requireNonNull(bloomFilter, "bloomFilter is null");
         }
 
         public ColumnMetaData getMetaData()
@@ -56,5 +66,23 @@ public interface ColumnWriter
         {
             return data;
         }
+
+        public Optional<ColumnIndex> getColumnIndex()
+        {
+            return columnIndex;
+        }
+
+        /**
+         * Returns the offset index of the column chunk, with the page offsets relative to the start of the column chunk.
+         */
+        public Optional<OffsetIndex> getOffsetIndex()
+        {
+            return offsetIndex;
+        }
+
+        public Optional<BloomFilter> getBloomFilter()
+        {
+            return bloomFilter;
+        }
     }
 }
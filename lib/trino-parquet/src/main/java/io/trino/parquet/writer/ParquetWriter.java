@@ -14,17 +14,24 @@
 package io.trino.parquet.writer;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFutureTask;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.OutputStreamSliceOutput;
 import io.airlift.slice.Slice;
+import io.airlift.slice.SliceOutput;
 import io.airlift.slice.Slices;
 import io.airlift.units.DataSize;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.writer.ColumnWriter.BufferData;
 import io.trino.spi.Page;
 import io.trino.spi.type.Type;
 import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.format.ColumnIndex;
 import org.apache.parquet.format.ColumnMetaData;
 import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
 import org.apache.parquet.format.RowGroup;
 import org.apache.parquet.format.Util;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
@@ -33,12 +40,19 @@ import org.openjdk.jol.info.ClassLayout;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.airlift.slice.Slices.wrappedBuffer;
@@ -63,10 +77,12 @@ public class ParquetWriter
     private final OutputStreamSliceOutput outputStream;
     private final ParquetWriterOptions writerOption;
     private final MessageType messageType;
+    private final Executor executor;
 
     private final int chunkMaxLogicalBytes;
 
     private final ImmutableList.Builder<RowGroup> rowGroupBuilder = ImmutableList.builder();
+    private final List<ColumnChunkPageIndex> pageIndexes = new ArrayList<>();
 
     private int rows;
     private long bufferedBytes;
@@ -80,20 +96,22 @@ public class ParquetWriter
             MessageType messageType,
             Map<List<String>, Type> primitiveTypes,
             ParquetWriterOptions writerOption,
-            CompressionCodecName compressionCodecName)
+            CompressionCodecName compressionCodecName,
+            Executor executor)
     {
         this.outputStream = new OutputStreamSliceOutput(requireNonNull(outputStream, "outputstream is null"));
         this.messageType = requireNonNull(messageType, "messageType is null");
         requireNonNull(primitiveTypes, "primitiveTypes is null");
         this.writerOption = requireNonNull(writerOption, "writerOption is null");
         requireNonNull(compressionCodecName, "compressionCodecName is null");
+        this.executor = requireNonNull(executor, "executor is null");
 
         ParquetProperties parquetProperties = ParquetProperties.builder()
                 .withWriterVersion(PARQUET_2_0)
                 .withPageSize(writerOption.getMaxPageSize())
                 .build();
 
-        this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName);
+        this.columnWriters = ParquetWriters.getColumnWriters(messageType, primitiveTypes, parquetProperties, compressionCodecName, writerOption);
 
         this.chunkMaxLogicalBytes = max(1, CHUNK_MAX_BYTES / 2);
     }
@@ -180,6 +198,7 @@ public class ParquetWriter
         try (outputStream) {
             columnWriters.forEach(ColumnWriter::close);
             flush();
+            writePageIndexes();
             writeFooter();
         }
     }
@@ -188,6 +207,10 @@ public class ParquetWriter
     //
     // MAGIC
     // variable: Data
+    // variable: Bloom filters of the row group
+    // ... more row groups
+    // variable: Column indexes
+    // variable: Offset indexes
     // variable: Metadata
     // 4 bytes: MetadataLength
     // MAGIC
@@ -201,24 +224,89 @@ public class ParquetWriter
         }
 
         // get all data in buffer
-        ImmutableList.Builder<BufferData> builder = ImmutableList.builder();
-        for (ColumnWriter columnWriter : columnWriters) {
-            columnWriter.getBuffer().forEach(builder::add);
-        }
-        List<BufferData> bufferDataList = builder.build();
+        List<BufferData> bufferDataList = getBufferData();
 
         // update stats
         long stripeStartOffset = outputStream.size();
         List<ColumnMetaData> metadatas = bufferDataList.stream()
                 .map(BufferData::getMetaData)
                 .collect(toImmutableList());
-        updateRowGroups(updateColumnMetadataOffset(metadatas, stripeStartOffset));
+        List<ColumnMetaData> columnMetaData = updateColumnMetadataOffset(metadatas, stripeStartOffset);
 
         // flush pages
         bufferDataList.stream()
                 .map(BufferData::getData)
                 .flatMap(List::stream)
                 .forEach(data -> data.writeData(outputStream));
+
+        // flush Bloom filters
+        for (int i = 0; i < bufferDataList.size(); i++) {
+            Optional<BloomFilter> bloomFilter = bufferDataList.get(i).getBloomFilter();
+            if (bloomFilter.isPresent()) {
+                columnMetaData.get(i).setBloom_filter_offset(outputStream.size());
+                writeBloomFilter(bloomFilter.get(), outputStream);
+            }
+        }
+
+        updateRowGroups(columnMetaData, bufferDataList);
+    }
+
+    /**
+     * Encodes the remaining pages of the column writers in parallel, as the column writers are independent of each other.
+     */
+    private List<BufferData> getBufferData()
+            throws IOException
+    {
+        List<ListenableFutureTask<List<BufferData>>> tasks = new ArrayList<>(columnWriters.size());
+        for (ColumnWriter columnWriter : columnWriters) {
+            ListenableFutureTask<List<BufferData>> task = ListenableFutureTask.create(columnWriter::getBuffer);
+            executor.execute(task);
+            tasks.add(task);
+        }
+
+        try {
+            // wait for all the tasks, so that no column writer is still in use if one of them failed
+            Futures.successfulAsList(tasks).get();
+            ImmutableList.Builder<BufferData> builder = ImmutableList.builder();
+            for (ListenableFutureTask<List<BufferData>> task : tasks) {
+                builder.addAll(Futures.getDone(task));
+            }
+            return builder.build();
+        }
+        catch (InterruptedException e) {
+            tasks.forEach(task -> task.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing Parquet row group");
+        }
+        catch (ExecutionException e) {
+            throwIfInstanceOf(e.getCause(), IOException.class);
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes the column indexes and offset indexes of all the row groups, and sets their locations in the column chunks.
+     */
+    private void writePageIndexes()
+            throws IOException
+    {
+        for (ColumnChunkPageIndex pageIndex : pageIndexes) {
+            if (pageIndex.getColumnIndex().isPresent()) {
+                long offset = outputStream.size();
+                Util.writeColumnIndex(pageIndex.getColumnIndex().get(), outputStream);
+                pageIndex.getColumnChunk().setColumn_index_offset(offset);
+                pageIndex.getColumnChunk().setColumn_index_length(toIntExact(outputStream.size() - offset));
+            }
+        }
+        for (ColumnChunkPageIndex pageIndex : pageIndexes) {
+            if (pageIndex.getOffsetIndex().isPresent()) {
+                long offset = outputStream.size();
+                Util.writeOffsetIndex(pageIndex.getOffsetIndex().get(), outputStream);
+                pageIndex.getColumnChunk().setOffset_index_offset(offset);
+                pageIndex.getColumnChunk().setOffset_index_length(toIntExact(outputStream.size() - offset));
+            }
+        }
     }
 
     private void writeFooter()
@@ -250,12 +338,26 @@ public class ParquetWriter
         return dynamicSliceOutput.slice();
     }
 
-    private void updateRowGroups(List<ColumnMetaData> columnMetaData)
+    private void updateRowGroups(List<ColumnMetaData> columnMetaData, List<BufferData> bufferDataList)
     {
         // TODO Avoid writing empty row group
         long totalBytes = columnMetaData.stream().mapToLong(ColumnMetaData::getTotal_compressed_size).sum();
-        ImmutableList<org.apache.parquet.format.ColumnChunk> columnChunks = columnMetaData.stream().map(ParquetWriter::toColumnChunk).collect(toImmutableList());
-        rowGroupBuilder.add(new RowGroup(columnChunks, totalBytes, rows));
+        ImmutableList.Builder<org.apache.parquet.format.ColumnChunk> columnChunks = ImmutableList.builder();
+        for (int i = 0; i < columnMetaData.size(); i++) {
+            org.apache.parquet.format.ColumnChunk columnChunk = toColumnChunk(columnMetaData.get(i));
+            columnChunks.add(columnChunk);
+
+            // the offsets of the pages are relative to the start of the column chunk
+            BufferData bufferData = bufferDataList.get(i);
+            long columnChunkOffset = columnMetaData.get(i).getData_page_offset();
+            bufferData.getOffsetIndex().ifPresent(offsetIndex -> {
+                for (PageLocation pageLocation : offsetIndex.getPage_locations()) {
+                    pageLocation.setOffset(pageLocation.getOffset() + columnChunkOffset);
+                }
+            });
+            pageIndexes.add(new ColumnChunkPageIndex(columnChunk, bufferData.getColumnIndex(), bufferData.getOffsetIndex()));
+        }
+        rowGroupBuilder.add(new RowGroup(columnChunks.build(), totalBytes, rows));
     }
 
     private static org.apache.parquet.format.ColumnChunk toColumnChunk(ColumnMetaData metaData)
@@ -278,4 +380,64 @@ public class ParquetWriter
         }
         return builder.build();
     }
+
+    // BloomFilterHeader in thrift compact protocol: the size of the bitset, followed by the block algorithm,
+    // the xxHash hash and no compression, each of which is a union with an empty struct as the first field
+    private static void writeBloomFilter(BloomFilter bloomFilter, SliceOutput output)
+    {
+        int numBytes = bloomFilter.getBitset().length();
+        // field 1, i32
+        output.writeByte(0x15);
+        writeVarInt(output, (numBytes << 1) ^ (numBytes >> 31));
+        for (int field = 2; field <= 4; field++) {
+            // next field, struct
+            output.writeByte(0x1C);
+            // field 1 of the union, struct
+            output.writeByte(0x1C);
+            // end of the empty struct and of the union
+            output.writeByte(0);
+            output.writeByte(0);
+        }
+        // end of the header
+        output.writeByte(0);
+        output.writeBytes(bloomFilter.getBitset());
+    }
+
+    private static void writeVarInt(SliceOutput output, int value)
+    {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    private static class ColumnChunkPageIndex
+    {
+        private final org.apache.parquet.format.ColumnChunk columnChunk;
+        private final Optional<ColumnIndex> columnIndex;
+        private final Optional<OffsetIndex> offsetIndex;
+
+        public ColumnChunkPageIndex(org.apache.parquet.format.ColumnChunk columnChunk, Optional<ColumnIndex> columnIndex, Optional<OffsetIndex> offsetIndex)
+        {
+            this.columnChunk = requireNonNull(columnChunk, "columnChunk is null");
+            this.columnIndex = requireNonNull(columnIndex, "columnIndex is null");
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
+        }
+
+        public org.apache.parquet.format.ColumnChunk getColumnChunk()
+        {
+            return columnChunk;
+        }
+
+        public Optional<ColumnIndex> getColumnIndex()
+        {
+            return columnIndex;
+        }
+
+        public Optional<OffsetIndex> getOffsetIndex()
+        {
+            return offsetIndex;
+        }
+    }
 }
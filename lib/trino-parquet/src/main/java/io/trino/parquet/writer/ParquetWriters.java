@@ -45,8 +45,10 @@ import org.apache.parquet.schema.PrimitiveType;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static io.trino.parquet.predicate.TupleDomainParquetPredicate.isBloomFilterSupported;
 import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.trino.spi.type.BigintType.BIGINT;
 import static io.trino.spi.type.BooleanType.BOOLEAN;
@@ -68,9 +70,9 @@ final class ParquetWriters
 {
     private ParquetWriters() {}
 
-    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+    static List<ColumnWriter> getColumnWriters(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
     {
-        WriteBuilder writeBuilder = new WriteBuilder(messageType, trinoTypes, parquetProperties, compressionCodecName);
+        WriteBuilder writeBuilder = new WriteBuilder(messageType, trinoTypes, parquetProperties, compressionCodecName, writerOptions);
         ParquetTypeVisitor.visit(messageType, writeBuilder);
         return writeBuilder.build();
     }
@@ -82,14 +84,16 @@ final class ParquetWriters
         private final Map<List<String>, Type> trinoTypes;
         private final ParquetProperties parquetProperties;
         private final CompressionCodecName compressionCodecName;
+        private final ParquetWriterOptions writerOptions;
         private final ImmutableList.Builder<ColumnWriter> builder = ImmutableList.builder();
 
-        WriteBuilder(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName)
+        WriteBuilder(MessageType messageType, Map<List<String>, Type> trinoTypes, ParquetProperties parquetProperties, CompressionCodecName compressionCodecName, ParquetWriterOptions writerOptions)
         {
             this.type = requireNonNull(messageType, "messageType is null");
             this.trinoTypes = requireNonNull(trinoTypes, "trinoTypes is null");
             this.parquetProperties = requireNonNull(parquetProperties, "parquetProperties is null");
             this.compressionCodecName = requireNonNull(compressionCodecName, "compressionCodecName is null");
+            this.writerOptions = requireNonNull(writerOptions, "writerOptions is null");
         }
 
         List<ColumnWriter> build()
@@ -140,11 +144,21 @@ final class ParquetWriters
             Type trinoType = requireNonNull(trinoTypes.get(ImmutableList.copyOf(path)), "Trino type is null");
             return new PrimitiveColumnWriter(
                     columnDescriptor,
-                    getValueWriter(parquetProperties.newValuesWriter(columnDescriptor), trinoType, columnDescriptor.getPrimitiveType()),
+                    getValueWriter(parquetProperties.newValuesWriter(columnDescriptor), trinoType, columnDescriptor.getPrimitiveType(), getBloomFilterBuilder(path, trinoType, primitive)),
                     parquetProperties.newDefinitionLevelEncoder(columnDescriptor),
                     parquetProperties.newRepetitionLevelEncoder(columnDescriptor),
                     compressionCodecName,
-                    parquetProperties.getPageSizeThreshold());
+                    parquetProperties.getPageSizeThreshold(),
+                    parquetProperties.getColumnIndexTruncateLength());
+        }
+
+        private Optional<BloomFilterBuilder> getBloomFilterBuilder(String[] path, Type trinoType, PrimitiveType primitive)
+        {
+            // Bloom filters are only written for top level columns with types the reader can use them for
+            if (path.length != 1 || !writerOptions.getBloomFilterColumns().contains(path[0]) || !isBloomFilterSupported(trinoType, primitive.getPrimitiveTypeName())) {
+                return Optional.empty();
+            }
+            return Optional.of(new BloomFilterBuilder(writerOptions.getBloomFilterFpp()));
         }
 
         private String[] currentPath()
@@ -160,22 +174,22 @@ final class ParquetWriters
         }
     }
 
-    private static PrimitiveValueWriter getValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType)
+    private static PrimitiveValueWriter getValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         if (BOOLEAN.equals(type)) {
             return new BooleanValueWriter(valuesWriter, parquetType);
         }
         if (INTEGER.equals(type) || SMALLINT.equals(type) || TINYINT.equals(type)) {
-            return new IntegerValueWriter(valuesWriter, type, parquetType);
+            return new IntegerValueWriter(valuesWriter, type, parquetType, bloomFilterBuilder);
         }
         if (BIGINT.equals(type)) {
-            return new BigintValueWriter(valuesWriter, type, parquetType);
+            return new BigintValueWriter(valuesWriter, type, parquetType, bloomFilterBuilder);
         }
         if (type instanceof DecimalType) {
             return new DecimalValueWriter(valuesWriter, type, parquetType);
         }
         if (DATE.equals(type)) {
-            return new DateValueWriter(valuesWriter, parquetType);
+            return new DateValueWriter(valuesWriter, parquetType, bloomFilterBuilder);
         }
         if (TIME_MICROS.equals(type)) {
             verifyParquetType(type, parquetType, OriginalType.TIME_MICROS);
@@ -187,7 +201,7 @@ final class ParquetWriters
         }
         if (TIMESTAMP_MICROS.equals(type)) {
             verifyParquetType(type, parquetType, OriginalType.TIMESTAMP_MICROS);
-            return new BigintValueWriter(valuesWriter, type, parquetType);
+            return new BigintValueWriter(valuesWriter, type, parquetType, Optional.empty());
         }
         if (TIMESTAMP_TZ_MILLIS.equals(type)) {
             verifyParquetType(type, parquetType, OriginalType.TIMESTAMP_MILLIS);
@@ -204,7 +218,7 @@ final class ParquetWriters
             return new RealValueWriter(valuesWriter, parquetType);
         }
         if (type instanceof VarcharType || type instanceof CharType || type instanceof VarbinaryType) {
-            return new CharValueWriter(valuesWriter, type, parquetType);
+            return new CharValueWriter(valuesWriter, type, parquetType, bloomFilterBuilder);
         }
         throw new TrinoException(NOT_SUPPORTED, format("Unsupported type for Parquet writer: %s", type));
     }
@@ -15,6 +15,7 @@ package io.trino.parquet.writer;
 
 import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slices;
+import io.trino.parquet.BloomFilter;
 import io.trino.parquet.writer.repdef.DefLevelIterable;
 import io.trino.parquet.writer.repdef.DefLevelIterables;
 import io.trino.parquet.writer.repdef.RepLevelIterable;
@@ -26,9 +27,13 @@ import org.apache.parquet.column.Encoding;
 import org.apache.parquet.column.page.DictionaryPage;
 import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.apache.parquet.format.ColumnIndex;
 import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.OffsetIndex;
 import org.apache.parquet.format.converter.ParquetMetadataConverter;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
 import org.openjdk.jol.info.ClassLayout;
 
 import javax.annotation.Nullable;
@@ -39,6 +44,7 @@ import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -79,6 +85,11 @@ public class PrimitiveColumnWriter
     private long totalRows;
     private Statistics<?> columnStatistics;
 
+    // page index of the column chunk, with the page offsets relative to the start of the column chunk
+    private final int columnIndexTruncateLength;
+    private ColumnIndexBuilder columnIndexBuilder;
+    private OffsetIndexBuilder offsetIndexBuilder;
+
     private final int maxDefinitionLevel;
 
     private final List<ParquetDataOutput> pageBuffer = new ArrayList<>();
@@ -88,7 +99,7 @@ public class PrimitiveColumnWriter
 
     private final int pageSizeThreshold;
 
-    public PrimitiveColumnWriter(ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold)
+    public PrimitiveColumnWriter(ColumnDescriptor columnDescriptor, PrimitiveValueWriter primitiveValueWriter, RunLengthBitPackingHybridEncoder definitionLevelEncoder, RunLengthBitPackingHybridEncoder repetitionLevelEncoder, CompressionCodecName compressionCodecName, int pageSizeThreshold, int columnIndexTruncateLength)
     {
         this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
         this.maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
@@ -100,8 +111,11 @@ public class PrimitiveColumnWriter
         this.compressionCodec = requireNonNull(compressionCodecName, "compressionCodecName is null");
         this.compressor = getCompressor(compressionCodecName);
         this.pageSizeThreshold = pageSizeThreshold;
+        this.columnIndexTruncateLength = columnIndexTruncateLength;
 
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        this.columnIndexBuilder = ColumnIndexBuilder.getBuilder(columnDescriptor.getPrimitiveType(), columnIndexTruncateLength);
+        this.offsetIndexBuilder = OffsetIndexBuilder.getBuilder();
     }
 
     @Override
@@ -160,7 +174,10 @@ public class PrimitiveColumnWriter
             throws IOException
     {
         checkState(closed);
-        return ImmutableList.of(new BufferData(getDataStreams(), getColumnMetaData()));
+        List<ParquetDataOutput> dataStreams = getDataStreams();
+        ColumnMetaData columnMetaData = getColumnMetaData();
+        Optional<BloomFilter> bloomFilter = primitiveValueWriter.getBloomFilterBuilder().flatMap(BloomFilterBuilder::build);
+        return ImmutableList.of(new BufferData(dataStreams, columnMetaData, getColumnIndex(), getOffsetIndex(dataStreams), bloomFilter));
     }
 
     // Returns ColumnMetaData that offset is invalid
@@ -181,6 +198,23 @@ public class PrimitiveColumnWriter
         return columnMetaData;
     }
 
+    private Optional<ColumnIndex> getColumnIndex()
+    {
+        // the builder returns null when there are no pages, or the min and max values cannot be used
+        return Optional.ofNullable(ParquetMetadataConverter.toParquetColumnIndex(columnDescriptor.getPrimitiveType(), columnIndexBuilder.build()));
+    }
+
+    private Optional<OffsetIndex> getOffsetIndex(List<ParquetDataOutput> dataStreams)
+    {
+        if (pageBuffer.isEmpty()) {
+            return Optional.empty();
+        }
+        // the data pages follow the dictionary page
+        long dictionaryPageSize = dataStreams.stream().mapToLong(ParquetDataOutput::size).sum() -
+                pageBuffer.stream().mapToLong(ParquetDataOutput::size).sum();
+        return Optional.of(ParquetMetadataConverter.toParquetOffsetIndex(offsetIndexBuilder.build(dictionaryPageSize)));
+    }
+
     // page header
     // repetition levels
     // definition levels
@@ -236,6 +270,9 @@ public class PrimitiveColumnWriter
 
         List<ParquetDataOutput> dataOutputs = outputDataStreams.build();
 
+        columnIndexBuilder.add(statistics);
+        offsetIndexBuilder.add(toIntExact(pageHeader.size() + compressedSize), currentPageRowCount);
+
         // update total stats
         totalCompressedSize += pageHeader.size() + compressedSize;
         totalUnCompressedSize += pageHeader.size() + uncompressedSize;
@@ -308,6 +345,7 @@ public class PrimitiveColumnWriter
     {
         return INSTANCE_SIZE +
                 primitiveValueWriter.getAllocatedSize() +
+                primitiveValueWriter.getBloomFilterBuilder().map(BloomFilterBuilder::getRetainedBytes).orElse(0L) +
                 definitionLevelEncoder.getAllocatedSize() +
                 repetitionLevelEncoder.getAllocatedSize();
     }
@@ -323,6 +361,9 @@ public class PrimitiveColumnWriter
         totalRows = 0;
         encodings.clear();
         this.columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+        this.columnIndexBuilder = ColumnIndexBuilder.getBuilder(columnDescriptor.getPrimitiveType(), columnIndexTruncateLength);
+        this.offsetIndexBuilder = OffsetIndexBuilder.getBuilder();
+        primitiveValueWriter.getBloomFilterBuilder().ifPresent(BloomFilterBuilder::reset);
 
         getDataStreamsCalled = false;
     }
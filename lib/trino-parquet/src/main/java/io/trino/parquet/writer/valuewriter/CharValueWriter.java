@@ -14,12 +14,15 @@
 package io.trino.parquet.writer.valuewriter;
 
 import io.airlift.slice.Slice;
+import io.trino.parquet.writer.BloomFilterBuilder;
 import io.trino.spi.block.Block;
 import io.trino.spi.type.Type;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType;
 
+import java.util.Optional;
+
 import static java.util.Objects.requireNonNull;
 
 public class CharValueWriter
@@ -28,9 +31,9 @@ public class CharValueWriter
     private final ValuesWriter valuesWriter;
     private final Type type;
 
-    public CharValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType)
+    public CharValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
-        super(parquetType, valuesWriter);
+        super(parquetType, valuesWriter, bloomFilterBuilder);
         this.valuesWriter = requireNonNull(valuesWriter, "valuesWriter is null");
         this.type = requireNonNull(type, "type is null");
     }
@@ -38,12 +41,16 @@ public class CharValueWriter
     @Override
     public void write(Block block)
     {
+        BloomFilterBuilder bloomFilterBuilder = getBloomFilterBuilder().orElse(null);
         for (int i = 0; i < block.getPositionCount(); i++) {
             if (!block.isNull(i)) {
                 Slice slice = type.getSlice(block, i);
                 Binary binary = Binary.fromConstantByteBuffer(slice.toByteBuffer());
                 valuesWriter.writeBytes(binary);
                 getStatistics().updateStats(binary);
+                if (bloomFilterBuilder != null) {
+                    bloomFilterBuilder.addSlice(slice);
+                }
             }
         }
     }
@@ -13,10 +13,13 @@
  */
 package io.trino.parquet.writer.valuewriter;
 
+import io.trino.parquet.writer.BloomFilterBuilder;
 import io.trino.spi.block.Block;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.schema.PrimitiveType;
 
+import java.util.Optional;
+
 import static io.trino.spi.type.DateType.DATE;
 import static java.util.Objects.requireNonNull;
 
@@ -25,20 +28,24 @@ public class DateValueWriter
 {
     private final ValuesWriter valuesWriter;
 
-    public DateValueWriter(ValuesWriter valuesWriter, PrimitiveType parquetType)
+    public DateValueWriter(ValuesWriter valuesWriter, PrimitiveType parquetType, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
-        super(parquetType, valuesWriter);
+        super(parquetType, valuesWriter, bloomFilterBuilder);
         this.valuesWriter = requireNonNull(valuesWriter, "valuesWriter is null");
     }
 
     @Override
     public void write(Block block)
     {
+        BloomFilterBuilder bloomFilterBuilder = getBloomFilterBuilder().orElse(null);
         for (int position = 0; position < block.getPositionCount(); position++) {
             if (!block.isNull(position)) {
                 int value = (int) DATE.getLong(block, position);
                 valuesWriter.writeInteger(value);
                 getStatistics().updateStats(value);
+                if (bloomFilterBuilder != null) {
+                    bloomFilterBuilder.addInt(value);
+                }
             }
         }
     }
@@ -13,11 +13,14 @@
  */
 package io.trino.parquet.writer.valuewriter;
 
+import io.trino.parquet.writer.BloomFilterBuilder;
 import io.trino.spi.block.Block;
 import io.trino.spi.type.Type;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.schema.PrimitiveType;
 
+import java.util.Optional;
+
 import static java.util.Objects.requireNonNull;
 
 public class IntegerValueWriter
@@ -25,20 +28,24 @@ public class IntegerValueWriter
 {
     private final Type type;
 
-    public IntegerValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType)
+    public IntegerValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
-        super(parquetType, valuesWriter);
+        super(parquetType, valuesWriter, bloomFilterBuilder);
         this.type = requireNonNull(type, "type is null");
     }
 
     @Override
     public void write(Block block)
     {
+        BloomFilterBuilder bloomFilterBuilder = getBloomFilterBuilder().orElse(null);
         for (int i = 0; i < block.getPositionCount(); ++i) {
             if (!block.isNull(i)) {
                 int value = (int) type.getLong(block, i);
                 getValueWriter().writeInteger(value);
                 getStatistics().updateStats(value);
+                if (bloomFilterBuilder != null) {
+                    bloomFilterBuilder.addInt(value);
+                }
             }
         }
     }
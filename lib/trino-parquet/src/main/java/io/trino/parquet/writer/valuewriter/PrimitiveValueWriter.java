@@ -13,6 +13,7 @@
  */
 package io.trino.parquet.writer.valuewriter;
 
+import io.trino.parquet.writer.BloomFilterBuilder;
 import io.trino.spi.block.Block;
 import org.apache.parquet.bytes.BytesInput;
 import org.apache.parquet.column.Encoding;
@@ -21,6 +22,8 @@ import org.apache.parquet.column.statistics.Statistics;
 import org.apache.parquet.column.values.ValuesWriter;
 import org.apache.parquet.schema.PrimitiveType;
 
+import java.util.Optional;
+
 import static java.util.Objects.requireNonNull;
 
 public abstract class PrimitiveValueWriter
@@ -29,11 +32,18 @@ public abstract class PrimitiveValueWriter
     private Statistics<?> statistics;
     private final PrimitiveType parquetType;
     private final ValuesWriter valuesWriter;
+    private final Optional<BloomFilterBuilder> bloomFilterBuilder;
 
     public PrimitiveValueWriter(PrimitiveType parquetType, ValuesWriter valuesWriter)
+    {
+        this(parquetType, valuesWriter, Optional.empty());
+    }
+
+    public PrimitiveValueWriter(PrimitiveType parquetType, ValuesWriter valuesWriter, Optional<BloomFilterBuilder> bloomFilterBuilder)
     {
         this.parquetType = requireNonNull(parquetType, "parquetType is null");
         this.valuesWriter = requireNonNull(valuesWriter, "valuesWriter is null");
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
         this.statistics = Statistics.createStats(parquetType);
     }
 
@@ -47,6 +57,14 @@ public abstract class PrimitiveValueWriter
         return statistics;
     }
 
+    /**
+     * Returns the builder of the Bloom filter of the column chunk, which is not reset with the pages.
+     */
+    public Optional<BloomFilterBuilder> getBloomFilterBuilder()
+    {
+        return bloomFilterBuilder;
+    }
+
     protected int getTypeLength()
     {
         return parquetType.getTypeLength();
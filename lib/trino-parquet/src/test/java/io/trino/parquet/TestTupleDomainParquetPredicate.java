@@ -17,7 +17,9 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.trino.parquet.predicate.DictionaryDescriptor;
+import io.trino.parquet.predicate.RowRanges;
 import io.trino.parquet.predicate.TupleDomainParquetPredicate;
+import io.trino.parquet.reader.PageIndexStore;
 import io.trino.spi.predicate.Domain;
 import io.trino.spi.predicate.TupleDomain;
 import io.trino.spi.predicate.ValueSet;
@@ -35,6 +37,11 @@ import org.apache.parquet.column.statistics.FloatStatistics;
 import org.apache.parquet.column.statistics.IntStatistics;
 import org.apache.parquet.column.statistics.LongStatistics;
 import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.ColumnIndexBuilder;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndexBuilder;
 import org.apache.parquet.io.api.Binary;
 import org.apache.parquet.schema.PrimitiveType;
 import org.testng.annotations.DataProvider;
@@ -447,6 +454,90 @@ public class TestTupleDomainParquetPredicate
         assertFalse(parquetPredicate.matches(2, ImmutableMap.of(column, longColumnStats(1024, 0x10000 + 42)), ID));
     }
 
+    @Test
+    public void testBigintMatchingRowsWithPageIndex()
+            throws ParquetCorruptionException
+    {
+        PrimitiveType type = new PrimitiveType(OPTIONAL, INT64, "Test column");
+        RichColumnDescriptor column = new RichColumnDescriptor(new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0), type);
+        TupleDomain<ColumnDescriptor> effectivePredicate = TupleDomain.withColumnDomains(ImmutableMap.of(
+                column,
+                Domain.create(ValueSet.of(BIGINT, 42L, 43L, 404L), false)));
+        TupleDomainParquetPredicate parquetPredicate = new TupleDomainParquetPredicate(effectivePredicate, singletonList(column), UTC);
+
+        ColumnIndexBuilder columnIndexBuilder = ColumnIndexBuilder.getBuilder(type, Integer.MAX_VALUE);
+        columnIndexBuilder.add(longColumnStats(0, 40));
+        columnIndexBuilder.add(longColumnStats(41, 100));
+        columnIndexBuilder.add(longOnlyNullsStats(50));
+        columnIndexBuilder.add(longColumnStats(101, 200));
+        columnIndexBuilder.add(longColumnStats(300, 500));
+        ColumnIndex columnIndex = columnIndexBuilder.build();
+
+        OffsetIndexBuilder offsetIndexBuilder = OffsetIndexBuilder.getBuilder();
+        offsetIndexBuilder.add(1000, 100);
+        offsetIndexBuilder.add(1000, 100);
+        offsetIndexBuilder.add(100, 50);
+        offsetIndexBuilder.add(1000, 100);
+        offsetIndexBuilder.add(1000, 150);
+        OffsetIndex offsetIndex = offsetIndexBuilder.build();
+
+        PageIndexStore pageIndexStore = new TestingPageIndexStore(ImmutableMap.of(ColumnPath.get(column.getPath()), columnIndex), ImmutableMap.of(ColumnPath.get(column.getPath()), offsetIndex));
+        assertEquals(
+                parquetPredicate.getMatchingRows(500, pageIndexStore, ID),
+                RowRanges.builder().add(100, 200).add(350, 500).build());
+
+        // without a page index for the column all rows match
+        PageIndexStore emptyPageIndexStore = new TestingPageIndexStore(ImmutableMap.of(), ImmutableMap.of());
+        assertEquals(parquetPredicate.getMatchingRows(500, emptyPageIndexStore, ID), RowRanges.all(500));
+
+        // no page contains the values
+        TupleDomainParquetPredicate nonMatchingPredicate = new TupleDomainParquetPredicate(
+                TupleDomain.withColumnDomains(ImmutableMap.of(column, Domain.singleValue(BIGINT, 250L))),
+                singletonList(column),
+                UTC);
+        assertEquals(nonMatchingPredicate.getMatchingRows(500, pageIndexStore, ID), RowRanges.empty());
+    }
+
+    @Test
+    public void testBigintMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0),
+                new PrimitiveType(OPTIONAL, INT64, "Test column"));
+        BloomFilter bloomFilter = new BloomFilter(1024);
+        for (long value = 0; value < 100; value++) {
+            bloomFilter.insertHash(BloomFilter.hashLong(value * 7));
+        }
+
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 42L, 43L), false)).matches(column, bloomFilter));
+        assertFalse(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 43L, 701L), false)).matches(column, bloomFilter));
+        // nulls are not added to Bloom filters
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.of(BIGINT, 43L), true)).matches(column, bloomFilter));
+        // ranges cannot be checked against Bloom filters
+        assertTrue(bloomFilterPredicate(column, Domain.create(ValueSet.ofRanges(range(BIGINT, 43L, true, 48L, true)), false)).matches(column, bloomFilter));
+    }
+
+    @Test
+    public void testVarcharMatchesWithBloomFilter()
+    {
+        RichColumnDescriptor column = new RichColumnDescriptor(
+                new ColumnDescriptor(new String[] {"path"}, BINARY, 0, 0),
+                new PrimitiveType(OPTIONAL, BINARY, "Test column"));
+        BloomFilter bloomFilter = new BloomFilter(1024);
+        bloomFilter.insertHash(BloomFilter.hashSlice(utf8Slice("abc")));
+        bloomFilter.insertHash(BloomFilter.hashSlice(utf8Slice("def")));
+
+        assertTrue(bloomFilterPredicate(column, singleValue(createUnboundedVarcharType(), utf8Slice("abc"))).matches(column, bloomFilter));
+        assertFalse(bloomFilterPredicate(column, singleValue(createUnboundedVarcharType(), utf8Slice("abcd"))).matches(column, bloomFilter));
+        // values of bounded varchar columns could be longer in the file
+        assertTrue(bloomFilterPredicate(column, singleValue(createVarcharType(3), utf8Slice("xyz"))).matches(column, bloomFilter));
+    }
+
+    private static TupleDomainParquetPredicate bloomFilterPredicate(RichColumnDescriptor column, Domain domain)
+    {
+        return new TupleDomainParquetPredicate(TupleDomain.withColumnDomains(ImmutableMap.of(column, domain)), singletonList(column), UTC);
+    }
+
     @Test
     public void testVarcharMatchesWithDictionaryDescriptor()
     {
@@ -552,4 +643,29 @@ public class TestTupleDomainParquetPredicate
                 start.atZone(ZoneOffset.UTC).toInstant().getEpochSecond() * MICROSECONDS_PER_SECOND + start.getLong(MICRO_OF_SECOND),
                 toIntExact(round((start.getNano() % PICOSECONDS_PER_NANOSECOND) * PICOSECONDS_PER_NANOSECOND, toIntExact(TimestampType.MAX_PRECISION - precision))));
     }
+
+    private static class TestingPageIndexStore
+            implements PageIndexStore
+    {
+        private final Map<ColumnPath, ColumnIndex> columnIndexes;
+        private final Map<ColumnPath, OffsetIndex> offsetIndexes;
+
+        public TestingPageIndexStore(Map<ColumnPath, ColumnIndex> columnIndexes, Map<ColumnPath, OffsetIndex> offsetIndexes)
+        {
+            this.columnIndexes = ImmutableMap.copyOf(columnIndexes);
+            this.offsetIndexes = ImmutableMap.copyOf(offsetIndexes);
+        }
+
+        @Override
+        public Optional<ColumnIndex> getColumnIndex(ColumnPath column)
+        {
+            return Optional.ofNullable(columnIndexes.get(column));
+        }
+
+        @Override
+        public Optional<OffsetIndex> getOffsetIndex(ColumnPath column)
+        {
+            return Optional.ofNullable(offsetIndexes.get(column));
+        }
+    }
 }
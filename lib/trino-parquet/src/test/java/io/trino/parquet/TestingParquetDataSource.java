@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Parquet data source over a file held in memory, which records the ranges of the file that are read.
+ */
+public class TestingParquetDataSource
+        implements ParquetDataSource
+{
+    private final Slice data;
+    private final List<DiskRange> readRanges = new ArrayList<>();
+
+    public TestingParquetDataSource(Slice data)
+    {
+        this.data = requireNonNull(data, "data is null");
+    }
+
+    public synchronized List<DiskRange> getReadRanges()
+    {
+        return ImmutableList.copyOf(readRanges);
+    }
+
+    @Override
+    public ParquetDataSourceId getId()
+    {
+        return new ParquetDataSourceId("test");
+    }
+
+    @Override
+    public synchronized long getReadBytes()
+    {
+        return readRanges.stream()
+                .mapToLong(DiskRange::getLength)
+                .sum();
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getEstimatedSize()
+    {
+        return data.length();
+    }
+
+    @Override
+    public Slice readTail(int length)
+    {
+        return data.slice(data.length() - length, length);
+    }
+
+    @Override
+    public synchronized Slice readFully(long position, int length)
+    {
+        readRanges.add(new DiskRange(position, length));
+        return data.slice(toIntExact(position), length);
+    }
+
+    @Override
+    public <K> Map<K, ChunkReader> planRead(Map<K, DiskRange> diskRanges)
+    {
+        return diskRanges.entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getKey, entry -> new ChunkReader()
+                {
+                    @Override
+                    public Slice read()
+                    {
+                        return readFully(entry.getValue().getOffset(), entry.getValue().getLength());
+                    }
+
+                    @Override
+                    public void free() {}
+                }));
+    }
+}
@@ -0,0 +1,344 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.trino.parquet.DiskRange;
+import io.trino.parquet.Field;
+import io.trino.parquet.GroupField;
+import io.trino.parquet.ParquetReaderOptions;
+import io.trino.parquet.PrimitiveField;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.TestingParquetDataSource;
+import io.trino.parquet.predicate.Predicate;
+import io.trino.parquet.writer.ParquetSchemaConverter;
+import io.trino.parquet.writer.ParquetWriter;
+import io.trino.parquet.writer.ParquetWriterOptions;
+import io.trino.spi.Page;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.Range;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.spi.predicate.ValueSet;
+import io.trino.spi.type.ArrayType;
+import io.trino.spi.type.Type;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIO;
+import org.apache.parquet.io.GroupColumnIO;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.PrimitiveColumnIO;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.LongStream;
+
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.MoreCollectors.onlyElement;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.trino.parquet.ParquetTypeUtils.getArrayElementColumn;
+import static io.trino.parquet.ParquetTypeUtils.getColumnIO;
+import static io.trino.parquet.ParquetTypeUtils.getDescriptors;
+import static io.trino.parquet.ParquetTypeUtils.lookupColumnByName;
+import static io.trino.parquet.predicate.PredicateUtils.buildPredicate;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.joda.time.DateTimeZone.UTC;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetReaderPageIndex
+{
+    private static final Type TAGS_TYPE = new ArrayType(BIGINT);
+    private static final List<String> COLUMN_NAMES = ImmutableList.of("id", "name", "amount", "tags");
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, DOUBLE, TAGS_TYPE);
+    private static final int PAGE_COUNT = 1000;
+    private static final int ROWS_PER_PAGE = 100;
+    private static final long ROW_COUNT = PAGE_COUNT * ROWS_PER_PAGE;
+    // the amount is null for the rows with an id in this range
+    private static final long FIRST_NULL_ID = 50_000;
+    private static final long END_NULL_ID = 60_000;
+
+    private byte[] file;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        ParquetSchemaConverter schemaConverter = new ParquetSchemaConverter(TYPES, COLUMN_NAMES);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExecutorService executor = newFixedThreadPool(3);
+        try {
+            ParquetWriter writer = new ParquetWriter(
+                    output,
+                    schemaConverter.getMessageType(),
+                    schemaConverter.getPrimitiveTypes(),
+                    ParquetWriterOptions.builder()
+                            .setMaxPageSize(DataSize.ofBytes(1000))
+                            .setMaxBlockSize(DataSize.ofBytes(500_000))
+                            .build(),
+                    SNAPPY,
+                    executor);
+            for (int page = 0; page < PAGE_COUNT; page++) {
+                writer.write(createPage(page * ROWS_PER_PAGE));
+            }
+            writer.close();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+        file = output.toByteArray();
+    }
+
+    @Test
+    public void testSelectivePredicate()
+            throws Exception
+    {
+        TestingParquetDataSource dataSource = new TestingParquetDataSource(Slices.wrappedBuffer(file));
+        Set<Long> ids = readIds(dataSource, ImmutableMap.of("id", Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 25_000L, true, 25_999L, true)), false)));
+
+        // whole pages are read, so the rows around the selected ones are returned too
+        assertThat(ids).containsAll(idRange(25_000, 26_000));
+        assertThat(ids).hasSizeLessThan(2_000);
+
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(dataSource);
+        assertThat(parquetMetadata.getBlocks()).hasSizeGreaterThan(1);
+        long idBytesRead = 0;
+        long idBytesInRowGroupsRead = 0;
+        for (BlockMetaData block : parquetMetadata.getBlocks()) {
+            ColumnChunkMetaData idChunk = getColumnChunk(block, "id");
+            ColumnChunkMetaData tagsChunk = getColumnChunk(block, "tags", "list", "array");
+            long idRead = getBytesRead(dataSource, idChunk);
+            if (idRead == 0) {
+                // none of the rows of the row group match the predicate
+                assertEquals(getBytesRead(dataSource, tagsChunk), 0);
+                continue;
+            }
+            idBytesRead += idRead;
+            idBytesInRowGroupsRead += idChunk.getTotalSize();
+            // the pages of a repeated column are all read, and the rows outside of the selected ones are skipped while decoding
+            assertEquals(getBytesRead(dataSource, tagsChunk), tagsChunk.getTotalSize());
+        }
+        // the pages of the filtered column without the selected rows are not read
+        assertThat(idBytesRead).isGreaterThan(0);
+        assertThat(idBytesRead).isLessThan(idBytesInRowGroupsRead);
+    }
+
+    @Test
+    public void testPredicateMatchingAllPages()
+            throws Exception
+    {
+        TestingParquetDataSource dataSource = new TestingParquetDataSource(Slices.wrappedBuffer(file));
+        Set<Long> ids = readIds(dataSource, ImmutableMap.of("id", Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(BIGINT, 0L)), false)));
+        assertEquals(ids, idRange(0, ROW_COUNT));
+
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(dataSource);
+        for (BlockMetaData block : parquetMetadata.getBlocks()) {
+            for (ColumnChunkMetaData column : block.getColumns()) {
+                assertEquals(getBytesRead(dataSource, column), column.getTotalSize());
+            }
+        }
+    }
+
+    @Test
+    public void testNullablePredicateColumn()
+            throws Exception
+    {
+        // the pages with only null values are read for a predicate matching null
+        Set<Long> ids = readIds(new TestingParquetDataSource(Slices.wrappedBuffer(file)), ImmutableMap.of("amount", Domain.onlyNull(DOUBLE)));
+        assertThat(ids).containsAll(idRange(FIRST_NULL_ID, END_NULL_ID));
+        assertThat(ids).hasSizeLessThan(toIntExact(END_NULL_ID - FIRST_NULL_ID + 2_000));
+
+        // the pages with only null values are skipped for a predicate not matching null
+        ids = readIds(new TestingParquetDataSource(Slices.wrappedBuffer(file)), ImmutableMap.of("amount", Domain.create(ValueSet.ofRanges(Range.greaterThan(DOUBLE, 4_000.0)), false)));
+        assertThat(ids).containsAll(idRange(40_001, FIRST_NULL_ID));
+        assertThat(ids).containsAll(idRange(END_NULL_ID, ROW_COUNT));
+        assertThat(ids).doesNotContainAnyElementsOf(idRange(FIRST_NULL_ID + 1_000, END_NULL_ID - 1_000));
+        assertThat(ids).doesNotContainAnyElementsOf(idRange(0, 39_000));
+
+        // the pages with some null values are read for a predicate matching null or a value
+        ids = readIds(new TestingParquetDataSource(Slices.wrappedBuffer(file)), ImmutableMap.of("amount", Domain.create(ValueSet.ofRanges(Range.lessThan(DOUBLE, 100.0)), true)));
+        assertThat(ids).containsAll(idRange(0, 1_000));
+        assertThat(ids).containsAll(idRange(FIRST_NULL_ID, END_NULL_ID));
+        assertThat(ids).doesNotContainAnyElementsOf(idRange(2_000, FIRST_NULL_ID - 1_000));
+    }
+
+    /**
+     * Reads the file with a predicate on the given columns, and returns the ids of the rows read,
+     * after verifying that the values of all columns of each row were read.
+     */
+    private static Set<Long> readIds(TestingParquetDataSource dataSource, Map<String, Domain> domains)
+            throws Exception
+    {
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(dataSource);
+        MessageType fileSchema = parquetMetadata.getFileMetaData().getSchema();
+        MessageColumnIO messageColumnIO = getColumnIO(fileSchema, fileSchema);
+        Map<List<String>, RichColumnDescriptor> descriptorsByPath = getDescriptors(fileSchema, fileSchema);
+
+        ImmutableMap.Builder<ColumnDescriptor, Domain> parquetDomains = ImmutableMap.builder();
+        domains.forEach((column, domain) -> parquetDomains.put(descriptorsByPath.get(ImmutableList.of(column)), domain));
+        Predicate predicate = buildPredicate(fileSchema, TupleDomain.withColumnDomains(parquetDomains.build()), descriptorsByPath, UTC);
+        assertEquals(predicate.getPredicateColumns(), domains.keySet().stream()
+                .map(ColumnPath::get)
+                .collect(toImmutableSet()));
+
+        ImmutableList.Builder<Long> firstRowsOfBlocks = ImmutableList.builder();
+        long firstRow = 0;
+        for (BlockMetaData block : parquetMetadata.getBlocks()) {
+            firstRowsOfBlocks.add(firstRow);
+            firstRow += block.getRowCount();
+        }
+
+        Field idField = primitiveField(BIGINT, lookupColumnByName(messageColumnIO, "id"));
+        Field nameField = primitiveField(VARCHAR, lookupColumnByName(messageColumnIO, "name"));
+        Field amountField = primitiveField(DOUBLE, lookupColumnByName(messageColumnIO, "amount"));
+        GroupColumnIO tagsColumnIO = (GroupColumnIO) lookupColumnByName(messageColumnIO, "tags");
+        Field tagsField = new GroupField(TAGS_TYPE, 0, 1, false, ImmutableList.of(Optional.of(primitiveField(BIGINT, getArrayElementColumn(tagsColumnIO.getChild(0))))));
+
+        Set<Long> ids = new HashSet<>();
+        try (ParquetReader reader = new ParquetReader(
+                Optional.ofNullable(parquetMetadata.getFileMetaData().getCreatedBy()),
+                messageColumnIO,
+                parquetMetadata.getBlocks(),
+                Optional.of(firstRowsOfBlocks.build()),
+                dataSource,
+                UTC,
+                newSimpleAggregatedMemoryContext(),
+                new ParquetReaderOptions(),
+                Optional.of(predicate))) {
+            for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                Block idBlock = reader.readBlock(idField);
+                Block nameBlock = reader.readBlock(nameField);
+                Block amountBlock = reader.readBlock(amountField);
+                Block tagsBlock = reader.readBlock(tagsField);
+                for (int position = 0; position < batchSize; position++) {
+                    long id = BIGINT.getLong(idBlock, position);
+                    assertEquals(id, reader.lastBatchStartRow() + position);
+                    assertEquals(VARCHAR.getSlice(nameBlock, position), utf8Slice("name " + id));
+                    if (isNullAmount(id)) {
+                        assertTrue(amountBlock.isNull(position));
+                    }
+                    else {
+                        assertFalse(amountBlock.isNull(position));
+                        assertEquals(DOUBLE.getDouble(amountBlock, position), id / 10.0);
+                    }
+                    Block tags = TAGS_TYPE.getObject(tagsBlock, position);
+                    assertEquals(tags.getPositionCount(), tagCount(id));
+                    for (int tag = 0; tag < tags.getPositionCount(); tag++) {
+                        assertEquals(BIGINT.getLong(tags, tag), id + tag);
+                    }
+                    assertTrue(ids.add(id), "row read twice: " + id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static Field primitiveField(Type type, ColumnIO columnIO)
+    {
+        PrimitiveColumnIO primitiveColumnIO = (PrimitiveColumnIO) columnIO;
+        ColumnDescriptor descriptor = primitiveColumnIO.getColumnDescriptor();
+        return new PrimitiveField(
+                type,
+                descriptor.getMaxRepetitionLevel(),
+                descriptor.getMaxDefinitionLevel(),
+                false,
+                new RichColumnDescriptor(descriptor, columnIO.getType().asPrimitiveType()),
+                primitiveColumnIO.getId());
+    }
+
+    private static ColumnChunkMetaData getColumnChunk(BlockMetaData block, String... path)
+    {
+        ColumnPath columnPath = ColumnPath.get(path);
+        return block.getColumns().stream()
+                .filter(column -> column.getPath().equals(columnPath))
+                .collect(onlyElement());
+    }
+
+    private static long getBytesRead(TestingParquetDataSource dataSource, ColumnChunkMetaData column)
+    {
+        long start = column.getStartingPos();
+        long end = start + column.getTotalSize();
+        long bytesRead = 0;
+        for (DiskRange range : dataSource.getReadRanges()) {
+            bytesRead += max(0, min(end, range.getEnd()) - max(start, range.getOffset()));
+        }
+        return bytesRead;
+    }
+
+    private static Set<Long> idRange(long start, long end)
+    {
+        return LongStream.range(start, end)
+                .boxed()
+                .collect(toImmutableSet());
+    }
+
+    private static boolean isNullAmount(long id)
+    {
+        return id >= FIRST_NULL_ID && id < END_NULL_ID;
+    }
+
+    private static int tagCount(long id)
+    {
+        return (int) (id % 3);
+    }
+
+    private static Page createPage(long firstId)
+    {
+        BlockBuilder ids = BIGINT.createBlockBuilder(null, ROWS_PER_PAGE);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, ROWS_PER_PAGE);
+        BlockBuilder amounts = DOUBLE.createBlockBuilder(null, ROWS_PER_PAGE);
+        BlockBuilder tags = TAGS_TYPE.createBlockBuilder(null, ROWS_PER_PAGE);
+        for (long id = firstId; id < firstId + ROWS_PER_PAGE; id++) {
+            BIGINT.writeLong(ids, id);
+            VARCHAR.writeSlice(names, utf8Slice("name " + id));
+            if (isNullAmount(id)) {
+                amounts.appendNull();
+            }
+            else {
+                DOUBLE.writeDouble(amounts, id / 10.0);
+            }
+            BlockBuilder entry = tags.beginBlockEntry();
+            for (int tag = 0; tag < tagCount(id); tag++) {
+                BIGINT.writeLong(entry, id + tag);
+            }
+            tags.closeEntry();
+        }
+        return new Page(ids.build(), names.build(), amounts.build(), tags.build());
+    }
+}
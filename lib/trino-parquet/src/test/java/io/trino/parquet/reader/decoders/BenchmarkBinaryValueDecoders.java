@@ -0,0 +1,195 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.parquet.DictionaryPage;
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.dictionary.Dictionary;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.BinaryDictionaryDecoder;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.deltalengthbytearray.DeltaLengthByteArrayValuesWriter;
+import org.apache.parquet.column.values.deltastrings.DeltaByteArrayWriter;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.io.api.Binary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.trino.jmh.Benchmarks.benchmark;
+import static io.trino.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.trino.parquet.ParquetReaderUtils.toInputStream;
+import static io.trino.parquet.ValuesType.VALUES;
+import static io.trino.parquet.reader.decoders.BenchmarkLongValueDecoders.encodeDictionaryIds;
+import static io.trino.parquet.reader.decoders.ValueDecoders.getBinaryDecoder;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.testng.Assert.assertEquals;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OperationsPerInvocation(BenchmarkBinaryValueDecoders.VALUE_COUNT)
+public class BenchmarkBinaryValueDecoders
+{
+    static final int VALUE_COUNT = 100_000;
+    private static final int BATCH_SIZE = 1024;
+    private static final int DICTIONARY_SIZE = 1000;
+    private static final int PAGE_SIZE = 8 * 1024 * 1024;
+    private static final ColumnDescriptor COLUMN = new ColumnDescriptor(new String[] {"path"}, BINARY, 0, 0);
+
+    @Param({"PLAIN", "RLE_DICTIONARY", "DELTA_LENGTH_BYTE_ARRAY", "DELTA_BYTE_ARRAY"})
+    public ParquetEncoding encoding;
+
+    @Param({"8", "32"})
+    public int valueLength = 8;
+
+    private Slice data;
+    private BinaryBuffer dictionary;
+    private Dictionary parquetDictionary;
+
+    @Setup
+    public void setup()
+            throws IOException
+    {
+        Random random = new Random(42);
+        if (encoding.usesDictionary()) {
+            dictionary = new BinaryBuffer(DICTIONARY_SIZE);
+            ValuesWriter dictionaryWriter = new PlainValuesWriter(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+            for (int i = 0; i < DICTIONARY_SIZE; i++) {
+                byte[] value = randomValue(random, i);
+                dictionary.add(value, 0, value.length, i);
+                dictionaryWriter.writeBytes(Binary.fromConstantByteArray(value));
+            }
+            Slice dictionarySlice = Slices.wrappedBuffer(dictionaryWriter.getBytes().toByteArray());
+            parquetDictionary = PLAIN_DICTIONARY.initDictionary(COLUMN, new DictionaryPage(dictionarySlice, DICTIONARY_SIZE, PLAIN_DICTIONARY));
+            data = encodeDictionaryIds(random, DICTIONARY_SIZE, VALUE_COUNT);
+            return;
+        }
+
+        ValuesWriter writer = createWriter();
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            writer.writeBytes(Binary.fromConstantByteArray(randomValue(random, i)));
+        }
+        data = Slices.wrappedBuffer(writer.getBytes().toByteArray());
+    }
+
+    private ValuesWriter createWriter()
+    {
+        switch (encoding) {
+            case PLAIN:
+                return new PlainValuesWriter(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+            case DELTA_LENGTH_BYTE_ARRAY:
+                return new DeltaLengthByteArrayValuesWriter(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+            case DELTA_BYTE_ARRAY:
+                return new DeltaByteArrayWriter(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+            case RLE:
+            case BIT_PACKED:
+            case PLAIN_DICTIONARY:
+            case DELTA_BINARY_PACKED:
+            case RLE_DICTIONARY:
+                break;
+        }
+        throw new UnsupportedOperationException("Unsupported encoding: " + encoding);
+    }
+
+    private byte[] randomValue(Random random, int index)
+    {
+        // values share a prefix derived from their index, like sorted keys
+        byte[] value = new byte[valueLength];
+        random.nextBytes(value);
+        String prefix = Integer.toString(index / 16);
+        for (int i = 0; i < Math.min(prefix.length(), valueLength); i++) {
+            value[i] = (byte) prefix.charAt(i);
+        }
+        return value;
+    }
+
+    @Benchmark
+    public List<BinaryBuffer> readBatches()
+    {
+        ValueDecoder<BinaryBuffer> decoder = encoding.usesDictionary() ? new BinaryDictionaryDecoder(dictionary) : getBinaryDecoder(encoding, COLUMN);
+        decoder.init(data);
+        List<BinaryBuffer> batches = new ArrayList<>();
+        for (int position = 0; position < VALUE_COUNT; position += BATCH_SIZE) {
+            int batchSize = Math.min(BATCH_SIZE, VALUE_COUNT - position);
+            BinaryBuffer values = new BinaryBuffer(batchSize);
+            decoder.read(values, 0, batchSize);
+            batches.add(values);
+        }
+        return batches;
+    }
+
+    @Benchmark
+    public List<Binary> readValues()
+            throws IOException
+    {
+        ValuesReader reader = encoding.usesDictionary() ? encoding.getDictionaryBasedValuesReader(COLUMN, VALUES, parquetDictionary) : encoding.getValuesReader(COLUMN, VALUES);
+        reader.initFromPage(VALUE_COUNT, toInputStream(data));
+        List<Binary> values = new ArrayList<>(VALUE_COUNT);
+        for (int position = 0; position < VALUE_COUNT; position++) {
+            values.add(reader.readBytes());
+        }
+        return values;
+    }
+
+    @Test
+    public void test()
+            throws IOException
+    {
+        for (ParquetEncoding encoding : new ParquetEncoding[] {ParquetEncoding.PLAIN, ParquetEncoding.RLE_DICTIONARY, ParquetEncoding.DELTA_LENGTH_BYTE_ARRAY, ParquetEncoding.DELTA_BYTE_ARRAY}) {
+            BenchmarkBinaryValueDecoders benchmark = new BenchmarkBinaryValueDecoders();
+            benchmark.encoding = encoding;
+            benchmark.setup();
+            List<Binary> expected = benchmark.readValues();
+            List<BinaryBuffer> batches = benchmark.readBatches();
+            for (int position = 0; position < VALUE_COUNT; position++) {
+                BinaryBuffer batch = batches.get(position / BATCH_SIZE);
+                int index = position % BATCH_SIZE;
+                int[] offsets = batch.getOffsets();
+                Slice actual = batch.getSlice().slice(offsets[index], offsets[index + 1] - offsets[index]);
+                assertEquals(actual, Slices.wrappedBuffer(expected.get(position).getBytes()), "position " + position);
+            }
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        benchmark(BenchmarkBinaryValueDecoders.class).run();
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.parquet.DictionaryPage;
+import io.trino.parquet.ParquetEncoding;
+import io.trino.parquet.dictionary.Dictionary;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.LongDictionaryDecoder;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.values.ValuesReader;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static io.trino.jmh.Benchmarks.benchmark;
+import static io.trino.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.trino.parquet.ParquetReaderUtils.toInputStream;
+import static io.trino.parquet.ValuesType.VALUES;
+import static io.trino.parquet.reader.decoders.ValueDecoders.getLongDecoder;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.testng.Assert.assertEquals;
+
+@State(Scope.Thread)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@BenchmarkMode(Mode.AverageTime)
+@OperationsPerInvocation(BenchmarkLongValueDecoders.VALUE_COUNT)
+public class BenchmarkLongValueDecoders
+{
+    static final int VALUE_COUNT = 100_000;
+    private static final int BATCH_SIZE = 1024;
+    private static final int DICTIONARY_SIZE = 1000;
+    private static final int PAGE_SIZE = 8 * 1024 * 1024;
+    private static final ColumnDescriptor COLUMN = new ColumnDescriptor(new String[] {"path"}, INT64, 0, 0);
+
+    @Param({"PLAIN", "RLE_DICTIONARY", "DELTA_BINARY_PACKED"})
+    public ParquetEncoding encoding;
+
+    private Slice data;
+    private long[] dictionary;
+    private Dictionary parquetDictionary;
+    private final long[] values = new long[BATCH_SIZE];
+
+    @Setup
+    public void setup()
+            throws IOException
+    {
+        Random random = new Random(42);
+        switch (encoding) {
+            case PLAIN: {
+                ValuesWriter writer = new PlainValuesWriter(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+                for (int i = 0; i < VALUE_COUNT; i++) {
+                    writer.writeLong(random.nextLong());
+                }
+                data = Slices.wrappedBuffer(writer.getBytes().toByteArray());
+                return;
+            }
+            case RLE_DICTIONARY: {
+                dictionary = new long[DICTIONARY_SIZE];
+                ValuesWriter dictionaryWriter = new PlainValuesWriter(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+                for (int i = 0; i < DICTIONARY_SIZE; i++) {
+                    dictionary[i] = random.nextLong();
+                    dictionaryWriter.writeLong(dictionary[i]);
+                }
+                Slice dictionarySlice = Slices.wrappedBuffer(dictionaryWriter.getBytes().toByteArray());
+                parquetDictionary = PLAIN_DICTIONARY.initDictionary(COLUMN, new DictionaryPage(dictionarySlice, DICTIONARY_SIZE, PLAIN_DICTIONARY));
+                data = encodeDictionaryIds(random, DICTIONARY_SIZE, VALUE_COUNT);
+                return;
+            }
+            case DELTA_BINARY_PACKED: {
+                ValuesWriter writer = new DeltaBinaryPackingValuesWriterForLong(PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+                long value = 0;
+                for (int i = 0; i < VALUE_COUNT; i++) {
+                    value += random.nextInt(1000);
+                    writer.writeLong(value);
+                }
+                data = Slices.wrappedBuffer(writer.getBytes().toByteArray());
+                return;
+            }
+            case RLE:
+            case BIT_PACKED:
+            case PLAIN_DICTIONARY:
+            case DELTA_LENGTH_BYTE_ARRAY:
+            case DELTA_BYTE_ARRAY:
+                break;
+        }
+        throw new UnsupportedOperationException("Unsupported encoding: " + encoding);
+    }
+
+    @Benchmark
+    public long[] readBatches()
+    {
+        ValueDecoder<long[]> decoder = encoding.usesDictionary() ? new LongDictionaryDecoder(dictionary) : getLongDecoder(encoding, COLUMN);
+        decoder.init(data);
+        for (int position = 0; position < VALUE_COUNT; position += BATCH_SIZE) {
+            decoder.read(values, 0, Math.min(BATCH_SIZE, VALUE_COUNT - position));
+        }
+        return values;
+    }
+
+    @Benchmark
+    public long[] readValues()
+            throws IOException
+    {
+        ValuesReader reader = encoding.usesDictionary() ? encoding.getDictionaryBasedValuesReader(COLUMN, VALUES, parquetDictionary) : encoding.getValuesReader(COLUMN, VALUES);
+        reader.initFromPage(VALUE_COUNT, toInputStream(data));
+        for (int position = 0; position < VALUE_COUNT; position++) {
+            values[position % BATCH_SIZE] = reader.readLong();
+        }
+        return values;
+    }
+
+    static Slice encodeDictionaryIds(Random random, int dictionarySize, int valueCount)
+            throws IOException
+    {
+        int bitWidth = Integer.SIZE - Integer.numberOfLeadingZeros(dictionarySize - 1);
+        RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, PAGE_SIZE, PAGE_SIZE, new HeapByteBufferAllocator());
+        for (int i = 0; i < valueCount; i++) {
+            encoder.writeInt(random.nextInt(dictionarySize));
+        }
+        byte[] ids = encoder.toBytes().toByteArray();
+        byte[] data = new byte[ids.length + 1];
+        data[0] = (byte) bitWidth;
+        System.arraycopy(ids, 0, data, 1, ids.length);
+        return Slices.wrappedBuffer(data);
+    }
+
+    @Test
+    public void test()
+            throws IOException
+    {
+        for (ParquetEncoding encoding : new ParquetEncoding[] {ParquetEncoding.PLAIN, ParquetEncoding.RLE_DICTIONARY, ParquetEncoding.DELTA_BINARY_PACKED}) {
+            BenchmarkLongValueDecoders benchmark = new BenchmarkLongValueDecoders();
+            benchmark.encoding = encoding;
+            benchmark.setup();
+            long[] expected = benchmark.readValues().clone();
+            assertEquals(benchmark.readBatches(), expected);
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        benchmark(BenchmarkLongValueDecoders.class).run();
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.decoders;
+
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.IntDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DeltaBinaryPackedDecoders.LongDeltaBinaryPackedDecoder;
+import io.trino.parquet.reader.decoders.DeltaByteArrayDecoders.DeltaByteArrayDecoder;
+import io.trino.parquet.reader.decoders.DeltaByteArrayDecoders.DeltaLengthByteArrayDecoder;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.BinaryDictionaryDecoder;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.IntDictionaryDecoder;
+import io.trino.parquet.reader.decoders.DictionaryDecoder.LongDictionaryDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.BinaryPlainDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.IntPlainDecoder;
+import io.trino.parquet.reader.decoders.PlainValueDecoders.LongPlainDecoder;
+import io.trino.parquet.reader.flat.ColumnAdapter;
+import io.trino.spi.block.Block;
+import io.trino.spi.type.Type;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForInteger;
+import org.apache.parquet.column.values.delta.DeltaBinaryPackingValuesWriterForLong;
+import org.apache.parquet.column.values.deltalengthbytearray.DeltaLengthByteArrayValuesWriter;
+import org.apache.parquet.column.values.deltastrings.DeltaByteArrayWriter;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.apache.parquet.io.api.Binary;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.Random;
+
+import static io.trino.parquet.reader.flat.BinaryColumnAdapter.BINARY_ADAPTER;
+import static io.trino.parquet.reader.flat.IntColumnAdapter.INT_ADAPTER;
+import static io.trino.parquet.reader.flat.LongColumnAdapter.LONG_ADAPTER;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.IntegerType.INTEGER;
+import static io.trino.spi.type.VarbinaryType.VARBINARY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestValueDecoders
+{
+    private static final int VALUE_COUNT = 10_000;
+    private static final int PAGE_SIZE = 1024 * 1024;
+
+    @Test
+    public void testRleBitPackingHybrid()
+            throws IOException
+    {
+        Random random = new Random(42);
+        for (int bitWidth = 0; bitWidth <= 32; bitWidth++) {
+            long[] values = new long[VALUE_COUNT];
+            RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 1024, PAGE_SIZE, new HeapByteBufferAllocator());
+            int position = 0;
+            while (position < VALUE_COUNT) {
+                // alternate repeated values, which are RLE encoded, with random values, which are bit-packed
+                int runLength = Math.min(1 + random.nextInt(50), VALUE_COUNT - position);
+                boolean repeated = random.nextBoolean();
+                int value = randomInt(random, bitWidth);
+                for (int i = 0; i < runLength; i++) {
+                    values[position] = repeated ? value : randomInt(random, bitWidth);
+                    encoder.writeInt((int) values[position]);
+                    position++;
+                }
+            }
+            Slice input = Slices.wrappedBuffer(encoder.toBytes().toByteArray());
+            assertValues(new RleBitPackingHybridDecoder(bitWidth), INT_ADAPTER, INTEGER, input, values, random);
+        }
+    }
+
+    @Test
+    public void testPlain()
+            throws IOException
+    {
+        Random random = new Random(42);
+        long[] ints = new long[VALUE_COUNT];
+        long[] longs = new long[VALUE_COUNT];
+        Slice[] binaries = new Slice[VALUE_COUNT];
+        ValuesWriter intWriter = new PlainValuesWriter(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        ValuesWriter longWriter = new PlainValuesWriter(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        ValuesWriter binaryWriter = new PlainValuesWriter(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            ints[i] = random.nextInt();
+            intWriter.writeInteger((int) ints[i]);
+            longs[i] = random.nextLong();
+            longWriter.writeLong(longs[i]);
+            binaries[i] = randomBinary(random);
+            binaryWriter.writeBytes(Binary.fromConstantByteArray(binaries[i].getBytes()));
+        }
+        assertValues(new IntPlainDecoder(), INT_ADAPTER, INTEGER, getBytes(intWriter), ints, random);
+        assertValues(new LongPlainDecoder(), LONG_ADAPTER, BIGINT, getBytes(longWriter), longs, random);
+        assertValues(new BinaryPlainDecoder(), BINARY_ADAPTER, VARBINARY, getBytes(binaryWriter), binaries, random);
+    }
+
+    @Test
+    public void testDictionary()
+            throws IOException
+    {
+        Random random = new Random(42);
+        int dictionarySize = 300;
+        int[] intDictionary = new int[dictionarySize];
+        long[] longDictionary = new long[dictionarySize];
+        BinaryBuffer binaryDictionary = new BinaryBuffer(dictionarySize);
+        Slice[] binaryDictionaryValues = new Slice[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            intDictionary[i] = random.nextInt();
+            longDictionary[i] = random.nextLong();
+            binaryDictionaryValues[i] = randomBinary(random);
+            binaryDictionary.add(binaryDictionaryValues[i], 0, binaryDictionaryValues[i].length(), i);
+        }
+
+        int bitWidth = 9;
+        RunLengthBitPackingHybridEncoder encoder = new RunLengthBitPackingHybridEncoder(bitWidth, 1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        long[] ints = new long[VALUE_COUNT];
+        long[] longs = new long[VALUE_COUNT];
+        Slice[] binaries = new Slice[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            // alternate repeated ids, which are RLE encoded, with random ids, which are bit-packed
+            int id = (i / 16) % 2 == 0 ? (i / 32) % dictionarySize : random.nextInt(dictionarySize);
+            encoder.writeInt(id);
+            ints[i] = intDictionary[id];
+            longs[i] = longDictionary[id];
+            binaries[i] = binaryDictionaryValues[id];
+        }
+        byte[] ids = encoder.toBytes().toByteArray();
+        byte[] data = new byte[ids.length + 1];
+        data[0] = (byte) bitWidth;
+        System.arraycopy(ids, 0, data, 1, ids.length);
+        Slice input = Slices.wrappedBuffer(data);
+
+        assertValues(new IntDictionaryDecoder(intDictionary), INT_ADAPTER, INTEGER, input, ints, random);
+        assertValues(new LongDictionaryDecoder(longDictionary), LONG_ADAPTER, BIGINT, input, longs, random);
+        assertValues(new BinaryDictionaryDecoder(binaryDictionary), BINARY_ADAPTER, VARBINARY, input, binaries, random);
+    }
+
+    @Test
+    public void testDeltaBinaryPacked()
+            throws IOException
+    {
+        Random random = new Random(42);
+        long[] ints = new long[VALUE_COUNT];
+        long[] longs = new long[VALUE_COUNT];
+        ValuesWriter intWriter = new DeltaBinaryPackingValuesWriterForInteger(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        ValuesWriter longWriter = new DeltaBinaryPackingValuesWriterForLong(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            // mix small deltas with values of the full range, which need the widest miniblocks
+            if (random.nextInt(10) == 0) {
+                ints[i] = random.nextInt();
+                longs[i] = random.nextLong();
+            }
+            else {
+                ints[i] = i == 0 ? 0 : (int) (ints[i - 1] + random.nextInt(100));
+                longs[i] = i == 0 ? 0 : longs[i - 1] + random.nextInt(100);
+            }
+            intWriter.writeInteger((int) ints[i]);
+            longWriter.writeLong(longs[i]);
+        }
+        assertValues(new IntDeltaBinaryPackedDecoder(), INT_ADAPTER, INTEGER, getBytes(intWriter), ints, random);
+        assertValues(new LongDeltaBinaryPackedDecoder(), LONG_ADAPTER, BIGINT, getBytes(longWriter), longs, random);
+
+        // values with a constant delta have miniblocks of width 0
+        ValuesWriter sequenceWriter = new DeltaBinaryPackingValuesWriterForLong(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        long[] sequence = new long[VALUE_COUNT];
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            sequence[i] = 1000L + 3L * i;
+            sequenceWriter.writeLong(sequence[i]);
+        }
+        assertValues(new LongDeltaBinaryPackedDecoder(), LONG_ADAPTER, BIGINT, getBytes(sequenceWriter), sequence, random);
+    }
+
+    @Test
+    public void testDeltaByteArrays()
+            throws IOException
+    {
+        Random random = new Random(42);
+        Slice[] values = new Slice[VALUE_COUNT];
+        ValuesWriter deltaLengthWriter = new DeltaLengthByteArrayValuesWriter(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        ValuesWriter deltaWriter = new DeltaByteArrayWriter(1024, PAGE_SIZE, new HeapByteBufferAllocator());
+        for (int i = 0; i < VALUE_COUNT; i++) {
+            // share prefixes with the previous value
+            Slice suffix = randomBinary(random);
+            if (i > 0 && random.nextBoolean()) {
+                Slice previous = values[i - 1];
+                Slice prefix = previous.slice(0, random.nextInt(previous.length() + 1));
+                values[i] = Slices.wrappedBuffer(concat(prefix.getBytes(), suffix.getBytes()));
+            }
+            else {
+                values[i] = suffix;
+            }
+            deltaLengthWriter.writeBytes(Binary.fromConstantByteArray(values[i].getBytes()));
+            deltaWriter.writeBytes(Binary.fromConstantByteArray(values[i].getBytes()));
+        }
+        assertValues(new DeltaLengthByteArrayDecoder(), BINARY_ADAPTER, VARBINARY, getBytes(deltaLengthWriter), values, random);
+        assertValues(new DeltaByteArrayDecoder(), BINARY_ADAPTER, VARBINARY, getBytes(deltaWriter), values, random);
+    }
+
+    /**
+     * Decodes all values, reading and skipping batches of random sizes, and verifies the values which were read.
+     */
+    private static <T> void assertValues(ValueDecoder<T> decoder, ColumnAdapter<T> adapter, Type type, Slice input, Object expectedValues, Random random)
+    {
+        int valueCount = expectedValues instanceof long[] ? ((long[]) expectedValues).length : ((Slice[]) expectedValues).length;
+        T values = adapter.createBuffer(valueCount);
+        boolean[] skipped = new boolean[valueCount];
+        decoder.init(input);
+        int position = 0;
+        while (position < valueCount) {
+            int length = Math.min(1 + random.nextInt(200), valueCount - position);
+            if (random.nextInt(4) == 0) {
+                decoder.skip(length);
+                for (int i = position; i < position + length; i++) {
+                    skipped[i] = true;
+                    adapter.setNull(values, i);
+                }
+            }
+            else {
+                decoder.read(values, position, length);
+            }
+            position += length;
+        }
+
+        Block block = adapter.createBlock(type, values, valueCount, Optional.of(skipped));
+        for (int i = 0; i < valueCount; i++) {
+            if (skipped[i]) {
+                assertTrue(block.isNull(i));
+            }
+            else if (expectedValues instanceof long[]) {
+                assertEquals(type.getLong(block, i), ((long[]) expectedValues)[i], "position " + i);
+            }
+            else {
+                assertEquals(type.getSlice(block, i), ((Slice[]) expectedValues)[i], "position " + i);
+            }
+        }
+    }
+
+    private static Slice getBytes(ValuesWriter writer)
+            throws IOException
+    {
+        return Slices.wrappedBuffer(writer.getBytes().toByteArray());
+    }
+
+    private static int randomInt(Random random, int bitWidth)
+    {
+        return bitWidth == 0 ? 0 : random.nextInt() >>> (Integer.SIZE - bitWidth);
+    }
+
+    private static Slice randomBinary(Random random)
+    {
+        byte[] bytes = new byte[random.nextInt(20)];
+        random.nextBytes(bytes);
+        return Slices.wrappedBuffer(bytes);
+    }
+
+    private static byte[] concat(byte[] first, byte[] second)
+    {
+        byte[] result = new byte[first.length + second.length];
+        System.arraycopy(first, 0, result, 0, first.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
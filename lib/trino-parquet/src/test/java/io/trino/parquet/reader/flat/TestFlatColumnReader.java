@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.reader.flat;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.trino.parquet.DataPage;
+import io.trino.parquet.DataPageV2;
+import io.trino.parquet.DictionaryPage;
+import io.trino.parquet.PrimitiveField;
+import io.trino.parquet.RichColumnDescriptor;
+import io.trino.parquet.reader.ColumnReader;
+import io.trino.parquet.reader.PageReader;
+import io.trino.spi.block.Block;
+import io.trino.spi.block.DictionaryBlock;
+import io.trino.spi.block.VariableWidthBlock;
+import org.apache.parquet.bytes.HeapByteBufferAllocator;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.column.values.plain.PlainValuesWriter;
+import org.apache.parquet.column.values.rle.RunLengthBitPackingHybridEncoder;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalLong;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.parquet.ParquetEncoding.PLAIN_DICTIONARY;
+import static io.trino.parquet.ParquetEncoding.RLE_DICTIONARY;
+import static io.trino.parquet.reader.flat.BinaryColumnAdapter.BINARY_ADAPTER;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.UNCOMPRESSED;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestFlatColumnReader
+{
+    private static final PrimitiveType TYPE = new PrimitiveType(OPTIONAL, BINARY, "name");
+    private static final RichColumnDescriptor DESCRIPTOR = new RichColumnDescriptor(new ColumnDescriptor(new String[] {"name"}, TYPE, 0, 1), TYPE);
+    private static final PrimitiveField FIELD = new PrimitiveField(VARCHAR, 0, 1, false, DESCRIPTOR, 0);
+
+    private static final List<String> DICTIONARY = ImmutableList.of("a", "bb", "ccc");
+    // ids of the dictionary, or -1 for null values, in two pages of five rows
+    private static final int[][] PAGES = {{0, -1, 1, 2, 2}, {-1, -1, 0, 1, 0}};
+
+    @Test
+    public void testDictionaryBlocks()
+            throws IOException
+    {
+        assertBatches(createReader(true), DictionaryBlock.class);
+    }
+
+    @Test
+    public void testWithoutDictionaryBlocks()
+            throws IOException
+    {
+        assertBatches(createReader(false), VariableWidthBlock.class);
+    }
+
+    private static void assertBatches(ColumnReader reader, Class<? extends Block> blockClass)
+    {
+        List<String> expected = new ArrayList<>();
+        for (int[] page : PAGES) {
+            for (int id : page) {
+                expected.add(id == -1 ? null : DICTIONARY.get(id));
+            }
+        }
+
+        // read rows 0 to 3, then skip rows 4 and 5, spanning both pages
+        assertBatch(reader, 0, 4, expected, blockClass);
+        assertBatch(reader, 6, 4, expected, blockClass);
+    }
+
+    private static void assertBatch(ColumnReader reader, int batchStartRow, int batchSize, List<String> expected, Class<? extends Block> blockClass)
+    {
+        reader.prepareNextRead(batchStartRow, batchSize);
+        Block block = reader.readPrimitive(FIELD).getBlock();
+        assertThat(block).isInstanceOf(blockClass);
+        assertEquals(block.getPositionCount(), batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            String value = expected.get(batchStartRow + i);
+            if (value == null) {
+                assertTrue(block.isNull(i));
+            }
+            else {
+                assertEquals(VARCHAR.getSlice(block, i), utf8Slice(value));
+            }
+        }
+    }
+
+    private static ColumnReader createReader(boolean onlyDictionaryEncodedPages)
+            throws IOException
+    {
+        ValuesWriter dictionaryWriter = new PlainValuesWriter(1024, 1024, new HeapByteBufferAllocator());
+        for (String value : DICTIONARY) {
+            dictionaryWriter.writeBytes(Binary.fromString(value));
+        }
+        Slice dictionarySlice = Slices.wrappedBuffer(dictionaryWriter.getBytes().toByteArray());
+        DictionaryPage dictionaryPage = new DictionaryPage(dictionarySlice, DICTIONARY.size(), PLAIN_DICTIONARY);
+
+        List<DataPage> pages = new ArrayList<>();
+        long firstRowIndex = 0;
+        for (int[] page : PAGES) {
+            RunLengthBitPackingHybridEncoder definitionLevels = new RunLengthBitPackingHybridEncoder(1, 1024, 1024, new HeapByteBufferAllocator());
+            RunLengthBitPackingHybridEncoder ids = new RunLengthBitPackingHybridEncoder(2, 1024, 1024, new HeapByteBufferAllocator());
+            for (int id : page) {
+                definitionLevels.writeInt(id == -1 ? 0 : 1);
+                if (id != -1) {
+                    ids.writeInt(id);
+                }
+            }
+            byte[] idBytes = ids.toBytes().toByteArray();
+            byte[] data = new byte[idBytes.length + 1];
+            data[0] = 2;
+            System.arraycopy(idBytes, 0, data, 1, idBytes.length);
+            Slice definitionLevelsSlice = Slices.wrappedBuffer(definitionLevels.toBytes().toByteArray());
+            int nullCount = (int) Arrays.stream(page).filter(id -> id == -1).count();
+
+            pages.add(new DataPageV2(
+                    page.length,
+                    nullCount,
+                    page.length,
+                    Slices.EMPTY_SLICE,
+                    definitionLevelsSlice,
+                    RLE_DICTIONARY,
+                    Slices.wrappedBuffer(data),
+                    data.length + definitionLevelsSlice.length(),
+                    null,
+                    false,
+                    OptionalLong.of(firstRowIndex)));
+            firstRowIndex += page.length;
+        }
+
+        ColumnReader reader = new FlatColumnReader<>(DESCRIPTOR, BINARY_ADAPTER, true);
+        reader.setPageReader(new PageReader(UNCOMPRESSED, pages, dictionaryPage, onlyDictionaryEncodedPages));
+        return reader;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.slice.Slices;
+import io.airlift.units.DataSize;
+import io.trino.parquet.BloomFilter;
+import io.trino.parquet.ParquetDataSource;
+import io.trino.parquet.TestingParquetDataSource;
+import io.trino.parquet.reader.DataSourcePageIndexStore;
+import io.trino.parquet.reader.MetadataReader;
+import io.trino.spi.Page;
+import io.trino.spi.block.BlockBuilder;
+import io.trino.spi.type.Type;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnPath;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.internal.column.columnindex.ColumnIndex;
+import org.apache.parquet.internal.column.columnindex.OffsetIndex;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.parquet.reader.BloomFilterReader.readBloomFilter;
+import static io.trino.spi.type.BigintType.BIGINT;
+import static io.trino.spi.type.DoubleType.DOUBLE;
+import static io.trino.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.max;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetWriter
+{
+    private static final List<String> COLUMN_NAMES = ImmutableList.of("id", "name", "amount");
+    private static final List<Type> TYPES = ImmutableList.of(BIGINT, VARCHAR, DOUBLE);
+    private static final int PAGE_COUNT = 1000;
+    private static final int ROWS_PER_PAGE = 100;
+
+    @Test
+    public void testPageIndexesAndBloomFilters()
+            throws Exception
+    {
+        ParquetSchemaConverter schemaConverter = new ParquetSchemaConverter(TYPES, COLUMN_NAMES);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ExecutorService executor = newFixedThreadPool(3);
+        try {
+            ParquetWriter writer = new ParquetWriter(
+                    output,
+                    schemaConverter.getMessageType(),
+                    schemaConverter.getPrimitiveTypes(),
+                    ParquetWriterOptions.builder()
+                            .setMaxPageSize(DataSize.ofBytes(1000))
+                            .setMaxBlockSize(DataSize.ofBytes(50_000))
+                            .setBloomFilterColumns(ImmutableSet.of("id", "name", "amount"))
+                            .build(),
+                    SNAPPY,
+                    executor);
+            for (int page = 0; page < PAGE_COUNT; page++) {
+                writer.write(createPage(page * ROWS_PER_PAGE));
+            }
+            writer.close();
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        ParquetDataSource dataSource = new TestingParquetDataSource(Slices.wrappedBuffer(output.toByteArray()));
+        ParquetMetadata parquetMetadata = MetadataReader.readFooter(dataSource);
+        List<BlockMetaData> blocks = parquetMetadata.getBlocks();
+        assertThat(blocks).hasSizeGreaterThan(1);
+
+        long firstRow = 0;
+        int maxPageCount = 0;
+        for (BlockMetaData block : blocks) {
+            Set<ColumnPath> columns = ImmutableSet.of(ColumnPath.get("id"), ColumnPath.get("name"), ColumnPath.get("amount"));
+            DataSourcePageIndexStore pageIndexStore = new DataSourcePageIndexStore(dataSource, block, columns, columns);
+            for (ColumnChunkMetaData column : block.getColumns()) {
+                // the pages of the offset index cover the whole column chunk, after the dictionary page
+                OffsetIndex offsetIndex = pageIndexStore.getOffsetIndex(column.getPath()).orElseThrow();
+                int pageCount = offsetIndex.getPageCount();
+                assertThat(pageCount).isGreaterThan(0);
+                maxPageCount = max(maxPageCount, pageCount);
+                assertThat(offsetIndex.getOffset(0)).isGreaterThanOrEqualTo(column.getStartingPos());
+                assertEquals(offsetIndex.getFirstRowIndex(0), 0);
+                for (int page = 1; page < pageCount; page++) {
+                    assertEquals(offsetIndex.getOffset(page), offsetIndex.getOffset(page - 1) + offsetIndex.getCompressedPageSize(page - 1));
+                    assertThat(offsetIndex.getFirstRowIndex(page)).isGreaterThan(offsetIndex.getFirstRowIndex(page - 1));
+                }
+                assertEquals(offsetIndex.getOffset(pageCount - 1) + offsetIndex.getCompressedPageSize(pageCount - 1), column.getStartingPos() + column.getTotalSize());
+                assertThat(offsetIndex.getFirstRowIndex(pageCount - 1)).isLessThan(block.getRowCount());
+
+                ColumnIndex columnIndex = pageIndexStore.getColumnIndex(column.getPath()).orElseThrow();
+                assertEquals(columnIndex.getMinValues().size(), pageCount);
+                assertEquals(columnIndex.getMaxValues().size(), pageCount);
+
+                Optional<BloomFilter> bloomFilter = readBloomFilter(dataSource, column);
+                String columnName = column.getPath().toDotString();
+                if (columnName.equals("amount")) {
+                    // Bloom filters are not used for floating point values
+                    assertThat(bloomFilter).isEmpty();
+                    continue;
+                }
+                assertThat(bloomFilter).isPresent();
+                for (long id = firstRow; id < firstRow + block.getRowCount(); id++) {
+                    if (columnName.equals("id")) {
+                        assertTrue(bloomFilter.get().testLong(id));
+                    }
+                    else {
+                        assertTrue(bloomFilter.get().testSlice(utf8Slice("name " + id)));
+                    }
+                }
+            }
+            firstRow += block.getRowCount();
+        }
+        assertEquals(firstRow, PAGE_COUNT * ROWS_PER_PAGE);
+        assertThat(maxPageCount).isGreaterThan(1);
+    }
+
+    private static Page createPage(long firstId)
+    {
+        BlockBuilder ids = BIGINT.createBlockBuilder(null, ROWS_PER_PAGE);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, ROWS_PER_PAGE);
+        BlockBuilder amounts = DOUBLE.createBlockBuilder(null, ROWS_PER_PAGE);
+        for (long id = firstId; id < firstId + ROWS_PER_PAGE; id++) {
+            BIGINT.writeLong(ids, id);
+            VARCHAR.writeSlice(names, utf8Slice("name " + id));
+            DOUBLE.writeDouble(amounts, id / 10.0);
+        }
+        return new Page(ids.build(), names.build(), amounts.build());
+    }
+}
@@ -13,6 +13,9 @@
  */
 package io.trino.plugin.hive.parquet;
 
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.concurrent.BoundedExecutor;
 import io.trino.parquet.writer.ParquetSchemaConverter;
 import io.trino.parquet.writer.ParquetWriterOptions;
 import io.trino.plugin.hive.FileWriter;
@@ -40,12 +43,21 @@ import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
 
+import static io.trino.parquet.writer.ParquetWriterOptions.DEFAULT_BLOOM_FILTER_FPP;
+import static io.trino.plugin.hive.HiveErrorCode.HIVE_INVALID_METADATA;
 import static io.trino.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
+import static io.trino.plugin.hive.HiveMetadata.PARQUET_BLOOM_FILTER_COLUMNS_KEY;
+import static io.trino.plugin.hive.HiveMetadata.PARQUET_BLOOM_FILTER_FPP_KEY;
 import static io.trino.plugin.hive.HiveSessionProperties.getTimestampPrecision;
 import static io.trino.plugin.hive.util.HiveUtil.getColumnNames;
 import static io.trino.plugin.hive.util.HiveUtil.getColumnTypes;
+import static java.lang.Double.parseDouble;
+import static java.lang.String.format;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -54,14 +66,19 @@ public class ParquetFileWriterFactory
 {
     private final HdfsEnvironment hdfsEnvironment;
     private final TypeManager typeManager;
+    private final Executor columnEncodingExecutor;
 
     @Inject
     public ParquetFileWriterFactory(
             HdfsEnvironment hdfsEnvironment,
-            TypeManager typeManager)
+            TypeManager typeManager,
+            ExecutorService executorService,
+            ParquetWriterConfig parquetWriterConfig)
     {
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
+        requireNonNull(executorService, "executorService is null");
+        this.columnEncodingExecutor = new BoundedExecutor(executorService, parquetWriterConfig.getColumnEncodingThreads());
     }
 
     @Override
@@ -88,6 +105,8 @@ public class ParquetFileWriterFactory
         ParquetWriterOptions parquetWriterOptions = ParquetWriterOptions.builder()
                 .setMaxPageSize(HiveSessionProperties.getParquetWriterPageSize(session))
                 .setMaxBlockSize(HiveSessionProperties.getParquetWriterBlockSize(session))
+                .setBloomFilterColumns(getBloomFilterColumns(schema))
+                .setBloomFilterFpp(getBloomFilterFpp(schema))
                 .build();
 
         CompressionCodecName compressionCodecName = getCompression(conf);
@@ -119,13 +138,42 @@ public class ParquetFileWriterFactory
                     schemaConverter.getPrimitiveTypes(),
                     parquetWriterOptions,
                     fileInputColumnIndexes,
-                    compressionCodecName));
+                    compressionCodecName,
+                    columnEncodingExecutor));
         }
         catch (IOException e) {
             throw new TrinoException(HIVE_WRITER_OPEN_ERROR, "Error creating Parquet file", e);
         }
     }
 
+    private static Set<String> getBloomFilterColumns(Properties schema)
+    {
+        String columns = schema.getProperty(PARQUET_BLOOM_FILTER_COLUMNS_KEY);
+        if (columns == null) {
+            return ImmutableSet.of();
+        }
+        return ImmutableSet.copyOf(Splitter.on(',').trimResults().omitEmptyStrings().split(columns));
+    }
+
+    private static double getBloomFilterFpp(Properties schema)
+    {
+        String fpp = schema.getProperty(PARQUET_BLOOM_FILTER_FPP_KEY);
+        if (fpp == null) {
+            return DEFAULT_BLOOM_FILTER_FPP;
+        }
+        double value;
+        try {
+            value = parseDouble(fpp);
+        }
+        catch (NumberFormatException e) {
+            throw new TrinoException(HIVE_INVALID_METADATA, format("Invalid value for %s property: %s", PARQUET_BLOOM_FILTER_FPP_KEY, fpp), e);
+        }
+        if (value <= 0.0 || value >= 1.0) {
+            throw new TrinoException(HIVE_INVALID_METADATA, format("Invalid value for %s property: %s", PARQUET_BLOOM_FILTER_FPP_KEY, fpp));
+        }
+        return value;
+    }
+
     private static CompressionCodecName getCompression(JobConf configuration)
     {
         String compressionName = configuration.get(ParquetOutputFormat.COMPRESSION);
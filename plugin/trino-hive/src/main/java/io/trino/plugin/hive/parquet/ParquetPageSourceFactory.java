@@ -74,6 +74,7 @@ import static io.trino.parquet.ParquetTypeUtils.getColumnIO;
 import static io.trino.parquet.ParquetTypeUtils.getDescriptors;
 import static io.trino.parquet.ParquetTypeUtils.getParquetTypeByName;
 import static io.trino.parquet.ParquetTypeUtils.lookupColumnByName;
+import static io.trino.parquet.predicate.PredicateUtils.bloomFilterPredicatesMatch;
 import static io.trino.parquet.predicate.PredicateUtils.buildPredicate;
 import static io.trino.parquet.predicate.PredicateUtils.predicateMatches;
 import static io.trino.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
@@ -84,6 +85,8 @@ import static io.trino.plugin.hive.HivePageSourceProvider.projectBaseColumns;
 import static io.trino.plugin.hive.HivePageSourceProvider.projectSufficientColumns;
 import static io.trino.plugin.hive.HiveSessionProperties.getParquetMaxReadBlockSize;
 import static io.trino.plugin.hive.HiveSessionProperties.isParquetIgnoreStatistics;
+import static io.trino.plugin.hive.HiveSessionProperties.isParquetUseBloomFilter;
+import static io.trino.plugin.hive.HiveSessionProperties.isParquetUseColumnIndex;
 import static io.trino.plugin.hive.HiveSessionProperties.isUseParquetColumnNames;
 import static io.trino.plugin.hive.parquet.ParquetColumnIOConverter.constructField;
 import static io.trino.plugin.hive.util.HiveUtil.getDeserializerClassName;
@@ -167,7 +170,9 @@ public class ParquetPageSourceFactory
                 timeZone,
                 stats,
                 options.withIgnoreStatistics(isParquetIgnoreStatistics(session))
-                        .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))));
+                        .withMaxReadBlockSize(getParquetMaxReadBlockSize(session))
+                        .withUseColumnIndex(isParquetUseColumnIndex(session))
+                        .withUseBloomFilter(isParquetUseBloomFilter(session))));
     }
 
     /**
@@ -233,7 +238,8 @@ public class ParquetPageSourceFactory
             for (BlockMetaData block : parquetMetadata.getBlocks()) {
                 long firstDataPage = block.getColumns().get(0).getFirstDataPageOffset();
                 if (start <= firstDataPage && firstDataPage < start + length
-                        && predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
+                        && predicateMatches(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)
+                        && bloomFiltersMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain, options, stats)) {
                     blocks.add(block);
                     blockStarts.add(nextStart);
                 }
@@ -247,7 +253,8 @@ public class ParquetPageSourceFactory
                     dataSource,
                     timeZone,
                     newSimpleAggregatedMemoryContext(),
-                    options);
+                    options,
+                    Optional.of(parquetPredicate));
         }
         catch (Exception e) {
             try {
@@ -311,6 +318,23 @@ public class ParquetPageSourceFactory
         return new ReaderPageSource(parquetPageSource, readerProjections);
     }
 
+    public static boolean bloomFiltersMatch(
+            Predicate parquetPredicate,
+            BlockMetaData block,
+            ParquetDataSource dataSource,
+            Map<List<String>, RichColumnDescriptor> descriptorsByPath,
+            TupleDomain<ColumnDescriptor> parquetTupleDomain,
+            ParquetReaderOptions options,
+            FileFormatDataSourceStats stats)
+            throws ParquetCorruptionException
+    {
+        if (!options.isUseBloomFilter() || bloomFilterPredicatesMatch(parquetPredicate, block, dataSource, descriptorsByPath, parquetTupleDomain)) {
+            return true;
+        }
+        stats.addRowGroupSkippedByBloomFilter();
+        return false;
+    }
+
     public static Optional<org.apache.parquet.schema.Type> getParquetType(GroupType groupType, boolean useParquetColumnNames, HiveColumnHandle column)
     {
         if (useParquetColumnNames) {
@@ -90,6 +90,32 @@ public class ParquetReaderConfig
         return this;
     }
 
+    public boolean isUseColumnIndex()
+    {
+        return options.isUseColumnIndex();
+    }
+
+    @Config("parquet.use-column-index")
+    @ConfigDescription("Use the page index of Parquet files to skip pages that do not match the predicate")
+    public ParquetReaderConfig setUseColumnIndex(boolean useColumnIndex)
+    {
+        options = options.withUseColumnIndex(useColumnIndex);
+        return this;
+    }
+
+    public boolean isUseBloomFilter()
+    {
+        return options.isUseBloomFilter();
+    }
+
+    @Config("parquet.use-bloom-filter")
+    @ConfigDescription("Use the Bloom filters of Parquet files to skip row groups that do not match the predicate")
+    public ParquetReaderConfig setUseBloomFilter(boolean useBloomFilter)
+    {
+        options = options.withUseBloomFilter(useBloomFilter);
+        return this;
+    }
+
     public ParquetReaderOptions toParquetReaderOptions()
     {
         return options;
@@ -20,12 +20,15 @@ import io.airlift.units.DataSize;
 import io.trino.parquet.writer.ParquetWriterOptions;
 import org.apache.parquet.hadoop.ParquetWriter;
 
+import javax.validation.constraints.Min;
+
 public class ParquetWriterConfig
 {
     private boolean parquetOptimizedWriterEnabled;
 
     private DataSize blockSize = DataSize.ofBytes(ParquetWriter.DEFAULT_BLOCK_SIZE);
     private DataSize pageSize = DataSize.ofBytes(ParquetWriter.DEFAULT_PAGE_SIZE);
+    private int columnEncodingThreads = Runtime.getRuntime().availableProcessors();
 
     public DataSize getBlockSize()
     {
@@ -53,6 +56,20 @@ public class ParquetWriterConfig
         return this;
     }
 
+    @Min(1)
+    public int getColumnEncodingThreads()
+    {
+        return columnEncodingThreads;
+    }
+
+    @Config("parquet.writer.column-encoding-threads")
+    @ConfigDescription("Maximum number of threads used to encode the columns of Parquet row groups in parallel")
+    public ParquetWriterConfig setColumnEncodingThreads(int columnEncodingThreads)
+    {
+        this.columnEncodingThreads = columnEncodingThreads;
+        return this;
+    }
+
     public boolean isParquetOptimizedWriterEnabled()
     {
         return parquetOptimizedWriterEnabled;
@@ -1641,6 +1641,27 @@ public class TestHiveConnectorTest
         assertUpdate("DROP TABLE test_show_properties");
     }
 
+    @Test
+    public void testParquetBloomFilterProperties()
+    {
+        Session session = Session.builder(getSession())
+                .setCatalogSessionProperty(getSession().getCatalog().get(), "experimental_parquet_optimized_writer_enabled", "true")
+                .build();
+        assertUpdate(
+                session,
+                "CREATE TABLE test_parquet_bloom_filter " +
+                        "WITH (format = 'PARQUET', parquet_bloom_filter_columns = ARRAY['order_key', 'order_status'], parquet_bloom_filter_fpp = 0.1) " +
+                        "AS SELECT orderkey AS order_key, orderstatus AS order_status FROM tpch.tiny.orders",
+                "SELECT count(*) FROM orders");
+        assertThat((String) computeActual("SHOW CREATE TABLE test_parquet_bloom_filter").getOnlyValue())
+                .contains("parquet_bloom_filter_columns = ARRAY['order_key','order_status']")
+                .contains("parquet_bloom_filter_fpp = 1E-1");
+
+        assertQuery("SELECT order_status FROM test_parquet_bloom_filter WHERE order_key = 7", "SELECT orderstatus FROM orders WHERE orderkey = 7");
+        assertQuery("SELECT count(*) FROM test_parquet_bloom_filter WHERE order_key IN (7, -1) AND order_status = 'O'", "SELECT count(*) FROM orders WHERE orderkey = 7 AND orderstatus = 'O'");
+        assertUpdate("DROP TABLE test_parquet_bloom_filter");
+    }
+
     @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "Partition keys must be the last columns in the table and in the same order as the table properties.*")
     public void testCreatePartitionedTableInvalidColumnOrdering()
     {
@@ -3768,6 +3789,10 @@ public class TestHiveConnectorTest
         assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'TEXTFILE', orc_bloom_filter_columns = ARRAY['col1'])"))
                 .hasMessageMatching("Cannot specify orc_bloom_filter_columns table property for storage format: TEXTFILE");
 
+        // Parquet
+        assertThatThrownBy(() -> assertUpdate("CREATE TABLE invalid_table (col1 bigint) WITH (format = 'ORC', parquet_bloom_filter_columns = ARRAY['col1'])"))
+                .hasMessageMatching("Cannot specify parquet_bloom_filter_columns table property for storage format: ORC");
+
         // TEXTFILE
         assertThatThrownBy(() -> assertUpdate("CREATE TABLE test_orc_skip_header (col1 bigint) WITH (format = 'ORC', skip_header_line_count = 1)"))
                 .hasMessageMatching("Cannot specify skip_header_line_count table property for storage format: ORC");
@@ -54,6 +54,7 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.trino.orc.OrcWriteValidation.OrcWriteValidationMode.BOTH;
 import static io.trino.plugin.hive.HiveTestUtils.TYPE_MANAGER;
 import static io.trino.plugin.hive.HiveTestUtils.createGenericHiveRecordCursorProvider;
@@ -305,7 +306,8 @@ public final class StandardFileFormats
                     schemaConverter.getMessageType(),
                     schemaConverter.getPrimitiveTypes(),
                     ParquetWriterOptions.builder().build(),
-                    compressionCodec.getParquetCompressionCodec());
+                    compressionCodec.getParquetCompressionCodec(),
+                    directExecutor());
         }
 
         @Override
@@ -132,15 +132,19 @@ import static io.trino.plugin.iceberg.IcebergMaterializedViewDefinition.encodeMa
 import static io.trino.plugin.iceberg.IcebergMaterializedViewDefinition.fromConnectorMaterializedViewDefinition;
 import static io.trino.plugin.iceberg.IcebergSchemaProperties.getSchemaLocation;
 import static io.trino.plugin.iceberg.IcebergTableProperties.FILE_FORMAT_PROPERTY;
+import static io.trino.plugin.iceberg.IcebergTableProperties.PARQUET_BLOOM_FILTER_COLUMNS_PROPERTY;
 import static io.trino.plugin.iceberg.IcebergTableProperties.PARTITIONING_PROPERTY;
 import static io.trino.plugin.iceberg.IcebergTableProperties.getFileFormat;
+import static io.trino.plugin.iceberg.IcebergTableProperties.getParquetBloomFilterColumns;
 import static io.trino.plugin.iceberg.IcebergTableProperties.getPartitioning;
 import static io.trino.plugin.iceberg.IcebergTableProperties.getTableLocation;
+import static io.trino.plugin.iceberg.IcebergUtil.PARQUET_BLOOM_FILTER_COLUMN_ENABLED_PREFIX;
 import static io.trino.plugin.iceberg.IcebergUtil.deserializePartitionValue;
 import static io.trino.plugin.iceberg.IcebergUtil.getColumns;
 import static io.trino.plugin.iceberg.IcebergUtil.getDataPath;
 import static io.trino.plugin.iceberg.IcebergUtil.getFileFormat;
 import static io.trino.plugin.iceberg.IcebergUtil.getIcebergTableWithMetadata;
+import static io.trino.plugin.iceberg.IcebergUtil.getParquetBloomFilterColumnsFromStorageProperties;
 import static io.trino.plugin.iceberg.IcebergUtil.getPartitionKeys;
 import static io.trino.plugin.iceberg.IcebergUtil.getTableComment;
 import static io.trino.plugin.iceberg.IcebergUtil.isIcebergTable;
@@ -152,6 +156,7 @@ import static io.trino.plugin.iceberg.TypeConverter.toIcebergType;
 import static io.trino.plugin.iceberg.TypeConverter.toTrinoType;
 import static io.trino.spi.StandardErrorCode.ALREADY_EXISTS;
 import static io.trino.spi.StandardErrorCode.INVALID_SCHEMA_PROPERTY;
+import static io.trino.spi.StandardErrorCode.INVALID_TABLE_PROPERTY;
 import static io.trino.spi.StandardErrorCode.NOT_SUPPORTED;
 import static io.trino.spi.StandardErrorCode.SCHEMA_NOT_EMPTY;
 import static io.trino.spi.type.BigintType.BIGINT;
@@ -554,12 +559,27 @@ public class IcebergMetadata
             throw new TableAlreadyExistsException(schemaTableName);
         }
 
-        ImmutableMap.Builder<String, String> propertiesBuilder = ImmutableMap.builderWithExpectedSize(2);
+        ImmutableMap.Builder<String, String> propertiesBuilder = ImmutableMap.builder();
         FileFormat fileFormat = getFileFormat(tableMetadata.getProperties());
         propertiesBuilder.put(DEFAULT_FILE_FORMAT, fileFormat.toString());
         if (tableMetadata.getComment().isPresent()) {
             propertiesBuilder.put(TABLE_COMMENT, tableMetadata.getComment().get());
         }
+        List<String> parquetBloomFilterColumns = getParquetBloomFilterColumns(tableMetadata.getProperties());
+        if (!parquetBloomFilterColumns.isEmpty()) {
+            if (fileFormat != FileFormat.PARQUET) {
+                throw new TrinoException(INVALID_TABLE_PROPERTY, String.format("Cannot specify %s table property for file format: %s", PARQUET_BLOOM_FILTER_COLUMNS_PROPERTY, fileFormat));
+            }
+            Set<String> columnNames = tableMetadata.getColumns().stream()
+                    .map(ColumnMetadata::getName)
+                    .collect(toImmutableSet());
+            for (String column : parquetBloomFilterColumns) {
+                if (!columnNames.contains(column)) {
+                    throw new TrinoException(INVALID_TABLE_PROPERTY, String.format("Parquet Bloom filter column %s not present in schema", column));
+                }
+                propertiesBuilder.put(PARQUET_BLOOM_FILTER_COLUMN_ENABLED_PREFIX + column, "true");
+            }
+        }
 
         TableMetadata metadata = newTableMetadata(schema, partitionSpec, targetPath, propertiesBuilder.build());
 
@@ -572,7 +592,8 @@ public class IcebergMetadata
                 PartitionSpecParser.toJson(metadata.spec()),
                 getColumns(metadata.schema(), typeManager),
                 targetPath,
-                fileFormat);
+                fileFormat,
+                metadata.properties());
     }
 
     @Override
@@ -596,7 +617,8 @@ public class IcebergMetadata
                 PartitionSpecParser.toJson(icebergTable.spec()),
                 getColumns(icebergTable.schema(), typeManager),
                 getDataPath(icebergTable.location()),
-                getFileFormat(icebergTable));
+                getFileFormat(icebergTable),
+                icebergTable.properties());
     }
 
     @Override
@@ -640,6 +662,13 @@ public class IcebergMetadata
                 .collect(toImmutableList())));
     }
 
+    @Override
+    public boolean supportsWriteRetries()
+    {
+        // data files are only added to the table for the fragments passed to finishInsert
+        return true;
+    }
+
     @Override
     public ColumnHandle getDeleteRowIdColumnHandle(ConnectorSession session, ConnectorTableHandle tableHandle)
     {
@@ -653,6 +682,16 @@ public class IcebergMetadata
         return Optional.of(new IcebergInputInfo(table.getSnapshotId()));
     }
 
+    @Override
+    public Optional<String> getTableVersionToken(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        IcebergTableHandle table = (IcebergTableHandle) tableHandle;
+        // all data is read from the snapshot that was current when the handle was created
+        return Optional.of(table.getSnapshotId()
+                .map(String::valueOf)
+                .orElse("empty"));
+    }
+
     @Override
     public void dropTable(ConnectorSession session, ConnectorTableHandle tableHandle)
     {
@@ -708,6 +747,10 @@ public class IcebergMetadata
         if (!icebergTable.spec().fields().isEmpty()) {
             properties.put(PARTITIONING_PROPERTY, toPartitionFields(icebergTable.spec()));
         }
+        List<String> parquetBloomFilterColumns = getParquetBloomFilterColumnsFromStorageProperties(icebergTable.properties());
+        if (!parquetBloomFilterColumns.isEmpty()) {
+            properties.put(PARQUET_BLOOM_FILTER_COLUMNS_PROPERTY, parquetBloomFilterColumns);
+        }
 
         return new ConnectorTableMetadata(table, columns, properties.build(), getTableComment(icebergTable));
     }
@@ -963,7 +1006,8 @@ public class IcebergMetadata
                 PartitionSpecParser.toJson(icebergTable.spec()),
                 getColumns(icebergTable.schema(), typeManager),
                 getDataPath(icebergTable.location()),
-                getFileFormat(icebergTable));
+                getFileFormat(icebergTable),
+                icebergTable.properties());
     }
 
     @Override
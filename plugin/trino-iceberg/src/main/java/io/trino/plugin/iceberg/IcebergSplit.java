@@ -24,6 +24,7 @@ import org.apache.iceberg.FileFormat;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -117,6 +118,13 @@ public class IcebergSplit
                 .build();
     }
 
+    @Override
+    public Optional<String> getCacheIdentifier()
+    {
+        // data files are immutable, so the path and the range identify the rows of the split
+        return Optional.of(path + ":" + start + ":" + length);
+    }
+
     @Override
     public String toString()
     {
@@ -86,6 +86,9 @@ import static org.apache.iceberg.types.Type.TypeID.FIXED;
 
 final class IcebergUtil
 {
+    // Same key as the table property of later Iceberg versions, so that their Parquet writers honor it too
+    public static final String PARQUET_BLOOM_FILTER_COLUMN_ENABLED_PREFIX = "write.parquet.bloom-filter-enabled.column.";
+
     private static final Pattern SIMPLE_NAME = Pattern.compile("[a-z][a-z0-9]*");
 
     private IcebergUtil() {}
@@ -179,6 +182,15 @@ final class IcebergUtil
         return Optional.ofNullable(table.properties().get(TABLE_COMMENT));
     }
 
+    public static List<String> getParquetBloomFilterColumnsFromStorageProperties(Map<String, String> properties)
+    {
+        return properties.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(PARQUET_BLOOM_FILTER_COLUMN_ENABLED_PREFIX) && Boolean.parseBoolean(entry.getValue()))
+                .map(entry -> entry.getKey().substring(PARQUET_BLOOM_FILTER_COLUMN_ENABLED_PREFIX.length()))
+                .sorted()
+                .collect(toImmutableList());
+    }
+
     private static String quotedTableName(SchemaTableName name)
     {
         return quotedName(name.getSchemaName()) + "." + quotedName(name.getTableName());
@@ -13,7 +13,10 @@
  */
 package io.trino.plugin.iceberg;
 
+import org.testng.annotations.Test;
+
 import static org.apache.iceberg.FileFormat.PARQUET;
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class TestIcebergParquetConnectorTest
         extends AbstractTestIcebergConnectorTest
@@ -22,4 +25,23 @@ public class TestIcebergParquetConnectorTest
     {
         super(PARQUET);
     }
+
+    @Test
+    public void testParquetBloomFilterColumns()
+    {
+        assertUpdate("CREATE TABLE test_parquet_bloom_filter WITH (parquet_bloom_filter_columns = ARRAY['orderkey', 'ORDERSTATUS']) AS " +
+                "SELECT orderkey, orderstatus, totalprice FROM orders", "SELECT count(*) FROM orders");
+
+        assertThat((String) computeActual("SHOW CREATE TABLE test_parquet_bloom_filter").getOnlyValue())
+                .contains("parquet_bloom_filter_columns = ARRAY['orderkey','orderstatus']");
+        assertQuery("SELECT orderstatus, totalprice FROM test_parquet_bloom_filter WHERE orderkey = 7", "SELECT orderstatus, totalprice FROM orders WHERE orderkey = 7");
+        assertQuery("SELECT count(*) FROM test_parquet_bloom_filter WHERE orderstatus = 'F'", "SELECT count(*) FROM orders WHERE orderstatus = 'F'");
+
+        assertUpdate("DROP TABLE test_parquet_bloom_filter");
+
+        assertQueryFails("CREATE TABLE test_parquet_bloom_filter (x bigint) WITH (parquet_bloom_filter_columns = ARRAY['y'])",
+                "Parquet Bloom filter column y not present in schema");
+        assertQueryFails("CREATE TABLE test_parquet_bloom_filter (x bigint) WITH (format = 'ORC', parquet_bloom_filter_columns = ARRAY['x'])",
+                "Cannot specify parquet_bloom_filter_columns table property for file format: ORC");
+    }
 }
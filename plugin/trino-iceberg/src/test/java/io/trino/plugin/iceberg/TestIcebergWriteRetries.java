@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.plugin.iceberg;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.trino.Session;
+import io.trino.spi.Plugin;
+import io.trino.spi.TrinoException;
+import io.trino.spi.function.Description;
+import io.trino.spi.function.ScalarFunction;
+import io.trino.spi.function.SqlType;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.DistributedQueryRunner;
+import io.trino.testing.QueryRunner;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.trino.SystemSessionProperties.RETRY_POLICY;
+import static io.trino.SystemSessionProperties.TASK_RETRY_ATTEMPTS;
+import static io.trino.plugin.iceberg.IcebergQueryRunner.createIcebergQueryRunner;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spi.type.StandardTypes.BIGINT;
+import static io.trino.tpch.TpchTable.ORDERS;
+
+@Test(singleThreaded = true)
+public class TestIcebergWriteRetries
+        extends AbstractTestQueryFramework
+{
+    // number of rows that still fail when passed to inject_failure
+    private static final AtomicLong remainingFailures = new AtomicLong();
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        DistributedQueryRunner queryRunner = createIcebergQueryRunner(ImmutableMap.of(), ImmutableList.of(ORDERS));
+        queryRunner.installPlugin(new FailureInjectionPlugin());
+        return queryRunner;
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetFailures()
+    {
+        remainingFailures.set(0);
+    }
+
+    @Test
+    public void testRetryCreateTableAsSelect()
+    {
+        remainingFailures.set(1);
+        assertUpdate(retrySession(), "CREATE TABLE test_retry_ctas AS SELECT inject_failure(orderkey) orderkey FROM orders", "SELECT count(*) FROM orders");
+        // the data written by the failed task is not part of the table
+        assertQuery("SELECT count(*), count(DISTINCT orderkey) FROM test_retry_ctas", "SELECT count(*), count(*) FROM orders");
+        assertUpdate("DROP TABLE test_retry_ctas");
+    }
+
+    @Test
+    public void testRetryInsert()
+    {
+        assertUpdate("CREATE TABLE test_retry_insert (orderkey bigint)");
+        assertUpdate("INSERT INTO test_retry_insert VALUES -1", 1);
+
+        remainingFailures.set(1);
+        assertUpdate(retrySession(), "INSERT INTO test_retry_insert SELECT inject_failure(orderkey) FROM orders", "SELECT count(*) FROM orders");
+        assertQuery("SELECT count(*), count(DISTINCT orderkey) FROM test_retry_insert", "SELECT count(*) + 1, count(*) + 1 FROM orders");
+        assertUpdate("DROP TABLE test_retry_insert");
+    }
+
+    @Test
+    public void testNoRetryByDefault()
+    {
+        assertUpdate("CREATE TABLE test_no_retry_insert (orderkey bigint)");
+
+        remainingFailures.set(1);
+        assertQueryFails("INSERT INTO test_no_retry_insert SELECT inject_failure(orderkey) FROM orders", "Injected failure");
+        assertQuery("SELECT count(*) FROM test_no_retry_insert", "VALUES 0");
+        assertUpdate("DROP TABLE test_no_retry_insert");
+    }
+
+    private Session retrySession()
+    {
+        return Session.builder(getSession())
+                .setSystemProperty(RETRY_POLICY, "TASK")
+                .setSystemProperty(TASK_RETRY_ATTEMPTS, "4")
+                .build();
+    }
+
+    public static class FailureInjectionPlugin
+            implements Plugin
+    {
+        @Override
+        public Set<Class<?>> getFunctions()
+        {
+            return ImmutableSet.of(FailureInjectionFunctions.class);
+        }
+    }
+
+    public static class FailureInjectionFunctions
+    {
+        private FailureInjectionFunctions() {}
+
+        @Description("Returns the value, or fails while failures are being injected")
+        @ScalarFunction(value = "inject_failure", deterministic = false)
+        @SqlType(BIGINT)
+        public static long injectFailure(@SqlType(BIGINT) long value)
+        {
+            if (remainingFailures.getAndDecrement() > 0) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Injected failure");
+            }
+            return value;
+        }
+    }
+}
@@ -517,6 +517,13 @@ public class TpchMetadata
                 false));
     }
 
+    @Override
+    public Optional<String> getTableVersionToken(ConnectorSession session, ConnectorTableHandle table)
+    {
+        // the data is generated from the scale factor and never changes
+        return Optional.of(String.valueOf(((TpchTableHandle) table).getScaleFactor()));
+    }
+
     @Override
     public Optional<TableScanRedirectApplicationResult> applyTableScanRedirect(ConnectorSession session, ConnectorTableHandle table)
     {
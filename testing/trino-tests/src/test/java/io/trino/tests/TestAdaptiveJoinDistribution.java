@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import io.trino.Session;
+import io.trino.execution.JoinDistributionSwitch;
+import io.trino.plugin.memory.MemoryPlugin;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.DistributedQueryRunner;
+import io.trino.testing.MaterializedResult;
+import io.trino.testing.QueryRunner;
+import io.trino.testing.ResultWithQueryId;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.intellij.lang.annotations.Language;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+import static io.trino.SystemSessionProperties.ADAPTIVE_JOIN_DISTRIBUTION_ENABLED;
+import static io.trino.SystemSessionProperties.ADAPTIVE_JOIN_MAX_BROADCAST_BUILD_SIZE;
+import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static io.trino.sql.analyzer.FeaturesConfig.JoinDistributionType.BROADCAST;
+import static io.trino.sql.analyzer.FeaturesConfig.JoinReorderingStrategy.NONE;
+import static io.trino.testing.QueryAssertions.assertEqualsIgnoreOrder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestAdaptiveJoinDistribution
+        extends AbstractTestQueryFramework
+{
+    @Language("SQL")
+    private static final String QUERY = "SELECT l.orderkey, o.orderstatus, count(*) FROM lineitem l JOIN orders o ON l.orderkey = o.orderkey GROUP BY l.orderkey, o.orderstatus";
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        DistributedQueryRunner queryRunner = TpchQueryRunnerBuilder.builder().build();
+        queryRunner.installPlugin(new MemoryPlugin());
+        queryRunner.createCatalog("memory", "memory");
+        return queryRunner;
+    }
+
+    @Test
+    public void testSwitchToPartitioned()
+    {
+        List<JoinDistributionSwitch> switches = assertQueryWithSwitches(adaptiveJoinSession("1kB"), QUERY);
+        assertEquals(switches.size(), 1);
+    }
+
+    @Test
+    public void testBuildSideWithinLimit()
+    {
+        List<JoinDistributionSwitch> switches = assertQueryWithSwitches(adaptiveJoinSession("1GB"), QUERY);
+        assertTrue(switches.isEmpty());
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        Session session = Session.builder(adaptiveJoinSession("1kB"))
+                .setSystemProperty(ADAPTIVE_JOIN_DISTRIBUTION_ENABLED, "false")
+                .build();
+        List<JoinDistributionSwitch> switches = assertQueryWithSwitches(session, QUERY);
+        assertTrue(switches.isEmpty());
+    }
+
+    @Test
+    public void testWriteQueryKeepsBroadcastJoin()
+    {
+        // a write query is never executed again, so its broadcast joins are not limited
+        ResultWithQueryId<MaterializedResult> result = getDistributedQueryRunner().executeWithQueryId(
+                adaptiveJoinSession("1kB"),
+                "CREATE TABLE memory.default.adaptive_join_ctas AS " + QUERY);
+        assertEquals(result.getResult().getOnlyValue(), computeScalar("SELECT count(DISTINCT orderkey) FROM lineitem"));
+        assertTrue(getJoinDistributionSwitches(result).isEmpty());
+        assertUpdate("DROP TABLE memory.default.adaptive_join_ctas");
+    }
+
+    private List<JoinDistributionSwitch> assertQueryWithSwitches(Session session, @Language("SQL") String sql)
+    {
+        ResultWithQueryId<MaterializedResult> result = getDistributedQueryRunner().executeWithQueryId(session, sql);
+        MaterializedResult expected = computeExpected(sql, result.getResult().getTypes());
+        assertEqualsIgnoreOrder(result.getResult(), expected, "For query: \n " + sql);
+        return getJoinDistributionSwitches(result);
+    }
+
+    private List<JoinDistributionSwitch> getJoinDistributionSwitches(ResultWithQueryId<MaterializedResult> result)
+    {
+        return getDistributedQueryRunner().getCoordinator().getQueryManager()
+                .getFullQueryInfo(result.getQueryId())
+                .getQueryStats()
+                .getJoinDistributionSwitches();
+    }
+
+    private Session adaptiveJoinSession(String maxBroadcastBuildSize)
+    {
+        return Session.builder(getSession())
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, BROADCAST.name())
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, NONE.name())
+                .setSystemProperty(ADAPTIVE_JOIN_DISTRIBUTION_ENABLED, "true")
+                .setSystemProperty(ADAPTIVE_JOIN_MAX_BROADCAST_BUILD_SIZE, maxBroadcastBuildSize)
+                .build();
+    }
+}
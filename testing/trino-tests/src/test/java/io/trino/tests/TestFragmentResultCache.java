@@ -0,0 +1,118 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import com.google.inject.Key;
+import io.trino.Session;
+import io.trino.operator.FragmentResultCache;
+import io.trino.server.testing.TestingTrinoServer;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.MaterializedResult;
+import io.trino.testing.QueryRunner;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.testng.annotations.Test;
+
+import static io.trino.SystemSessionProperties.FRAGMENT_RESULT_CACHE_ENABLED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestFragmentResultCache
+        extends AbstractTestQueryFramework
+{
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        return TpchQueryRunnerBuilder.builder()
+                .addExtraProperty("memory.fragment-result-cache-per-node", "64MB")
+                .setSingleCoordinatorProperty("query.fragment-result-cache.enabled", "true")
+                .build();
+    }
+
+    @Test
+    public void testRepeatedFragmentIsAnsweredFromCache()
+    {
+        String sql = "SELECT orderstatus, count(*), sum(totalprice) FROM orders WHERE orderpriority <> '1-URGENT' GROUP BY orderstatus";
+
+        long hits = getHits();
+        MaterializedResult first = computeActual(sql);
+        assertEquals(getHits(), hits);
+
+        MaterializedResult second = computeActual(sql);
+        assertTrue(getHits() > hits, "expected cached splits");
+        assertEquals(second.getMaterializedRows(), first.getMaterializedRows());
+        assertQuery(sql);
+    }
+
+    @Test
+    public void testDifferentFragmentIsNotAnsweredFromCache()
+    {
+        assertQuery("SELECT count(*) FROM lineitem WHERE quantity > 10");
+
+        long hits = getHits();
+        assertQuery("SELECT count(*) FROM lineitem WHERE quantity > 20");
+        assertEquals(getHits(), hits);
+    }
+
+    @Test
+    public void testNondeterministicFragmentIsNotCached()
+    {
+        String sql = "SELECT count(*) FROM customer WHERE rand() < 2";
+
+        long hits = getHits();
+        long misses = getMisses();
+        assertQuery(sql, "SELECT count(*) FROM customer");
+        assertQuery(sql, "SELECT count(*) FROM customer");
+        assertEquals(getHits(), hits);
+        assertEquals(getMisses(), misses);
+    }
+
+    @Test
+    public void testDisabledBySession()
+    {
+        String sql = "SELECT max(partkey) FROM partsupp WHERE availqty > 100";
+        Session session = Session.builder(getSession())
+                .setSystemProperty(FRAGMENT_RESULT_CACHE_ENABLED, "false")
+                .build();
+
+        long hits = getHits();
+        long misses = getMisses();
+        computeActual(session, sql);
+        computeActual(session, sql);
+        assertEquals(getHits(), hits);
+        assertEquals(getMisses(), misses);
+    }
+
+    private long getHits()
+    {
+        return getDistributedQueryRunner().getServers().stream()
+                .map(TestFragmentResultCache::getCache)
+                .mapToLong(cache -> cache.getHits().getTotalCount())
+                .sum();
+    }
+
+    private long getMisses()
+    {
+        return getDistributedQueryRunner().getServers().stream()
+                .map(TestFragmentResultCache::getCache)
+                .mapToLong(cache -> cache.getMisses().getTotalCount())
+                .sum();
+    }
+
+    private static FragmentResultCache getCache(TestingTrinoServer server)
+    {
+        return server.getInstance(Key.get(FragmentResultCache.class));
+    }
+}
@@ -13,13 +13,20 @@
  */
 package io.trino.tests;
 
+import io.trino.Session;
 import io.trino.execution.DynamicFilterConfig;
+import io.trino.sql.planner.plan.MergeJoinNode;
 import io.trino.testing.AbstractTestJoinQueries;
 import io.trino.testing.QueryRunner;
 import io.trino.tests.tpch.TpchQueryRunnerBuilder;
 import org.testng.annotations.Test;
 
 import static com.google.common.base.Verify.verify;
+import static io.trino.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
+import static io.trino.SystemSessionProperties.JOIN_REORDERING_STRATEGY;
+import static io.trino.SystemSessionProperties.MERGE_JOIN_ENABLED;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static org.testng.Assert.assertTrue;
 
 /**
  * @see TestJoinQueriesWithoutDynamicFiltering for tests with dynamic filtering disabled
@@ -42,4 +49,27 @@ public class TestJoinQueries
                 "SHOW SESSION LIKE 'enable_dynamic_filtering'",
                 "VALUES ('enable_dynamic_filtering', 'true', 'true', 'boolean', 'Enable dynamic filtering')");
     }
+
+    @Test
+    public void testMergeJoinOfSortedInputs()
+    {
+        Session session = Session.builder(getSession())
+                .setSystemProperty(MERGE_JOIN_ENABLED, "true")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, "BROADCAST")
+                .setSystemProperty(JOIN_REORDERING_STRATEGY, "NONE")
+                .build();
+
+        String innerJoin = "SELECT l.orderkey, l.linenumber, l.quantity, o.totalprice " +
+                "FROM (SELECT orderkey, linenumber, quantity FROM lineitem ORDER BY orderkey, linenumber LIMIT 1000) l " +
+                "JOIN (SELECT orderkey, totalprice FROM orders ORDER BY orderkey LIMIT 1000) o " +
+                "ON l.orderkey = o.orderkey";
+        assertQuery(session, innerJoin, innerJoin, plan -> assertTrue(searchFrom(plan.getRoot()).where(MergeJoinNode.class::isInstance).matches()));
+
+        // only some of the lineitem rows have a matching order
+        String leftJoin = "SELECT l.orderkey, l.linenumber, l.quantity, o.totalprice " +
+                "FROM (SELECT orderkey, linenumber, quantity FROM lineitem ORDER BY orderkey, linenumber LIMIT 1000) l " +
+                "LEFT JOIN (SELECT orderkey, totalprice FROM orders ORDER BY orderkey LIMIT 100) o " +
+                "ON l.orderkey = o.orderkey";
+        assertQuery(session, leftJoin, leftJoin, plan -> assertTrue(searchFrom(plan.getRoot()).where(MergeJoinNode.class::isInstance).matches()));
+    }
 }
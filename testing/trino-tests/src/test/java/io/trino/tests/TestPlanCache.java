@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import com.google.common.collect.ImmutableMap;
+import io.trino.Session;
+import io.trino.execution.QueryManagerStats;
+import io.trino.plugin.memory.MemoryPlugin;
+import io.trino.plugin.tpch.TpchColumnHandle;
+import io.trino.plugin.tpch.TpchTableHandle;
+import io.trino.spi.connector.ColumnHandle;
+import io.trino.spi.predicate.Domain;
+import io.trino.spi.predicate.TupleDomain;
+import io.trino.sql.planner.Plan;
+import io.trino.sql.planner.plan.FilterNode;
+import io.trino.sql.planner.plan.TableScanNode;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.DistributedQueryRunner;
+import io.trino.testing.MaterializedResult;
+import io.trino.testing.QueryRunner;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.testng.annotations.Test;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.trino.SystemSessionProperties.PLAN_CACHE_ENABLED;
+import static io.trino.spi.type.VarcharType.createVarcharType;
+import static io.trino.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+@Test(singleThreaded = true)
+public class TestPlanCache
+        extends AbstractTestQueryFramework
+{
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        DistributedQueryRunner queryRunner = TpchQueryRunnerBuilder.builder()
+                .setSingleCoordinatorProperty("query.plan-cache.enabled", "true")
+                .build();
+        queryRunner.installPlugin(new MemoryPlugin());
+        queryRunner.createCatalog("memory", "memory");
+        return queryRunner;
+    }
+
+    @Test
+    public void testRepeatedExecuteReusesPlan()
+    {
+        Session session = prepare("SELECT orderstatus, count(*) FROM orders WHERE orderpriority = ? GROUP BY orderstatus");
+
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        MaterializedResult first = computeActual(session, "EXECUTE my_query USING '1-URGENT'");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits);
+
+        MaterializedResult second = computeActual(session, "EXECUTE my_query USING '1-URGENT'");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+        assertEquals(second.getMaterializedRows(), first.getMaterializedRows());
+        assertQuery(session, "EXECUTE my_query USING '1-URGENT'", "SELECT orderstatus, count(*) FROM orders WHERE orderpriority = '1-URGENT' GROUP BY orderstatus");
+    }
+
+    @Test
+    public void testDifferentParametersReusePlan()
+    {
+        Session session = prepare("SELECT sum(quantity * ?) FROM lineitem WHERE quantity > 10");
+
+        assertQuery(session, "EXECUTE my_query USING 2", "SELECT sum(quantity * 2) FROM lineitem WHERE quantity > 10");
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        assertQuery(session, "EXECUTE my_query USING 3", "SELECT sum(quantity * 3) FROM lineitem WHERE quantity > 10");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+        assertQuery(session, "EXECUTE my_query USING 4", "SELECT sum(quantity * 4) FROM lineitem WHERE quantity > 10");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 2);
+    }
+
+    @Test
+    public void testPredicateParametersArePushedIntoTableScan()
+    {
+        Session session = prepare("SELECT count(*) FROM orders WHERE orderstatus = ?");
+
+        assertQuery(session, "EXECUTE my_query USING 'F'", "SELECT count(*) FROM orders WHERE orderstatus = 'F'", plan -> assertOrderStatusPushedDown(plan, "F"));
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        assertQuery(session, "EXECUTE my_query USING 'F'", "SELECT count(*) FROM orders WHERE orderstatus = 'F'", plan -> assertOrderStatusPushedDown(plan, "F"));
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+
+        // the value of the predicate is part of the key, so a different value is planned again
+        assertQuery(session, "EXECUTE my_query USING 'O'", "SELECT count(*) FROM orders WHERE orderstatus = 'O'", plan -> assertOrderStatusPushedDown(plan, "O"));
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+        assertQuery(session, "EXECUTE my_query USING 'O'", "SELECT count(*) FROM orders WHERE orderstatus = 'O'", plan -> assertOrderStatusPushedDown(plan, "O"));
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 2);
+    }
+
+    @Test
+    public void testParameterEvaluatedDuringAnalysis()
+    {
+        Session session = prepare("SELECT name, regionkey + ? FROM nation ORDER BY name LIMIT ?");
+
+        assertQuery(session, "EXECUTE my_query USING 1, 3", "SELECT name, regionkey + 1 FROM nation ORDER BY name LIMIT 3");
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+
+        // the row count is planned as a value, so a different row count is planned again
+        assertQuery(session, "EXECUTE my_query USING 1, 5", "SELECT name, regionkey + 1 FROM nation ORDER BY name LIMIT 5");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits);
+
+        assertQuery(session, "EXECUTE my_query USING 2, 5", "SELECT name, regionkey + 2 FROM nation ORDER BY name LIMIT 5");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+    }
+
+    @Test
+    public void testQueryWithoutPreparedStatementIsNotCached()
+    {
+        String sql = "SELECT max(custkey) FROM customer";
+
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        long misses = getStats().getPlanCacheMisses().getTotalCount();
+        assertQuery(sql);
+        assertQuery(sql);
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits);
+        assertEquals(getStats().getPlanCacheMisses().getTotalCount(), misses);
+    }
+
+    @Test
+    public void testCurrentTimeIsNotCached()
+    {
+        Session session = prepare("SELECT count(*) FROM nation WHERE current_timestamp > TIMESTAMP '2000-01-01 00:00:00 UTC'");
+
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        long misses = getStats().getPlanCacheMisses().getTotalCount();
+        computeActual(session, "EXECUTE my_query");
+        computeActual(session, "EXECUTE my_query");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits);
+        assertEquals(getStats().getPlanCacheMisses().getTotalCount(), misses);
+    }
+
+    @Test
+    public void testDataDefinitionInvalidatesPlansReadingChangedTables()
+    {
+        assertUpdate("CREATE VIEW memory.default.plan_cache_regions AS SELECT * FROM tpch.tiny.region");
+        assertUpdate("CREATE VIEW memory.default.plan_cache_nations AS SELECT * FROM tpch.tiny.nation");
+        Session session = prepare("SELECT name FROM memory.default.plan_cache_regions WHERE regionkey = ?");
+
+        computeActual(session, "EXECUTE my_query USING 1");
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        long invalidations = getStats().getPlanCacheInvalidations().getTotalCount();
+
+        // a view the statement does not read
+        assertUpdate("CREATE OR REPLACE VIEW memory.default.plan_cache_nations AS SELECT * FROM tpch.tiny.nation WHERE nationkey > 0");
+        assertEquals(getStats().getPlanCacheInvalidations().getTotalCount(), invalidations);
+        computeActual(session, "EXECUTE my_query USING 1");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+
+        assertUpdate("CREATE OR REPLACE VIEW memory.default.plan_cache_regions AS SELECT * FROM tpch.tiny.region WHERE regionkey > 1");
+        assertEquals(getStats().getPlanCacheInvalidations().getTotalCount(), invalidations + 1);
+        assertQueryReturnsEmptyResult(session, "EXECUTE my_query USING 1");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits + 1);
+
+        assertUpdate("DROP VIEW memory.default.plan_cache_regions");
+        assertUpdate("DROP VIEW memory.default.plan_cache_nations");
+    }
+
+    @Test
+    public void testDisabledBySession()
+    {
+        Session session = Session.builder(prepare("SELECT count(*) FROM partsupp WHERE availqty > ?"))
+                .setSystemProperty(PLAN_CACHE_ENABLED, "false")
+                .build();
+
+        long hits = getStats().getPlanCacheHits().getTotalCount();
+        computeActual(session, "EXECUTE my_query USING 100");
+        computeActual(session, "EXECUTE my_query USING 100");
+        assertEquals(getStats().getPlanCacheHits().getTotalCount(), hits);
+    }
+
+    private static void assertOrderStatusPushedDown(Plan plan, String orderStatus)
+    {
+        TableScanNode tableScan = searchFrom(plan.getRoot())
+                .where(TableScanNode.class::isInstance)
+                .findOnlyElement();
+        TupleDomain<ColumnHandle> constraint = ((TpchTableHandle) tableScan.getTable().getConnectorHandle()).getConstraint();
+        assertEquals(constraint, TupleDomain.withColumnDomains(ImmutableMap.of(
+                new TpchColumnHandle("orderstatus", createVarcharType(1)),
+                Domain.singleValue(createVarcharType(1), utf8Slice(orderStatus)))));
+        // the predicate is enforced by the connector
+        assertFalse(searchFrom(plan.getRoot()).where(FilterNode.class::isInstance).matches());
+    }
+
+    private Session prepare(String sql)
+    {
+        return Session.builder(getSession())
+                .addPreparedStatement("my_query", sql)
+                .build();
+    }
+
+    private QueryManagerStats getStats()
+    {
+        return getDistributedQueryRunner().getCoordinator().getDispatchManager().getStats();
+    }
+}
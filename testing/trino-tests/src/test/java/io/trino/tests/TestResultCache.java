@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import io.trino.Session;
+import io.trino.execution.QueryInfo;
+import io.trino.execution.QueryManagerStats;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.MaterializedResult;
+import io.trino.testing.QueryRunner;
+import io.trino.testing.ResultWithQueryId;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.testng.annotations.Test;
+
+import static io.trino.SystemSessionProperties.RESULT_CACHE_ENABLED;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestResultCache
+        extends AbstractTestQueryFramework
+{
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        return TpchQueryRunnerBuilder.builder()
+                .setSingleCoordinatorProperty("query.result-cache.enabled", "true")
+                .build();
+    }
+
+    @Test
+    public void testRepeatedQueryIsAnsweredFromCache()
+    {
+        String sql = "SELECT orderstatus, count(*), sum(totalprice) FROM orders GROUP BY orderstatus";
+
+        long hits = getStats().getResultCacheHits().getTotalCount();
+        ResultWithQueryId<MaterializedResult> first = getDistributedQueryRunner().executeWithQueryId(getSession(), sql);
+        assertEquals(getStats().getResultCacheHits().getTotalCount(), hits);
+        assertTrue(getQueryInfo(first).getOutputStage().isPresent());
+
+        ResultWithQueryId<MaterializedResult> second = getDistributedQueryRunner().executeWithQueryId(getSession(), sql);
+        assertEquals(getStats().getResultCacheHits().getTotalCount(), hits + 1);
+        assertFalse(getQueryInfo(second).getOutputStage().isPresent());
+        assertEquals(second.getResult().getMaterializedRows(), first.getResult().getMaterializedRows());
+        assertEquals(second.getResult().getColumnNames(), first.getResult().getColumnNames());
+    }
+
+    @Test
+    public void testEmptyResult()
+    {
+        String sql = "SELECT orderkey FROM orders WHERE orderkey < 0";
+
+        assertQueryReturnsEmptyResult(sql);
+        long hits = getStats().getResultCacheHits().getTotalCount();
+        assertQueryReturnsEmptyResult(sql);
+        assertEquals(getStats().getResultCacheHits().getTotalCount(), hits + 1);
+    }
+
+    @Test
+    public void testNondeterministicQueryIsNotCached()
+    {
+        String sql = "SELECT count(*) FROM orders WHERE rand() < 2";
+
+        long hits = getStats().getResultCacheHits().getTotalCount();
+        long misses = getStats().getResultCacheMisses().getTotalCount();
+        assertQuery(sql, "SELECT count(*) FROM orders");
+        assertQuery(sql, "SELECT count(*) FROM orders");
+        assertEquals(getStats().getResultCacheHits().getTotalCount(), hits);
+        assertEquals(getStats().getResultCacheMisses().getTotalCount(), misses);
+    }
+
+    @Test
+    public void testDisabledBySession()
+    {
+        String sql = "SELECT count(*) FROM lineitem WHERE quantity > 10";
+        Session session = Session.builder(getSession())
+                .setSystemProperty(RESULT_CACHE_ENABLED, "false")
+                .build();
+
+        long hits = getStats().getResultCacheHits().getTotalCount();
+        computeActual(session, sql);
+        computeActual(session, sql);
+        assertEquals(getStats().getResultCacheHits().getTotalCount(), hits);
+    }
+
+    private QueryManagerStats getStats()
+    {
+        return getDistributedQueryRunner().getCoordinator().getDispatchManager().getStats();
+    }
+
+    private QueryInfo getQueryInfo(ResultWithQueryId<?> result)
+    {
+        return getDistributedQueryRunner().getCoordinator().getQueryManager().getFullQueryInfo(result.getQueryId());
+    }
+}
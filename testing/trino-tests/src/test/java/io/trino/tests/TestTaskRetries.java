@@ -0,0 +1,188 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.trino.tests;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.trino.Session;
+import io.trino.plugin.memory.MemoryPlugin;
+import io.trino.spi.Plugin;
+import io.trino.spi.TrinoException;
+import io.trino.spi.function.Description;
+import io.trino.spi.function.ScalarFunction;
+import io.trino.spi.function.SqlType;
+import io.trino.testing.AbstractTestQueryFramework;
+import io.trino.testing.DistributedQueryRunner;
+import io.trino.testing.QueryRunner;
+import io.trino.tests.tpch.TpchQueryRunnerBuilder;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.trino.SystemSessionProperties.RETRY_POLICY;
+import static io.trino.SystemSessionProperties.TASK_RETRY_ATTEMPTS;
+import static io.trino.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static io.trino.spi.StandardErrorCode.INVALID_FUNCTION_ARGUMENT;
+import static io.trino.spi.type.StandardTypes.BIGINT;
+
+@Test(singleThreaded = true)
+public class TestTaskRetries
+        extends AbstractTestQueryFramework
+{
+    private static final String QUERY = "SELECT sum(inject_failure(orderkey)) FROM orders";
+    private static final String EXPECTED = "SELECT sum(orderkey) FROM orders";
+
+    // number of rows that still fail when passed to inject_failure
+    private static final AtomicLong remainingFailures = new AtomicLong();
+    private static final AtomicLong remainingUserFailures = new AtomicLong();
+
+    private Path spoolPath;
+
+    @Override
+    protected QueryRunner createQueryRunner()
+            throws Exception
+    {
+        spoolPath = Files.createTempDirectory("task-output-spool");
+        DistributedQueryRunner queryRunner = TpchQueryRunnerBuilder.builder()
+                .setExtraProperties(ImmutableMap.of("task-output-spool.path", spoolPath.toString()))
+                .build();
+        queryRunner.installPlugin(new FailureInjectionPlugin());
+        queryRunner.installPlugin(new MemoryPlugin());
+        queryRunner.createCatalog("memory", "memory");
+        return queryRunner;
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void removeSpool()
+            throws Exception
+    {
+        deleteRecursively(spoolPath, ALLOW_INSECURE);
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void resetFailures()
+    {
+        remainingFailures.set(0);
+        remainingUserFailures.set(0);
+    }
+
+    @Test
+    public void testRetryAfterTaskFailure()
+    {
+        remainingFailures.set(1);
+        assertQuery(retrySession(4), QUERY, EXPECTED);
+    }
+
+    @Test
+    public void testRetryAfterRepeatedTaskFailures()
+    {
+        remainingFailures.set(3);
+        assertQuery(retrySession(4), QUERY, EXPECTED);
+    }
+
+    @Test
+    public void testRetryOfPartitionedStage()
+    {
+        remainingFailures.set(2);
+        assertQuery(
+                retrySession(4),
+                "SELECT orderstatus, sum(inject_failure(orderkey)) FROM orders GROUP BY orderstatus",
+                "SELECT orderstatus, sum(orderkey) FROM orders GROUP BY orderstatus");
+    }
+
+    @Test
+    public void testRetryOfJoin()
+    {
+        remainingFailures.set(2);
+        assertQuery(
+                retrySession(4),
+                "SELECT count(*), sum(l.quantity) FROM orders o JOIN lineitem l ON o.orderkey = inject_failure(l.orderkey) WHERE o.orderpriority = '1-URGENT'",
+                "SELECT count(*), sum(l.quantity) FROM orders o JOIN lineitem l ON o.orderkey = l.orderkey WHERE o.orderpriority = '1-URGENT'");
+    }
+
+    @Test
+    public void testNoRetryByDefault()
+    {
+        remainingFailures.set(1);
+        assertQueryFails(QUERY, "Injected failure");
+    }
+
+    @Test
+    public void testRetryAttemptsExhausted()
+    {
+        remainingFailures.set(Long.MAX_VALUE);
+        assertQueryFails(retrySession(2), QUERY, "Injected failure");
+    }
+
+    @Test
+    public void testNoRetryAfterUserError()
+    {
+        remainingUserFailures.set(1);
+        assertQueryFails(retrySession(4), QUERY, "Injected user error");
+    }
+
+    @Test
+    public void testNoRetryOfWriteWithoutConnectorSupport()
+    {
+        // the memory connector keeps the pages written by a failed task
+        assertUpdate("CREATE TABLE memory.default.test_no_retry_insert (orderkey bigint)");
+        remainingFailures.set(1);
+        assertQueryFails(retrySession(4), "INSERT INTO memory.default.test_no_retry_insert SELECT inject_failure(orderkey) FROM orders", "Injected failure");
+        assertUpdate("DROP TABLE memory.default.test_no_retry_insert");
+    }
+
+    private Session retrySession(int retryAttempts)
+    {
+        return Session.builder(getSession())
+                .setSystemProperty(RETRY_POLICY, "TASK")
+                .setSystemProperty(TASK_RETRY_ATTEMPTS, String.valueOf(retryAttempts))
+                .build();
+    }
+
+    public static class FailureInjectionPlugin
+            implements Plugin
+    {
+        @Override
+        public Set<Class<?>> getFunctions()
+        {
+            return ImmutableSet.of(FailureInjectionFunctions.class);
+        }
+    }
+
+    public static class FailureInjectionFunctions
+    {
+        private FailureInjectionFunctions() {}
+
+        @Description("Returns the value, or fails while failures are being injected")
+        @ScalarFunction(value = "inject_failure", deterministic = false)
+        @SqlType(BIGINT)
+        public static long injectFailure(@SqlType(BIGINT) long value)
+        {
+            if (remainingUserFailures.getAndDecrement() > 0) {
+                throw new TrinoException(INVALID_FUNCTION_ARGUMENT, "Injected user error");
+            }
+            if (remainingFailures.getAndDecrement() > 0) {
+                throw new TrinoException(GENERIC_INTERNAL_ERROR, "Injected failure");
+            }
+            return value;
+        }
+    }
+}